@@ -0,0 +1,96 @@
+package es.tid.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRICursor;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+
+/**
+ * Decoding and encoding of a BGP-LS UPDATE carrying Link NLRIs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BGP4Benchmark {
+
+	@Param({"1", "20", "100"})
+	public int links;
+
+	private BGP4Update update;
+	private byte[] bytes;
+
+	@Setup
+	public void setup() throws Exception {
+		update = Fixtures.bgpLSUpdate(links);
+		bytes = update.getBytes();
+	}
+
+	/**
+	 * Decode the UPDATE, leaving the NLRIs undecoded
+	 */
+	@Benchmark
+	public BGP4Update decode() throws Exception {
+		return new BGP4Update(bytes);
+	}
+
+	/**
+	 * Decode the UPDATE and build every NLRI
+	 */
+	@Benchmark
+	public void decodeAllNLRIs(Blackhole bh) throws Exception {
+		BGP4Update decoded = new BGP4Update(bytes);
+		for (PathAttribute pathAttribute : decoded.getPathAttributes()) {
+			if (pathAttribute instanceof BGP_LS_MP_Reach_Attribute) {
+				bh.consume(((BGP_LS_MP_Reach_Attribute) pathAttribute).getLsNLRIList().size());
+			}
+		}
+	}
+
+	/**
+	 * Decode the UPDATE and walk the NLRI headers with the cursor
+	 */
+	@Benchmark
+	public void scanNLRIs(Blackhole bh) throws Exception {
+		BGP4Update decoded = new BGP4Update(bytes);
+		for (PathAttribute pathAttribute : decoded.getPathAttributes()) {
+			if (pathAttribute instanceof BGP_LS_MP_Reach_Attribute) {
+				LinkStateNLRICursor cursor = ((BGP_LS_MP_Reach_Attribute) pathAttribute).nlriCursor();
+				while (cursor.next()) {
+					bh.consume(cursor.getIdentifier());
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public byte[] encode() throws Exception {
+		update.encode();
+		return update.getBytes();
+	}
+
+	@Benchmark
+	public byte[] roundTrip() throws Exception {
+		BGP4Update decoded = new BGP4Update(bytes);
+		decoded.encode();
+		return decoded.getBytes();
+	}
+
+}
@@ -0,0 +1,236 @@
+package es.tid.benchmarks;
+
+import java.net.Inet4Address;
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.update.fields.LinkNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.ProtocolIDCodes;
+import es.tid.bgp.bgp4.update.tlv.RemoteNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.node_link_prefix_descriptor_subTLVs.IPv4InterfaceAddressLinkDescriptorsSubTLV;
+import es.tid.bgp.bgp4.update.tlv.node_link_prefix_descriptor_subTLVs.IPv4NeighborAddressLinkDescriptorSubTLV;
+import es.tid.bgp.bgp4.update.tlv.node_link_prefix_descriptor_subTLVs.LinkLocalRemoteIdentifiersLinkDescriptorSubTLV;
+import es.tid.ospf.ospfv2.OSPFv2LinkStateUpdatePacket;
+import es.tid.ospf.ospfv2.lsa.LSA;
+import es.tid.ospf.ospfv2.lsa.OSPFTEv2LSA;
+import es.tid.pce.pcep.constructs.PCEPIntiatedLSP;
+import es.tid.pce.pcep.constructs.Path;
+import es.tid.pce.pcep.constructs.StateReport;
+import es.tid.pce.pcep.constructs.UpdateRequest;
+import es.tid.pce.pcep.messages.PCEPInitiate;
+import es.tid.pce.pcep.messages.PCEPReport;
+import es.tid.pce.pcep.messages.PCEPUpdate;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.SRP;
+import es.tid.pce.pcep.objects.subobjects.SREROSubobject;
+import es.tid.rsvp.messages.RSVPResvMessage;
+import es.tid.rsvp.messages.te.RSVPTEPathMessage;
+import es.tid.rsvp.constructs.FFFlowDescriptor;
+import es.tid.rsvp.constructs.FlowDescriptor;
+import es.tid.rsvp.objects.ERO;
+import es.tid.rsvp.objects.FilterSpecIPv4;
+import es.tid.rsvp.objects.FlowSpec;
+import es.tid.rsvp.objects.RSVPObjectParameters;
+import es.tid.rsvp.objects.Style;
+import es.tid.rsvp.objects.subobjects.IPv4prefixEROSubobject;
+import es.tid.tests.TestCommons;
+
+/**
+ * Messages used by the benchmarks. The fields are filled with the
+ * generators of the unit tests ({@link TestCommons}) and the lists are
+ * grown to the requested size, so that the cost per element dominates.
+ */
+public class Fixtures {
+
+	private static Inet4Address address(int i) throws Exception {
+		return (Inet4Address) Inet4Address.getByName("10." + ((i >> 16) & 0xFF) + "." + ((i >> 8) & 0xFF) + "." + (i & 0xFF));
+	}
+
+	/**
+	 * BGP-LS UPDATE with one MP_REACH_NLRI attribute carrying links Link NLRIs
+	 * and a BGP-LS attribute.
+	 */
+	public static BGP4Update bgpLSUpdate(int links) throws Exception {
+		BGP_LS_MP_Reach_Attribute mpReach = new BGP_LS_MP_Reach_Attribute();
+		mpReach.setNextHop(Inet4Address.getByName("1.1.1.1"));
+		mpReach.setNextHopLength(4);
+		LinkedList<LinkStateNLRI> nlris = new LinkedList<LinkStateNLRI>();
+		for (int i = 0; i < links; ++i) {
+			LinkNLRI link = new LinkNLRI();
+			link.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+			link.setIdentifier(i);
+			LocalNodeDescriptorsTLV local = new LocalNodeDescriptorsTLV();
+			TestCommons.createAllFields(local, 0);
+			link.setLocalNodeDescriptors(local);
+			RemoteNodeDescriptorsTLV remote = new RemoteNodeDescriptorsTLV();
+			TestCommons.createAllFields(remote, 1);
+			link.setRemoteNodeDescriptorsTLV(remote);
+			LinkLocalRemoteIdentifiersLinkDescriptorSubTLV ids = new LinkLocalRemoteIdentifiersLinkDescriptorSubTLV();
+			ids.setLinkLocalIdentifier(i);
+			ids.setLinkRemoteIdentifier(i + 1);
+			link.setLinkIdentifiersTLV(ids);
+			IPv4InterfaceAddressLinkDescriptorsSubTLV ifAddress = new IPv4InterfaceAddressLinkDescriptorsSubTLV();
+			TestCommons.createAllFields(ifAddress, 0);
+			link.setIpv4InterfaceAddressTLV(ifAddress);
+			IPv4NeighborAddressLinkDescriptorSubTLV neighborAddress = new IPv4NeighborAddressLinkDescriptorSubTLV();
+			TestCommons.createAllFields(neighborAddress, 0);
+			link.setIpv4NeighborAddressTLV(neighborAddress);
+			nlris.add(link);
+		}
+		mpReach.setLsNLRIList(nlris);
+		LinkStateAttribute linkState = new LinkStateAttribute();
+		TestCommons.createAllFields(linkState, 1);
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+		pathAttributes.add(mpReach);
+		pathAttributes.add(linkState);
+		BGP4Update update = new BGP4Update();
+		update.setPathAttributes(pathAttributes);
+		update.encode();
+		return update;
+	}
+
+	/**
+	 * SR-ERO with hops SR subobjects
+	 */
+	public static ExplicitRouteObject srEro(int hops) throws Exception {
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		for (int i = 0; i < hops; ++i) {
+			SREROSubobject hop = new SREROSubobject();
+			TestCommons.createAllFields(hop, 0);
+			hop.setSID(16000 + i);
+			ero.addEROSubobject(hop);
+		}
+		return ero;
+	}
+
+	private static SRP srp(int i) {
+		SRP srp = new SRP();
+		srp.setSRP_ID_number(i);
+		return srp;
+	}
+
+	private static LSP lsp(int i) {
+		LSP lsp = new LSP();
+		lsp.setLspId(i);
+		return lsp;
+	}
+
+	/**
+	 * PCRpt with lsps state reports, each one with an SR-ERO of hops hops
+	 */
+	public static PCEPReport report(int lsps, int hops) throws Exception {
+		PCEPReport report = new PCEPReport();
+		for (int i = 0; i < lsps; ++i) {
+			StateReport stateReport = new StateReport();
+			stateReport.setSrp(srp(i));
+			stateReport.setLsp(lsp(i));
+			Path path = new Path();
+			path.setEro(srEro(hops));
+			stateReport.setPath(path);
+			report.addStateReport(stateReport);
+		}
+		report.encode();
+		return report;
+	}
+
+	/**
+	 * PCUpd with lsps update requests, each one with an SR-ERO of hops hops
+	 */
+	public static PCEPUpdate update(int lsps, int hops) throws Exception {
+		PCEPUpdate update = new PCEPUpdate();
+		for (int i = 0; i < lsps; ++i) {
+			UpdateRequest updateRequest = new UpdateRequest();
+			updateRequest.setSrp(srp(i));
+			updateRequest.setLsp(lsp(i));
+			Path path = new Path();
+			path.setEro(srEro(hops));
+			updateRequest.setPath(path);
+			update.addStateReport(updateRequest);
+		}
+		update.encode();
+		return update;
+	}
+
+	/**
+	 * PCInitiate with lsps initiated LSPs, each one with an SR-ERO of hops hops
+	 */
+	public static PCEPInitiate initiate(int lsps, int hops) throws Exception {
+		PCEPInitiate initiate = new PCEPInitiate();
+		for (int i = 0; i < lsps; ++i) {
+			PCEPIntiatedLSP initiatedLSP = new PCEPIntiatedLSP();
+			initiatedLSP.setSrp(srp(i));
+			initiatedLSP.setLsp(lsp(i));
+			initiatedLSP.setEro(srEro(hops));
+			initiate.getPcepIntiatedLSPList().add(initiatedLSP);
+		}
+		initiate.encode();
+		return initiate;
+	}
+
+	/**
+	 * RSVP-TE Path with all the objects and an ERO of hops hops
+	 */
+	public static RSVPTEPathMessage rsvpPath(int hops) throws Exception {
+		RSVPTEPathMessage path = new RSVPTEPathMessage();
+		TestCommons.createAllFields(path, 0, false, true);
+		TestCommons.createAllFields(path, 1, true, true);
+		ERO ero = new ERO();
+		for (int i = 0; i < hops; ++i) {
+			IPv4prefixEROSubobject hop = new IPv4prefixEROSubobject();
+			hop.setIpv4address(address(i));
+			hop.setPrefix(32);
+			ero.addEROSubobject(hop);
+		}
+		path.setEro(ero);
+		path.encode();
+		return path;
+	}
+
+	/**
+	 * RSVP Resv with all the objects and flows flow descriptors
+	 */
+	public static RSVPResvMessage rsvpResv(int flows) throws Exception {
+		RSVPResvMessage resv = new RSVPResvMessage();
+		TestCommons.createAllFields(resv, 0);
+		resv.setStyle(new Style(0, RSVPObjectParameters.RSVP_STYLE_OPTION_VECTOR_FF_STYLE));
+		LinkedList<FlowDescriptor> flowDescriptors = new LinkedList<FlowDescriptor>();
+		for (int i = 0; i < flows; ++i) {
+			FlowSpec flowSpec = new FlowSpec();
+			TestCommons.createAllFields(flowSpec, 0);
+			FilterSpecIPv4 filterSpec = new FilterSpecIPv4();
+			TestCommons.createAllFields(filterSpec, 0);
+			// the descriptor takes its length from the encoded objects
+			flowSpec.encode();
+			filterSpec.encode();
+			flowDescriptors.add(new FFFlowDescriptor(flowSpec, filterSpec, i == 0));
+		}
+		resv.setFlowDescriptors(flowDescriptors);
+		resv.encode();
+		return resv;
+	}
+
+	/**
+	 * OSPF LS Update with lsas OSPF-TE LSAs
+	 */
+	public static OSPFv2LinkStateUpdatePacket ospfUpdate(int lsas) throws Exception {
+		OSPFv2LinkStateUpdatePacket packet = new OSPFv2LinkStateUpdatePacket();
+		TestCommons.createAllFields(packet, 0);
+		LinkedList<LSA> lsaList = new LinkedList<LSA>();
+		for (int i = 0; i < lsas; ++i) {
+			OSPFTEv2LSA lsa = new OSPFTEv2LSA();
+			TestCommons.createAllFields(lsa, i % 2);
+			lsaList.add(lsa);
+		}
+		packet.setLSAlist(lsaList);
+		packet.encode();
+		return packet;
+	}
+
+}
@@ -0,0 +1,60 @@
+package es.tid.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.tid.ospf.ospfv2.OSPFv2LinkStateUpdatePacket;
+
+/**
+ * Decoding and encoding of an OSPFv2 LS Update carrying OSPF-TE LSAs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OSPFBenchmark {
+
+	@Param({"1", "50"})
+	public int lsas;
+
+	private OSPFv2LinkStateUpdatePacket packet;
+	private byte[] bytes;
+
+	@Setup
+	public void setup() throws Exception {
+		packet = Fixtures.ospfUpdate(lsas);
+		bytes = packet.getBytes();
+	}
+
+	@Benchmark
+	public OSPFv2LinkStateUpdatePacket decode() throws Exception {
+		return new OSPFv2LinkStateUpdatePacket(bytes, 0);
+	}
+
+	@Benchmark
+	public byte[] encode() throws Exception {
+		packet.encode();
+		return packet.getBytes();
+	}
+
+	@Benchmark
+	public byte[] roundTrip() throws Exception {
+		OSPFv2LinkStateUpdatePacket decoded = new OSPFv2LinkStateUpdatePacket(bytes, 0);
+		decoded.encode();
+		return decoded.getBytes();
+	}
+
+}
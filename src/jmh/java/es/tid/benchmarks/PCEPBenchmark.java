@@ -0,0 +1,172 @@
+package es.tid.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import es.tid.pce.pcep.messages.PCEPInitiate;
+import es.tid.pce.pcep.messages.PCEPReport;
+import es.tid.pce.pcep.messages.PCEPUpdate;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.SRExplicitRouteObject;
+import es.tid.protocol.commons.framing.PCEPFrameDecoder;
+import es.tid.protocol.commons.framing.PCEPFramer;
+
+/**
+ * Decoding and encoding of PCRpt, PCUpd and PCInitiate messages with SR-EROs,
+ * framing of a stream of PCRpt messages, and the SR-ERO as subobjects or as
+ * primitive arrays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PCEPBenchmark {
+
+	@Param({"1", "50"})
+	public int lsps;
+
+	@Param({"4", "16"})
+	public int hops;
+
+	private PCEPReport report;
+	private PCEPReport reusedReport;
+	private PCEPUpdate update;
+	private PCEPInitiate initiate;
+	private byte[] reportBytes;
+	private byte[] updateBytes;
+	private byte[] initiateBytes;
+	private byte[] stream;
+	private PCEPFramer framer;
+	private Blackhole blackhole;
+	private PCEPFrameDecoder decoder;
+	private ExplicitRouteObject ero;
+	private SRExplicitRouteObject srEro;
+	private byte[] eroBytes;
+	private byte[] eroBuffer;
+
+	@Setup
+	public void setup(Blackhole bh) throws Exception {
+		report = Fixtures.report(lsps, hops);
+		update = Fixtures.update(lsps, hops);
+		initiate = Fixtures.initiate(lsps, hops);
+		reportBytes = report.getBytes();
+		reusedReport = new PCEPReport();
+		updateBytes = update.getBytes();
+		initiateBytes = initiate.getBytes();
+		stream = new byte[reportBytes.length * 16];
+		for (int i = 0; i < 16; ++i) {
+			System.arraycopy(reportBytes, 0, stream, i * reportBytes.length, reportBytes.length);
+		}
+		framer = new PCEPFramer();
+		blackhole = bh;
+		decoder = new PCEPFrameDecoder(msg -> blackhole.consume(msg));
+		srEro = new SRExplicitRouteObject(hops);
+		for (int i = 0; i < hops; ++i) {
+			srEro.addIPv4NodeSegment((16000 + i) << 12, SRExplicitRouteObject.FLAG_M, 0x0A000001 + i);
+		}
+		ero = srEro.toERO();
+		ero.encode();
+		eroBytes = ero.getBytes();
+		eroBuffer = new byte[eroBytes.length];
+	}
+
+	@Benchmark
+	public PCEPReport decodeReport() throws Exception {
+		return new PCEPReport(reportBytes);
+	}
+
+	/**
+	 * Decode the PCRpt into the same instance, reusing its objects
+	 */
+	@Benchmark
+	public PCEPReport decodeReportInto() throws Exception {
+		reusedReport.decodeInto(reportBytes);
+		return reusedReport;
+	}
+
+	@Benchmark
+	public byte[] encodeReport() throws Exception {
+		report.encode();
+		return report.getBytes();
+	}
+
+	@Benchmark
+	public byte[] roundTripReport() throws Exception {
+		PCEPReport decoded = new PCEPReport(reportBytes);
+		decoded.encode();
+		return decoded.getBytes();
+	}
+
+	@Benchmark
+	public PCEPUpdate decodeUpdate() throws Exception {
+		return new PCEPUpdate(updateBytes);
+	}
+
+	@Benchmark
+	public byte[] encodeUpdate() throws Exception {
+		update.encode();
+		return update.getBytes();
+	}
+
+	@Benchmark
+	public PCEPInitiate decodeInitiate() throws Exception {
+		return new PCEPInitiate(initiateBytes);
+	}
+
+	@Benchmark
+	public byte[] encodeInitiate() throws Exception {
+		initiate.encode();
+		return initiate.getBytes();
+	}
+
+	@Benchmark
+	public ExplicitRouteObject decodeERO() throws Exception {
+		return new ExplicitRouteObject(eroBytes, 0);
+	}
+
+	@Benchmark
+	public SRExplicitRouteObject decodeSRERO() throws Exception {
+		return new SRExplicitRouteObject(eroBytes, 0);
+	}
+
+	@Benchmark
+	public byte[] encodeERO() throws Exception {
+		ero.encode();
+		return ero.getBytes();
+	}
+
+	/**
+	 * Encode the SR-ERO into a preallocated buffer
+	 */
+	@Benchmark
+	public byte[] encodeSRERO() {
+		srEro.encodedLength();
+		srEro.encodeTo(eroBuffer, 0);
+		return eroBuffer;
+	}
+
+	/**
+	 * Frame and decode 16 PCRpt messages read in chunks of 1500 bytes
+	 */
+	@Benchmark
+	public void frameReports() throws Exception {
+		for (int offset = 0; offset < stream.length; offset += 1500) {
+			framer.process(stream, offset, Math.min(1500, stream.length - offset), decoder);
+		}
+	}
+
+}
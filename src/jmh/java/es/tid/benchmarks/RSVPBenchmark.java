@@ -0,0 +1,79 @@
+package es.tid.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.tid.rsvp.messages.RSVPResvMessage;
+import es.tid.rsvp.messages.te.RSVPTEPathMessage;
+
+/**
+ * Decoding and encoding of RSVP-TE Path and RSVP Resv messages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RSVPBenchmark {
+
+	/**
+	 * Hops of the ERO of the Path message and flow descriptors of the Resv message
+	 */
+	@Param({"4", "32"})
+	public int size;
+
+	private RSVPTEPathMessage path;
+	private RSVPResvMessage resv;
+	private byte[] pathBytes;
+	private byte[] resvBytes;
+
+	@Setup
+	public void setup() throws Exception {
+		path = Fixtures.rsvpPath(size);
+		resv = Fixtures.rsvpResv(size);
+		pathBytes = path.getBytes();
+		resvBytes = resv.getBytes();
+	}
+
+	@Benchmark
+	public RSVPTEPathMessage decodePath() throws Exception {
+		return new RSVPTEPathMessage(pathBytes, pathBytes.length);
+	}
+
+	@Benchmark
+	public byte[] encodePath() throws Exception {
+		path.encode();
+		return path.getBytes();
+	}
+
+	@Benchmark
+	public byte[] roundTripPath() throws Exception {
+		RSVPTEPathMessage decoded = new RSVPTEPathMessage(pathBytes, pathBytes.length);
+		decoded.encode();
+		return decoded.getBytes();
+	}
+
+	@Benchmark
+	public RSVPResvMessage decodeResv() throws Exception {
+		return new RSVPResvMessage(resvBytes, resvBytes.length);
+	}
+
+	@Benchmark
+	public byte[] encodeResv() throws Exception {
+		resv.encode();
+		return resv.getBytes();
+	}
+
+}
@@ -37,6 +37,15 @@ public class BGP4Keepalive extends BGP4Message{
 	public BGP4Keepalive(byte[] bytes){
 		super(bytes);
 	}
+
+	/**
+	 * Construct for decoding without copying (see {@link BGP4Message#BGP4Message(byte[], int)})
+	 * @param bytes buffer containing the message
+	 * @param offset position of the message in the buffer
+	 */
+	public BGP4Keepalive(byte[] bytes, int offset){
+		super(bytes, offset);
+	}
 	
 	public void encode(){
 		this.setMessageLength(BGPHeaderLength);
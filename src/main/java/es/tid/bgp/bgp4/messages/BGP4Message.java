@@ -5,6 +5,7 @@ import java.util.Arrays;
 import org.slf4j.Logger;
 
 import es.tid.bgp.bgp4.BGP4Element;
+import es.tid.protocol.commons.ByteHandler;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -73,6 +74,12 @@ public abstract class BGP4Message  implements BGP4Element {
 	 * The bytes of the message
 	 */
 	protected byte messageBytes[]; 
+
+	/**
+	 * Position of the message inside messageBytes. It is only non-zero when
+	 * the message is a view over a receive buffer (see {@link #BGP4Message(byte[], int)}).
+	 */
+	protected int messageOffset;
 	
 	/**
 	 *  MessageType:          
@@ -96,6 +103,14 @@ public abstract class BGP4Message  implements BGP4Element {
 	
 
 	public static int BGPHeaderLength = 19;
+	/**
+	 * Maximum length of a message
+	 */
+	public static final int MAX_MESSAGE_LENGTH = 4096;
+	/**
+	 * Maximum length of a message once the Extended Message capability (RFC 8654) is negotiated
+	 */
+	public static final int MAX_EXTENDED_MESSAGE_LENGTH = 65535;
 	public static int BGPMarkerLength = 16;
 	public void setMessageLength(int messageLength) {
 		this.messageLength = messageLength;
@@ -125,15 +140,55 @@ public abstract class BGP4Message  implements BGP4Element {
 		System.arraycopy(bytes, 0, messageBytes, 0, messageLength);
 		messageType=messageBytes[18]&0xFF;		
 	}
+
+	/**
+	 * Creates a BGP message that is a view over a receive buffer.
+	 * Decodes the message header. Nothing is copied: the message and all the
+	 * elements decoded from it reference the buffer until they are encoded
+	 * or detached, so the caller must not overwrite the buffer before that.
+	 * @param bytes Buffer containing the message
+	 * @param offset Position of the first byte of the marker in the buffer
+	 */
+	public BGP4Message(byte []bytes, int offset){
+		messageLength=(bytes[offset+16] & 0xFF)* 256 + (bytes[offset+17]& 0xFF);
+		if (bytes.length<offset+messageLength){
+			log.warn("Bytes and length in BGP header do not match");
+		}
+		this.messageBytes=bytes;
+		this.messageOffset=offset;
+		messageType=messageBytes[offset+18]&0xFF;
+	}
 	
 
 	/**
-	 * Get the message Bytes
+	 * Get the message Bytes. If the message is a view over a receive buffer,
+	 * its bytes are copied first (see {@link #detach()}).
 	 */
 	public byte[] getBytes() {
+		if (isView()){
+			detach();
+		}
 		return messageBytes;
 	}
 
+	/**
+	 * Copy the bytes of the message out of the receive buffer it was decoded from.
+	 * Nothing is done if the message already owns its bytes.
+	 */
+	public void detach() {
+		if (isView()){
+			messageBytes = ByteHandler.copyOfRange(messageBytes, messageOffset, messageLength);
+			messageOffset = 0;
+		}
+	}
+
+	/**
+	 * @return true if the message is a view over a buffer that it does not own
+	 */
+	public boolean isView() {
+		return messageBytes != null && (messageOffset != 0 || messageBytes.length != messageLength);
+	}
+
 
 	/**
 	 * Get the message type 
@@ -156,6 +211,7 @@ public abstract class BGP4Message  implements BGP4Element {
 
 		
 	protected void encodeHeader() { 
+		messageOffset=0;
 		for (int i = 0;i<16;i++)
 		messageBytes[i]=(byte)0xFF;
 		messageBytes[16]=(byte)((messageLength>>8) & 0xFF);
@@ -175,7 +231,7 @@ public abstract class BGP4Message  implements BGP4Element {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + Arrays.hashCode(messageBytes);
+		result = prime * result + ByteHandler.hashCode(messageBytes, messageOffset, messageLength);
 		result = prime * result + messageLength;
 		result = prime * result + messageType;
 		return result;
@@ -190,10 +246,13 @@ public abstract class BGP4Message  implements BGP4Element {
 		if (getClass() != obj.getClass())
 			return false;
 		BGP4Message other = (BGP4Message) obj;
-		if (!Arrays.equals(messageBytes, other.messageBytes))
-			return false;
 		if (messageLength != other.messageLength)
 			return false;
+		if (messageBytes == null || other.messageBytes == null) {
+			if (messageBytes != other.messageBytes)
+				return false;
+		} else if (!Arrays.equals(messageBytes, messageOffset, messageOffset + messageLength, other.messageBytes, other.messageOffset, other.messageOffset + other.messageLength))
+			return false;
 		if (messageType != other.messageType)
 			return false;
 		return true;
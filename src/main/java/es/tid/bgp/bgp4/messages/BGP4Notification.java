@@ -1,4 +1,7 @@
 package es.tid.bgp.bgp4.messages;
+
+import java.util.Arrays;
+
 /**
  * BGP Notification Message Format (RFC 4271).
  * <p>From RFC 4271, Section 4.5</p>
@@ -92,10 +95,98 @@ package es.tid.bgp.bgp4.messages;
  */
 public class BGP4Notification extends BGP4Message {
 
+	/**
+	 * Length of the Error code and Error subcode
+	 */
+	private static final int NOTIFICATION_FIXED_LENGTH = 2;
+
+	private int errorCode;
+
+	private int errorSubcode;
+
+	private byte[] data;
+
+	/**
+	 * Create new Notification
+	 */
+	public BGP4Notification() {
+		this.setMessageType(BGP4MessageTypes.MESSAGE_NOTIFICATION);
+		data = new byte[0];
+	}
+
+	/**
+	 * Decodes a Notification, copying the bytes
+	 * @param bytes bytes of the message
+	 */
+	public BGP4Notification(byte[] bytes) {
+		super(bytes);
+		decode();
+	}
+
+	/**
+	 * Construct for decoding without copying (see {@link BGP4Message#BGP4Message(byte[], int)})
+	 * @param bytes buffer containing the message
+	 * @param offset position of the message in the buffer
+	 */
+	public BGP4Notification(byte[] bytes, int offset) {
+		super(bytes, offset);
+		decode();
+	}
+
 	@Override
 	public void encode() {
-		// TODO Auto-generated method stub
-		
+		this.setMessageLength(BGPHeaderLength + NOTIFICATION_FIXED_LENGTH + data.length);
+		messageBytes = new byte[this.getLength()];
+		encodeHeader();
+		int offset = BGPHeaderLength;
+		messageBytes[offset] = (byte) errorCode;
+		messageBytes[offset + 1] = (byte) errorSubcode;
+		System.arraycopy(data, 0, messageBytes, offset + NOTIFICATION_FIXED_LENGTH, data.length);
+	}
+
+	private void decode() {
+		int offset = messageOffset + BGPHeaderLength;
+		int dataLength = this.getLength() - BGPHeaderLength - NOTIFICATION_FIXED_LENGTH;
+		if (dataLength < 0) {
+			log.warn("NOTIFICATION shorter than 21 octets");
+			data = new byte[0];
+			return;
+		}
+		errorCode = messageBytes[offset] & 0xFF;
+		errorSubcode = messageBytes[offset + 1] & 0xFF;
+		data = Arrays.copyOfRange(messageBytes, offset + NOTIFICATION_FIXED_LENGTH, offset + NOTIFICATION_FIXED_LENGTH + dataLength);
+	}
+
+	public int getErrorCode() {
+		return errorCode;
+	}
+
+	public void setErrorCode(int errorCode) {
+		this.errorCode = errorCode;
+	}
+
+	public int getErrorSubcode() {
+		return errorSubcode;
+	}
+
+	public void setErrorSubcode(int errorSubcode) {
+		this.errorSubcode = errorSubcode;
+	}
+
+	/**
+	 * @return Data field, used to diagnose the reason of the NOTIFICATION
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+	public void setData(byte[] data) {
+		this.data = data;
+	}
+
+	@Override
+	public String toString() {
+		return "NOTIFICATION [errorCode=" + errorCode + ", errorSubcode=" + errorSubcode + ", data=" + data.length + " bytes]";
 	}
 
 }
@@ -4,6 +4,7 @@ import java.net.Inet4Address;
 import java.net.UnknownHostException;
 import java.util.LinkedList;
 
+import es.tid.bgp.bgp4.open.BGP4Capability;
 import es.tid.bgp.bgp4.open.BGP4CapabilitiesOptionalParameter;
 import es.tid.bgp.bgp4.open.BGP4OptionalParameter;
 import es.tid.bgp.bgp4.open.BGP4OptionalParametersTypes;
@@ -154,16 +155,25 @@ public class BGP4Open extends BGP4Message {
 		
 	}
 
+	/**
+	 * Construct for decoding without copying (see {@link BGP4Message#BGP4Message(byte[], int)})
+	 * @param bytes buffer containing the BGP4 Open message to decode
+	 * @param offset position of the message in the buffer
+	 */
+	public BGP4Open (byte[] bytes, int offset) {
+		super(bytes, offset);
+		parametersList = new LinkedList<BGP4OptionalParameter>();
+		decode();
+	}
+
 	public void encode(){// throws PCEPProtocolViolationException {
 		//BGPOpenMessageMandatoryFileds=10;
 		int len=BGPHeaderLength+10;		
 		int optionalParameterLength = 0;
-		int num_parameters = parametersList.size();
-		for (int i=0;i<num_parameters;++i){
-			BGP4OptionalParameter bgp4OptionalParameter = parametersList.get(i); 
+		for (BGP4OptionalParameter bgp4OptionalParameter : parametersList){
 			bgp4OptionalParameter.encode();
-			len=len+parametersList.get(i).getLength();
-			optionalParameterLength = optionalParameterLength + parametersList.get(i).getLength();
+			len=len+bgp4OptionalParameter.getLength();
+			optionalParameterLength = optionalParameterLength + bgp4OptionalParameter.getLength();
 		}
 		this.setMessageLength(len);
 		messageBytes=new byte[len];
@@ -181,16 +191,16 @@ public class BGP4Open extends BGP4Message {
 		offset=offset+4;
 		messageBytes[offset] = (byte)(optionalParameterLength & 0xff);
 		offset++;
-		for (int i=0;i<parametersList.size();++i){
-			System.arraycopy(parametersList.get(i).getBytes(), 0, messageBytes, offset, parametersList.get(i).getLength());
-			offset=offset+parametersList.get(i).getLength();
+		for (BGP4OptionalParameter bgp4OptionalParameter : parametersList){
+			System.arraycopy(bgp4OptionalParameter.getBytes(), 0, messageBytes, offset, bgp4OptionalParameter.getLength());
+			offset=offset+bgp4OptionalParameter.getLength();
 		}
 	
 	}
 	
 	
 	public void decode() {
-		int offset = BGPHeaderLength;
+		int offset = messageOffset + BGPHeaderLength;
 		int optionalParameterLength = 0;
 		version = (int)((messageBytes[offset] & 0xFF));		
 		offset=offset+1;
@@ -218,7 +228,7 @@ public class BGP4Open extends BGP4Message {
 				int optionalParameterType = BGP4OptionalParameter.getType(messageBytes, offset);
 				int parameterLength = BGP4OptionalParameter.getLength(messageBytes, offset);				
 				if (optionalParameterType == BGP4OptionalParametersTypes.CAPABILITY_OPTIONAL_PARAMETER){
-					BGP4CapabilitiesOptionalParameter cop = new BGP4CapabilitiesOptionalParameter(this.getBytes(),offset);
+					BGP4CapabilitiesOptionalParameter cop = new BGP4CapabilitiesOptionalParameter(messageBytes,offset);
 					parametersList.add(cop);
 				}
 				offset = offset + parameterLength;
@@ -228,7 +238,7 @@ public class BGP4Open extends BGP4Message {
 
 			
 		}
-		if (offset> this.getLength()){
+		if (offset> messageOffset + this.getLength()){
 			log.warn("Empty BGP OPEN message");
 			//throw new PCEPProtocolViolationException();
 		}
@@ -266,6 +276,37 @@ public class BGP4Open extends BGP4Message {
 		BGPIdentifier = bGPIdentifier;
 	}
 
+	/**
+	 * @param capabilityCode capability code (see {@link BGP4OptionalParametersTypes})
+	 * @return true if the message advertises the capability
+	 */
+	public boolean hasCapability(int capabilityCode) {
+		for (BGP4OptionalParameter bgp4OptionalParameter : parametersList){
+			if (bgp4OptionalParameter instanceof BGP4CapabilitiesOptionalParameter){
+				for (BGP4Capability capability : ((BGP4CapabilitiesOptionalParameter) bgp4OptionalParameter).getCapabilityList()){
+					if (capability.getCapabitityCode() == capabilityCode){
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Maximum length of the messages that the sender of this OPEN accepts:
+	 * 65535 octets if it advertises the Extended Message capability (RFC 8654),
+	 * 4096 otherwise. The messages sent to a peer are limited by the OPEN
+	 * received from it, and the messages received by the OPEN sent to it.
+	 * @return maximum message length
+	 */
+	public int getMaxMessageLength() {
+		if (hasCapability(BGP4OptionalParametersTypes.CAPABILITY_CODE_EXTENDED_MESSAGE)){
+			return MAX_EXTENDED_MESSAGE_LENGTH;
+		}
+		return MAX_MESSAGE_LENGTH;
+	}
+
 	public LinkedList<BGP4OptionalParameter> getParametersList() {
 		return parametersList;
 	}
@@ -324,8 +365,8 @@ public class BGP4Open extends BGP4Message {
 		sb.append("> HoldTime: "+ holdTime+"\n");
 		sb.append("> BGPIdentifier: "+ BGPIdentifier+"\n");
 		if (parametersList != null){
-		for (int i=0;i<parametersList.size();++i){
-			sb.append("> "+ parametersList.get(i).toString()+"\n");
+		for (BGP4OptionalParameter bgp4OptionalParameter : parametersList){
+			sb.append("> "+ bgp4OptionalParameter.toString()+"\n");
 		}
 		}
 		return sb.toString();
@@ -4,6 +4,8 @@ import es.tid.bgp.bgp4.update.fields.*;
 import es.tid.bgp.bgp4.update.fields.pathAttributes.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * <b> BGP4 Update Message (RFC 4271). </b>
@@ -70,6 +72,21 @@ public class BGP4Update extends BGP4Message
 	 * Network Layer Reachability Information
 	 */
 	private NLRI                     nlri;
+	/**
+	 * All the NLRIs of the message, nlri is the first one.
+	 * It is null if only nlri is set.
+	 */
+	private List<NLRI>               nlriList;
+
+	/**
+	 * Interner of the decoded path attributes, null if they are not interned
+	 */
+	private PathAttributeInterner attributeInterner;
+
+	/**
+	 * TLV types of the BGP-LS attributes decoded, the others are decoded when read
+	 */
+	private LinkStateAttributeDecodeProfile linkStateDecodeProfile = LinkStateAttributeDecodeProfile.ALL;
 
 	/**
 	 * Construct for encoding
@@ -89,13 +106,74 @@ public class BGP4Update extends BGP4Message
 	public BGP4Update(byte[] bytes)
 	{
 		super(bytes);
-		this.messageBytes = new byte[bytes.length];
-		System.arraycopy(bytes, 0, this.messageBytes, 0, bytes.length);
 		decode();
 	}
 
+	/**
+	 * Construct for decoding without copying. The message, its path attributes
+	 * and NLRIs are views over the buffer (see {@link #detach()}).
+	 *
+	 * @param bytes buffer containing the message
+	 * @param offset position of the message in the buffer
+	 */
+	public BGP4Update(byte[] bytes, int offset)
+	{
+		super(bytes, offset);
+		decode();
+	}
+
+	/**
+	 * Construct for decoding without copying, sharing the repeated path
+	 * attributes through an interner (see {@link #BGP4Update(byte[], int)}).
+	 * The interned attributes must not be modified.
+	 *
+	 * @param bytes buffer containing the message
+	 * @param offset position of the message in the buffer
+	 * @param interner interner of the session or RIB, or null to decode a new instance of every attribute
+	 */
+	public BGP4Update(byte[] bytes, int offset, PathAttributeInterner interner)
+	{
+		this(bytes, offset, interner, null);
+	}
+
+	/**
+	 * Construct for decoding without copying, sharing the repeated path
+	 * attributes through an interner and decoding only some TLVs of the
+	 * BGP-LS attributes (see {@link LinkStateAttributeDecodeProfile}).
+	 *
+	 * @param bytes buffer containing the message
+	 * @param offset position of the message in the buffer
+	 * @param interner interner of the session or RIB, or null to decode a new instance of every attribute
+	 * @param linkStateDecodeProfile TLV types of the BGP-LS attribute to decode, null for all of them
+	 */
+	public BGP4Update(byte[] bytes, int offset, PathAttributeInterner interner, LinkStateAttributeDecodeProfile linkStateDecodeProfile)
+	{
+		super(bytes, offset);
+		this.attributeInterner = interner;
+		setLinkStateDecodeProfile(linkStateDecodeProfile);
+		decode();
+	}
+
+	/**
+	 * Copies the message out of the receive buffer and decodes it again from
+	 * the copy, so that the path attributes and NLRI no longer reference the
+	 * buffer. Elements obtained before detaching keep referencing it.
+	 */
+	@Override
+	public void detach()
+	{
+		if (isView())
+		{
+			super.detach();
+			decode();
+		}
+	}
+
 	/**
 	 * Encode BGP4 Update message
+	 *
+	 * @throws IllegalStateException if the message is longer than the maximum
+	 * length of an extended message, it must be split (see {@link BGP4UpdatePacker})
 	 */
 	public void encode()
 	{
@@ -117,17 +195,25 @@ public class BGP4Update extends BGP4Message
 		int totalPathAttibuteLength = 0;
 		for(int i = 0; i < pathAttributes.size(); ++ i)
 		{
-			pathAttributes.get(i).encode();
+			//The shared attributes are already encoded and must not be modified
+			if(!pathAttributes.get(i).isInterned())
+			{
+				pathAttributes.get(i).encode();
+			}
 			len = len + pathAttributes.get(i).getLength();
 			totalPathAttibuteLength = totalPathAttibuteLength + pathAttributes.get(i).getLength();
 		}
-		if(nlri != null)
+		for(NLRI n : getNlriList())
 		{
 			//NLRI encoding
-			nlri.encode();
-			len = len + nlri.getLength();
+			n.encode();
+			len = len + n.getLength();
 		}
 
+		if(len > MAX_EXTENDED_MESSAGE_LENGTH)
+		{
+			throw new IllegalStateException("BGP4 Update of " + len + " octets, longer than the maximum BGP message length");
+		}
 		this.setMessageLength(len);
 		messageBytes = new byte[len];
 		encodeHeader();
@@ -154,25 +240,28 @@ public class BGP4Update extends BGP4Message
 			offset = offset + pathAttributes.get(i).getLength();
 		}
 		//Add NLRI
-		if(nlri != null)
+		for(NLRI n : getNlriList())
 		{
-			System.arraycopy(nlri.getBytes(), 0, messageBytes, offset, nlri.getBytes().length);
-			offset = offset + nlri.getLength();
+			System.arraycopy(n.getBytes(), 0, messageBytes, offset, n.getLength());
+			offset = offset + n.getLength();
 		}
 
 	}
 
 	public void decode()
 	{
-		int offset = BGPHeaderLength;
+		int offset = messageOffset + BGPHeaderLength;
+		int end = messageOffset + this.getLength();
+		nlri = null;
+		nlriList = null;
+		pathAttributes = new ArrayList<PathAttribute>();
 		//Withdrawn Routes length
 		int withdrawnRoutesLength = ((((int) messageBytes[offset]) << 8) & 0xFF00) | ((int) messageBytes[offset + 1] & 0xFF);
 		offset = offset + 2;
 		//Withdrawn Routes
 		if(withdrawnRoutesLength != 0)
 		{
-			//Decodificar withdrawnRoutes
-			log.warn("withdrawnRoutesLength not implemented");
+			withdrawnRoutes = new WithdrawnRoutes(messageBytes, offset, withdrawnRoutesLength);
 			offset = offset + withdrawnRoutesLength;
 		} else {
 			withdrawnRoutes =null;
@@ -180,88 +269,70 @@ public class BGP4Update extends BGP4Message
 		//Path Attributes Length
 		int totalPathAttibuteLength = ((((int) messageBytes[offset]) << 8) & 0xFF00) | ((int) messageBytes[offset + 1] & 0xFF);
 		offset = offset + 2;
+		//The NLRI field carries IPv4 unicast prefixes if there is a NEXT_HOP attribute,
+		//and Link-State NLRIs otherwise
+		boolean unicast = false;
 		if(totalPathAttibuteLength != 0)
 		{
-			pathAttributes = new ArrayList<PathAttribute>();
 			int len = 0;
 			int attribute_typeCode;
 			int attribute_length;
 			int mandatory_length;
+			PathAttributeInterner interner = attributeInterner;
+			LinkStateAttributeDecodeProfile profile = linkStateDecodeProfile;
 			while(len < totalPathAttibuteLength)
 			{
 				//Path Attributes
 				attribute_typeCode = PathAttribute.getAttibuteTypeCode(messageBytes, offset);
 				attribute_length = PathAttribute.getAttributeLength(messageBytes, offset);
 				mandatory_length = PathAttribute.getMandatoryLength(messageBytes, offset);
-				if(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_ORIGIN)
-				{
-					OriginAttribute origin = new OriginAttribute(messageBytes, offset);
-					pathAttributes.add(origin);
-
-				} else if(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_ASPATH)
+				if(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_NEXTHOP)
 				{
-					AS_Path_Attribute as_Path_Attribute = new AS_Path_Attribute(messageBytes, offset);
-					pathAttributes.add(as_Path_Attribute);
-				} else if((attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_BGP_LS_ATTRIBUTE) ||
-						(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_BGP_LS_ATTRIBUTE_LEGACY))
-				{
-					LinkStateAttribute linkState_Attribute = new LinkStateAttribute(messageBytes, offset);
-					pathAttributes.add(linkState_Attribute);
-				} else if(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_MP_REACH_NLRI)
-				{
-					//PATH_ATTRIBUTE_TYPECODE_MP_REACH_NLRI
-					int afi = MP_Reach_Attribute.getAFI(messageBytes, offset);
-					if(afi == AFICodes.AFI_BGP_LS)
-					{
-						BGP_LS_MP_Reach_Attribute blsra = new BGP_LS_MP_Reach_Attribute(messageBytes, offset);
-						pathAttributes.add(blsra);
-					} else
-					{
-						Generic_MP_Reach_Attribute gblsra = new Generic_MP_Reach_Attribute(messageBytes, offset);
-						pathAttributes.add(gblsra);
-					}
-				} else if(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_MP_UN_REACH_NLRI)
+					unicast = true;
+				}
+				PathAttribute pathAttribute;
+				if((interner != null) && interner.isInternable(attribute_typeCode))
 				{
-					Generic_MP_Unreach_Attribute mpUnreachAttribute = new Generic_MP_Unreach_Attribute(messageBytes, offset);
-					pathAttributes.add(mpUnreachAttribute);
+					pathAttribute = interner.intern(messageBytes, offset, (bytes, start) -> decodePathAttribute(bytes, start, profile));
 				} else
 				{
-					log.warn("attribute_typeCode NOT supported by this implementation " + attribute_typeCode);
+					pathAttribute = decodePathAttribute(messageBytes, offset, profile);
+				}
+				if(pathAttribute != null)
+				{
+					pathAttributes.add(pathAttribute);
 				}
 				offset = offset + attribute_length + mandatory_length;
 				len = len + attribute_length + mandatory_length;
 			}
-			if (offset>=this.getLength()){
-				return;
-			}
-			//NLRI
-			//if (nlri != null){
-			int nlri_type = LinkStateNLRI.getNLRIType(messageBytes, offset);
-			if(nlri_type == NLRITypes.Link_NLRI)
-			{
-				//Link_NLRI
-				nlri = new LinkNLRI(messageBytes, offset);
-				offset = offset + nlri.getLength();
-			}
-			if(nlri_type == NLRITypes.Node_NLRI)
-			{
-				//Node_NLRI
-				nlri = new NodeNLRI(messageBytes, offset);
-				//UPDATE message Length - 23 - Total Path Attributes Length
-				//   - Withdrawn Routes Length
-				offset = offset + nlri.getLength();
-			}
-			if(nlri_type == NLRITypes.IT_Node_NLRI)
+		}
+		if (offset>=end){
+			return;
+		}
+		//NLRI: UPDATE message Length - 23 - Total Path Attributes Length
+		//   - Withdrawn Routes Length
+		nlriList = new ArrayList<NLRI>();
+		if(unicast)
+		{
+			nlri = new IPv4UnicastNLRI(messageBytes, offset, end - offset);
+			nlriList.add(nlri);
+			return;
+		}
+		LinkStateNLRICursor cursor = new LinkStateNLRICursor(messageBytes, offset, end);
+		while(cursor.next())
+		{
+			//NLRIs of unsupported types are skipped by their length
+			LinkStateNLRI n = cursor.decodeNLRI();
+			if(n != null)
 			{
-				//ITNode_NLRI
-				nlri = new ITNodeNLRI(messageBytes, offset);
-				offset = offset + nlri.getLength();
+				nlriList.add(n);
 			}
-			if((nlri == null) && (withdrawnRoutesLength == 0))
-			{
-				log.warn("BGP4 Update without NRLI and without Withdrawn Routes");
+		}
+		nlri = nlriList.isEmpty() ? null : nlriList.get(0);
+		if((nlri == null) && (withdrawnRoutesLength == 0))
+		{
+			log.warn("BGP4 Update without NRLI and without Withdrawn Routes");
 
-			}
 		}
 	}
 
@@ -273,9 +344,101 @@ public class BGP4Update extends BGP4Message
 
 	public void setWithdrawnRoutes(WithdrawnRoutes withdrawnRoutes)
 	{
-		//this.withdrawnRoutes = withdrawnRoutes; FIXME: First, implement WithdrawnRoutes
+		this.withdrawnRoutes = withdrawnRoutes;
+	}
+
+
+	/**
+	 * Decode the path attribute at offset
+	 *
+	 * @param bytes buffer containing the attribute
+	 * @param offset position of the attribute
+	 * @return the attribute, or null if the type is not supported
+	 */
+	public static PathAttribute decodePathAttribute(byte[] bytes, int offset)
+	{
+		return decodePathAttribute(bytes, offset, LinkStateAttributeDecodeProfile.ALL);
+	}
+
+	/**
+	 * Decode the path attribute at offset
+	 *
+	 * @param bytes buffer containing the attribute
+	 * @param offset position of the attribute
+	 * @param linkStateDecodeProfile TLV types decoded if it is a BGP-LS attribute
+	 * @return the attribute, or null if the type is not supported
+	 */
+	public static PathAttribute decodePathAttribute(byte[] bytes, int offset, LinkStateAttributeDecodeProfile linkStateDecodeProfile)
+	{
+		int attribute_typeCode = PathAttribute.getAttibuteTypeCode(bytes, offset);
+		if(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_ORIGIN)
+		{
+			return new OriginAttribute(bytes, offset);
+		} else if(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_NEXTHOP)
+		{
+			return new Next_Hop_Attribute(bytes, offset);
+		} else if(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_ASPATH)
+		{
+			return new AS_Path_Attribute(bytes, offset);
+		} else if((attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_BGP_LS_ATTRIBUTE) ||
+				(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_BGP_LS_ATTRIBUTE_LEGACY))
+		{
+			return new LinkStateAttribute(bytes, offset, linkStateDecodeProfile);
+		} else if(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_MP_REACH_NLRI)
+		{
+			//PATH_ATTRIBUTE_TYPECODE_MP_REACH_NLRI
+			int afi = MP_Reach_Attribute.getAFI(bytes, offset);
+			if(afi == AFICodes.AFI_BGP_LS)
+			{
+				return new BGP_LS_MP_Reach_Attribute(bytes, offset);
+			} else
+			{
+				return new Generic_MP_Reach_Attribute(bytes, offset);
+			}
+		} else if(attribute_typeCode == PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_MP_UN_REACH_NLRI)
+		{
+			int afi = MP_Unreach_Attribute.getAFI(bytes, offset);
+			if(afi == AFICodes.AFI_BGP_LS)
+			{
+				int safi = MP_Unreach_Attribute.getSAFI(bytes, offset);
+				if(safi == SAFICodes.SAFI_BGP_LS)
+				{
+					return new BGP_LS_MP_Unreach_Attribute(bytes, offset);
+				}
+				log.warn("MP_UNREACH_NLRI with BGP-LS SAFI NOT supported by this implementation " + safi);
+				return null;
+			} else
+			{
+				return new Generic_MP_Unreach_Attribute(bytes, offset);
+			}
+		}
+		log.warn("attribute_typeCode NOT supported by this implementation " + attribute_typeCode);
+		return null;
+	}
+
+	/**
+	 * @return the interner used when decoding the path attributes, null if they are not interned
+	 */
+	public PathAttributeInterner getAttributeInterner()
+	{
+		return attributeInterner;
 	}
 
+	/**
+	 * @return the TLV types of the BGP-LS attributes decoded by {@link #decode()}
+	 */
+	public LinkStateAttributeDecodeProfile getLinkStateDecodeProfile()
+	{
+		return linkStateDecodeProfile;
+	}
+
+	/**
+	 * @param linkStateDecodeProfile TLV types of the BGP-LS attributes decoded by {@link #decode()}, null for all of them
+	 */
+	public void setLinkStateDecodeProfile(LinkStateAttributeDecodeProfile linkStateDecodeProfile)
+	{
+		this.linkStateDecodeProfile = linkStateDecodeProfile == null ? LinkStateAttributeDecodeProfile.ALL : linkStateDecodeProfile;
+	}
 
 	public ArrayList<PathAttribute> getPathAttributes()
 	{
@@ -295,6 +458,26 @@ public class BGP4Update extends BGP4Message
 	public void setNlri(NLRI nlri)
 	{
 		this.nlri = nlri;
+		this.nlriList = null;
+	}
+
+	/**
+	 * Get all the NLRIs of the message
+	 * @return the NLRIs, empty if there are none
+	 */
+	public List<NLRI> getNlriList()
+	{
+		if(nlriList != null)
+			return nlriList;
+		if(nlri == null)
+			return Collections.emptyList();
+		return Collections.singletonList(nlri);
+	}
+
+	public void setNlriList(List<NLRI> nlriList)
+	{
+		this.nlriList = nlriList;
+		this.nlri = (nlriList == null || nlriList.isEmpty()) ? null : nlriList.get(0);
 	}
 
 	public String getLearntFrom()
@@ -313,11 +496,10 @@ public class BGP4Update extends BGP4Message
 		// TODO Auto-generated method stub
 		StringBuffer sb = new StringBuffer(80000);
 		sb.append("BGP4Update Msg: ");
-//		if(withdrawnRoutesLength != 0)
-//		{
-//			sb.append("> Withdrawn Routes: \n");
-//			sb.append(withdrawnRoutes.toString());
-//		}
+		if(withdrawnRoutes != null)
+		{
+			sb.append("> " + withdrawnRoutes.toString() + "\n");
+		}
 		if(pathAttributes.size() != 0)
 		{
 			sb.append("> Path Attibutes: \n ");
@@ -326,8 +508,8 @@ public class BGP4Update extends BGP4Message
 				sb.append("> " + pathAttributes.get(i).toString() + "\n");
 			}
 		}
-		if(nlri != null)
-			sb.append(nlri.toString());
+		for(NLRI n : getNlriList())
+			sb.append(n.toString());
 
 		return sb.toString();
 	}
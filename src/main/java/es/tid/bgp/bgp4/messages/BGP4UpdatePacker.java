@@ -0,0 +1,257 @@
+package es.tid.bgp.bgp4.messages;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.PathAttributesTypeCode;
+import es.tid.protocol.commons.framing.BGP4Framer;
+
+/**
+ * Packs Link-State NLRIs into as few UPDATE messages as possible, for
+ * example to send a whole topology to a route reflector.
+ *
+ * The NLRIs are grouped by their path attributes: those added with the same
+ * attributes (compared by their encoding) and the same next hop are sent in
+ * the MP_REACH_NLRI attribute of the same UPDATE messages. Each message is
+ * filled up to the maximum message length, 4096 octets or 65535 if the
+ * peers negotiated the Extended Message capability. The NLRIs are never split
+ * and keep the order in which they were added.
+ *
+ * <pre>
+ * BGP4UpdatePacker packer = new BGP4UpdatePacker();
+ * for (...) {
+ *     packer.add(nlri, pathAttributes);
+ * }
+ * for (BGP4Update update : packer.pack()) {
+ *     send(update.getBytes());
+ * }
+ * </pre>
+ */
+public class BGP4UpdatePacker {
+
+	private static final Logger log = LoggerFactory.getLogger("BGP4Parser");
+
+	/**
+	 * Withdrawn Routes Length and Total Path Attribute Length
+	 */
+	private static final int UPDATE_FIELDS_LENGTH = 4;
+
+	/**
+	 * AFI, SAFI, Length of Next Hop and Reserved octets of the MP_REACH_NLRI
+	 */
+	private static final int MP_REACH_FIELDS_LENGTH = 5;
+
+	/**
+	 * NLRIs that share the same path attributes and next hop
+	 */
+	private static class Group {
+		private final List<PathAttribute> pathAttributes;
+		private final BGP_LS_MP_Reach_Attribute mpReach;
+		private final int pathAttributesLength;
+		private final List<LinkStateNLRI> nlris = new ArrayList<LinkStateNLRI>();
+
+		Group(List<PathAttribute> pathAttributes, BGP_LS_MP_Reach_Attribute mpReach, int pathAttributesLength) {
+			this.pathAttributes = pathAttributes;
+			this.mpReach = mpReach;
+			this.pathAttributesLength = pathAttributesLength;
+		}
+	}
+
+	private final LinkedHashMap<ByteBuffer, Group> groups = new LinkedHashMap<ByteBuffer, Group>();
+
+	private int maxMessageLength;
+
+	private int nlriCount;
+
+	public BGP4UpdatePacker() {
+		this(BGP4Framer.MAX_MESSAGE_LENGTH);
+	}
+
+	/**
+	 * @param maxMessageLength maximum length of the UPDATE messages
+	 */
+	public BGP4UpdatePacker(int maxMessageLength) {
+		this.maxMessageLength = maxMessageLength;
+	}
+
+	/**
+	 * @param extendedMessages true if the peers negotiated the Extended Message capability
+	 */
+	public void setExtendedMessages(boolean extendedMessages) {
+		this.maxMessageLength = extendedMessages ? BGP4Framer.MAX_EXTENDED_MESSAGE_LENGTH : BGP4Framer.MAX_MESSAGE_LENGTH;
+	}
+
+	public int getMaxMessageLength() {
+		return maxMessageLength;
+	}
+
+	public void setMaxMessageLength(int maxMessageLength) {
+		this.maxMessageLength = maxMessageLength;
+	}
+
+	/**
+	 * Send the messages allowed by the OPEN message received from the peer
+	 * @param remoteOpen OPEN message received
+	 */
+	public void setMaxMessageLength(BGP4Open remoteOpen) {
+		this.maxMessageLength = remoteOpen.getMaxMessageLength();
+	}
+
+	/**
+	 * Adds an NLRI to be advertised with the given path attributes. If they
+	 * include a BGP-LS MP_REACH_NLRI attribute, its next hop is used and its
+	 * NLRIs are ignored. The attributes must not be modified until the
+	 * messages are packed.
+	 * @param nlri Link-State NLRI
+	 * @param pathAttributes path attributes of the NLRI
+	 * @throws IllegalArgumentException if the NLRI does not fit in a message with its attributes
+	 */
+	public void add(LinkStateNLRI nlri, List<PathAttribute> pathAttributes) {
+		BGP_LS_MP_Reach_Attribute mpReach = null;
+		ArrayList<PathAttribute> others = new ArrayList<PathAttribute>(pathAttributes.size());
+		ByteArrayOutputStream key = new ByteArrayOutputStream();
+		for (PathAttribute pathAttribute : pathAttributes) {
+			if (pathAttribute instanceof BGP_LS_MP_Reach_Attribute) {
+				mpReach = (BGP_LS_MP_Reach_Attribute) pathAttribute;
+			} else {
+				others.add(pathAttribute);
+			}
+		}
+		if (mpReach == null) {
+			mpReach = new BGP_LS_MP_Reach_Attribute();
+		}
+		key.write(mpReach.getNextHopLength());
+		byte[] nextHop = mpReach.getNextHop().getAddress();
+		key.write(nextHop, 0, nextHop.length);
+		int pathAttributesLength = 0;
+		for (PathAttribute pathAttribute : others) {
+			// encoded once, the attributes are usually shared by many NLRIs
+			if (pathAttribute.getBytes() == null) {
+				pathAttribute.encode();
+			}
+			key.write(pathAttribute.getBytes(), 0, pathAttribute.getLength());
+			pathAttributesLength += pathAttribute.getLength();
+		}
+		nlri.encode();
+		if (messageLength(pathAttributesLength, mpReach.getNextHopLength(), nlri.getTotalNLRILength()) > maxMessageLength) {
+			throw new IllegalArgumentException("The NLRI does not fit in an UPDATE message of " + maxMessageLength + " octets");
+		}
+		ByteBuffer groupKey = ByteBuffer.wrap(key.toByteArray());
+		Group group = groups.get(groupKey);
+		if (group == null) {
+			group = new Group(others, mpReach, pathAttributesLength);
+			groups.put(groupKey, group);
+		}
+		group.nlris.add(nlri);
+		nlriCount++;
+	}
+
+	/**
+	 * Adds the NLRIs of an UPDATE message built for a single NLRI (or a few).
+	 * @param update UPDATE message with a BGP-LS MP_REACH_NLRI attribute
+	 */
+	public void add(BGP4Update update) {
+		for (PathAttribute pathAttribute : update.getPathAttributes()) {
+			if (pathAttribute instanceof BGP_LS_MP_Reach_Attribute) {
+				for (LinkStateNLRI nlri : ((BGP_LS_MP_Reach_Attribute) pathAttribute).getLsNLRIList()) {
+					add(nlri, update.getPathAttributes());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return number of NLRIs waiting to be packed
+	 */
+	public int getNLRICount() {
+		return nlriCount;
+	}
+
+	/**
+	 * @return number of different sets of path attributes waiting to be packed
+	 */
+	public int getGroupCount() {
+		return groups.size();
+	}
+
+	/**
+	 * Builds the UPDATE messages with the NLRIs added so far, and empties the
+	 * packer.
+	 * @return the encoded messages
+	 */
+	public List<BGP4Update> pack() {
+		ArrayList<BGP4Update> updates = new ArrayList<BGP4Update>();
+		for (Group group : groups.values()) {
+			int first = 0;
+			int nlriLength = 0;
+			for (int i = 0; i < group.nlris.size(); ++i) {
+				int length = group.nlris.get(i).getTotalNLRILength();
+				if (i > first && messageLength(group.pathAttributesLength, group.mpReach.getNextHopLength(), nlriLength + length) > maxMessageLength) {
+					updates.add(createUpdate(group, first, i));
+					first = i;
+					nlriLength = 0;
+				}
+				nlriLength += length;
+			}
+			if (first < group.nlris.size()) {
+				updates.add(createUpdate(group, first, group.nlris.size()));
+			}
+		}
+		log.debug("Packed " + nlriCount + " NLRIs with " + groups.size() + " sets of path attributes in " + updates.size() + " UPDATE messages");
+		groups.clear();
+		nlriCount = 0;
+		return updates;
+	}
+
+	/**
+	 * Length of an UPDATE message with an MP_REACH_NLRI attribute
+	 * @param pathAttributesLength length of the other path attributes
+	 * @param nextHopLength length of the next hop
+	 * @param nlriLength length of the NLRIs
+	 * @return the length of the message
+	 */
+	private static int messageLength(int pathAttributesLength, int nextHopLength, int nlriLength) {
+		int mpReachLength = MP_REACH_FIELDS_LENGTH + nextHopLength + nlriLength;
+		// attribute flags, type code and one or two octets of length
+		int mpReachHeaderLength = mpReachLength > 255 ? 4 : 3;
+		return BGP4Message.getBGPHeaderLength() + UPDATE_FIELDS_LENGTH + pathAttributesLength + mpReachHeaderLength + mpReachLength;
+	}
+
+	private BGP4Update createUpdate(Group group, int from, int to) {
+		BGP_LS_MP_Reach_Attribute mpReach = new BGP_LS_MP_Reach_Attribute();
+		mpReach.setNextHop(group.mpReach.getNextHop());
+		mpReach.setNextHopLength(group.mpReach.getNextHopLength());
+		mpReach.setLsNLRIList(new LinkedList<LinkStateNLRI>(group.nlris.subList(from, to)));
+		// The attributes are sent in ascending order of type code
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>(group.pathAttributes.size() + 1);
+		boolean added = false;
+		for (PathAttribute pathAttribute : group.pathAttributes) {
+			if (!added && pathAttribute.getTypeCode() > PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_MP_REACH_NLRI) {
+				pathAttributes.add(mpReach);
+				added = true;
+			}
+			pathAttributes.add(pathAttribute);
+		}
+		if (!added) {
+			pathAttributes.add(mpReach);
+		}
+		BGP4Update update = new BGP4Update();
+		update.setPathAttributes(pathAttributes);
+		update.encode();
+		if (update.getLength() > maxMessageLength) {
+			throw new IllegalStateException("UPDATE message of " + update.getLength() + " octets, longer than " + maxMessageLength);
+		}
+		return update;
+	}
+
+}
@@ -0,0 +1,435 @@
+package es.tid.bgp.bgp4.mrt;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.bgp.bgp4.messages.BGP4Message;
+import es.tid.bgp.bgp4.messages.BGP4MessageTypes;
+import es.tid.bgp.bgp4.update.fields.PathAttributeInterner;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttributeDecodeProfile;
+import es.tid.protocol.commons.framing.BGP4FrameDecoder;
+
+/**
+ * Reads the records of an MRT dump file (RFC 6396).
+ *
+ * The file is memory-mapped in windows, so files of several gigabytes are
+ * read without loading them and without a read call per record. The cursor
+ * reads the header of each record in place; for the BGP4MP and BGP4MP_ET
+ * records with a BGP message it also reads the peer fields. The message is
+ * only copied out of the mapping when it is asked for, with
+ * {@link #decodeMessage()}, {@link #getMessage()} or
+ * {@link #copyMessage(byte[], int)}; {@link #getMessageSlice()} gives it
+ * without copying.
+ *
+ * <pre>
+ * try (MRTReader reader = new MRTReader(path)) {
+ *     while (reader.nextMessage()) {
+ *         if (reader.getMessageType() == BGP4MessageTypes.MESSAGE_UPDATE) {
+ *             BGP4Update update = (BGP4Update) reader.decodeMessage();
+ *         }
+ *     }
+ * }
+ * </pre>
+ */
+public class MRTReader implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger("BGP4Parser");
+
+	/**
+	 * Size of the mapped windows by default
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+	private final FileChannel channel;
+	private final long fileSize;
+	private final int windowSize;
+
+	private MappedByteBuffer window;
+	private long windowStart;
+
+	/**
+	 * Position of the current record in the file, and of the next one
+	 */
+	private long position = -1;
+	private long nextPosition;
+
+	/**
+	 * Position of the current record in the window
+	 */
+	private int recordOffset;
+	private long timestamp;
+	private int microseconds;
+	private int type;
+	private int subtype;
+	private int recordLength;
+
+	private boolean message;
+	private boolean addPath;
+	private long peerAS;
+	private long localAS;
+	private int interfaceIndex;
+	private int addressFamily;
+	private int peerAddressOffset;
+	private int localAddressOffset;
+	private int messageOffset;
+	private int messageLength;
+
+	private PathAttributeInterner attributeInterner;
+
+	private LinkStateAttributeDecodeProfile linkStateDecodeProfile;
+
+	public MRTReader(Path file) throws IOException {
+		this(file, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * @param file MRT file
+	 * @param windowSize size of the mapped windows, a record larger than it gets its own window
+	 */
+	public MRTReader(Path file, int windowSize) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.fileSize = channel.size();
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Moves to the next record
+	 * @return false at the end of the file, or if the next record is truncated
+	 */
+	public boolean next() throws IOException {
+		long start = nextPosition;
+		if (start + MRTTypes.HEADER_LENGTH > fileSize) {
+			if (start < fileSize) {
+				log.warn("Truncated MRT header at " + start);
+			}
+			return false;
+		}
+		map(start, MRTTypes.HEADER_LENGTH);
+		int offset = (int) (start - windowStart);
+		long length = window.getInt(offset + 8) & 0xFFFFFFFFL;
+		if (start + MRTTypes.HEADER_LENGTH + length > fileSize || length > Integer.MAX_VALUE - MRTTypes.HEADER_LENGTH) {
+			log.warn("Truncated MRT record at " + start);
+			return false;
+		}
+		map(start, MRTTypes.HEADER_LENGTH + (int) length);
+		position = start;
+		nextPosition = start + MRTTypes.HEADER_LENGTH + length;
+		recordOffset = (int) (start - windowStart);
+		recordLength = (int) length;
+		timestamp = window.getInt(recordOffset) & 0xFFFFFFFFL;
+		type = window.getShort(recordOffset + 4) & 0xFFFF;
+		subtype = window.getShort(recordOffset + 6) & 0xFFFF;
+		microseconds = 0;
+		message = false;
+		addPath = false;
+		if (type == MRTTypes.TYPE_BGP4MP || type == MRTTypes.TYPE_BGP4MP_ET) {
+			decodeBGP4MP();
+		}
+		return true;
+	}
+
+	/**
+	 * Moves to the next record with a BGP message
+	 * @return false at the end of the file
+	 */
+	public boolean nextMessage() throws IOException {
+		while (next()) {
+			if (message) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void decodeBGP4MP() {
+		int offset = recordOffset + MRTTypes.HEADER_LENGTH;
+		int end = offset + recordLength;
+		if (type == MRTTypes.TYPE_BGP4MP_ET) {
+			if (recordLength < 4) {
+				return;
+			}
+			microseconds = window.getInt(offset);
+			offset += 4;
+		}
+		boolean as4;
+		boolean addPath;
+		switch (subtype) {
+		case MRTTypes.BGP4MP_MESSAGE:
+		case MRTTypes.BGP4MP_MESSAGE_LOCAL:
+			as4 = false;
+			addPath = false;
+			break;
+		case MRTTypes.BGP4MP_MESSAGE_AS4:
+		case MRTTypes.BGP4MP_MESSAGE_AS4_LOCAL:
+			as4 = true;
+			addPath = false;
+			break;
+		case MRTTypes.BGP4MP_MESSAGE_ADDPATH:
+		case MRTTypes.BGP4MP_MESSAGE_LOCAL_ADDPATH:
+			as4 = false;
+			addPath = true;
+			break;
+		case MRTTypes.BGP4MP_MESSAGE_AS4_ADDPATH:
+		case MRTTypes.BGP4MP_MESSAGE_AS4_LOCAL_ADDPATH:
+			as4 = true;
+			addPath = true;
+			break;
+		default:
+			return;
+		}
+		if (offset + (as4 ? 12 : 8) > end) {
+			log.warn("Malformed BGP4MP record at " + position);
+			return;
+		}
+		if (as4) {
+			peerAS = window.getInt(offset) & 0xFFFFFFFFL;
+			localAS = window.getInt(offset + 4) & 0xFFFFFFFFL;
+			offset += 8;
+		} else {
+			peerAS = window.getShort(offset) & 0xFFFF;
+			localAS = window.getShort(offset + 2) & 0xFFFF;
+			offset += 4;
+		}
+		interfaceIndex = window.getShort(offset) & 0xFFFF;
+		addressFamily = window.getShort(offset + 2) & 0xFFFF;
+		offset += 4;
+		int addressLength = addressFamily == 2 ? 16 : 4;
+		peerAddressOffset = offset;
+		localAddressOffset = offset + addressLength;
+		messageOffset = offset + 2 * addressLength;
+		messageLength = end - messageOffset;
+		if (messageLength < BGP4Message.getBGPHeaderLength()) {
+			log.warn("Malformed BGP4MP record at " + position);
+			return;
+		}
+		message = true;
+		this.addPath = addPath;
+	}
+
+	/**
+	 * Makes the bytes from position to position + length available in the window
+	 */
+	private void map(long position, int length) throws IOException {
+		if (window != null && position >= windowStart && position + length <= windowStart + window.limit()) {
+			return;
+		}
+		long size = Math.min(Math.max(windowSize, length), fileSize - position);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+		windowStart = position;
+	}
+
+	/**
+	 * @return position of the current record in the file
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return MRT Type of the record (see {@link MRTTypes})
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * @return MRT Subtype of the record
+	 */
+	public int getSubtype() {
+		return subtype;
+	}
+
+	/**
+	 * @return length of the record, header included
+	 */
+	public int getRecordLength() {
+		return MRTTypes.HEADER_LENGTH + recordLength;
+	}
+
+	/**
+	 * @return Timestamp of the record, in seconds since the epoch
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @return Microsecond Timestamp of a BGP4MP_ET record, 0 for other records
+	 */
+	public int getMicroseconds() {
+		return microseconds;
+	}
+
+	/**
+	 * @return timestamp of the record in microseconds since the epoch
+	 */
+	public long getTimestampMicros() {
+		return timestamp * 1000000L + microseconds;
+	}
+
+	/**
+	 * @return true if the record is a BGP4MP record with a BGP message
+	 */
+	public boolean isMessage() {
+		return message;
+	}
+
+	/**
+	 * @return true if the BGP message of the record uses ADD-PATH (RFC 7911),
+	 * so its NLRI carry a Path Identifier
+	 */
+	public boolean isAddPath() {
+		return addPath;
+	}
+
+	public long getPeerAS() {
+		return peerAS;
+	}
+
+	public long getLocalAS() {
+		return localAS;
+	}
+
+	public int getInterfaceIndex() {
+		return interfaceIndex;
+	}
+
+	/**
+	 * @return Address Family of the peer and local addresses, 1 for IPv4 and 2 for IPv6
+	 */
+	public int getAddressFamily() {
+		return addressFamily;
+	}
+
+	public InetAddress getPeerAddress() {
+		return getAddress(peerAddressOffset);
+	}
+
+	public InetAddress getLocalAddress() {
+		return getAddress(localAddressOffset);
+	}
+
+	private InetAddress getAddress(int offset) {
+		byte[] address = new byte[addressFamily == 2 ? 16 : 4];
+		for (int i = 0; i < address.length; ++i) {
+			address[i] = window.get(offset + i);
+		}
+		try {
+			return InetAddress.getByAddress(address);
+		} catch (UnknownHostException e) {
+			// not thrown for 4 or 16 octets
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return type of the BGP message of the record (see {@link BGP4MessageTypes})
+	 */
+	public int getMessageType() {
+		return window.get(messageOffset + 18) & 0xFF;
+	}
+
+	/**
+	 * @return length of the BGP message of the record
+	 */
+	public int getMessageLength() {
+		return messageLength;
+	}
+
+	/**
+	 * @return the BGP message of the record, over the mapped file. It is only
+	 * valid until the next call to {@link #next()}.
+	 */
+	public ByteBuffer getMessageSlice() {
+		ByteBuffer slice = window.duplicate();
+		slice.position(messageOffset);
+		slice.limit(messageOffset + messageLength);
+		return slice.slice();
+	}
+
+	/**
+	 * Copies the BGP message of the record
+	 * @param bytes destination buffer, with room for {@link #getMessageLength()} bytes
+	 * @param offset position of the message in the buffer
+	 */
+	public void copyMessage(byte[] bytes, int offset) {
+		ByteBuffer source = window.duplicate();
+		source.position(messageOffset);
+		source.get(bytes, offset, messageLength);
+	}
+
+	/**
+	 * @return a copy of the BGP message of the record
+	 */
+	public byte[] getMessage() {
+		byte[] bytes = new byte[messageLength];
+		copyMessage(bytes, 0);
+		return bytes;
+	}
+
+	/**
+	 * Decodes the BGP message of the record. It is copied once out of the
+	 * mapped file, and the message owns the copy. The UPDATE messages of
+	 * ADD-PATH records (see {@link #isAddPath()}) are not decoded, as the
+	 * decoder does not parse Path Identifiers: they are only available
+	 * undecoded, with {@link #getMessage()} or {@link #getMessageSlice()}.
+	 * @return the message, or null if there is no decoder for it
+	 */
+	public BGP4Message decodeMessage() {
+		if (addPath && getMessageType() == BGP4MessageTypes.MESSAGE_UPDATE) {
+			log.debug("UPDATE with ADD-PATH not decoded at " + position);
+			return null;
+		}
+		byte[] bytes = getMessage();
+		return BGP4FrameDecoder.decodeMessage(bytes[18] & 0xFF, bytes, attributeInterner, linkStateDecodeProfile);
+	}
+
+	public PathAttributeInterner getAttributeInterner() {
+		return attributeInterner;
+	}
+
+	/**
+	 * Shares the repeated path attributes of the UPDATE messages decoded by
+	 * {@link #decodeMessage()}
+	 * @param interner interner, or null to decode a new instance of every attribute
+	 */
+	public void setAttributeInterner(PathAttributeInterner interner) {
+		this.attributeInterner = interner;
+	}
+
+	public LinkStateAttributeDecodeProfile getLinkStateDecodeProfile() {
+		return linkStateDecodeProfile;
+	}
+
+	/**
+	 * Decodes only some TLVs of the BGP-LS attributes in {@link #decodeMessage()}
+	 * @param profile TLV types to decode, null for all of them
+	 */
+	public void setLinkStateDecodeProfile(LinkStateAttributeDecodeProfile profile) {
+		this.linkStateDecodeProfile = profile;
+	}
+
+	/**
+	 * @return size of the file
+	 */
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+	}
+
+}
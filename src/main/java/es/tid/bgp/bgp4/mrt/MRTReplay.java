@@ -0,0 +1,98 @@
+package es.tid.bgp.bgp4.mrt;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.bgp.bgp4.messages.BGP4Message;
+import es.tid.bgp.bgp4.messages.BGP4MessageTypes;
+
+/**
+ * Replays the BGP messages of an MRT file, either as fast as possible or
+ * following the timestamps of the records.
+ *
+ * <pre>
+ * try (MRTReader reader = new MRTReader(path)) {
+ *     MRTStatistics statistics = new MRTReplay().setSpeed(1).run(reader, collector::process);
+ *     log.info("Replay: " + statistics);
+ * }
+ * </pre>
+ */
+public class MRTReplay {
+
+	private static final Logger log = LoggerFactory.getLogger("BGP4Parser");
+
+	/**
+	 * Speed of a replay without waits
+	 */
+	public static final double AS_FAST_AS_POSSIBLE = 0;
+
+	private double speed = AS_FAST_AS_POSSIBLE;
+
+	public double getSpeed() {
+		return speed;
+	}
+
+	/**
+	 * @param speed {@link #AS_FAST_AS_POSSIBLE}, or factor applied to the time
+	 * between the records: 1 replays them at the original rate, 2 twice as fast
+	 */
+	public MRTReplay setSpeed(double speed) {
+		if (speed < 0) {
+			throw new IllegalArgumentException("Negative speed " + speed);
+		}
+		this.speed = speed;
+		return this;
+	}
+
+	/**
+	 * Decodes the messages from the current position of the reader to the end
+	 * of the file and gives them to the consumer. The replay stops when the
+	 * thread is interrupted. Messages that cannot be decoded are counted as
+	 * errors and skipped.
+	 * @param reader MRT file
+	 * @param consumer receiver of the messages
+	 * @return the counters of the replay
+	 */
+	public MRTStatistics run(MRTReader reader, Consumer<BGP4Message> consumer) throws IOException {
+		MRTStatistics statistics = new MRTStatistics();
+		long start = System.nanoTime();
+		long firstTimestamp = -1;
+		while (reader.next() && !Thread.currentThread().isInterrupted()) {
+			statistics.record(reader.getRecordLength());
+			if (!reader.isMessage()) {
+				continue;
+			}
+			if (speed != AS_FAST_AS_POSSIBLE) {
+				long timestamp = reader.getTimestampMicros();
+				if (firstTimestamp < 0) {
+					firstTimestamp = timestamp;
+				}
+				long due = start + (long) ((timestamp - firstTimestamp) * 1000 / speed);
+				long wait;
+				while ((wait = due - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+					LockSupport.parkNanos(wait);
+				}
+			}
+			BGP4Message message;
+			try {
+				message = reader.decodeMessage();
+			} catch (RuntimeException e) {
+				//The decoders do not check the lengths of the fields
+				log.warn("Malformed BGP message in MRT record at " + reader.getPosition() + ": " + e);
+				statistics.error();
+				continue;
+			}
+			if (message != null) {
+				statistics.message(message.getMessageType() == BGP4MessageTypes.MESSAGE_UPDATE);
+				consumer.accept(message);
+			}
+		}
+		statistics.setElapsedNanos(System.nanoTime() - start);
+		return statistics;
+	}
+
+}
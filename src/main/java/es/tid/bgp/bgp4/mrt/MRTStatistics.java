@@ -0,0 +1,92 @@
+package es.tid.bgp.bgp4.mrt;
+
+/**
+ * Counters of an {@link MRTReplay}, so that a replay can be used as a
+ * benchmark of the decoders and of the consumer of the messages.
+ */
+public class MRTStatistics {
+
+	private long records;
+	private long messages;
+	private long updates;
+	private long errors;
+	private long bytes;
+	private long elapsedNanos;
+
+	void record(int length) {
+		records++;
+		bytes += length;
+	}
+
+	void message(boolean update) {
+		messages++;
+		if (update) {
+			updates++;
+		}
+	}
+
+	void error() {
+		errors++;
+	}
+
+	void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return number of records read
+	 */
+	public long getRecords() {
+		return records;
+	}
+
+	/**
+	 * @return number of BGP messages decoded
+	 */
+	public long getMessages() {
+		return messages;
+	}
+
+	/**
+	 * @return number of UPDATE messages decoded
+	 */
+	public long getUpdates() {
+		return updates;
+	}
+
+	/**
+	 * @return number of BGP messages that could not be decoded
+	 */
+	public long getErrors() {
+		return errors;
+	}
+
+	/**
+	 * @return bytes of the records read, headers included
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return duration of the replay, waits included
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public double getMessagesPerSecond() {
+		return elapsedNanos == 0 ? 0 : messages * 1e9 / elapsedNanos;
+	}
+
+	public double getMegabytesPerSecond() {
+		return elapsedNanos == 0 ? 0 : bytes * 1e3 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d records, %d messages (%d updates, %d errors), %d bytes in %.3f s: %.0f messages/s, %.1f MB/s",
+				records, messages, updates, errors, bytes, elapsedNanos / 1e9, getMessagesPerSecond(), getMegabytesPerSecond());
+	}
+
+}
@@ -0,0 +1,32 @@
+package es.tid.bgp.bgp4.mrt;
+
+/**
+ * MRT record types and BGP4MP subtypes,
+ * <a href="https://tools.ietf.org/html/rfc6396">RFC 6396</a> and
+ * <a href="https://tools.ietf.org/html/rfc8050">RFC 8050</a>.
+ */
+public class MRTTypes {
+	public static final int TYPE_TABLE_DUMP = 12;
+	public static final int TYPE_TABLE_DUMP_V2 = 13;
+	public static final int TYPE_BGP4MP = 16;
+	/**
+	 * BGP4MP with a Microsecond Timestamp field after the header
+	 */
+	public static final int TYPE_BGP4MP_ET = 17;
+
+	public static final int BGP4MP_STATE_CHANGE = 0;
+	public static final int BGP4MP_MESSAGE = 1;
+	public static final int BGP4MP_MESSAGE_AS4 = 4;
+	public static final int BGP4MP_STATE_CHANGE_AS4 = 5;
+	public static final int BGP4MP_MESSAGE_LOCAL = 6;
+	public static final int BGP4MP_MESSAGE_AS4_LOCAL = 7;
+	public static final int BGP4MP_MESSAGE_ADDPATH = 8;
+	public static final int BGP4MP_MESSAGE_AS4_ADDPATH = 9;
+	public static final int BGP4MP_MESSAGE_LOCAL_ADDPATH = 10;
+	public static final int BGP4MP_MESSAGE_AS4_LOCAL_ADDPATH = 11;
+
+	/**
+	 * Length of the MRT common header
+	 */
+	public static final int HEADER_LENGTH = 12;
+}
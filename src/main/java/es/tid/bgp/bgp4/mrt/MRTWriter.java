@@ -0,0 +1,150 @@
+package es.tid.bgp.bgp4.mrt;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+import es.tid.bgp.bgp4.messages.BGP4Message;
+
+/**
+ * Writes BGP messages to an MRT file (RFC 6396), as BGP4MP_ET records of
+ * subtype BGP4MP_MESSAGE_AS4, with microsecond timestamps.
+ *
+ * The writer can be shared by the sessions of a collector: each record is
+ * written at once.
+ *
+ * <pre>
+ * MRTWriter writer = MRTWriter.append(path);
+ * ...
+ * writer.write(update, peerAS, localAS, peerAddress, localAddress);
+ * </pre>
+ */
+public class MRTWriter implements Closeable, Flushable {
+
+	private final OutputStream out;
+
+	private byte[] record = new byte[4096];
+
+	private long records;
+
+	/**
+	 * @param out stream to write to, it should be buffered
+	 */
+	public MRTWriter(OutputStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Opens a file to add records at its end, it is created if it does not exist
+	 */
+	public static MRTWriter append(Path file) throws IOException {
+		return new MRTWriter(new BufferedOutputStream(Files.newOutputStream(file,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND), 1 << 16));
+	}
+
+	/**
+	 * Writes a message with the current time. A message decoded as a view over
+	 * a receive buffer is detached by {@link BGP4Message#getBytes()}; use
+	 * {@link #write(long, long, long, int, InetAddress, InetAddress, byte[], int, int)}
+	 * with the receive buffer to avoid it.
+	 * @param message message sent or received, encoded
+	 * @param peerAS AS number of the peer
+	 * @param localAS local AS number
+	 * @param peerAddress address of the peer
+	 * @param localAddress local address, of the same family
+	 */
+	public void write(BGP4Message message, long peerAS, long localAS, InetAddress peerAddress, InetAddress localAddress) throws IOException {
+		byte[] bytes = message.getBytes();
+		write(currentTimeMicros(), peerAS, localAS, 0, peerAddress, localAddress, bytes, 0, message.getLength());
+	}
+
+	/**
+	 * Writes a message
+	 * @param timestampMicros time of the message in microseconds since the epoch
+	 * @param peerAS AS number of the peer
+	 * @param localAS local AS number
+	 * @param interfaceIndex index of the interface of the session, or 0
+	 * @param peerAddress address of the peer
+	 * @param localAddress local address, of the same family
+	 * @param bytes buffer containing the message
+	 * @param offset position of the message (its marker) in the buffer
+	 * @param length length of the message
+	 */
+	public synchronized void write(long timestampMicros, long peerAS, long localAS, int interfaceIndex,
+			InetAddress peerAddress, InetAddress localAddress, byte[] bytes, int offset, int length) throws IOException {
+		byte[] peer = peerAddress.getAddress();
+		byte[] local = localAddress.getAddress();
+		if (peer.length != local.length) {
+			throw new IllegalArgumentException("Peer and local addresses of different families");
+		}
+		// Microsecond Timestamp, ASs, Interface Index, Address Family and addresses
+		int bodyLength = 4 + 8 + 2 + 2 + 2 * peer.length + length;
+		int recordLength = MRTTypes.HEADER_LENGTH + bodyLength;
+		if (record.length < recordLength) {
+			record = new byte[Math.max(recordLength, record.length * 2)];
+		}
+		int seconds = (int) (timestampMicros / 1000000L);
+		int microseconds = (int) (timestampMicros % 1000000L);
+		int pos = putInt(record, 0, seconds);
+		pos = putShort(record, pos, MRTTypes.TYPE_BGP4MP_ET);
+		pos = putShort(record, pos, MRTTypes.BGP4MP_MESSAGE_AS4);
+		pos = putInt(record, pos, bodyLength);
+		pos = putInt(record, pos, microseconds);
+		pos = putInt(record, pos, (int) peerAS);
+		pos = putInt(record, pos, (int) localAS);
+		pos = putShort(record, pos, interfaceIndex);
+		pos = putShort(record, pos, peerAddress instanceof Inet4Address ? 1 : 2);
+		System.arraycopy(peer, 0, record, pos, peer.length);
+		pos += peer.length;
+		System.arraycopy(local, 0, record, pos, local.length);
+		pos += local.length;
+		System.arraycopy(bytes, offset, record, pos, length);
+		out.write(record, 0, recordLength);
+		records++;
+	}
+
+	/**
+	 * @return number of records written
+	 */
+	public synchronized long getRecords() {
+		return records;
+	}
+
+	private static long currentTimeMicros() {
+		Instant now = Instant.now();
+		return now.getEpochSecond() * 1000000L + now.getNano() / 1000;
+	}
+
+	private static int putInt(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) (value >>> 24);
+		bytes[offset + 1] = (byte) (value >>> 16);
+		bytes[offset + 2] = (byte) (value >>> 8);
+		bytes[offset + 3] = (byte) value;
+		return offset + 4;
+	}
+
+	private static int putShort(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) (value >>> 8);
+		bytes[offset + 1] = (byte) value;
+		return offset + 2;
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+
+}
@@ -1,25 +1,66 @@
 package es.tid.bgp.bgp4.objects;
 
 import es.tid.bgp.bgp4.BGP4Element;
+import es.tid.protocol.commons.ByteHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 
+/**
+ * Base class of the BGP4 elements (path attributes, NLRIs, optional parameters).
+ *
+ * When decoded, an element does not copy its bytes: it keeps a reference to the
+ * buffer of the enclosing element and the position where it starts
+ * ({@link #bytesOffset}). The first call to {@link #getBytes()} (or an explicit
+ * {@link #detach()}) copies the element into its own array. Whether the buffer is
+ * a private copy or the receive buffer of the caller is decided by the message
+ * constructor (see {@link es.tid.bgp.bgp4.messages.BGP4Message}).
+ */
 public abstract class BGP4Object implements BGP4Element {
-	
+
 	protected static final Logger log= LoggerFactory.getLogger("BGP4Parser");
 
 	protected byte[] bytes;
 	protected int length;
-	
-	
+	/**
+	 * Position of the first byte of the element inside bytes.
+	 * It is 0 once the element is encoded or detached.
+	 */
+	protected int bytesOffset;
+
+	/**
+	 * Get the bytes of the element. If the element is a view over a larger
+	 * buffer, it is detached first.
+	 * @return the bytes of the element, starting at position 0
+	 */
 	public byte[] getBytes() {
+		detach();
 		return bytes;
 	}
 	protected void setBytes(byte[] bytes) {
 		this.bytes = bytes;
+		this.bytesOffset = 0;
+	}
+
+	/**
+	 * Make the element the only owner of its bytes, copying them from the
+	 * buffer it was decoded from. Nothing is done if it already owns them.
+	 */
+	public void detach() {
+		if (bytes != null && (bytesOffset != 0 || bytes.length != length)) {
+			bytes = ByteHandler.copyOfRange(bytes, bytesOffset, length);
+			bytesOffset = 0;
+		}
+	}
+
+	/**
+	 * @return true if the element is a view over a buffer shared with other elements
+	 */
+	public boolean isView() {
+		return bytes != null && (bytesOffset != 0 || bytes.length != length);
 	}
+
 	public int getLength() {
 		return length;
 	}
@@ -30,7 +71,7 @@ public abstract class BGP4Object implements BGP4Element {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + Arrays.hashCode(bytes);
+		result = prime * result + ByteHandler.hashCode(bytes, bytesOffset, length);
 		result = prime * result + length;
 		return result;
 	}
@@ -43,12 +84,15 @@ public abstract class BGP4Object implements BGP4Element {
 		if (getClass() != obj.getClass())
 			return false;
 		BGP4Object other = (BGP4Object) obj;
-		if (!Arrays.equals(bytes, other.bytes))
-			return false;
 		if (length != other.length)
 			return false;
+		if (bytes == null || other.bytes == null) {
+			if (bytes != other.bytes)
+				return false;
+		} else if (!Arrays.equals(bytes, bytesOffset, bytesOffset + length, other.bytes, other.bytesOffset, other.bytesOffset + other.length))
+			return false;
 		return true;
 	}
-	
-	
+
+
 }
@@ -67,17 +67,17 @@ public class BGP4CapabilitiesOptionalParameter extends BGP4OptionalParameter{
 
 	public void encode() {
 		this.parameterLength=0;
-		for (int k=0; k<capabilityList.size();++k){
-			capabilityList.get(k).encode();
-			this.parameterLength+=capabilityList.get(k).getLength();
+		for (BGP4Capability bgp4Capability : capabilityList){
+			bgp4Capability.encode();
+			this.parameterLength+=bgp4Capability.getLength();
 		}
 		this.length=parameterLength+2;
 		this.bytes=new byte[length];
 		encodeOptionalParameterHeader();
 		int offset=2;//2 is the header of the Optional Parameter in BGP4
-		for (int k=0; k<capabilityList.size();++k){
-			System.arraycopy(capabilityList.get(k).getBytes(),0,this.bytes,offset,capabilityList.get(k).getLength());
-			offset=offset+capabilityList.get(k).getLength();
+		for (BGP4Capability bgp4Capability : capabilityList){
+			System.arraycopy(bgp4Capability.getBytes(),0,this.bytes,offset,bgp4Capability.getLength());
+			offset=offset+bgp4Capability.getLength();
 		}
 	}
 
@@ -97,6 +97,11 @@ public class BGP4CapabilitiesOptionalParameter extends BGP4OptionalParameter{
 				BGP4OctetsASByteCapabilityAdvertisement meca = new  BGP4OctetsASByteCapabilityAdvertisement(this.bytes, offset);
 				capabilityList.add(meca);
 				offset=offset+meca.getLength();
+			} else if (capabilityCode == BGP4OptionalParametersTypes.CAPABILITY_CODE_EXTENDED_MESSAGE)
+			{
+				BGP4ExtendedMessageCapabilityAdvertisement emca = new  BGP4ExtendedMessageCapabilityAdvertisement(this.bytes, offset);
+				capabilityList.add(emca);
+				offset=offset+emca.getLength();
 			}
 			
 			else {
@@ -0,0 +1,52 @@
+package es.tid.bgp.bgp4.open;
+
+/**
+ * Extended Message Capability
+ * <a href="https://tools.ietf.org/html/rfc8654">RFC 8654</a>.
+ *
+   The BGP Extended Message Capability is a new BGP capability [RFC5492]
+   defined with Capability Code 6 and Capability Length 0.
+
+   To advertise the BGP Extended Message Capability to a peer, a BGP
+   speaker uses BGP Capabilities Advertisement [RFC5492].  By
+   advertising the BGP Extended Message Capability to a peer, a BGP
+   speaker conveys that it is able to receive and properly handle BGP
+   Extended Messages (see Section 4).
+
+   Peers that wish to use the BGP Extended Message Capability MUST
+   support error handling for BGP UPDATE messages per [RFC7606].
+
+   A BGP speaker MAY send Extended Messages to a peer only if the
+   Extended Message Capability was received from that peer. The maximum
+   message size is then 65535 octets.
+ *
+ */
+public class BGP4ExtendedMessageCapabilityAdvertisement extends BGP4Capability{
+
+	public BGP4ExtendedMessageCapabilityAdvertisement(){
+		super();
+		this.setCapabitityCode(BGP4OptionalParametersTypes.CAPABILITY_CODE_EXTENDED_MESSAGE);
+	}
+	public BGP4ExtendedMessageCapabilityAdvertisement(byte[] bytes, int offset){
+		super(bytes,offset);
+		decode();
+	}
+	public void encode(){
+		this.setCapabilityLength(0);
+		this.bytes = new byte[this.getLength()];
+		encodeHeader();
+	}
+
+	public void decode(){
+		//The capability has no value
+		if (this.getCapabilityLength() != 0){
+			log.warn("Extended Message capability with length "+this.getCapabilityLength());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ExtendedMessageCapabilityAdvertisement";
+	}
+
+}
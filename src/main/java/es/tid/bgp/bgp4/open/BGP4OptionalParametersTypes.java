@@ -9,6 +9,7 @@ public class BGP4OptionalParametersTypes {
 	public static final int CAPABILITY_OPTIONAL_PARAMETER =2; 
 	//Capability code
 	public static final int CAPABILITY_CODE_MULTIPROTOCOLEXTENSION = 1;//rfc 4760
+	public static final int CAPABILITY_CODE_EXTENDED_MESSAGE = 6;//rfc 8654
 	public static final int CAPABILITY_CODE_AS_4_BYTES = 65;//rfc 4760
 
 }
@@ -0,0 +1,116 @@
+package es.tid.bgp.bgp4.rib;
+
+import java.util.Arrays;
+
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.tlv.BGP4TLVFormat;
+
+/**
+ * Compares two BGP-LS attributes TLV by TLV.
+ *
+ * The comparison works on the encoded attributes: the TLVs are not decoded,
+ * whatever the decode profile of the attributes. Two TLVs are equal when
+ * their bytes are equal. When an attribute carries several TLVs of the same
+ * type (for instance several Adjacency SIDs) they are compared in order, as
+ * a group.
+ */
+public final class LinkStateAttributeDiff {
+
+	private static final int[] NONE = new int[0];
+
+	private LinkStateAttributeDiff() {
+	}
+
+	/**
+	 * @param previous attribute before the change, or null
+	 * @param current attribute after the change, or null
+	 * @return types of the TLVs added, removed or modified, in ascending order
+	 */
+	public static int[] changedTLVTypes(LinkStateAttribute previous, LinkStateAttribute current) {
+		if (previous == current) {
+			return NONE;
+		}
+		TLVs a = new TLVs(previous);
+		TLVs b = new TLVs(current);
+		int[] changed = new int[a.count + b.count];
+		int count = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.count || j < b.count) {
+			int type = Math.min(i < a.count ? a.types[i] : Integer.MAX_VALUE, j < b.count ? b.types[j] : Integer.MAX_VALUE);
+			int iEnd = i;
+			while (iEnd < a.count && a.types[iEnd] == type) {
+				iEnd++;
+			}
+			int jEnd = j;
+			while (jEnd < b.count && b.types[jEnd] == type) {
+				jEnd++;
+			}
+			boolean equal = iEnd - i == jEnd - j;
+			for (int k = 0; equal && k < iEnd - i; ++k) {
+				equal = a.equals(i + k, b, j + k);
+			}
+			if (!equal) {
+				changed[count++] = type;
+			}
+			i = iEnd;
+			j = jEnd;
+		}
+		return count == 0 ? NONE : Arrays.copyOf(changed, count);
+	}
+
+	/**
+	 * TLVs of an attribute, stably sorted by type
+	 */
+	private static final class TLVs {
+		byte[] bytes;
+		int[] types;
+		int[] offsets;
+		int[] lengths;
+		int count;
+
+		TLVs(LinkStateAttribute attribute) {
+			types = NONE;
+			if (attribute == null) {
+				return;
+			}
+			if (attribute.getBytes() == null) {
+				attribute.encode();
+			}
+			bytes = attribute.getBytes();
+			int offset = attribute.getMandatoryLength();
+			int end = attribute.getLength();
+			// the smallest TLV is 4 octets
+			int capacity = (end - offset) >>> 2;
+			types = new int[capacity];
+			offsets = new int[capacity];
+			lengths = new int[capacity];
+			while (offset + 4 <= end) {
+				int length = BGP4TLVFormat.getTotalTLVLength(bytes, offset);
+				if (offset + length > end) {
+					break;
+				}
+				int type = BGP4TLVFormat.getType(bytes, offset);
+				// insertion sort, the TLVs are usually in order already
+				int k = count;
+				while (k > 0 && types[k - 1] > type) {
+					types[k] = types[k - 1];
+					offsets[k] = offsets[k - 1];
+					lengths[k] = lengths[k - 1];
+					k--;
+				}
+				types[k] = type;
+				offsets[k] = offset;
+				lengths[k] = length;
+				count++;
+				offset += length;
+			}
+		}
+
+		boolean equals(int index, TLVs other, int otherIndex) {
+			return Arrays.equals(bytes, offsets[index], offsets[index] + lengths[index],
+					other.bytes, other.offsets[otherIndex], other.offsets[otherIndex] + other.lengths[otherIndex]);
+		}
+	}
+
+}
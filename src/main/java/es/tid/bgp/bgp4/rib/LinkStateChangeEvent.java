@@ -0,0 +1,98 @@
+package es.tid.bgp.bgp4.rib;
+
+import java.util.Arrays;
+
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRIKey;
+
+/**
+ * Change of a node, link or prefix of a {@link LinkStateRIB}.
+ *
+ * A change of the BGP-LS attribute lists the types of the TLVs that were
+ * added, removed or modified, so that a consumer only looks at what it uses:
+ *
+ * <pre>
+ * if (event.hasChanged(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_UNRESERVED_BANDWITH)) {
+ *     UnreservedBandwidthLinkAttribTLV bandwidth = event.getRoute().getAttribute().getUnreservedBandwidthTLV();
+ * }
+ * </pre>
+ */
+public final class LinkStateChangeEvent {
+
+	public enum Type {
+		/**
+		 * The NLRI was not in the RIB
+		 */
+		ADDED,
+		/**
+		 * The BGP-LS attribute of the NLRI changed
+		 */
+		CHANGED,
+		/**
+		 * The NLRI was withdrawn
+		 */
+		WITHDRAWN
+	}
+
+	private final Type type;
+	private final LinkStateRoute previous;
+	private final LinkStateRoute route;
+	private final int[] changedTLVTypes;
+
+	LinkStateChangeEvent(Type type, LinkStateRoute previous, LinkStateRoute route, int[] changedTLVTypes) {
+		this.type = type;
+		this.previous = previous;
+		this.route = route;
+		this.changedTLVTypes = changedTLVTypes;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public LinkStateNLRIKey getKey() {
+		return route != null ? route.getKey() : previous.getKey();
+	}
+
+	/**
+	 * @return NLRI Type of the node, link or prefix changed
+	 */
+	public int getNLRIType() {
+		return getKey().getNLRIType();
+	}
+
+	/**
+	 * @return the entry before the change, null if it was added
+	 */
+	public LinkStateRoute getPrevious() {
+		return previous;
+	}
+
+	/**
+	 * @return the entry after the change, null if it was withdrawn
+	 */
+	public LinkStateRoute getRoute() {
+		return route;
+	}
+
+	/**
+	 * @return types of the BGP-LS attribute TLVs that differ, in ascending order.
+	 * All the TLVs of the attribute are listed when the NLRI is added or withdrawn.
+	 */
+	public int[] getChangedTLVTypes() {
+		return changedTLVTypes.clone();
+	}
+
+	/**
+	 * @param tlvType type of a BGP-LS attribute TLV
+	 * @return true if the TLV was added, removed or modified
+	 */
+	public boolean hasChanged(int tlvType) {
+		return Arrays.binarySearch(changedTLVTypes, tlvType) >= 0;
+	}
+
+	@Override
+	public String toString() {
+		return "[LinkStateChangeEvent " + type + " " + getKey() + " TLVs=" + Arrays.toString(changedTLVTypes) + "]";
+	}
+
+}
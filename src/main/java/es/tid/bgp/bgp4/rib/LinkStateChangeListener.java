@@ -0,0 +1,15 @@
+package es.tid.bgp.bgp4.rib;
+
+/**
+ * Receives the changes of a {@link LinkStateRIB}
+ */
+@FunctionalInterface
+public interface LinkStateChangeListener {
+
+	/**
+	 * Called after the RIB is changed, in the thread that changed it
+	 * @param event the change
+	 */
+	void linkStateChanged(LinkStateChangeEvent event);
+
+}
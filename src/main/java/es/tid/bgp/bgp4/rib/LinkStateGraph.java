@@ -0,0 +1,483 @@
+package es.tid.bgp.bgp4.rib;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRIKey;
+import es.tid.bgp.bgp4.update.fields.NLRITypes;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.AdministrativeGroupLinkAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.DefaultTEMetricLinkAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.MaxReservableBandwidthLinkAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.MaximumLinkBandwidthLinkAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.MetricLinkAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.SharedRiskLinkGroupAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.UnreservedBandwidthLinkAttribTLV;
+
+/**
+ * Snapshot of a BGP-LS topology as a directed graph in compressed sparse row
+ * form, for path computation.
+ *
+ * Nodes and links are numbered from 0. The links leaving node n are the ids
+ * from {@link #getFirstLink(int) getFirstLink(n)} to
+ * {@link #getLastLink(int) getLastLink(n)} (excluded), and the attributes of
+ * each link are kept in arrays of primitives indexed by link id, so relaxing
+ * a link reads a few array elements and allocates nothing:
+ *
+ * <pre>
+ * for (int link = graph.getFirstLink(node); link &lt; graph.getLastLink(node); ++link) {
+ *     long metric = graph.getTEMetric(link);
+ *     int next = graph.getTarget(link);
+ *     ...
+ * }
+ * </pre>
+ *
+ * A snapshot is never modified, so it can be shared by any number of
+ * computation threads. A change of the attributes of some links gives a new
+ * snapshot through {@link #patch()}, which shares the topology arrays with
+ * this one. Adding or removing nodes or links needs a new build, see
+ * {@link LinkStateGraphBuilder}.
+ *
+ * The node ids follow the order of the keys of the nodes, so the same
+ * topology always gives the same ids.
+ */
+public final class LinkStateGraph {
+
+	/**
+	 * Value of a metric or delay not advertised
+	 */
+	public static final long NO_METRIC = -1;
+
+	/**
+	 * Number of priorities of the Unreserved Bandwidth TLV
+	 */
+	public static final int PRIORITIES = 8;
+
+	private final LinkStateNLRIKey[] nodeKeys;
+	private final Map<LinkStateNLRIKey, Integer> nodeIds;
+	private final int[] firstLinks;
+	private final int[] sources;
+	private final int[] targets;
+	private final LinkStateNLRIKey[] linkKeys;
+	private final Map<LinkStateNLRIKey, Integer> linkIds;
+	private final long[] delays;
+
+	private final long[] teMetrics;
+	private final long[] igpMetrics;
+	private final float[] maxBandwidths;
+	private final float[] maxReservableBandwidths;
+	private final float[] unreservedBandwidths;
+	private final int[] adminGroups;
+	private final int[] srlgOffsets;
+	private final long[] srlgs;
+
+	/**
+	 * Builds a graph with the link attributes not advertised
+	 */
+	LinkStateGraph(LinkStateNLRIKey[] nodeKeys, int[] firstLinks, int[] sources, int[] targets, LinkStateNLRIKey[] linkKeys, long[] delays) {
+		this.nodeKeys = nodeKeys;
+		this.nodeIds = index(nodeKeys);
+		this.firstLinks = firstLinks;
+		this.sources = sources;
+		this.targets = targets;
+		this.linkKeys = linkKeys;
+		this.linkIds = index(linkKeys);
+		this.delays = delays;
+		int links = linkKeys.length;
+		this.teMetrics = new long[links];
+		this.igpMetrics = new long[links];
+		this.maxBandwidths = new float[links];
+		this.maxReservableBandwidths = new float[links];
+		this.unreservedBandwidths = new float[links * PRIORITIES];
+		this.adminGroups = new int[links];
+		this.srlgOffsets = new int[links + 1];
+		this.srlgs = new long[0];
+		Arrays.fill(teMetrics, NO_METRIC);
+		Arrays.fill(igpMetrics, NO_METRIC);
+	}
+
+	/**
+	 * Copies the topology of a graph with new attributes
+	 */
+	private LinkStateGraph(LinkStateGraph graph, long[] teMetrics, long[] igpMetrics, float[] maxBandwidths,
+			float[] maxReservableBandwidths, float[] unreservedBandwidths, int[] adminGroups, int[] srlgOffsets, long[] srlgs) {
+		this.nodeKeys = graph.nodeKeys;
+		this.nodeIds = graph.nodeIds;
+		this.firstLinks = graph.firstLinks;
+		this.sources = graph.sources;
+		this.targets = graph.targets;
+		this.linkKeys = graph.linkKeys;
+		this.linkIds = graph.linkIds;
+		this.delays = graph.delays;
+		this.teMetrics = teMetrics;
+		this.igpMetrics = igpMetrics;
+		this.maxBandwidths = maxBandwidths;
+		this.maxReservableBandwidths = maxReservableBandwidths;
+		this.unreservedBandwidths = unreservedBandwidths;
+		this.adminGroups = adminGroups;
+		this.srlgOffsets = srlgOffsets;
+		this.srlgs = srlgs;
+	}
+
+	private static Map<LinkStateNLRIKey, Integer> index(LinkStateNLRIKey[] keys) {
+		Map<LinkStateNLRIKey, Integer> ids = new HashMap<LinkStateNLRIKey, Integer>(keys.length * 4 / 3 + 1);
+		for (int i = 0; i < keys.length; ++i) {
+			ids.put(keys[i], i);
+		}
+		return ids;
+	}
+
+	public int getNodeCount() {
+		return nodeKeys.length;
+	}
+
+	public int getLinkCount() {
+		return linkKeys.length;
+	}
+
+	/**
+	 * @param node node id
+	 * @return key of the Node NLRI of the node
+	 */
+	public LinkStateNLRIKey getNodeKey(int node) {
+		return nodeKeys[node];
+	}
+
+	/**
+	 * @param key key of a Node NLRI
+	 * @return id of the node, or -1 if it is not in the graph
+	 */
+	public int getNodeId(LinkStateNLRIKey key) {
+		Integer id = nodeIds.get(key);
+		return id != null ? id : -1;
+	}
+
+	/**
+	 * @return id of the first link leaving the node
+	 */
+	public int getFirstLink(int node) {
+		return firstLinks[node];
+	}
+
+	/**
+	 * @return id after the last link leaving the node
+	 */
+	public int getLastLink(int node) {
+		return firstLinks[node + 1];
+	}
+
+	/**
+	 * @param link link id
+	 * @return key of the Link NLRI of the link
+	 */
+	public LinkStateNLRIKey getLinkKey(int link) {
+		return linkKeys[link];
+	}
+
+	/**
+	 * @param key key of a Link NLRI
+	 * @return id of the link, or -1 if it is not in the graph
+	 */
+	public int getLinkId(LinkStateNLRIKey key) {
+		Integer id = linkIds.get(key);
+		return id != null ? id : -1;
+	}
+
+	/**
+	 * @return id of the local node of the link
+	 */
+	public int getSource(int link) {
+		return sources[link];
+	}
+
+	/**
+	 * @return id of the remote node of the link
+	 */
+	public int getTarget(int link) {
+		return targets[link];
+	}
+
+	/**
+	 * @return TE Default Metric, or {@link #NO_METRIC}
+	 */
+	public long getTEMetric(int link) {
+		return teMetrics[link];
+	}
+
+	/**
+	 * @return IGP Metric, or {@link #NO_METRIC}
+	 */
+	public long getIGPMetric(int link) {
+		return igpMetrics[link];
+	}
+
+	/**
+	 * @return Maximum Link Bandwidth in bytes per second, 0 if not advertised
+	 */
+	public float getMaxBandwidth(int link) {
+		return maxBandwidths[link];
+	}
+
+	/**
+	 * @return Maximum Reservable Link Bandwidth in bytes per second, 0 if not advertised
+	 */
+	public float getMaxReservableBandwidth(int link) {
+		return maxReservableBandwidths[link];
+	}
+
+	/**
+	 * @param priority priority, from 0 to 7
+	 * @return Unreserved Bandwidth at the priority in bytes per second, 0 if not advertised
+	 */
+	public float getUnreservedBandwidth(int link, int priority) {
+		return unreservedBandwidths[link * PRIORITIES + priority];
+	}
+
+	/**
+	 * @return Administrative Group bit mask, 0 if not advertised
+	 */
+	public int getAdminGroup(int link) {
+		return adminGroups[link];
+	}
+
+	/**
+	 * @return Unidirectional Link Delay in microseconds, or {@link #NO_METRIC}
+	 */
+	public long getDelay(int link) {
+		return delays[link];
+	}
+
+	/**
+	 * @return number of Shared Risk Link Groups of the link
+	 */
+	public int getSRLGCount(int link) {
+		return srlgOffsets[link + 1] - srlgOffsets[link];
+	}
+
+	/**
+	 * @param index position of the group, from 0 to {@link #getSRLGCount(int)}
+	 * @return Shared Risk Link Group value
+	 */
+	public long getSRLG(int link, int index) {
+		return srlgs[srlgOffsets[link] + index];
+	}
+
+	/**
+	 * @return true if the link belongs to the Shared Risk Link Group
+	 */
+	public boolean hasSRLG(int link, long srlg) {
+		for (int i = srlgOffsets[link]; i < srlgOffsets[link + 1]; ++i) {
+			if (srlgs[i] == srlg) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return a patch to change the attributes of some links
+	 */
+	public Patch patch() {
+		return new Patch();
+	}
+
+	/**
+	 * Applies changes of a {@link LinkStateRIB}
+	 * @param events changes, in order
+	 * @return the graph with the new link attributes, or null if nodes or links
+	 * were added or removed and the graph must be built again
+	 */
+	public LinkStateGraph update(List<LinkStateChangeEvent> events) {
+		Patch patch = null;
+		for (LinkStateChangeEvent event : events) {
+			int nlriType = event.getNLRIType();
+			if (nlriType != NLRITypes.Link_NLRI && nlriType != NLRITypes.Node_NLRI) {
+				continue;
+			}
+			if (event.getType() != LinkStateChangeEvent.Type.CHANGED) {
+				return null;
+			}
+			if (nlriType == NLRITypes.Link_NLRI) {
+				if (patch == null) {
+					patch = patch();
+				}
+				if (!patch.setAttribute(event.getKey(), event.getRoute().getAttribute())) {
+					return null;
+				}
+			}
+		}
+		return patch != null ? patch.apply() : this;
+	}
+
+	/**
+	 * Changes of the attributes of some links. The arrays of the graph are
+	 * copied on the first change, and {@link #apply()} gives a new graph. The
+	 * new graph takes the arrays, so a patch is applied once and cannot be
+	 * changed afterwards.
+	 */
+	public final class Patch {
+
+		private long[] teMetrics;
+		private long[] igpMetrics;
+		private float[] maxBandwidths;
+		private float[] maxReservableBandwidths;
+		private float[] unreservedBandwidths;
+		private int[] adminGroups;
+		/**
+		 * New SRLG values of the links changed, null until an SRLG changes
+		 */
+		private long[][] srlgChanges;
+
+		private boolean applied;
+
+		private Patch() {
+		}
+
+		/**
+		 * Sets the attributes of a link from its BGP-LS attribute
+		 * @param key key of the Link NLRI
+		 * @param attribute new attribute, or null
+		 * @return false if the link is not in the graph
+		 * @throws IllegalStateException if the patch has been applied
+		 */
+		public boolean setAttribute(LinkStateNLRIKey key, LinkStateAttribute attribute) {
+			checkNotApplied();
+			int link = getLinkId(key);
+			if (link < 0) {
+				return false;
+			}
+			setAttribute(link, attribute);
+			return true;
+		}
+
+		/**
+		 * Sets the attributes of a link from its BGP-LS attribute
+		 * @param link link id
+		 * @param attribute new attribute, or null
+		 * @throws IllegalStateException if the patch has been applied
+		 */
+		public void setAttribute(int link, LinkStateAttribute attribute) {
+			checkNotApplied();
+			if (teMetrics == null) {
+				teMetrics = LinkStateGraph.this.teMetrics.clone();
+				igpMetrics = LinkStateGraph.this.igpMetrics.clone();
+				maxBandwidths = LinkStateGraph.this.maxBandwidths.clone();
+				maxReservableBandwidths = LinkStateGraph.this.maxReservableBandwidths.clone();
+				unreservedBandwidths = LinkStateGraph.this.unreservedBandwidths.clone();
+				adminGroups = LinkStateGraph.this.adminGroups.clone();
+			}
+			writeAttribute(link, attribute, teMetrics, igpMetrics, maxBandwidths, maxReservableBandwidths, unreservedBandwidths, adminGroups);
+			long[] values = srlgValues(attribute);
+			if (srlgChanges != null || !Arrays.equals(values, 0, values.length, srlgs, srlgOffsets[link], srlgOffsets[link + 1])) {
+				if (srlgChanges == null) {
+					srlgChanges = new long[linkKeys.length][];
+				}
+				srlgChanges[link] = values;
+			}
+		}
+
+		/**
+		 * @return the graph with the changes
+		 * @throws IllegalStateException if the patch has already been applied
+		 */
+		public LinkStateGraph apply() {
+			checkNotApplied();
+			applied = true;
+			if (teMetrics == null) {
+				return LinkStateGraph.this;
+			}
+			int[] newSRLGOffsets = srlgOffsets;
+			long[] newSRLGs = srlgs;
+			if (srlgChanges != null) {
+				int links = linkKeys.length;
+				for (int link = 0; link < links; ++link) {
+					if (srlgChanges[link] == null) {
+						srlgChanges[link] = Arrays.copyOfRange(srlgs, srlgOffsets[link], srlgOffsets[link + 1]);
+					}
+				}
+				newSRLGOffsets = new int[links + 1];
+				newSRLGs = packSRLGs(srlgChanges, newSRLGOffsets);
+			}
+			LinkStateGraph graph = new LinkStateGraph(LinkStateGraph.this, teMetrics, igpMetrics, maxBandwidths,
+					maxReservableBandwidths, unreservedBandwidths, adminGroups, newSRLGOffsets, newSRLGs);
+			teMetrics = null;
+			igpMetrics = null;
+			maxBandwidths = null;
+			maxReservableBandwidths = null;
+			unreservedBandwidths = null;
+			adminGroups = null;
+			srlgChanges = null;
+			return graph;
+		}
+
+		private void checkNotApplied() {
+			if (applied) {
+				throw new IllegalStateException("Patch already applied");
+			}
+		}
+	}
+
+	/**
+	 * Gives the graph the attributes of its links, used once by the builder
+	 * @param attributes attribute of each link, by link id
+	 */
+	LinkStateGraph withAttributes(LinkStateAttribute[] attributes) {
+		long[][] values = new long[attributes.length][];
+		for (int link = 0; link < attributes.length; ++link) {
+			writeAttribute(link, attributes[link], teMetrics, igpMetrics, maxBandwidths, maxReservableBandwidths, unreservedBandwidths, adminGroups);
+			values[link] = srlgValues(attributes[link]);
+		}
+		int[] newSRLGOffsets = new int[attributes.length + 1];
+		long[] newSRLGs = packSRLGs(values, newSRLGOffsets);
+		return new LinkStateGraph(this, teMetrics, igpMetrics, maxBandwidths, maxReservableBandwidths,
+				unreservedBandwidths, adminGroups, newSRLGOffsets, newSRLGs);
+	}
+
+	private static void writeAttribute(int link, LinkStateAttribute attribute, long[] teMetrics, long[] igpMetrics,
+			float[] maxBandwidths, float[] maxReservableBandwidths, float[] unreservedBandwidths, int[] adminGroups) {
+		DefaultTEMetricLinkAttribTLV teMetric = attribute != null ? attribute.getTEMetricTLV() : null;
+		teMetrics[link] = teMetric != null ? teMetric.getLinkMetric() : NO_METRIC;
+		MetricLinkAttribTLV igpMetric = attribute != null ? attribute.getMetricTLV() : null;
+		igpMetrics[link] = igpMetric != null ? igpMetric.getMetric() : NO_METRIC;
+		MaximumLinkBandwidthLinkAttribTLV maxBandwidth = attribute != null ? attribute.getMaximumLinkBandwidthTLV() : null;
+		maxBandwidths[link] = maxBandwidth != null ? maxBandwidth.getMaximumBandwidth() : 0;
+		MaxReservableBandwidthLinkAttribTLV maxReservableBandwidth = attribute != null ? attribute.getMaxReservableBandwidthTLV() : null;
+		maxReservableBandwidths[link] = maxReservableBandwidth != null ? maxReservableBandwidth.getMaximumReservableBandwidth() : 0;
+		UnreservedBandwidthLinkAttribTLV unreservedBandwidth = attribute != null ? attribute.getUnreservedBandwidthTLV() : null;
+		for (int priority = 0; priority < PRIORITIES; ++priority) {
+			unreservedBandwidths[link * PRIORITIES + priority] = unreservedBandwidth != null ? unreservedBandwidth.getUnreservedBandwidth()[priority] : 0;
+		}
+		AdministrativeGroupLinkAttribTLV adminGroup = attribute != null ? attribute.getAdministrativeGroupTLV() : null;
+		adminGroups[link] = adminGroup != null ? adminGroup.getAdministrativeGroup() : 0;
+	}
+
+	private static long[] srlgValues(LinkStateAttribute attribute) {
+		SharedRiskLinkGroupAttribTLV srlg = attribute != null ? attribute.getSharedRiskLinkGroupATLV() : null;
+		if (srlg == null || srlg.getSrlg_values() == null) {
+			return new long[0];
+		}
+		long[] values = new long[srlg.getSrlg_values().size()];
+		int i = 0;
+		for (Long value : srlg.getSrlg_values()) {
+			values[i++] = value;
+		}
+		return values;
+	}
+
+	private static long[] packSRLGs(long[][] values, int[] offsets) {
+		int total = 0;
+		for (int link = 0; link < values.length; ++link) {
+			offsets[link] = total;
+			total += values[link].length;
+		}
+		offsets[values.length] = total;
+		long[] packed = new long[total];
+		for (int link = 0; link < values.length; ++link) {
+			System.arraycopy(values[link], 0, packed, offsets[link], values[link].length);
+		}
+		return packed;
+	}
+
+}
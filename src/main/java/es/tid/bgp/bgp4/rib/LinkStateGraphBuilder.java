@@ -0,0 +1,163 @@
+package es.tid.bgp.bgp4.rib;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import es.tid.bgp.bgp4.update.fields.LinkNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRIKey;
+import es.tid.bgp.bgp4.update.fields.NLRITypes;
+import es.tid.bgp.bgp4.update.fields.NodeNLRI;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.tlv.BGP4TLVFormat;
+import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
+
+/**
+ * Collects the nodes and links of a BGP-LS topology and builds a
+ * {@link LinkStateGraph}.
+ *
+ * Each Link NLRI is a link from the node of its Local Node Descriptors to the
+ * node of its Remote Node Descriptors. A node is identified by the key of the
+ * Node NLRI with the same Protocol-ID, Identifier and descriptors, so the
+ * ends of the links match the nodes advertised in Node NLRIs. Nodes are only
+ * needed to add nodes without links.
+ *
+ * <pre>
+ * LinkStateGraph graph = LinkStateGraphBuilder.build(rib);
+ * </pre>
+ */
+public class LinkStateGraphBuilder {
+
+	private static final class Link {
+		final LinkStateNLRIKey key;
+		final LinkStateNLRIKey source;
+		final LinkStateNLRIKey target;
+		final long delay;
+		final LinkStateAttribute attribute;
+
+		Link(LinkStateNLRIKey key, LinkStateNLRIKey source, LinkStateNLRIKey target, long delay, LinkStateAttribute attribute) {
+			this.key = key;
+			this.source = source;
+			this.target = target;
+			this.delay = delay;
+			this.attribute = attribute;
+		}
+	}
+
+	private final TreeSet<LinkStateNLRIKey> nodes = new TreeSet<LinkStateNLRIKey>();
+
+	private final Map<LinkStateNLRIKey, Link> links = new HashMap<LinkStateNLRIKey, Link>();
+
+	/**
+	 * @return a graph of the nodes and links of the RIB
+	 */
+	public static LinkStateGraph build(LinkStateRIB rib) {
+		return new LinkStateGraphBuilder().addAll(rib).build();
+	}
+
+	/**
+	 * Adds the nodes and links of a RIB
+	 */
+	public LinkStateGraphBuilder addAll(LinkStateRIB rib) {
+		rib.forEach(NLRITypes.Node_NLRI, route -> addNode((NodeNLRI) route.getNLRI()));
+		rib.forEach(NLRITypes.Link_NLRI, route -> addLink((LinkNLRI) route.getNLRI(), route.getAttribute()));
+		return this;
+	}
+
+	public LinkStateGraphBuilder addNode(NodeNLRI nlri) {
+		nodes.add(nlri.getKey());
+		return this;
+	}
+
+	/**
+	 * Adds a link, or replaces its attribute
+	 * @param nlri Link NLRI
+	 * @param attribute BGP-LS attribute of the link, or null
+	 */
+	public LinkStateGraphBuilder addLink(LinkNLRI nlri, LinkStateAttribute attribute) {
+		LinkStateNLRIKey key = nlri.getKey();
+		LinkStateNLRIKey source = nodeKey(nlri.getProtocolID(), nlri.getIdentifier(), nlri.getLocalNodeDescriptors());
+		LinkStateNLRIKey target = nodeKey(nlri.getProtocolID(), nlri.getIdentifier(), nlri.getRemoteNodeDescriptorsTLV());
+		long delay = nlri.getUndirectionalLinkDelayTLV() != null ? nlri.getUndirectionalLinkDelayTLV().getDelay() : LinkStateGraph.NO_METRIC;
+		links.put(key, new Link(key, source, target, delay, attribute));
+		nodes.add(source);
+		nodes.add(target);
+		return this;
+	}
+
+	/**
+	 * Removes a link. Its nodes are kept.
+	 * @param key key of the Link NLRI
+	 * @return false if the link was not added
+	 */
+	public boolean removeLink(LinkStateNLRIKey key) {
+		return links.remove(key) != null;
+	}
+
+	/**
+	 * @return a graph of the nodes and links added so far
+	 */
+	public LinkStateGraph build() {
+		LinkStateNLRIKey[] nodeKeys = nodes.toArray(new LinkStateNLRIKey[nodes.size()]);
+		Map<LinkStateNLRIKey, Integer> nodeIds = new HashMap<LinkStateNLRIKey, Integer>(nodeKeys.length * 4 / 3 + 1);
+		for (int i = 0; i < nodeKeys.length; ++i) {
+			nodeIds.put(nodeKeys[i], i);
+		}
+		Link[] sorted = links.values().toArray(new Link[links.size()]);
+		int[] sourceIds = new int[sorted.length];
+		Arrays.sort(sorted, (a, b) -> {
+			int compare = Integer.compare(nodeIds.get(a.source), nodeIds.get(b.source));
+			return compare != 0 ? compare : a.key.compareTo(b.key);
+		});
+		int[] firstLinks = new int[nodeKeys.length + 1];
+		int[] targets = new int[sorted.length];
+		LinkStateNLRIKey[] linkKeys = new LinkStateNLRIKey[sorted.length];
+		long[] delays = new long[sorted.length];
+		LinkStateAttribute[] attributes = new LinkStateAttribute[sorted.length];
+		for (int link = 0; link < sorted.length; ++link) {
+			sourceIds[link] = nodeIds.get(sorted[link].source);
+			targets[link] = nodeIds.get(sorted[link].target);
+			linkKeys[link] = sorted[link].key;
+			delays[link] = sorted[link].delay;
+			attributes[link] = sorted[link].attribute;
+			firstLinks[sourceIds[link] + 1]++;
+		}
+		for (int node = 0; node < nodeKeys.length; ++node) {
+			firstLinks[node + 1] += firstLinks[node];
+		}
+		return new LinkStateGraph(nodeKeys, firstLinks, sourceIds, targets, linkKeys, delays).withAttributes(attributes);
+	}
+
+	/**
+	 * Builds the key of the Node NLRI of a node
+	 * @param protocolID Protocol-ID
+	 * @param identifier Identifier
+	 * @param descriptors Local or Remote Node Descriptors of the node
+	 * @return the key, as given by {@link NodeNLRI#getKey()}
+	 */
+	public static LinkStateNLRIKey nodeKey(int protocolID, long identifier, BGP4TLVFormat descriptors) {
+		if (descriptors.getTlv_bytes() == null) {
+			descriptors.encode();
+		}
+		byte[] tlv = descriptors.getTlv_bytes();
+		int valueLength = descriptors.getTLVValueLength();
+		// Node NLRI: header, Protocol-ID, Identifier and Local Node Descriptors
+		int length = 1 + 8 + 4 + valueLength;
+		byte[] nlri = new byte[4 + length];
+		nlri[1] = (byte) NLRITypes.Node_NLRI;
+		nlri[2] = (byte) (length >>> 8);
+		nlri[3] = (byte) length;
+		nlri[4] = (byte) protocolID;
+		for (int i = 0; i < 8; ++i) {
+			nlri[5 + i] = (byte) (identifier >>> (56 - 8 * i));
+		}
+		nlri[13] = (byte) (LocalNodeDescriptorsTLV.Local_Node_Descriptors_TLV >>> 8);
+		nlri[14] = (byte) LocalNodeDescriptorsTLV.Local_Node_Descriptors_TLV;
+		nlri[15] = (byte) (valueLength >>> 8);
+		nlri[16] = (byte) valueLength;
+		System.arraycopy(tlv, 4, nlri, 17, valueLength);
+		return LinkStateNLRIKey.fromWire(nlri, 0);
+	}
+
+}
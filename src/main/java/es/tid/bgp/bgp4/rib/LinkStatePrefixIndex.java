@@ -0,0 +1,237 @@
+package es.tid.bgp.bgp4.rib;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.update.fields.IPv4PrefixNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRIKey;
+import es.tid.bgp.bgp4.update.fields.NLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Unreach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.tlv.node_link_prefix_descriptor_subTLVs.IPReachabilityInformationTLV;
+
+/**
+ * Index of the prefixes advertised in BGP-LS Prefix NLRIs, to find the nodes
+ * that advertise the longest prefix containing an address.
+ *
+ * The prefixes are kept in a {@link PrefixTrie}, so a lookup takes at most
+ * one step per bit of the address. Each prefix maps to one
+ * {@link PrefixAdvertisement} per NLRI that advertises it, that is, per
+ * advertising node, protocol and Identifier. Lookups do not lock and can run
+ * while the index is updated: all the NLRIs of an UPDATE message, or of a
+ * bulk {@link #load(List)}, become visible at once.
+ *
+ * <pre>
+ * index.load(initialUpdates);
+ * ...
+ * index.update(update);
+ * List&lt;PrefixAdvertisement&gt; advertisements = index.lookup(address);
+ * </pre>
+ */
+public class LinkStatePrefixIndex {
+
+	private static final PrefixAdvertisement[] NONE = new PrefixAdvertisement[0];
+
+	private final PrefixTrie<PrefixAdvertisement[]> trie = new PrefixTrie<PrefixAdvertisement[]>();
+
+	/**
+	 * Adds the Prefix NLRIs of the MP_REACH_NLRI attribute (or of the NLRI
+	 * field) of the message, with the prefix attributes of its BGP-LS
+	 * attribute, and removes those of the MP_UNREACH_NLRI attribute.
+	 * @param update UPDATE message received
+	 */
+	public synchronized void update(BGP4Update update) {
+		trie.load(loader -> apply(loader, update));
+	}
+
+	/**
+	 * Applies a set of UPDATE messages in order, for instance the initial
+	 * table of a peer. The result is published once, at the end.
+	 * @param updates messages received
+	 */
+	public synchronized void load(List<BGP4Update> updates) {
+		trie.load(loader -> {
+			for (BGP4Update update : updates) {
+				apply(loader, update);
+			}
+		});
+	}
+
+	/**
+	 * Adds or replaces the advertisement of a prefix
+	 * @param nlri Prefix NLRI
+	 * @param attribute BGP-LS attribute sent with the NLRI, or null
+	 */
+	public synchronized void advertise(IPv4PrefixNLRI nlri, LinkStateAttribute attribute) {
+		trie.load(loader -> advertise(loader, nlri, attribute));
+	}
+
+	/**
+	 * Removes the advertisement of a prefix
+	 * @param nlri Prefix NLRI withdrawn
+	 * @return true if the advertisement was in the index
+	 */
+	public synchronized boolean withdraw(IPv4PrefixNLRI nlri) {
+		boolean[] removed = new boolean[1];
+		trie.load(loader -> removed[0] = withdraw(loader, nlri));
+		return removed[0];
+	}
+
+	/**
+	 * Longest prefix match
+	 * @param address IPv4 address
+	 * @return advertisements of the longest prefix containing the address, empty if there is none
+	 */
+	public List<PrefixAdvertisement> lookup(InetAddress address) {
+		return asList(trie.lookup(address));
+	}
+
+	/**
+	 * Longest prefix match
+	 * @param address IPv4 address as an int
+	 * @return advertisements of the longest prefix containing the address, empty if there is none
+	 */
+	public List<PrefixAdvertisement> lookup(int address) {
+		return asList(trie.lookup(address));
+	}
+
+	/**
+	 * @return advertisements of the exact prefix, empty if there is none
+	 */
+	public List<PrefixAdvertisement> get(InetAddress address, int prefixLength) {
+		return asList(trie.get(address, prefixLength));
+	}
+
+	/**
+	 * @return number of prefixes advertised
+	 */
+	public int size() {
+		return trie.size();
+	}
+
+	public synchronized void clear() {
+		trie.clear();
+	}
+
+	/**
+	 * Visits the prefixes with their advertisements
+	 */
+	public void forEach(PrefixTrie.Visitor<? super List<PrefixAdvertisement>> visitor) {
+		trie.forEach((afi, high, low, prefixLength, advertisements) -> visitor.visit(afi, high, low, prefixLength, asList(advertisements)));
+	}
+
+	private static void apply(PrefixTrie<PrefixAdvertisement[]>.Loader loader, BGP4Update update) {
+		LinkStateAttribute attribute = null;
+		BGP_LS_MP_Reach_Attribute reach = null;
+		BGP_LS_MP_Unreach_Attribute unreach = null;
+		if (update.getPathAttributes() != null) {
+			for (PathAttribute pathAttribute : update.getPathAttributes()) {
+				if (pathAttribute instanceof LinkStateAttribute) {
+					attribute = (LinkStateAttribute) pathAttribute;
+				} else if (pathAttribute instanceof BGP_LS_MP_Reach_Attribute) {
+					reach = (BGP_LS_MP_Reach_Attribute) pathAttribute;
+				} else if (pathAttribute instanceof BGP_LS_MP_Unreach_Attribute) {
+					unreach = (BGP_LS_MP_Unreach_Attribute) pathAttribute;
+				}
+			}
+		}
+		if (unreach != null && unreach.getLsNLRIList() != null) {
+			for (LinkStateNLRI nlri : unreach.getLsNLRIList()) {
+				if (nlri instanceof IPv4PrefixNLRI) {
+					withdraw(loader, (IPv4PrefixNLRI) nlri);
+				}
+			}
+		}
+		if (reach != null && reach.getLsNLRIList() != null) {
+			for (LinkStateNLRI nlri : reach.getLsNLRIList()) {
+				if (nlri instanceof IPv4PrefixNLRI) {
+					advertise(loader, (IPv4PrefixNLRI) nlri, attribute);
+				}
+			}
+		}
+		for (NLRI nlri : update.getNlriList()) {
+			if (nlri instanceof IPv4PrefixNLRI) {
+				advertise(loader, (IPv4PrefixNLRI) nlri, attribute);
+			}
+		}
+	}
+
+	private static void advertise(PrefixTrie<PrefixAdvertisement[]>.Loader loader, IPv4PrefixNLRI nlri, LinkStateAttribute attribute) {
+		IPReachabilityInformationTLV reachability = nlri.getIpReachability();
+		if (reachability == null || reachability.getIpv4Address() == null) {
+			return;
+		}
+		PrefixAdvertisement advertisement = new PrefixAdvertisement(nlri.getKey(), nlri.getProtocolID(),
+				nlri.getRoutingUniverseIdentifier(), nlri.getLocalNodeDescriptors(),
+				attribute != null ? attribute.getPrefixMetricTLV() : null,
+				attribute != null ? attribute.getPrefixSIDTLV() : null);
+		int address = toInt(reachability.getIpv4Address());
+		int prefixLength = reachability.getPrefix_length();
+		PrefixAdvertisement[] current = loader.get(address, prefixLength);
+		if (current == null) {
+			current = NONE;
+		}
+		int index = indexOf(current, advertisement.getKey());
+		PrefixAdvertisement[] advertisements;
+		if (index >= 0) {
+			advertisements = current.clone();
+			advertisements[index] = advertisement;
+		} else {
+			advertisements = Arrays.copyOf(current, current.length + 1);
+			advertisements[current.length] = advertisement;
+		}
+		loader.put(address, prefixLength, advertisements);
+	}
+
+	private static boolean withdraw(PrefixTrie<PrefixAdvertisement[]>.Loader loader, IPv4PrefixNLRI nlri) {
+		IPReachabilityInformationTLV reachability = nlri.getIpReachability();
+		if (reachability == null || reachability.getIpv4Address() == null) {
+			return false;
+		}
+		int address = toInt(reachability.getIpv4Address());
+		int prefixLength = reachability.getPrefix_length();
+		PrefixAdvertisement[] current = loader.get(address, prefixLength);
+		int index = current != null ? indexOf(current, nlri.getKey()) : -1;
+		if (index < 0) {
+			return false;
+		}
+		if (current.length == 1) {
+			loader.remove(address, prefixLength);
+		} else {
+			PrefixAdvertisement[] advertisements = new PrefixAdvertisement[current.length - 1];
+			System.arraycopy(current, 0, advertisements, 0, index);
+			System.arraycopy(current, index + 1, advertisements, index, advertisements.length - index);
+			loader.put(address, prefixLength, advertisements);
+		}
+		return true;
+	}
+
+	private static int indexOf(PrefixAdvertisement[] advertisements, LinkStateNLRIKey key) {
+		for (int i = 0; i < advertisements.length; ++i) {
+			if (advertisements[i].getKey().equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int toInt(Inet4Address address) {
+		byte[] bytes = address.getAddress();
+		return ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+	}
+
+	private static List<PrefixAdvertisement> asList(PrefixAdvertisement[] advertisements) {
+		if (advertisements == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(Arrays.asList(advertisements));
+	}
+
+}
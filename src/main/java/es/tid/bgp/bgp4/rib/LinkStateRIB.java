@@ -0,0 +1,242 @@
+package es.tid.bgp.bgp4.rib;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRICursor;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRIKey;
+import es.tid.bgp.bgp4.update.fields.NLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Unreach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+
+/**
+ * Link-state RIB: latest advertisement of every node, link and prefix
+ * learnt through BGP-LS, with change notifications.
+ *
+ * The entries are keyed by the {@link LinkStateNLRIKey} of the NLRI, that is
+ * by its canonical descriptors. When an NLRI is advertised again, its new
+ * BGP-LS attribute is compared TLV by TLV with the stored one (see
+ * {@link LinkStateAttributeDiff}) and the listeners receive a
+ * {@link LinkStateChangeEvent} with the types of the TLVs that changed. An
+ * advertisement with the same attribute produces no event.
+ *
+ * The entries are immutable and kept in a {@link ConcurrentHashMap}, so
+ * reads never lock and run while the RIB is updated; writers only lock the
+ * bin of the key they change. The events of each change are delivered after
+ * the change, in the thread that made it. Updates of the same NLRI from
+ * several threads are applied in some order, but their events may be
+ * delivered out of that order: feed the RIB of a session from one thread.
+ *
+ * <pre>
+ * rib.addListener(event -&gt; {
+ *     if (event.hasChanged(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_UNRESERVED_BANDWITH)) {
+ *         ...
+ *     }
+ * });
+ * rib.update(update);
+ * </pre>
+ */
+public class LinkStateRIB {
+
+	private static final Logger log = LoggerFactory.getLogger("BGP4Parser");
+
+	private final ConcurrentHashMap<LinkStateNLRIKey, LinkStateRoute> routes;
+
+	private final CopyOnWriteArrayList<LinkStateChangeListener> listeners = new CopyOnWriteArrayList<LinkStateChangeListener>();
+
+	public LinkStateRIB() {
+		this(1024);
+	}
+
+	/**
+	 * @param expectedSize number of NLRIs expected, to avoid resizing the table
+	 */
+	public LinkStateRIB(int expectedSize) {
+		this.routes = new ConcurrentHashMap<LinkStateNLRIKey, LinkStateRoute>(expectedSize);
+	}
+
+	public void addListener(LinkStateChangeListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(LinkStateChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Applies an UPDATE message: first the NLRIs withdrawn in the
+	 * MP_UNREACH_NLRI attribute, then those advertised in the MP_REACH_NLRI
+	 * attribute (or in the NLRI field) with the BGP-LS attribute of the message.
+	 * The withdrawn NLRIs are not decoded.
+	 * @param update UPDATE message received
+	 * @return the changes, also given to the listeners
+	 */
+	public List<LinkStateChangeEvent> update(BGP4Update update) {
+		LinkStateAttribute attribute = null;
+		BGP_LS_MP_Reach_Attribute reach = null;
+		BGP_LS_MP_Unreach_Attribute unreach = null;
+		if (update.getPathAttributes() != null) {
+			for (PathAttribute pathAttribute : update.getPathAttributes()) {
+				if (pathAttribute instanceof LinkStateAttribute) {
+					attribute = (LinkStateAttribute) pathAttribute;
+				} else if (pathAttribute instanceof BGP_LS_MP_Reach_Attribute) {
+					reach = (BGP_LS_MP_Reach_Attribute) pathAttribute;
+				} else if (pathAttribute instanceof BGP_LS_MP_Unreach_Attribute) {
+					unreach = (BGP_LS_MP_Unreach_Attribute) pathAttribute;
+				}
+			}
+		}
+		List<LinkStateChangeEvent> events = new ArrayList<LinkStateChangeEvent>();
+		if (unreach != null) {
+			LinkStateNLRICursor cursor = unreach.nlriCursor();
+			while (cursor.next()) {
+				add(events, remove(cursor.getKey()));
+			}
+		}
+		if (reach != null && reach.getLsNLRIList() != null) {
+			for (LinkStateNLRI nlri : reach.getLsNLRIList()) {
+				add(events, put(nlri, attribute));
+			}
+		}
+		for (NLRI nlri : update.getNlriList()) {
+			if (nlri instanceof LinkStateNLRI) {
+				add(events, put((LinkStateNLRI) nlri, attribute));
+			}
+		}
+		for (LinkStateChangeEvent event : events) {
+			fire(event);
+		}
+		return events;
+	}
+
+	/**
+	 * Adds an NLRI, or replaces its attribute
+	 * @param nlri NLRI advertised
+	 * @param attribute BGP-LS attribute of the NLRI, or null
+	 * @return the change, or null if the NLRI was in the RIB with the same attribute
+	 */
+	public LinkStateChangeEvent advertise(LinkStateNLRI nlri, LinkStateAttribute attribute) {
+		LinkStateChangeEvent event = put(nlri, attribute);
+		if (event != null) {
+			fire(event);
+		}
+		return event;
+	}
+
+	/**
+	 * Removes an NLRI
+	 * @param key key of the NLRI withdrawn
+	 * @return the change, or null if the NLRI was not in the RIB
+	 */
+	public LinkStateChangeEvent withdraw(LinkStateNLRIKey key) {
+		LinkStateChangeEvent event = remove(key);
+		if (event != null) {
+			fire(event);
+		}
+		return event;
+	}
+
+	/**
+	 * Removes all the NLRIs, for instance when the session goes down. The
+	 * listeners receive a withdrawal for each one.
+	 */
+	public void clear() {
+		for (LinkStateNLRIKey key : routes.keySet()) {
+			withdraw(key);
+		}
+	}
+
+	/**
+	 * @return the entry of the NLRI, or null
+	 */
+	public LinkStateRoute get(LinkStateNLRIKey key) {
+		return routes.get(key);
+	}
+
+	/**
+	 * @return the entry of the NLRI, or null
+	 */
+	public LinkStateRoute get(LinkStateNLRI nlri) {
+		return routes.get(nlri.getKey());
+	}
+
+	/**
+	 * @return number of NLRIs
+	 */
+	public int size() {
+		return routes.size();
+	}
+
+	/**
+	 * @return view of the entries. It reflects the changes made while it is
+	 * iterated, without failing.
+	 */
+	public Collection<LinkStateRoute> getRoutes() {
+		return Collections.unmodifiableCollection(routes.values());
+	}
+
+	/**
+	 * Gives the entries of a type to the consumer
+	 * @param nlriType NLRI Type (see {@link es.tid.bgp.bgp4.update.fields.NLRITypes})
+	 * @param consumer receiver of the entries
+	 */
+	public void forEach(int nlriType, Consumer<LinkStateRoute> consumer) {
+		for (LinkStateRoute route : routes.values()) {
+			if (route.getNLRIType() == nlriType) {
+				consumer.accept(route);
+			}
+		}
+	}
+
+	private LinkStateChangeEvent put(LinkStateNLRI nlri, LinkStateAttribute attribute) {
+		LinkStateChangeEvent[] event = new LinkStateChangeEvent[1];
+		routes.compute(nlri.getKey(), (key, previous) -> {
+			int[] changed = LinkStateAttributeDiff.changedTLVTypes(previous != null ? previous.getAttribute() : null, attribute);
+			if (previous != null && changed.length == 0) {
+				return previous;
+			}
+			LinkStateRoute route = new LinkStateRoute(key, nlri, attribute);
+			event[0] = new LinkStateChangeEvent(previous == null ? LinkStateChangeEvent.Type.ADDED : LinkStateChangeEvent.Type.CHANGED, previous, route, changed);
+			return route;
+		});
+		return event[0];
+	}
+
+	private LinkStateChangeEvent remove(LinkStateNLRIKey key) {
+		LinkStateRoute previous = routes.remove(key);
+		if (previous == null) {
+			return null;
+		}
+		return new LinkStateChangeEvent(LinkStateChangeEvent.Type.WITHDRAWN, previous, null,
+				LinkStateAttributeDiff.changedTLVTypes(previous.getAttribute(), null));
+	}
+
+	private static void add(List<LinkStateChangeEvent> events, LinkStateChangeEvent event) {
+		if (event != null) {
+			events.add(event);
+		}
+	}
+
+	private void fire(LinkStateChangeEvent event) {
+		for (LinkStateChangeListener listener : listeners) {
+			try {
+				listener.linkStateChanged(event);
+			} catch (RuntimeException e) {
+				log.warn("Link-state listener failed on " + event, e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+package es.tid.bgp.bgp4.rib;
+
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRIKey;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+
+/**
+ * Entry of a {@link LinkStateRIB}: the latest advertisement of a node, link
+ * or prefix. Instances are never modified once stored, a new advertisement
+ * replaces the whole entry.
+ */
+public final class LinkStateRoute {
+
+	private final LinkStateNLRIKey key;
+	private final LinkStateNLRI nlri;
+	private final LinkStateAttribute attribute;
+
+	/**
+	 * @param key key of the NLRI
+	 * @param nlri NLRI advertised
+	 * @param attribute BGP-LS attribute sent with the NLRI, or null
+	 */
+	public LinkStateRoute(LinkStateNLRIKey key, LinkStateNLRI nlri, LinkStateAttribute attribute) {
+		this.key = key;
+		this.nlri = nlri;
+		this.attribute = attribute;
+	}
+
+	public LinkStateNLRIKey getKey() {
+		return key;
+	}
+
+	/**
+	 * @return NLRI Type (see {@link es.tid.bgp.bgp4.update.fields.NLRITypes})
+	 */
+	public int getNLRIType() {
+		return key.getNLRIType();
+	}
+
+	public LinkStateNLRI getNLRI() {
+		return nlri;
+	}
+
+	/**
+	 * @return the BGP-LS attribute, or null if the NLRI was advertised without it.
+	 * It must not be modified.
+	 */
+	public LinkStateAttribute getAttribute() {
+		return attribute;
+	}
+
+	@Override
+	public String toString() {
+		return "[LinkStateRoute " + nlri + " " + attribute + "]";
+	}
+
+}
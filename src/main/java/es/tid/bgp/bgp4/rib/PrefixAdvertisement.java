@@ -0,0 +1,102 @@
+package es.tid.bgp.bgp4.rib;
+
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRIKey;
+import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.PrefixMetricPrefixAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.PrefixSIDPrefixAttribTLV;
+
+/**
+ * Advertisement of a prefix by a node, as found in a Prefix NLRI and the
+ * BGP-LS attribute sent with it. Instances are immutable.
+ */
+public final class PrefixAdvertisement {
+
+	private final LinkStateNLRIKey key;
+	private final int protocolID;
+	private final long identifier;
+	private final LocalNodeDescriptorsTLV localNodeDescriptors;
+	private final PrefixMetricPrefixAttribTLV prefixMetric;
+	private final PrefixSIDPrefixAttribTLV prefixSID;
+
+	/**
+	 * @param key key of the Prefix NLRI, identifies the advertisement
+	 * @param protocolID Protocol-ID of the NLRI
+	 * @param identifier Identifier of the NLRI
+	 * @param localNodeDescriptors descriptors of the advertising node
+	 * @param prefixMetric Prefix Metric TLV of the BGP-LS attribute, or null
+	 * @param prefixSID Prefix SID TLV of the BGP-LS attribute, or null
+	 */
+	public PrefixAdvertisement(LinkStateNLRIKey key, int protocolID, long identifier,
+			LocalNodeDescriptorsTLV localNodeDescriptors, PrefixMetricPrefixAttribTLV prefixMetric,
+			PrefixSIDPrefixAttribTLV prefixSID) {
+		this.key = key;
+		this.protocolID = protocolID;
+		this.identifier = identifier;
+		this.localNodeDescriptors = localNodeDescriptors;
+		this.prefixMetric = prefixMetric;
+		this.prefixSID = prefixSID;
+	}
+
+	public LinkStateNLRIKey getKey() {
+		return key;
+	}
+
+	public int getProtocolID() {
+		return protocolID;
+	}
+
+	public long getIdentifier() {
+		return identifier;
+	}
+
+	public LocalNodeDescriptorsTLV getLocalNodeDescriptors() {
+		return localNodeDescriptors;
+	}
+
+	/**
+	 * @return the Prefix Metric TLV, or null if it was not advertised
+	 */
+	public PrefixMetricPrefixAttribTLV getPrefixMetric() {
+		return prefixMetric;
+	}
+
+	/**
+	 * @return the Prefix SID TLV, or null if it was not advertised
+	 */
+	public PrefixSIDPrefixAttribTLV getPrefixSID() {
+		return prefixSID;
+	}
+
+	@Override
+	public int hashCode() {
+		return key.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof PrefixAdvertisement))
+			return false;
+		PrefixAdvertisement other = (PrefixAdvertisement) obj;
+		return key.equals(other.key)
+				&& (prefixMetric == null ? other.prefixMetric == null : prefixMetric.equals(other.prefixMetric))
+				&& (prefixSID == null ? other.prefixSID == null : prefixSID.equals(other.prefixSID));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("[PrefixAdvertisement protocolID=").append(protocolID);
+		sb.append(" identifier=").append(identifier);
+		sb.append(" node=").append(localNodeDescriptors);
+		if (prefixMetric != null) {
+			sb.append(" ").append(prefixMetric);
+		}
+		if (prefixSID != null) {
+			sb.append(" ").append(prefixSID);
+		}
+		return sb.append("]").toString();
+	}
+
+}
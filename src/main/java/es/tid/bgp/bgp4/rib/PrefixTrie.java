@@ -0,0 +1,496 @@
+package es.tid.bgp.bgp4.rib;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.util.function.Consumer;
+
+import es.tid.bgp.bgp4.update.fields.IPv4PrefixList;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.AFICodes;
+
+/**
+ * Compressed binary radix tree (Patricia trie) of IPv4 and IPv6 prefixes,
+ * with longest prefix match lookups.
+ *
+ * Each node holds a prefix and has at most two children, so a lookup visits
+ * at most one node per bit of the address and usually far fewer. The
+ * addresses are kept as primitives: an IPv4 address in the high 32 bits of a
+ * long, an IPv6 address in two longs.
+ *
+ * Readers never lock: the published trees are never modified. A writer
+ * copies the nodes on the path to the prefix it changes and publishes the
+ * new root, so a reader sees either the tree before or after each update.
+ * Writers are serialized. An initial load, or any group of updates, can be
+ * done with {@link #load(Consumer)}: the nodes created by the load are
+ * modified in place and the result is published once.
+ *
+ * @param <V> type of the values stored with the prefixes
+ */
+public class PrefixTrie<V> {
+
+	/**
+	 * Receives the prefixes of the trie
+	 */
+	@FunctionalInterface
+	public interface Visitor<V> {
+		/**
+		 * @param afi address family, {@link AFICodes#AFI_IPV4} or {@link AFICodes#AFI_IPV6}
+		 * @param high high bits of the address (the IPv4 address is in the 32 high bits)
+		 * @param low low bits of an IPv6 address, 0 for IPv4
+		 * @param prefixLength length of the prefix in bits
+		 * @param value value of the prefix
+		 */
+		void visit(int afi, long high, long low, int prefixLength, V value);
+	}
+
+	private static final class Node<V> {
+		long high;
+		long low;
+		int length;
+		V value;
+		Node<V> left;
+		Node<V> right;
+		/**
+		 * Update that created the node, it can only be modified by that update
+		 */
+		Object edit;
+
+		Node(long high, long low, int length, V value, Object edit) {
+			this.high = high;
+			this.low = low;
+			this.length = length;
+			this.value = value;
+			this.edit = edit;
+		}
+
+		Node<V> editable(Object edit) {
+			if (this.edit == edit) {
+				return this;
+			}
+			Node<V> copy = new Node<V>(high, low, length, value, edit);
+			copy.left = left;
+			copy.right = right;
+			return copy;
+		}
+	}
+
+	/**
+	 * Changes the trie in place, see {@link PrefixTrie#load(Consumer)}
+	 */
+	public final class Loader {
+		private final Object edit = new Object();
+		private Node<V> ipv4;
+		private Node<V> ipv6;
+		private int size;
+		private boolean done;
+
+		private Loader() {
+			this.ipv4 = ipv4Root;
+			this.ipv6 = ipv6Root;
+			this.size = PrefixTrie.this.size;
+		}
+
+		/**
+		 * @return the previous value of the prefix, or null
+		 */
+		public V put(int address, int prefixLength, V value) {
+			checkLength(prefixLength, 32);
+			Object[] previous = new Object[1];
+			ipv4 = insert(ipv4, ((long) address) << 32, 0, prefixLength, value, edit(), previous);
+			return added(previous);
+		}
+
+		/**
+		 * @return the previous value of the prefix, or null
+		 */
+		public V put(long high, long low, int prefixLength, V value) {
+			checkLength(prefixLength, 128);
+			Object[] previous = new Object[1];
+			ipv6 = insert(ipv6, high, low, prefixLength, value, edit(), previous);
+			return added(previous);
+		}
+
+		/**
+		 * Adds all the prefixes of a list with the same value
+		 */
+		public void putAll(IPv4PrefixList prefixes, V value) {
+			prefixes.forEach((address, prefixLength) -> put(address, prefixLength, value));
+		}
+
+		/**
+		 * @return the value removed, or null if the prefix was not in the trie
+		 */
+		public V remove(int address, int prefixLength) {
+			checkLength(prefixLength, 32);
+			Object[] previous = new Object[1];
+			ipv4 = delete(ipv4, ((long) address) << 32, 0, prefixLength, edit(), previous);
+			return removed(previous);
+		}
+
+		/**
+		 * @return the value removed, or null if the prefix was not in the trie
+		 */
+		public V remove(long high, long low, int prefixLength) {
+			checkLength(prefixLength, 128);
+			Object[] previous = new Object[1];
+			ipv6 = delete(ipv6, high, low, prefixLength, edit(), previous);
+			return removed(previous);
+		}
+
+		/**
+		 * @return value of the prefix as loaded so far, or null
+		 */
+		public V get(int address, int prefixLength) {
+			return find(ipv4, ((long) address) << 32, 0, prefixLength);
+		}
+
+		/**
+		 * @return value of the prefix as loaded so far, or null
+		 */
+		public V get(long high, long low, int prefixLength) {
+			return find(ipv6, high, low, prefixLength);
+		}
+
+		public void clear() {
+			edit();
+			ipv4 = null;
+			ipv6 = null;
+			size = 0;
+		}
+
+		private Object edit() {
+			if (done) {
+				throw new IllegalStateException("The load is finished");
+			}
+			return edit;
+		}
+
+		@SuppressWarnings("unchecked")
+		private V added(Object[] previous) {
+			if (previous[0] == null) {
+				size++;
+			}
+			return (V) previous[0];
+		}
+
+		@SuppressWarnings("unchecked")
+		private V removed(Object[] previous) {
+			if (previous[0] != null) {
+				size--;
+			}
+			return (V) previous[0];
+		}
+	}
+
+	private volatile Node<V> ipv4Root;
+	private volatile Node<V> ipv6Root;
+	private volatile int size;
+
+	/**
+	 * Applies a group of changes, published to the readers when the body
+	 * returns. If the body throws an exception nothing is published.
+	 * @param body changes to apply, through the loader given
+	 */
+	public synchronized void load(Consumer<Loader> body) {
+		Loader loader = new Loader();
+		try {
+			body.accept(loader);
+		} finally {
+			loader.done = true;
+		}
+		size = loader.size;
+		ipv4Root = loader.ipv4;
+		ipv6Root = loader.ipv6;
+	}
+
+	/**
+	 * Adds or replaces a prefix
+	 * @param address prefix address, the bits beyond the prefix length are ignored
+	 * @param prefixLength length of the prefix in bits
+	 * @param value value of the prefix, not null
+	 * @return the previous value of the prefix, or null
+	 */
+	public synchronized V put(InetAddress address, int prefixLength, V value) {
+		long[] key = toKey(address);
+		if (address instanceof Inet4Address) {
+			return put((int) (key[0] >>> 32), prefixLength, value);
+		}
+		return put(key[0], key[1], prefixLength, value);
+	}
+
+	public synchronized V put(int address, int prefixLength, V value) {
+		Loader loader = new Loader();
+		V previous = loader.put(address, prefixLength, value);
+		size = loader.size;
+		ipv4Root = loader.ipv4;
+		return previous;
+	}
+
+	public synchronized V put(long high, long low, int prefixLength, V value) {
+		Loader loader = new Loader();
+		V previous = loader.put(high, low, prefixLength, value);
+		size = loader.size;
+		ipv6Root = loader.ipv6;
+		return previous;
+	}
+
+	/**
+	 * Removes a prefix
+	 * @return the value removed, or null if the prefix was not in the trie
+	 */
+	public synchronized V remove(InetAddress address, int prefixLength) {
+		long[] key = toKey(address);
+		if (address instanceof Inet4Address) {
+			return remove((int) (key[0] >>> 32), prefixLength);
+		}
+		return remove(key[0], key[1], prefixLength);
+	}
+
+	public synchronized V remove(int address, int prefixLength) {
+		Loader loader = new Loader();
+		V previous = loader.remove(address, prefixLength);
+		size = loader.size;
+		ipv4Root = loader.ipv4;
+		return previous;
+	}
+
+	public synchronized V remove(long high, long low, int prefixLength) {
+		Loader loader = new Loader();
+		V previous = loader.remove(high, low, prefixLength);
+		size = loader.size;
+		ipv6Root = loader.ipv6;
+		return previous;
+	}
+
+	public synchronized void clear() {
+		ipv4Root = null;
+		ipv6Root = null;
+		size = 0;
+	}
+
+	/**
+	 * @return value of the exact prefix, or null
+	 */
+	public V get(InetAddress address, int prefixLength) {
+		long[] key = toKey(address);
+		return find(address instanceof Inet4Address ? ipv4Root : ipv6Root, key[0], key[1], prefixLength);
+	}
+
+	public V get(int address, int prefixLength) {
+		return find(ipv4Root, ((long) address) << 32, 0, prefixLength);
+	}
+
+	public V get(long high, long low, int prefixLength) {
+		return find(ipv6Root, high, low, prefixLength);
+	}
+
+	/**
+	 * Longest prefix match
+	 * @param address IPv4 or IPv6 address
+	 * @return value of the longest prefix that contains the address, or null
+	 */
+	public V lookup(InetAddress address) {
+		long[] key = toKey(address);
+		if (address instanceof Inet4Address) {
+			return match(ipv4Root, key[0], 0, 32);
+		}
+		return match(ipv6Root, key[0], key[1], 128);
+	}
+
+	/**
+	 * Longest prefix match of an IPv4 address
+	 */
+	public V lookup(int address) {
+		return match(ipv4Root, ((long) address) << 32, 0, 32);
+	}
+
+	/**
+	 * Longest prefix match of an IPv6 address
+	 */
+	public V lookup(long high, long low) {
+		return match(ipv6Root, high, low, 128);
+	}
+
+	/**
+	 * @return number of prefixes
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Visits the prefixes, IPv4 first, in address order and shorter prefixes
+	 * first. The trie visited is the one published when the call started.
+	 */
+	public void forEach(Visitor<? super V> visitor) {
+		visit(ipv4Root, AFICodes.AFI_IPV4, visitor);
+		visit(ipv6Root, AFICodes.AFI_IPV6, visitor);
+	}
+
+	private static <V> void visit(Node<V> node, int afi, Visitor<? super V> visitor) {
+		while (node != null) {
+			if (node.value != null) {
+				visitor.visit(afi, node.high, node.low, node.length, node.value);
+			}
+			visit(node.left, afi, visitor);
+			node = node.right;
+		}
+	}
+
+	private static <V> V find(Node<V> node, long high, long low, int length) {
+		while (node != null && node.length <= length) {
+			if (commonLength(node.high, node.low, high, low, node.length) < node.length) {
+				return null;
+			}
+			if (node.length == length) {
+				return node.value;
+			}
+			node = bit(high, low, node.length) == 0 ? node.left : node.right;
+		}
+		return null;
+	}
+
+	private static <V> V match(Node<V> node, long high, long low, int length) {
+		V best = null;
+		while (node != null && node.length <= length) {
+			if (commonLength(node.high, node.low, high, low, node.length) < node.length) {
+				break;
+			}
+			if (node.value != null) {
+				best = node.value;
+			}
+			if (node.length == length) {
+				break;
+			}
+			node = bit(high, low, node.length) == 0 ? node.left : node.right;
+		}
+		return best;
+	}
+
+	private static <V> Node<V> insert(Node<V> node, long high, long low, int length, V value, Object edit, Object[] previous) {
+		if (value == null) {
+			throw new NullPointerException("Null value");
+		}
+		if (node == null) {
+			return new Node<V>(maskHigh(high, length), maskLow(low, length), length, value, edit);
+		}
+		int common = commonLength(node.high, node.low, high, low, Math.min(node.length, length));
+		if (common == node.length) {
+			Node<V> result = node.editable(edit);
+			if (common == length) {
+				previous[0] = result.value;
+				result.value = value;
+			} else if (bit(high, low, common) == 0) {
+				result.left = insert(node.left, high, low, length, value, edit, previous);
+			} else {
+				result.right = insert(node.right, high, low, length, value, edit, previous);
+			}
+			return result;
+		}
+		Node<V> parent;
+		if (common == length) {
+			// the new prefix contains the node
+			parent = new Node<V>(maskHigh(high, length), maskLow(low, length), length, value, edit);
+		} else {
+			// branch where both prefixes diverge
+			parent = new Node<V>(maskHigh(high, common), maskLow(low, common), common, null, edit);
+			Node<V> leaf = new Node<V>(maskHigh(high, length), maskLow(low, length), length, value, edit);
+			if (bit(high, low, common) == 0) {
+				parent.left = leaf;
+			} else {
+				parent.right = leaf;
+			}
+		}
+		if (bit(node.high, node.low, common) == 0) {
+			parent.left = node;
+		} else {
+			parent.right = node;
+		}
+		return parent;
+	}
+
+	private static <V> Node<V> delete(Node<V> node, long high, long low, int length, Object edit, Object[] previous) {
+		if (node == null || node.length > length || commonLength(node.high, node.low, high, low, node.length) < node.length) {
+			return node;
+		}
+		Node<V> result;
+		if (node.length == length) {
+			if (node.value == null) {
+				return node;
+			}
+			previous[0] = node.value;
+			result = node.editable(edit);
+			result.value = null;
+		} else {
+			boolean left = bit(high, low, node.length) == 0;
+			Node<V> child = left ? node.left : node.right;
+			Node<V> newChild = delete(child, high, low, length, edit, previous);
+			if (newChild == child) {
+				return node;
+			}
+			result = node.editable(edit);
+			if (left) {
+				result.left = newChild;
+			} else {
+				result.right = newChild;
+			}
+		}
+		// a node without value is only kept as a branch of two children
+		if (result.value == null) {
+			if (result.left == null) {
+				return result.right;
+			}
+			if (result.right == null) {
+				return result.left;
+			}
+		}
+		return result;
+	}
+
+	private static int bit(long high, long low, int index) {
+		return index < 64 ? (int) (high >>> (63 - index)) & 1 : (int) (low >>> (127 - index)) & 1;
+	}
+
+	/**
+	 * @return number of equal leading bits of both addresses, up to max
+	 */
+	private static int commonLength(long high1, long low1, long high2, long low2, int max) {
+		long diff = high1 ^ high2;
+		int common = diff != 0 ? Long.numberOfLeadingZeros(diff) : 64 + Long.numberOfLeadingZeros(low1 ^ low2);
+		return Math.min(common, max);
+	}
+
+	private static long maskHigh(long high, int length) {
+		if (length <= 0) {
+			return 0;
+		}
+		return length >= 64 ? high : high & (-1L << (64 - length));
+	}
+
+	private static long maskLow(long low, int length) {
+		return maskHigh(low, length - 64);
+	}
+
+	private static void checkLength(int prefixLength, int max) {
+		if (prefixLength < 0 || prefixLength > max) {
+			throw new IllegalArgumentException("Invalid prefix length " + prefixLength);
+		}
+	}
+
+	private static long[] toKey(InetAddress address) {
+		byte[] bytes = address.getAddress();
+		long[] key = new long[2];
+		for (int i = 0; i < bytes.length; ++i) {
+			key[i >>> 3] |= (bytes[i] & 0xFFL) << (56 - 8 * (i & 7));
+		}
+		if (!(address instanceof Inet4Address) && !(address instanceof Inet6Address)) {
+			throw new IllegalArgumentException("Unknown address " + address);
+		}
+		return key;
+	}
+
+}
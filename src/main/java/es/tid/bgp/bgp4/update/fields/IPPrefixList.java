@@ -0,0 +1,223 @@
+package es.tid.bgp.bgp4.update.fields;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.bgp.bgp4.update.fields.pathAttributes.AFICodes;
+
+/**
+ * List of IP address prefixes, as carried in the Withdrawn Routes and NLRI
+ * fields of an UPDATE message (RFC 4271, Section 4.3) and in the
+ * MP_REACH_NLRI and MP_UNREACH_NLRI attributes (RFC 4760, Section 5).
+ *
+ * Each prefix is encoded as a 2-tuple {@code <length, prefix>}: the length in
+ * bits (1 octet) followed by the minimum number of octets that contain the
+ * prefix.
+ *
+ * The prefixes are not kept as objects: the addresses are packed in arrays
+ * of primitives by the subclasses, and the prefix lengths in a byte array,
+ * so that a full routing table takes a few bytes per prefix. The bits of the
+ * address beyond the prefix length are always zero.
+ */
+public abstract class IPPrefixList {
+
+	protected static final Logger log = LoggerFactory.getLogger("BGP4Parser");
+
+	protected static final int DEFAULT_CAPACITY = 16;
+
+	protected byte[] prefixLengths;
+
+	protected int size;
+
+	protected IPPrefixList(int capacity) {
+		prefixLengths = new byte[Math.max(capacity, 1)];
+	}
+
+	/**
+	 * Creates an empty list for an address family
+	 * @param afi Address Family Identifier
+	 * @return the list, or null if the address family is not IPv4 or IPv6
+	 */
+	public static IPPrefixList create(int afi) {
+		if (afi == AFICodes.AFI_IPV4) {
+			return new IPv4PrefixList();
+		} else if (afi == AFICodes.AFI_IPV6) {
+			return new IPv6PrefixList();
+		}
+		return null;
+	}
+
+	/**
+	 * @return Address Family Identifier of the prefixes
+	 */
+	public abstract int getAFI();
+
+	/**
+	 * @return length of the addresses in bits
+	 */
+	public abstract int getMaxPrefixLength();
+
+	/**
+	 * @param index position of the prefix
+	 * @return address of the prefix
+	 */
+	public abstract InetAddress getAddress(int index);
+
+	/**
+	 * Appends a prefix
+	 * @param address address of the family of the list
+	 * @param prefixLength length of the prefix in bits
+	 */
+	public abstract void add(InetAddress address, int prefixLength);
+
+	/**
+	 * Reads the address of a prefix, the octets after the prefix are zero
+	 */
+	protected abstract void addPrefix(byte[] bytes, int offset, int prefixLength);
+
+	/**
+	 * Writes the octets of a prefix
+	 */
+	protected abstract void encodePrefix(int index, byte[] bytes, int offset);
+
+	/**
+	 * Makes room for the capacity given in the address arrays
+	 */
+	protected abstract void growAddresses(int capacity);
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @param index position of the prefix
+	 * @return length of the prefix in bits
+	 */
+	public int getPrefixLength(int index) {
+		checkIndex(index);
+		return prefixLengths[index] & 0xFF;
+	}
+
+	/**
+	 * @return number of octets of the encoded prefixes
+	 */
+	public int getEncodedLength() {
+		int length = size;
+		for (int i = 0; i < size; ++i) {
+			length += ((prefixLengths[i] & 0xFF) + 7) >>> 3;
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the prefixes
+	 * @param bytes destination buffer, with room for {@link #getEncodedLength()} octets
+	 * @param offset position of the first prefix
+	 * @return position after the last prefix
+	 */
+	public int encode(byte[] bytes, int offset) {
+		for (int i = 0; i < size; ++i) {
+			int prefixLength = prefixLengths[i] & 0xFF;
+			bytes[offset] = (byte) prefixLength;
+			encodePrefix(i, bytes, offset + 1);
+			offset += 1 + ((prefixLength + 7) >>> 3);
+		}
+		return offset;
+	}
+
+	/**
+	 * Appends the prefixes found between offset and end. Decoding stops at
+	 * the first malformed prefix.
+	 * @param bytes buffer containing the prefixes
+	 * @param offset position of the first prefix
+	 * @param end position after the last prefix
+	 * @return true if all the prefixes were decoded
+	 */
+	public boolean decode(byte[] bytes, int offset, int end) {
+		// at least one octet per prefix, two for most of them
+		ensureCapacity(size + ((end - offset) >>> 1) + 1);
+		int maxPrefixLength = getMaxPrefixLength();
+		while (offset < end) {
+			int prefixLength = bytes[offset] & 0xFF;
+			int octets = (prefixLength + 7) >>> 3;
+			if (prefixLength > maxPrefixLength || offset + 1 + octets > end) {
+				log.warn("Malformed prefix of length " + prefixLength + " at " + offset);
+				return false;
+			}
+			if (size == prefixLengths.length) {
+				ensureCapacity(size * 2);
+			}
+			addPrefix(bytes, offset + 1, prefixLength);
+			offset += 1 + octets;
+		}
+		return true;
+	}
+
+	/**
+	 * Reserves space for capacity prefixes
+	 * @param capacity number of prefixes
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > prefixLengths.length) {
+			prefixLengths = Arrays.copyOf(prefixLengths, capacity);
+			growAddresses(capacity);
+		}
+	}
+
+	/**
+	 * Releases the space not used
+	 */
+	public void trimToSize() {
+		if (size < prefixLengths.length) {
+			prefixLengths = Arrays.copyOf(prefixLengths, Math.max(size, 1));
+			growAddresses(prefixLengths.length);
+		}
+	}
+
+	protected void checkPrefixLength(int prefixLength) {
+		if (prefixLength < 0 || prefixLength > getMaxPrefixLength()) {
+			throw new IllegalArgumentException("Invalid prefix length " + prefixLength);
+		}
+	}
+
+	protected void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+		}
+	}
+
+	/**
+	 * Compares two lists, a null list is equal to an empty one
+	 */
+	public static boolean equals(IPPrefixList a, IPPrefixList b) {
+		if (a == null || a.isEmpty()) {
+			return b == null || b.isEmpty();
+		}
+		return a.equals(b);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(size * 20 + 2);
+		sb.append('[');
+		for (int i = 0; i < size; ++i) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(getAddress(i).getHostAddress()).append('/').append(prefixLengths[i] & 0xFF);
+		}
+		return sb.append(']').toString();
+	}
+
+}
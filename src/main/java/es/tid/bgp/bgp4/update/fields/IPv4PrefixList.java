@@ -0,0 +1,172 @@
+package es.tid.bgp.bgp4.update.fields;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+
+import es.tid.bgp.bgp4.update.fields.pathAttributes.AFICodes;
+
+/**
+ * List of IPv4 prefixes. Each prefix takes 5 bytes: the address as an int
+ * and the prefix length.
+ *
+ * <pre>
+ * update.getWithdrawnRoutes().getPrefixes().forEach((address, prefixLength) -&gt; rib.remove(address, prefixLength));
+ * </pre>
+ */
+public class IPv4PrefixList extends IPPrefixList {
+
+	/**
+	 * Receives the prefixes of the list
+	 */
+	@FunctionalInterface
+	public interface PrefixConsumer {
+		void accept(int address, int prefixLength);
+	}
+
+	private int[] addresses;
+
+	public IPv4PrefixList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity initial number of prefixes
+	 */
+	public IPv4PrefixList(int capacity) {
+		super(capacity);
+		addresses = new int[prefixLengths.length];
+	}
+
+	@Override
+	public int getAFI() {
+		return AFICodes.AFI_IPV4;
+	}
+
+	@Override
+	public int getMaxPrefixLength() {
+		return 32;
+	}
+
+	/**
+	 * Appends a prefix
+	 * @param address IPv4 address, the bits beyond the prefix length are ignored
+	 * @param prefixLength length of the prefix in bits
+	 */
+	public void add(int address, int prefixLength) {
+		checkPrefixLength(prefixLength);
+		if (size == prefixLengths.length) {
+			ensureCapacity(size * 2);
+		}
+		addresses[size] = address & mask(prefixLength);
+		prefixLengths[size] = (byte) prefixLength;
+		size++;
+	}
+
+	@Override
+	public void add(InetAddress address, int prefixLength) {
+		if (!(address instanceof Inet4Address)) {
+			throw new IllegalArgumentException("Not an IPv4 address: " + address);
+		}
+		byte[] bytes = address.getAddress();
+		add(((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF), prefixLength);
+	}
+
+	/**
+	 * @param index position of the prefix
+	 * @return IPv4 address of the prefix
+	 */
+	public int getIntAddress(int index) {
+		checkIndex(index);
+		return addresses[index];
+	}
+
+	@Override
+	public InetAddress getAddress(int index) {
+		int address = getIntAddress(index);
+		try {
+			return InetAddress.getByAddress(new byte[] {(byte) (address >>> 24), (byte) (address >>> 16), (byte) (address >>> 8), (byte) address});
+		} catch (UnknownHostException e) {
+			// not thrown for 4 octets
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Gives every prefix to the consumer, in order
+	 * @param consumer receiver of the prefixes
+	 */
+	public void forEach(PrefixConsumer consumer) {
+		for (int i = 0; i < size; ++i) {
+			consumer.accept(addresses[i], prefixLengths[i] & 0xFF);
+		}
+	}
+
+	/**
+	 * @param address IPv4 address
+	 * @param prefixLength length of the prefix in bits
+	 * @return position of the prefix, or -1 if it is not in the list
+	 */
+	public int indexOf(int address, int prefixLength) {
+		address &= mask(prefixLength);
+		for (int i = 0; i < size; ++i) {
+			if (addresses[i] == address && (prefixLengths[i] & 0xFF) == prefixLength) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	protected void addPrefix(byte[] bytes, int offset, int prefixLength) {
+		int address = 0;
+		int octets = (prefixLength + 7) >>> 3;
+		for (int i = 0; i < octets; ++i) {
+			address |= (bytes[offset + i] & 0xFF) << (24 - 8 * i);
+		}
+		addresses[size] = address & mask(prefixLength);
+		prefixLengths[size] = (byte) prefixLength;
+		size++;
+	}
+
+	@Override
+	protected void encodePrefix(int index, byte[] bytes, int offset) {
+		int address = addresses[index];
+		int octets = ((prefixLengths[index] & 0xFF) + 7) >>> 3;
+		for (int i = 0; i < octets; ++i) {
+			bytes[offset + i] = (byte) (address >>> (24 - 8 * i));
+		}
+	}
+
+	@Override
+	protected void growAddresses(int capacity) {
+		addresses = Arrays.copyOf(addresses, capacity);
+	}
+
+	private static int mask(int prefixLength) {
+		return prefixLength == 0 ? 0 : -1 << (32 - prefixLength);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < size; ++i) {
+			result = 31 * result + addresses[i];
+			result = 31 * result + prefixLengths[i];
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		IPv4PrefixList other = (IPv4PrefixList) obj;
+		return size == other.size && Arrays.equals(addresses, 0, size, other.addresses, 0, size)
+				&& Arrays.equals(prefixLengths, 0, size, other.prefixLengths, 0, size);
+	}
+
+}
@@ -0,0 +1,75 @@
+package es.tid.bgp.bgp4.update.fields;
+
+/**
+ * Network Layer Reachability Information field of an UPDATE message with
+ * IPv4 unicast routes (RFC 4271, Section 4.3).
+ *
+ * The whole field is a single NLRI object: the prefixes are kept packed in an
+ * {@link IPv4PrefixList}. An UPDATE message is decoded with this NLRI when it
+ * carries the NEXT_HOP attribute, which is mandatory for IPv4 unicast routes.
+ */
+public class IPv4UnicastNLRI extends NLRI {
+
+	private IPv4PrefixList prefixes;
+
+	public IPv4UnicastNLRI() {
+		this.prefixes = new IPv4PrefixList();
+	}
+
+	/**
+	 * @param prefixes prefixes advertised
+	 */
+	public IPv4UnicastNLRI(IPv4PrefixList prefixes) {
+		this.prefixes = prefixes;
+	}
+
+	/**
+	 * Decodes the NLRI field of an UPDATE message
+	 * @param bytes buffer containing the field
+	 * @param offset position of the first prefix
+	 * @param length length of the field
+	 */
+	public IPv4UnicastNLRI(byte[] bytes, int offset, int length) {
+		this.bytes = bytes;
+		this.bytesOffset = offset;
+		this.setLength(length);
+		this.prefixes = new IPv4PrefixList(0);
+		this.prefixes.decode(bytes, offset, offset + length);
+	}
+
+	@Override
+	public void encode() {
+		this.setLength(prefixes.getEncodedLength());
+		this.bytes = new byte[this.getLength()];
+		this.bytesOffset = 0;
+		prefixes.encode(this.bytes, 0);
+	}
+
+	public IPv4PrefixList getPrefixes() {
+		return prefixes;
+	}
+
+	public void setPrefixes(IPv4PrefixList prefixes) {
+		this.prefixes = prefixes;
+	}
+
+	@Override
+	public int hashCode() {
+		return prefixes.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		return IPPrefixList.equals(prefixes, ((IPv4UnicastNLRI) obj).prefixes);
+	}
+
+	@Override
+	public String toString() {
+		return "NLRI: " + prefixes;
+	}
+
+}
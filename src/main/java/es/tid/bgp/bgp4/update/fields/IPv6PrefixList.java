@@ -0,0 +1,193 @@
+package es.tid.bgp.bgp4.update.fields;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+
+import es.tid.bgp.bgp4.update.fields.pathAttributes.AFICodes;
+
+/**
+ * List of IPv6 prefixes. Each prefix takes 17 bytes: the address as two
+ * longs (the 64 high bits and the 64 low bits) and the prefix length.
+ */
+public class IPv6PrefixList extends IPPrefixList {
+
+	/**
+	 * Receives the prefixes of the list
+	 */
+	@FunctionalInterface
+	public interface PrefixConsumer {
+		void accept(long high, long low, int prefixLength);
+	}
+
+	/**
+	 * High and low bits of each address, one after the other
+	 */
+	private long[] addresses;
+
+	public IPv6PrefixList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity initial number of prefixes
+	 */
+	public IPv6PrefixList(int capacity) {
+		super(capacity);
+		addresses = new long[2 * prefixLengths.length];
+	}
+
+	@Override
+	public int getAFI() {
+		return AFICodes.AFI_IPV6;
+	}
+
+	@Override
+	public int getMaxPrefixLength() {
+		return 128;
+	}
+
+	/**
+	 * Appends a prefix
+	 * @param high 64 high bits of the address
+	 * @param low 64 low bits of the address
+	 * @param prefixLength length of the prefix in bits, the bits beyond it are ignored
+	 */
+	public void add(long high, long low, int prefixLength) {
+		checkPrefixLength(prefixLength);
+		if (size == prefixLengths.length) {
+			ensureCapacity(size * 2);
+		}
+		set(size, high, low, prefixLength);
+		size++;
+	}
+
+	@Override
+	public void add(InetAddress address, int prefixLength) {
+		if (!(address instanceof Inet6Address)) {
+			throw new IllegalArgumentException("Not an IPv6 address: " + address);
+		}
+		byte[] bytes = address.getAddress();
+		add(toLong(bytes, 0, 8), toLong(bytes, 8, 8), prefixLength);
+	}
+
+	/**
+	 * @param index position of the prefix
+	 * @return 64 high bits of the address
+	 */
+	public long getHigh(int index) {
+		checkIndex(index);
+		return addresses[2 * index];
+	}
+
+	/**
+	 * @param index position of the prefix
+	 * @return 64 low bits of the address
+	 */
+	public long getLow(int index) {
+		checkIndex(index);
+		return addresses[2 * index + 1];
+	}
+
+	@Override
+	public InetAddress getAddress(int index) {
+		byte[] bytes = new byte[16];
+		long high = getHigh(index);
+		long low = getLow(index);
+		for (int i = 0; i < 8; ++i) {
+			bytes[i] = (byte) (high >>> (56 - 8 * i));
+			bytes[i + 8] = (byte) (low >>> (56 - 8 * i));
+		}
+		try {
+			return InetAddress.getByAddress(bytes);
+		} catch (UnknownHostException e) {
+			// not thrown for 16 octets
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Gives every prefix to the consumer, in order
+	 * @param consumer receiver of the prefixes
+	 */
+	public void forEach(PrefixConsumer consumer) {
+		for (int i = 0; i < size; ++i) {
+			consumer.accept(addresses[2 * i], addresses[2 * i + 1], prefixLengths[i] & 0xFF);
+		}
+	}
+
+	@Override
+	protected void addPrefix(byte[] bytes, int offset, int prefixLength) {
+		int octets = (prefixLength + 7) >>> 3;
+		long high = toLong(bytes, offset, Math.min(octets, 8));
+		long low = octets > 8 ? toLong(bytes, offset + 8, octets - 8) : 0;
+		set(size, high, low, prefixLength);
+		size++;
+	}
+
+	@Override
+	protected void encodePrefix(int index, byte[] bytes, int offset) {
+		int octets = ((prefixLengths[index] & 0xFF) + 7) >>> 3;
+		long high = addresses[2 * index];
+		long low = addresses[2 * index + 1];
+		for (int i = 0; i < octets; ++i) {
+			bytes[offset + i] = (byte) ((i < 8 ? high : low) >>> (56 - 8 * (i & 7)));
+		}
+	}
+
+	@Override
+	protected void growAddresses(int capacity) {
+		addresses = Arrays.copyOf(addresses, 2 * capacity);
+	}
+
+	private void set(int index, long high, long low, int prefixLength) {
+		addresses[2 * index] = high & mask(prefixLength);
+		addresses[2 * index + 1] = low & mask(prefixLength - 64);
+		prefixLengths[index] = (byte) prefixLength;
+	}
+
+	/**
+	 * Reads up to 8 octets as the high bits of a long
+	 */
+	private static long toLong(byte[] bytes, int offset, int octets) {
+		long value = 0;
+		for (int i = 0; i < octets; ++i) {
+			value |= (bytes[offset + i] & 0xFFL) << (56 - 8 * i);
+		}
+		return value;
+	}
+
+	/**
+	 * @param prefixLength number of bits of the long in the prefix, may be out of 0..64
+	 */
+	private static long mask(int prefixLength) {
+		if (prefixLength <= 0) {
+			return 0;
+		}
+		return prefixLength >= 64 ? -1L : -1L << (64 - prefixLength);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < size; ++i) {
+			result = 31 * result + Long.hashCode(addresses[2 * i]);
+			result = 31 * result + Long.hashCode(addresses[2 * i + 1]);
+			result = 31 * result + prefixLengths[i];
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		IPv6PrefixList other = (IPv6PrefixList) obj;
+		return size == other.size && Arrays.equals(addresses, 0, 2 * size, other.addresses, 0, 2 * size)
+				&& Arrays.equals(prefixLengths, 0, size, other.prefixLengths, 0, size);
+	}
+
+}
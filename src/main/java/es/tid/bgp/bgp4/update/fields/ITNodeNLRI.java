@@ -122,7 +122,7 @@ public class ITNodeNLRI extends LinkStateNLRI {
 	public void decode(){
 		//Decoding ITNodeNL
 		//Header 2(type)+2(length)
-		int offset = 2;
+		int offset = bytesOffset + 2;
 		
 		byte[] lengthITNodeNLRIBytes = new byte[2];
 		System.arraycopy(this.bytes,offset, lengthITNodeNLRIBytes, 0, 2);
@@ -297,13 +297,11 @@ public class LinkNLRI extends LinkStateNLRI {
 		
 	}
 	public void decode(){
-		int offset = 4; //Cabecera del LinkState NLRI
+		int offset = bytesOffset + 4; //Cabecera del LinkState NLRI
+		int end = bytesOffset + this.getTotalNLRILength();
 		protocolID = this.bytes[offset];
 		offset=offset +1; //identifier
 		
-		byte[] ip=new byte[8]; 
-		System.arraycopy(this.bytes,offset, ip, 0, 8);
-				
 		long routingUniverseIdentifieraux1 = ((  ((long)bytes[offset]&0xFF)   <<24)& 0xFF000000) |  (((long)bytes[offset+1]<<16) & 0xFF0000) | (((long)bytes[offset+2]<<8) & 0xFF00) |(((long)bytes[offset+3]) & 0xFF);
 		long routingUniverseIdentifieraux2 = ((  ((long)bytes[offset+4]&0xFF)   <<24)& 0xFF000000) |  (((long)bytes[offset+5]<<16) & 0xFF0000) | (((long)bytes[offset+6]<<8) & 0xFF00) |(((long)bytes[offset+7]) & 0xFF);
 		//this.setRoutingUniverseIdentifier((2^32)*routingUniverseIdentifieraux1+routingUniverseIdentifieraux2);
@@ -315,7 +313,7 @@ public class LinkNLRI extends LinkStateNLRI {
 		this.remoteNodeDescriptorsTLV=new RemoteNodeDescriptorsTLV(this.bytes, offset);
 		offset = offset + remoteNodeDescriptorsTLV.getTotalTLVLength();
 		boolean fin=false;
-		if (offset>=(this.getTotalNLRILength()/*+4*/)){
+		if (offset>=end){
 			fin=true;
 		}
 		while (!fin) {
@@ -371,7 +369,7 @@ public class LinkNLRI extends LinkStateNLRI {
 				}
 			
 			offset=offset+subTLVLength;
-			if (offset>=(this.getTotalNLRILength()/*+4*/)){
+			if (offset>=end){
 				//No more SubTLVs in LinkTLV
 				fin=true;
 			}
@@ -41,12 +41,13 @@ public abstract class LinkStateNLRI extends NLRI {
 		this.NLRIType=((  ((int)bytes[offset]&0xFF)   <<8)& 0xFF00) |  ((int)bytes[offset+1] & 0xFF);
 		int valueNLRILength=((((int)bytes[offset+2]&0xFF)<<8)& 0xFF00) |  ((int)bytes[offset+3] & 0xFF);
 		this.TotalNLRILength=valueNLRILength+4;
-		this.bytes=new byte[TotalNLRILength];
+		this.bytes=bytes;
+		this.bytesOffset=offset;
 		this.length=this.TotalNLRILength;
-		System.arraycopy(bytes, offset, this.bytes, 0, TotalNLRILength);
 	}
 	
 	protected void encodeHeader(){
+		this.bytesOffset=0;
 		int nlriValueLength = TotalNLRILength-4;//ñapa para que quede bien el mensaje
 		this.bytes[0]=(byte)(NLRIType>>>8 & 0xFF);
 		this.bytes[1]=(byte)(NLRIType & 0xFF);
@@ -98,6 +99,32 @@ public abstract class LinkStateNLRI extends NLRI {
 
 
 
+	/**
+	 * Decode the Link-State NLRI at offset according to its type.
+	 * The NLRI is a view over bytes.
+	 * @param bytes buffer containing the NLRI
+	 * @param offset position of the NLRI
+	 * @return the NLRI, or null if the type is not supported
+	 */
+	public static LinkStateNLRI decodeNLRI(byte[] bytes, int offset){
+		int type = getType(bytes, offset);
+		if(type == NLRITypes.Link_NLRI)
+		{
+			return new LinkNLRI(bytes, offset);
+		} else if(type == NLRITypes.Node_NLRI)
+		{
+			return new NodeNLRI(bytes, offset);
+		} else if(type == NLRITypes.IT_Node_NLRI)
+		{
+			return new ITNodeNLRI(bytes, offset);
+		} else if(type == NLRITypes.Prefix_v4_NLRI)
+		{
+			return new IPv4PrefixNLRI(bytes, offset);
+		}
+		log.warn("UNKNOWN_NLRI: " + type);
+		return null;
+	}
+
 	public static int getNLRIType(byte[] bytes, int offset){
 		try {
 			int obc= ((  ((int)bytes[offset]&0xFF)   <<8)& 0xFF00) |  ((int)bytes[offset+1] & 0xFF);//(int)(bytes[offset]&0xFF);
@@ -112,6 +139,20 @@ public abstract class LinkStateNLRI extends NLRI {
 
 	public abstract void encode();
 
+	/**
+	 * Get the key of the NLRI, to use in maps instead of the NLRI itself.
+	 * The NLRI is encoded if it has no bytes yet. The key is built from the
+	 * bytes of the last encode or decode, and it is not cached: an NLRI
+	 * modified after that must be encoded again to get its new key.
+	 * @return the key built from the bytes of the NLRI
+	 */
+	public LinkStateNLRIKey getKey() {
+		if (bytes == null) {
+			encode();
+		}
+		return LinkStateNLRIKey.fromWire(bytes, bytesOffset);
+	}
+
 
 	@Override
 	public int hashCode() {
@@ -0,0 +1,172 @@
+package es.tid.bgp.bgp4.update.fields;
+
+import es.tid.protocol.commons.ByteHandler;
+
+/**
+ * Cursor over a sequence of Link-State NLRIs (RFC 7752, Section 3.2),
+ * for example the NLRI field of a BGP-LS MP_REACH_NLRI attribute.
+ *
+ * Only the header of the current NLRI is read: type, length and, for the
+ * Node, Link and Prefix NLRIs, the Protocol-ID and the Identifier. The
+ * descriptors are left as raw bytes and the NLRI object is only built when
+ * {@link #decodeNLRI()} is called. Nothing is allocated while moving the cursor.
+ *
+ * <pre>
+ * LinkStateNLRICursor cursor = mpReach.nlriCursor();
+ * while (cursor.next()) {
+ *     if (cursor.getProtocolID() == ProtocolIDCodes.OSPF_Protocol_ID) {
+ *         LinkStateNLRI nlri = cursor.decodeNLRI();
+ *     }
+ * }
+ * </pre>
+ */
+public class LinkStateNLRICursor {
+
+	/**
+	 * Length of the NLRI Type and Total NLRI Length fields
+	 */
+	public static final int HEADER_LENGTH = 4;
+	/**
+	 * Length of the Protocol-ID and Identifier fields
+	 */
+	public static final int PROTOCOL_HEADER_LENGTH = 9;
+
+	private final byte[] bytes;
+	private final int limit;
+	/**
+	 * Position of the current NLRI, -1 before the first call to next()
+	 */
+	private int offset;
+	private int nextOffset;
+	private int type;
+	private int totalLength;
+
+	/**
+	 * @param bytes buffer containing the NLRIs
+	 * @param offset position of the first NLRI
+	 * @param limit position after the last NLRI
+	 */
+	public LinkStateNLRICursor(byte[] bytes, int offset, int limit) {
+		this.bytes = bytes;
+		this.limit = limit;
+		this.offset = -1;
+		this.nextOffset = offset;
+	}
+
+	/**
+	 * Move to the next NLRI.
+	 * @return false if there are no more NLRIs or the next one is truncated
+	 */
+	public boolean next() {
+		if (limit - nextOffset < HEADER_LENGTH) {
+			return false;
+		}
+		int nlriLength = HEADER_LENGTH + LinkStateNLRI.getNLRILength(bytes, nextOffset);
+		if (limit - nextOffset < nlriLength) {
+			return false;
+		}
+		offset = nextOffset;
+		type = LinkStateNLRI.getType(bytes, offset);
+		totalLength = nlriLength;
+		nextOffset = offset + nlriLength;
+		return true;
+	}
+
+	/**
+	 * @return NLRI Type of the current NLRI (see {@link NLRITypes})
+	 */
+	public int getNLRIType() {
+		return type;
+	}
+
+	/**
+	 * @return length of the current NLRI, header included
+	 */
+	public int getTotalNLRILength() {
+		return totalLength;
+	}
+
+	/**
+	 * @return true if the current NLRI starts with Protocol-ID and Identifier
+	 */
+	public boolean hasProtocolHeader() {
+		return type >= NLRITypes.Node_NLRI && type <= NLRITypes.Prefix_v6_NLRI
+				&& totalLength >= HEADER_LENGTH + PROTOCOL_HEADER_LENGTH;
+	}
+
+	/**
+	 * @return Protocol-ID of the current NLRI (see {@link es.tid.bgp.bgp4.update.tlv.ProtocolIDCodes}),
+	 * -1 if it has no protocol header
+	 */
+	public int getProtocolID() {
+		if (!hasProtocolHeader()) {
+			return -1;
+		}
+		return bytes[offset + HEADER_LENGTH] & 0xFF;
+	}
+
+	/**
+	 * @return Identifier (routing universe) of the current NLRI, 0 if it has no protocol header
+	 */
+	public long getIdentifier() {
+		if (!hasProtocolHeader()) {
+			return 0;
+		}
+		long identifier = 0;
+		for (int i = HEADER_LENGTH + 1; i < HEADER_LENGTH + PROTOCOL_HEADER_LENGTH; ++i) {
+			identifier = (identifier << 8) | (bytes[offset + i] & 0xFF);
+		}
+		return identifier;
+	}
+
+	/**
+	 * @return buffer containing the NLRIs
+	 */
+	public byte[] getBuffer() {
+		return bytes;
+	}
+
+	/**
+	 * @return position of the current NLRI in the buffer
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * @return position in the buffer of the descriptor TLVs of the current NLRI
+	 */
+	public int getDescriptorsOffset() {
+		return offset + HEADER_LENGTH + (hasProtocolHeader() ? PROTOCOL_HEADER_LENGTH : 0);
+	}
+
+	/**
+	 * @return length of the descriptor TLVs of the current NLRI
+	 */
+	public int getDescriptorsLength() {
+		return offset + totalLength - getDescriptorsOffset();
+	}
+
+	/**
+	 * @return a copy of the descriptor TLVs of the current NLRI
+	 */
+	public byte[] copyDescriptors() {
+		return ByteHandler.copyOfRange(bytes, getDescriptorsOffset(), getDescriptorsLength());
+	}
+
+	/**
+	 * @return the key of the current NLRI, to look it up in a map
+	 */
+	public LinkStateNLRIKey getKey() {
+		return LinkStateNLRIKey.fromWire(bytes, offset);
+	}
+
+	/**
+	 * Build the object of the current NLRI. It is a view over the buffer.
+	 * @return the NLRI, or null if the type is not supported
+	 */
+	public LinkStateNLRI decodeNLRI() {
+		return LinkStateNLRI.decodeNLRI(bytes, offset);
+	}
+
+}
@@ -0,0 +1,198 @@
+package es.tid.bgp.bgp4.update.fields;
+
+import java.util.Arrays;
+
+import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.RemoteNodeDescriptorsTLV;
+import es.tid.protocol.commons.ByteHandler;
+
+/**
+ * Immutable key of a Link-State NLRI, to index nodes, links and prefixes in
+ * maps without comparing the descriptor objects.
+ *
+ * The key holds the NLRI Type followed by the NLRI value: Protocol-ID,
+ * Identifier and descriptor TLVs. RFC 7752 asks for the descriptor TLVs in
+ * ascending order of type, but not every speaker follows it, so for the Node,
+ * Link and Prefix NLRIs the key is canonical: the descriptor TLVs, and the
+ * sub-TLVs of the Local and Remote Node Descriptors, are sorted by type and
+ * value. NLRIs that are sent in the expected order are copied as they are.
+ * The Total NLRI Length is implied and left out.
+ *
+ * The 64-bit hash is computed once. Equality is bytewise and the ordering
+ * compares the bytes as unsigned, so it is stable across runs.
+ */
+public final class LinkStateNLRIKey implements Comparable<LinkStateNLRIKey> {
+
+	private final byte[] key;
+	private final long hash;
+
+	private LinkStateNLRIKey(byte[] key) {
+		this.key = key;
+		this.hash = ByteHandler.hash64(key, 0, key.length);
+	}
+
+	/**
+	 * Build the key of the Link-State NLRI at offset, without decoding it.
+	 * @param bytes buffer containing the NLRI
+	 * @param offset position of the NLRI (the NLRI Type field)
+	 * @return the key
+	 */
+	public static LinkStateNLRIKey fromWire(byte[] bytes, int offset) {
+		int valueLength = LinkStateNLRI.getNLRILength(bytes, offset);
+		byte[] key = new byte[2 + valueLength];
+		key[0] = bytes[offset];
+		key[1] = bytes[offset + 1];
+		int type = ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+		int start = offset + LinkStateNLRICursor.HEADER_LENGTH;
+		int descriptors = start + LinkStateNLRICursor.PROTOCOL_HEADER_LENGTH;
+		int end = start + valueLength;
+		if (type >= NLRITypes.Node_NLRI && type <= NLRITypes.Prefix_v6_NLRI && descriptors <= end
+				&& !isSorted(bytes, descriptors, end, true)) {
+			System.arraycopy(bytes, start, key, 2, LinkStateNLRICursor.PROTOCOL_HEADER_LENGTH);
+			if (copySorted(bytes, descriptors, end, key, 2 + LinkStateNLRICursor.PROTOCOL_HEADER_LENGTH, true)) {
+				return new LinkStateNLRIKey(key);
+			}
+		}
+		// sorted, or malformed: the bytes as sent
+		System.arraycopy(bytes, start, key, 2, valueLength);
+		return new LinkStateNLRIKey(key);
+	}
+
+	/**
+	 * @return true if the TLVs from offset to end are sorted (see
+	 * {@link #compareTLV(byte[], int, int)}), or if they are malformed
+	 */
+	private static boolean isSorted(byte[] bytes, int offset, int end, boolean nodeDescriptors) {
+		int previous = -1;
+		while (offset < end) {
+			int next = nextTLV(bytes, offset, end);
+			if (next < 0) {
+				return true;
+			}
+			if (previous >= 0 && compareTLV(bytes, previous, offset) > 0) {
+				return false;
+			}
+			if (nodeDescriptors && isNodeDescriptors(bytes, offset) && !isSorted(bytes, offset + 4, next, false)) {
+				return false;
+			}
+			previous = offset;
+			offset = next;
+		}
+		return true;
+	}
+
+	/**
+	 * Copies the TLVs from offset to end sorted, and the sub-TLVs of the node
+	 * descriptors among them if nodeDescriptors is true.
+	 * @return false if the TLVs are malformed
+	 */
+	private static boolean copySorted(byte[] bytes, int offset, int end, byte[] key, int keyOffset, boolean nodeDescriptors) {
+		int count = 0;
+		for (int i = offset; i < end; i = nextTLV(bytes, i, end)) {
+			if (nextTLV(bytes, i, end) < 0) {
+				return false;
+			}
+			count++;
+		}
+		int[] tlvs = new int[count];
+		for (int i = 0, tlv = offset; i < count; ++i, tlv = nextTLV(bytes, tlv, end)) {
+			// insertion sort, there are a few TLVs
+			int j = i;
+			while (j > 0 && compareTLV(bytes, tlvs[j - 1], tlv) > 0) {
+				tlvs[j] = tlvs[j - 1];
+				j--;
+			}
+			tlvs[j] = tlv;
+		}
+		for (int tlv : tlvs) {
+			int length = nextTLV(bytes, tlv, end) - tlv;
+			if (nodeDescriptors && isNodeDescriptors(bytes, tlv)) {
+				System.arraycopy(bytes, tlv, key, keyOffset, 4);
+				if (!copySorted(bytes, tlv + 4, tlv + length, key, keyOffset + 4, false)) {
+					return false;
+				}
+			} else {
+				System.arraycopy(bytes, tlv, key, keyOffset, length);
+			}
+			keyOffset += length;
+		}
+		return true;
+	}
+
+	/**
+	 * @return position of the TLV after the one at offset, or -1 if it does not fit before end
+	 */
+	private static int nextTLV(byte[] bytes, int offset, int end) {
+		if (offset + 4 > end) {
+			return -1;
+		}
+		int next = offset + 4 + (((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF));
+		return next <= end ? next : -1;
+	}
+
+	/**
+	 * Compares two TLVs by type, then by value as unsigned bytes
+	 */
+	private static int compareTLV(byte[] bytes, int a, int b) {
+		int typeA = ((bytes[a] & 0xFF) << 8) | (bytes[a + 1] & 0xFF);
+		int typeB = ((bytes[b] & 0xFF) << 8) | (bytes[b + 1] & 0xFF);
+		if (typeA != typeB) {
+			return Integer.compare(typeA, typeB);
+		}
+		int lengthA = ((bytes[a + 2] & 0xFF) << 8) | (bytes[a + 3] & 0xFF);
+		int lengthB = ((bytes[b + 2] & 0xFF) << 8) | (bytes[b + 3] & 0xFF);
+		return Arrays.compareUnsigned(bytes, a + 4, a + 4 + lengthA, bytes, b + 4, b + 4 + lengthB);
+	}
+
+	private static boolean isNodeDescriptors(byte[] bytes, int offset) {
+		int type = ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+		return type == LocalNodeDescriptorsTLV.Local_Node_Descriptors_TLV || type == RemoteNodeDescriptorsTLV.Remote_Node_Descriptors_TLV;
+	}
+
+	/**
+	 * @return NLRI Type of the NLRI (see {@link NLRITypes})
+	 */
+	public int getNLRIType() {
+		return ((key[0] & 0xFF) << 8) | (key[1] & 0xFF);
+	}
+
+	/**
+	 * @return the 64-bit hash of the key
+	 */
+	public long hash64() {
+		return hash;
+	}
+
+	/**
+	 * @return a copy of the bytes of the key
+	 */
+	public byte[] toByteArray() {
+		return key.clone();
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof LinkStateNLRIKey))
+			return false;
+		LinkStateNLRIKey other = (LinkStateNLRIKey) obj;
+		return hash == other.hash && Arrays.equals(key, other.key);
+	}
+
+	@Override
+	public int compareTo(LinkStateNLRIKey other) {
+		return Arrays.compareUnsigned(key, other.key);
+	}
+
+	@Override
+	public String toString() {
+		return "LinkStateNLRIKey [type=" + getNLRIType() + ", hash=" + Long.toHexString(hash) + "]";
+	}
+
+}
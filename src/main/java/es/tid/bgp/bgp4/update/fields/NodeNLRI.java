@@ -87,12 +87,10 @@ public class NodeNLRI extends LinkStateNLRI {
 	}
 	public void decode(){
 		//Decoding NodeNLRI
-		int offset = 4; //Cabecera del LinkState NLRI
+		int offset = bytesOffset + 4; //Cabecera del LinkState NLRI
 		protocolID = this.bytes[offset];
 		offset=offset +1; //identifier
 		
-		byte[] ip=new byte[8]; 
-		System.arraycopy(this.bytes,offset, ip, 0, 8);
 		
 		long routingUniverseIdentifieraux1 = ((  ((long)bytes[offset]&0xFF)   <<24)& 0xFF000000) |  (((long)bytes[offset+1]<<16) & 0xFF0000) | (((long)bytes[offset+2]<<8) & 0xFF00) |(((long)bytes[offset+3]) & 0xFF);
 		long routingUniverseIdentifieraux2 = ((  ((long)bytes[offset+4]&0xFF)   <<24)& 0xFF000000) |  (((long)bytes[offset+5]<<16) & 0xFF0000) | (((long)bytes[offset+6]<<8) & 0xFF00) |(((long)bytes[offset+7]) & 0xFF);
@@ -68,6 +68,10 @@ public abstract class PathAttribute extends BGP4Object {
 
 	protected int mandatoryLength = 3;
 	protected int pathAttributeLength;
+	/**
+	 * Set on the attributes shared through a {@link PathAttributeInterner}
+	 */
+	private boolean interned;
 	public PathAttribute(){
 	}
 
@@ -90,10 +94,11 @@ public abstract class PathAttribute extends BGP4Object {
 		else //It is one octec
 			pathAttributeLength =  bytes[offset+2]&0xFF;
 		this.length= pathAttributeLength+ mandatoryLength;
-		this.bytes=new byte[this.length];
-		System.arraycopy(bytes, offset, this.bytes, 0, this.length);	
+		this.bytes=bytes;
+		this.bytesOffset=offset;
 	}
 	public void encodeHeader(){
+		bytesOffset=0;
 		bytes[0] = 0x00;
 		bytes[0] = (byte) ((((optionalBit?1:0)<<7) & 0x80) | (((transitiveBit?1:0)<<6) & 0x40) | (((partialBit?1:0)<<5) & 0x20) | (((extendedLengthBit?1:0)<<4) & 0x10));
 
@@ -110,6 +115,9 @@ public abstract class PathAttribute extends BGP4Object {
 	protected void setPathAttributeLength(int pal){
 		this.pathAttributeLength= pal;
 		if (pathAttributeLength>255){
+			this.extendedLengthBit=true;
+		}
+		if (extendedLengthBit){
 			this.mandatoryLength=4;
 			this.length=pathAttributeLength+this.mandatoryLength;
 		}else {
@@ -170,6 +178,27 @@ public abstract class PathAttribute extends BGP4Object {
 	}
 
 
+	/**
+	 * @return true if the attribute is shared through a {@link PathAttributeInterner}:
+	 * it is already encoded and must not be modified
+	 */
+	public boolean isInterned() {
+		return interned;
+	}
+
+	void setInterned() {
+		interned = true;
+	}
+
+	/**
+	 * Replaces the TLVs of the attribute with the instances shared through the
+	 * interner. Called once on the attributes cached by the interner; the
+	 * attributes without TLVs do nothing.
+	 * @param interner interner that caches the attribute
+	 */
+	protected void internTLVs(PathAttributeInterner interner) {
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,266 @@
+package es.tid.bgp.bgp4.update.fields;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import es.tid.bgp.bgp4.update.fields.pathAttributes.PathAttributesTypeCode;
+import es.tid.bgp.bgp4.update.tlv.BGP4TLVFormat;
+import es.tid.protocol.commons.ByteHandler;
+
+/**
+ * Cache of decoded path attributes and BGP-LS attribute TLVs, so that the
+ * attributes repeated in many UPDATE messages (the same ORIGIN, AS_PATH or
+ * BGP-LS attribute for thousands of links) are kept once in memory.
+ *
+ * Attributes and TLVs are keyed by their bytes as received. An attribute
+ * that is not in the cache is decoded from a compact copy of its bytes, so
+ * it does not keep the message buffer alive, and the TLVs of a BGP-LS
+ * attribute are interned in turn, so that nearly identical attributes share
+ * their common TLVs.
+ *
+ * The cache is split in segments, each one a synchronized LRU map, so that
+ * peers decoding concurrently rarely wait for each other. Each kind of
+ * element holds up to maxEntries entries; the least recently used ones are
+ * evicted.
+ *
+ * The interned instances are shared: they must not be modified, and
+ * {@link PathAttribute#isInterned()} tells them apart. To change an
+ * attribute, decode a private copy from {@link PathAttribute#getBytes()}.
+ * An interner is meant for the messages of a session or of a RIB: it is
+ * given to the decoder, for example with
+ * {@link es.tid.protocol.commons.framing.BGP4FrameDecoder#setAttributeInterner(PathAttributeInterner)}.
+ */
+public final class PathAttributeInterner {
+
+	public static final int DEFAULT_MAX_ENTRIES = 65536;
+
+	private static final int SEGMENTS = 16;
+
+	/**
+	 * Decodes the path attribute found at offset
+	 */
+	@FunctionalInterface
+	public interface Decoder {
+		PathAttribute decode(byte[] bytes, int offset);
+	}
+
+	private final Segment<PathAttribute>[] attributes;
+	private final Segment<BGP4TLVFormat>[] tlvs;
+	private final boolean[] internable = new boolean[256];
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public PathAttributeInterner() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param maxEntries maximum number of attributes, and of TLVs, in the cache
+	 */
+	@SuppressWarnings("unchecked")
+	public PathAttributeInterner(int maxEntries) {
+		int segmentEntries = Math.max(1, maxEntries / SEGMENTS);
+		attributes = new Segment[SEGMENTS];
+		tlvs = new Segment[SEGMENTS];
+		for (int i = 0; i < SEGMENTS; ++i) {
+			attributes[i] = new Segment<PathAttribute>(segmentEntries);
+			tlvs[i] = new Segment<BGP4TLVFormat>(segmentEntries);
+		}
+		// MP_REACH_NLRI and MP_UNREACH_NLRI carry the NLRIs, so they are rarely repeated
+		setInternable(PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_ORIGIN, true);
+		setInternable(PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_ASPATH, true);
+		setInternable(PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_NEXTHOP, true);
+		setInternable(PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_LOCAL_PREF, true);
+		setInternable(PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_BGP_LS_ATTRIBUTE, true);
+		setInternable(PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_BGP_LS_ATTRIBUTE_LEGACY, true);
+	}
+
+	/**
+	 * @param typeCode attribute type code
+	 * @return true if the attributes of this type are interned
+	 */
+	public boolean isInternable(int typeCode) {
+		return internable[typeCode & 0xFF];
+	}
+
+	public void setInternable(int typeCode, boolean internable) {
+		this.internable[typeCode & 0xFF] = internable;
+	}
+
+	/**
+	 * Get the shared instance of the path attribute at offset, decoding it if
+	 * it is not in the cache.
+	 * @param bytes buffer containing the attribute
+	 * @param offset position of the attribute (the Attribute Flags)
+	 * @param decoder decoder used when the attribute is not in the cache
+	 * @return the shared attribute, or null if the decoder returns null
+	 */
+	public PathAttribute intern(byte[] bytes, int offset, Decoder decoder) {
+		int length = PathAttribute.getMandatoryLength(bytes, offset) + PathAttribute.getAttributeLength(bytes, offset);
+		long hash = ByteHandler.hash64(bytes, offset, length);
+		Segment<PathAttribute> segment = attributes[segment(hash)];
+		PathAttribute attribute = segment.get(new Key(bytes, offset, length, hash));
+		if (attribute != null) {
+			hits.increment();
+			return attribute;
+		}
+		misses.increment();
+		byte[] copy = ByteHandler.copyOfRange(bytes, offset, length);
+		attribute = decoder.decode(copy, 0);
+		if (attribute == null) {
+			return null;
+		}
+		attribute.internTLVs(this);
+		attribute.setInterned();
+		return segment.putIfAbsent(new Key(copy, 0, length, hash), attribute);
+	}
+
+	/**
+	 * Get the shared instance of a TLV. The TLV given is detached and cached
+	 * if there is no TLV with the same bytes.
+	 * @param tlv TLV, may be null
+	 * @return the shared TLV, or null if tlv is null
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends BGP4TLVFormat> T intern(T tlv) {
+		if (tlv == null) {
+			return null;
+		}
+		byte[] bytes = tlv.getTlv_bytes();
+		int length = tlv.getTotalTLVLength();
+		long hash = ByteHandler.hash64(bytes, 0, length);
+		BGP4TLVFormat shared = tlvs[segment(hash)].putIfAbsent(new Key(bytes, 0, length, hash), tlv);
+		if (shared == tlv) {
+			misses.increment();
+			return tlv;
+		}
+		if (shared.getClass() != tlv.getClass()) {
+			return tlv;
+		}
+		hits.increment();
+		return (T) shared;
+	}
+
+	/**
+	 * @return number of attributes and TLVs found in the cache
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return number of attributes and TLVs that were not in the cache
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return number of attributes in the cache
+	 */
+	public int getAttributeCount() {
+		int count = 0;
+		for (Segment<PathAttribute> segment : attributes) {
+			count += segment.size();
+		}
+		return count;
+	}
+
+	/**
+	 * @return number of TLVs in the cache
+	 */
+	public int getTLVCount() {
+		int count = 0;
+		for (Segment<BGP4TLVFormat> segment : tlvs) {
+			count += segment.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Empties the cache. The instances already shared remain valid.
+	 */
+	public void clear() {
+		for (int i = 0; i < SEGMENTS; ++i) {
+			attributes[i].clear();
+			tlvs[i].clear();
+		}
+	}
+
+	private static int segment(long hash) {
+		return (int) (hash >>> 60) & (SEGMENTS - 1);
+	}
+
+	/**
+	 * Range of bytes with its precomputed hash. The keys stored in the cache
+	 * own their bytes; the keys used for lookups may point into a message.
+	 */
+	private static final class Key {
+		private final byte[] bytes;
+		private final int offset;
+		private final int length;
+		private final long hash;
+
+		Key(byte[] bytes, int offset, int length, long hash) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (hash ^ (hash >>> 32));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hash == other.hash && Arrays.equals(bytes, offset, offset + length, other.bytes, other.offset, other.offset + other.length);
+		}
+	}
+
+	private static final class Segment<V> {
+		private final LinkedHashMap<Key, V> map;
+
+		Segment(final int maxEntries) {
+			map = new LinkedHashMap<Key, V>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+					return size() > maxEntries;
+				}
+			};
+		}
+
+		synchronized V get(Key key) {
+			return map.get(key);
+		}
+
+		synchronized V putIfAbsent(Key key, V value) {
+			V previous = map.get(key);
+			if (previous != null) {
+				return previous;
+			}
+			map.put(key, value);
+			return value;
+		}
+
+		synchronized int size() {
+			return map.size();
+		}
+
+		synchronized void clear() {
+			map.clear();
+		}
+	}
+
+}
@@ -31,31 +31,63 @@ import es.tid.bgp.bgp4.objects.BGP4Object;
             the minimum number of trailing bits needed to make the end
             of the field fall on an octet boundary.  Note that the value
             of trailing bits is irrelevant.
+ * The prefixes are IPv4 prefixes, kept packed in an {@link IPv4PrefixList}.
  * @author mcs
  *
  */
 public class WithdrawnRoutes extends BGP4Object{
-	private int length;
-	private byte[] prefix;//FIXME: pensar
-	
+	private IPv4PrefixList prefixes;
+
+	public WithdrawnRoutes(){
+		this.prefixes = new IPv4PrefixList();
+	}
+
+	/**
+	 * Decodes the Withdrawn Routes field of an UPDATE message
+	 * @param bytes buffer containing the field
+	 * @param offset position of the first prefix
+	 * @param length Withdrawn Routes Length
+	 */
+	public WithdrawnRoutes(byte[] bytes, int offset, int length){
+		this.bytes = bytes;
+		this.bytesOffset = offset;
+		this.setLength(length);
+		this.prefixes = new IPv4PrefixList(0);
+		this.prefixes.decode(bytes, offset, offset + length);
+	}
+
 	public void encode(){
-		
+		this.setLength(prefixes.getEncodedLength());
+		this.bytes = new byte[this.getLength()];
+		this.bytesOffset = 0;
+		prefixes.encode(this.bytes, 0);
+	}
+
+	public IPv4PrefixList getPrefixes() {
+		return prefixes;
 	}
 
-	public int getLength() {
-		return length;
+	public void setPrefixes(IPv4PrefixList prefixes) {
+		this.prefixes = prefixes;
 	}
 
-	public void setLength(int length) {
-		this.length = length;
+	@Override
+	public int hashCode() {
+		return prefixes.hashCode();
 	}
 
-	public byte[] getPrefix() {
-		return prefix;
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		return IPPrefixList.equals(prefixes, ((WithdrawnRoutes) obj).prefixes);
 	}
 
-	public void setPrefix(byte[] prefix) {
-		this.prefix = prefix;
+	@Override
+	public String toString() {
+		return "Withdrawn Routes: " + prefixes;
 	}
-	
+
 }
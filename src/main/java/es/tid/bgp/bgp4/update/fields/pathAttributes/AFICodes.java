@@ -3,5 +3,7 @@ package es.tid.bgp.bgp4.update.fields.pathAttributes;
 //http://www.iana.org/assignments/address-family-numbers/address-family-numbers.xml
 
 public class AFICodes {
+	public static final int AFI_IPV4=1;
+	public static final int AFI_IPV6=2;
 	public static final int AFI_BGP_LS=16388;
 }
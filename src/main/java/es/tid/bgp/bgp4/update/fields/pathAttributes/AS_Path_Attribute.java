@@ -70,11 +70,10 @@ public class AS_Path_Attribute extends PathAttribute
 		bytes = new byte[length];
 		encodeHeader();
 		int offset = this.mandatoryLength; //After the header encoding
-		int num_segs=asPathSegments.size();
-		for(int i=0;i<num_segs;++i)
+		for(AS_Path_Segment asPathSegment : asPathSegments)
 		{
-			System.arraycopy(asPathSegments.get(i).getBytes(), 0, bytes, offset, asPathSegments.get(i).getLength());
-			offset += asPathSegments.get(i).getLength();
+			System.arraycopy(asPathSegment.getBytes(), 0, bytes, offset, asPathSegment.getLength());
+			offset += asPathSegment.getLength();
 		}
 
 	}
@@ -84,10 +83,11 @@ public class AS_Path_Attribute extends PathAttribute
 		if(typeCode != PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_ASPATH)
 			throw new MalformedBGP4ElementException();
 		
-		int offset = this.mandatoryLength; 
-		while(offset < length)
+		int offset = bytesOffset + this.mandatoryLength; 
+		int end = bytesOffset + length;
+		while(offset < end)
 		{
-			AS_Path_Segment asPathSegment = new AS_Path_Segment(bytes, offset);
+			AS_Path_Segment asPathSegment = new AS_Path_Segment(bytes, offset, end);
 			asPathSegments.add(asPathSegment);
 			offset += asPathSegment.getLength();
 		}
@@ -126,7 +126,7 @@ public class AS_Path_Attribute extends PathAttribute
 		if(getClass() != obj.getClass())
 			return false;
 		AS_Path_Attribute other = (AS_Path_Attribute) obj;
-		if(! Arrays.equals(bytes, other.getBytes()))
+		if(! Arrays.equals(getBytes(), other.getBytes()))
 			return false;
 		if(length != other.getLength())
 			return false;
@@ -57,11 +57,24 @@ public class AS_Path_Segment implements BGP4Element {
 	} //Type and number, and nothing else;
 
 	public AS_Path_Segment(byte[] bytes, int offset) throws MalformedBGP4ElementException
+	{
+		this(bytes, offset, bytes.length);
+	}
+
+	/**
+	 * Decodes a segment of an AS_PATH that ends at position end of bytes.
+	 * The end is used to tell 2-octet from 4-octet AS numbers.
+	 * @param bytes bytes containing the segment
+	 * @param offset position of the segment
+	 * @param end position of the end of the AS_PATH attribute
+	 * @throws MalformedBGP4ElementException if the segment type is unknown
+	 */
+	public AS_Path_Segment(byte[] bytes, int offset, int end) throws MalformedBGP4ElementException
 	{
 		this.type = (int) bytes[offset] & 0xFF;
 		this.numberOfSegments = bytes[offset + 1] & 0xFF;
 		this.length = 2+numberOfSegments*4;
-		if ((bytes.length-offset)<length){
+		if ((end-offset)<length){
 			this.length = 2+numberOfSegments*2;
 			AS4=false;
 		}
@@ -6,6 +6,11 @@ import java.util.LinkedList;
 import java.util.List;
 
 /**
+ * MP_REACH_NLRI attribute of the BGP-LS address family (RFC 7752).
+ *
+ * When decoded, the NLRIs are not built until they are needed: the list
+ * of NLRIs is decoded on the first call that uses it, and
+ * {@link #nlriCursor()} walks the NLRI headers without building any of them.
  *
  *  @author Telefonica I+D
  *	@author Jose-Juan Pedreno-Manresa (modifications)
@@ -15,7 +20,14 @@ import java.util.List;
 public class BGP_LS_MP_Reach_Attribute extends MP_Reach_Attribute {
 
 	private LinkStateNLRI lsNLRI;
+	/**
+	 * NLRIs of the attribute. It is null until they are decoded.
+	 */
 	private List<LinkStateNLRI> lsNLRIList;
+	/**
+	 * Position of the first NLRI, relative to the start of the attribute
+	 */
+	private int nlriOffset;
 
 	public BGP_LS_MP_Reach_Attribute(){
 		super();
@@ -26,43 +38,47 @@ public class BGP_LS_MP_Reach_Attribute extends MP_Reach_Attribute {
 
 	public BGP_LS_MP_Reach_Attribute(byte [] bytes, int offset) {
 		super(bytes, offset);
-		int offset2=offset+this.mandatoryLength+5+this.getLengthofNextHopNetworkAddress();
+		this.nlriOffset=this.mandatoryLength+5+this.getLengthofNextHopNetworkAddress();
+	}
+
+	/**
+	 * Get a cursor over the NLRIs of the attribute. The NLRIs that are
+	 * skipped are never built. An attribute built from scratch is encoded first.
+	 * @return the cursor, positioned before the first NLRI
+	 */
+	public LinkStateNLRICursor nlriCursor() {
+		if (bytes == null) {
+			encode();
+		}
+		return new LinkStateNLRICursor(bytes, bytesOffset+nlriOffset, bytesOffset+length);
+	}
+
+	/**
+	 * Decode the NLRIs if that is not done yet. Unknown NLRIs are skipped.
+	 */
+	private void decodeNLRIs() {
+		if (lsNLRIList != null) {
+			return;
+		}
 		lsNLRIList = new LinkedList<LinkStateNLRI>();
-		while(offset2 < length+offset)
-		{
-			LinkStateNLRI tempNLri;
-			int type = LinkStateNLRI.getType(bytes, offset2);
-			if(type == NLRITypes.Link_NLRI)
-			{
-				tempNLri = new LinkNLRI(bytes, offset2);
-			} else if(type == NLRITypes.Node_NLRI)
-			{
-				tempNLri = new NodeNLRI(bytes, offset2);
-			}else if(type == NLRITypes.IT_Node_NLRI)
-			{
-				tempNLri = new ITNodeNLRI(bytes, offset2);
-			} else if(type == NLRITypes.Prefix_v4_NLRI)
-			{
-				tempNLri = new IPv4PrefixNLRI(bytes, offset2);
-			} else
-			{
-				log.warn("UNKNOWN_NLRI: " + type);
-				continue;
+		LinkStateNLRICursor cursor = new LinkStateNLRICursor(bytes, bytesOffset+nlriOffset, bytesOffset+length);
+		while (cursor.next()) {
+			LinkStateNLRI tempNLri = cursor.decodeNLRI();
+			if (tempNLri != null) {
+				lsNLRIList.add(tempNLri);
 			}
-			offset2 += tempNLri.getTotalNLRILength();
-			lsNLRIList.add(tempNLri);
 		}
 		lsNLRI = lsNLRIList.isEmpty() ? null : lsNLRIList.get(0);
 	}
 
 	public void encode() {
+		decodeNLRIs();
 		//Encoding BGP_LS_MP_Reach_Attribute
 //		this.pathAttributeLength = 5+lsNLRI.getLength()+this.getLengthofNextHopNetworkAddress();
 		this.pathAttributeLength = 5+getLengthofNextHopNetworkAddress();
-		for(int i=0; i< lsNLRIList.size() ;++i)
-		{
-			lsNLRIList.get(i).encode();
-			this.pathAttributeLength += lsNLRIList.get(i).getTotalNLRILength();
+		for (LinkStateNLRI linkStateNLRI : lsNLRIList) {
+			linkStateNLRI.encode();
+			this.pathAttributeLength += linkStateNLRI.getTotalNLRILength();
 		}
 
 		this.setPathAttributeLength(pathAttributeLength);
@@ -70,22 +86,26 @@ public class BGP_LS_MP_Reach_Attribute extends MP_Reach_Attribute {
 		encodeHeader();
 		encodeMP_Reach_Header();
 		int offset = this.getMandatoryLength()+5+this.getLengthofNextHopNetworkAddress();
-		for(int i=0; i< lsNLRIList.size() ;++i)
-		{
-			System.arraycopy(lsNLRIList.get(i).getBytes(), 0, this.bytes, offset, lsNLRIList.get(i).getTotalNLRILength());
-			offset += lsNLRIList.get(i).getTotalNLRILength();
+		for (LinkStateNLRI linkStateNLRI : lsNLRIList) {
+			System.arraycopy(linkStateNLRI.getBytes(), 0, this.bytes, offset, linkStateNLRI.getTotalNLRILength());
+			offset += linkStateNLRI.getTotalNLRILength();
 		}
+		this.nlriOffset = this.getMandatoryLength()+5+this.getLengthofNextHopNetworkAddress();
 
 	}
 
 	public LinkStateNLRI getLsNLRI() {
+		decodeNLRIs();
 		return lsNLRI;
 	}
-	public List<LinkStateNLRI> getLsNLRIList(){ return lsNLRIList; }
+	public List<LinkStateNLRI> getLsNLRIList(){
+		decodeNLRIs();
+		return lsNLRIList;
+	}
 
 	public void setLsNLRI(LinkStateNLRI lsNLRI) {
 		this.lsNLRI = lsNLRI;
-		if (this.lsNLRIList.size()>0){
+		if (this.lsNLRIList == null || this.lsNLRIList.size()>0){
 			this.lsNLRIList=new LinkedList<LinkStateNLRI>();
 		}		
 		this.lsNLRIList.add(lsNLRI);
@@ -94,7 +114,7 @@ public class BGP_LS_MP_Reach_Attribute extends MP_Reach_Attribute {
 
 	public String toString(){
 		StringBuilder sb = new StringBuilder("[BGP_LS_MP_REACH ");
-		for(LinkStateNLRI ls : lsNLRIList)
+		for(LinkStateNLRI ls : getLsNLRIList())
 			sb.append(ls.toString()+" ");
 		return sb.toString();
 	}
@@ -103,8 +123,8 @@ public class BGP_LS_MP_Reach_Attribute extends MP_Reach_Attribute {
 	public int hashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
-		for(LinkStateNLRI ls :lsNLRIList)
-			result = prime * result + lsNLRI.hashCode();
+		for(LinkStateNLRI ls : getLsNLRIList())
+			result = prime * result + ls.hashCode();
 		return result;
 	}
 
@@ -117,7 +137,7 @@ public class BGP_LS_MP_Reach_Attribute extends MP_Reach_Attribute {
 		if (getClass() != obj.getClass())
 			return false;
 		BGP_LS_MP_Reach_Attribute other = (BGP_LS_MP_Reach_Attribute) obj;
-		if(lsNLRIList.size() != other.getLsNLRIList().size())
+		if(getLsNLRIList().size() != other.getLsNLRIList().size())
 			return false;
 		List<LinkStateNLRI> otherlsNLRIList = other.getLsNLRIList();
 		if(!lsNLRIList.equals(otherlsNLRIList))
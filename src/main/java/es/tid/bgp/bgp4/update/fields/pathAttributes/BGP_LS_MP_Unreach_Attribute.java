@@ -0,0 +1,139 @@
+package es.tid.bgp.bgp4.update.fields.pathAttributes;
+
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRICursor;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * MP_UNREACH_NLRI attribute of the BGP-LS address family (RFC 7752),
+ * carrying the withdrawn Link-State NLRIs.
+ *
+ * When decoded, the withdrawn NLRIs are not built until they are needed.
+ * To process a withdrawal storm, {@link #nlriCursor()} gives the type,
+ * Protocol-ID, Identifier and raw descriptors of each withdrawn NLRI
+ * without building any object.
+ */
+public class BGP_LS_MP_Unreach_Attribute extends MP_Unreach_Attribute {
+
+	/**
+	 * Withdrawn NLRIs. It is null until they are decoded.
+	 */
+	private List<LinkStateNLRI> lsNLRIList;
+
+	public BGP_LS_MP_Unreach_Attribute(){
+		super();
+		this.setAddressFamilyIdentifier(AFICodes.AFI_BGP_LS);
+		this.setSubsequentAddressFamilyIdentifier(SAFICodes.SAFI_BGP_LS);
+		lsNLRIList = new LinkedList<LinkStateNLRI>();
+	}
+
+	public BGP_LS_MP_Unreach_Attribute(byte [] bytes, int offset) {
+		super(bytes, offset);
+	}
+
+	/**
+	 * @return position of the first withdrawn NLRI, relative to the start of the attribute
+	 */
+	private int getNLRIOffset() {
+		return this.getMandatoryLength()+3;
+	}
+
+	/**
+	 * Get a cursor over the withdrawn NLRIs. The NLRIs that are skipped are
+	 * never built. An attribute built from scratch is encoded first.
+	 * @return the cursor, positioned before the first NLRI
+	 */
+	public LinkStateNLRICursor nlriCursor() {
+		if (bytes == null) {
+			encode();
+		}
+		return new LinkStateNLRICursor(bytes, bytesOffset+getNLRIOffset(), bytesOffset+length);
+	}
+
+	/**
+	 * Decode the withdrawn NLRIs if that is not done yet. Unknown NLRIs are skipped.
+	 */
+	private void decodeNLRIs() {
+		if (lsNLRIList != null) {
+			return;
+		}
+		lsNLRIList = new LinkedList<LinkStateNLRI>();
+		LinkStateNLRICursor cursor = new LinkStateNLRICursor(bytes, bytesOffset+getNLRIOffset(), bytesOffset+length);
+		while (cursor.next()) {
+			LinkStateNLRI nlri = cursor.decodeNLRI();
+			if (nlri != null) {
+				lsNLRIList.add(nlri);
+			}
+		}
+	}
+
+	@Override
+	public void encode() {
+		decodeNLRIs();
+		this.pathAttributeLength = 3;
+		for (LinkStateNLRI linkStateNLRI : lsNLRIList) {
+			linkStateNLRI.encode();
+			this.pathAttributeLength += linkStateNLRI.getTotalNLRILength();
+		}
+		this.setPathAttributeLength(pathAttributeLength);
+		this.bytes=new byte[this.getLength()];
+		encodeHeader();
+		encodeMP_Unreach_Header();
+		int offset = getNLRIOffset();
+		for (LinkStateNLRI linkStateNLRI : lsNLRIList) {
+			System.arraycopy(linkStateNLRI.getBytes(), 0, this.bytes, offset, linkStateNLRI.getTotalNLRILength());
+			offset += linkStateNLRI.getTotalNLRILength();
+		}
+	}
+
+	/**
+	 * @return the withdrawn NLRIs, decoded on the first call
+	 */
+	public List<LinkStateNLRI> getLsNLRIList(){
+		decodeNLRIs();
+		return lsNLRIList;
+	}
+
+	public void setLsNLRIList(List<LinkStateNLRI> lsNLRIList){
+		this.lsNLRIList = lsNLRIList;
+	}
+
+	/**
+	 * @param lsNLRI NLRI to withdraw
+	 */
+	public void addLsNLRI(LinkStateNLRI lsNLRI){
+		getLsNLRIList().add(lsNLRI);
+	}
+
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder("[BGP_LS_MP_UNREACH ");
+		for(LinkStateNLRI ls : getLsNLRIList())
+			sb.append(ls.toString()+" ");
+		return sb.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		for(LinkStateNLRI ls : getLsNLRIList())
+			result = prime * result + ls.hashCode();
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		BGP_LS_MP_Unreach_Attribute other = (BGP_LS_MP_Unreach_Attribute) obj;
+		return getLsNLRIList().equals(other.getLsNLRIList());
+	}
+
+}
@@ -1,33 +1,96 @@
 package es.tid.bgp.bgp4.update.fields.pathAttributes;
 
+import es.tid.bgp.bgp4.update.fields.IPPrefixList;
+
+/**
+ * MP_REACH_NLRI attribute of address families other than BGP-LS. The NLRI of
+ * the IPv4 and IPv6 families (RFC 4760, Section 5) are decoded as a list of
+ * prefixes; those of other families are not decoded.
+ */
 public class Generic_MP_Reach_Attribute extends MP_Reach_Attribute {
+
+	/**
+	 * Prefixes of the IPv4 and IPv6 families, null for the other families
+	 */
+	private IPPrefixList prefixes;
+
 	public Generic_MP_Reach_Attribute(){
 	}
 	
 	public Generic_MP_Reach_Attribute(byte [] bytes, int offset) {
 		super(bytes, offset);
+		int nlriOffset = bytesOffset+this.getMandatoryLength()+5+this.getNextHopLength();
+		int end = bytesOffset+this.getLength();
+		if (nlriOffset<end){
+			prefixes = IPPrefixList.create(this.getAddressFamilyIdentifier());
+			if (prefixes!=null){
+				prefixes.decode(this.bytes, nlriOffset, end);
+			}
+		}
 	}
 	public void encode() {
 		//Encoding  Generic MP_Reach_Attribute
-		//FIXME: SUPONEMOS lengthofNextHopNetworkAddress cero
 
 		/**
 		 * Attribute length:
 		 * 	Address Family Identifier (2 octets)
 		 * 	Subsequent Address Family Identifier (1 octet)
 		 * 	Length of Next Hop Network Address (1 octet)
-		 * 	Network Address of Next Hop (variable), assuming IPv4, 4 octets //FIXME: change this in case of IPv6
+		 * 	Network Address of Next Hop (variable)
 		 * 	Reserved (1 octet)
-		 * 	Total: 9 octets
+		 * 	Network Layer Reachability Information (variable)
 		 *
 		 * @see RFC 4760
 		 * @see es.tid.bgp.bgp4.update.fields.pathAttributes.MP_Reach_Attribute
 		 */
 
-		pathAttributeLength = 9;
+		pathAttributeLength = 5+this.getNextHopLength();
+		if (prefixes!=null){
+			pathAttributeLength = pathAttributeLength+prefixes.getEncodedLength();
+		}
 		this.setPathAttributeLength(pathAttributeLength);
 		this.bytes=new byte[this.getLength()];
+		this.bytesOffset=0;
 		encodeHeader();	
 		encodeMP_Reach_Header();
+		if (prefixes!=null){
+			prefixes.encode(this.bytes, this.getMandatoryLength()+5+this.getNextHopLength());
+		}
+	}
+
+	public IPPrefixList getPrefixes() {
+		return prefixes;
+	}
+
+	/**
+	 * Sets the prefixes advertised, and the address family if it is not set
+	 * (unicast by default)
+	 * @param prefixes IPv4 or IPv6 prefixes
+	 */
+	public void setPrefixes(IPPrefixList prefixes) {
+		this.prefixes = prefixes;
+		if (prefixes!=null && this.getAddressFamilyIdentifier()==0){
+			this.setAddressFamilyIdentifier(prefixes.getAFI());
+			if (this.getSubsequentAddressFamilyIdentifier()==0){
+				this.setSubsequentAddressFamilyIdentifier(SAFICodes.SAFI_UNICAST);
+			}
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * super.hashCode() + ((prefixes == null) ? 0 : prefixes.hashCode());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!super.equals(obj))
+			return false;
+		return IPPrefixList.equals(prefixes, ((Generic_MP_Reach_Attribute) obj).prefixes);
+	}
+
+	@Override
+	public String toString() {
+		return "MP_REACH_NLRI [AFI=" + getAddressFamilyIdentifier() + ", SAFI=" + getSubsequentAddressFamilyIdentifier() + ", nextHop=" + getNextHop() + ", NLRI=" + prefixes + "]";
 	}
 }
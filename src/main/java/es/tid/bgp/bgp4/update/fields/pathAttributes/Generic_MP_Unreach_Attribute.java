@@ -1,11 +1,33 @@
 package es.tid.bgp.bgp4.update.fields.pathAttributes;
 
+import es.tid.bgp.bgp4.update.fields.IPPrefixList;
+
+/**
+ * MP_UNREACH_NLRI attribute of address families other than BGP-LS. The
+ * withdrawn routes of the IPv4 and IPv6 unicast and multicast families
+ * (RFC 4760, Section 5) are decoded as a list of prefixes; those of other
+ * families, such as labeled or VPN routes, are not decoded.
+ */
 public class Generic_MP_Unreach_Attribute extends MP_Unreach_Attribute
 {
+	/**
+	 * Prefixes of the IPv4 and IPv6 families, null for the other families
+	 */
+	private IPPrefixList prefixes;
+
 	public Generic_MP_Unreach_Attribute(){}
 
 	public Generic_MP_Unreach_Attribute(byte[] bytes, int offset){
 		super(bytes, offset);
+		int nlriOffset = bytesOffset + this.getMandatoryLength() + 3;
+		int end = bytesOffset + this.getLength();
+		int safi = this.getSubsequentAddressFamilyIdentifier();
+		if (nlriOffset < end && (safi == SAFICodes.SAFI_UNICAST || safi == SAFICodes.SAFI_MULTICAST)){
+			prefixes = IPPrefixList.create(this.getAddressFamilyIdentifier());
+			if (prefixes != null){
+				prefixes.decode(this.bytes, nlriOffset, end);
+			}
+		}
 	}
 
 	@Override
@@ -14,14 +36,57 @@ public class Generic_MP_Unreach_Attribute extends MP_Unreach_Attribute
 		 * Attribute length:
 		 * 	Address Family Identifier (2 octets)
 		 * 	Subsequent Address Family Identifier (1 octet)
-		 *  Total: 3 octets
+		 * 	Withdrawn Routes (variable)
 		 * @see RFC 4760
 		 * @see es.tid.bgp.bgp4.update.fields.pathAttributes.MP_Unreach_Attribute
 		 */
 		pathAttributeLength = 3;
+		if (prefixes != null){
+			pathAttributeLength = pathAttributeLength + prefixes.getEncodedLength();
+		}
 		this.setPathAttributeLength(pathAttributeLength);
 		this.bytes=new byte[this.getLength()];
+		this.bytesOffset=0;
 		encodeHeader();
 		encodeMP_Unreach_Header();
+		if (prefixes != null){
+			prefixes.encode(this.bytes, this.getMandatoryLength() + 3);
+		}
+	}
+
+	public IPPrefixList getPrefixes(){
+		return prefixes;
+	}
+
+	/**
+	 * Sets the prefixes withdrawn, and the address family if it is not set
+	 * (unicast by default)
+	 * @param prefixes IPv4 or IPv6 prefixes
+	 */
+	public void setPrefixes(IPPrefixList prefixes){
+		this.prefixes = prefixes;
+		if (prefixes != null && this.getAddressFamilyIdentifier() == 0){
+			this.setAddressFamilyIdentifier(prefixes.getAFI());
+			if (this.getSubsequentAddressFamilyIdentifier() == 0){
+				this.setSubsequentAddressFamilyIdentifier(SAFICodes.SAFI_UNICAST);
+			}
+		}
+	}
+
+	@Override
+	public int hashCode(){
+		return 31 * super.hashCode() + ((prefixes == null) ? 0 : prefixes.hashCode());
+	}
+
+	@Override
+	public boolean equals(Object obj){
+		if (!super.equals(obj))
+			return false;
+		return IPPrefixList.equals(prefixes, ((Generic_MP_Unreach_Attribute) obj).prefixes);
+	}
+
+	@Override
+	public String toString(){
+		return "MP_UNREACH_NLRI [AFI=" + getAddressFamilyIdentifier() + ", SAFI=" + getSubsequentAddressFamilyIdentifier() + ", withdrawn=" + prefixes + "]";
 	}
 }
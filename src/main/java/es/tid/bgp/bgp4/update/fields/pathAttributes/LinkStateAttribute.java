@@ -1,6 +1,7 @@
 package es.tid.bgp.bgp4.update.fields.pathAttributes;
 
 import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.PathAttributeInterner;
 import es.tid.bgp.bgp4.update.tlv.BGP4TLVFormat;
 import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.AdministrativeGroupLinkAttribTLV;
 import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.DefaultTEMetricLinkAttribTLV;
@@ -194,6 +195,13 @@ public class LinkStateAttribute extends PathAttribute {
     PrefixSIDPrefixAttribTLV prefixSIDTLV;
     SourceRouterIdentifierPrefixAttribTLV sourceRouterIDTLV;
 
+    /**
+     * TLV types already decoded, the others are decoded from the bytes when
+     * they are read. It is written after the TLVs it covers, so a thread that
+     * reads a TLV type in it also sees the TLV.
+     */
+    private volatile LinkStateAttributeDecodeProfile decodeProfile = LinkStateAttributeDecodeProfile.ALL;
+
     public LinkStateAttribute(){        
         super();
         this.optionalBit = true;
@@ -203,12 +211,27 @@ public class LinkStateAttribute extends PathAttribute {
     }
 
     public LinkStateAttribute(byte []bytes, int offset){
+        this(bytes, offset, LinkStateAttributeDecodeProfile.ALL);
+    }
+
+    /**
+     * Decodes only the TLVs of the profile. The other TLVs are decoded when
+     * they are read, so the bytes of the attribute must not be modified.
+     * Reading the TLVs from several threads is safe, modifying the attribute
+     * is not.
+     * @param bytes buffer containing the attribute
+     * @param offset position of the attribute
+     * @param decodeProfile TLV types to decode, null for all of them
+     */
+    public LinkStateAttribute(byte []bytes, int offset, LinkStateAttributeDecodeProfile decodeProfile){
         super(bytes, offset);
+        this.decodeProfile = decodeProfile == null ? LinkStateAttributeDecodeProfile.ALL : decodeProfile;
         decode();
     }
 
     @Override
     public void encode() {
+        decodeSkipped();
         //Encode LinkStateAttribute
         pathAttributeLength=0;
 
@@ -350,274 +373,443 @@ public class LinkStateAttribute extends PathAttribute {
     }
 
     public void decode(){
-        log.debug("[LS-ATTR-DECODE] Tamaño buffer: {}", this.bytes.length);
-        int offset = mandatoryLength;
-        while (offset < (this.pathAttributeLength + mandatoryLength)) {
+        log.debug("[LS-ATTR-DECODE] Tamaño buffer: {}", this.length);
+        int offset = bytesOffset + mandatoryLength;
+        while (offset < (bytesOffset + this.pathAttributeLength + mandatoryLength)) {
             int TLVType = BGP4TLVFormat.getType(this.bytes, offset);
             int TLVLength = BGP4TLVFormat.getTotalTLVLength(this.bytes, offset);
             
-            log.debug("[LS-ATTR-DECODE] Cursor en {} | Tipo: {} | Largo: {}", offset, TLVType, TLVLength);
-
-            switch (TLVType){
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MAX_RESERVABLE_BANDWITH:
-                    this.maxReservableBandwidthTLV = new MaxReservableBandwidthLinkAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MAXIMUM_BANDWITH:
-                    this.maximumLinkBandwidthTLV = new MaximumLinkBandwidthLinkAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_UNRESERVED_BANDWITH:
-                    this.unreservedBandwidthTLV = new UnreservedBandwidthLinkAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_METRIC:
-                    this.metricTLV = new MetricLinkAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_ADMINISTRATIVE_GROUP:
-                    this.administrativeGroupTLV = new AdministrativeGroupLinkAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_LINK_PROTECTION_TYPE:
-                    this.linkProtectionTLV = new LinkProtectionTypeLinkAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_IPv4_ROUTER_ID_OF_LOCAL_NODE:
-                    this.IPv4RouterIDLocalNodeLATLV = new IPv4RouterIDLocalNodeLinkAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_IPv4_ROUTER_ID_OF_REMOTE_NODE:
-                    this.IPv4RouterIDRemoteNodeLATLV = new IPv4RouterIDRemoteNodeLinkAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_TE_DEFAULT_METRIC:
-                    this.TEMetricTLV = new DefaultTEMetricLinkAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_SHARED_RISK_LINK_GROUP:
-                    this.SharedRiskLinkGroupATLV = new SharedRiskLinkGroupAttribTLV(this.bytes, offset); break;   
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_TRANSCEIVER_CLASS_AND_APPLICATION:
-                    this.TransceiverClassAndAppATLV = new TransceiverClassAndAppAttribTLV(this.bytes, offset); break; 
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MF_OTP:
-                    this.MF_OTP_ATLV = new MF_OTPAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_AVAILABLELABELS:
-                    try { this.availableLabels = new AvailableLabels(this.bytes, offset); } catch (Exception e) {} break;
-                case LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_IS_IS_AREA_ID:
-                    this.areaIDTLV = new IS_IS_AreaIdentifierNodeAttribTLV(this.bytes, offset);
-                    log.info("[BGP-LS] Area ID decodificado: {}", this.areaIDTLV.toString());
-                    break;
-                case LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_NODE_FLAG_BITS:
-                    this.nodeFlagBitsTLV = new NodeFlagBitsNodeAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_NODE_NAME:
-                    this.nodeNameTLV = new NodeNameNodeAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_SID_LABEL:
-                    this.sidLabelTLV = new SidLabelNodeAttribTLV(this.bytes, offset); log.info("Detectada TLV 1161 (SID/Label) -> " + this.sidLabelTLV.toString()); break;
-                case LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_SR_CAPABILITIES:
-                    this.srCapabilitiesTLV = new SRCapabilitiesTLV(this.bytes, offset);
-                    if (this.srCapabilitiesTLV.getSidLabelSubTLV() != null) {
-                        this.sidLabelTLV = this.srCapabilitiesTLV.getSidLabelSubTLV();
-                    }
-                    break;
-                case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_IGP_FLAGS:
-                    this.igpFlagBitsTLV = new IGPFlagBitsPrefixAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_OSPF_FORWARDING_ADDRESS:
-                    this.OSPFForwardingAddrTLV = new OSPFForwardingAddressPrefixAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_PREFIX_METRIC:
-                    this.prefixMetricTLV = new PrefixMetricPrefixAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_ROUTE_TAG:
-                    this.routeTagTLV = new RouteTagPrefixAttribTLV(this.bytes, offset); break;
-                case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_PREFIX_SID: 
-                    this.prefixSIDTLV = new PrefixSIDPrefixAttribTLV(this.bytes, offset); 
-                    break;
-                case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_SOURCE_ROUTER_ID:
-                    this.sourceRouterIDTLV = new SourceRouterIdentifierPrefixAttribTLV(this.bytes, offset);
-                    break;
-                default:
-                    log.warn("Unknown TLV found: " + TLVType);
+            if (log.isDebugEnabled()) {
+                log.debug("[LS-ATTR-DECODE] Cursor en {} | Tipo: {} | Largo: {}", offset, TLVType, TLVLength);
+            }
+
+            if (decodeProfile.decodes(TLVType)) {
+                decodeTLV(TLVType, offset);
             }
             offset = offset + TLVLength;
         }
     }
+
+    private void decodeTLV(int TLVType, int offset){
+        switch (TLVType){
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MAX_RESERVABLE_BANDWITH:
+                this.maxReservableBandwidthTLV = new MaxReservableBandwidthLinkAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MAXIMUM_BANDWITH:
+                this.maximumLinkBandwidthTLV = new MaximumLinkBandwidthLinkAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_UNRESERVED_BANDWITH:
+                this.unreservedBandwidthTLV = new UnreservedBandwidthLinkAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_METRIC:
+                this.metricTLV = new MetricLinkAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_ADMINISTRATIVE_GROUP:
+                this.administrativeGroupTLV = new AdministrativeGroupLinkAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_LINK_PROTECTION_TYPE:
+                this.linkProtectionTLV = new LinkProtectionTypeLinkAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_IPv4_ROUTER_ID_OF_LOCAL_NODE:
+                this.IPv4RouterIDLocalNodeLATLV = new IPv4RouterIDLocalNodeLinkAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_IPv4_ROUTER_ID_OF_REMOTE_NODE:
+                this.IPv4RouterIDRemoteNodeLATLV = new IPv4RouterIDRemoteNodeLinkAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_TE_DEFAULT_METRIC:
+                this.TEMetricTLV = new DefaultTEMetricLinkAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_SHARED_RISK_LINK_GROUP:
+                this.SharedRiskLinkGroupATLV = new SharedRiskLinkGroupAttribTLV(this.bytes, offset); break;   
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_TRANSCEIVER_CLASS_AND_APPLICATION:
+                this.TransceiverClassAndAppATLV = new TransceiverClassAndAppAttribTLV(this.bytes, offset); break; 
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MF_OTP:
+                this.MF_OTP_ATLV = new MF_OTPAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_AVAILABLELABELS:
+                try { this.availableLabels = new AvailableLabels(this.bytes, offset); } catch (Exception e) {} break;
+            case LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_IS_IS_AREA_ID:
+                this.areaIDTLV = new IS_IS_AreaIdentifierNodeAttribTLV(this.bytes, offset);
+                log.debug("[BGP-LS] Area ID decodificado: {}", this.areaIDTLV);
+                break;
+            case LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_NODE_FLAG_BITS:
+                this.nodeFlagBitsTLV = new NodeFlagBitsNodeAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_NODE_NAME:
+                this.nodeNameTLV = new NodeNameNodeAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_SID_LABEL:
+                this.sidLabelTLV = new SidLabelNodeAttribTLV(this.bytes, offset); log.debug("Detectada TLV 1161 (SID/Label) -> {}", this.sidLabelTLV); break;
+            case LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_SR_CAPABILITIES:
+                this.srCapabilitiesTLV = new SRCapabilitiesTLV(this.bytes, offset);
+                if (this.srCapabilitiesTLV.getSidLabelSubTLV() != null) {
+                    this.sidLabelTLV = this.srCapabilitiesTLV.getSidLabelSubTLV();
+                }
+                break;
+            case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_IGP_FLAGS:
+                this.igpFlagBitsTLV = new IGPFlagBitsPrefixAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_OSPF_FORWARDING_ADDRESS:
+                this.OSPFForwardingAddrTLV = new OSPFForwardingAddressPrefixAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_PREFIX_METRIC:
+                this.prefixMetricTLV = new PrefixMetricPrefixAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_ROUTE_TAG:
+                this.routeTagTLV = new RouteTagPrefixAttribTLV(this.bytes, offset); break;
+            case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_PREFIX_SID: 
+                this.prefixSIDTLV = new PrefixSIDPrefixAttribTLV(this.bytes, offset); 
+                break;
+            case LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_SOURCE_ROUTER_ID:
+                this.sourceRouterIDTLV = new SourceRouterIdentifierPrefixAttribTLV(this.bytes, offset);
+                break;
+            default:
+                log.warn("Unknown TLV found: " + TLVType);
+        }
+    }
+
+    /**
+     * Decodes the TLVs of a type skipped by the decode profile, the first
+     * time they are read.
+     * @param type TLV type
+     */
+    private void decodeSkipped(int type){
+        if (decodeProfile.decodes(type)) {
+            return;
+        }
+        synchronized (this) {
+            LinkStateAttributeDecodeProfile decoded = decodeProfile;
+            if (decoded.decodes(type)) {
+                return;
+            }
+            if (this.bytes != null) {
+                int offset = bytesOffset + mandatoryLength;
+                int end = offset + this.pathAttributeLength;
+                while (offset < end) {
+                    if (BGP4TLVFormat.getType(this.bytes, offset) == type) {
+                        decodeTLV(type, offset);
+                    }
+                    offset = offset + BGP4TLVFormat.getTotalTLVLength(this.bytes, offset);
+                }
+            }
+            // published after the TLV
+            decodeProfile = decoded.with(type);
+        }
+    }
+
+    /**
+     * Decodes all the TLVs skipped by the decode profile.
+     */
+    public void decodeSkipped(){
+        if (decodeProfile.isAll()) {
+            return;
+        }
+        synchronized (this) {
+            LinkStateAttributeDecodeProfile decoded = decodeProfile;
+            if (decoded.isAll()) {
+                return;
+            }
+            if (this.bytes != null) {
+                int offset = bytesOffset + mandatoryLength;
+                int end = offset + this.pathAttributeLength;
+                while (offset < end) {
+                    int TLVType = BGP4TLVFormat.getType(this.bytes, offset);
+                    if (!decoded.decodes(TLVType)) {
+                        decodeTLV(TLVType, offset);
+                    }
+                    offset = offset + BGP4TLVFormat.getTotalTLVLength(this.bytes, offset);
+                }
+            }
+            decodeProfile = LinkStateAttributeDecodeProfile.ALL;
+        }
+    }
+
+    /**
+     * A TLV set by the application is not overwritten by the skipped one.
+     */
+    private void setDecoded(int type){
+        decodeProfile = decodeProfile.with(type);
+    }
+    /**
+     * Shares the TLVs that are equal to those of other cached attributes.
+     * The available labels are an OSPF sub-TLV and are not interned.
+     */
+    @Override
+    protected void internTLVs(PathAttributeInterner interner) {
+        // the shared instance is not modified once cached
+        decodeSkipped();
+        administrativeGroupTLV = interner.intern(administrativeGroupTLV);
+        maximumLinkBandwidthTLV = interner.intern(maximumLinkBandwidthTLV);
+        maxReservableBandwidthTLV = interner.intern(maxReservableBandwidthTLV);
+        unreservedBandwidthTLV = interner.intern(unreservedBandwidthTLV);
+        linkProtectionTLV = interner.intern(linkProtectionTLV);
+        metricTLV = interner.intern(metricTLV);
+        IPv4RouterIDLocalNodeLATLV = interner.intern(IPv4RouterIDLocalNodeLATLV);
+        IPv4RouterIDRemoteNodeLATLV = interner.intern(IPv4RouterIDRemoteNodeLATLV);
+        TEMetricTLV = interner.intern(TEMetricTLV);
+        SharedRiskLinkGroupATLV = interner.intern(SharedRiskLinkGroupATLV);
+        TransceiverClassAndAppATLV = interner.intern(TransceiverClassAndAppATLV);
+        MF_OTP_ATLV = interner.intern(MF_OTP_ATLV);
+        nodeFlagBitsTLV = interner.intern(nodeFlagBitsTLV);
+        nodeNameTLV = interner.intern(nodeNameTLV);
+        areaIDTLV = interner.intern(areaIDTLV);
+        sidLabelTLV = interner.intern(sidLabelTLV);
+        srCapabilitiesTLV = interner.intern(srCapabilitiesTLV);
+        igpFlagBitsTLV = interner.intern(igpFlagBitsTLV);
+        routeTagTLV = interner.intern(routeTagTLV);
+        prefixMetricTLV = interner.intern(prefixMetricTLV);
+        OSPFForwardingAddrTLV = interner.intern(OSPFForwardingAddrTLV);
+        prefixSIDTLV = interner.intern(prefixSIDTLV);
+        sourceRouterIDTLV = interner.intern(sourceRouterIDTLV);
+    }
+
+    /**
+     * @return the TLV types decoded so far
+     */
+    public LinkStateAttributeDecodeProfile getDecodeProfile() {
+        return decodeProfile;
+    }
+
+    /**
+     * @param decodeProfile TLV types decoded by {@link #decode()}, null for all of them
+     */
+    public void setDecodeProfile(LinkStateAttributeDecodeProfile decodeProfile) {
+        this.decodeProfile = decodeProfile == null ? LinkStateAttributeDecodeProfile.ALL : decodeProfile;
+    }
+
     // --- GETTERS / SETTERS ---
     // (Mantengo todos tus getters y setters existentes e inserto el de SRCapabilities)
 
     public SRCapabilitiesTLV getSrCapabilitiesTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_SR_CAPABILITIES);
         return srCapabilitiesTLV;
     }
 
     public void setSrCapabilitiesTLV(SRCapabilitiesTLV srCapabilitiesTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_SR_CAPABILITIES);
         this.srCapabilitiesTLV = srCapabilitiesTLV;
     }
 
     public IGPFlagBitsPrefixAttribTLV getIgpFlagBitsTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_IGP_FLAGS);
         return igpFlagBitsTLV;
     }
 
     public void setIgpFlagBitsTLV(IGPFlagBitsPrefixAttribTLV igpFlagBitsTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_IGP_FLAGS);
         this.igpFlagBitsTLV = igpFlagBitsTLV;
     }
 
     public RouteTagPrefixAttribTLV getRouteTagTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_ROUTE_TAG);
         return routeTagTLV;
     }
 
     public void setRouteTagTLV(RouteTagPrefixAttribTLV routeTagTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_ROUTE_TAG);
         this.routeTagTLV = routeTagTLV;
     }
 
     public PrefixMetricPrefixAttribTLV getPrefixMetricTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_PREFIX_METRIC);
         return prefixMetricTLV;
     }
 
     public void setPrefixMetricTLV(PrefixMetricPrefixAttribTLV prefixMetricTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_PREFIX_METRIC);
         this.prefixMetricTLV = prefixMetricTLV;
     }
 
     public OSPFForwardingAddressPrefixAttribTLV getOSPFForwardingAddrTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_OSPF_FORWARDING_ADDRESS);
         return OSPFForwardingAddrTLV;
     }
 
     public void setOSPFForwardingAddrTLV(OSPFForwardingAddressPrefixAttribTLV oSPFForwardingAddrTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_OSPF_FORWARDING_ADDRESS);
         OSPFForwardingAddrTLV = oSPFForwardingAddrTLV;
     }
 
     public MaximumLinkBandwidthLinkAttribTLV getMaximumLinkBandwidthTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MAXIMUM_BANDWITH);
         return maximumLinkBandwidthTLV;
     }
 
     public void setMaximumLinkBandwidthTLV(MaximumLinkBandwidthLinkAttribTLV maximumLinkBandwidthTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MAXIMUM_BANDWITH);
         this.maximumLinkBandwidthTLV = maximumLinkBandwidthTLV;
     }
 
     public MaxReservableBandwidthLinkAttribTLV getMaxReservableBandwidthTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MAX_RESERVABLE_BANDWITH);
         return maxReservableBandwidthTLV;
     }
 
     public void setMaxReservableBandwidthTLV(MaxReservableBandwidthLinkAttribTLV maxReservableBandwidthTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MAX_RESERVABLE_BANDWITH);
         this.maxReservableBandwidthTLV = maxReservableBandwidthTLV;
     }
 
     public UnreservedBandwidthLinkAttribTLV getUnreservedBandwidthTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_UNRESERVED_BANDWITH);
         return unreservedBandwidthTLV;
     }
 
     public void setUnreservedBandwidthTLV(UnreservedBandwidthLinkAttribTLV unreservedBandwidthTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_UNRESERVED_BANDWITH);
         this.unreservedBandwidthTLV = unreservedBandwidthTLV;
     }
 
     public MetricLinkAttribTLV getMetricTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_METRIC);
         return metricTLV;
     }
 
     public void setMetricTLV(MetricLinkAttribTLV metricTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_METRIC);
         this.metricTLV = metricTLV;
     }
 
     public AdministrativeGroupLinkAttribTLV getAdministrativeGroupTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_ADMINISTRATIVE_GROUP);
         return administrativeGroupTLV;
     }
 
     public void setAdministrativeGroupTLV(AdministrativeGroupLinkAttribTLV administrativeGroupTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_ADMINISTRATIVE_GROUP);
         this.administrativeGroupTLV = administrativeGroupTLV;
     }
 
     public LinkProtectionTypeLinkAttribTLV getLinkProtectionTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_LINK_PROTECTION_TYPE);
         return linkProtectionTLV;
     }
 
     public void setLinkProtectionTLV(LinkProtectionTypeLinkAttribTLV linkProtectionTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_LINK_PROTECTION_TYPE);
         this.linkProtectionTLV = linkProtectionTLV;
     }
 
     public IPv4RouterIDLocalNodeLinkAttribTLV getIPv4RouterIDLocalNodeLATLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_IPv4_ROUTER_ID_OF_LOCAL_NODE);
         return IPv4RouterIDLocalNodeLATLV;
     }
 
     public void setIPv4RouterIDLocalNodeLATLV(IPv4RouterIDLocalNodeLinkAttribTLV iPv4RouterIDLocalNodeLATLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_IPv4_ROUTER_ID_OF_LOCAL_NODE);
         IPv4RouterIDLocalNodeLATLV = iPv4RouterIDLocalNodeLATLV;
     }
 
     public IPv4RouterIDRemoteNodeLinkAttribTLV getIPv4RouterIDRemoteNodeLATLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_IPv4_ROUTER_ID_OF_REMOTE_NODE);
         return IPv4RouterIDRemoteNodeLATLV;
     }
 
     public void setIPv4RouterIDRemoteNodeLATLV(IPv4RouterIDRemoteNodeLinkAttribTLV iPv4RouterIDRemoteNodeLATLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_IPv4_ROUTER_ID_OF_REMOTE_NODE);
         IPv4RouterIDRemoteNodeLATLV = iPv4RouterIDRemoteNodeLATLV;
     }
 
     public DefaultTEMetricLinkAttribTLV getTEMetricTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_TE_DEFAULT_METRIC);
         return TEMetricTLV;
     }
 
     public void setTEMetricTLV(DefaultTEMetricLinkAttribTLV tEMetricTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_TE_DEFAULT_METRIC);
         TEMetricTLV = tEMetricTLV;
     }
 
     public NodeFlagBitsNodeAttribTLV getNodeFlagBitsTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_NODE_FLAG_BITS);
         return nodeFlagBitsTLV;
     }
 
     public void setNodeFlagBitsTLV(NodeFlagBitsNodeAttribTLV nodeFlagBitsTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_NODE_FLAG_BITS);
         this.nodeFlagBitsTLV = nodeFlagBitsTLV;
     }
 
     public SharedRiskLinkGroupAttribTLV getSharedRiskLinkGroupATLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_SHARED_RISK_LINK_GROUP);
         return SharedRiskLinkGroupATLV;
     }
 
     public void setSharedRiskLinkGroupATLV(SharedRiskLinkGroupAttribTLV sharedRiskLinkGroupATLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_SHARED_RISK_LINK_GROUP);
         SharedRiskLinkGroupATLV = sharedRiskLinkGroupATLV;
     }
 
     public TransceiverClassAndAppAttribTLV getTransceiverClassAndAppATLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_TRANSCEIVER_CLASS_AND_APPLICATION);
         return TransceiverClassAndAppATLV;
     }
 
     public void setTransceiverClassAndAppATLV(TransceiverClassAndAppAttribTLV transceiverClassAndAppATLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_TRANSCEIVER_CLASS_AND_APPLICATION);
         TransceiverClassAndAppATLV = transceiverClassAndAppATLV;
     }
 
     public MF_OTPAttribTLV getMF_OTP_ATLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MF_OTP);
         return MF_OTP_ATLV;
     }
 
     public void setMF_OTP_ATLV(MF_OTPAttribTLV mF_OTP_ATLV) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MF_OTP);
         MF_OTP_ATLV = mF_OTP_ATLV;
     }
 
     public SidLabelNodeAttribTLV getSidLabelTLV() {
+        // also carried as a sub-TLV of the SR Capabilities
+        decodeSkipped(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_SR_CAPABILITIES);
+        decodeSkipped(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_SID_LABEL);
         return sidLabelTLV;
     }
 
     public void setSidLabelTLV(SidLabelNodeAttribTLV sidLabelTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_SID_LABEL);
         this.sidLabelTLV = sidLabelTLV;
     }
 
     public NodeNameNodeAttribTLV getNodeNameTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_NODE_NAME);
         return nodeNameTLV;
     }
 
     public void setNodeNameTLV(NodeNameNodeAttribTLV nodeNameTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_NODE_NAME);
         this.nodeNameTLV = nodeNameTLV;
     }
 
     public IS_IS_AreaIdentifierNodeAttribTLV getAreaIDTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_IS_IS_AREA_ID);
         return areaIDTLV;
     }
 
     public void setAreaIDTLV(IS_IS_AreaIdentifierNodeAttribTLV areaIDTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_IS_IS_AREA_ID);
         this.areaIDTLV = areaIDTLV;
     }
 
     public PrefixSIDPrefixAttribTLV getPrefixSIDTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_PREFIX_SID);
         return prefixSIDTLV;
     }
 
     public void setPrefixSIDTLV(PrefixSIDPrefixAttribTLV prefixSIDTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_PREFIX_SID);
         this.prefixSIDTLV = prefixSIDTLV;
     }
 
     public SourceRouterIdentifierPrefixAttribTLV getSourceRouterIDTLV() {
+        decodeSkipped(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_SOURCE_ROUTER_ID);
         return sourceRouterIDTLV;
     }
 
     public void setSourceRouterIDTLV(SourceRouterIdentifierPrefixAttribTLV sourceRouterIDTLV) {
+        setDecoded(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_SOURCE_ROUTER_ID);
         this.sourceRouterIDTLV = sourceRouterIDTLV;
     }
 
     public AvailableLabels getAvailableLabels() {
+        decodeSkipped(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_AVAILABLELABELS);
         return availableLabels;
     }
 
     public void setAvailableLabels(AvailableLabels availableLabels) {
+        setDecoded(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_AVAILABLELABELS);
         this.availableLabels = availableLabels;
     }
 
     @Override
     public String toString() {
+        decodeSkipped();
         return "LinkStateAttribute [" +
             "\n  prefixSID=" + prefixSIDTLV + 
             "\n  sidLabel=" + (sidLabelTLV != null ? sidLabelTLV.getSid() : "null") + 
@@ -646,6 +838,7 @@ public class LinkStateAttribute extends PathAttribute {
 
     @Override
     public int hashCode() {
+        decodeSkipped();
         return Objects.hash(super.hashCode(), 
             administrativeGroupTLV, maximumLinkBandwidthTLV, 
             maxReservableBandwidthTLV, unreservedBandwidthTLV, 
@@ -667,6 +860,8 @@ public class LinkStateAttribute extends PathAttribute {
         }
         
         LinkStateAttribute other = (LinkStateAttribute) obj;
+        decodeSkipped();
+        other.decodeSkipped();
         
         log.info("======= COMPARACIÓN DE OBJETOS BGP-LS =======");
         // Logs de depuración
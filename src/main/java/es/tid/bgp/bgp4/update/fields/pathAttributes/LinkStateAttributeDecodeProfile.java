@@ -0,0 +1,136 @@
+package es.tid.bgp.bgp4.update.fields.pathAttributes;
+
+import java.util.BitSet;
+
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.LinkStateAttributeTLVTypes;
+
+/**
+ * Set of TLV types of the BGP-LS attribute that are decoded when the
+ * attribute is received.
+ *
+ * The TLVs not included in the profile are skipped by their length, and
+ * decoded from the bytes of the attribute the first time they are read (see
+ * {@link LinkStateAttribute#getDecodeProfile()}). A consumer that only reads a
+ * few TLVs pays only for the TLVs it reads.
+ *
+ * Profiles are immutable and can be shared by any number of attributes.
+ *
+ * The profile is given to the decoder of the messages of a session, so
+ * that other users of the library are not affected:
+ *
+ * <pre>
+ * BGP4FrameDecoder decoder = new BGP4FrameDecoder(rib::process);
+ * decoder.setLinkStateDecodeProfile(LinkStateAttributeDecodeProfile.BANDWIDTH);
+ * </pre>
+ */
+public final class LinkStateAttributeDecodeProfile {
+
+	/**
+	 * Decodes every TLV, as LinkStateAttribute always did
+	 */
+	public static final LinkStateAttributeDecodeProfile ALL = new LinkStateAttributeDecodeProfile(null);
+
+	/**
+	 * Decodes no TLV, they are all decoded on demand
+	 */
+	public static final LinkStateAttributeDecodeProfile NONE = of();
+
+	/**
+	 * Maximum, maximum reservable and unreserved bandwidth, and TE default metric
+	 */
+	public static final LinkStateAttributeDecodeProfile BANDWIDTH = of(
+			LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MAXIMUM_BANDWITH,
+			LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_MAX_RESERVABLE_BANDWITH,
+			LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_UNRESERVED_BANDWITH,
+			LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_TE_DEFAULT_METRIC);
+
+	/**
+	 * Prefix-SID and SR Capabilities
+	 */
+	public static final LinkStateAttributeDecodeProfile SEGMENT_ROUTING = of(
+			LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_PREFIX_SID,
+			LinkStateAttributeTLVTypes.NODE_ATTRIBUTE_TLV_TYPE_SR_CAPABILITIES);
+
+	/**
+	 * TLV types decoded, null if all of them are decoded
+	 */
+	private final BitSet types;
+
+	private LinkStateAttributeDecodeProfile(BitSet types) {
+		this.types = types;
+	}
+
+	/**
+	 * @param types TLV types to decode (see {@link LinkStateAttributeTLVTypes})
+	 * @return profile that decodes only the given TLV types
+	 */
+	public static LinkStateAttributeDecodeProfile of(int... types) {
+		BitSet set = new BitSet();
+		for (int type : types) {
+			set.set(type & 0xFFFF);
+		}
+		return new LinkStateAttributeDecodeProfile(set);
+	}
+
+	/**
+	 * @param type TLV type
+	 * @return true if the TLVs of this type are decoded
+	 */
+	public boolean decodes(int type) {
+		return types == null || types.get(type & 0xFFFF);
+	}
+
+	/**
+	 * @return true if every TLV is decoded
+	 */
+	public boolean isAll() {
+		return types == null;
+	}
+
+	/**
+	 * @param type TLV type
+	 * @return profile that also decodes the TLVs of this type
+	 */
+	public LinkStateAttributeDecodeProfile with(int type) {
+		if (decodes(type)) {
+			return this;
+		}
+		BitSet set = (BitSet) types.clone();
+		set.set(type & 0xFFFF);
+		return new LinkStateAttributeDecodeProfile(set);
+	}
+
+	/**
+	 * @param other another profile
+	 * @return profile that decodes the TLVs of both profiles
+	 */
+	public LinkStateAttributeDecodeProfile with(LinkStateAttributeDecodeProfile other) {
+		if (isAll() || other.isAll()) {
+			return ALL;
+		}
+		BitSet set = (BitSet) types.clone();
+		set.or(other.types);
+		return new LinkStateAttributeDecodeProfile(set);
+	}
+
+	@Override
+	public int hashCode() {
+		return types == null ? 0 : types.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof LinkStateAttributeDecodeProfile))
+			return false;
+		LinkStateAttributeDecodeProfile other = (LinkStateAttributeDecodeProfile) obj;
+		return types == null ? other.types == null : types.equals(other.types);
+	}
+
+	@Override
+	public String toString() {
+		return types == null ? "ALL" : types.toString();
+	}
+
+}
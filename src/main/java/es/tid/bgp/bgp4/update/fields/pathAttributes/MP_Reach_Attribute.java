@@ -4,6 +4,7 @@ import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 
 import es.tid.bgp.bgp4.update.fields.PathAttribute;
 
@@ -162,7 +163,7 @@ public abstract class MP_Reach_Attribute extends PathAttribute{
     
     public MP_Reach_Attribute(byte [] bytes, int offset){
     	super(bytes,offset);
-    	int offset2=this.mandatoryLength;
+    	int offset2=bytesOffset+this.mandatoryLength;
 		this.addressFamilyIdentifier=((this.bytes[offset2]&0xFF)<<8) | (this.bytes[offset2+1]&0xFF);
 		this.subsequentAddressFamilyIdentifier = (this.bytes[offset2+2]&0xFF);
 		this.nextHopLength= (this.bytes[offset2+3]&0xFF);
@@ -176,10 +177,15 @@ public abstract class MP_Reach_Attribute extends PathAttribute{
 				// TODO Auto-generated catch block
 				e.printStackTrace();
 			}
+		} else if (this.nextHopLength==16 || this.nextHopLength==32){
+			//Global address, optionally followed by the link-local one (RFC 2545)
+			try {
+				this.nextHop=Inet6Address.getByAddress(null, Arrays.copyOf(bytos, 16), null);
+			} catch (UnknownHostException e) {
+				e.printStackTrace();
+			}
 		}
 		
-		//FIXME: ADD IPv6
-		
     	
     }
 	
@@ -192,9 +198,9 @@ public abstract class MP_Reach_Attribute extends PathAttribute{
     	this.bytes[offset+2]=(byte)(this.subsequentAddressFamilyIdentifier&0xFF);
     	this.bytes[offset+3]=(byte)this.getNextHopLength();
     	offset=offset+4;
-    	//FIXME: Complete IPv6
-    	if (this.nextHopLength==4){
-    		System.arraycopy(this.nextHop.getAddress(), 0, this.bytes, offset, 4);
+    	if (this.nextHop!=null){
+    		byte[] address=this.nextHop.getAddress();
+    		System.arraycopy(address, 0, this.bytes, offset, Math.min(address.length, this.nextHopLength));
     	}
     	offset=offset+this.getNextHopLength();
     	this.bytes[offset]=0;
@@ -249,7 +255,7 @@ public abstract class MP_Reach_Attribute extends PathAttribute{
 		if (nextHop instanceof Inet4Address){
     		nextHopLength=4;
     	}else if (nextHop instanceof Inet6Address){
-    		nextHopLength=8;
+    		nextHopLength=16;
     	}else {
     		nextHopLength=4;
     	}
@@ -63,8 +63,6 @@ import es.tid.bgp.bgp4.update.fields.PathAttribute;
 
 
  * @author mcs
- *
- * TODO: It is assumed "Withdraw routes" is empty (length=0). To be implemented.
  */
 public abstract class MP_Unreach_Attribute extends PathAttribute{
 
@@ -81,7 +79,7 @@ public abstract class MP_Unreach_Attribute extends PathAttribute{
 
 	public MP_Unreach_Attribute(byte[] bytes, int offset){
 		super(bytes,offset);
-		int newOffset = this.getMandatoryLength();
+		int newOffset = bytesOffset + this.getMandatoryLength();
 		this.addressFamilyIdentifier = ((this.bytes[newOffset]&0xFF)<<8) | (this.bytes[newOffset+1]&0xFF);
 		this.subsequentAddressFamilyIdentifier = this.bytes[newOffset+2]&0xFF;
 	}
@@ -1,5 +1,9 @@
 package es.tid.bgp.bgp4.update.fields.pathAttributes;
 
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
 import es.tid.bgp.bgp4.update.fields.PathAttribute;
 
 /**
@@ -17,29 +21,57 @@ import es.tid.bgp.bgp4.update.fields.PathAttribute;
  */
 public class Next_Hop_Attribute extends PathAttribute{
 	
-	
+	private Inet4Address nextHop;
 
-	@Override
-	public void encode() {
-		// TODO Auto-generated method stub
-		
-	}
-	
 	public Next_Hop_Attribute(){		
 		super();
-		//Poner los flags. 
 		this.typeCode = PathAttributesTypeCode.PATH_ATTRIBUTE_TYPECODE_NEXTHOP;
-		
-
+		this.optionalBit = false;
+		this.transitiveBit = true;
 	}
+
 	public Next_Hop_Attribute(byte []bytes, int offset){
 		super(bytes, offset);
 		decode();		
 	}
-	
+
+	@Override
+	public void encode() {
+		pathAttributeLength = 4;
+		this.setPathAttributeLength(pathAttributeLength);
+		this.bytes=new byte[this.length];
+		this.bytesOffset=0;
+		encodeHeader();
+		if (nextHop!=null){
+			System.arraycopy(nextHop.getAddress(), 0, this.bytes, mandatoryLength, 4);
+		}
+	}
 	
 	private void decode(){
-		
+		if (pathAttributeLength!=4){
+			log.warn("NEXT_HOP attribute of length "+pathAttributeLength);
+			return;
+		}
+		byte[] address=new byte[4];
+		System.arraycopy(this.bytes, bytesOffset+mandatoryLength, address, 0, 4);
+		try {
+			nextHop=(Inet4Address)InetAddress.getByAddress(address);
+		} catch (UnknownHostException e) {
+			// not thrown for 4 octets
+		}
+	}
+
+	public Inet4Address getNextHop() {
+		return nextHop;
+	}
+
+	public void setNextHop(Inet4Address nextHop) {
+		this.nextHop = nextHop;
+	}
+
+	@Override
+	public String toString() {
+		return "NEXT_HOP [" + (nextHop == null ? "null" : nextHop.getHostAddress()) + "]";
 	}
 
 }
@@ -3,5 +3,7 @@ package es.tid.bgp.bgp4.update.fields.pathAttributes;
 //http://www.iana.org/assignments/safi-namespace/safi-namespace.xml
 
 public class SAFICodes {
+	public static final int SAFI_UNICAST=1;
+	public static final int SAFI_MULTICAST=2;
 	public static final int SAFI_BGP_LS=71;
 }
@@ -2,6 +2,7 @@ package es.tid.bgp.bgp4.update.tlv;
 
 import java.util.Arrays;
 
+import es.tid.protocol.commons.ByteHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +40,13 @@ public abstract class BGP4TLVFormat {
 	protected int TotalTLVLength;
 	
 	protected byte[] tlv_bytes;
+
+	/**
+	 * Position of the TLV inside tlv_bytes. A decoded TLV keeps a reference to
+	 * the buffer of the element that contains it instead of copying its bytes;
+	 * it is 0 once the TLV is encoded or detached.
+	 */
+	protected int tlv_offset;
 	
 	protected static final Logger log = LoggerFactory.getLogger("BGP4Parser");
 	public BGP4TLVFormat(){
@@ -48,12 +56,12 @@ public abstract class BGP4TLVFormat {
 		this.TLVType=((  ((int)bytes[offset]&0xFF)   <<8)& 0xFF00) |  ((int)bytes[offset+1] & 0xFF);
 		this.TLVValueLength=((((int)bytes[offset+2]&0xFF)<<8)& 0xFF00) |  ((int)bytes[offset+3] & 0xFF);
 		this.TotalTLVLength=TLVValueLength+4;
-		this.tlv_bytes=new byte[TotalTLVLength];
-		System.arraycopy(bytes, offset, tlv_bytes, 0, TotalTLVLength);
-
+		this.tlv_bytes=bytes;
+		this.tlv_offset=offset;
 	}
 	
 	protected void encodeHeader(){
+		this.tlv_offset=0;
 		this.tlv_bytes[0]=(byte)(TLVType>>>8 & 0xFF);
 		this.tlv_bytes[1]=(byte)(TLVType & 0xFF);
 		this.tlv_bytes[2]=(byte)(TLVValueLength>>>8 & 0xFF);
@@ -96,13 +104,31 @@ public abstract class BGP4TLVFormat {
 	}
 
 
+	/**
+	 * Get the bytes of the TLV. If the TLV is a view over the buffer it was
+	 * decoded from, it is detached first.
+	 * @return the bytes of the TLV, starting at position 0
+	 */
 	public byte[] getTlv_bytes() {
+		detach();
 		return tlv_bytes;
 	}
 
 
 	protected void setTlv_bytes(byte[] tlv_bytes) {
 		this.tlv_bytes = tlv_bytes;
+		this.tlv_offset = 0;
+	}
+
+	/**
+	 * Copy the bytes of the TLV out of the buffer it was decoded from.
+	 * Nothing is done if the TLV already owns its bytes.
+	 */
+	public void detach() {
+		if (tlv_bytes != null && (tlv_offset != 0 || tlv_bytes.length != TotalTLVLength)) {
+			tlv_bytes = ByteHandler.copyOfRange(tlv_bytes, tlv_offset, TotalTLVLength);
+			tlv_offset = 0;
+		}
 	}
 
 
@@ -126,7 +152,7 @@ public abstract class BGP4TLVFormat {
 		result = prime * result + TLVType;
 		result = prime * result + TLVValueLength;
 		result = prime * result + TotalTLVLength;
-		result = prime * result + Arrays.hashCode(tlv_bytes);
+		result = prime * result + ByteHandler.hashCode(tlv_bytes, tlv_offset, TotalTLVLength);
 		return result;
 	}
 
@@ -145,7 +171,10 @@ public abstract class BGP4TLVFormat {
 			return false;
 		if (TotalTLVLength != other.TotalTLVLength)
 			return false;
-		if (!Arrays.equals(tlv_bytes, other.tlv_bytes))
+		if (tlv_bytes == null || other.tlv_bytes == null) {
+			if (tlv_bytes != other.tlv_bytes)
+				return false;
+		} else if (!Arrays.equals(tlv_bytes, tlv_offset, tlv_offset + TotalTLVLength, other.tlv_bytes, other.tlv_offset, other.tlv_offset + other.TotalTLVLength))
 			return false;
 		return true;
 	}
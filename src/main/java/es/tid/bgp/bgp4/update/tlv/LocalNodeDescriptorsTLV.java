@@ -114,9 +114,9 @@ public class LocalNodeDescriptorsTLV extends BGP4TLVFormat{
     
     public void decode(){
         boolean fin=false;
-        int offset=4;
+        int offset=tlv_offset+4;
         
-        int limit = this.getTLVValueLength() + 4;
+        int limit = tlv_offset + this.getTLVValueLength() + 4;
 
         while (!fin) {
             int subtlvType=BGP4SubTLV.getType(tlv_bytes, offset);
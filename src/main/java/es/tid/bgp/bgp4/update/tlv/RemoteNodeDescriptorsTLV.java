@@ -107,7 +107,7 @@ private IGPRouterIDNodeDescriptorSubTLV IGPRouterID; //515
 	public void decode(){
 		//Decoding RemoteNodeDescriptorsTLV
 		boolean fin=false;
-		int offset=4;
+		int offset=tlv_offset+4;
 		while (!fin) {
 			int subtlvType=BGP4SubTLV.getType(tlv_bytes, offset);
 			int subtlvLength=BGP4SubTLV.getTotalSubTLVLength(tlv_bytes, offset);
@@ -134,7 +134,7 @@ private IGPRouterIDNodeDescriptorSubTLV IGPRouterID; //515
 			}
 			
 			offset=offset+subtlvLength;
-			if (offset>=this.TLVValueLength){
+			if (offset-tlv_offset>=this.TLVValueLength){
 				fin=true;
 			}
 		}
@@ -51,7 +51,7 @@ public class AdministrativeGroupLinkAttribTLV extends BGP4TLVFormat {
 	}
 	
 	protected void decode(){
-		int offset=4;		
+		int offset=tlv_offset+4;		
 		this.administrativeGroup= ((this.tlv_bytes[offset]&0xFF)<<24) | ((this.tlv_bytes[offset+1]&0xFF)<<16) | ((this.tlv_bytes[offset+2]&0xFF)<<8) |  (this.tlv_bytes[offset+3]&0xFF) ;
 	}
 
@@ -66,11 +66,11 @@ public class DefaultTEMetricLinkAttribTLV extends BGP4TLVFormat {
 	protected void decode(){		//idem
 		linkMetric=0;
 			/**for (int k = 0; k < 4; k++) {
-				linkMetric = (linkMetric << 8) | ((long)tlv_bytes[k+4] & (long)0xff);
+				linkMetric = (linkMetric << 8) | ((long)tlv_bytes[tlv_offset+k+4] & (long)0xff);
 			}*/
 			
 			for (int k = 0; k < 3; k++) {
-				linkMetric = (linkMetric << 8) | ((long)tlv_bytes[k+4] & (long)0xff);
+				linkMetric = (linkMetric << 8) | ((long)tlv_bytes[tlv_offset+k+4] & (long)0xff);
 			}	
 	}
 
@@ -30,7 +30,7 @@ public class IGPFlagBitsPrefixAttribTLV extends BGP4TLVFormat{
 	}
 	
 	public void decode(){
-		int offset =4;
+		int offset =tlv_offset+4;
 		flags = tlv_bytes[offset];
 		if ((flags & 0x80) == 0x80){
 			this.setUp_dw_bit(true);
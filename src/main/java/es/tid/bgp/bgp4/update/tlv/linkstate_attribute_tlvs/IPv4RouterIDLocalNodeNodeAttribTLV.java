@@ -41,7 +41,7 @@ public class IPv4RouterIDLocalNodeNodeAttribTLV extends BGP4TLVFormat{
 	
 	public void decode(){
 		byte[] ip=new byte[4]; 
-		System.arraycopy(this.tlv_bytes,4, ip, 0, 4);
+		System.arraycopy(this.tlv_bytes,tlv_offset+4, ip, 0, 4);
 		try {
 			ipv4Address=(Inet4Address)Inet4Address.getByAddress(ip);
 		} catch (UnknownHostException e) {
@@ -55,7 +55,7 @@ public class IPv4RouterIDRemoteNodeLinkAttribTLV extends BGP4TLVFormat{
 			//FIXME: esta mal formado Que hacer
 		}
 		byte[] ip=new byte[4]; 
-		System.arraycopy(this.tlv_bytes,4, ip, 0, 4);
+		System.arraycopy(this.tlv_bytes,tlv_offset+4, ip, 0, 4);
 		try {
 			ipv4Address=(Inet4Address)Inet4Address.getByAddress(ip);
 		} catch (UnknownHostException e) {
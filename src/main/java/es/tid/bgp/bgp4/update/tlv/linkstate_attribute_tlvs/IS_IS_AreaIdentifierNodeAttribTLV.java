@@ -41,7 +41,7 @@ public class IS_IS_AreaIdentifierNodeAttribTLV extends BGP4TLVFormat {
         int len = this.getTLVValueLength();
         if (len > 0) {
             this.areaID = new byte[len];
-            System.arraycopy(this.tlv_bytes, 4, this.areaID, 0, len);
+            System.arraycopy(this.tlv_bytes, tlv_offset+4, this.areaID, 0, len);
         }
     }
 
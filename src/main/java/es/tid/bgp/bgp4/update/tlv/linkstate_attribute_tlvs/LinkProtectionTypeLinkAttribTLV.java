@@ -72,7 +72,7 @@ public class LinkProtectionTypeLinkAttribTLV extends BGP4TLVFormat {
 	}
 	
 	protected void decode(){
-		int offset = 4;
+		int offset = tlv_offset+4;
 		this.setProtection_type(this.tlv_bytes[offset]&0xFF);		
 	}
 
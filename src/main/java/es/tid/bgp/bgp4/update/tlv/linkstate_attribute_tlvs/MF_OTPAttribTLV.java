@@ -51,7 +51,7 @@ public class MF_OTPAttribTLV extends BGP4TLVFormat{
 	
 	protected void decode(){
 		
-		int offset = 4;
+		int offset = tlv_offset+4;
 		
 		MF_OTP = new MF_OTPAttribSubTLV(this.tlv_bytes,offset);		
 		
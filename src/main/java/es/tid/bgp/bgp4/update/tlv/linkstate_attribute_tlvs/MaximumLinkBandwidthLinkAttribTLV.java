@@ -38,7 +38,7 @@ public float maximumBandwidth;
 	protected void decode(){
 		int bwi = 0;		
 		for (int k = 0; k < 4; k++) {
-			bwi = (bwi << 8) | (this.tlv_bytes[k+4] & 0xff);
+			bwi = (bwi << 8) | (this.tlv_bytes[tlv_offset+k+4] & 0xff);
 		}
 		this.maximumBandwidth=Float.intBitsToFloat(bwi);
 	}
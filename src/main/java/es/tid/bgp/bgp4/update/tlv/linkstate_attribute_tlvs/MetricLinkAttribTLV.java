@@ -77,16 +77,16 @@ public class MetricLinkAttribTLV extends BGP4TLVFormat{
 			log.debug("No metric tlv defined for this tlv length");
 			break;
 		}
-		int offset = 4;
+		int offset = tlv_offset+4;
 		switch(metric_type){
 		case METRIC_TYPE_OSPF:
-			setMetric(ByteHandler.decode2bytesInteger(this.getTlv_bytes(), offset));
+			setMetric(ByteHandler.decode2bytesInteger(this.tlv_bytes, offset));
 			break;
 		case METRIC_TYPE_IS_IS_SHORT:
-			setMetric(ByteHandler.decode1byteInteger(this.getTlv_bytes(), offset));	
+			setMetric(ByteHandler.decode1byteInteger(this.tlv_bytes, offset));	
 			break;
 		case METRIC_TYPE_IS_IS_LONG:
-			setMetric(ByteHandler.decode3bytesInteger(this.getTlv_bytes(), offset));	
+			setMetric(ByteHandler.decode3bytesInteger(this.tlv_bytes, offset));	
 			break;
 		default:
 			log.debug("This metric type does not exist");
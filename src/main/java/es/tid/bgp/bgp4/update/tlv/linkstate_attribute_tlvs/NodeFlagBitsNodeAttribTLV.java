@@ -34,7 +34,7 @@ public class NodeFlagBitsNodeAttribTLV extends BGP4TLVFormat{
 	}
 	
 	public void decode(){
-		int offset =4;
+		int offset =tlv_offset+4;
 		int flags = tlv_bytes[offset]&0xFF;
 		if ((flags & 0x80) == 0x80){
 			this.setOverload_bit(true);
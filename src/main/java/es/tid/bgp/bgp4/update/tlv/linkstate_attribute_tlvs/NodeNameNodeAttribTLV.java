@@ -32,7 +32,7 @@ public class NodeNameNodeAttribTLV extends BGP4TLVFormat {
         int length = this.getTLVValueLength();
         this.name = new byte[length];
         try {
-            System.arraycopy(this.tlv_bytes, 4, this.name, 0, length);
+            System.arraycopy(this.tlv_bytes, tlv_offset+4, this.name, 0, length);
         } catch (Exception e) {
             
         }
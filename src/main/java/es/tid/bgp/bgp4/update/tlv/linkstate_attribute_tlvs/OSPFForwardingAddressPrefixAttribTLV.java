@@ -38,7 +38,7 @@ public class OSPFForwardingAddressPrefixAttribTLV extends BGP4TLVFormat {
 		switch(len){
 		case 4:
 		byte[] ip=new byte[4]; 
-		System.arraycopy(this.tlv_bytes,4, ip, 0, 4);
+		System.arraycopy(this.tlv_bytes,tlv_offset+4, ip, 0, 4);
 			try {
 				OSPFAddress=(Inet4Address)Inet4Address.getByAddress(ip);
 			} catch (UnknownHostException e) {
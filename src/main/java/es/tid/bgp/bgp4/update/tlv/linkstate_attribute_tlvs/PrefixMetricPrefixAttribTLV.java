@@ -34,8 +34,8 @@ public class PrefixMetricPrefixAttribTLV extends BGP4TLVFormat {
 	}
 	
 	public void decode() {
-		int offset=4;
-		prefix_metric = ByteHandler.decode4bytesLong(this.getTlv_bytes(), offset);
+		int offset=tlv_offset+4;
+		prefix_metric = ByteHandler.decode4bytesLong(this.tlv_bytes, offset);
 		
 	}
 
@@ -63,20 +63,20 @@ public class PrefixSIDPrefixAttribTLV extends BGP4TLVFormat {
 
         
         StringBuilder sb = new StringBuilder();
-        for (byte b : this.tlv_bytes) {
-            sb.append(String.format("%02x:", b));
+        for (int i = tlv_offset; i < tlv_offset + this.getTotalTLVLength(); i++) {
+            sb.append(String.format("%02x:", this.tlv_bytes[i]));
         }
         log.info("BYTES RAW: " + sb.toString());
       
-        this.flags = this.tlv_bytes[4] & 0xFF;
-        this.algorithm = this.tlv_bytes[5] & 0xFF;
+        this.flags = this.tlv_bytes[tlv_offset + 4] & 0xFF;
+        this.algorithm = this.tlv_bytes[tlv_offset + 5] & 0xFF;
 
         int valueLen = this.getTLVValueLength();
         boolean isLabel = ((flags & 0x04) != 0) || ((flags & 0x08) != 0);
 
         if (!isLabel) {
             // Leemos los 4 bytes del final
-            int lastPos = 4 + valueLen - 1; 
+            int lastPos = tlv_offset + 4 + valueLen - 1; 
             if (tlv_bytes.length > lastPos) {
                 this.sidIndex = ((long)(tlv_bytes[lastPos - 3] & 0xFF) << 24) |
                                 ((long)(tlv_bytes[lastPos - 2] & 0xFF) << 16) |
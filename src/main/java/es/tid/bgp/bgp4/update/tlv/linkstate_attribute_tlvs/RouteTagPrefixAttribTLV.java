@@ -29,8 +29,8 @@ public class RouteTagPrefixAttribTLV extends BGP4TLVFormat {
 		this.tlv_bytes=new byte[this.getTotalTLVLength()];
 		encodeHeader();
 		int offset = 4;	
-		for (int i=0;i<number;++i) {
-			System.arraycopy(routeTags.get(i).getAddress(), 0, this.getTlv_bytes(), offset, 4);
+		for (Inet4Address routeTag : routeTags) {
+			System.arraycopy(routeTag.getAddress(), 0, this.getTlv_bytes(), offset, 4);
 			offset+=4;
 		}
 
@@ -40,7 +40,7 @@ public class RouteTagPrefixAttribTLV extends BGP4TLVFormat {
 		
 		int length = this.getTLVValueLength();
 		int number = length/4;
-		int offset = 4;
+		int offset = tlv_offset+4;
 	    byte [] address=new byte[4]; 
 	    Inet4Address igp_tag = null;
 		for (int i=0; i<number; i++){
@@ -67,8 +67,10 @@ public class RouteTagPrefixAttribTLV extends BGP4TLVFormat {
 
 	public String toString(){
 		String ret="";
-		for (int i=0;i<routeTags.size();++i) {
-			ret="ROUTE TAG ["+i+"] IDENTIFIER: "+routeTags.get(i).toString();
+		int i=0;
+		for (Inet4Address routeTag : routeTags) {
+			ret="ROUTE TAG ["+i+"] IDENTIFIER: "+routeTag.toString();
+			++i;
 		} 
 		return ret;
 	}
@@ -80,7 +80,7 @@ public class SRCapabilitiesTLV extends BGP4TLVFormat {
     }
 
     protected void decode() {
-        int offset = 4;
+        int offset = tlv_offset+4;
         int valueLength = this.getTLVValueLength();
 
         log.debug("SRCapabilitiesTLV.decode() - INICIO. ValueLength: {}", valueLength);
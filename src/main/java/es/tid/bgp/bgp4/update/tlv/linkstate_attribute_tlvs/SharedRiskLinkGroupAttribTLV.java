@@ -75,7 +75,6 @@ RFC 7752         Link-State Info Distribution Using BGP       March 2016
 	public void encode() {
 		
 		int offset = 4;
-		int i = 0 ;
 		
 
 		this.setTLVValueLength(srlg_values.size()*4);
@@ -83,11 +82,11 @@ RFC 7752         Link-State Info Distribution Using BGP       March 2016
 		encodeHeader();
 
 		
-		for (i=0 ; i<srlg_values.size() ; i++){
-			tlv_bytes[offset]=(byte)((srlg_values.get(i)>>24) & 0xFF);
-	    	tlv_bytes[offset+1]=(byte)((srlg_values.get(i)>>16) & 0xFF);
-			tlv_bytes[offset+2]=(byte)((srlg_values.get(i)>>8) & 0xFF);
-			tlv_bytes[offset+3]=(byte)(srlg_values.get(i) & 0xFF);	
+		for (long srlg_value : srlg_values){
+			tlv_bytes[offset]=(byte)((srlg_value>>24) & 0xFF);
+	    	tlv_bytes[offset+1]=(byte)((srlg_value>>16) & 0xFF);
+			tlv_bytes[offset+2]=(byte)((srlg_value>>8) & 0xFF);
+			tlv_bytes[offset+3]=(byte)(srlg_value & 0xFF);	
 			offset = offset +4;
 		}
 		
@@ -95,7 +94,7 @@ RFC 7752         Link-State Info Distribution Using BGP       March 2016
 	
 	protected void decode(){
 		
-		int offset = 4;
+		int offset = tlv_offset+4;
 		int i;
 				
 		int srlg_length = this.getTLVValueLength()/4;
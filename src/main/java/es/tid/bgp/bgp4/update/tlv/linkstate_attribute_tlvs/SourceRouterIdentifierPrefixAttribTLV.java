@@ -40,7 +40,7 @@ public class SourceRouterIdentifierPrefixAttribTLV extends BGP4TLVFormat {
     protected void decode() {
         if (this.tlv_bytes == null) return;
 
-        log.info("SOURCE ROUTER ID BYTES RAW: " + es.tid.protocol.commons.ByteHandler.ByteMACToString(this.tlv_bytes));
+        log.info("SOURCE ROUTER ID BYTES RAW: " + es.tid.protocol.commons.ByteHandler.ByteMACToString(es.tid.protocol.commons.ByteHandler.copyOfRange(this.tlv_bytes, tlv_offset, this.getTotalTLVLength())));
 
         int valueLen = this.getTLVValueLength();
         byte[] ipBytes;
@@ -49,7 +49,7 @@ public class SourceRouterIdentifierPrefixAttribTLV extends BGP4TLVFormat {
             // Caso 1: Longitud exacta IPv4 
             if (valueLen == 4) {
                 ipBytes = new byte[4];
-                System.arraycopy(this.tlv_bytes, 4, ipBytes, 0, 4);
+                System.arraycopy(this.tlv_bytes, tlv_offset + 4, ipBytes, 0, 4);
                 this.sourceRouterID = InetAddress.getByAddress(ipBytes);
             } 
             // Caso 2: Longitud con Padding 
@@ -57,7 +57,7 @@ public class SourceRouterIdentifierPrefixAttribTLV extends BGP4TLVFormat {
                 ipBytes = new byte[4];
                 boolean found = false;
                 // Escaneamos buscando los primeros 4 bytes que NO sean 0.0.0.0
-                for (int i = 4; i <= (this.tlv_bytes.length - 4); i++) {
+                for (int i = tlv_offset + 4; i <= (tlv_offset + valueLen); i++) {
                     if (tlv_bytes[i] != 0 || tlv_bytes[i+1] != 0 || tlv_bytes[i+2] != 0 || tlv_bytes[i+3] != 0) {
                         System.arraycopy(this.tlv_bytes, i, ipBytes, 0, 4);
                         this.sourceRouterID = InetAddress.getByAddress(ipBytes);
@@ -71,7 +71,7 @@ public class SourceRouterIdentifierPrefixAttribTLV extends BGP4TLVFormat {
             else if (valueLen >= 16) {
                 ipBytes = new byte[16];
                 // Copiamos los últimos 16 por si hay padding inicial
-                int lastPos = 4 + valueLen - 1;
+                int lastPos = tlv_offset + 4 + valueLen - 1;
                 System.arraycopy(this.tlv_bytes, lastPos - 15, ipBytes, 0, 16);
                 this.sourceRouterID = InetAddress.getByAddress(ipBytes);
             }
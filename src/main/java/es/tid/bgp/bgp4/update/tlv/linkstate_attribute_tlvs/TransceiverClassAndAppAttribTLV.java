@@ -42,7 +42,7 @@ public class TransceiverClassAndAppAttribTLV extends BGP4TLVFormat{
 	}
 	
 	protected void decode(){
-		int offset = 4;
+		int offset = tlv_offset+4;
 		
 		log.info("******************* Decodificando TCAA *****************");
 			
@@ -54,7 +54,7 @@ public float[] unreservedBandwidth;
 		//Decoding UnreservedBandwidthTLV
 
 		int bwi = 0;
-		int offset=4;
+		int offset=tlv_offset+4;
 		for (int i=0;i<unreservedBandwidth.length;++i){
 			bwi=0;
 			for (int k = 0; k < 4; k++) {
@@ -22,7 +22,7 @@ public class AreaIDNodeDescriptorSubTLV extends NodeDescriptorsSubTLV{
 	private void decode() {
 		//Decoding AREA ID	
 		byte[] ip=new byte[4]; 
-		System.arraycopy(this.subtlv_bytes,4, ip, 0, 4);
+		System.arraycopy(this.subtlv_bytes,subtlv_offset+4, ip, 0, 4);
 		try {
 			AREA_ID=(Inet4Address)Inet4Address.getByAddress(ip);
 		} catch (UnknownHostException e) {
@@ -34,7 +34,7 @@ public class AutonomousSystemNodeDescriptorSubTLV extends NodeDescriptorsSubTLV{
 	public void decode(){
 		//Decoding AutonomousSystemSubTLV		
 		byte[] ip=new byte[4]; 
-		System.arraycopy(this.subtlv_bytes,4, ip, 0, 4);
+		System.arraycopy(this.subtlv_bytes,subtlv_offset+4, ip, 0, 4);
 		try {
 			AS_ID=(Inet4Address)Inet4Address.getByAddress(ip);
 		} catch (UnknownHostException e) {
@@ -1,5 +1,6 @@
 package es.tid.bgp.bgp4.update.tlv.node_link_prefix_descriptor_subTLVs;
 
+import es.tid.protocol.commons.ByteHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +45,13 @@ public abstract class BGP4SubTLV {
 	 * Bytes of the SubTLV
 	 */
 	protected byte[] subtlv_bytes;
+
+	/**
+	 * Position of the sub-TLV inside subtlv_bytes. A decoded sub-TLV keeps a
+	 * reference to the buffer of the TLV that contains it; it is 0 once the
+	 * sub-TLV is encoded or detached.
+	 */
+	protected int subtlv_offset;
 	
 	/**
 	 * Logger
@@ -58,11 +66,12 @@ public abstract class BGP4SubTLV {
 			this.SubTLVType=((  ((int)bytes[offset]&0xFF)   <<8)& 0xFF00) |  ((int)bytes[offset+1] & 0xFF);
 			this.SubTLVValueLength=((((int)bytes[offset+2]&0xFF)<<8)& 0xFF00) |  ((int)bytes[offset+3] & 0xFF);
 			this.TotalSubTLVLength=SubTLVValueLength+4;		
-			this.subtlv_bytes=new byte[TotalSubTLVLength];
-			System.arraycopy(bytes, offset, subtlv_bytes, 0, TotalSubTLVLength);
+			this.subtlv_bytes=bytes;
+			this.subtlv_offset=offset;
 		}
 		
 		protected void encodeHeader(){
+			this.subtlv_offset=0;
 			this.subtlv_bytes[0]=(byte)(SubTLVType>>>8 & 0xFF);
 			this.subtlv_bytes[1]=(byte)(SubTLVType & 0xFF);
 			this.subtlv_bytes[2]=(byte)(SubTLVValueLength>>>8 & 0xFF);
@@ -106,12 +115,24 @@ public abstract class BGP4SubTLV {
 
 
 		public byte[] getSubTLV_bytes() {
+			detach();
 			return subtlv_bytes;
 		}
 
 
 		protected void setSubTLV_bytes(byte[] subtlv_bytes) {
 			this.subtlv_bytes = subtlv_bytes;
+			this.subtlv_offset = 0;
+		}
+
+		/**
+		 * Copy the bytes of the sub-TLV out of the buffer it was decoded from.
+		 */
+		public void detach() {
+			if (subtlv_bytes != null && (subtlv_offset != 0 || subtlv_bytes.length != TotalSubTLVLength)) {
+				subtlv_bytes = ByteHandler.copyOfRange(subtlv_bytes, subtlv_offset, TotalSubTLVLength);
+				subtlv_offset = 0;
+			}
 		}
 
 
@@ -42,7 +42,7 @@ public class IGPRouterIDNodeDescriptorSubTLV extends NodeDescriptorsSubTLV {
 
     private void decode() {
         int length = this.getSubTLVValueLength();
-        int offset = 4; 
+        int offset = subtlv_offset+4; 
         
         this.address = new byte[length];
         System.arraycopy(this.subtlv_bytes, offset, this.address, 0, length);
@@ -71,7 +71,7 @@ public class IPReachabilityInformationTLV extends BGP4TLVFormat {
     }
 
     public void decode() {
-        int offset = 4;
+        int offset = tlv_offset+4;
         prefix_length = this.tlv_bytes[offset] & 0xFF;
         offset += 1;
 
@@ -73,10 +73,10 @@ public class MinMaxUndirectionalLinkDelayDescriptorSubTLV extends BGP4TLVFormat{
 		}
 		//System.arraycopy(this.tlv_bytes,1, lowDelay, 1, 3);
 		//System.arraycopy(this.tlv_bytes, 5, highDelay,  1, 3);
-		int offset=4;
+		int offset=tlv_offset+4;
 		this.lowDelay=0;
 		this.lowDelay= (((int)(tlv_bytes[offset+1]<<16)& (int)0xFF0000) |((tlv_bytes[offset+2]<<8)& 0xFF00) |  (tlv_bytes[offset+3] & 0xFF) );
-		offset=8;
+		offset=tlv_offset+8;
 		this.highDelay=0;
 		this.highDelay= (((int)(tlv_bytes[offset+1]<<16)& (int)0xFF0000) |((tlv_bytes[offset+2]<<8)& 0xFF00) |  (tlv_bytes[offset+3] & 0xFF) );
 		
@@ -57,7 +57,7 @@ public class OSPFRouteTypeTLV extends BGP4TLVFormat{
 		
 	
 	public void decode(){
-		int offset =4;
+		int offset =tlv_offset+4;
 		int type = tlv_bytes[offset];
 		switch(type){
 			case 0x1:
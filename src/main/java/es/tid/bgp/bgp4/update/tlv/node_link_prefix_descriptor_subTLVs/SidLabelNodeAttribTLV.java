@@ -52,7 +52,7 @@ public class SidLabelNodeAttribTLV extends BGP4TLVFormat {
     }
 
     protected void decode() {
-        int offset = 4;
+        int offset = tlv_offset+4;
         int len = this.getTLVValueLength();
         this.sid = 0;
         
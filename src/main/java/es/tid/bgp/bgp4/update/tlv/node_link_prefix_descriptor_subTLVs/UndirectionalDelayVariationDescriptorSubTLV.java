@@ -73,7 +73,7 @@ public class UndirectionalDelayVariationDescriptorSubTLV extends BGP4TLVFormat{
 			//FIXME: esta mal formado Que hacer
 		}
 		//System.arraycopy(this.tlv_bytes,1, delayVar, 1, 3);
-		int offset=4;
+		int offset=tlv_offset+4;
 		this.delayVar=0;
 		this.delayVar= (((int)(tlv_bytes[offset+1]<<16)& (int)0xFF0000) |((tlv_bytes[offset+2]<<8)& 0xFF00) |  (tlv_bytes[offset+3] & 0xFF) );
 		
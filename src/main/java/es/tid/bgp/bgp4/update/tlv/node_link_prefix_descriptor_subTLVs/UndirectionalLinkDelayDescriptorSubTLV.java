@@ -77,7 +77,7 @@ public class UndirectionalLinkDelayDescriptorSubTLV extends BGP4TLVFormat{
 			//FIXME: esta mal formado Que hacer
 		}
 		//System.arraycopy(this.tlv_bytes,1, delay, 1, 3);
-		int offset=4;
+		int offset=tlv_offset+4;
 		this.delay=0;
 		this.delay= (((int)(tlv_bytes[offset+1]<<16)& (int)0xFF0000) |((tlv_bytes[offset+2]<<8)& 0xFF00) |  (tlv_bytes[offset+3] & 0xFF) );
 		
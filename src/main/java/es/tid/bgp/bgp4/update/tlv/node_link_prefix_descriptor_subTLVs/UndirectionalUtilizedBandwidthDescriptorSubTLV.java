@@ -76,7 +76,7 @@ public class UndirectionalUtilizedBandwidthDescriptorSubTLV extends BGP4TLVForma
 			//FIXME: esta mal formado Que hacer
 		}
 		//System.arraycopy(this.tlv_bytes,0, utilizedBw, 0, 4);
-		int offset=4;
+		int offset=tlv_offset+4;
 		this.utilizedBw=(((int)(this.tlv_bytes[offset]<<24)& (int)0xFF000000) | ((tlv_bytes[offset+1]<<16)& 0xFF0000) |((tlv_bytes[offset+2]<<8)& 0xFF00) |  (tlv_bytes[offset+3] & 0xFF) );
 		
 	}
@@ -0,0 +1,142 @@
+package es.tid.bgp.bmp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Information TLV of the Initiation, Peer Up and Termination messages
+ * (RFC 7854, Sections 4.3, 4.4 and 4.5).
+ * <pre>
+ *  0                   1                   2                   3
+ *  0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |          Information Type     |       Information Length      |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                 Information (variable)                        |
+ * ~                                                               ~
+ * +---------------------------------------------------------------+
+ * </pre>
+ */
+public class BMPInformationTLV {
+
+	public static final int TYPE_STRING = 0;
+	/**
+	 * Initiation message
+	 */
+	public static final int TYPE_SYS_DESCR = 1;
+	public static final int TYPE_SYS_NAME = 2;
+	/**
+	 * Termination message, 2 bytes
+	 */
+	public static final int TYPE_REASON = 1;
+
+	private final int type;
+
+	private final byte[] value;
+
+	public BMPInformationTLV(int type, byte[] value) {
+		this.type = type;
+		this.value = value;
+	}
+
+	public BMPInformationTLV(int type, String value) {
+		this(type, value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public int getType() {
+		return type;
+	}
+
+	public byte[] getValue() {
+		return value;
+	}
+
+	public String getString() {
+		return new String(value, StandardCharsets.UTF_8);
+	}
+
+	public int getLength() {
+		return 4 + value.length;
+	}
+
+	/**
+	 * @return position after the TLV
+	 */
+	public int encode(byte[] bytes, int offset) {
+		BMPMessage.putShort(bytes, offset, type);
+		BMPMessage.putShort(bytes, offset + 2, value.length);
+		System.arraycopy(value, 0, bytes, offset + 4, value.length);
+		return offset + 4 + value.length;
+	}
+
+	/**
+	 * Decodes the TLVs between offset and end. A truncated TLV ends the list.
+	 */
+	static List<BMPInformationTLV> decodeList(byte[] bytes, int offset, int end) {
+		List<BMPInformationTLV> tlvs = new ArrayList<BMPInformationTLV>();
+		while (offset + 4 <= end) {
+			int type = BMPMessage.getShort(bytes, offset);
+			int length = BMPMessage.getShort(bytes, offset + 2);
+			offset += 4;
+			if (offset + length > end) {
+				BMPMessage.log.warn("Truncated BMP Information TLV of type " + type);
+				break;
+			}
+			byte[] value = new byte[length];
+			System.arraycopy(bytes, offset, value, 0, length);
+			tlvs.add(new BMPInformationTLV(type, value));
+			offset += length;
+		}
+		return tlvs;
+	}
+
+	static int getLength(List<BMPInformationTLV> tlvs) {
+		int length = 0;
+		for (BMPInformationTLV tlv : tlvs) {
+			length += tlv.getLength();
+		}
+		return length;
+	}
+
+	static int encodeList(List<BMPInformationTLV> tlvs, byte[] bytes, int offset) {
+		for (BMPInformationTLV tlv : tlvs) {
+			offset = tlv.encode(bytes, offset);
+		}
+		return offset;
+	}
+
+	/**
+	 * @return the first TLV of the type, or null
+	 */
+	static BMPInformationTLV find(List<BMPInformationTLV> tlvs, int type) {
+		for (BMPInformationTLV tlv : tlvs) {
+			if (tlv.type == type) {
+				return tlv;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * type + Arrays.hashCode(value);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		BMPInformationTLV other = (BMPInformationTLV) obj;
+		return type == other.type && Arrays.equals(value, other.value);
+	}
+
+	@Override
+	public String toString() {
+		return "[INFO type=" + type + " " + getString() + "]";
+	}
+
+}
@@ -0,0 +1,60 @@
+package es.tid.bgp.bmp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Initiation message (RFC 7854, Section 4.3): the Information TLVs that the
+ * monitored router sends when the BMP session starts. They must include
+ * sysDescr and sysName.
+ */
+public class BMPInitiation extends BMPMessage {
+
+	private List<BMPInformationTLV> information = new ArrayList<BMPInformationTLV>();
+
+	public BMPInitiation() {
+		super(BMPMessageTypes.MESSAGE_INITIATION);
+	}
+
+	public BMPInitiation(String sysName, String sysDescr) {
+		this();
+		information.add(new BMPInformationTLV(BMPInformationTLV.TYPE_SYS_DESCR, sysDescr));
+		information.add(new BMPInformationTLV(BMPInformationTLV.TYPE_SYS_NAME, sysName));
+	}
+
+	public BMPInitiation(byte[] bytes, int offset) {
+		super(bytes, offset);
+		information = BMPInformationTLV.decodeList(bytes, offset + HEADER_LENGTH, offset + messageLength);
+	}
+
+	@Override
+	public void encode() {
+		encodeHeader(HEADER_LENGTH + BMPInformationTLV.getLength(information));
+		BMPInformationTLV.encodeList(information, messageBytes, HEADER_LENGTH);
+	}
+
+	/**
+	 * @return sysName, or null if it is missing
+	 */
+	public String getSysName() {
+		BMPInformationTLV tlv = BMPInformationTLV.find(information, BMPInformationTLV.TYPE_SYS_NAME);
+		return tlv == null ? null : tlv.getString();
+	}
+
+	/**
+	 * @return sysDescr, or null if it is missing
+	 */
+	public String getSysDescr() {
+		BMPInformationTLV tlv = BMPInformationTLV.find(information, BMPInformationTLV.TYPE_SYS_DESCR);
+		return tlv == null ? null : tlv.getString();
+	}
+
+	public List<BMPInformationTLV> getInformation() {
+		return information;
+	}
+
+	public void setInformation(List<BMPInformationTLV> information) {
+		this.information = information;
+	}
+
+}
@@ -0,0 +1,188 @@
+package es.tid.bgp.bmp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.protocol.commons.ByteHandler;
+
+/**
+ * BMP message (RFC 7854, Section 4.1).
+ *
+ * Common Header:
+ * <pre>
+ *  0                   1                   2                   3
+ *  0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1
+ * +-+-+-+-+-+-+-+-+
+ * |    Version    |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                        Message Length                         |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |   Msg. Type   |
+ * +---------------+
+ * </pre>
+ *
+ * Like the BGP messages, a decoded BMP message is a view over the buffer it
+ * was received in, until it is encoded or detached.
+ */
+public abstract class BMPMessage {
+
+	protected static final Logger log = LoggerFactory.getLogger("BGP4Parser");
+
+	public static final int VERSION = 3;
+
+	public static final int HEADER_LENGTH = 6;
+
+	protected byte[] messageBytes;
+
+	/**
+	 * Position of the message in messageBytes
+	 */
+	protected int messageOffset;
+
+	protected int messageLength;
+
+	protected int messageType;
+
+	protected BMPMessage(int messageType) {
+		this.messageType = messageType;
+	}
+
+	/**
+	 * Creates a BMP message that is a view over a receive buffer, and decodes
+	 * the common header
+	 * @param bytes Buffer containing the message
+	 * @param offset Position of the Version in the buffer
+	 */
+	protected BMPMessage(byte[] bytes, int offset) {
+		if ((bytes[offset] & 0xFF) != VERSION) {
+			log.warn("Unexpected BMP version " + (bytes[offset] & 0xFF));
+		}
+		messageLength = getMessageLength(bytes, offset);
+		if (bytes.length < offset + messageLength) {
+			log.warn("Bytes and length in BMP header do not match");
+		}
+		messageBytes = bytes;
+		messageOffset = offset;
+		messageType = bytes[offset + 5] & 0xFF;
+	}
+
+	public abstract void encode();
+
+	/**
+	 * Allocates messageBytes and encodes the common header
+	 * @param length length of the message, header included
+	 */
+	protected void encodeHeader(int length) {
+		messageLength = length;
+		messageBytes = new byte[length];
+		messageOffset = 0;
+		messageBytes[0] = (byte) VERSION;
+		putInt(messageBytes, 1, length);
+		messageBytes[5] = (byte) messageType;
+	}
+
+	/**
+	 * Get the message Bytes. If the message is a view over a receive buffer,
+	 * its bytes are copied first (see {@link #detach()}).
+	 */
+	public byte[] getBytes() {
+		if (isView()) {
+			detach();
+		}
+		return messageBytes;
+	}
+
+	/**
+	 * Copy the bytes of the message out of the receive buffer it was decoded from.
+	 * Nothing is done if the message already owns its bytes.
+	 */
+	public void detach() {
+		if (isView()) {
+			messageBytes = ByteHandler.copyOfRange(messageBytes, messageOffset, messageLength);
+			messageOffset = 0;
+		}
+	}
+
+	/**
+	 * @return true if the message is a view over a buffer that it does not own
+	 */
+	public boolean isView() {
+		return messageBytes != null && (messageOffset != 0 || messageBytes.length != messageLength);
+	}
+
+	public int getMessageType() {
+		return messageType;
+	}
+
+	public int getLength() {
+		return messageLength;
+	}
+
+	public static int getMessageLength(byte[] bytes, int offset) {
+		return getInt(bytes, offset + 1);
+	}
+
+	public static int getMessageType(byte[] bytes, int offset) {
+		return bytes[offset + 5] & 0xFF;
+	}
+
+	/**
+	 * Decodes a BMP message as a view over the buffer
+	 * @param bytes Buffer containing the message
+	 * @param offset Position of the message in the buffer
+	 * @return the message, or null if its type is not supported
+	 */
+	public static BMPMessage decode(byte[] bytes, int offset) {
+		int type = getMessageType(bytes, offset);
+		switch (type) {
+		case BMPMessageTypes.MESSAGE_ROUTE_MONITORING:
+			return new BMPRouteMonitoring(bytes, offset);
+		case BMPMessageTypes.MESSAGE_STATISTICS_REPORT:
+			return new BMPStatisticsReport(bytes, offset);
+		case BMPMessageTypes.MESSAGE_PEER_DOWN:
+			return new BMPPeerDown(bytes, offset);
+		case BMPMessageTypes.MESSAGE_PEER_UP:
+			return new BMPPeerUp(bytes, offset);
+		case BMPMessageTypes.MESSAGE_INITIATION:
+			return new BMPInitiation(bytes, offset);
+		case BMPMessageTypes.MESSAGE_TERMINATION:
+			return new BMPTermination(bytes, offset);
+		default:
+			log.warn("Unsupported BMP message type " + type);
+			return null;
+		}
+	}
+
+	static int getInt(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+				| ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+	}
+
+	static long getLong(byte[] bytes, int offset) {
+		return ((long) getInt(bytes, offset) << 32) | (getInt(bytes, offset + 4) & 0xFFFFFFFFL);
+	}
+
+	static int getShort(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+	}
+
+	static int putInt(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) (value >>> 24);
+		bytes[offset + 1] = (byte) (value >>> 16);
+		bytes[offset + 2] = (byte) (value >>> 8);
+		bytes[offset + 3] = (byte) value;
+		return offset + 4;
+	}
+
+	static int putLong(byte[] bytes, int offset, long value) {
+		putInt(bytes, offset, (int) (value >>> 32));
+		return putInt(bytes, offset + 4, (int) value);
+	}
+
+	static int putShort(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) (value >>> 8);
+		bytes[offset + 1] = (byte) value;
+		return offset + 2;
+	}
+
+}
@@ -0,0 +1,14 @@
+package es.tid.bgp.bmp;
+
+/**
+ * BMP message types, <a href="https://tools.ietf.org/html/rfc7854">RFC 7854</a>.
+ */
+public class BMPMessageTypes {
+	public static final int MESSAGE_ROUTE_MONITORING = 0;
+	public static final int MESSAGE_STATISTICS_REPORT = 1;
+	public static final int MESSAGE_PEER_DOWN = 2;
+	public static final int MESSAGE_PEER_UP = 3;
+	public static final int MESSAGE_INITIATION = 4;
+	public static final int MESSAGE_TERMINATION = 5;
+	public static final int MESSAGE_ROUTE_MIRRORING = 6;
+}
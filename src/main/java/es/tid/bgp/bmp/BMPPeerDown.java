@@ -0,0 +1,121 @@
+package es.tid.bgp.bmp;
+
+import es.tid.protocol.commons.ByteHandler;
+
+/**
+ * Peer Down Notification (RFC 7854, Section 4.9): a Per-Peer Header, the
+ * Reason and the data of the reason.
+ *
+ * The NOTIFICATION PDU of reasons 1 and 3 is kept encoded, its error code
+ * and subcode are read from it.
+ */
+public class BMPPeerDown extends BMPPeerMessage {
+
+	/**
+	 * The local system closed the session, data: NOTIFICATION PDU
+	 */
+	public static final int REASON_LOCAL_NOTIFICATION = 1;
+	/**
+	 * The local system closed the session without a NOTIFICATION, data: FSM event code
+	 */
+	public static final int REASON_LOCAL_NO_NOTIFICATION = 2;
+	/**
+	 * The remote system closed the session with a NOTIFICATION, data: NOTIFICATION PDU
+	 */
+	public static final int REASON_REMOTE_NOTIFICATION = 3;
+	/**
+	 * The remote system closed the session without a NOTIFICATION, no data
+	 */
+	public static final int REASON_REMOTE_NO_NOTIFICATION = 4;
+	/**
+	 * Information for the peer will no longer be sent, no data
+	 */
+	public static final int REASON_PEER_DE_CONFIGURED = 5;
+
+	private int reason;
+
+	private byte[] data = new byte[0];
+
+	public BMPPeerDown() {
+		super(BMPMessageTypes.MESSAGE_PEER_DOWN);
+	}
+
+	public BMPPeerDown(byte[] bytes, int offset) {
+		super(bytes, offset);
+		reason = bytes[offset + PEER_HEADER_LENGTH] & 0xFF;
+		data = ByteHandler.copyOfRange(bytes, offset + PEER_HEADER_LENGTH + 1, messageLength - PEER_HEADER_LENGTH - 1);
+	}
+
+	@Override
+	public void encode() {
+		int offset = encodePeerHeader(PEER_HEADER_LENGTH + 1 + data.length);
+		messageBytes[offset] = (byte) reason;
+		System.arraycopy(data, 0, messageBytes, offset + 1, data.length);
+	}
+
+	public int getReason() {
+		return reason;
+	}
+
+	public void setReason(int reason) {
+		this.reason = reason;
+	}
+
+	/**
+	 * @return data of the reason, encoded
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+	public void setData(byte[] data) {
+		this.data = data;
+	}
+
+	public boolean hasNotification() {
+		return (reason == REASON_LOCAL_NOTIFICATION || reason == REASON_REMOTE_NOTIFICATION) && data.length >= 21;
+	}
+
+	/**
+	 * @return the NOTIFICATION PDU, or null if the reason does not carry one
+	 */
+	public byte[] getNotification() {
+		return hasNotification() ? data : null;
+	}
+
+	/**
+	 * @param reason {@link #REASON_LOCAL_NOTIFICATION} or {@link #REASON_REMOTE_NOTIFICATION}
+	 * @param notification encoded NOTIFICATION PDU
+	 */
+	public void setNotification(int reason, byte[] notification) {
+		this.reason = reason;
+		this.data = notification;
+	}
+
+	/**
+	 * @return Error Code of the NOTIFICATION, or -1
+	 */
+	public int getErrorCode() {
+		return hasNotification() ? data[19] & 0xFF : -1;
+	}
+
+	/**
+	 * @return Error Subcode of the NOTIFICATION, or -1
+	 */
+	public int getErrorSubcode() {
+		return hasNotification() ? data[20] & 0xFF : -1;
+	}
+
+	/**
+	 * @return FSM event code of {@link #REASON_LOCAL_NO_NOTIFICATION}, or -1
+	 */
+	public int getFSMEventCode() {
+		return reason == REASON_LOCAL_NO_NOTIFICATION && data.length == 2 ? BMPMessage.getShort(data, 0) : -1;
+	}
+
+	public void setFSMEventCode(int eventCode) {
+		this.reason = REASON_LOCAL_NO_NOTIFICATION;
+		this.data = new byte[] {(byte) (eventCode >>> 8), (byte) eventCode};
+	}
+
+}
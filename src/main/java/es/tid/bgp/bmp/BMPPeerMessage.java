@@ -0,0 +1,42 @@
+package es.tid.bgp.bmp;
+
+/**
+ * BMP message with a Per-Peer Header after the Common Header
+ */
+public abstract class BMPPeerMessage extends BMPMessage {
+
+	/**
+	 * Length of the Common Header and the Per-Peer Header
+	 */
+	public static final int PEER_HEADER_LENGTH = HEADER_LENGTH + BMPPerPeerHeader.LENGTH;
+
+	protected BMPPerPeerHeader peerHeader;
+
+	protected BMPPeerMessage(int messageType) {
+		super(messageType);
+	}
+
+	protected BMPPeerMessage(byte[] bytes, int offset) {
+		super(bytes, offset);
+		peerHeader = new BMPPerPeerHeader(bytes, offset + HEADER_LENGTH);
+	}
+
+	/**
+	 * Allocates messageBytes and encodes the Common Header and the Per-Peer Header
+	 * @param length length of the message, headers included
+	 * @return position after the headers
+	 */
+	protected int encodePeerHeader(int length) {
+		encodeHeader(length);
+		return peerHeader.encode(messageBytes, HEADER_LENGTH);
+	}
+
+	public BMPPerPeerHeader getPeerHeader() {
+		return peerHeader;
+	}
+
+	public void setPeerHeader(BMPPerPeerHeader peerHeader) {
+		this.peerHeader = peerHeader;
+	}
+
+}
@@ -0,0 +1,133 @@
+package es.tid.bgp.bmp;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import es.tid.bgp.bgp4.messages.BGP4Open;
+import es.tid.protocol.commons.ByteHandler;
+
+/**
+ * Peer Up Notification (RFC 7854, Section 4.10).
+ * <pre>
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                 Local Address (16 bytes)                      |
+ * ~                                                               ~
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |         Local Port            |        Remote Port            |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                    Sent OPEN Message                          |
+ * ~                                                               ~
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                  Received OPEN Message                        |
+ * ~                                                               ~
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                 Information (variable)                        |
+ * ~                                                               ~
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * </pre>
+ * The Local Address has the family of the Peer Address of the Per-Peer Header.
+ */
+public class BMPPeerUp extends BMPPeerMessage {
+
+	private InetAddress localAddress;
+	private int localPort;
+	private int remotePort;
+	private BGP4Open sentOpen;
+	private BGP4Open receivedOpen;
+	private List<BMPInformationTLV> information = new ArrayList<BMPInformationTLV>();
+
+	public BMPPeerUp() {
+		super(BMPMessageTypes.MESSAGE_PEER_UP);
+	}
+
+	public BMPPeerUp(byte[] bytes, int offset) {
+		super(bytes, offset);
+		int end = offset + messageLength;
+		offset += PEER_HEADER_LENGTH;
+		localAddress = BMPPerPeerHeader.getAddress(bytes, offset, peerHeader.isIPv6());
+		localPort = BMPMessage.getShort(bytes, offset + 16);
+		remotePort = BMPMessage.getShort(bytes, offset + 18);
+		offset += 20;
+		int length = BMPMessage.getShort(bytes, offset + 16);
+		sentOpen = new BGP4Open(ByteHandler.copyOfRange(bytes, offset, length));
+		offset += length;
+		length = BMPMessage.getShort(bytes, offset + 16);
+		receivedOpen = new BGP4Open(ByteHandler.copyOfRange(bytes, offset, length));
+		offset += length;
+		information = BMPInformationTLV.decodeList(bytes, offset, end);
+	}
+
+	@Override
+	public void encode() {
+		byte[] sent = getOpenBytes(sentOpen);
+		byte[] received = getOpenBytes(receivedOpen);
+		int offset = encodePeerHeader(PEER_HEADER_LENGTH + 20 + sentOpen.getLength() + receivedOpen.getLength()
+				+ BMPInformationTLV.getLength(information));
+		BMPPerPeerHeader.putAddress(messageBytes, offset, localAddress);
+		BMPMessage.putShort(messageBytes, offset + 16, localPort);
+		BMPMessage.putShort(messageBytes, offset + 18, remotePort);
+		offset += 20;
+		System.arraycopy(sent, 0, messageBytes, offset, sentOpen.getLength());
+		offset += sentOpen.getLength();
+		System.arraycopy(received, 0, messageBytes, offset, receivedOpen.getLength());
+		offset += receivedOpen.getLength();
+		BMPInformationTLV.encodeList(information, messageBytes, offset);
+	}
+
+	private static byte[] getOpenBytes(BGP4Open open) {
+		if (open.getBytes() == null) {
+			open.encode();
+		}
+		return open.getBytes();
+	}
+
+	public InetAddress getLocalAddress() {
+		return localAddress;
+	}
+
+	public void setLocalAddress(InetAddress localAddress) {
+		this.localAddress = localAddress;
+	}
+
+	public int getLocalPort() {
+		return localPort;
+	}
+
+	public void setLocalPort(int localPort) {
+		this.localPort = localPort;
+	}
+
+	public int getRemotePort() {
+		return remotePort;
+	}
+
+	public void setRemotePort(int remotePort) {
+		this.remotePort = remotePort;
+	}
+
+	public BGP4Open getSentOpen() {
+		return sentOpen;
+	}
+
+	public void setSentOpen(BGP4Open sentOpen) {
+		this.sentOpen = sentOpen;
+	}
+
+	public BGP4Open getReceivedOpen() {
+		return receivedOpen;
+	}
+
+	public void setReceivedOpen(BGP4Open receivedOpen) {
+		this.receivedOpen = receivedOpen;
+	}
+
+	public List<BMPInformationTLV> getInformation() {
+		return information;
+	}
+
+	public void setInformation(List<BMPInformationTLV> information) {
+		this.information = information;
+	}
+
+}
@@ -0,0 +1,223 @@
+package es.tid.bgp.bmp;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Objects;
+
+/**
+ * Per-Peer Header of the BMP messages about a peer (RFC 7854, Section 4.2).
+ * <pre>
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |   Peer Type   |  Peer Flags   |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |         Peer Distinguisher (present based on peer type)       |
+ * |                                                               |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                 Peer Address (16 bytes)                       |
+ * ~                                                               ~
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                           Peer AS                             |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                         Peer BGP ID                           |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                    Timestamp (seconds)                        |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                  Timestamp (microseconds)                     |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * </pre>
+ */
+public class BMPPerPeerHeader {
+
+	public static final int LENGTH = 42;
+
+	public static final int PEER_TYPE_GLOBAL_INSTANCE = 0;
+	public static final int PEER_TYPE_RD_INSTANCE = 1;
+	public static final int PEER_TYPE_LOCAL_INSTANCE = 2;
+
+	/**
+	 * V flag: the Peer Address is an IPv6 address
+	 */
+	public static final int FLAG_IPV6 = 0x80;
+	/**
+	 * L flag: the routes are post-policy
+	 */
+	public static final int FLAG_POST_POLICY = 0x40;
+	/**
+	 * A flag: the AS_PATHs use 2-byte AS numbers
+	 */
+	public static final int FLAG_LEGACY_AS_PATH = 0x20;
+
+	private int peerType;
+	private int flags;
+	private long peerDistinguisher;
+	private InetAddress peerAddress;
+	private long peerAS;
+	private Inet4Address peerBGPID;
+	private long timestampSeconds;
+	private int timestampMicroseconds;
+
+	public BMPPerPeerHeader() {
+	}
+
+	public BMPPerPeerHeader(byte[] bytes, int offset) {
+		peerType = bytes[offset] & 0xFF;
+		flags = bytes[offset + 1] & 0xFF;
+		peerDistinguisher = BMPMessage.getLong(bytes, offset + 2);
+		peerAddress = getAddress(bytes, offset + 10, (flags & FLAG_IPV6) != 0);
+		peerAS = BMPMessage.getInt(bytes, offset + 26) & 0xFFFFFFFFL;
+		peerBGPID = (Inet4Address) getAddress(bytes, offset + 30, false, 4);
+		timestampSeconds = BMPMessage.getInt(bytes, offset + 34) & 0xFFFFFFFFL;
+		timestampMicroseconds = BMPMessage.getInt(bytes, offset + 38);
+	}
+
+	/**
+	 * Encodes the header. The V flag follows the family of the Peer Address.
+	 * @return position after the header
+	 */
+	public int encode(byte[] bytes, int offset) {
+		if (peerAddress instanceof Inet6Address) {
+			flags |= FLAG_IPV6;
+		} else {
+			flags &= ~FLAG_IPV6;
+		}
+		bytes[offset] = (byte) peerType;
+		bytes[offset + 1] = (byte) flags;
+		BMPMessage.putLong(bytes, offset + 2, peerDistinguisher);
+		putAddress(bytes, offset + 10, peerAddress);
+		BMPMessage.putInt(bytes, offset + 26, (int) peerAS);
+		if (peerBGPID != null) {
+			System.arraycopy(peerBGPID.getAddress(), 0, bytes, offset + 30, 4);
+		}
+		BMPMessage.putInt(bytes, offset + 34, (int) timestampSeconds);
+		BMPMessage.putInt(bytes, offset + 38, timestampMicroseconds);
+		return offset + LENGTH;
+	}
+
+	/**
+	 * Reads a 16 bytes address field, where an IPv4 address is in the last 4 bytes
+	 */
+	static InetAddress getAddress(byte[] bytes, int offset, boolean ipv6) {
+		return ipv6 ? getAddress(bytes, offset, true, 16) : getAddress(bytes, offset + 12, false, 4);
+	}
+
+	private static InetAddress getAddress(byte[] bytes, int offset, boolean ipv6, int length) {
+		byte[] address = new byte[length];
+		System.arraycopy(bytes, offset, address, 0, length);
+		try {
+			return InetAddress.getByAddress(address);
+		} catch (UnknownHostException e) {
+			// not thrown for 4 or 16 octets
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Writes a 16 bytes address field, an IPv4 address in its last 4 bytes
+	 */
+	static void putAddress(byte[] bytes, int offset, InetAddress address) {
+		if (address == null) {
+			return;
+		}
+		byte[] a = address.getAddress();
+		System.arraycopy(a, 0, bytes, offset + 16 - a.length, a.length);
+	}
+
+	public int getPeerType() {
+		return peerType;
+	}
+
+	public void setPeerType(int peerType) {
+		this.peerType = peerType;
+	}
+
+	public int getFlags() {
+		return flags;
+	}
+
+	public void setFlags(int flags) {
+		this.flags = flags;
+	}
+
+	public boolean isIPv6() {
+		return (flags & FLAG_IPV6) != 0;
+	}
+
+	public boolean isPostPolicy() {
+		return (flags & FLAG_POST_POLICY) != 0;
+	}
+
+	public long getPeerDistinguisher() {
+		return peerDistinguisher;
+	}
+
+	public void setPeerDistinguisher(long peerDistinguisher) {
+		this.peerDistinguisher = peerDistinguisher;
+	}
+
+	public InetAddress getPeerAddress() {
+		return peerAddress;
+	}
+
+	public void setPeerAddress(InetAddress peerAddress) {
+		this.peerAddress = peerAddress;
+	}
+
+	public long getPeerAS() {
+		return peerAS;
+	}
+
+	public void setPeerAS(long peerAS) {
+		this.peerAS = peerAS;
+	}
+
+	public Inet4Address getPeerBGPID() {
+		return peerBGPID;
+	}
+
+	public void setPeerBGPID(Inet4Address peerBGPID) {
+		this.peerBGPID = peerBGPID;
+	}
+
+	public long getTimestampSeconds() {
+		return timestampSeconds;
+	}
+
+	public void setTimestampSeconds(long timestampSeconds) {
+		this.timestampSeconds = timestampSeconds;
+	}
+
+	public int getTimestampMicroseconds() {
+		return timestampMicroseconds;
+	}
+
+	public void setTimestampMicroseconds(int timestampMicroseconds) {
+		this.timestampMicroseconds = timestampMicroseconds;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(peerType, flags, peerDistinguisher, peerAddress, peerAS, peerBGPID,
+				timestampSeconds, timestampMicroseconds);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		BMPPerPeerHeader other = (BMPPerPeerHeader) obj;
+		return peerType == other.peerType && flags == other.flags && peerDistinguisher == other.peerDistinguisher
+				&& Objects.equals(peerAddress, other.peerAddress) && peerAS == other.peerAS
+				&& Objects.equals(peerBGPID, other.peerBGPID) && timestampSeconds == other.timestampSeconds
+				&& timestampMicroseconds == other.timestampMicroseconds;
+	}
+
+	@Override
+	public String toString() {
+		return "[PEER type=" + peerType + " flags=" + flags + " address=" + peerAddress + " AS=" + peerAS + "]";
+	}
+
+}
@@ -0,0 +1,119 @@
+package es.tid.bgp.bmp;
+
+import es.tid.bgp.bgp4.messages.BGP4Update;
+
+/**
+ * Route Monitoring message (RFC 7854, Section 4.6): a Per-Peer Header
+ * followed by a BGP UPDATE PDU.
+ *
+ * The UPDATE of a decoded message is not copied: {@link #getUpdate()}
+ * decodes it on first use as a {@link BGP4Update} view over the BMP receive
+ * buffer. Collectors that only forward the UPDATE can use
+ * {@link #getUpdateOffset()} and {@link #getUpdateLength()} instead.
+ * When encoding, the bytes of an already encoded UPDATE are copied once
+ * after the headers, it is not encoded again.
+ */
+public class BMPRouteMonitoring extends BMPPeerMessage {
+
+	private BGP4Update update;
+
+	/**
+	 * Encoded UPDATE given with {@link #setUpdate(byte[], int, int)}
+	 */
+	private byte[] updateBytes;
+	private int updateOffset;
+	private int updateLength;
+
+	public BMPRouteMonitoring() {
+		super(BMPMessageTypes.MESSAGE_ROUTE_MONITORING);
+	}
+
+	public BMPRouteMonitoring(BMPPerPeerHeader peerHeader, BGP4Update update) {
+		this();
+		this.peerHeader = peerHeader;
+		this.update = update;
+	}
+
+	public BMPRouteMonitoring(byte[] bytes, int offset) {
+		super(bytes, offset);
+	}
+
+	@Override
+	public void encode() {
+		byte[] source;
+		int sourceOffset;
+		int length;
+		if (updateBytes != null) {
+			source = updateBytes;
+			sourceOffset = updateOffset;
+			length = updateLength;
+		} else if (update == null) {
+			// decoded message whose UPDATE was not asked for
+			source = messageBytes;
+			sourceOffset = messageOffset + PEER_HEADER_LENGTH;
+			length = messageLength - PEER_HEADER_LENGTH;
+		} else {
+			if (update.getBytes() == null) {
+				update.encode();
+			}
+			source = update.getBytes();
+			sourceOffset = 0;
+			length = update.getLength();
+		}
+		int offset = encodePeerHeader(PEER_HEADER_LENGTH + length);
+		System.arraycopy(source, sourceOffset, messageBytes, offset, length);
+		updateBytes = null;
+	}
+
+	/**
+	 * @return the UPDATE. For a decoded message it is a view over the buffer of the message.
+	 */
+	public BGP4Update getUpdate() {
+		if (update == null && updateBytes == null && messageBytes != null) {
+			update = new BGP4Update(messageBytes, messageOffset + PEER_HEADER_LENGTH);
+		}
+		return update;
+	}
+
+	public void setUpdate(BGP4Update update) {
+		this.update = update;
+		this.updateBytes = null;
+	}
+
+	/**
+	 * Sets an UPDATE that is already encoded, for instance the one received
+	 * from the peer, without decoding it
+	 * @param bytes buffer containing the UPDATE
+	 * @param offset position of its marker
+	 * @param length length of the UPDATE
+	 */
+	public void setUpdate(byte[] bytes, int offset, int length) {
+		this.update = null;
+		this.updateBytes = bytes;
+		this.updateOffset = offset;
+		this.updateLength = length;
+	}
+
+	/**
+	 * @return position of the UPDATE in the buffer of the message
+	 */
+	public int getUpdateOffset() {
+		return messageOffset + PEER_HEADER_LENGTH;
+	}
+
+	/**
+	 * @return length of the UPDATE of an encoded or decoded message
+	 */
+	public int getUpdateLength() {
+		return messageLength - PEER_HEADER_LENGTH;
+	}
+
+	/**
+	 * @return buffer of the message, without detaching it, to forward the UPDATE
+	 * from {@link #getUpdateOffset()}
+	 */
+	public byte[] getMessageBuffer() {
+		return messageBytes;
+	}
+
+}
@@ -0,0 +1,201 @@
+package es.tid.bgp.bmp;
+
+import java.util.Arrays;
+
+/**
+ * Stats Reports message (RFC 7854, Section 4.8): a Per-Peer Header, the
+ * Stats Count and the Stat TLVs.
+ * <pre>
+ *  0                   1                   2                   3
+ *  0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |           Stat Type           |          Stat Len             |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                        Stat Data                              |
+ * ~                                                               ~
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * </pre>
+ * The Stat Data is a 32-bit counter, a 64-bit gauge, or an AFI (2 bytes),
+ * a SAFI (1 byte) and a 64-bit gauge. The stats are kept in parallel arrays
+ * of primitives, a collector reading thousands of reports does not create
+ * an object per stat.
+ */
+public class BMPStatisticsReport extends BMPPeerMessage {
+
+	public static final int STAT_REJECTED_PREFIXES = 0;
+	public static final int STAT_DUPLICATE_PREFIX_ADVERTISEMENTS = 1;
+	public static final int STAT_DUPLICATE_WITHDRAWS = 2;
+	public static final int STAT_CLUSTER_LIST_LOOPS = 3;
+	public static final int STAT_AS_PATH_LOOPS = 4;
+	public static final int STAT_ORIGINATOR_ID_LOOPS = 5;
+	public static final int STAT_AS_CONFED_LOOPS = 6;
+	public static final int STAT_ADJ_RIB_IN_ROUTES = 7;
+	public static final int STAT_LOC_RIB_ROUTES = 8;
+	public static final int STAT_ADJ_RIB_IN_ROUTES_PER_AFI_SAFI = 9;
+	public static final int STAT_LOC_RIB_ROUTES_PER_AFI_SAFI = 10;
+
+	private static final int COUNTER_LENGTH = 4;
+	private static final int GAUGE_LENGTH = 8;
+	private static final int AFI_SAFI_GAUGE_LENGTH = 11;
+
+	private int count;
+	private int[] types = new int[4];
+	/**
+	 * Length of the Stat Data: 4, 8 or 11
+	 */
+	private int[] lengths = new int[4];
+	private long[] values = new long[4];
+	/**
+	 * AFI and SAFI of the per AFI/SAFI stats, (AFI &lt;&lt; 8) | SAFI
+	 */
+	private int[] afiSafis = new int[4];
+
+	public BMPStatisticsReport() {
+		super(BMPMessageTypes.MESSAGE_STATISTICS_REPORT);
+	}
+
+	public BMPStatisticsReport(byte[] bytes, int offset) {
+		super(bytes, offset);
+		int end = offset + messageLength;
+		offset += PEER_HEADER_LENGTH;
+		int statsCount = BMPMessage.getInt(bytes, offset);
+		offset += 4;
+		for (int i = 0; i < statsCount && offset + 4 <= end; ++i) {
+			int type = BMPMessage.getShort(bytes, offset);
+			int length = BMPMessage.getShort(bytes, offset + 2);
+			offset += 4;
+			if (offset + length > end) {
+				log.warn("Truncated BMP Stat TLV of type " + type);
+				break;
+			}
+			switch (length) {
+			case COUNTER_LENGTH:
+				add(type, length, BMPMessage.getInt(bytes, offset) & 0xFFFFFFFFL, 0);
+				break;
+			case GAUGE_LENGTH:
+				add(type, length, BMPMessage.getLong(bytes, offset), 0);
+				break;
+			case AFI_SAFI_GAUGE_LENGTH:
+				add(type, length, BMPMessage.getLong(bytes, offset + 3),
+						(BMPMessage.getShort(bytes, offset) << 8) | (bytes[offset + 2] & 0xFF));
+				break;
+			default:
+				log.warn("Unsupported BMP Stat TLV of type " + type + " and length " + length);
+			}
+			offset += length;
+		}
+	}
+
+	@Override
+	public void encode() {
+		int length = PEER_HEADER_LENGTH + 4 + 4 * count;
+		for (int i = 0; i < count; ++i) {
+			length += lengths[i];
+		}
+		int offset = encodePeerHeader(length);
+		offset = BMPMessage.putInt(messageBytes, offset, count);
+		for (int i = 0; i < count; ++i) {
+			offset = BMPMessage.putShort(messageBytes, offset, types[i]);
+			offset = BMPMessage.putShort(messageBytes, offset, lengths[i]);
+			switch (lengths[i]) {
+			case COUNTER_LENGTH:
+				offset = BMPMessage.putInt(messageBytes, offset, (int) values[i]);
+				break;
+			case GAUGE_LENGTH:
+				offset = BMPMessage.putLong(messageBytes, offset, values[i]);
+				break;
+			default:
+				offset = BMPMessage.putShort(messageBytes, offset, afiSafis[i] >>> 8);
+				messageBytes[offset++] = (byte) afiSafis[i];
+				offset = BMPMessage.putLong(messageBytes, offset, values[i]);
+			}
+		}
+	}
+
+	private void add(int type, int length, long value, int afiSafi) {
+		if (count == types.length) {
+			int capacity = 2 * count;
+			types = Arrays.copyOf(types, capacity);
+			lengths = Arrays.copyOf(lengths, capacity);
+			values = Arrays.copyOf(values, capacity);
+			afiSafis = Arrays.copyOf(afiSafis, capacity);
+		}
+		types[count] = type;
+		lengths[count] = length;
+		values[count] = value;
+		afiSafis[count] = afiSafi;
+		count++;
+	}
+
+	/**
+	 * Adds a 32-bit counter
+	 */
+	public void addCounter(int type, long value) {
+		add(type, COUNTER_LENGTH, value & 0xFFFFFFFFL, 0);
+	}
+
+	/**
+	 * Adds a 64-bit gauge
+	 */
+	public void addGauge(int type, long value) {
+		add(type, GAUGE_LENGTH, value, 0);
+	}
+
+	/**
+	 * Adds a 64-bit gauge of an AFI/SAFI
+	 */
+	public void addGauge(int type, int afi, int safi, long value) {
+		add(type, AFI_SAFI_GAUGE_LENGTH, value, (afi << 8) | (safi & 0xFF));
+	}
+
+	/**
+	 * @return number of stats
+	 */
+	public int size() {
+		return count;
+	}
+
+	public int getType(int i) {
+		return types[i];
+	}
+
+	public long getValue(int i) {
+		return values[i];
+	}
+
+	/**
+	 * @return true if the stat i is per AFI/SAFI
+	 */
+	public boolean hasAfiSafi(int i) {
+		return lengths[i] == AFI_SAFI_GAUGE_LENGTH;
+	}
+
+	public int getAfi(int i) {
+		return afiSafis[i] >>> 8;
+	}
+
+	public int getSafi(int i) {
+		return afiSafis[i] & 0xFF;
+	}
+
+	/**
+	 * @return value of the first stat of the type, or -1 if it is missing
+	 */
+	public long getStat(int type, int afi, int safi) {
+		int afiSafi = (afi << 8) | (safi & 0xFF);
+		for (int i = 0; i < count; ++i) {
+			if (types[i] == type && afiSafis[i] == afiSafi) {
+				return values[i];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return value of the first stat of the type without AFI/SAFI, or -1 if it is missing
+	 */
+	public long getStat(int type) {
+		return getStat(type, 0, 0);
+	}
+
+}
@@ -0,0 +1,67 @@
+package es.tid.bgp.bmp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Termination message (RFC 7854, Section 4.5): the Information TLVs sent
+ * by the monitored router before it closes the BMP session.
+ */
+public class BMPTermination extends BMPMessage {
+
+	public static final int REASON_ADMINISTRATIVELY_CLOSED = 0;
+	public static final int REASON_UNSPECIFIED = 1;
+	public static final int REASON_OUT_OF_RESOURCES = 2;
+	public static final int REASON_REDUNDANT_CONNECTION = 3;
+	public static final int REASON_PERMANENTLY_CLOSED = 4;
+
+	private List<BMPInformationTLV> information = new ArrayList<BMPInformationTLV>();
+
+	public BMPTermination() {
+		super(BMPMessageTypes.MESSAGE_TERMINATION);
+	}
+
+	public BMPTermination(int reason) {
+		this();
+		setReason(reason);
+	}
+
+	public BMPTermination(byte[] bytes, int offset) {
+		super(bytes, offset);
+		information = BMPInformationTLV.decodeList(bytes, offset + HEADER_LENGTH, offset + messageLength);
+	}
+
+	@Override
+	public void encode() {
+		encodeHeader(HEADER_LENGTH + BMPInformationTLV.getLength(information));
+		BMPInformationTLV.encodeList(information, messageBytes, HEADER_LENGTH);
+	}
+
+	/**
+	 * @return the Reason TLV, or -1 if it is missing
+	 */
+	public int getReason() {
+		BMPInformationTLV tlv = BMPInformationTLV.find(information, BMPInformationTLV.TYPE_REASON);
+		return tlv == null || tlv.getValue().length != 2 ? -1 : BMPMessage.getShort(tlv.getValue(), 0);
+	}
+
+	/**
+	 * Adds a Reason TLV, or replaces the existing one
+	 */
+	public void setReason(int reason) {
+		BMPInformationTLV tlv = BMPInformationTLV.find(information, BMPInformationTLV.TYPE_REASON);
+		if (tlv != null) {
+			information.remove(tlv);
+		}
+		information.add(new BMPInformationTLV(BMPInformationTLV.TYPE_REASON, new byte[] {(byte) (reason >>> 8), (byte) reason}));
+	}
+
+	public List<BMPInformationTLV> getInformation() {
+		return information;
+	}
+
+	public void setInformation(List<BMPInformationTLV> information) {
+		this.information = information;
+	}
+
+}
@@ -100,8 +100,7 @@ public class OSPFv2LinkStateUpdatePacket extends OSPFv2Packet{
 	public void encode(){
 		int len=28;//Header bytes+ 5 bytes of the number of LSAs
 		long num_lsas=LSAlist.size();
-		for (int i=0;i<num_lsas;++i){
-			LSA lsa=LSAlist.get(i);
+		for (LSA lsa : LSAlist){
 			lsa.encode();
 			len+=lsa.getLength();
 		}
@@ -114,10 +113,9 @@ public class OSPFv2LinkStateUpdatePacket extends OSPFv2Packet{
 		this.bytes[27]=(byte)num_lsas;
 		int offset=28;
 	
-		for (int i=0;i<num_lsas;++i){	
-			LSA lsa=LSAlist.get(i);
+		for (LSA lsa : LSAlist){	
 			System.arraycopy(lsa.getLSAbytes(), 0, this.bytes, offset, lsa.getLength());
-			
+			offset=offset+lsa.getLength();
 		}
 	}
 
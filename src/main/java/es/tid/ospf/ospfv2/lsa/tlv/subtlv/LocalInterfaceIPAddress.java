@@ -49,8 +49,8 @@ public class LocalInterfaceIPAddress extends OSPFSubTLV {
 		this.tlv_bytes=new byte[this.getTotalTLVLength()];
 		encodeHeader();
 		int offset=4;
-		for (int i=0;i<localInterfaceIPAddressList.size();++i) {
-			System.arraycopy(this.localInterfaceIPAddressList.get(i).getAddress(),0, this.tlv_bytes, offset, 4);
+		for (Inet4Address localInterfaceIPAddress : localInterfaceIPAddressList) {
+			System.arraycopy(localInterfaceIPAddress.getAddress(),0, this.tlv_bytes, offset, 4);
 			offset=offset+4;
 		}
 	}
@@ -94,8 +94,10 @@ public class LocalInterfaceIPAddress extends OSPFSubTLV {
 	
 	public String toString(){
 		String ret="";
-		for (int i=0;i<localInterfaceIPAddressList.size();++i) {
-			ret="localInterfaceIPAddress["+i+"]: "+localInterfaceIPAddressList.get(i).toString();
+		int i=0;
+		for (Inet4Address localInterfaceIPAddress : localInterfaceIPAddressList) {
+			ret="localInterfaceIPAddress["+i+"]: "+localInterfaceIPAddress.toString();
+			++i;
 		} 
 		return ret;
 		
@@ -51,8 +51,8 @@ public class RemoteInterfaceIPAddress extends OSPFSubTLV {
 		this.tlv_bytes=new byte[this.getTotalTLVLength()];
 		encodeHeader();
 		int offset=4;
-		for (int i=0;i<remoteInterfaceIPAddressList.size();++i) {
-			System.arraycopy(this.remoteInterfaceIPAddressList.get(i).getAddress(),0, this.tlv_bytes, offset, 4);
+		for (Inet4Address remoteInterfaceIPAddress : remoteInterfaceIPAddressList) {
+			System.arraycopy(remoteInterfaceIPAddress.getAddress(),0, this.tlv_bytes, offset, 4);
 			offset=offset+4;
 		}
 	}
@@ -92,8 +92,10 @@ public class RemoteInterfaceIPAddress extends OSPFSubTLV {
 	
 	public String toString(){
 		String ret="";
-		for (int i=0;i<remoteInterfaceIPAddressList.size();++i) {
-			ret="remoteInterfaceIPAddress["+i+"]: "+remoteInterfaceIPAddressList.get(i).toString();
+		int i=0;
+		for (Inet4Address remoteInterfaceIPAddress : remoteInterfaceIPAddressList) {
+			ret="remoteInterfaceIPAddress["+i+"]: "+remoteInterfaceIPAddress.toString();
+			++i;
 		} 
 		return ret;
 		
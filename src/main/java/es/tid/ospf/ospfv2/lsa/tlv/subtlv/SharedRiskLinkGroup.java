@@ -66,8 +66,8 @@ public class SharedRiskLinkGroup extends OSPFSubTLV {
 		this.tlv_bytes=new byte[this.getTotalTLVLength()];
 		encodeHeader();
 		int offset=4;
-		for (int i=0;i<sharedRiskLinkGroupValues.size();++i) {
-			System.arraycopy(this.sharedRiskLinkGroupValues.get(i).getAddress(),0, this.tlv_bytes, offset, 4);
+		for (Inet4Address sharedRiskLinkGroupValue : sharedRiskLinkGroupValues) {
+			System.arraycopy(sharedRiskLinkGroupValue.getAddress(),0, this.tlv_bytes, offset, 4);
 			offset=offset+4;
 		}
 	}
@@ -0,0 +1,442 @@
+package es.tid.pce.pcep;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.pce.pcep.messages.PCEPClose;
+import es.tid.pce.pcep.messages.PCEPError;
+import es.tid.pce.pcep.messages.PCEPInitiate;
+import es.tid.pce.pcep.messages.PCEPKeepalive;
+import es.tid.pce.pcep.messages.PCEPMessage;
+import es.tid.pce.pcep.messages.PCEPMessageTypes;
+import es.tid.pce.pcep.messages.PCEPMonRep;
+import es.tid.pce.pcep.messages.PCEPMonReq;
+import es.tid.pce.pcep.messages.PCEPNotification;
+import es.tid.pce.pcep.messages.PCEPOpen;
+import es.tid.pce.pcep.messages.PCEPReport;
+import es.tid.pce.pcep.messages.PCEPRequest;
+import es.tid.pce.pcep.messages.PCEPResponse;
+import es.tid.pce.pcep.messages.PCEPUpdate;
+import es.tid.pce.pcep.objects.AssociationIPv4;
+import es.tid.pce.pcep.objects.AssociationIPv6;
+import es.tid.pce.pcep.objects.BandwidthExistingLSP;
+import es.tid.pce.pcep.objects.BandwidthExistingLSPGeneralizedBandwidth;
+import es.tid.pce.pcep.objects.BandwidthRequested;
+import es.tid.pce.pcep.objects.BandwidthRequestedGeneralizedBandwidth;
+import es.tid.pce.pcep.objects.BandwidthUtilization;
+import es.tid.pce.pcep.objects.BitmapLabelSet;
+import es.tid.pce.pcep.objects.Close;
+import es.tid.pce.pcep.objects.EndPointDataPathID;
+import es.tid.pce.pcep.objects.EndPointsIPv4;
+import es.tid.pce.pcep.objects.EndPointsIPv6;
+import es.tid.pce.pcep.objects.EndPointsUnnumberedIntf;
+import es.tid.pce.pcep.objects.ExcludeRouteObject;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.GeneralizedEndPoints;
+import es.tid.pce.pcep.objects.IncludeRouteObject;
+import es.tid.pce.pcep.objects.InterLayer;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.LSPA;
+import es.tid.pce.pcep.objects.LabelSetInclusiveList;
+import es.tid.pce.pcep.objects.LoadBalancing;
+import es.tid.pce.pcep.objects.MalformedPCEPObjectException;
+import es.tid.pce.pcep.objects.Metric;
+import es.tid.pce.pcep.objects.Monitoring;
+import es.tid.pce.pcep.objects.NoPath;
+import es.tid.pce.pcep.objects.Notification;
+import es.tid.pce.pcep.objects.OPEN;
+import es.tid.pce.pcep.objects.ObjectParameters;
+import es.tid.pce.pcep.objects.ObjectiveFunction;
+import es.tid.pce.pcep.objects.P2MPEndPointsIPv4;
+import es.tid.pce.pcep.objects.P2MPGeneralizedEndPoints;
+import es.tid.pce.pcep.objects.P2PGeneralizedEndPoints;
+import es.tid.pce.pcep.objects.PCEPErrorObject;
+import es.tid.pce.pcep.objects.PCEPObject;
+import es.tid.pce.pcep.objects.PccReqId;
+import es.tid.pce.pcep.objects.PceIdIPv4;
+import es.tid.pce.pcep.objects.ProcTime;
+import es.tid.pce.pcep.objects.ReportedRouteObject;
+import es.tid.pce.pcep.objects.ReqAdapCap;
+import es.tid.pce.pcep.objects.RequestParameters;
+import es.tid.pce.pcep.objects.Reservation;
+import es.tid.pce.pcep.objects.ReservationConf;
+import es.tid.pce.pcep.objects.SRP;
+import es.tid.pce.pcep.objects.ServerIndication;
+import es.tid.pce.pcep.objects.SuggestedLabel;
+import es.tid.pce.pcep.objects.Svec;
+import es.tid.pce.pcep.objects.SwitchLayer;
+import es.tid.pce.pcep.objects.UnknownObject;
+import es.tid.pce.pcep.objects.WavelengthAssignementObject;
+import es.tid.pce.pcep.objects.tlvs.ASSOCTypeListTLV;
+import es.tid.pce.pcep.objects.tlvs.DomainIDTLV;
+import es.tid.pce.pcep.objects.tlvs.EmptyDomainIDTLV;
+import es.tid.pce.pcep.objects.tlvs.ExtendedAssociationIDTLV;
+import es.tid.pce.pcep.objects.tlvs.GMPLSCapabilityTLV;
+import es.tid.pce.pcep.objects.tlvs.GlobalAssociationSourceTLV;
+import es.tid.pce.pcep.objects.tlvs.IPv4LSPIdentifiersTLV;
+import es.tid.pce.pcep.objects.tlvs.LSPDatabaseVersionTLV;
+import es.tid.pce.pcep.objects.tlvs.LSPErrorCodeTLV;
+import es.tid.pce.pcep.objects.tlvs.MaxRequestTimeTLV;
+import es.tid.pce.pcep.objects.tlvs.NoPathTLV;
+import es.tid.pce.pcep.objects.tlvs.OF_LIST_TLV;
+import es.tid.pce.pcep.objects.tlvs.OSPFDomainIDTLV;
+import es.tid.pce.pcep.objects.tlvs.OpConfAssocRangeTLV;
+import es.tid.pce.pcep.objects.tlvs.OverloadDurationTLV;
+import es.tid.pce.pcep.objects.tlvs.PCEPTLV;
+import es.tid.pce.pcep.objects.tlvs.PCE_ID_TLV;
+import es.tid.pce.pcep.objects.tlvs.PCE_Redundancy_Group_Identifier_TLV;
+import es.tid.pce.pcep.objects.tlvs.PathReservationTLV;
+import es.tid.pce.pcep.objects.tlvs.PathSetupCapabilityTLV;
+import es.tid.pce.pcep.objects.tlvs.PathSetupTLV;
+import es.tid.pce.pcep.objects.tlvs.RSVPErrorSpecTLV;
+import es.tid.pce.pcep.objects.tlvs.ReqMissingTLV;
+import es.tid.pce.pcep.objects.tlvs.RequestInfoTLV;
+import es.tid.pce.pcep.objects.tlvs.ReservationIDTLV;
+import es.tid.pce.pcep.objects.tlvs.SRCapabilityTLV;
+import es.tid.pce.pcep.objects.tlvs.SRPolicyCandidatePathIdentifiersTLV;
+import es.tid.pce.pcep.objects.tlvs.SRPolicyCandidatePathNameTLV;
+import es.tid.pce.pcep.objects.tlvs.SRPolicyCandidatePathPreferenceTLV;
+import es.tid.pce.pcep.objects.tlvs.SRPolicyName;
+import es.tid.pce.pcep.objects.tlvs.SpeakerEntityIdentifierTLV;
+import es.tid.pce.pcep.objects.tlvs.StatefulCapabilityTLV;
+import es.tid.pce.pcep.objects.tlvs.SymbolicPathNameTLV;
+import es.tid.pce.pcep.objects.tlvs.UnknownTLV;
+
+/**
+ * Decoders of the PCEP messages, objects and TLVs, indexed by message type,
+ * by object class and type, and by TLV type. The lookups are array
+ * accesses.
+ *
+ * A new registry has the decoders of all the messages, objects and TLVs of
+ * the library. Applications add those of vendor objects and TLVs, or
+ * replace the existing ones, with the register methods. The objects and
+ * TLVs without decoder are kept as {@link UnknownObject} and
+ * {@link UnknownTLV}, so they are encoded again as they were received.
+ *
+ * The constructs and objects of the library decode the objects and TLVs
+ * they do not know with the {@link #getDefault() default registry}, so the
+ * vendor decoders should be registered there, before the sessions start:
+ *
+ * <pre>
+ * PCEPDecoderRegistry.getDefault().registerObject(VENDOR_CLASS, 1, VendorObject::new);
+ * ...
+ * PCEPMessage msg = PCEPDecoderRegistry.getDefault().decodeMessage(bytes);
+ * </pre>
+ *
+ * The registrations are not synchronized with the decoding.
+ */
+public class PCEPDecoderRegistry {
+
+	private static final Logger log = LoggerFactory.getLogger("PCEPParser");
+
+	/**
+	 * Decodes a message
+	 */
+	public interface MessageDecoder {
+		/**
+		 * @param bytes bytes of the message, owned by the message
+		 * @return the message
+		 * @throws PCEPProtocolViolationException if the message is malformed
+		 */
+		public PCEPMessage decode(byte[] bytes) throws PCEPProtocolViolationException;
+	}
+
+	/**
+	 * Decodes an object
+	 */
+	public interface ObjectDecoder {
+		/**
+		 * @param bytes buffer containing the object
+		 * @param offset position of the object in the buffer
+		 * @return the object
+		 * @throws MalformedPCEPObjectException if the object is malformed
+		 */
+		public PCEPObject decode(byte[] bytes, int offset) throws MalformedPCEPObjectException;
+	}
+
+	/**
+	 * Decodes a TLV
+	 */
+	public interface TLVDecoder {
+		/**
+		 * @param bytes buffer containing the TLV
+		 * @param offset position of the TLV in the buffer
+		 * @return the TLV
+		 * @throws MalformedPCEPObjectException if the TLV is malformed
+		 */
+		public PCEPTLV decode(byte[] bytes, int offset) throws MalformedPCEPObjectException;
+	}
+
+	private static final PCEPDecoderRegistry DEFAULT = new PCEPDecoderRegistry();
+
+	/**
+	 * Object Type is a 4-bit field
+	 */
+	private static final int OBJECT_TYPE_BITS = 4;
+
+	/**
+	 * The TLV decoders are in pages of 256 types, allocated when needed
+	 */
+	private static final int TLV_PAGE_BITS = 8;
+
+	private final MessageDecoder[] messages = new MessageDecoder[256];
+
+	private final ObjectDecoder[] objects = new ObjectDecoder[256 << OBJECT_TYPE_BITS];
+
+	private final TLVDecoder[][] tlvs = new TLVDecoder[1 << (16 - TLV_PAGE_BITS)][];
+
+	/**
+	 * Registry with the decoders of the library
+	 */
+	public PCEPDecoderRegistry() {
+		registerMessages();
+		registerObjects();
+		registerTLVs();
+	}
+
+	/**
+	 * @return the registry used by the library
+	 */
+	public static PCEPDecoderRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	private void registerMessages() {
+		registerMessage(PCEPMessageTypes.MESSAGE_OPEN, PCEPOpen::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_KEEPALIVE, PCEPKeepalive::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_PCREQ, PCEPRequest::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_PCREP, PCEPResponse::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_NOTIFY, PCEPNotification::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_ERROR, PCEPError::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_CLOSE, PCEPClose::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_PCMONREQ, PCEPMonReq::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_PCMONREP, PCEPMonRep::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_REPORT, PCEPReport::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_UPDATE, PCEPUpdate::new);
+		registerMessage(PCEPMessageTypes.MESSAGE_INITIATE, PCEPInitiate::new);
+	}
+
+	private void registerObjects() {
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_OPEN, ObjectParameters.PCEP_OBJECT_TYPE_OPEN, OPEN::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_RP, ObjectParameters.PCEP_OBJECT_TYPE_RP, RequestParameters::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_NOPATH, ObjectParameters.PCEP_OBJECT_TYPE_NOPATH, NoPath::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_ENDPOINTS, ObjectParameters.PCEP_OBJECT_TYPE_ENDPOINTS_IPV4, EndPointsIPv4::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_ENDPOINTS, ObjectParameters.PCEP_OBJECT_TYPE_ENDPOINTS_IPV6, EndPointsIPv6::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_ENDPOINTS, ObjectParameters.PCEP_OBJECT_TYPE_P2MP_ENDPOINTS_IPV4, P2MPEndPointsIPv4::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_ENDPOINTS, ObjectParameters.PCEP_OBJECT_TYPE_GENERALIZED_ENDPOINTS, (bytes, offset) -> {
+			try {
+				if (GeneralizedEndPoints.getGeneralizedEndPointsType(bytes, offset) == 1) {
+					return new P2PGeneralizedEndPoints(bytes, offset);
+				}
+				return new P2MPGeneralizedEndPoints(bytes, offset);
+			} catch (PCEPProtocolViolationException e) {
+				throw new MalformedPCEPObjectException("Malformed GENERALIZED END POINTS");
+			}
+		});
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_ENDPOINTS, ObjectParameters.PCEP_OBJECT_TYPE_ENDPOINTS_UNNUMBERED, EndPointsUnnumberedIntf::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_ENDPOINTS, ObjectParameters.PCEP_OBJECT_TYPE_ENDPOINTS_DATAPATH_ID, (bytes, offset) -> {
+			try {
+				return new EndPointDataPathID(bytes, offset);
+			} catch (PCEPProtocolViolationException e) {
+				throw new MalformedPCEPObjectException("Malformed ENDPOINTS DATAPATH ID");
+			}
+		});
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_BANDWIDTH, ObjectParameters.PCEP_OBJECT_TYPE_BANDWIDTH_REQUEST, BandwidthRequested::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_BANDWIDTH, ObjectParameters.PCEP_OBJECT_TYPE_BANDWIDTH_EXISTING_TE_LSP, BandwidthExistingLSP::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_BANDWIDTH, ObjectParameters.PCEP_OBJECT_TYPE_BANDWIDTH_GEN_BW_REQUEST, BandwidthRequestedGeneralizedBandwidth::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_BANDWIDTH, ObjectParameters.PCEP_OBJECT_TYPE_BANDWIDTH_GEN_BW_EXISTING_TE_LSP, BandwidthExistingLSPGeneralizedBandwidth::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_METRIC, ObjectParameters.PCEP_OBJECT_TYPE_METRIC, Metric::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_ERO, ObjectParameters.PCEP_OBJECT_TYPE_ERO, ExplicitRouteObject::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_RRO, ObjectParameters.PCEP_OBJECT_TYPE_RRO, ReportedRouteObject::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_LSPA, ObjectParameters.PCEP_OBJECT_TYPE_LSPA, LSPA::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_IRO, ObjectParameters.PCEP_OBJECT_TYPE_IRO, IncludeRouteObject::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_SVEC, ObjectParameters.PCEP_OBJECT_TYPE_SVEC, Svec::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_NOTIFICATION, ObjectParameters.PCEP_OBJECT_TYPE_NOTIFICATION, Notification::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_PCEPERROR, ObjectParameters.PCEP_OBJECT_TYPE_PCEPERROR, PCEPErrorObject::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_LOADBALANCING, ObjectParameters.PCEP_OBJECT_TYPE_LOADBALANCING, LoadBalancing::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_CLOSE, ObjectParameters.PCEP_OBJECT_TYPE_CLOSE, Close::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_XRO, ObjectParameters.PCEP_OBJECT_TYPE_XRO, ExcludeRouteObject::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_MONITORING, ObjectParameters.PCEP_OBJECT_TYPE_MONITORING, Monitoring::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_PCC_REQ_ID, ObjectParameters.PCEP_OBJECT_TYPE_PCC_REQ_ID_IPV4, PccReqId::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_OBJECTIVE_FUNCTION, ObjectParameters.PCEP_OBJECT_TYPE_OBJECTIVE_FUNCTION, ObjectiveFunction::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_PCE_ID, ObjectParameters.PCEP_OBJECT_TYPE_PCE_ID_IPV4, PceIdIPv4::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_PROC_TIME, ObjectParameters.PCEP_OBJECT_TYPE_PROC_TIME, ProcTime::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_LSP, ObjectParameters.PCEP_OBJECT_TYPE_LSP, LSP::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_SRP, ObjectParameters.PCEP_OBJECT_TYPE_SRP, SRP::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_BU, ObjectParameters.PCEP_OBJECT_TYPE_BU, BandwidthUtilization::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_INTER_LAYER, ObjectParameters.PCEP_OBJECT_TYPE_INTER_LAYER, InterLayer::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_SWITCH_LAYER, ObjectParameters.PCEP_OBJECT_TYPE_SWITCH_LAYER, SwitchLayer::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_REQ_ADAP_CAP, ObjectParameters.PCEP_OBJECT_TYPE_REQ_ADAP_CAP, ReqAdapCap::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_SERVER_INDICATION, ObjectParameters.PCEP_OBJECT_TYPE_SERVER_INDICATION, ServerIndication::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_ASSOCIATION, ObjectParameters.PCEP_OBJECT_TYPE__ASSOCIATION_IPV4, AssociationIPv4::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_ASSOCIATION, ObjectParameters.PCEP_OBJECT_TYPE__ASSOCIATION_IPV6, AssociationIPv6::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_WAVELENGTH_ASSIGNEMENT, ObjectParameters.PCEP_OBJECT_TYPE_WAVELENGTH_ASSIGNEMENT, WavelengthAssignementObject::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_SUGGESTED_LABEL, ObjectParameters.PCEP_OBJECT_TYPE_SUGGESTED_LABEL, SuggestedLabel::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_LABEL_SET, ObjectParameters.PCEP_OBJECT_TYPE_LABEL_SET_BITMAP, BitmapLabelSet::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_LABEL_SET, ObjectParameters.PCEP_OBJECT_TYPE_LABEL_SET_INCLUSIVE, LabelSetInclusiveList::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_RESERVATION, ObjectParameters.PCEP_OBJECT_TYPE_RESERVATION, Reservation::new);
+		registerObject(ObjectParameters.PCEP_OBJECT_CLASS_RESERVATION_CONF, ObjectParameters.PCEP_OBJECT_TYPE_RESERVATION_CONF, ReservationConf::new);
+	}
+
+	private void registerTLVs() {
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_NO_PATH_VECTOR, NoPathTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_OVERLOAD_DURATION, OverloadDurationTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_REQ_MISSING_TLV, ReqMissingTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_OF_LIST_TLV, OF_LIST_TLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_DOMAIN_ID_TLV, (bytes, offset) -> {
+			int domainType = DomainIDTLV.getDomainType(bytes, offset);
+			if (domainType == 0) {
+				return new EmptyDomainIDTLV(bytes, offset);
+			} else if (domainType == 3) {
+				return new OSPFDomainIDTLV(bytes, offset);
+			}
+			return new UnknownTLV(bytes, offset);
+		});
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_STATEFUL_CAPABILITY, StatefulCapabilityTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_SYMBOLIC_PATH_NAME, SymbolicPathNameTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_IPV4_LSP_IDENTIFIERS, IPv4LSPIdentifiersTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_LSP_ERROR_CODE, LSPErrorCodeTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_RSVP_ERROR_SPEC, RSVPErrorSpecTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_LSP_DATABASE_VERSION, LSPDatabaseVersionTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_SPEAKER_ENTITY_ID, SpeakerEntityIdentifierTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_SR_CAPABILITY, SRCapabilityTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_PATH_SETUP, PathSetupTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_OPERATOR_CONF_ASSOCIATION_RANGE, OpConfAssocRangeTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_GLOBAL_ASSOCIATION_SOURCE, GlobalAssociationSourceTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_EXTENDED_ASSOCIATION_ID, ExtendedAssociationIDTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_PATH_SETUP_TYPE_CAPABILITY, PathSetupCapabilityTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_ASSOC_TYPE_LIST, ASSOCTypeListTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_GMPLS_CAPABILITY, GMPLSCapabilityTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_SRPOLICY_POL_NAME, SRPolicyName::new);
+		registerTLV(ObjectParameters.PCEP_TLV_SRPOLICY_CANDIDATE_PATH_IDS, SRPolicyCandidatePathIdentifiersTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_SRPOLICY_CANDIDATE_PATH_NAME, SRPolicyCandidatePathNameTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_SRPOLICY_CANDIDATE_PATH_PREFERENCE, SRPolicyCandidatePathPreferenceTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_PCE_REDUNDANCY_GROUP_INDENTIFIER, PCE_Redundancy_Group_Identifier_TLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_MAX_REQ_TIME, MaxRequestTimeTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_REQUEST_INFO, RequestInfoTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_RESERVATION_ID, ReservationIDTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_TYPE_PATH_RESERVATION, PathReservationTLV::new);
+		registerTLV(ObjectParameters.PCEP_TLV_PCE_ID_TLV, PCE_ID_TLV::new);
+	}
+
+	/**
+	 * @param type message type
+	 * @param decoder decoder of the messages of the type, or null to remove it
+	 */
+	public void registerMessage(int type, MessageDecoder decoder) {
+		messages[type & 0xFF] = decoder;
+	}
+
+	/**
+	 * @param objectClass Object-Class
+	 * @param objectType Object-Type
+	 * @param decoder decoder of the objects of the class and type, or null to remove it
+	 */
+	public void registerObject(int objectClass, int objectType, ObjectDecoder decoder) {
+		objects[objectIndex(objectClass, objectType)] = decoder;
+	}
+
+	/**
+	 * @param type TLV type
+	 * @param decoder decoder of the TLVs of the type, or null to remove it
+	 */
+	public void registerTLV(int type, TLVDecoder decoder) {
+		int page = (type & 0xFFFF) >>> TLV_PAGE_BITS;
+		if (tlvs[page] == null) {
+			tlvs[page] = new TLVDecoder[1 << TLV_PAGE_BITS];
+		}
+		tlvs[page][type & ((1 << TLV_PAGE_BITS) - 1)] = decoder;
+	}
+
+	private static int objectIndex(int objectClass, int objectType) {
+		return ((objectClass & 0xFF) << OBJECT_TYPE_BITS) | (objectType & ((1 << OBJECT_TYPE_BITS) - 1));
+	}
+
+	/**
+	 * @return the decoder of the message type, or null
+	 */
+	public MessageDecoder getMessageDecoder(int type) {
+		return messages[type & 0xFF];
+	}
+
+	/**
+	 * @return the decoder of the object class and type, or null
+	 */
+	public ObjectDecoder getObjectDecoder(int objectClass, int objectType) {
+		return objects[objectIndex(objectClass, objectType)];
+	}
+
+	/**
+	 * @return the decoder of the TLV type, or null
+	 */
+	public TLVDecoder getTLVDecoder(int type) {
+		TLVDecoder[] page = tlvs[(type & 0xFFFF) >>> TLV_PAGE_BITS];
+		return page == null ? null : page[type & ((1 << TLV_PAGE_BITS) - 1)];
+	}
+
+	/**
+	 * Decodes a message of the type of its header
+	 * @param bytes bytes of the message, owned by the message
+	 * @return the message, or null if there is no decoder for its type
+	 * @throws PCEPProtocolViolationException if the message is malformed
+	 */
+	public PCEPMessage decodeMessage(byte[] bytes) throws PCEPProtocolViolationException {
+		return decodeMessage(PCEPMessage.getMessageType(bytes), bytes);
+	}
+
+	/**
+	 * @param type message type
+	 * @param bytes bytes of the message, owned by the message
+	 * @return the message, or null if there is no decoder for the type
+	 * @throws PCEPProtocolViolationException if the message is malformed
+	 */
+	public PCEPMessage decodeMessage(int type, byte[] bytes) throws PCEPProtocolViolationException {
+		MessageDecoder decoder = messages[type & 0xFF];
+		if (decoder == null) {
+			log.debug("No decoder for PCEP message type " + type);
+			return null;
+		}
+		return decoder.decode(bytes);
+	}
+
+	/**
+	 * Decodes an object with the decoder of its class and type
+	 * @param bytes buffer containing the object
+	 * @param offset position of the object in the buffer
+	 * @return the object, an {@link UnknownObject} if there is no decoder for it
+	 * @throws MalformedPCEPObjectException if the object is malformed
+	 */
+	public PCEPObject decodeObject(byte[] bytes, int offset) throws MalformedPCEPObjectException {
+		if (offset + 4 > bytes.length) {
+			throw new MalformedPCEPObjectException("Truncated object header");
+		}
+		int length = PCEPObject.getObjectLength(bytes, offset);
+		if (length < 4 || offset + length > bytes.length) {
+			throw new MalformedPCEPObjectException("Bad object length " + length);
+		}
+		ObjectDecoder decoder = objects[objectIndex(PCEPObject.getObjectClass(bytes, offset), PCEPObject.getObjectType(bytes, offset))];
+		if (decoder == null) {
+			return new UnknownObject(bytes, offset);
+		}
+		return decoder.decode(bytes, offset);
+	}
+
+	/**
+	 * Decodes a TLV with the decoder of its type
+	 * @param bytes buffer containing the TLV
+	 * @param offset position of the TLV in the buffer
+	 * @return the TLV, an {@link UnknownTLV} if there is no decoder for it
+	 * @throws MalformedPCEPObjectException if the TLV is malformed
+	 */
+	public PCEPTLV decodeTLV(byte[] bytes, int offset) throws MalformedPCEPObjectException {
+		if (offset + 4 > bytes.length || offset + PCEPTLV.getTotalTLVLength(bytes, offset) > bytes.length) {
+			throw new MalformedPCEPObjectException("Truncated TLV");
+		}
+		TLVDecoder decoder = getTLVDecoder(PCEPTLV.getType(bytes, offset));
+		if (decoder == null) {
+			return new UnknownTLV(bytes, offset);
+		}
+		return decoder.decode(bytes, offset);
+	}
+
+}
@@ -11,6 +11,32 @@ public interface PCEPElement {
 	
 	public void encode() throws PCEPProtocolViolationException;
 	
+	/**
+	 * Computes the encoded length of the element without building its bytes.
+	 * It is the first step of the single pass encoding, and must be called
+	 * before {@link #encodeTo(byte[], int)}. Elements that do not know how to
+	 * do it simply encode themselves.
+	 * @return length of the element in bytes
+	 * @throws PCEPProtocolViolationException Exception when the element is not well built
+	 */
+	public default int encodedLength() throws PCEPProtocolViolationException {
+		encode();
+		return getLength();
+	}
+	
+	/**
+	 * Writes the element, previously sized with {@link #encodedLength()}, 
+	 * directly in the buffer.
+	 * @param buf buffer where the element is written, large enough to hold it
+	 * @param offset position of the buffer where the element starts
+	 * @return position of the buffer after the element
+	 * @throws PCEPProtocolViolationException Exception when the element is not well built
+	 */
+	public default int encodeTo(byte[] buf, int offset) throws PCEPProtocolViolationException {
+		System.arraycopy(getBytes(), 0, buf, offset, getLength());
+		return offset+getLength();
+	}
+	
 	
 	
 	public byte[] getBytes();
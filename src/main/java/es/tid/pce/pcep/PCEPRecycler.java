@@ -0,0 +1,108 @@
+package es.tid.pce.pcep;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+
+import es.tid.pce.pcep.constructs.StateReport;
+
+/**
+ * Per-thread pool of decoded PCEP constructs, so that the decode loop of a
+ * session reuses the objects of the messages it has already processed
+ * instead of allocating new ones.
+ *
+ * A recycled StateReport keeps its SRP, LSP, ERO (and its SR and IPv4
+ * subobjects), BANDWIDTH and METRIC objects, which are decoded into again
+ * by {@link #decodeStateReport(byte[], int)}. Nothing that has been recycled
+ * may be used afterwards. The constructors of the messages, constructs and
+ * objects never use the recycler.
+ *
+ * <pre>
+ * PCEPReport report = new PCEPReport();
+ * while (...) {
+ *     report.decodeInto(bytes);
+ *     ...
+ * }
+ * </pre>
+ */
+public final class PCEPRecycler {
+
+	public static final int DEFAULT_MAX_POOL_SIZE = 1024;
+
+	private static final ThreadLocal<PCEPRecycler> RECYCLER = ThreadLocal.withInitial(PCEPRecycler::new);
+
+	private final ArrayDeque<StateReport> stateReports = new ArrayDeque<StateReport>();
+
+	private int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+
+	private PCEPRecycler() {
+	}
+
+	/**
+	 * @return the recycler of the current thread
+	 */
+	public static PCEPRecycler get() {
+		return RECYCLER.get();
+	}
+
+	/**
+	 * Decodes a state report, reusing a recycled one if there is any.
+	 * @param bytes bytes
+	 * @param offset position at which the state report starts
+	 * @return the decoded state report
+	 * @throws PCEPProtocolViolationException Exception when the state report is malformed
+	 */
+	public StateReport decodeStateReport(byte[] bytes, int offset) throws PCEPProtocolViolationException {
+		StateReport stateReport = stateReports.poll();
+		if (stateReport == null) {
+			return new StateReport(bytes, offset);
+		}
+		try {
+			stateReport.decodeInto(bytes, offset);
+		} catch (PCEPProtocolViolationException e) {
+			recycle(stateReport);
+			throw e;
+		}
+		return stateReport;
+	}
+
+	/**
+	 * Gives back a state report to be reused. It is dropped if the pool is full.
+	 * @param stateReport state report that is not used anymore
+	 */
+	public void recycle(StateReport stateReport) {
+		if (stateReports.size() < maxPoolSize) {
+			stateReport.reset();
+			stateReports.push(stateReport);
+		}
+	}
+
+	/**
+	 * Gives back all the state reports of a list and empties it.
+	 * @param stateReportList state reports that are not used anymore
+	 */
+	public void recycle(Collection<StateReport> stateReportList) {
+		for (StateReport stateReport : stateReportList) {
+			recycle(stateReport);
+		}
+		stateReportList.clear();
+	}
+
+	/**
+	 * @return number of state reports waiting to be reused
+	 */
+	public int getPoolSize() {
+		return stateReports.size();
+	}
+
+	public int getMaxPoolSize() {
+		return maxPoolSize;
+	}
+
+	public void setMaxPoolSize(int maxPoolSize) {
+		this.maxPoolSize = maxPoolSize;
+		while (stateReports.size() > maxPoolSize) {
+			stateReports.poll();
+		}
+	}
+
+}
@@ -30,9 +30,9 @@ public class EndPointAndRestrictions extends PCEPConstruct{
 		endPoint.encode();
 		len=len+endPoint.getLength();
 		if ((EndpointRestrictionList!=null)&&(EndpointRestrictionList.size()>0)){
-			for (int i=0;i<EndpointRestrictionList.size();++i){
-				(EndpointRestrictionList.get(i)).encode();
-				len=len+(EndpointRestrictionList.get(i)).getLength();
+			for (EndpointRestriction endpointRestriction : EndpointRestrictionList){
+				endpointRestriction.encode();
+				len=len+endpointRestriction.getLength();
 			}
 		}
 		
@@ -44,9 +44,9 @@ public class EndPointAndRestrictions extends PCEPConstruct{
 		offset=offset+endPoint.getLength();
 		
 		if (EndpointRestrictionList!=null){
-			for (int i=0;i<EndpointRestrictionList.size();++i){
-				System.arraycopy(EndpointRestrictionList.get(i).getBytes(), 0, bytes, offset, EndpointRestrictionList.get(i).getLength());
-				offset=offset+EndpointRestrictionList.get(i).getLength();
+			for (EndpointRestriction endpointRestriction : EndpointRestrictionList){
+				System.arraycopy(endpointRestriction.getBytes(), 0, bytes, offset, endpointRestriction.getLength());
+				offset=offset+endpointRestriction.getLength();
 			}
 		}
 	}
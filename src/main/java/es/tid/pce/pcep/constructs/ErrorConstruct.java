@@ -47,25 +47,25 @@ public class ErrorConstruct extends PCEPConstruct {
 	public void encode() throws PCEPProtocolViolationException {
 		int len=0;
 		
-		for (int i=0;i<requestIdList.size();++i){
-			(requestIdList.get(i)).encode();
-			len=len+(requestIdList.get(i)).getLength();
+		for (RequestParameters requestParameters : requestIdList){
+			requestParameters.encode();
+			len=len+requestParameters.getLength();
 		}
-		for (int i=0;i<errorObjList.size();++i){
-			(errorObjList.get(i)).encode();
-			len=len+(errorObjList.get(i)).getLength();
+		for (PCEPErrorObject pcepErrorObject : errorObjList){
+			pcepErrorObject.encode();
+			len=len+pcepErrorObject.getLength();
 		}
 		this.setLength(len);
 		bytes=new byte[len];
 		int offset=0;
 		
-		for (int i=0;i<requestIdList.size();++i){
-			System.arraycopy(requestIdList.get(i).getBytes(), 0, bytes, offset, requestIdList.get(i).getLength());
-			offset=offset+requestIdList.get(i).getLength();
+		for (RequestParameters requestParameters : requestIdList){
+			System.arraycopy(requestParameters.getBytes(), 0, bytes, offset, requestParameters.getLength());
+			offset=offset+requestParameters.getLength();
 		}
-		for (int i=0;i<errorObjList.size();++i){
-			System.arraycopy(errorObjList.get(i).getBytes(), 0, bytes, offset, errorObjList.get(i).getLength());
-			offset=offset+errorObjList.get(i).getLength();
+		for (PCEPErrorObject pcepErrorObject : errorObjList){
+			System.arraycopy(pcepErrorObject.getBytes(), 0, bytes, offset, pcepErrorObject.getLength());
+			offset=offset+pcepErrorObject.getLength();
 		}
 	}
 
@@ -73,9 +73,9 @@ public class LSPInstantationRequest extends PCEPConstruct {
 			len = len + bandwidth.getLength();
 		}
 		if (metricList != null) {
-			for (int i = 0; i < metricList.size(); ++i) {
-				(metricList.get(i)).encode();
-				len = len + (metricList.get(i)).getLength();
+			for (Metric metric : metricList) {
+				metric.encode();
+				len = len + metric.getLength();
 			}
 		}
 
@@ -97,9 +97,9 @@ public class LSPInstantationRequest extends PCEPConstruct {
 			offset = offset + bandwidth.getLength();
 		}
 		if (metricList != null) {
-			for (int i = 0; i < metricList.size(); ++i) {
-				System.arraycopy(metricList.get(i).getBytes(), 0, bytes, offset, metricList.get(i).getLength());
-				offset = offset + metricList.get(i).getLength();
+			for (Metric metric : metricList) {
+				System.arraycopy(metric.getBytes(), 0, bytes, offset, metric.getLength());
+				offset = offset + metric.getLength();
 			}
 		}
 	}
@@ -312,8 +312,8 @@ public class LSPInstantationRequest extends PCEPConstruct {
 			sb.append(bandwidth.toString());
 		}
 		if (metricList != null) {
-			for (int i = 0; i < metricList.size(); ++i) {
-				sb.append(metricList.get(i).toString());
+			for (Metric metric : metricList) {
+				sb.append(metric.toString());
 			}
 		}
 		return sb.toString();
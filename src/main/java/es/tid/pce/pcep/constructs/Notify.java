@@ -52,25 +52,25 @@ public class Notify extends PCEPConstruct {
 			throw new PCEPProtocolViolationException();
 		}
 		int len=0;
-		for (int i=0;i<requestIdList.size();++i){
-			(requestIdList.get(i)).encode();
-			len=len+(requestIdList.get(i)).getLength();
+		for (RequestParameters requestParameters : requestIdList){
+			requestParameters.encode();
+			len=len+requestParameters.getLength();
 		}
-		for (int i=0;i<notificationList.size();++i){
-			(notificationList.get(i)).encode();
-			len=len+(notificationList.get(i)).getLength();
+		for (Notification notification : notificationList){
+			notification.encode();
+			len=len+notification.getLength();
 		}
 		this.setLength(len);
 		bytes=new byte[len];
 		int offset=0;
 		
-		for (int i=0;i<requestIdList.size();++i){
-			System.arraycopy(requestIdList.get(i).getBytes(), 0, bytes, offset, requestIdList.get(i).getLength());
-			offset=offset+requestIdList.get(i).getLength();
+		for (RequestParameters requestParameters : requestIdList){
+			System.arraycopy(requestParameters.getBytes(), 0, bytes, offset, requestParameters.getLength());
+			offset=offset+requestParameters.getLength();
 		}
-		for (int i=0;i<notificationList.size();++i){
-			System.arraycopy(notificationList.get(i).getBytes(), 0, bytes, offset, notificationList.get(i).getLength());
-			offset=offset+notificationList.get(i).getLength();
+		for (Notification notification : notificationList){
+			System.arraycopy(notification.getBytes(), 0, bytes, offset, notification.getLength());
+			offset=offset+notification.getLength();
 		}
 	}
 
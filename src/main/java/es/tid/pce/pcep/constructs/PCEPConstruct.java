@@ -2,7 +2,11 @@ package es.tid.pce.pcep.constructs;
 
 import java.util.Arrays;
 
+import es.tid.pce.pcep.PCEPDecoderRegistry;
 import es.tid.pce.pcep.PCEPElement;
+import es.tid.pce.pcep.PCEPProtocolViolationException;
+import es.tid.pce.pcep.objects.MalformedPCEPObjectException;
+import es.tid.pce.pcep.objects.PCEPObject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +36,22 @@ public abstract class PCEPConstruct implements PCEPElement{
 	public void setLength(int length) {
 		this.length = length;
 	}
+
+	/**
+	 * Decodes an object with the {@link PCEPDecoderRegistry#getDefault() default registry}
+	 * @param bytes buffer containing the object
+	 * @param offset position of the object in the buffer
+	 * @return the object, an UnknownObject if there is no decoder for it
+	 * @throws PCEPProtocolViolationException if the object is malformed
+	 */
+	protected static PCEPObject decodeObject(byte[] bytes, int offset) throws PCEPProtocolViolationException {
+		try {
+			return PCEPDecoderRegistry.getDefault().decodeObject(bytes, offset);
+		} catch (MalformedPCEPObjectException e) {
+			log.warn("Malformed object of class " + PCEPObject.getObjectClass(bytes, offset) + " found");
+			throw new PCEPProtocolViolationException();
+		}
+	}
 	@Override
 	public int hashCode() {
 		final int prime = 31;
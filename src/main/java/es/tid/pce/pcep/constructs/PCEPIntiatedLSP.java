@@ -5,26 +5,12 @@ import java.util.Objects;
 
 import es.tid.pce.pcep.PCEPProtocolViolationException;
 import es.tid.pce.pcep.objects.Association;
-import es.tid.pce.pcep.objects.AssociationIPv4;
-import es.tid.pce.pcep.objects.AssociationIPv6;
 import es.tid.pce.pcep.objects.Bandwidth;
-import es.tid.pce.pcep.objects.BandwidthExistingLSP;
-import es.tid.pce.pcep.objects.BandwidthExistingLSPGeneralizedBandwidth;
-import es.tid.pce.pcep.objects.BandwidthRequested;
-import es.tid.pce.pcep.objects.BandwidthRequestedGeneralizedBandwidth;
-import es.tid.pce.pcep.objects.EndPointDataPathID;
 import es.tid.pce.pcep.objects.EndPoints;
-import es.tid.pce.pcep.objects.EndPointsIPv4;
-import es.tid.pce.pcep.objects.EndPointsIPv6;
-import es.tid.pce.pcep.objects.EndPointsUnnumberedIntf;
 import es.tid.pce.pcep.objects.ExplicitRouteObject;
-import es.tid.pce.pcep.objects.GeneralizedEndPoints;
 import es.tid.pce.pcep.objects.LSP;
-import es.tid.pce.pcep.objects.MalformedPCEPObjectException;
 import es.tid.pce.pcep.objects.Metric;
 import es.tid.pce.pcep.objects.ObjectParameters;
-import es.tid.pce.pcep.objects.P2MPEndPointsIPv4;
-import es.tid.pce.pcep.objects.P2PGeneralizedEndPoints;
 import es.tid.pce.pcep.objects.PCEPObject;
 import es.tid.pce.pcep.objects.SRP;
 
@@ -45,6 +31,8 @@ import es.tid.pce.pcep.objects.SRP;
                        [<IRO>]                                   
                                    
                                    }
+ * Objects of other extensions are kept in the other objects, and encoded
+ * after the metrics.
  * 
  * @author ogondio
  *
@@ -67,6 +55,12 @@ public class PCEPIntiatedLSP extends PCEPConstruct {
 
 	private Bandwidth bandwidth;
 
+	/**
+	 * Objects of extensions the construct does not know, decoded with the
+	 * {@link es.tid.pce.pcep.PCEPDecoderRegistry}
+	 */
+	private LinkedList<PCEPObject> otherObjects;
+
 	public Bandwidth getBandwidth() {
 		return bandwidth;
 	}
@@ -78,11 +72,13 @@ public class PCEPIntiatedLSP extends PCEPConstruct {
 	public PCEPIntiatedLSP() {
 		metricList=new LinkedList<Metric>();
 		associationList=new LinkedList<Association>();
+		otherObjects=new LinkedList<PCEPObject>();
 	}
 
 	public PCEPIntiatedLSP(byte[] bytes, int offset) throws PCEPProtocolViolationException {
 		metricList=new LinkedList<Metric>();
 		associationList=new LinkedList<Association>();
+		otherObjects=new LinkedList<PCEPObject>();
 		decode(bytes, offset);
 	}
 
@@ -114,9 +110,9 @@ public class PCEPIntiatedLSP extends PCEPConstruct {
 			// throw new PCEPProtocolViolationException();
 		}
 		if (associationList != null) {
-			for (int i = 0; i < associationList.size(); ++i) {
-				(associationList.get(i)).encode();
-				len = len + (associationList.get(i)).getLength();
+			for (Association association : associationList) {
+				association.encode();
+				len = len + association.getLength();
 			}
 		}
 
@@ -125,9 +121,15 @@ public class PCEPIntiatedLSP extends PCEPConstruct {
 			len = len + bandwidth.getLength();
 		}
 		if (metricList != null) {
-			for (int i = 0; i < metricList.size(); ++i) {
-				(metricList.get(i)).encode();
-				len = len + (metricList.get(i)).getLength();
+			for (Metric metric : metricList) {
+				metric.encode();
+				len = len + metric.getLength();
+			}
+		}
+		if (otherObjects != null) {
+			for (PCEPObject object : otherObjects) {
+				object.encode();
+				len = len + object.getLength();
 			}
 		}
 
@@ -143,252 +145,144 @@ public class PCEPIntiatedLSP extends PCEPConstruct {
 			System.arraycopy(endPoint.getBytes(), 0, this.getBytes(), offset, endPoint.getLength());
 			offset = offset + endPoint.getLength();
 		}
-		System.out.println("offset "+offset);
 		if (ero != null) {
 			System.arraycopy(ero.getBytes(), 0, this.getBytes(), offset, ero.getLength());
 			offset = offset + ero.getLength();
 		}
-		for (int i = 0; i < associationList.size(); ++i) {
-			System.arraycopy(associationList.get(i).getBytes(), 0, bytes, offset, associationList.get(i).getLength());
-			offset = offset + associationList.get(i).getLength();
+		for (Association association : associationList) {
+			System.arraycopy(association.getBytes(), 0, bytes, offset, association.getLength());
+			offset = offset + association.getLength();
 		}
 		if (bandwidth != null) {
 			System.arraycopy(bandwidth.getBytes(), 0, bytes, offset, bandwidth.getLength());
 			offset = offset + bandwidth.getLength();
 		}
-		for (int i = 0; i < metricList.size(); ++i) {
-			System.arraycopy(metricList.get(i).getBytes(), 0, bytes, offset, metricList.get(i).getLength());
-			offset = offset + metricList.get(i).getLength();
+		for (Metric metric : metricList) {
+			System.arraycopy(metric.getBytes(), 0, bytes, offset, metric.getLength());
+			offset = offset + metric.getLength();
+		}
+		if (otherObjects != null) {
+			for (PCEPObject object : otherObjects) {
+				System.arraycopy(object.getBytes(), 0, bytes, offset, object.getLength());
+				offset = offset + object.getLength();
+			}
 		}
 
 	}
 
-	public void decode(byte[] bytes, int offset) throws PCEPProtocolViolationException {
-		int len = 0;
-		// Current implementation is strict, does not accept unknown objects
-		int max_offset = bytes.length;
-		if (offset >= max_offset) {
-			log.warn("Empty Request construct!!!");
-			throw new PCEPProtocolViolationException();
+	@Override
+	public int encodedLength() throws PCEPProtocolViolationException {
+		int len = srp.encodedLength();
+		len += lsp.encodedLength();
+		if (endPoint != null) {
+			len += endPoint.encodedLength();
 		}
-		// SRP
-		// No SRP object. Malformed Update Request. PCERR mesage should be sent!
-		int oc = PCEPObject.getObjectClass(bytes, offset);
-		int ot = PCEPObject.getObjectType(bytes, offset);
-		if (oc != ObjectParameters.PCEP_OBJECT_CLASS_SRP) {
-			log.info("There should be at least one SRP Object");
-			throw new PCEPProtocolViolationException();
-		} else {
-			try {
-				srp = new SRP(bytes, offset);
-
-			} catch (MalformedPCEPObjectException e) {
-				log.warn("Malformed LSP Object found");
-				throw new PCEPProtocolViolationException();
-			}
-			offset = offset + srp.getLength();
-			len += srp.getLength();
-			if (offset >= max_offset) {
-				this.setLength(len);
-				log.warn("Just one SRP object found, no more");
-				throw new PCEPProtocolViolationException();
-			}
+		if (ero != null) {
+			len += ero.encodedLength();
 		}
-		oc = PCEPObject.getObjectClass(bytes, offset);
-		ot = PCEPObject.getObjectType(bytes, offset);
-		if (oc != ObjectParameters.PCEP_OBJECT_CLASS_LSP) {
-			log.warn("There should be at least one LSP Object");
-			throw new PCEPProtocolViolationException();
-		} else {
-			try {
-				lsp = new LSP(bytes, offset);
-
-			} catch (MalformedPCEPObjectException e) {
-				log.warn("Malformed LSP Object found");
-				throw new PCEPProtocolViolationException();
-			}
-			offset = offset + lsp.getLength();
-			len += lsp.getLength();
-			if (offset >= max_offset) {
-				this.setLength(len);
-				log.warn("Just one SRP and one LSP object found, no more");
-				log.warn("TEMPORAL FIX");
-				return;
-				// throw new PCEPProtocolViolationException();
+		if (associationList != null) {
+			for (Association association : associationList) {
+				len = len + association.encodedLength();
 			}
 		}
-		oc = PCEPObject.getObjectClass(bytes, offset);
-		ot = PCEPObject.getObjectType(bytes, offset);
-		if (oc != ObjectParameters.PCEP_OBJECT_CLASS_ENDPOINTS) {
-			log.warn("There should be at least one EndPoint Object. Should throw Ex");
-			// throw new PCEPProtocolViolationException(); //Optional
-		} else {
-			try {
-				if (ot == ObjectParameters.PCEP_OBJECT_TYPE_P2MP_ENDPOINTS_IPV4) {
-					try {
-						endPoint = new P2MPEndPointsIPv4(bytes, offset);
-					} catch (MalformedPCEPObjectException e) {
-						log.warn("Malformed P2MP ENDPOINTS IPV4 Object found");
-						throw new PCEPProtocolViolationException();
-					}
-				} else if (ot == ObjectParameters.PCEP_OBJECT_TYPE_ENDPOINTS_IPV4) {
-					try {
-						endPoint = new EndPointsIPv4(bytes, offset);
-					} catch (MalformedPCEPObjectException e) {
-						log.warn("Malformed ENDPOINTS IPV4 Object found");
-						throw new PCEPProtocolViolationException();
-					}
-				} else if (ot == ObjectParameters.PCEP_OBJECT_TYPE_ENDPOINTS_UNNUMBERED) {
-					try {
-						endPoint = new EndPointsUnnumberedIntf(bytes, offset);
-					} catch (MalformedPCEPObjectException e) {
-						log.warn("Malformed ENDPOINTS Unnumbered Interface Object found");
-						throw new PCEPProtocolViolationException();
-					}
-				}
-
-				else if (ot == ObjectParameters.PCEP_OBJECT_TYPE_ENDPOINTS_IPV6) {
-					try {
-						endPoint = new EndPointsIPv6(bytes, offset);
-					} catch (MalformedPCEPObjectException e) {
-						log.warn("Malformed ENDPOINTSIPV6 Object found");
-						throw new PCEPProtocolViolationException();
-					}
-				} else if (ot == ObjectParameters.PCEP_OBJECT_TYPE_GENERALIZED_ENDPOINTS) {
-					try {
-						int endPointType = GeneralizedEndPoints.getGeneralizedEndPointsType(bytes, offset);
-						if (endPointType == 1) {
-							endPoint = new P2PGeneralizedEndPoints(bytes, offset);
-						}
-
-					} catch (MalformedPCEPObjectException e) {
-						log.warn("Malformed GENERALIZED END POINTS Object found");
-						throw new PCEPProtocolViolationException();
-					}
-				}
-
-				else if (ot == ObjectParameters.PCEP_OBJECT_TYPE_ENDPOINTS_DATAPATH_ID) {
-					try {
-						endPoint = new EndPointDataPathID(bytes, offset);
-					} catch (MalformedPCEPObjectException e) {
-						log.warn("Malformed GENERALIZED END POINTS Object found");
-						throw new PCEPProtocolViolationException();
-					}
-				} else {
-					log.warn("BANDWIDTH TYPE NOT SUPPORTED");
-					throw new PCEPProtocolViolationException();
-				}
-			} catch (Exception e) {
-				log.warn("Malformed EndPoint Object found");
-				// throw new PCEPProtocolViolationException();
+		if (bandwidth != null) {
+			len = len + bandwidth.encodedLength();
+		}
+		if (metricList != null) {
+			for (Metric metric : metricList) {
+				len = len + metric.encodedLength();
 			}
-			if (endPoint != null) {
-				offset = offset + endPoint.getLength();
-				len += endPoint.getLength();
-				if (offset >= max_offset) {
-					this.setLength(len);
-					// In draft, ERO is mandatory... here we relax the draft
-					log.warn("Just one SRP, one LSP and one END-POINTS, object found, no more");
-					// throw new PCEPProtocolViolationException();
-				}
+		}
+		if (otherObjects != null) {
+			for (PCEPObject object : otherObjects) {
+				len = len + object.encodedLength();
 			}
 		}
+		this.setLength(len);
+		return len;
+	}
 
-		if (PCEPObject.getObjectClass(bytes, offset) == ObjectParameters.PCEP_OBJECT_CLASS_ERO) {
-			try {
-				ero = new ExplicitRouteObject(bytes, offset);
-
-			} catch (MalformedPCEPObjectException e) {
-				log.warn("Malformed ERO Object found");
-				throw new PCEPProtocolViolationException();
+	@Override
+	public int encodeTo(byte[] buf, int offset) throws PCEPProtocolViolationException {
+		offset = srp.encodeTo(buf, offset);
+		offset = lsp.encodeTo(buf, offset);
+		if (endPoint != null) {
+			offset = endPoint.encodeTo(buf, offset);
+		}
+		if (ero != null) {
+			offset = ero.encodeTo(buf, offset);
+		}
+		if (associationList != null) {
+			for (Association association : associationList) {
+				offset = association.encodeTo(buf, offset);
 			}
-			offset = offset + ero.getLength();
-			len += ero.getLength();
-
 		}
-		//Association
-		oc = PCEPObject.getObjectClass(bytes, offset);
-		ot = PCEPObject.getObjectType(bytes, offset);
-		while (oc == ObjectParameters.PCEP_OBJECT_CLASS_ASSOCIATION) {
-			Association aso=null;
-			try {
-				if(ot == ObjectParameters.PCEP_OBJECT_TYPE__ASSOCIATION_IPV4) {
-					aso = new AssociationIPv4(bytes, offset);
-				}else if(ot == ObjectParameters.PCEP_OBJECT_TYPE__ASSOCIATION_IPV6) {
-					aso = new AssociationIPv6(bytes, offset);
-				}
-				
-			} catch (MalformedPCEPObjectException e) {
-				log.warn("Malformed METRIC Object found");
-				throw new PCEPProtocolViolationException();
+		if (bandwidth != null) {
+			offset = bandwidth.encodeTo(buf, offset);
+		}
+		if (metricList != null) {
+			for (Metric metric : metricList) {
+				offset = metric.encodeTo(buf, offset);
 			}
-			associationList.add(aso);
-			offset = offset + aso.getLength();
-			len = len + aso.getLength();
-			if (offset >= bytes.length) {
-				this.setLength(len);
-				return;
+		}
+		if (otherObjects != null) {
+			for (PCEPObject object : otherObjects) {
+				offset = object.encodeTo(buf, offset);
 			}
-			oc = PCEPObject.getObjectClass(bytes, offset);
 		}
-		
-
-		// Bandwidth
-		try {
-			oc = PCEPObject.getObjectClass(bytes, offset);
-			ot = PCEPObject.getObjectType(bytes, offset);
-			if (oc == ObjectParameters.PCEP_OBJECT_CLASS_BANDWIDTH) {
-				if (ot == ObjectParameters.PCEP_OBJECT_TYPE_BANDWIDTH_REQUEST) {
-
-					bandwidth = new BandwidthRequested(bytes, offset);
-
-				} else if (ot == ObjectParameters.PCEP_OBJECT_TYPE_BANDWIDTH_EXISTING_TE_LSP) {
-
-					bandwidth = new BandwidthExistingLSP(bytes, offset);
-
-				} else if (ot == ObjectParameters.PCEP_OBJECT_TYPE_BANDWIDTH_GEN_BW_REQUEST) {
-
-					bandwidth = new BandwidthRequestedGeneralizedBandwidth(bytes, offset);
-
-				} else if (ot == ObjectParameters.PCEP_OBJECT_TYPE_BANDWIDTH_GEN_BW_EXISTING_TE_LSP) {
-
-					bandwidth = new BandwidthExistingLSPGeneralizedBandwidth(bytes, offset);
-
-				} else {
-					log.warn("Malformed BANDWIDTH Object found");
-					throw new PCEPProtocolViolationException();
-				}
+		return offset;
+	}
 
-				offset = offset + bandwidth.getLength();
-				len = len + bandwidth.getLength();
-				if (offset >= bytes.length) {
-					this.setLength(len);
-					return;
-				}
-			}
-		} catch (MalformedPCEPObjectException e) {
-			log.warn("Malformed BANDWIDTH Object found");
+	public void decode(byte[] bytes, int offset) throws PCEPProtocolViolationException {
+		int len = 0;
+		int max_offset = bytes.length;
+		if (offset >= max_offset) {
+			log.warn("Empty Request construct!!!");
 			throw new PCEPProtocolViolationException();
 		}
-		// Metric
-		oc = PCEPObject.getObjectClass(bytes, offset);
-
-		while (oc == ObjectParameters.PCEP_OBJECT_CLASS_METRIC) {
-			Metric metric;
-			try {
-				metric = new Metric(bytes, offset);
-			} catch (MalformedPCEPObjectException e) {
-				log.warn("Malformed METRIC Object found");
-				throw new PCEPProtocolViolationException();
-			}
-			metricList.add(metric);
-			offset = offset + metric.getLength();
-			len = len + metric.getLength();
-			if (offset >= bytes.length) {
-				this.setLength(len);
-				return;
+		// SRP
+		// No SRP object. Malformed Update Request. PCERR mesage should be sent!
+		PCEPObject object = decodeObject(bytes, offset);
+		if (!(object instanceof SRP)) {
+			log.info("There should be at least one SRP Object");
+			throw new PCEPProtocolViolationException();
+		}
+		srp = (SRP) object;
+		offset = offset + srp.getLength();
+		len += srp.getLength();
+		if (offset >= max_offset) {
+			this.setLength(len);
+			log.warn("Just one SRP object found, no more");
+			throw new PCEPProtocolViolationException();
+		}
+		object = decodeObject(bytes, offset);
+		if (!(object instanceof LSP)) {
+			log.warn("There should be at least one LSP Object");
+			throw new PCEPProtocolViolationException();
+		}
+		lsp = (LSP) object;
+		offset = offset + lsp.getLength();
+		len += lsp.getLength();
+		// END-POINTS and ERO (both optional here, the draft makes the ERO
+		// mandatory), associations, attribute list and objects of other
+		// extensions, up to the next initiated LSP
+		while (offset < max_offset && PCEPObject.getObjectClass(bytes, offset) != ObjectParameters.PCEP_OBJECT_CLASS_SRP) {
+			object = decodeObject(bytes, offset);
+			if (object instanceof EndPoints && endPoint == null && ero == null) {
+				endPoint = (EndPoints) object;
+			} else if (object instanceof ExplicitRouteObject && ero == null) {
+				ero = (ExplicitRouteObject) object;
+			} else if (object instanceof Association) {
+				associationList.add((Association) object);
+			} else if (object instanceof Bandwidth && bandwidth == null) {
+				bandwidth = (Bandwidth) object;
+			} else if (object instanceof Metric) {
+				metricList.add((Metric) object);
+			} else {
+				otherObjects.add(object);
 			}
-			oc = PCEPObject.getObjectClass(bytes, offset);
+			offset = offset + object.getLength();
+			len = len + object.getLength();
 		}
 		this.setLength(len);
 	}
@@ -451,11 +345,22 @@ public class PCEPIntiatedLSP extends PCEPConstruct {
 		this.metricList = metricList;
 	}
 
+	/**
+	 * @return objects of other extensions, encoded after the metrics
+	 */
+	public LinkedList<PCEPObject> getOtherObjects() {
+		return otherObjects;
+	}
+
+	public void setOtherObjects(LinkedList<PCEPObject> otherObjects) {
+		this.otherObjects = otherObjects;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
-		result = prime * result + Objects.hash(associationList, bandwidth, endPoint, ero, lsp, metricList, srp);
+		result = prime * result + Objects.hash(associationList, bandwidth, endPoint, ero, lsp, metricList, otherObjects, srp);
 		return result;
 	}
 
@@ -471,14 +376,14 @@ public class PCEPIntiatedLSP extends PCEPConstruct {
 		return Objects.equals(associationList, other.associationList) && Objects.equals(bandwidth, other.bandwidth)
 				&& Objects.equals(endPoint, other.endPoint) && Objects.equals(ero, other.ero)
 				&& Objects.equals(lsp, other.lsp) && Objects.equals(metricList, other.metricList)
-				&& Objects.equals(srp, other.srp);
+				&& Objects.equals(otherObjects, other.otherObjects) && Objects.equals(srp, other.srp);
 	}
 
 	@Override
 	public String toString() {
 		return "PCEPIntiatedLSP [srp=" + srp + ", lsp=" + lsp + ", ero=" + ero + ", endPoint=" + endPoint
 				+ ", associationList=" + associationList + ", metricList=" + metricList + ", bandwidth=" + bandwidth
-				+ "]";
+				+ (otherObjects == null || otherObjects.isEmpty() ? "" : ", otherObjects=" + otherObjects) + "]";
 	}
 
 	
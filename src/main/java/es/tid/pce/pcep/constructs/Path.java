@@ -1,8 +1,10 @@
 package es.tid.pce.pcep.constructs;
 
+import java.util.ArrayDeque;
 import java.util.LinkedList;
 import java.util.Objects;
 
+import es.tid.pce.pcep.PCEPDecoderRegistry;
 import es.tid.pce.pcep.PCEPProtocolViolationException;
 import es.tid.pce.pcep.objects.Bandwidth;
 import es.tid.pce.pcep.objects.BandwidthExistingLSP;
@@ -92,18 +94,33 @@ public class Path extends PCEPConstruct {
 
 	private SuggestedLabel suggestedLabel;
 
+	/**
+	 * VENDOR-INFORMATION objects (RFC 7470), decoded with the
+	 * {@link PCEPDecoderRegistry}
+	 */
+	private LinkedList<PCEPObject> vendorInformationList;
+
+	/*
+	 * Objects of the previous decoding, kept by reset() to be decoded into again
+	 */
+	private ArrayDeque<ExplicitRouteObject> spareEros;
+	private ArrayDeque<BandwidthRequested> spareBandwidths;
+	private ArrayDeque<Metric> spareMetrics;
+
 
 
 	public Path(){
 		metricList=new LinkedList<Metric>();
 		actual_metricList=new LinkedList<Metric>();
 		buList = new LinkedList<BandwidthUtilization>();
+		vendorInformationList = new LinkedList<PCEPObject>();
 	}
 
 	public Path(byte[] bytes, int offset) throws PCEPProtocolViolationException{
 		metricList=new LinkedList<Metric>();
 		actual_metricList=new LinkedList<Metric>();
 		buList = new LinkedList<BandwidthUtilization>();
+		vendorInformationList = new LinkedList<PCEPObject>();
 		decode(bytes,offset);
 	}
 
@@ -125,9 +142,9 @@ public class Path extends PCEPConstruct {
 			actual_bandwidth.encode();
 			len=len+actual_bandwidth.getLength();
 		}
-		for (int i=0;i<actual_metricList.size();++i){
-			(actual_metricList.get(i)).encode();
-			len=len+(actual_metricList.get(i)).getLength();
+		for (Metric metric : actual_metricList){
+			metric.encode();
+			len=len+metric.getLength();
 		}
 		if (actual_path!=null) {
 			actual_path.encode();
@@ -148,15 +165,15 @@ public class Path extends PCEPConstruct {
 			len=len+bandwidth.getLength();
 		}
 		if (buList!=null){
-			for (int i=0;i<buList.size();++i){
-				(buList.get(i)).encode();
-				len=len+(buList.get(i)).getLength();
+			for (BandwidthUtilization bandwidthUtilization : buList){
+				bandwidthUtilization.encode();
+				len=len+bandwidthUtilization.getLength();
 			}	
 		}
 		
-		for (int i=0;i<metricList.size();++i){
-			(metricList.get(i)).encode();
-			len=len+(metricList.get(i)).getLength();
+		for (Metric metric : metricList){
+			metric.encode();
+			len=len+metric.getLength();
 		}
 		if (iro!=null){
 			iro.encode();
@@ -186,6 +203,10 @@ public class Path extends PCEPConstruct {
 			suggestedLabel.encode();
 			len=len+suggestedLabel.getLength();
 		}
+		for (PCEPObject vendorInformation : vendorInformationList){
+			vendorInformation.encode();
+			len=len+vendorInformation.getLength();
+		}
 
 		this.setLength(len);
 		bytes=new byte[len];
@@ -200,9 +221,9 @@ public class Path extends PCEPConstruct {
 			System.arraycopy(actual_bandwidth.getBytes(), 0, bytes, offset, actual_bandwidth.getLength());
 			offset=offset+actual_bandwidth.getLength();
 		}
-		for (int i=0;i<actual_metricList.size();++i){
-			System.arraycopy(actual_metricList.get(i).getBytes(), 0, bytes, offset, actual_metricList.get(i).getLength());
-			offset=offset+actual_metricList.get(i).getLength();
+		for (Metric metric : actual_metricList){
+			System.arraycopy(metric.getBytes(), 0, bytes, offset, metric.getLength());
+			offset=offset+metric.getLength();
 		}
 		if (actual_path!=null) {
 			System.arraycopy(actual_path.getBytes(), 0, bytes, offset, actual_path.getLength());
@@ -221,14 +242,14 @@ public class Path extends PCEPConstruct {
 			offset=offset+bandwidth.getLength();
 		}
 		if(buList!=null) {
-			for (int i=0;i<buList.size();++i){
-				System.arraycopy(buList.get(i).getBytes(), 0, bytes, offset, buList.get(i).getLength());
-				offset=offset+buList.get(i).getLength();
+			for (BandwidthUtilization bandwidthUtilization : buList){
+				System.arraycopy(bandwidthUtilization.getBytes(), 0, bytes, offset, bandwidthUtilization.getLength());
+				offset=offset+bandwidthUtilization.getLength();
 			}
 		}
-		for (int i=0;i<metricList.size();++i){
-			System.arraycopy(metricList.get(i).getBytes(), 0, bytes, offset, metricList.get(i).getLength());
-			offset=offset+metricList.get(i).getLength();
+		for (Metric metric : metricList){
+			System.arraycopy(metric.getBytes(), 0, bytes, offset, metric.getLength());
+			offset=offset+metric.getLength();
 		}
 		if (iro!=null){
 			System.arraycopy(iro.getBytes(), 0, bytes, offset, iro.getLength());
@@ -259,7 +280,131 @@ public class Path extends PCEPConstruct {
 			System.arraycopy(suggestedLabel.getBytes(), 0, bytes, offset, suggestedLabel.getLength());
 			offset=offset+suggestedLabel.getLength();
 		}
+		for (PCEPObject vendorInformation : vendorInformationList){
+			System.arraycopy(vendorInformation.getBytes(), 0, bytes, offset, vendorInformation.getLength());
+			offset=offset+vendorInformation.getLength();
+		}
+
+	}
 
+	@Override
+	public int encodedLength() throws PCEPProtocolViolationException {
+		int len=0;
+		if (ero!=null){
+			len=len+ero.encodedLength();
+		}
+		else {
+			log.warn("Path must start with ERO object");
+			throw new PCEPProtocolViolationException();
+		}
+		if (actual_bandwidth!=null) {
+			len=len+actual_bandwidth.encodedLength();
+		}
+		for (Metric metric : actual_metricList){
+			len=len+metric.encodedLength();
+		}
+		if (actual_path!=null) {
+			len=len+actual_path.encodedLength();
+		}
+		if (of!=null){
+			len=len+of.encodedLength();
+		}
+		if (lspa!=null){
+			len=len+lspa.encodedLength();
+		}
+		if (bandwidth!=null){
+			len=len+bandwidth.encodedLength();
+		}
+		if (buList!=null){
+			for (BandwidthUtilization bu : buList){
+				len=len+bu.encodedLength();
+			}
+		}
+		for (Metric metric : metricList){
+			len=len+metric.encodedLength();
+		}
+		if (iro!=null){
+			len=len+iro.encodedLength();
+		}
+		if (interLayer!=null){
+			len=len+interLayer.encodedLength();
+		}
+		if (switchLayer!=null){
+			len=len+switchLayer.encodedLength();
+		}
+		if (reqAdapCap!=null){
+			len=len+reqAdapCap.encodedLength();
+		}
+		if (serverIndication!=null){
+			len=len+serverIndication.encodedLength();
+		}
+		if (labelSet!=null) {
+			len=len+labelSet.encodedLength();
+		}
+		if (suggestedLabel!=null) {
+			len=len+suggestedLabel.encodedLength();
+		}
+		for (PCEPObject vendorInformation : vendorInformationList){
+			len=len+vendorInformation.encodedLength();
+		}
+		this.setLength(len);
+		return len;
+	}
+
+	@Override
+	public int encodeTo(byte[] buf, int offset) throws PCEPProtocolViolationException {
+		offset=ero.encodeTo(buf, offset);
+		if (actual_bandwidth!=null) {
+			offset=actual_bandwidth.encodeTo(buf, offset);
+		}
+		for (Metric metric : actual_metricList){
+			offset=metric.encodeTo(buf, offset);
+		}
+		if (actual_path!=null) {
+			offset=actual_path.encodeTo(buf, offset);
+		}
+		if (of!=null){
+			offset=of.encodeTo(buf, offset);
+		}
+		if (lspa!=null){
+			offset=lspa.encodeTo(buf, offset);
+		}
+		if (bandwidth!=null){
+			offset=bandwidth.encodeTo(buf, offset);
+		}
+		if (buList!=null){
+			for (BandwidthUtilization bu : buList){
+				offset=bu.encodeTo(buf, offset);
+			}
+		}
+		for (Metric metric : metricList){
+			offset=metric.encodeTo(buf, offset);
+		}
+		if (iro!=null){
+			offset=iro.encodeTo(buf, offset);
+		}
+		if (interLayer!=null){
+			offset=interLayer.encodeTo(buf, offset);
+		}
+		if (switchLayer!=null){
+			offset=switchLayer.encodeTo(buf, offset);
+		}
+		if (reqAdapCap!=null){
+			offset=reqAdapCap.encodeTo(buf, offset);
+		}
+		if (serverIndication!=null){
+			offset=serverIndication.encodeTo(buf, offset);
+		}
+		if (labelSet!=null) {
+			offset=labelSet.encodeTo(buf, offset);
+		}
+		if (suggestedLabel!=null) {
+			offset=suggestedLabel.encodeTo(buf, offset);
+		}
+		for (PCEPObject vendorInformation : vendorInformationList){
+			offset=vendorInformation.encodeTo(buf, offset);
+		}
+		return offset;
 	}
 
 	private void decode(byte[] bytes, int offset) throws PCEPProtocolViolationException{
@@ -271,7 +416,7 @@ public class Path extends PCEPConstruct {
 		log.info("Checking Intended Path: looking for ERO");
 		if (oc==ObjectParameters.PCEP_OBJECT_CLASS_ERO){
 			try {
-				ero=new ExplicitRouteObject(bytes,offset);
+				ero=decodeEro(bytes,offset);
 			} catch (MalformedPCEPObjectException e) {
 				//throw new PCEPProtocolViolationException();
 			}
@@ -288,7 +433,7 @@ public class Path extends PCEPConstruct {
 			ot = PCEPObject.getObjectType(bytes, offset);
 			if (oc == ObjectParameters.PCEP_OBJECT_CLASS_BANDWIDTH) {
 				if (ot == ObjectParameters.PCEP_OBJECT_TYPE_BANDWIDTH_REQUEST) {
-					bandwidth = new BandwidthRequested(bytes, offset);
+					bandwidth = decodeBandwidthRequested(bytes, offset);
 					offset = offset + bandwidth.getLength();
 					len = len + bandwidth.getLength();
 					if (offset >= bytes.length) {
@@ -351,7 +496,7 @@ public class Path extends PCEPConstruct {
 		while (oc==ObjectParameters.PCEP_OBJECT_CLASS_METRIC){
 			Metric metric;
 			try {
-				metric = new Metric(bytes,offset);
+				metric = decodeMetric(bytes,offset);
 			} catch (MalformedPCEPObjectException e) {
 				log.warn("Malformed METRIC Object found");
 				throw new PCEPProtocolViolationException();
@@ -411,7 +556,7 @@ public class Path extends PCEPConstruct {
 			ot = PCEPObject.getObjectType(bytes, offset);
 			if (oc == ObjectParameters.PCEP_OBJECT_CLASS_BANDWIDTH) {
 				if (ot == ObjectParameters.PCEP_OBJECT_TYPE_BANDWIDTH_REQUEST) {
-					bandwidth = new BandwidthRequested(bytes, offset);
+					bandwidth = decodeBandwidthRequested(bytes, offset);
 					offset = offset + bandwidth.getLength();
 					len = len + bandwidth.getLength();
 					if (offset >= bytes.length) {
@@ -496,7 +641,7 @@ public class Path extends PCEPConstruct {
 		while (oc==ObjectParameters.PCEP_OBJECT_CLASS_METRIC){
 			Metric metric;
 			try {
-				metric = new Metric(bytes,offset);
+				metric = decodeMetric(bytes,offset);
 			} catch (MalformedPCEPObjectException e) {
 				log.warn("Malformed METRIC Object found");
 				throw new PCEPProtocolViolationException();
@@ -626,19 +771,107 @@ public class Path extends PCEPConstruct {
 		}
 		log.info("Checking for VENDOR-INFORMATION");
 		oc=PCEPObject.getObjectClass(bytes, offset);		
-		if (oc==ObjectParameters.PCEP_OBJECT_CLASS_VENDOR_INFORMATION){
-			log.info("VENDOR-INFORMATION FOUND");
-			int vi_length= PCEPObject.getObjectLength(bytes, offset);			
-			offset+=vi_length;
-			len+=vi_length;
+		while (oc==ObjectParameters.PCEP_OBJECT_CLASS_VENDOR_INFORMATION){
+			PCEPObject vendorInformation;
+			try {
+				vendorInformation=PCEPDecoderRegistry.getDefault().decodeObject(bytes, offset);
+			} catch (MalformedPCEPObjectException e) {
+				log.warn("Malformed VENDOR-INFORMATION Object found");
+				throw new PCEPProtocolViolationException();
+			}
+			vendorInformationList.add(vendorInformation);
+			offset=offset+vendorInformation.getLength();
+			len=len+vendorInformation.getLength();
 			if (offset>=bytes.length){
 				this.setLength(len);
 				return;
-				}
+			}
+			oc=PCEPObject.getObjectClass(bytes, offset);
 		}
 		this.setLength(len);
 	}
 
+	/**
+	 * Decodes a path into this instance. The ERO, BANDWIDTH (requested) and
+	 * METRIC objects of the previous decoding are reused.
+	 * @param bytes bytes
+	 * @param offset position at which the path starts
+	 * @throws PCEPProtocolViolationException Exception when the path is malformed
+	 */
+	public void decodeInto(byte[] bytes, int offset) throws PCEPProtocolViolationException{
+		reset();
+		decode(bytes, offset);
+	}
+
+	/**
+	 * Empties the path. The ERO, BANDWIDTH (requested) and METRIC objects are
+	 * kept to be reused by the next {@link #decodeInto(byte[], int)}, so they
+	 * must not be referenced from elsewhere after the reset.
+	 */
+	public void reset() {
+		if (spareEros==null){
+			spareEros=new ArrayDeque<ExplicitRouteObject>();
+			spareBandwidths=new ArrayDeque<BandwidthRequested>();
+			spareMetrics=new ArrayDeque<Metric>();
+		}
+		if (ero!=null){
+			spareEros.add(ero);
+		}
+		if (actual_bandwidth instanceof BandwidthRequested){
+			spareBandwidths.add((BandwidthRequested)actual_bandwidth);
+		}
+		if (bandwidth instanceof BandwidthRequested){
+			spareBandwidths.add((BandwidthRequested)bandwidth);
+		}
+		spareMetrics.addAll(actual_metricList);
+		spareMetrics.addAll(metricList);
+		ero=null;
+		actual_bandwidth=null;
+		actual_metricList.clear();
+		actual_path=null;
+		of=null;
+		lspa=null;
+		bandwidth=null;
+		buList.clear();
+		metricList.clear();
+		iro=null;
+		interLayer=null;
+		switchLayer=null;
+		reqAdapCap=null;
+		serverIndication=null;
+		labelSet=null;
+		suggestedLabel=null;
+		vendorInformationList.clear();
+		this.setLength(0);
+	}
+
+	private ExplicitRouteObject decodeEro(byte[] bytes, int offset) throws MalformedPCEPObjectException{
+		ExplicitRouteObject eRO=spareEros==null ? null : spareEros.poll();
+		if (eRO==null){
+			return new ExplicitRouteObject(bytes,offset);
+		}
+		eRO.decodeInto(bytes, offset);
+		return eRO;
+	}
+
+	private BandwidthRequested decodeBandwidthRequested(byte[] bytes, int offset) throws MalformedPCEPObjectException{
+		BandwidthRequested bw=spareBandwidths==null ? null : spareBandwidths.poll();
+		if (bw==null){
+			return new BandwidthRequested(bytes, offset);
+		}
+		bw.decodeInto(bytes, offset);
+		return bw;
+	}
+
+	private Metric decodeMetric(byte[] bytes, int offset) throws MalformedPCEPObjectException{
+		Metric metric=spareMetrics==null ? null : spareMetrics.poll();
+		if (metric==null){
+			return new Metric(bytes, offset);
+		}
+		metric.decodeInto(bytes, offset);
+		return metric;
+	}
+
 
 	public void setEro(ExplicitRouteObject eRO) {
 		this.ero = eRO;
@@ -732,6 +965,17 @@ public class Path extends PCEPConstruct {
 
 
 
+	/**
+	 * @return VENDOR-INFORMATION objects, without a decoder they are {@link es.tid.pce.pcep.objects.UnknownObject}
+	 */
+	public LinkedList<PCEPObject> getVendorInformationList() {
+		return vendorInformationList;
+	}
+
+	public void setVendorInformationList(LinkedList<PCEPObject> vendorInformationList) {
+		this.vendorInformationList = vendorInformationList;
+	}
+
 	public LinkedList<BandwidthUtilization> getBuList() {
 		return buList;
 	}
@@ -778,7 +1022,8 @@ public class Path extends PCEPConstruct {
 		int result = super.hashCode();
 		result = prime * result
 				+ Objects.hash(actual_bandwidth, actual_metricList, actual_path, bandwidth, buList, ero, interLayer,
-						iro, labelSet, lspa, metricList, of, reqAdapCap, serverIndication, suggestedLabel, switchLayer);
+						iro, labelSet, lspa, metricList, of, reqAdapCap, serverIndication, suggestedLabel, switchLayer,
+						vendorInformationList);
 		return result;
 	}
 
@@ -801,7 +1046,8 @@ public class Path extends PCEPConstruct {
 				&& Objects.equals(reqAdapCap, other.reqAdapCap)
 				&& Objects.equals(serverIndication, other.serverIndication)
 				&& Objects.equals(suggestedLabel, other.suggestedLabel)
-				&& Objects.equals(switchLayer, other.switchLayer);
+				&& Objects.equals(switchLayer, other.switchLayer)
+				&& Objects.equals(vendorInformationList, other.vendorInformationList);
 	}
 
 	@Override
@@ -810,7 +1056,8 @@ public class Path extends PCEPConstruct {
 				+ ", metricList=" + metricList + ", iro=" + iro + ", interLayer=" + interLayer + ", switchLayer="
 				+ switchLayer + ", reqAdapCap=" + reqAdapCap + ", serverIndication=" + serverIndication + ", labelSet="
 				+ labelSet + ", suggestedLabel=" + suggestedLabel + ", actual_bandwidth=" + actual_bandwidth
-				+ ", actual_metricList=" + actual_metricList + ", actual_path=" + actual_path + "]";
+				+ ", actual_metricList=" + actual_metricList + ", actual_path=" + actual_path
+				+ (vendorInformationList.isEmpty() ? "" : ", vendorInformationList=" + vendorInformationList) + "]";
 	}
 
 	
@@ -121,16 +121,16 @@ public class Request extends PCEPConstruct{
 		}
 		
 		if (buList!=null){
-			for (int i=0;i<buList.size();++i){
-				(buList.get(i)).encode();
-				len=len+(buList.get(i)).getLength();
+			for (BandwidthUtilization bandwidthUtilization : buList){
+				bandwidthUtilization.encode();
+				len=len+bandwidthUtilization.getLength();
 			}	
 		}
 		
 		if (metricList!=null){
-			for (int i=0;i<metricList.size();++i){
-				(metricList.get(i)).encode();
-				len=len+(metricList.get(i)).getLength();
+			for (Metric metric : metricList){
+				metric.encode();
+				len=len+metric.getLength();
 			}
 		}
 		if (objectiveFunction!=null){
@@ -191,16 +191,16 @@ public class Request extends PCEPConstruct{
 		}
 		
 		if(buList!=null) {
-			for (int i=0;i<buList.size();++i){
-				System.arraycopy(buList.get(i).getBytes(), 0, bytes, offset, buList.get(i).getLength());
-				offset=offset+buList.get(i).getLength();
+			for (BandwidthUtilization bandwidthUtilization : buList){
+				System.arraycopy(bandwidthUtilization.getBytes(), 0, bytes, offset, bandwidthUtilization.getLength());
+				offset=offset+bandwidthUtilization.getLength();
 			}
 		}
 
 		if (metricList!=null){
-			for (int i=0;i<metricList.size();++i){
-				System.arraycopy(metricList.get(i).getBytes(), 0, bytes, offset, metricList.get(i).getLength());
-				offset=offset+metricList.get(i).getLength();
+			for (Metric metric : metricList){
+				System.arraycopy(metric.getBytes(), 0, bytes, offset, metric.getLength());
+				offset=offset+metric.getLength();
 			}
 		}
 		if (objectiveFunction!=null){
@@ -255,9 +255,9 @@ public class Response extends PCEPConstruct{
 		}
 
 		if (metricList!=null){
-			for (int i=0;i<metricList.size();++i){
-				(metricList.get(i)).encode();
-				len=len+(metricList.get(i)).getLength();
+			for (Metric metric : metricList){
+				metric.encode();
+				len=len+metric.getLength();
 			}
 		}
 		if (iRO!=null){
@@ -269,15 +269,15 @@ public class Response extends PCEPConstruct{
 			len=len+resConf.getLength();
 		}
 		if (pathList!=null){
-			for (int i=0;i<pathList.size();++i){
-				(pathList.get(i)).encode();
-				len=len+(pathList.get(i)).getLength();
+			for (Path path : pathList){
+				path.encode();
+				len=len+path.getLength();
 			}
 		}
 		if (metricPCEList!=null){
-			for (int i=0;i<metricPCEList.size();++i){
-				(metricPCEList.get(i)).encode();
-				len=len+(metricPCEList.get(i)).getLength();
+			for (MetricPCE metricPCE : metricPCEList){
+				metricPCE.encode();
+				len=len+metricPCE.getLength();
 			}
 		}
 		
@@ -306,9 +306,9 @@ public class Response extends PCEPConstruct{
 			System.arraycopy(bandwidth.getBytes(), 0, bytes, offset, bandwidth.getLength());
 			offset=offset+bandwidth.getLength();
 		}
-		for (int i=0;i<metricList.size();++i){
-			System.arraycopy(metricList.get(i).getBytes(), 0, bytes, offset, metricList.get(i).getLength());
-			offset=offset+metricList.get(i).getLength();
+		for (Metric metric : metricList){
+			System.arraycopy(metric.getBytes(), 0, bytes, offset, metric.getLength());
+			offset=offset+metric.getLength();
 		}
 		if (iRO!=null){
 			System.arraycopy(iRO.getBytes(), 0, bytes, offset, iRO.getLength());
@@ -318,13 +318,13 @@ public class Response extends PCEPConstruct{
 			System.arraycopy(resConf.getBytes(), 0, bytes, offset, resConf.getLength());
 			offset=offset+resConf.getLength();
 		}
-		for (int i=0;i<pathList.size();++i){
-			System.arraycopy(pathList.get(i).getBytes(), 0, bytes, offset, pathList.get(i).getLength());
-			offset=offset+pathList.get(i).getLength();
+		for (Path path : pathList){
+			System.arraycopy(path.getBytes(), 0, bytes, offset, path.getLength());
+			offset=offset+path.getLength();
 		}
-		for (int i=0;i<metricPCEList.size();++i){
-			System.arraycopy(metricPCEList.get(i).getBytes(), 0, bytes, offset, metricPCEList.get(i).getLength());
-			offset=offset+metricPCEList.get(i).getLength();
+		for (MetricPCE metricPCE : metricPCEList){
+			System.arraycopy(metricPCE.getBytes(), 0, bytes, offset, metricPCE.getLength());
+			offset=offset+metricPCE.getLength();
 		}	
 		
 	}
@@ -538,21 +538,21 @@ public class Response extends PCEPConstruct{
 			ret=ret+"<BW>";
 		}
 		if (metricList!=null){
-			for (int i=0;i<metricList.size();++i){
-				ret=ret+metricList.get(i).toString();
+			for (Metric metric : metricList){
+				ret=ret+metric.toString();
 			}
 		}
 		if (iRO!=null){
 			ret=ret+"<IRO>";
 		}
 		if (pathList!=null){
-			for (int i=0;i<pathList.size();++i){
-				ret=ret+pathList.get(i).toString();
+			for (Path path : pathList){
+				ret=ret+path.toString();
 			}
 		}
 		if (metricPCEList!=null){
-			for (int i=0;i<metricPCEList.size();++i){
-				ret=ret+metricPCEList.get(i).toString();
+			for (MetricPCE metricPCE : metricPCEList){
+				ret=ret+metricPCE.toString();
 			}
 		}
 
@@ -51,16 +51,16 @@ public class SVECConstruct extends PCEPConstruct{
 			throw new PCEPProtocolViolationException();
 		}
 		if (objectiveFunctionList!=null){
-			for (int i=0;i<objectiveFunctionList.size();++i){
-				(objectiveFunctionList.get(i)).encode();
-				len=len+(objectiveFunctionList.get(i)).getLength();
+			for (ObjectiveFunction objectiveFunction : objectiveFunctionList){
+				objectiveFunction.encode();
+				len=len+objectiveFunction.getLength();
 			}
 			
 		}
 		if (metricList!=null){
-			for (int i=0;i<metricList.size();++i){
-				(metricList.get(i)).encode();
-				len=len+(metricList.get(i)).getLength();
+			for (Metric metric : metricList){
+				metric.encode();
+				len=len+metric.getLength();
 			}
 		}
 		this.setLength(len);
@@ -69,15 +69,15 @@ public class SVECConstruct extends PCEPConstruct{
 		System.arraycopy(svec.getBytes(), 0, bytes, offset, svec.getLength());
 		offset=offset+svec.getLength();
 		if (objectiveFunctionList!=null){
-			for (int i=0;i<objectiveFunctionList.size();++i){
-				System.arraycopy(objectiveFunctionList.get(i).getBytes(), 0, bytes, offset, objectiveFunctionList.get(i).getLength());
-				offset=offset+objectiveFunctionList.get(i).getLength();
+			for (ObjectiveFunction objectiveFunction : objectiveFunctionList){
+				System.arraycopy(objectiveFunction.getBytes(), 0, bytes, offset, objectiveFunction.getLength());
+				offset=offset+objectiveFunction.getLength();
 			}
 		}
 		if (metricList!=null){
-			for (int i=0;i<metricList.size();++i){
-				System.arraycopy(metricList.get(i).getBytes(), 0, bytes, offset, metricList.get(i).getLength());
-				offset=offset+metricList.get(i).getLength();
+			for (Metric metric : metricList){
+				System.arraycopy(metric.getBytes(), 0, bytes, offset, metric.getLength());
+				offset=offset+metric.getLength();
 			}
 		}
 		
@@ -1,12 +1,12 @@
 package es.tid.pce.pcep.constructs;
 
+import java.util.ArrayDeque;
 import java.util.LinkedList;
 import java.util.Objects;
 
+import es.tid.pce.pcep.PCEPDecoderRegistry;
 import es.tid.pce.pcep.PCEPProtocolViolationException;
 import es.tid.pce.pcep.objects.Association;
-import es.tid.pce.pcep.objects.AssociationIPv4;
-import es.tid.pce.pcep.objects.AssociationIPv6;
 import es.tid.pce.pcep.objects.LSP;
 import es.tid.pce.pcep.objects.MalformedPCEPObjectException;
 import es.tid.pce.pcep.objects.ObjectParameters;
@@ -79,15 +79,30 @@ public class StateReport extends PCEPConstruct
 	 * Optional associationList
 	 */
 	private LinkedList<Association> associationList;
+
+	/**
+	 * Objects after the path that are not part of it, of extensions the
+	 * library does not know. They are decoded with the {@link PCEPDecoderRegistry}.
+	 */
+	private LinkedList<PCEPObject> otherObjects;
+
+	/*
+	 * Objects of the previous decoding, kept by reset() to be decoded into again
+	 */
+	private ArrayDeque<SRP> spareSrps;
+	private ArrayDeque<LSP> spareLsps;
+	private ArrayDeque<Path> sparePaths;
 	
 	public StateReport(){
 		
 		super();
 		associationList=new LinkedList<Association>();
+		otherObjects=new LinkedList<PCEPObject>();
 	}
 	
 	public StateReport(byte []bytes, int offset)throws PCEPProtocolViolationException {
 		associationList=new LinkedList<Association>();
+		otherObjects=new LinkedList<PCEPObject>();
 		decode(bytes,offset);
 		
 	}
@@ -107,9 +122,9 @@ public class StateReport extends PCEPConstruct
 			throw new PCEPProtocolViolationException();
 		}
 		if (associationList != null) {
-			for (int i = 0; i < associationList.size(); ++i) {
-				(associationList.get(i)).encode();
-				length = length + (associationList.get(i)).getLength();
+			for (Association association : associationList) {
+				association.encode();
+				length = length + association.getLength();
 			}
 		}
 		if (path!=null){
@@ -119,7 +134,10 @@ public class StateReport extends PCEPConstruct
 			log.warn("PATH Construct compulsory");
 			throw new PCEPProtocolViolationException();
 		}
-		
+		for (PCEPObject object : otherObjects) {
+			object.encode();
+			length = length + object.getLength();
+		}
 		
 		this.setLength(length);
 		this.bytes = new byte[length];
@@ -132,15 +150,68 @@ public class StateReport extends PCEPConstruct
 			System.arraycopy(lsp.getBytes(), 0, this.getBytes(), offset,lsp.getLength());		
 			offset += lsp.getLength();
 		}
-		for (int i = 0; i < associationList.size(); ++i) {
-			System.arraycopy(associationList.get(i).getBytes(), 0, bytes, offset, associationList.get(i).getLength());
-			offset = offset + associationList.get(i).getLength();
+		if (associationList != null) {
+			for (Association association : associationList) {
+				System.arraycopy(association.getBytes(), 0, bytes, offset, association.getLength());
+				offset = offset + association.getLength();
+			}
 		}
 		if (path!=null){
 			System.arraycopy(path.getBytes(), 0, bytes, offset, path.getLength());
 			offset = offset+path.getLength();
 		}
-		
+		for (PCEPObject object : otherObjects) {
+			System.arraycopy(object.getBytes(), 0, bytes, offset, object.getLength());
+			offset = offset + object.getLength();
+		}
+	}
+	
+	@Override
+	public int encodedLength() throws PCEPProtocolViolationException {
+		int length=0;
+		if (srp!=null){
+			length=length+srp.encodedLength();
+		}
+		if (lsp!=null){
+			length=length+lsp.encodedLength();
+		}else {
+			log.warn("LSP Object compulsory");
+			throw new PCEPProtocolViolationException();
+		}
+		if (associationList != null) {
+			for (Association association : associationList) {
+				length = length + association.encodedLength();
+			}
+		}
+		if (path!=null){
+			length=length+path.encodedLength();
+		}else {
+			log.warn("PATH Construct compulsory");
+			throw new PCEPProtocolViolationException();
+		}
+		for (PCEPObject object : otherObjects) {
+			length = length + object.encodedLength();
+		}
+		this.setLength(length);
+		return length;
+	}
+	
+	@Override
+	public int encodeTo(byte[] buf, int offset) throws PCEPProtocolViolationException {
+		if (srp!=null){
+			offset = srp.encodeTo(buf, offset);
+		}
+		offset = lsp.encodeTo(buf, offset);
+		if (associationList != null) {
+			for (Association association : associationList) {
+				offset = association.encodeTo(buf, offset);
+			}
+		}
+		offset = path.encodeTo(buf, offset);
+		for (PCEPObject object : otherObjects) {
+			offset = object.encodeTo(buf, offset);
+		}
+		return offset;
 	}
 	
 	public void decode(byte[] bytes, int offset) throws PCEPProtocolViolationException {
@@ -158,7 +229,7 @@ public class StateReport extends PCEPConstruct
 		if (oc==ObjectParameters.PCEP_OBJECT_CLASS_SRP)
 		{
 				try {
-					srp = new SRP(bytes,offset);
+					srp = decodeSrp(bytes,offset);
 					offset=offset+srp.getLength();
 					len=len+srp.getLength();
 				} catch (MalformedPCEPObjectException e) {
@@ -173,7 +244,7 @@ public class StateReport extends PCEPConstruct
 		{
 			try 
 			{
-				lsp = new LSP(bytes,offset);
+				lsp = decodeLsp(bytes,offset);
 				offset=offset+lsp.getLength();
 				len=len+lsp.getLength();
 				if (offset>=bytes.length){
@@ -201,19 +272,12 @@ public class StateReport extends PCEPConstruct
 				ot = PCEPObject.getObjectType(bytes, offset);
 				log.debug("Voy a ver el ASSOCIATION, oc "+oc+" offset "+offset +"OT: "+ ot);
 				while (oc == ObjectParameters.PCEP_OBJECT_CLASS_ASSOCIATION) {
-					Association aso=null;
-					try {
-						if(ot == ObjectParameters.PCEP_OBJECT_TYPE__ASSOCIATION_IPV4) {
-							aso = new AssociationIPv4(bytes, offset);
-						}else if(ot == ObjectParameters.PCEP_OBJECT_TYPE__ASSOCIATION_IPV6) {
-							aso = new AssociationIPv6(bytes, offset);
-						}
-						
-					} catch (MalformedPCEPObjectException e) {
-						log.warn("Malformed ASSOCIATION Object found");
-						throw new PCEPProtocolViolationException();
+					PCEPObject aso = decodeObject(bytes, offset);
+					if (aso instanceof Association) {
+						associationList.add((Association) aso);
+					} else {
+						otherObjects.add(aso);
 					}
-					associationList.add(aso);
 					offset = offset + aso.getLength();
 					len = len + aso.getLength();
 					if (offset >= bytes.length) {
@@ -225,9 +289,20 @@ public class StateReport extends PCEPConstruct
 					ot = PCEPObject.getObjectType(bytes, offset);
 				}
 				log.debug("Voy a ver el ERO, oc "+oc+" offset "+offset +"OT: "+ ot);
-		if (PCEPObject.getObjectClass(bytes, offset)==ObjectParameters.PCEP_OBJECT_CLASS_ERO)
+		//Objects of other extensions before the path
+		while (oc != ObjectParameters.PCEP_OBJECT_CLASS_ERO && oc != ObjectParameters.PCEP_OBJECT_CLASS_SRP && oc != ObjectParameters.PCEP_OBJECT_CLASS_LSP) {
+			PCEPObject object = decodeOtherObject(bytes, offset);
+			offset = offset + object.getLength();
+			len = len + object.getLength();
+			if (offset >= bytes.length) {
+				this.setLength(len);
+				return;
+			}
+			oc = PCEPObject.getObjectClass(bytes, offset);
+		}
+		if (oc==ObjectParameters.PCEP_OBJECT_CLASS_ERO)
 		{
-			path=new Path(bytes,offset);
+			path=decodePath(bytes,offset);
 			offset=offset+path.getLength();
 			len=len+path.getLength();
 			if (offset>=bytes.length){
@@ -240,19 +315,102 @@ public class StateReport extends PCEPConstruct
 			log.warn("Malformed Report Message. There must be at least one ERO or SRERO message!");
 			//throw new PCEPProtocolViolationException();
 		}
-		if (PCEPObject.getObjectClass(bytes, offset)==34) {
-			offset+=PCEPObject.getObjectLength(bytes, offset);
-			len +=PCEPObject.getObjectLength(bytes, offset);
-			if (offset>=bytes.length){
-				this.setLength(len);
-				return;
-				}
+		//Objects up to the next state report, those of other extensions
+		oc = PCEPObject.getObjectClass(bytes, offset);
+		while (oc != ObjectParameters.PCEP_OBJECT_CLASS_SRP && oc != ObjectParameters.PCEP_OBJECT_CLASS_LSP) {
+			PCEPObject object = decodeOtherObject(bytes, offset);
+			offset = offset + object.getLength();
+			len = len + object.getLength();
+			if (offset >= bytes.length) {
+				break;
+			}
+			oc = PCEPObject.getObjectClass(bytes, offset);
 		}
-		
-		
 		this.setLength(len);
 	}
 
+	/**
+	 * Decodes a state report into this instance, reusing the SRP, LSP and
+	 * Path of the previous decoding.
+	 * @param bytes bytes
+	 * @param offset position at which the state report starts
+	 * @throws PCEPProtocolViolationException Exception when the state report is malformed
+	 */
+	public void decodeInto(byte[] bytes, int offset) throws PCEPProtocolViolationException {
+		reset();
+		decode(bytes, offset);
+	}
+
+	/**
+	 * Empties the state report. The SRP, LSP and Path are kept to be reused
+	 * by the next {@link #decodeInto(byte[], int)}, so they must not be
+	 * referenced from elsewhere after the reset.
+	 */
+	public void reset() {
+		if (spareSrps==null){
+			spareSrps=new ArrayDeque<SRP>();
+			spareLsps=new ArrayDeque<LSP>();
+			sparePaths=new ArrayDeque<Path>();
+		}
+		if (srp!=null){
+			spareSrps.add(srp);
+		}
+		if (lsp!=null){
+			spareLsps.add(lsp);
+		}
+		if (path!=null){
+			sparePaths.add(path);
+		}
+		srp=null;
+		lsp=null;
+		path=null;
+		if (associationList==null){
+			associationList=new LinkedList<Association>();
+		}else{
+			associationList.clear();
+		}
+		if (otherObjects==null){
+			otherObjects=new LinkedList<PCEPObject>();
+		}else{
+			otherObjects.clear();
+		}
+		this.setBytes(null);
+		this.setLength(0);
+	}
+
+	private PCEPObject decodeOtherObject(byte[] bytes, int offset) throws PCEPProtocolViolationException {
+		PCEPObject object = decodeObject(bytes, offset);
+		otherObjects.add(object);
+		return object;
+	}
+
+	private SRP decodeSrp(byte[] bytes, int offset) throws MalformedPCEPObjectException {
+		SRP decoded=spareSrps==null ? null : spareSrps.poll();
+		if (decoded==null){
+			return new SRP(bytes,offset);
+		}
+		decoded.decodeInto(bytes, offset);
+		return decoded;
+	}
+
+	private LSP decodeLsp(byte[] bytes, int offset) throws MalformedPCEPObjectException {
+		LSP decoded=spareLsps==null ? null : spareLsps.poll();
+		if (decoded==null){
+			return new LSP(bytes,offset);
+		}
+		decoded.decodeInto(bytes, offset);
+		return decoded;
+	}
+
+	private Path decodePath(byte[] bytes, int offset) throws PCEPProtocolViolationException {
+		Path decoded=sparePaths==null ? null : sparePaths.poll();
+		if (decoded==null){
+			return new Path(bytes,offset);
+		}
+		decoded.decodeInto(bytes, offset);
+		return decoded;
+	}
+
 	public SRP getSrp() {
 		return srp;
 	}
@@ -286,11 +444,22 @@ public class StateReport extends PCEPConstruct
 		this.associationList = associationList;
 	}
 
+	/**
+	 * @return objects after the path that are not part of it
+	 */
+	public LinkedList<PCEPObject> getOtherObjects() {
+		return otherObjects;
+	}
+
+	public void setOtherObjects(LinkedList<PCEPObject> otherObjects) {
+		this.otherObjects = otherObjects;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
-		result = prime * result + Objects.hash(associationList, lsp, path, srp);
+		result = prime * result + Objects.hash(associationList, lsp, otherObjects, path, srp);
 		return result;
 	}
 
@@ -304,13 +473,14 @@ public class StateReport extends PCEPConstruct
 			return false;
 		StateReport other = (StateReport) obj;
 		return Objects.equals(associationList, other.associationList) && Objects.equals(lsp, other.lsp)
-				&& Objects.equals(path, other.path) && Objects.equals(srp, other.srp);
+				&& Objects.equals(otherObjects, other.otherObjects) && Objects.equals(path, other.path)
+				&& Objects.equals(srp, other.srp);
 	}
 
 	@Override
 	public String toString() {
 		return "StateReport [srp=" + srp + ", lsp=" + lsp + ", path=" + path + ", associationList=" + associationList
-				+ "]";
+				+ (otherObjects.isEmpty() ? "" : ", otherObjects=" + otherObjects) + "]";
 	}
 	
 	
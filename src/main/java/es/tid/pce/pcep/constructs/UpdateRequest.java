@@ -4,10 +4,7 @@ import java.util.LinkedList;
 
 import es.tid.pce.pcep.PCEPProtocolViolationException;
 import es.tid.pce.pcep.objects.Association;
-import es.tid.pce.pcep.objects.AssociationIPv4;
-import es.tid.pce.pcep.objects.AssociationIPv6;
 import es.tid.pce.pcep.objects.LSP;
-import es.tid.pce.pcep.objects.MalformedPCEPObjectException;
 import es.tid.pce.pcep.objects.ObjectParameters;
 import es.tid.pce.pcep.objects.PCEPObject;
 import es.tid.pce.pcep.objects.SRP;
@@ -22,6 +19,8 @@ import es.tid.pce.pcep.objects.SRP;
  *      [<association-list>]
  *      <path>
  * }
+ * Objects of other extensions are kept in the other objects, and encoded
+ * after the path.
  * @author Fernando Munoz del Nuevo
  * @author ogondio
  *
@@ -38,9 +37,16 @@ public class UpdateRequest extends PCEPConstruct
 	 */
 	private LinkedList<Association> associationList;
 	
+	/**
+	 * Objects of extensions the construct does not know, decoded with the
+	 * {@link es.tid.pce.pcep.PCEPDecoderRegistry}
+	 */
+	private LinkedList<PCEPObject> otherObjects;
+	
 	public UpdateRequest(){
 		super();
 		associationList=new LinkedList<Association>();
+		otherObjects=new LinkedList<PCEPObject>();
 		
 	}
 
@@ -48,6 +54,7 @@ public class UpdateRequest extends PCEPConstruct
 	public UpdateRequest(byte []bytes, int offset)throws PCEPProtocolViolationException 
 	{
 		associationList=new LinkedList<Association>();
+		otherObjects=new LinkedList<PCEPObject>();
 		decode(bytes, offset);
 	}
 	
@@ -68,15 +75,22 @@ public class UpdateRequest extends PCEPConstruct
 		
 		
 		if (associationList != null) {
-			for (int i = 0; i < associationList.size(); ++i) {
-				(associationList.get(i)).encode();
-				length = length + (associationList.get(i)).getLength();
+			for (Association association : associationList) {
+				association.encode();
+				length = length + association.getLength();
 			}
 		}
 		
 		path.encode();
 		length += path.getLength();
 		
+		if (otherObjects != null) {
+			for (PCEPObject object : otherObjects) {
+				object.encode();
+				length = length + object.getLength();
+			}
+		}
+		
 		this.setLength(length);
 		this.bytes = new byte[length];
 		int offset = 0;
@@ -87,14 +101,59 @@ public class UpdateRequest extends PCEPConstruct
 		System.arraycopy(lsp.getBytes(), 0, this.getBytes(), offset,lsp.getLength());		
 		offset += lsp.getLength();
 		
-		for (int i = 0; i < associationList.size(); ++i) {
-			System.arraycopy(associationList.get(i).getBytes(), 0, bytes, offset, associationList.get(i).getLength());
-			offset = offset + associationList.get(i).getLength();
+		for (Association association : associationList) {
+			System.arraycopy(association.getBytes(), 0, bytes, offset, association.getLength());
+			offset = offset + association.getLength();
 		}
 
 		System.arraycopy(path.getBytes(), 0, bytes, offset, path.getLength());
 		offset = offset+path.getLength();
 		
+		if (otherObjects != null) {
+			for (PCEPObject object : otherObjects) {
+				System.arraycopy(object.getBytes(), 0, bytes, offset, object.getLength());
+				offset = offset + object.getLength();
+			}
+		}
+	}
+	
+	@Override
+	public int encodedLength() throws PCEPProtocolViolationException {
+		int length = srp.encodedLength();
+		if (lsp != null) {
+			length += lsp.encodedLength();
+		}
+		if (associationList != null) {
+			for (Association association : associationList) {
+				length = length + association.encodedLength();
+			}
+		}
+		length += path.encodedLength();
+		if (otherObjects != null) {
+			for (PCEPObject object : otherObjects) {
+				length = length + object.encodedLength();
+			}
+		}
+		this.setLength(length);
+		return length;
+	}
+	
+	@Override
+	public int encodeTo(byte[] buf, int offset) throws PCEPProtocolViolationException {
+		offset = srp.encodeTo(buf, offset);
+		offset = lsp.encodeTo(buf, offset);
+		if (associationList != null) {
+			for (Association association : associationList) {
+				offset = association.encodeTo(buf, offset);
+			}
+		}
+		offset = path.encodeTo(buf, offset);
+		if (otherObjects != null) {
+			for (PCEPObject object : otherObjects) {
+				offset = object.encodeTo(buf, offset);
+			}
+		}
+		return offset;
 	}
 
 	protected void decode(byte[] bytes, int offset) throws PCEPProtocolViolationException
@@ -107,19 +166,10 @@ public class UpdateRequest extends PCEPConstruct
 			throw new PCEPProtocolViolationException();
 		}
 		
-		int oc=PCEPObject.getObjectClass(bytes, offset);
-		if (oc==ObjectParameters.PCEP_OBJECT_CLASS_SRP)
+		PCEPObject object=decodeObject(bytes, offset);
+		if (object instanceof SRP)
 		{
-			try 
-			{
-				srp = new SRP(bytes,offset);
-				
-			} 
-			catch (MalformedPCEPObjectException e) 
-			{
-				log.warn("Malformed SRP Object found");
-				throw new PCEPProtocolViolationException();
-			}
+			srp=(SRP)object;
 			offset=offset+srp.getLength();
 			len=len+srp.getLength();
 		}
@@ -129,20 +179,10 @@ public class UpdateRequest extends PCEPConstruct
 			throw new PCEPProtocolViolationException();
 		}
 		
-		
-		oc=PCEPObject.getObjectClass(bytes, offset);
-		if (oc==ObjectParameters.PCEP_OBJECT_CLASS_LSP)
+		object=decodeObject(bytes, offset);
+		if (object instanceof LSP)
 		{
-			try 
-			{
-				lsp = new LSP(bytes,offset);
-				
-			} 
-			catch (MalformedPCEPObjectException e) 
-			{
-				log.warn("Malformed LSP Object found");
-				throw new PCEPProtocolViolationException();
-			}
+			lsp=(LSP)object;
 			offset=offset+lsp.getLength();
 			len=len+lsp.getLength();
 		}
@@ -152,45 +192,27 @@ public class UpdateRequest extends PCEPConstruct
 			throw new PCEPProtocolViolationException();
 		}
 		
-		//Association
-		
-		oc = PCEPObject.getObjectClass(bytes, offset);
-		int ot = PCEPObject.getObjectType(bytes, offset);
-		log.debug("Checking ASSOCIATION");
-		while (oc == ObjectParameters.PCEP_OBJECT_CLASS_ASSOCIATION) {
-			Association aso=null;
-			try {
-				if(ot == ObjectParameters.PCEP_OBJECT_TYPE__ASSOCIATION_IPV4) {
-					aso = new AssociationIPv4(bytes, offset);
-				}else if(ot == ObjectParameters.PCEP_OBJECT_TYPE__ASSOCIATION_IPV6) {
-					aso = new AssociationIPv6(bytes, offset);
-				}
-				
-			} catch (MalformedPCEPObjectException e) {
-				log.warn("Malformed ASSOCIATION Object found");
-				throw new PCEPProtocolViolationException();
+		//Associations, path and objects of other extensions, up to the next update request
+		while (offset<max_offset && PCEPObject.getObjectClass(bytes, offset)!=ObjectParameters.PCEP_OBJECT_CLASS_SRP)
+		{
+			if (path==null && PCEPObject.getObjectClass(bytes, offset)==ObjectParameters.PCEP_OBJECT_CLASS_ERO)
+			{
+				path=new Path(bytes,offset);
+				offset=offset+path.getLength();
+				len=len+path.getLength();
+				continue;
 			}
-			associationList.add(aso);
-			offset = offset + aso.getLength();
-			len = len + aso.getLength();
-			if (offset >= bytes.length) {
-				this.setLength(len);
-				return;
+			object=decodeObject(bytes, offset);
+			if (path==null && object instanceof Association)
+			{
+				associationList.add((Association)object);
 			}
-			
-			oc = PCEPObject.getObjectClass(bytes, offset);
-			ot = PCEPObject.getObjectType(bytes, offset);
-		}
-		
-		if (PCEPObject.getObjectClass(bytes, offset)==ObjectParameters.PCEP_OBJECT_CLASS_ERO)
-		{
-			path=new Path(bytes,offset);
-			offset=offset+path.getLength();
-			len=len+path.getLength();
-			if (offset>=bytes.length){
-				this.setLength(len);
-				return;
+			else
+			{
+				otherObjects.add(object);
 			}
+			offset=offset+object.getLength();
+			len=len+object.getLength();
 		}
 		this.setLength(len);
 	}
@@ -236,12 +258,26 @@ public class UpdateRequest extends PCEPConstruct
 	}
 
 
+	/**
+	 * @return objects of other extensions, encoded after the path
+	 */
+	public LinkedList<PCEPObject> getOtherObjects() {
+		return otherObjects;
+	}
+
+
+	public void setOtherObjects(LinkedList<PCEPObject> otherObjects) {
+		this.otherObjects = otherObjects;
+	}
+
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((associationList == null) ? 0 : associationList.hashCode());
 		result = prime * result + ((lsp == null) ? 0 : lsp.hashCode());
+		result = prime * result + ((otherObjects == null) ? 0 : otherObjects.hashCode());
 		result = prime * result + ((path == null) ? 0 : path.hashCode());
 		result = prime * result + ((srp == null) ? 0 : srp.hashCode());
 		return result;
@@ -267,6 +303,11 @@ public class UpdateRequest extends PCEPConstruct
 				return false;
 		} else if (!lsp.equals(other.lsp))
 			return false;
+		if (otherObjects == null) {
+			if (other.otherObjects != null)
+				return false;
+		} else if (!otherObjects.equals(other.otherObjects))
+			return false;
 		if (path == null) {
 			if (other.path != null)
 				return false;
@@ -284,7 +325,7 @@ public class UpdateRequest extends PCEPConstruct
 	@Override
 	public String toString() {
 		return "UpdateRequest [lsp=" + lsp + ", srp=" + srp + ", path=" + path + ", associationList=" + associationList
-				+ "]";
+				+ (otherObjects == null || otherObjects.isEmpty() ? "" : ", otherObjects=" + otherObjects) + "]";
 	}
 
 
@@ -0,0 +1,629 @@
+package es.tid.pce.pcep.lspdb;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.pce.pcep.constructs.Path;
+import es.tid.pce.pcep.constructs.StateReport;
+import es.tid.pce.pcep.messages.PCEPReport;
+import es.tid.pce.pcep.objects.Bandwidth;
+import es.tid.pce.pcep.objects.BandwidthExistingLSP;
+import es.tid.pce.pcep.objects.BandwidthRequested;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.Metric;
+import es.tid.pce.pcep.objects.OPEN;
+import es.tid.pce.pcep.objects.PCEPObject;
+import es.tid.pce.pcep.objects.tlvs.IPv4LSPIdentifiersTLV;
+import es.tid.protocol.commons.IntIntHashMap;
+
+/**
+ * LSP State Database of the LSPs of one PCC (RFC 8231, Section 5.6),
+ * updated with the state reports of its PCRpt messages.
+ *
+ * The LSPs are stored in parallel arrays, one cell per LSP, and indexed by
+ * PLSP-ID, Symbolic Path Name and Tunnel ID with open addressing tables of
+ * ints, so a PCC with hundreds of thousands of LSPs does not cost an object
+ * graph per LSP. The cells of the removed LSPs are reused. Nothing of the
+ * reports is referenced after {@link #update(StateReport)}, so the reports
+ * can be decoded with a {@link es.tid.pce.pcep.PCEPRecycler}.
+ *
+ * The database follows the State Synchronization of the PCC: the LSPs
+ * reported with the SYNC flag replace the previous contents, and the LSPs
+ * that were not reported are removed at the end-of-synchronization marker.
+ * A report with the R flag removes the LSP. With the synchronization
+ * optimizations of RFC 8232, the database of a previous session of the PCC
+ * is kept, and the synchronization is skipped or only updates it (see
+ * {@link #restartSynchronization(OPEN, OPEN)}).
+ *
+ * A database belongs to the session of the PCC and is not thread safe.
+ */
+public class LSPDatabase {
+
+	private static final Logger log = LoggerFactory.getLogger("PCEPParser");
+
+	public enum SyncState {
+		/**
+		 * No report received since the session started
+		 */
+		NOT_SYNCHRONIZED,
+		/**
+		 * Reports with the SYNC flag are being received
+		 */
+		SYNCHRONIZING,
+		SYNCHRONIZED
+	}
+
+	private static final int NONE = -1;
+
+	/**
+	 * PLSP-ID to cell. The Tunnel ID and name indexes map the key (the hash
+	 * of the name) to the first cell, the cells with the same key are linked
+	 * by nextByTunnel and nextByName.
+	 */
+	private final IntIntHashMap byPlspId;
+	private final IntIntHashMap byTunnelId;
+	private final IntIntHashMap byNameHash;
+
+	private int capacity;
+	private int[] plspIds;
+	private int[] flags;
+	private byte[][] names;
+	private int[] tunnelSenders;
+	private int[] tunnelEndpoints;
+	private int[] lspIds;
+	/**
+	 * Tunnel ID, or NONE if the LSP Identifiers have not been reported
+	 */
+	private int[] tunnelIds;
+	private int[] extendedTunnelIds;
+	private byte[][] eros;
+	private byte[][] rros;
+	private float[] bandwidths;
+	private long[][] metrics;
+	private long[] srpIds;
+	private int[] generations;
+	private int[] nextByTunnel;
+	private int[] nextByName;
+
+	/**
+	 * Cells in use are the ones with plspIds != 0; the free ones below
+	 * highWater are in the stack
+	 */
+	private int highWater;
+	private int[] free;
+	private int freeCount;
+
+	private int size;
+
+	private SyncState syncState = SyncState.NOT_SYNCHRONIZED;
+	private StateSyncMode syncMode = StateSyncMode.FULL;
+	/**
+	 * Incremented by each synchronization, the cells reported during it get it
+	 */
+	private int generation;
+
+	private long databaseVersion;
+
+	public LSPDatabase() {
+		this(1024);
+	}
+
+	/**
+	 * @param expectedSize number of LSPs expected, the database grows beyond it
+	 */
+	public LSPDatabase(int expectedSize) {
+		byPlspId = new IntIntHashMap(expectedSize, NONE);
+		byTunnelId = new IntIntHashMap(expectedSize, NONE);
+		byNameHash = new IntIntHashMap(expectedSize, NONE);
+		allocate(Math.max(16, expectedSize));
+	}
+
+	private void allocate(int newCapacity) {
+		plspIds = grow(plspIds, newCapacity);
+		flags = grow(flags, newCapacity);
+		names = grow(names, newCapacity);
+		tunnelSenders = grow(tunnelSenders, newCapacity);
+		tunnelEndpoints = grow(tunnelEndpoints, newCapacity);
+		lspIds = grow(lspIds, newCapacity);
+		tunnelIds = grow(tunnelIds, newCapacity);
+		extendedTunnelIds = grow(extendedTunnelIds, newCapacity);
+		eros = grow(eros, newCapacity);
+		rros = grow(rros, newCapacity);
+		bandwidths = bandwidths == null ? new float[newCapacity] : Arrays.copyOf(bandwidths, newCapacity);
+		metrics = grow(metrics, newCapacity);
+		srpIds = srpIds == null ? new long[newCapacity] : Arrays.copyOf(srpIds, newCapacity);
+		generations = grow(generations, newCapacity);
+		nextByTunnel = grow(nextByTunnel, newCapacity);
+		nextByName = grow(nextByName, newCapacity);
+		free = grow(free, newCapacity);
+		capacity = newCapacity;
+	}
+
+	private static int[] grow(int[] array, int length) {
+		return array == null ? new int[length] : Arrays.copyOf(array, length);
+	}
+
+	private static byte[][] grow(byte[][] array, int length) {
+		return array == null ? new byte[length][] : Arrays.copyOf(array, length);
+	}
+
+	private static long[][] grow(long[][] array, int length) {
+		return array == null ? new long[length][] : Arrays.copyOf(array, length);
+	}
+
+	/**
+	 * Applies the state reports of a PCRpt message
+	 * @return number of state reports applied
+	 */
+	public int update(PCEPReport report) {
+		int n = 0;
+		for (StateReport stateReport : report.getStateReportList()) {
+			if (update(stateReport)) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Applies a state report
+	 * @return false if it has no LSP object
+	 */
+	public boolean update(StateReport stateReport) {
+		LSP lsp = stateReport.getLsp();
+		if (lsp == null) {
+			return false;
+		}
+		if (lsp.getLspDBVersion_tlv() != null) {
+			databaseVersion = lsp.getLspDBVersion_tlv().getLSPStateDBVersion();
+		}
+		int plspId = lsp.getLspId();
+		if (plspId == 0) {
+			if (!lsp.isSyncFlag()) {
+				endSynchronization();
+			}
+			return true;
+		}
+		if (lsp.isSyncFlag() && syncState != SyncState.SYNCHRONIZING) {
+			beginSynchronization();
+		}
+		if (lsp.isRemoveFlag()) {
+			remove(plspId);
+			return true;
+		}
+		int cell = byPlspId.get(plspId);
+		if (cell == NONE) {
+			cell = allocateCell(plspId);
+		}
+		flags[cell] = flags(lsp);
+		generations[cell] = generation;
+		if (stateReport.getSrp() != null) {
+			srpIds[cell] = stateReport.getSrp().getSRP_ID_number();
+		} else {
+			srpIds[cell] = 0;
+		}
+		// the name and identifiers are kept when they are not reported again
+		if (lsp.getSymbolicPathNameTLV_tlv() != null) {
+			setName(cell, lsp.getSymbolicPathNameTLV_tlv().getSymbolicPathNameID());
+		}
+		IPv4LSPIdentifiersTLV identifiers = lsp.getLspIdentifiers_tlv();
+		if (identifiers != null) {
+			tunnelSenders[cell] = toInt(identifiers.getTunnelSenderIPAddress().getAddress());
+			tunnelEndpoints[cell] = toInt(identifiers.getTunnelEndPointIPAddress().getAddress());
+			lspIds[cell] = identifiers.getLspID();
+			extendedTunnelIds[cell] = (int) identifiers.getExtendedTunnelID();
+			setTunnelId(cell, identifiers.getTunnelID());
+		}
+		Path path = stateReport.getPath();
+		if (path != null) {
+			eros[cell] = copy(path.getEro());
+			rros[cell] = copy(path.getActual_path());
+			bandwidths[cell] = bandwidth(path.getBandwidth() != null ? path.getBandwidth() : path.getActual_bandwidth());
+			metrics[cell] = metrics(path.getActual_metricList(), path.getMetricList());
+		}
+		return true;
+	}
+
+	/**
+	 * Starts a full State Synchronization: the LSPs that are not reported
+	 * before the end-of-synchronization marker will be removed. It is called
+	 * by the first report with the SYNC flag.
+	 */
+	public void beginSynchronization() {
+		syncState = SyncState.SYNCHRONIZING;
+		generation++;
+	}
+
+	/**
+	 * Ends the State Synchronization, removing the LSPs that were not reported
+	 * during it. It is called by the end-of-synchronization marker. In a full
+	 * synchronization, a marker that arrives before any report with the SYNC
+	 * flag is an empty synchronization (the PCC has no LSPs), and all the LSPs
+	 * of the previous session are removed.
+	 */
+	public void endSynchronization() {
+		if (syncState == SyncState.NOT_SYNCHRONIZED && syncMode == StateSyncMode.FULL) {
+			beginSynchronization();
+		}
+		if (syncState == SyncState.SYNCHRONIZING && syncMode == StateSyncMode.FULL) {
+			int removed = 0;
+			for (int cell = 0; cell < highWater; ++cell) {
+				if (plspIds[cell] != 0 && generations[cell] != generation) {
+					remove(plspIds[cell]);
+					removed++;
+				}
+			}
+			if (removed > 0) {
+				log.info("State synchronization removed " + removed + " stale LSPs");
+			}
+		}
+		syncState = SyncState.SYNCHRONIZED;
+	}
+
+	/**
+	 * Keeps the LSPs of a previous session of the PCC, to be replaced by its
+	 * next State Synchronization
+	 */
+	public void restartSynchronization() {
+		restartSynchronization(StateSyncMode.FULL);
+	}
+
+	/**
+	 * Keeps the LSPs of a previous session of the PCC for the State
+	 * Synchronization of a new one
+	 * @param mode FULL to replace them, INCREMENTAL to update them with the
+	 * reports of the synchronization, SKIP if they are up to date
+	 */
+	public void restartSynchronization(StateSyncMode mode) {
+		syncMode = mode;
+		syncState = mode == StateSyncMode.SKIP ? SyncState.SYNCHRONIZED : SyncState.NOT_SYNCHRONIZED;
+	}
+
+	/**
+	 * Chooses the State Synchronization of a new session of the PCC (RFC 8232,
+	 * Section 3): it is skipped if the PCC has the version of the database,
+	 * and incremental if both speakers support it and the database has a version.
+	 * @param local OPEN object sent to the PCC
+	 * @param pcc OPEN object received from the PCC
+	 * @return the synchronization expected
+	 */
+	public StateSyncMode restartSynchronization(OPEN local, OPEN pcc) {
+		StateSyncMode mode = StateSyncMode.FULL;
+		if (StateSyncMode.isIncludeDBVersion(local, pcc) && databaseVersion != 0) {
+			if (StateSyncMode.getDatabaseVersion(pcc) == databaseVersion) {
+				mode = StateSyncMode.SKIP;
+			} else if (StateSyncMode.isDeltaLSPSync(local, pcc)) {
+				mode = StateSyncMode.INCREMENTAL;
+			}
+		}
+		restartSynchronization(mode);
+		return mode;
+	}
+
+	private int allocateCell(int plspId) {
+		int cell;
+		if (freeCount > 0) {
+			cell = free[--freeCount];
+		} else {
+			if (highWater == capacity) {
+				allocate(capacity * 2);
+			}
+			cell = highWater++;
+		}
+		plspIds[cell] = plspId;
+		tunnelIds[cell] = NONE;
+		nextByTunnel[cell] = NONE;
+		nextByName[cell] = NONE;
+		bandwidths[cell] = Float.NaN;
+		byPlspId.put(plspId, cell);
+		size++;
+		return cell;
+	}
+
+	/**
+	 * Removes an LSP
+	 * @return false if it is not in the database
+	 */
+	public boolean remove(int plspId) {
+		int cell = byPlspId.remove(plspId);
+		if (cell == NONE) {
+			return false;
+		}
+		unlinkTunnel(cell);
+		unlinkName(cell);
+		plspIds[cell] = 0;
+		flags[cell] = 0;
+		names[cell] = null;
+		tunnelSenders[cell] = 0;
+		tunnelEndpoints[cell] = 0;
+		lspIds[cell] = 0;
+		extendedTunnelIds[cell] = 0;
+		eros[cell] = null;
+		rros[cell] = null;
+		metrics[cell] = null;
+		srpIds[cell] = 0;
+		free[freeCount++] = cell;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Removes all the LSPs
+	 */
+	public void clear() {
+		byPlspId.clear();
+		byTunnelId.clear();
+		byNameHash.clear();
+		Arrays.fill(names, null);
+		Arrays.fill(eros, null);
+		Arrays.fill(rros, null);
+		Arrays.fill(metrics, null);
+		Arrays.fill(plspIds, 0);
+		highWater = 0;
+		freeCount = 0;
+		size = 0;
+	}
+
+	private void setTunnelId(int cell, int tunnelId) {
+		if (tunnelIds[cell] == tunnelId) {
+			return;
+		}
+		unlinkTunnel(cell);
+		tunnelIds[cell] = tunnelId;
+		int head = byTunnelId.put(tunnelId, cell);
+		nextByTunnel[cell] = head;
+	}
+
+	private void unlinkTunnel(int cell) {
+		int tunnelId = tunnelIds[cell];
+		if (tunnelId == NONE) {
+			return;
+		}
+		int head = byTunnelId.get(tunnelId);
+		if (head == cell) {
+			if (nextByTunnel[cell] == NONE) {
+				byTunnelId.remove(tunnelId);
+			} else {
+				byTunnelId.put(tunnelId, nextByTunnel[cell]);
+			}
+		} else {
+			int c = head;
+			while (nextByTunnel[c] != cell) {
+				c = nextByTunnel[c];
+			}
+			nextByTunnel[c] = nextByTunnel[cell];
+		}
+		tunnelIds[cell] = NONE;
+		nextByTunnel[cell] = NONE;
+	}
+
+	private void setName(int cell, byte[] name) {
+		if (Arrays.equals(names[cell], name)) {
+			return;
+		}
+		unlinkName(cell);
+		names[cell] = name;
+		int head = byNameHash.put(Arrays.hashCode(name), cell);
+		nextByName[cell] = head;
+	}
+
+	private void unlinkName(int cell) {
+		byte[] name = names[cell];
+		if (name == null) {
+			return;
+		}
+		int hash = Arrays.hashCode(name);
+		int head = byNameHash.get(hash);
+		if (head == cell) {
+			if (nextByName[cell] == NONE) {
+				byNameHash.remove(hash);
+			} else {
+				byNameHash.put(hash, nextByName[cell]);
+			}
+		} else {
+			int c = head;
+			while (nextByName[c] != cell) {
+				c = nextByName[c];
+			}
+			nextByName[c] = nextByName[cell];
+		}
+		names[cell] = null;
+		nextByName[cell] = NONE;
+	}
+
+	private static int flags(LSP lsp) {
+		int f = lsp.getOpFlags() << 4;
+		if (lsp.isDelegateFlag()) f |= LSPRecord.FLAG_DELEGATE;
+		if (lsp.isSyncFlag()) f |= LSPRecord.FLAG_SYNC;
+		if (lsp.isRemoveFlag()) f |= LSPRecord.FLAG_REMOVE;
+		if (lsp.isAdministrativeFlag()) f |= LSPRecord.FLAG_ADMINISTRATIVE;
+		if (lsp.isCreateFlag()) f |= LSPRecord.FLAG_CREATE;
+		if (lsp.isP2mpFlag()) f |= LSPRecord.FLAG_P2MP;
+		if (lsp.isFragmentationFlag()) f |= LSPRecord.FLAG_FRAGMENTATION;
+		if (lsp.isEroCompressionFlag()) f |= LSPRecord.FLAG_ERO_COMPRESSION;
+		return f;
+	}
+
+	/**
+	 * The bytes of a decoded object are reused by the recycler, they are copied
+	 */
+	private static byte[] copy(PCEPObject object) {
+		if (object == null) {
+			return null;
+		}
+		if (object.getBytes() == null) {
+			object.encode();
+		}
+		return Arrays.copyOf(object.getBytes(), object.getLength());
+	}
+
+	private static float bandwidth(Bandwidth bandwidth) {
+		if (bandwidth instanceof BandwidthRequested) {
+			return ((BandwidthRequested) bandwidth).getBw();
+		} else if (bandwidth instanceof BandwidthExistingLSP) {
+			return ((BandwidthExistingLSP) bandwidth).getBw();
+		}
+		return Float.NaN;
+	}
+
+	private static long[] metrics(LinkedList<Metric> actual, LinkedList<Metric> intended) {
+		int n = (actual == null ? 0 : actual.size()) + (intended == null ? 0 : intended.size());
+		if (n == 0) {
+			return null;
+		}
+		long[] packed = new long[n];
+		int i = 0;
+		for (LinkedList<Metric> list : Arrays.asList(actual, intended)) {
+			if (list != null) {
+				for (Metric metric : list) {
+					int metricFlags = (metric.isBoundBit() ? LSPRecord.METRIC_FLAG_BOUND : 0)
+							| (metric.isComputedMetricBit() ? LSPRecord.METRIC_FLAG_COMPUTED : 0);
+					packed[i++] = packMetric(metric.getMetricType(), metricFlags, metric.getMetricValue());
+				}
+			}
+		}
+		return packed;
+	}
+
+	static long packMetric(int type, int metricFlags, float value) {
+		return ((long) (type & 0xFF) << 40) | ((long) (metricFlags & 0xFF) << 32)
+				| (Float.floatToIntBits(value) & 0xFFFFFFFFL);
+	}
+
+	static int metricType(long metric) {
+		return (int) (metric >>> 40) & 0xFF;
+	}
+
+	static int metricFlags(long metric) {
+		return (int) (metric >>> 32) & 0xFF;
+	}
+
+	static float metricValue(long metric) {
+		return Float.intBitsToFloat((int) metric);
+	}
+
+	private static int toInt(byte[] address) {
+		return ((address[0] & 0xFF) << 24) | ((address[1] & 0xFF) << 16) | ((address[2] & 0xFF) << 8) | (address[3] & 0xFF);
+	}
+
+	private LSPRecord record(int cell) {
+		return new LSPRecord(plspIds[cell], flags[cell], names[cell], tunnelSenders[cell], tunnelEndpoints[cell],
+				lspIds[cell], tunnelIds[cell] == NONE ? 0 : tunnelIds[cell], extendedTunnelIds[cell], eros[cell],
+				rros[cell], bandwidths[cell], metrics[cell], srpIds[cell]);
+	}
+
+	/**
+	 * @return the LSP, or null if it is not in the database
+	 */
+	public LSPRecord get(int plspId) {
+		int cell = byPlspId.get(plspId);
+		return cell == NONE ? null : record(cell);
+	}
+
+	public boolean contains(int plspId) {
+		return byPlspId.containsKey(plspId);
+	}
+
+	/**
+	 * @return flags of the LSP (LSPRecord.FLAG_ constants), or -1 if it is not in the database
+	 */
+	public int getFlags(int plspId) {
+		int cell = byPlspId.get(plspId);
+		return cell == NONE ? -1 : flags[cell];
+	}
+
+	/**
+	 * @return the LSP with the Symbolic Path Name, or null
+	 */
+	public LSPRecord getBySymbolicName(String name) {
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		for (int cell = byNameHash.get(Arrays.hashCode(bytes)); cell != NONE; cell = nextByName[cell]) {
+			if (Arrays.equals(names[cell], bytes)) {
+				return record(cell);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return PLSP-ID of the LSP with the Symbolic Path Name, or 0
+	 */
+	public int getPlspId(String name) {
+		LSPRecord lsp = getBySymbolicName(name);
+		return lsp == null ? 0 : lsp.getPlspId();
+	}
+
+	/**
+	 * @return the LSPs of the tunnel, several during a make-before-break
+	 */
+	public List<LSPRecord> getByTunnelId(int tunnelId) {
+		List<LSPRecord> lsps = new ArrayList<LSPRecord>(2);
+		for (int cell = byTunnelId.get(tunnelId); cell != NONE; cell = nextByTunnel[cell]) {
+			lsps.add(record(cell));
+		}
+		return lsps;
+	}
+
+	/**
+	 * Gives every LSP to the consumer, in no particular order
+	 */
+	public void forEach(Consumer<LSPRecord> consumer) {
+		for (int cell = 0; cell < highWater; ++cell) {
+			if (plspIds[cell] != 0) {
+				consumer.accept(record(cell));
+			}
+		}
+	}
+
+	/**
+	 * @return PLSP-IDs of the LSPs, in no particular order
+	 */
+	public int[] getPlspIds() {
+		int[] ids = new int[size];
+		int n = 0;
+		for (int cell = 0; cell < highWater; ++cell) {
+			if (plspIds[cell] != 0) {
+				ids[n++] = plspIds[cell];
+			}
+		}
+		return ids;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public SyncState getSyncState() {
+		return syncState;
+	}
+
+	/**
+	 * @return the kind of the current or last State Synchronization
+	 */
+	public StateSyncMode getSyncMode() {
+		return syncMode;
+	}
+
+	public boolean isSynchronized() {
+		return syncState == SyncState.SYNCHRONIZED;
+	}
+
+	/**
+	 * @return the last LSP State Database Version reported by the PCC, 0 if none
+	 */
+	public long getDatabaseVersion() {
+		return databaseVersion;
+	}
+
+	public void setDatabaseVersion(long databaseVersion) {
+		this.databaseVersion = databaseVersion;
+	}
+
+}
@@ -0,0 +1,244 @@
+package es.tid.pce.pcep.lspdb;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.MalformedPCEPObjectException;
+import es.tid.pce.pcep.objects.ReportedRouteObject;
+
+/**
+ * State of an LSP in an {@link LSPDatabase}, as last reported by the PCC.
+ *
+ * The database keeps its LSPs in arrays; a record is a copy of one of them
+ * made by a lookup, it does not change with later reports.
+ */
+public class LSPRecord {
+
+	/*
+	 * Flags of the LSP object, with the positions of its bytes 6 and 7
+	 */
+	public static final int FLAG_DELEGATE = 0x01;
+	public static final int FLAG_SYNC = 0x02;
+	public static final int FLAG_REMOVE = 0x04;
+	public static final int FLAG_ADMINISTRATIVE = 0x08;
+	public static final int MASK_OPERATIONAL = 0x70;
+	public static final int FLAG_CREATE = 0x80;
+	public static final int FLAG_P2MP = 0x100;
+	public static final int FLAG_FRAGMENTATION = 0x200;
+	public static final int FLAG_ERO_COMPRESSION = 0x400;
+
+	/**
+	 * Metric flags of {@link #getMetricFlags(int)}
+	 */
+	public static final int METRIC_FLAG_BOUND = 0x01;
+	public static final int METRIC_FLAG_COMPUTED = 0x02;
+
+	private final int plspId;
+	private final int flags;
+	private final byte[] symbolicName;
+	private final int tunnelSender;
+	private final int tunnelEndpoint;
+	private final int lspId;
+	private final int tunnelId;
+	private final int extendedTunnelId;
+	private final byte[] ero;
+	private final byte[] rro;
+	private final float bandwidth;
+	private final long[] metrics;
+	private final long srpId;
+
+	LSPRecord(int plspId, int flags, byte[] symbolicName, int tunnelSender, int tunnelEndpoint, int lspId,
+			int tunnelId, int extendedTunnelId, byte[] ero, byte[] rro, float bandwidth, long[] metrics, long srpId) {
+		this.plspId = plspId;
+		this.flags = flags;
+		this.symbolicName = symbolicName;
+		this.tunnelSender = tunnelSender;
+		this.tunnelEndpoint = tunnelEndpoint;
+		this.lspId = lspId;
+		this.tunnelId = tunnelId;
+		this.extendedTunnelId = extendedTunnelId;
+		this.ero = ero;
+		this.rro = rro;
+		this.bandwidth = bandwidth;
+		this.metrics = metrics;
+		this.srpId = srpId;
+	}
+
+	public int getPlspId() {
+		return plspId;
+	}
+
+	/**
+	 * @return flags of the LSP object (FLAG_ constants)
+	 */
+	public int getFlags() {
+		return flags;
+	}
+
+	public boolean isDelegated() {
+		return (flags & FLAG_DELEGATE) != 0;
+	}
+
+	public boolean isAdministrativelyUp() {
+		return (flags & FLAG_ADMINISTRATIVE) != 0;
+	}
+
+	public boolean isCreated() {
+		return (flags & FLAG_CREATE) != 0;
+	}
+
+	/**
+	 * @return operational status: 0 down, 1 up, 2 active, 3 going down, 4 going up
+	 */
+	public int getOperationalStatus() {
+		return (flags & MASK_OPERATIONAL) >>> 4;
+	}
+
+	/**
+	 * @return Symbolic Path Name, or null if the PCC has not reported it
+	 */
+	public String getSymbolicName() {
+		return symbolicName == null ? null : new String(symbolicName, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return true if the IPv4 LSP Identifiers TLV has been reported
+	 */
+	public boolean hasLSPIdentifiers() {
+		return tunnelSender != 0 || tunnelEndpoint != 0;
+	}
+
+	public Inet4Address getTunnelSender() {
+		return toAddress(tunnelSender);
+	}
+
+	public Inet4Address getTunnelEndpoint() {
+		return toAddress(tunnelEndpoint);
+	}
+
+	/**
+	 * @return IPv4 Tunnel Sender Address as an int
+	 */
+	public int getTunnelSenderInt() {
+		return tunnelSender;
+	}
+
+	/**
+	 * @return IPv4 Tunnel Endpoint Address as an int
+	 */
+	public int getTunnelEndpointInt() {
+		return tunnelEndpoint;
+	}
+
+	public int getLspId() {
+		return lspId;
+	}
+
+	public int getTunnelId() {
+		return tunnelId;
+	}
+
+	public long getExtendedTunnelId() {
+		return extendedTunnelId & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * @return the ERO object, encoded, or null
+	 */
+	public byte[] getEroBytes() {
+		return ero;
+	}
+
+	/**
+	 * @return the RRO object, encoded, or null
+	 */
+	public byte[] getRroBytes() {
+		return rro;
+	}
+
+	/**
+	 * Decodes the ERO
+	 * @return the ERO, or null if there is none
+	 * @throws MalformedPCEPObjectException if the stored ERO is malformed
+	 */
+	public ExplicitRouteObject getEro() throws MalformedPCEPObjectException {
+		return ero == null ? null : new ExplicitRouteObject(ero, 0);
+	}
+
+	/**
+	 * Decodes the RRO
+	 * @return the RRO, or null if there is none
+	 * @throws MalformedPCEPObjectException if the stored RRO is malformed
+	 */
+	public ReportedRouteObject getRro() throws MalformedPCEPObjectException {
+		return rro == null ? null : new ReportedRouteObject(rro, 0);
+	}
+
+	/**
+	 * @return bandwidth in bytes per second, NaN if it has not been reported
+	 */
+	public float getBandwidth() {
+		return bandwidth;
+	}
+
+	/**
+	 * @return number of metrics
+	 */
+	public int getMetricCount() {
+		return metrics == null ? 0 : metrics.length;
+	}
+
+	public int getMetricType(int i) {
+		return LSPDatabase.metricType(metrics[i]);
+	}
+
+	/**
+	 * @return METRIC_FLAG_ constants
+	 */
+	public int getMetricFlags(int i) {
+		return LSPDatabase.metricFlags(metrics[i]);
+	}
+
+	public float getMetricValue(int i) {
+		return LSPDatabase.metricValue(metrics[i]);
+	}
+
+	/**
+	 * @return value of the first metric of the type, or NaN
+	 */
+	public float getMetric(int metricType) {
+		for (int i = 0; i < getMetricCount(); ++i) {
+			if (getMetricType(i) == metricType) {
+				return getMetricValue(i);
+			}
+		}
+		return Float.NaN;
+	}
+
+	/**
+	 * @return SRP-ID-number of the last report, 0 if it was not the result of an update
+	 */
+	public long getSrpId() {
+		return srpId;
+	}
+
+	private static Inet4Address toAddress(int address) {
+		try {
+			return (Inet4Address) InetAddress.getByAddress(new byte[] {(byte) (address >>> 24),
+					(byte) (address >>> 16), (byte) (address >>> 8), (byte) address});
+		} catch (UnknownHostException e) {
+			// not thrown for 4 octets
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "[LSP plspId=" + plspId + " name=" + getSymbolicName() + " flags=" + Integer.toHexString(flags)
+				+ " tunnelId=" + tunnelId + " lspId=" + lspId + " bw=" + bandwidth + "]";
+	}
+
+}
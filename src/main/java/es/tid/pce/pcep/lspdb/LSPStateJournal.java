@@ -0,0 +1,292 @@
+package es.tid.pce.pcep.lspdb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import es.tid.pce.pcep.PCEPProtocolViolationException;
+import es.tid.pce.pcep.constructs.Path;
+import es.tid.pce.pcep.constructs.StateReport;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.OPEN;
+import es.tid.pce.pcep.objects.tlvs.LSPDatabaseVersionTLV;
+import es.tid.protocol.commons.IntIntHashMap;
+
+/**
+ * LSP State Database of a PCC with the journal of its versions, for the
+ * State Synchronization optimizations of RFC 8232.
+ *
+ * Each state report given to {@link #record(StateReport)} increments the
+ * LSP State Database Version and gets it in an LSP-DB-VERSION TLV. The
+ * journal keeps the last state report of each LSP, encoded, and the PLSP-ID
+ * changed by each of the last versions in a ring of primitives. When a PCE
+ * reconnects with the version it last saw, only the LSPs changed since
+ * then are reported again; a full synchronization is only needed if that
+ * version is older than the ring.
+ *
+ * <pre>
+ * long version = journal.record(stateReport);  // and send the report
+ * ...
+ * // new session, once the OPEN objects are exchanged
+ * for (StateReport report : journal.synchronize(localOpen, pceOpen)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * A journal is not thread safe.
+ */
+public class LSPStateJournal {
+
+	private static final int NONE = -1;
+
+	/**
+	 * PLSP-ID to cell of the last state report of the LSPs that exist
+	 */
+	private final IntIntHashMap cells = new IntIntHashMap(1024, NONE);
+	private byte[][] reports = new byte[1024][];
+	private int highWater;
+	private int[] free = new int[1024];
+	private int freeCount;
+
+	/**
+	 * PLSP-ID changed by each version, from the oldest kept to the current one
+	 */
+	private final int[] ring;
+	private int ringStart;
+	private int ringCount;
+
+	private long version;
+
+	/**
+	 * Versions up to this one are no longer in the ring
+	 */
+	private long forgottenVersion;
+
+	/**
+	 * @param capacity number of versions kept in the journal
+	 */
+	public LSPStateJournal(int capacity) {
+		this(capacity, 0);
+	}
+
+	/**
+	 * @param capacity number of versions kept in the journal
+	 * @param version current LSP State Database Version, kept across restarts of the PCC
+	 */
+	public LSPStateJournal(int capacity, long version) {
+		this.ring = new int[capacity];
+		this.version = version;
+		this.forgottenVersion = version;
+	}
+
+	/**
+	 * Records the change of an LSP reported to the PCE. The report gets the
+	 * new version in the LSP-DB-VERSION TLV of its LSP object, and is
+	 * encoded. A report with the R flag removes the LSP.
+	 * @param stateReport state report of the LSP
+	 * @return the new LSP State Database Version
+	 * @throws PCEPProtocolViolationException if the report cannot be encoded
+	 */
+	public long record(StateReport stateReport) throws PCEPProtocolViolationException {
+		LSP lsp = stateReport.getLsp();
+		int plspId = lsp.getLspId();
+		if (plspId == 0) {
+			throw new IllegalArgumentException("PLSP-ID 0 is reserved");
+		}
+		long next = version + 1;
+		lsp.setLspDBVersion_tlv(versionTLV(next));
+		boolean sync = lsp.isSyncFlag();
+		lsp.setSyncFlag(false);
+		stateReport.encode();
+		lsp.setSyncFlag(sync);
+		int cell = cells.get(plspId);
+		if (lsp.isRemoveFlag()) {
+			if (cell != NONE) {
+				cells.remove(plspId);
+				reports[cell] = null;
+				free[freeCount++] = cell;
+			}
+		} else {
+			if (cell == NONE) {
+				cell = allocateCell();
+				cells.put(plspId, cell);
+			}
+			reports[cell] = Arrays.copyOf(stateReport.getBytes(), stateReport.getLength());
+		}
+		if (ringCount == ring.length) {
+			ringStart = (ringStart + 1) % ring.length;
+			ringCount--;
+			forgottenVersion++;
+		}
+		ring[(ringStart + ringCount) % ring.length] = plspId;
+		ringCount++;
+		version = next;
+		return version;
+	}
+
+	private int allocateCell() {
+		if (freeCount > 0) {
+			return free[--freeCount];
+		}
+		if (highWater == reports.length) {
+			reports = Arrays.copyOf(reports, highWater * 2);
+			free = Arrays.copyOf(free, highWater * 2);
+		}
+		return highWater++;
+	}
+
+	private static LSPDatabaseVersionTLV versionTLV(long version) {
+		LSPDatabaseVersionTLV tlv = new LSPDatabaseVersionTLV();
+		tlv.setLSPStateDBVersion(version);
+		return tlv;
+	}
+
+	/**
+	 * @return the current LSP State Database Version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the LSP-DB-VERSION TLV to send in the OPEN object
+	 */
+	public LSPDatabaseVersionTLV getVersionTLV() {
+		return versionTLV(version);
+	}
+
+	/**
+	 * @return number of LSPs
+	 */
+	public int size() {
+		return cells.size();
+	}
+
+	/**
+	 * @param pceVersion version of the database of the PCE, from its OPEN object
+	 * @param incremental true if both speakers support incremental synchronization
+	 * @return the synchronization to do
+	 */
+	public StateSyncMode getSyncMode(long pceVersion, boolean incremental) {
+		if (pceVersion != 0 && pceVersion == version) {
+			return StateSyncMode.SKIP;
+		}
+		if (incremental && pceVersion != 0 && pceVersion >= forgottenVersion && pceVersion < version) {
+			return StateSyncMode.INCREMENTAL;
+		}
+		return StateSyncMode.FULL;
+	}
+
+	/**
+	 * State reports of the synchronization of a new session, the
+	 * end-of-synchronization marker included
+	 * @param local OPEN object sent to the PCE
+	 * @param pce OPEN object received from the PCE
+	 * @return the reports to send, none if the synchronization is skipped
+	 * @throws PCEPProtocolViolationException if a stored report cannot be decoded
+	 */
+	public List<StateReport> synchronize(OPEN local, OPEN pce) throws PCEPProtocolViolationException {
+		if (!StateSyncMode.isIncludeDBVersion(local, pce)) {
+			return withEndOfSyncMarker(getAllStateReports());
+		}
+		long pceVersion = StateSyncMode.getDatabaseVersion(pce);
+		switch (getSyncMode(pceVersion, StateSyncMode.isDeltaLSPSync(local, pce))) {
+		case SKIP:
+			return new ArrayList<StateReport>();
+		case INCREMENTAL:
+			return withEndOfSyncMarker(getStateReports(pceVersion));
+		default:
+			return withEndOfSyncMarker(getAllStateReports());
+		}
+	}
+
+	private List<StateReport> withEndOfSyncMarker(List<StateReport> reports) {
+		reports.add(createEndOfSyncMarker());
+		return reports;
+	}
+
+	/**
+	 * @return the last state report of every LSP, with the SYNC flag
+	 * @throws PCEPProtocolViolationException if a stored report cannot be decoded
+	 */
+	public List<StateReport> getAllStateReports() throws PCEPProtocolViolationException {
+		List<StateReport> list = new ArrayList<StateReport>(cells.size() + 1);
+		for (int cell = 0; cell < highWater; ++cell) {
+			if (reports[cell] != null) {
+				list.add(decode(reports[cell]));
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * State reports of an incremental synchronization: the last state report
+	 * of the LSPs changed after a version, with the SYNC flag, and a report
+	 * with the R flag for the LSPs removed after it. They are in the order of
+	 * their last change.
+	 * @param sinceVersion version of the PCE
+	 * @return the reports
+	 * @throws IllegalArgumentException if the version is no longer in the journal
+	 * @throws PCEPProtocolViolationException if a stored report cannot be decoded
+	 */
+	public List<StateReport> getStateReports(long sinceVersion) throws PCEPProtocolViolationException {
+		if (sinceVersion < forgottenVersion || sinceVersion > version) {
+			throw new IllegalArgumentException("Version " + sinceVersion + " is not in the journal");
+		}
+		int changes = (int) (version - sinceVersion);
+		// newest first, keeping the last change of each LSP
+		IntIntHashMap seen = new IntIntHashMap(changes, NONE);
+		int[] plspIds = new int[changes];
+		long[] versions = new long[changes];
+		int n = 0;
+		for (int i = changes - 1; i >= 0; --i) {
+			int plspId = ring[(ringStart + ringCount - changes + i) % ring.length];
+			if (seen.put(plspId, i) == NONE) {
+				plspIds[n] = plspId;
+				versions[n] = sinceVersion + i + 1;
+				n++;
+			}
+		}
+		List<StateReport> list = new ArrayList<StateReport>(n + 1);
+		for (int j = n - 1; j >= 0; --j) {
+			int cell = cells.get(plspIds[j]);
+			list.add(cell == NONE ? createRemoval(plspIds[j], versions[j]) : decode(reports[cell]));
+		}
+		return list;
+	}
+
+	private static StateReport decode(byte[] bytes) throws PCEPProtocolViolationException {
+		StateReport stateReport = new StateReport(bytes, 0);
+		stateReport.getLsp().setSyncFlag(true);
+		return stateReport;
+	}
+
+	private static StateReport createRemoval(int plspId, long version) {
+		StateReport stateReport = new StateReport();
+		LSP lsp = new LSP();
+		lsp.setLspId(plspId);
+		lsp.setSyncFlag(true);
+		lsp.setRemoveFlag(true);
+		lsp.setLspDBVersion_tlv(versionTLV(version));
+		stateReport.setLsp(lsp);
+		Path path = new Path();
+		path.setEro(new ExplicitRouteObject());
+		stateReport.setPath(path);
+		return stateReport;
+	}
+
+	/**
+	 * @return the end-of-synchronization marker: an LSP object with PLSP-ID 0
+	 * and the SYNC flag clear, and an empty ERO (RFC 8231, Section 5.6)
+	 */
+	public static StateReport createEndOfSyncMarker() {
+		StateReport stateReport = new StateReport();
+		stateReport.setLsp(new LSP());
+		Path path = new Path();
+		path.setEro(new ExplicitRouteObject());
+		stateReport.setPath(path);
+		return stateReport;
+	}
+
+}
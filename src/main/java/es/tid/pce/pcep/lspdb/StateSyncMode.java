@@ -0,0 +1,50 @@
+package es.tid.pce.pcep.lspdb;
+
+import es.tid.pce.pcep.objects.OPEN;
+import es.tid.pce.pcep.objects.tlvs.StatefulCapabilityTLV;
+
+/**
+ * State Synchronization of a PCEP session (RFC 8231, Section 5.6, and
+ * RFC 8232), chosen when the OPEN messages have been exchanged.
+ */
+public enum StateSyncMode {
+	/**
+	 * Both speakers have the same LSP State Database Version, there is
+	 * nothing to synchronize
+	 */
+	SKIP,
+	/**
+	 * The PCC reports only the LSPs that changed since the version of the PCE
+	 */
+	INCREMENTAL,
+	/**
+	 * The PCC reports all its LSPs
+	 */
+	FULL;
+
+	/**
+	 * @return true if both speakers set the INCLUDE-DB-VERSION (S) flag
+	 */
+	public static boolean isIncludeDBVersion(OPEN local, OPEN remote) {
+		StatefulCapabilityTLV a = local.getStateful_capability_tlv();
+		StatefulCapabilityTLV b = remote.getStateful_capability_tlv();
+		return a != null && b != null && a.isIncludeDBVersion() && b.isIncludeDBVersion();
+	}
+
+	/**
+	 * @return true if both speakers set the INCLUDE-DB-VERSION (S) and the
+	 * DELTA-LSP-SYNC-CAPABILITY (D) flags
+	 */
+	public static boolean isDeltaLSPSync(OPEN local, OPEN remote) {
+		return isIncludeDBVersion(local, remote) && local.getStateful_capability_tlv().isDeltaLSPSync()
+				&& remote.getStateful_capability_tlv().isDeltaLSPSync();
+	}
+
+	/**
+	 * @return the LSP State Database Version of the OPEN object, 0 if it has none
+	 */
+	public static long getDatabaseVersion(OPEN open) {
+		return open.getLsp_database_version_tlv() == null ? 0 : open.getLsp_database_version_tlv().getLSPStateDBVersion();
+	}
+
+}
@@ -100,9 +100,9 @@ public class PCEPError extends PCEPMessage {
 		}
 		int len=4;
 		//Either error... or the errorobjlist and an open. BOTH is not possible
-		for (int i=0;i<errorObjList.size();++i){
-				(errorObjList.get(i)).encode();
-				len=len+(errorObjList.get(i)).getLength();
+		for (PCEPErrorObject pcepErrorObject : errorObjList){
+				pcepErrorObject.encode();
+				len=len+pcepErrorObject.getLength();
 			}
 		if (open!=null){
 			open.encode();
@@ -110,22 +110,22 @@ public class PCEPError extends PCEPMessage {
 		}
 
 		
-		for (int i=0;i<errorList.size();++i){
-			(errorList.get(i)).encode();
-			len=len+(errorList.get(i)).getLength();
+		for (ErrorConstruct errorConstruct : errorList){
+			errorConstruct.encode();
+			len=len+errorConstruct.getLength();
 		}
 		this.setMessageLength(len);
 		this.messageBytes=new byte[this.getLength()];
 		encodeHeader();
 		int offset=4;
-		for (int i=0;i<errorList.size();++i){
-			System.arraycopy(errorList.get(i).getBytes(), 0, this.messageBytes, offset, errorList.get(i).getLength());
-			offset=offset+errorList.get(i).getLength();
-			len=len+(errorList.get(i)).getLength();
+		for (ErrorConstruct errorConstruct : errorList){
+			System.arraycopy(errorConstruct.getBytes(), 0, this.messageBytes, offset, errorConstruct.getLength());
+			offset=offset+errorConstruct.getLength();
+			len=len+errorConstruct.getLength();
 		}
-		for (int i=0;i<errorObjList.size();++i){
-			System.arraycopy(errorObjList.get(i).getBytes(), 0, this.messageBytes, offset, errorObjList.get(i).getLength());
-			offset=offset+errorObjList.get(i).getLength();
+		for (PCEPErrorObject pcepErrorObject : errorObjList){
+			System.arraycopy(pcepErrorObject.getBytes(), 0, this.messageBytes, offset, pcepErrorObject.getLength());
+			offset=offset+pcepErrorObject.getLength();
 		}
 		if (errorObjList.size()>0){
 			if (open!=null){
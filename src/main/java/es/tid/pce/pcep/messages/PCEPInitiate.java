@@ -53,18 +53,16 @@ public class PCEPInitiate extends PCEPMessage
 	public void encode() throws PCEPProtocolViolationException 
 	{
 		int len = 4;
-		int index = 0;
 
-        while(index < pcepIntiatedLSPList.size())
+        for (PCEPIntiatedLSP pcepIntiatedLSP : pcepIntiatedLSPList)
         {
-        	pcepIntiatedLSPList.get(index).encode();		
-			len += pcepIntiatedLSPList.get(index).getLength();
-			index++;			
+        	pcepIntiatedLSP.encode();		
+			len += pcepIntiatedLSP.getLength();
         }
         
 		if (pcepIntiatedLSPList.size() == 0)
 		{
-			log.warn("There should be at least one update request in a PCEP update Request message");
+			log.warn("There should be at least one initiated LSP in a PCEP Initiate message");
 			throw new PCEPProtocolViolationException();
 		}
 
@@ -72,20 +70,46 @@ public class PCEPInitiate extends PCEPMessage
 		messageBytes = new byte[len];
 		this.encodeHeader();
 		int offset = 4;		//Header
-		index=0;
 
-		while(index < pcepIntiatedLSPList.size())
+		for (PCEPIntiatedLSP pcepIntiatedLSP : pcepIntiatedLSPList)
 		{
-			System.arraycopy(pcepIntiatedLSPList.get(index).getBytes(), 0, this.messageBytes, offset, pcepIntiatedLSPList.get(index).getLength());
-			offset = offset + pcepIntiatedLSPList.get(index).getLength();
-			index++;						
+			System.arraycopy(pcepIntiatedLSP.getBytes(), 0, this.messageBytes, offset, pcepIntiatedLSP.getLength());
+			offset = offset + pcepIntiatedLSP.getLength();
 		}	
 	}
 
+	@Override
+	public int encodedLength() throws PCEPProtocolViolationException 
+	{
+		if (pcepIntiatedLSPList.size() == 0)
+		{
+			log.warn("There should be at least one initiated LSP in a PCEP Initiate message");
+			throw new PCEPProtocolViolationException();
+		}
+		int len = 4;
+		for (PCEPIntiatedLSP pcepIntiatedLSP : pcepIntiatedLSPList)
+		{
+			len += pcepIntiatedLSP.encodedLength();
+		}
+		this.setMessageLength(len);
+		return len;
+	}
+
+	@Override
+	public int encodeTo(byte[] buf, int offset) throws PCEPProtocolViolationException 
+	{
+		this.encodeHeader(buf, offset);
+		offset = offset + 4;		//Header
+		for (PCEPIntiatedLSP pcepIntiatedLSP : pcepIntiatedLSPList)
+		{
+			offset = pcepIntiatedLSP.encodeTo(buf, offset);
+		}
+		return offset;
+	}
+
 
 	public void decode() throws PCEPProtocolViolationException
 	{
-		//Current implementation is strict, does not accept unknown objects 
 		int offset = 4;//We start after the object header
 		boolean atLeastOne = false;
 		PCEPIntiatedLSP sr;
@@ -134,8 +158,8 @@ public class PCEPInitiate extends PCEPMessage
 		StringBuffer sb=new StringBuffer(pcepIntiatedLSPList.size()*100);
 		sb.append("INITIATE MESSAGE: ");
 
-		for (int i=0;i<pcepIntiatedLSPList.size();++i){
-			sb.append(pcepIntiatedLSPList.get(i).toString());
+		for (PCEPIntiatedLSP pcepIntiatedLSP : pcepIntiatedLSPList){
+			sb.append(pcepIntiatedLSP.toString());
 		}
 	
 		return sb.toString();
@@ -6,6 +6,7 @@ package es.tid.pce.pcep.messages;
  * @author Oscar Gonzalez de Dios
 **/
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import es.tid.pce.pcep.PCEPElement;
@@ -61,12 +62,24 @@ public abstract class PCEPMessage implements PCEPElement {
 	 * @throws PCEPProtocolViolationException Exception when the message is malformed 
 	 */
 	public PCEPMessage(byte []bytes) throws PCEPProtocolViolationException{
+		decodeHeader(bytes);
+	}
+
+	/**
+	 * Copies the message from a byte array and decodes the message header.
+	 * The byte array of the message is reused if it has the same length.
+	 * @param bytes bytes
+	 * @throws PCEPProtocolViolationException Exception when the message is malformed
+	 */
+	protected void decodeHeader(byte []bytes) throws PCEPProtocolViolationException{
 		messageLength=(bytes[2] & 0xFF)* 256 + (bytes[3]& 0xFF);
 		if (bytes.length!=this.getLength()){
 			log.warn("Bytes and length in header do not match");
 			throw new PCEPProtocolViolationException();
 		}
-		this.messageBytes=new byte[messageLength];
+		if (messageBytes==null || messageBytes.length!=messageLength){
+			this.messageBytes=new byte[messageLength];
+		}
 		System.arraycopy(bytes, 0, messageBytes, 0, messageLength);
 		messageType=messageBytes[1]&0xFF;
 		Ver= (messageBytes[0] & 0xE0)>>>5;
@@ -120,10 +133,44 @@ public abstract class PCEPMessage implements PCEPElement {
 	//public abstract void decode(byte[] bytes) throws PCEPProtocolViolationException;
 
 	protected void encodeHeader() { 
-		messageBytes[0]= (byte)(((Ver<<5) &0xE0) | (Flags & 0x1F));
-		messageBytes[1]=(byte)messageType;
-		messageBytes[2]=(byte)((messageLength>>8) & 0xFF);
-		messageBytes[3]=(byte)(messageLength & 0xFF);
+		encodeHeader(messageBytes, 0);
+	}
+
+	/**
+	 * Writes the common header of the message in the buffer.
+	 * @param buf buffer where the header is written
+	 * @param offset position of the buffer where the message starts
+	 */
+	protected void encodeHeader(byte[] buf, int offset) { 
+		buf[offset]= (byte)(((Ver<<5) &0xE0) | (Flags & 0x1F));
+		buf[offset+1]=(byte)messageType;
+		buf[offset+2]=(byte)((messageLength>>8) & 0xFF);
+		buf[offset+3]=(byte)(messageLength & 0xFF);
+	}
+
+	/**
+	 * Encodes the message in a single pass directly in the buffer, starting at
+	 * its current position. The lengths of the whole message tree are computed 
+	 * first, and then each element is written in place, so the intermediate 
+	 * arrays of the constructs are not built. The bytes of the message 
+	 * ({@link #getBytes()}) are not updated.
+	 * @param buf buffer where the message is written
+	 * @throws PCEPProtocolViolationException Exception when the message is not well built
+	 */
+	public void encodeTo(ByteBuffer buf) throws PCEPProtocolViolationException {
+		int len=encodedLength();
+		if (buf.remaining()<len){
+			log.warn("Not enough space in the buffer to encode the message");
+			throw new PCEPProtocolViolationException();
+		}
+		if (buf.hasArray()){
+			encodeTo(buf.array(), buf.arrayOffset()+buf.position());
+			buf.position(buf.position()+len);
+		}else {
+			byte[] bytes=new byte[len];
+			encodeTo(bytes, 0);
+			buf.put(bytes);
+		}
 	}
 
 	@Override
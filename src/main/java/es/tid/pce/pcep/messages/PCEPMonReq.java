@@ -120,17 +120,17 @@ public class PCEPMonReq  extends  PCEPMessage{
 		pccReqId.encode();
 		len=len+pccReqId.getLength();
 
-		for (int i=0;i<svecList.size();++i){
-			svecList.get(i).encode();
-			len=len+svecList.get(i).getLength();
+		for (SVECConstruct svecConstruct : svecList){
+			svecConstruct.encode();
+			len=len+svecConstruct.getLength();
 		}
-		for (int i=0;i<requestList.size();++i){
-			requestList.get(i).encode();
-			len=len+requestList.get(i).getLength();
+		for (Request request : requestList){
+			request.encode();
+			len=len+request.getLength();
 		}
-		for (int i=0;i<pceList.size();++i){
-			pceList.get(i).encode();
-			len=len+pceList.get(i).getLength();
+		for (PceId pceId : pceList){
+			pceId.encode();
+			len=len+pceId.getLength();
 		}
 		this.setMessageLength(len);		
 		messageBytes=new byte[len];
@@ -144,19 +144,19 @@ public class PCEPMonReq  extends  PCEPMessage{
 		System.arraycopy(pccReqId.getBytes(),0,messageBytes,offset,pccReqId.getLength());
 		offset=offset+pccReqId.getLength();
 		//PCE-LIST
-		for (int i=0;i<pceList.size();++i){
-			System.arraycopy(pceList.get(i).getBytes(), 0, messageBytes, offset, pceList.get(i).getLength());
-			offset=offset+pceList.get(i).getLength();
+		for (PceId pceId : pceList){
+			System.arraycopy(pceId.getBytes(), 0, messageBytes, offset, pceId.getLength());
+			offset=offset+pceId.getLength();
 		}
 		//SVEC-LIST
-		for (int i=0;i<svecList.size();++i){
-			System.arraycopy(svecList.get(i).getBytes(), 0, messageBytes, offset, svecList.get(i).getLength());
-			offset=offset+svecList.get(i).getLength();
+		for (SVECConstruct svecConstruct : svecList){
+			System.arraycopy(svecConstruct.getBytes(), 0, messageBytes, offset, svecConstruct.getLength());
+			offset=offset+svecConstruct.getLength();
 		}
 		//REQUEST-LIST
-		for (int i=0;i<requestList.size();++i){
-			System.arraycopy(requestList.get(i).getBytes(), 0, messageBytes, offset, requestList.get(i).getLength());
-			offset=offset+requestList.get(i).getLength();		
+		for (Request request : requestList){
+			System.arraycopy(request.getBytes(), 0, messageBytes, offset, request.getLength());
+			offset=offset+request.getLength();		
 		}
 	}
 	
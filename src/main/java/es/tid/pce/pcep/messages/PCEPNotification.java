@@ -77,17 +77,17 @@ public class PCEPNotification extends PCEPMessage {
 			throw new PCEPProtocolViolationException();
 		}
 		int len=4;
-		for (int i=0;i<notifyList.size();++i){
-			notifyList.get(i).encode();
-			len=len+notifyList.get(i).getLength();
+		for (Notify notify : notifyList){
+			notify.encode();
+			len=len+notify.getLength();
 		}
 		this.setMessageLength(len);
 		messageBytes=new byte[len];
 		encodeHeader();
 		int offset=4;
-		for (int i=0;i<notifyList.size();++i){
-			System.arraycopy(notifyList.get(i).getBytes(), 0, messageBytes, offset, notifyList.get(i).getLength());
-			offset=offset+notifyList.get(i).getLength();
+		for (Notify notify : notifyList){
+			System.arraycopy(notify.getBytes(), 0, messageBytes, offset, notify.getLength());
+			offset=offset+notify.getLength();
 		}
 
 	}
@@ -3,6 +3,7 @@ package es.tid.pce.pcep.messages;
 import java.util.LinkedList;
 
 import es.tid.pce.pcep.PCEPProtocolViolationException;
+import es.tid.pce.pcep.PCEPRecycler;
 import es.tid.pce.pcep.constructs.StateReport;
 import es.tid.pce.pcep.objects.ObjectParameters;
 import es.tid.pce.pcep.objects.PCEPObject;
@@ -103,13 +104,11 @@ public class PCEPReport extends PCEPMessage
 	public void encode() throws PCEPProtocolViolationException 
 	{
 		int len = 4;
-		int index = 0;
 		
-        while(index < stateReportList.size())
+        for (StateReport stateReport : stateReportList)
         {
-        	stateReportList.get(index).encode();		
-			len+=stateReportList.get(index).getLength();
-			index++;			
+        	stateReport.encode();		
+			len+=stateReport.getLength();
         }
         
 		if (stateReportList.size()==0)
@@ -122,20 +121,68 @@ public class PCEPReport extends PCEPMessage
 		messageBytes=new byte[len];
 		this.encodeHeader();
 		int offset = 4;		//Header
-		index=0;
 		
-		while(index < stateReportList.size())
+		for (StateReport stateReport : stateReportList)
 		{
-			System.arraycopy(stateReportList.get(index).getBytes(), 0, this.messageBytes, offset, stateReportList.get(index).getLength());
-			offset = offset + stateReportList.get(index).getLength();
-			index++;						
+			System.arraycopy(stateReport.getBytes(), 0, this.messageBytes, offset, stateReport.getLength());
+			offset = offset + stateReport.getLength();
 		}	
 	}
 	
+	@Override
+	public int encodedLength() throws PCEPProtocolViolationException 
+	{
+		if (stateReportList.size()==0)
+		{
+			log.warn("There should be at least one state Report");
+			throw new PCEPProtocolViolationException();
+		}
+		int len = 4;
+		for (StateReport stateReport : stateReportList)
+		{
+			len+=stateReport.encodedLength();
+		}
+		this.setMessageLength(len);
+		return len;
+	}
+	
+	@Override
+	public int encodeTo(byte[] buf, int offset) throws PCEPProtocolViolationException 
+	{
+		this.encodeHeader(buf, offset);
+		offset = offset + 4;		//Header
+		for (StateReport stateReport : stateReportList)
+		{
+			offset = stateReport.encodeTo(buf, offset);
+		}
+		return offset;
+	}
+	
 	
 	public void decode() throws PCEPProtocolViolationException
 	{
-		//Current implementation is strict, does not accept unknown objects 
+		decode(null);
+	}
+
+	/**
+	 * Decodes a PCRpt into this instance. The state reports of the previous
+	 * decoding are given back to the {@link PCEPRecycler} of the thread and
+	 * the new ones are taken from it, so a session that always decodes into
+	 * the same PCEPReport hardly allocates once warmed up. The state reports
+	 * of the previous decoding must not be used afterwards.
+	 * @param bytes bytes of the message
+	 * @throws PCEPProtocolViolationException Exception when the message is malformed
+	 */
+	public void decodeInto(byte [] bytes) throws PCEPProtocolViolationException
+	{
+		PCEPRecycler recycler = PCEPRecycler.get();
+		recycler.recycle(stateReportList);
+		decodeHeader(bytes);
+		decode(recycler);
+	}
+
+	private void decode(PCEPRecycler recycler) throws PCEPProtocolViolationException
+	{
 		int offset=4;//We start after the object header
 		StateReport sr;
 		//Decoding PCEP Report
@@ -151,7 +198,11 @@ public class PCEPReport extends PCEPMessage
 		{
 			try
 			{
-				sr = new StateReport(this.getBytes(),offset);
+				if (recycler==null){
+					sr = new StateReport(this.getBytes(),offset);
+				}else {
+					sr = recycler.decodeStateReport(this.getBytes(),offset);
+				}
 				offset=offset+sr.getLength();
 				stateReportList.add(sr);
 				if (offset>=this.messageBytes.length){
@@ -186,8 +237,8 @@ public class PCEPReport extends PCEPMessage
 	public String toString(){
 		StringBuffer sb=new StringBuffer(stateReportList.size()*100);
 		sb.append("PCRpt: ");
-		for (int i=0;i<stateReportList.size();++i){
-			sb.append(stateReportList.get(i).toString());
+		for (StateReport stateReport : stateReportList){
+			sb.append(stateReport.toString());
 		}
 		return sb.toString();
 	}
@@ -138,13 +138,13 @@ public class PCEPRequest extends PCEPMessage {
 			pccReqId.encode();
 			len=len+pccReqId.getLength();
 		}
-		for (int i=0;i<SvecList.size();++i){
-			SvecList.get(i).encode();
-			len=len+SvecList.get(i).getLength();
+		for (SVECConstruct svecConstruct : SvecList){
+			svecConstruct.encode();
+			len=len+svecConstruct.getLength();
 		}
-		for (int i=0;i<RequestList.size();++i){
-			RequestList.get(i).encode();
-			len=len+RequestList.get(i).getLength();
+		for (Request request : RequestList){
+			request.encode();
+			len=len+request.getLength();
 		}
 		this.setMessageLength(len);		
 		messageBytes=new byte[len];
@@ -158,16 +158,58 @@ public class PCEPRequest extends PCEPMessage {
 			System.arraycopy(pccReqId.getBytes(),0,messageBytes,offset,pccReqId.getLength());
 			offset=offset+pccReqId.getLength();
 		}
-		for (int i=0;i<SvecList.size();++i){
-			System.arraycopy(SvecList.get(i).getBytes(), 0, messageBytes, offset, SvecList.get(i).getLength());
-			offset=offset+SvecList.get(i).getLength();
+		for (SVECConstruct svecConstruct : SvecList){
+			System.arraycopy(svecConstruct.getBytes(), 0, messageBytes, offset, svecConstruct.getLength());
+			offset=offset+svecConstruct.getLength();
 		}
-		for (int i=0;i<RequestList.size();++i){
-			System.arraycopy(RequestList.get(i).getBytes(), 0, messageBytes, offset, RequestList.get(i).getLength());
-			offset=offset+RequestList.get(i).getLength();		
+		for (Request request : RequestList){
+			System.arraycopy(request.getBytes(), 0, messageBytes, offset, request.getLength());
+			offset=offset+request.getLength();		
 		}
 
 	}
+
+	@Override
+	public int encodedLength() throws PCEPProtocolViolationException {
+		if (RequestList.size()==0){
+			log.warn("There should be at least one request in a PCEP Request message");
+			throw new PCEPProtocolViolationException();
+		}
+		int len=4;
+		if (monitoring!=null){
+			len=len+monitoring.encodedLength();
+		}
+		if (pccReqId!=null){
+			len=len+pccReqId.encodedLength();
+		}
+		for (SVECConstruct svec : SvecList){
+			len=len+svec.encodedLength();
+		}
+		for (Request request : RequestList){
+			len=len+request.encodedLength();
+		}
+		this.setMessageLength(len);
+		return len;
+	}
+
+	@Override
+	public int encodeTo(byte[] buf, int offset) throws PCEPProtocolViolationException {
+		encodeHeader(buf, offset);
+		offset=offset+4;
+		if (monitoring!=null){
+			offset=monitoring.encodeTo(buf, offset);
+		}
+		if (pccReqId!=null){
+			offset=pccReqId.encodeTo(buf, offset);
+		}
+		for (SVECConstruct svec : SvecList){
+			offset=svec.encodeTo(buf, offset);
+		}
+		for (Request request : RequestList){
+			offset=request.encodeTo(buf, offset);
+		}
+		return offset;
+	}
 	
 	/**
 	 * Decodes a PCEP Request following RFC 5440, RFC 5541, RFC 5886 and RFC 5521
@@ -145,17 +145,17 @@ public class PCEPResponse extends PCEPMessage {
 		}
 		int len=4;
 		//Ending "+ResponseList.size()+" different responses
-		for (int i=0;i<ResponseList.size();++i){
-			ResponseList.get(i).encode();
-			len=len+ResponseList.get(i).getLength();
+		for (Response response : ResponseList){
+			response.encode();
+			len=len+response.getLength();
 		}
 		this.setMessageLength(len);
 		messageBytes=new byte[len];
 		encodeHeader();
 		int offset=4;
-		for (int i=0;i<ResponseList.size();++i){
-			System.arraycopy(ResponseList.get(i).getBytes(), 0, messageBytes, offset, ResponseList.get(i).getLength());
-			offset=offset+ResponseList.get(i).getLength();
+		for (Response response : ResponseList){
+			System.arraycopy(response.getBytes(), 0, messageBytes, offset, response.getLength());
+			offset=offset+response.getLength();
 		}
 	}
 
@@ -186,8 +186,8 @@ public class PCEPResponse extends PCEPMessage {
 	public String toString(){
 		StringBuffer sb=new StringBuffer(ResponseList.size()*100);
 		sb.append("RESP: ");
-		for (int i=0;i<ResponseList.size();++i){
-			sb.append(ResponseList.get(i).toString());
+		for (Response response : ResponseList){
+			sb.append(response.toString());
 		}
 		return sb.toString();
 	}
@@ -121,11 +121,9 @@ public class PCEPUpdate extends PCEPMessage{
 	public void encode() throws PCEPProtocolViolationException {
 		// TODO Auto-generated method stub
 		int len = 4;
-		int index = 0;
-        while(index < updateRequestList.size()){
-			updateRequestList.get(index).encode();		
-			len+=updateRequestList.get(index).getLength();
-			index++;			
+        for (UpdateRequest updateRequest : updateRequestList){
+			updateRequest.encode();		
+			len+=updateRequest.getLength();
         }
 		if (updateRequestList.size()==0){
 			log.warn("There should be at least one update request in a PCEP update Request message");
@@ -135,17 +133,38 @@ public class PCEPUpdate extends PCEPMessage{
 		messageBytes=new byte[len];
 		this.encodeHeader();
 		int offset = 4;		//Header
-		index=0;
-		while(index < updateRequestList.size()){
-			System.arraycopy(updateRequestList.get(index).getBytes(), 0, this.messageBytes, offset, updateRequestList.get(index).getLength());
-			offset = offset + updateRequestList.get(index).getLength();
-			index++;						
+		for (UpdateRequest updateRequest : updateRequestList){
+			System.arraycopy(updateRequest.getBytes(), 0, this.messageBytes, offset, updateRequest.getLength());
+			offset = offset + updateRequest.getLength();
 		}	
 	}
 	
+	@Override
+	public int encodedLength() throws PCEPProtocolViolationException {
+		if (updateRequestList.size()==0){
+			log.warn("There should be at least one update request in a PCEP update Request message");
+			throw new PCEPProtocolViolationException();
+		}
+		int len = 4;
+		for (UpdateRequest updateRequest : updateRequestList){
+			len+=updateRequest.encodedLength();
+		}
+		this.setMessageLength(len);
+		return len;
+	}
+	
+	@Override
+	public int encodeTo(byte[] buf, int offset) throws PCEPProtocolViolationException {
+		this.encodeHeader(buf, offset);
+		offset = offset + 4;		//Header
+		for (UpdateRequest updateRequest : updateRequestList){
+			offset = updateRequest.encodeTo(buf, offset);
+		}
+		return offset;
+	}
+	
 	
 	public void decode() throws PCEPProtocolViolationException{
-		//Current implementation is strict, does not accept unknown objects 
 		int offset=4;//We start after the object header
 		boolean atLeastOne = false;
 		
@@ -221,8 +240,8 @@ public class PCEPUpdate extends PCEPMessage{
 	public String toString(){
 		StringBuffer sb=new StringBuffer(updateRequestList.size()*100);
 		sb.append("UPDATE MESSAGE: ");
-		for (int i=0;i<updateRequestList.size();++i){
-			sb.append(updateRequestList.get(i).toString());
+		for (UpdateRequest updateRequest : updateRequestList){
+			sb.append(updateRequest.toString());
 		}
 		return sb.toString();
 	}
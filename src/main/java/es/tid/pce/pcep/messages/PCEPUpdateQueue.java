@@ -0,0 +1,340 @@
+package es.tid.pce.pcep.messages;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.pce.pcep.PCEPProtocolViolationException;
+import es.tid.pce.pcep.constructs.PCEPIntiatedLSP;
+import es.tid.pce.pcep.constructs.UpdateRequest;
+import es.tid.protocol.commons.IntIntHashMap;
+import es.tid.protocol.commons.framing.PCEPFramer;
+
+/**
+ * Outbound queue of the LSP Update Requests (PCUpd) and PCE-initiated LSPs
+ * (PCInitiate) sent to a PCC, for example by a re-optimization of many LSPs.
+ *
+ * Each request is encoded when it is added, so it can be reused at once.
+ * The queue is written to the session as a whole, with a single write: the
+ * consecutive requests of the same kind are packed in the same message, up
+ * to the maximum length of a PCEP message. The queue is written when it
+ * holds enough bytes, when its oldest request has waited the linger time,
+ * or when it is flushed.
+ *
+ * An Update Request that is still in the queue is replaced by a later one
+ * for the same PLSP-ID (RFC 8231, Section 6.2), which goes to the end of the
+ * queue with its SRP-ID. The PCC will not report the SRP-ID of the replaced
+ * request. A PCInitiate for a PLSP-ID is never reordered with the updates
+ * of the LSP.
+ *
+ * <pre>
+ * PCEPUpdateQueue queue = new PCEPUpdateQueue(out, 5, scheduler);
+ * for (...) {
+ *     queue.add(updateRequest);
+ * }
+ * queue.flush();
+ * </pre>
+ *
+ * A queue can be used by several threads.
+ */
+public class PCEPUpdateQueue implements Flushable {
+
+	private static final Logger log = LoggerFactory.getLogger("PCEPParser");
+
+	private static final int NONE = -1;
+
+	/**
+	 * Type of the requests of the queue that were replaced
+	 */
+	private static final int REPLACED = 0;
+
+	private final OutputStream out;
+
+	private final long lingerNanos;
+
+	private final ScheduledExecutorService scheduler;
+
+	private int maxMessageLength = PCEPFramer.MAX_MESSAGE_LENGTH;
+
+	private int flushThreshold = PCEPFramer.MAX_MESSAGE_LENGTH;
+
+	/**
+	 * Encoded requests, one after another
+	 */
+	private byte[] data = new byte[1 << 16];
+	private int dataLength;
+
+	/**
+	 * Message type, position and length in data of each request
+	 */
+	private int[] types = new int[256];
+	private int[] offsets = new int[256];
+	private int[] lengths = new int[256];
+	private int count;
+
+	private int pendingRequests;
+	private int pendingBytes;
+	private long firstNanos;
+
+	/**
+	 * PLSP-ID to position in the queue of its Update Request
+	 */
+	private final IntIntHashMap updates = new IntIntHashMap(256, NONE);
+
+	private byte[] output = new byte[1 << 16];
+
+	private long sentMessages;
+	private long sentRequests;
+	private long replacedRequests;
+	private long writes;
+
+	/**
+	 * Queue without linger time: each request is written when it is added,
+	 * unless the queue is flushed explicitly
+	 * @param out stream of the session
+	 */
+	public PCEPUpdateQueue(OutputStream out) {
+		this(out, 0, null);
+	}
+
+	/**
+	 * @param out stream of the session
+	 * @param lingerMillis maximum time a request waits in the queue
+	 * @param scheduler scheduler that writes the queue when the linger time
+	 * expires, or null to write it only when a request is added or
+	 * {@link #flushIfDue()} is called
+	 */
+	public PCEPUpdateQueue(OutputStream out, long lingerMillis, ScheduledExecutorService scheduler) {
+		this.out = out;
+		this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Adds an LSP Update Request, replacing the one of the same PLSP-ID that
+	 * is still in the queue
+	 * @param updateRequest Update Request with its SRP and LSP objects
+	 * @throws PCEPProtocolViolationException if the request cannot be encoded
+	 * @throws IOException if the queue is written and it fails
+	 */
+	public synchronized void add(UpdateRequest updateRequest) throws PCEPProtocolViolationException, IOException {
+		int plspId = updateRequest.getLsp().getLspId();
+		int entry = append(PCEPMessageTypes.MESSAGE_UPDATE, updateRequest.encodedLength());
+		updateRequest.encodeTo(data, offsets[entry]);
+		if (plspId != 0) {
+			int replaced = updates.put(plspId, entry);
+			if (replaced != NONE) {
+				types[replaced] = REPLACED;
+				pendingRequests--;
+				pendingBytes -= lengths[replaced];
+				replacedRequests++;
+			}
+		}
+		added();
+	}
+
+	/**
+	 * Adds a PCE-initiated LSP, to create it or to remove it
+	 * @param initiatedLSP PCE-initiated LSP with its SRP and LSP objects
+	 * @throws PCEPProtocolViolationException if the request cannot be encoded
+	 * @throws IOException if the queue is written and it fails
+	 */
+	public synchronized void add(PCEPIntiatedLSP initiatedLSP) throws PCEPProtocolViolationException, IOException {
+		int plspId = initiatedLSP.getLsp().getLspId();
+		int entry = append(PCEPMessageTypes.MESSAGE_INITIATE, initiatedLSP.encodedLength());
+		initiatedLSP.encodeTo(data, offsets[entry]);
+		if (plspId != 0) {
+			// the updates added later must not replace one sent before it
+			updates.remove(plspId);
+		}
+		added();
+	}
+
+	private int append(int type, int length) {
+		if (PCEPFramer.HEADER_LENGTH + length > maxMessageLength) {
+			throw new IllegalArgumentException("The request does not fit in a message of " + maxMessageLength + " octets");
+		}
+		if (count == types.length) {
+			types = Arrays.copyOf(types, count * 2);
+			offsets = Arrays.copyOf(offsets, count * 2);
+			lengths = Arrays.copyOf(lengths, count * 2);
+		}
+		if (dataLength + length > data.length) {
+			data = Arrays.copyOf(data, Math.max(dataLength + length, data.length * 2));
+		}
+		types[count] = type;
+		offsets[count] = dataLength;
+		lengths[count] = length;
+		dataLength += length;
+		pendingRequests++;
+		pendingBytes += length;
+		return count++;
+	}
+
+	private void added() throws IOException {
+		long now = System.nanoTime();
+		if (count == 1) {
+			firstNanos = now;
+			if (scheduler != null && lingerNanos > 0) {
+				scheduler.schedule(this::lingerExpired, lingerNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+		if (pendingBytes >= flushThreshold || now - firstNanos >= lingerNanos) {
+			flush();
+		}
+	}
+
+	private void lingerExpired() {
+		try {
+			flushIfDue();
+		} catch (IOException e) {
+			log.warn("Error writing the queued PCEP requests: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the queue if its oldest request has waited the linger time
+	 * @return true if the queue was written
+	 * @throws IOException if writing fails
+	 */
+	public synchronized boolean flushIfDue() throws IOException {
+		if (count > 0 && System.nanoTime() - firstNanos >= lingerNanos) {
+			flush();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Writes the requests of the queue, in as few messages as possible, and
+	 * empties it. If writing fails the requests are lost.
+	 * @throws IOException if writing fails
+	 */
+	@Override
+	public synchronized void flush() throws IOException {
+		if (pendingRequests == 0) {
+			clear();
+			return;
+		}
+		int capacity = pendingBytes + PCEPFramer.HEADER_LENGTH * pendingRequests;
+		if (output.length < capacity) {
+			output = new byte[Math.max(capacity, output.length * 2)];
+		}
+		int length = 0;
+		int messageStart = NONE;
+		int messageType = REPLACED;
+		for (int i = 0; i < count; ++i) {
+			if (types[i] == REPLACED) {
+				continue;
+			}
+			if (messageStart == NONE || types[i] != messageType || length - messageStart + lengths[i] > maxMessageLength) {
+				if (messageStart != NONE) {
+					encodeHeader(messageType, messageStart, length - messageStart);
+				}
+				messageStart = length;
+				messageType = types[i];
+				length += PCEPFramer.HEADER_LENGTH;
+				sentMessages++;
+			}
+			System.arraycopy(data, offsets[i], output, length, lengths[i]);
+			length += lengths[i];
+		}
+		encodeHeader(messageType, messageStart, length - messageStart);
+		sentRequests += pendingRequests;
+		writes++;
+		clear();
+		out.write(output, 0, length);
+		out.flush();
+	}
+
+	private void encodeHeader(int messageType, int offset, int length) {
+		output[offset] = (byte) (PCEPFramer.PCEP_VERSION << 5);
+		output[offset + 1] = (byte) messageType;
+		output[offset + 2] = (byte) (length >>> 8);
+		output[offset + 3] = (byte) length;
+	}
+
+	private void clear() {
+		count = 0;
+		dataLength = 0;
+		pendingRequests = 0;
+		pendingBytes = 0;
+		if (!updates.isEmpty()) {
+			updates.clear();
+		}
+	}
+
+	/**
+	 * @return number of requests in the queue
+	 */
+	public synchronized int getPendingRequests() {
+		return pendingRequests;
+	}
+
+	/**
+	 * @return length of the requests in the queue
+	 */
+	public synchronized int getPendingBytes() {
+		return pendingBytes;
+	}
+
+	public synchronized int getMaxMessageLength() {
+		return maxMessageLength;
+	}
+
+	/**
+	 * @param maxMessageLength maximum length of the messages, at most 65535
+	 */
+	public synchronized void setMaxMessageLength(int maxMessageLength) {
+		if (maxMessageLength > PCEPFramer.MAX_MESSAGE_LENGTH) {
+			throw new IllegalArgumentException("PCEP messages are at most " + PCEPFramer.MAX_MESSAGE_LENGTH + " octets");
+		}
+		this.maxMessageLength = maxMessageLength;
+	}
+
+	public synchronized int getFlushThreshold() {
+		return flushThreshold;
+	}
+
+	/**
+	 * @param flushThreshold length of the requests of the queue that makes it be written
+	 */
+	public synchronized void setFlushThreshold(int flushThreshold) {
+		this.flushThreshold = flushThreshold;
+	}
+
+	/**
+	 * @return number of PCUpd and PCInitiate messages written
+	 */
+	public synchronized long getSentMessages() {
+		return sentMessages;
+	}
+
+	/**
+	 * @return number of requests written
+	 */
+	public synchronized long getSentRequests() {
+		return sentRequests;
+	}
+
+	/**
+	 * @return number of Update Requests replaced by a later one before being written
+	 */
+	public synchronized long getReplacedRequests() {
+		return replacedRequests;
+	}
+
+	/**
+	 * @return number of writes to the stream
+	 */
+	public synchronized long getWrites() {
+		return writes;
+	}
+
+}
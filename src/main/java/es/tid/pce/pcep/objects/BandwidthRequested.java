@@ -114,6 +114,17 @@ public class BandwidthRequested extends Bandwidth{
 		}
 		bw=Float.intBitsToFloat(bwi);
 	}
+
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		bw=0;
+	}
 	
 	//Getters and Setters
 	
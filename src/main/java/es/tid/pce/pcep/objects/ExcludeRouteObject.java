@@ -184,9 +184,9 @@ public class ExcludeRouteObject extends PCEPObject {
 	@Override
 	public void encode() {
 		int len=8;//The four bytes of the header
-		for (int k=0; k<XROSubobjectList.size();k=k+1){
-			XROSubobjectList.get(k).encode();			
-			len=len+XROSubobjectList.get(k).getErosolength();
+		for (XROSubobject xroSubobject : XROSubobjectList){
+			xroSubobject.encode();			
+			len=len+xroSubobject.getErosolength();
 		}
 		ObjectLength=len;
 		this.object_bytes=new byte[ObjectLength];
@@ -196,9 +196,9 @@ public class ExcludeRouteObject extends PCEPObject {
 		object_bytes[6]=0;
 		object_bytes[7]=(byte)((fail?1:0));
 		int pos=8;
-		for (int k=0 ; k<XROSubobjectList.size(); k=k+1) {					
-			System.arraycopy(XROSubobjectList.get(k).getSubobject_bytes(),0, this.object_bytes, pos, XROSubobjectList.get(k).getErosolength());
-			pos=pos+XROSubobjectList.get(k).getErosolength();
+		for (XROSubobject xroSubobject : XROSubobjectList) {					
+			System.arraycopy(xroSubobject.getSubobject_bytes(),0, this.object_bytes, pos, xroSubobject.getErosolength());
+			pos=pos+xroSubobject.getErosolength();
 		}				
 
 	}
@@ -255,6 +255,22 @@ public class ExcludeRouteObject extends PCEPObject {
 
 	}
 	
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		fail=false;
+		if (XROSubobjectList==null){
+			XROSubobjectList=new LinkedList<XROSubobject>();
+		}else{
+			XROSubobjectList.clear();
+		}
+	}
+
 	public void addXROSubobject(XROSubobject eroso){
 		XROSubobjectList.add(eroso);
 	}
@@ -275,8 +291,8 @@ public class ExcludeRouteObject extends PCEPObject {
 	public String toString(){
 		StringBuffer sb=new StringBuffer(XROSubobjectList.size()*100);
 		sb.append("<XRO: ");
-		for (int i=0;i<XROSubobjectList.size();++i){
-			sb.append(XROSubobjectList.get(i).toString());
+		for (XROSubobject xroSubobject : XROSubobjectList){
+			sb.append(xroSubobject.toString());
 		}
 		sb.append(">");
 		return sb.toString();
@@ -1,5 +1,6 @@
 package es.tid.pce.pcep.objects;
 
+import java.util.ArrayDeque;
 import java.util.LinkedList;
 import java.util.logging.Logger;
 
@@ -41,6 +42,13 @@ import es.tid.rsvp.objects.subobjects.*;
 public class ExplicitRouteObject extends PCEPObject{
 	
 	public LinkedList<EROSubobject> EROSubobjectList;
+
+	/**
+	 * SR and IPv4 prefix subobjects of the previous decoding, kept by reset()
+	 * to be decoded into again
+	 */
+	private ArrayDeque<SREROSubobject> spareSRSubobjects;
+	private ArrayDeque<IPv4prefixEROSubobject> spareIPv4Subobjects;
 	
 	//Constructors
 
@@ -69,19 +77,31 @@ public class ExplicitRouteObject extends PCEPObject{
 	 * Encode Explicit Route Object
 	 */
 	public void encode() {
+		encodedLength();
+		this.object_bytes=new byte[ObjectLength];
+		encodeTo(this.object_bytes, 0);
+	}
+
+	@Override
+	public int encodedLength() {
 		int len=4;//The four bytes of the header
-		for (int k=0; k<EROSubobjectList.size();k=k+1){
-			EROSubobjectList.get(k).encode();			
-			len=len+EROSubobjectList.get(k).getErosolength();
+		for (EROSubobject eroso : EROSubobjectList){
+			eroso.encode();			
+			len=len+eroso.getErosolength();
 		}
 		ObjectLength=len;
-		this.object_bytes=new byte[ObjectLength];
-		encode_header();
-		int pos=4;
-		for (int k=0 ; k<EROSubobjectList.size(); k=k+1) {					
-			System.arraycopy(EROSubobjectList.get(k).getSubobject_bytes(),0, this.object_bytes, pos, EROSubobjectList.get(k).getErosolength());
-			pos=pos+EROSubobjectList.get(k).getErosolength();
-		}				
+		return ObjectLength;
+	}
+
+	@Override
+	public int encodeTo(byte[] buf, int offset) {
+		encode_header(buf, offset);
+		int pos=offset+4;
+		for (EROSubobject eroso : EROSubobjectList) {					
+			System.arraycopy(eroso.getSubobject_bytes(),0, buf, pos, eroso.getErosolength());
+			pos=pos+eroso.getErosolength();
+		}
+		return pos;
 	}
 
 	/**
@@ -99,12 +119,22 @@ public class ExplicitRouteObject extends PCEPObject{
 			switch(subojectclass) {
 					case SubObjectValues.ERO_SUBOBJECT_SR_ERO:
 						log.debug("SR ERO");
-					SREROSubobject sreroso = new SREROSubobject(this.getObject_bytes(), offset);
+					SREROSubobject sreroso = spareSRSubobjects==null ? null : spareSRSubobjects.poll();
+					if (sreroso==null){
+						sreroso = new SREROSubobject(this.getObject_bytes(), offset);
+					}else {
+						sreroso.decodeInto(this.getObject_bytes(), offset);
+					}
 					log.debug("FIN");
 					this.addEROSubobject(sreroso);
 					break;
 				case SubObjectValues.ERO_SUBOBJECT_IPV4PREFIX:
-					IPv4prefixEROSubobject sobjt4=new IPv4prefixEROSubobject(this.getObject_bytes(), offset);
+					IPv4prefixEROSubobject sobjt4=spareIPv4Subobjects==null ? null : spareIPv4Subobjects.poll();
+					if (sobjt4==null){
+						sobjt4=new IPv4prefixEROSubobject(this.getObject_bytes(), offset);
+					}else {
+						sobjt4.decodeInto(this.getObject_bytes(), offset);
+					}
 					this.addEROSubobject(sobjt4);
 					break;
 			
@@ -197,6 +227,33 @@ public class ExplicitRouteObject extends PCEPObject{
 		}
 		
 	}
+
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
+	/**
+	 * Empties the subobject list. The SR and IPv4 prefix subobjects are kept
+	 * and reused by the next {@link #decodeInto(byte[], int)}, so they must
+	 * not be referenced from elsewhere after the reset.
+	 */
+	@Override
+	public void reset() {
+		super.reset();
+		if (spareSRSubobjects==null){
+			spareSRSubobjects=new ArrayDeque<SREROSubobject>();
+			spareIPv4Subobjects=new ArrayDeque<IPv4prefixEROSubobject>();
+		}
+		for (EROSubobject eroso : EROSubobjectList){
+			if (eroso instanceof SREROSubobject){
+				spareSRSubobjects.add((SREROSubobject)eroso);
+			}else if (eroso instanceof IPv4prefixEROSubobject){
+				spareIPv4Subobjects.add((IPv4prefixEROSubobject)eroso);
+			}
+		}
+		EROSubobjectList.clear();
+	}
 	
 	//Getters and setters
 	
@@ -222,8 +279,8 @@ public class ExplicitRouteObject extends PCEPObject{
 	public String toString(){
 		StringBuffer sb=new StringBuffer(EROSubobjectList.size()*100);
 		sb.append("<ERO: ");
-		for (int i=0;i<EROSubobjectList.size();++i){
-			sb.append(EROSubobjectList.get(i).toString());
+		for (EROSubobject eroSubobject : EROSubobjectList){
+			sb.append(eroSubobject.toString());
 			sb.append(" ");
 		}
 		sb.append(">");
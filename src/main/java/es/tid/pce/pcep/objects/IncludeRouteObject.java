@@ -82,17 +82,17 @@ public class IncludeRouteObject extends PCEPObject{
 	 */
 	public void encode() {
 		int len=4;//The four bytes of the header
-		for (int k=0; k<IROList.size();k=k+1){
-			IROList.get(k).encode();			
-			len=len+IROList.get(k).getErosolength();
+		for (EROSubobject eroSubobject : IROList){
+			eroSubobject.encode();			
+			len=len+eroSubobject.getErosolength();
 		}
 		ObjectLength=len;
 		this.object_bytes=new byte[ObjectLength];
 		encode_header();
 		int pos=4;
-		for (int k=0 ; k<IROList.size(); k=k+1) {					
-			System.arraycopy(IROList.get(k).getSubobject_bytes(),0, this.object_bytes, pos, IROList.get(k).getErosolength());
-			pos=pos+IROList.get(k).getErosolength();
+		for (EROSubobject eroSubobject : IROList) {					
+			System.arraycopy(eroSubobject.getSubobject_bytes(),0, this.object_bytes, pos, eroSubobject.getErosolength());
+			pos=pos+eroSubobject.getErosolength();
 		}				
 	}
 
@@ -161,6 +161,21 @@ public class IncludeRouteObject extends PCEPObject{
 		
 	}
 	
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		if (IROList==null){
+			IROList=new LinkedList<EROSubobject>();
+		}else{
+			IROList.clear();
+		}
+	}
+
 	//Getters and setters
 	
 	//FIXME: Ver si es mejor Vector o LInkedList, y A�ADIR MAS METODOS UTILES, estos son escasos.
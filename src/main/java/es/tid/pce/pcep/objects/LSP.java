@@ -1,5 +1,6 @@
 package es.tid.pce.pcep.objects;
 
+import es.tid.pce.pcep.PCEPDecoderRegistry;
 import es.tid.pce.pcep.objects.tlvs.LSPDatabaseVersionTLV;
 import es.tid.pce.pcep.objects.tlvs.LSPErrorCodeTLV;
 import es.tid.pce.pcep.objects.tlvs.IPv4LSPIdentifiersTLV;
@@ -8,6 +9,9 @@ import es.tid.pce.pcep.objects.tlvs.RSVPErrorSpecTLV;
 import es.tid.pce.pcep.objects.tlvs.SymbolicPathNameTLV;
 import es.tid.protocol.commons.ByteHandler;
 
+import java.util.Arrays;
+import java.util.LinkedList;
+
 /**
  * LSP Object
  * @see <a href="https://tools.ietf.org/html/rfc8231">RFC 8231</a>
@@ -175,6 +179,12 @@ The LSP object MUST be present within PCRpt and PCUpd messages.  The
 	
 	private LSPDatabaseVersionTLV lspDBVersion_tlv = null;
 	
+	/**
+	 * TLVs without a field, such as vendor TLVs, decoded with the
+	 * {@link PCEPDecoderRegistry}
+	 */
+	private LinkedList<PCEPTLV> otherTLVs = new LinkedList<PCEPTLV>();
+	
 	/* 
 	 * Constructors
 	 */
@@ -197,79 +207,80 @@ The LSP object MUST be present within PCRpt and PCUpd messages.  The
 	@Override
 	public void encode() 
 	{
-		
+		encodedLength();
+		object_bytes = new byte[ObjectLength];
+		encodeTo(object_bytes, 0);
+	}
+
+	@Override
+	public int encodedLength()
+	{
 		ObjectLength = 8;
 		if (symbolicPathNameTLV_tlv!=null){
-			symbolicPathNameTLV_tlv.encode();
-			ObjectLength=ObjectLength+symbolicPathNameTLV_tlv.getTotalTLVLength();
+			ObjectLength=ObjectLength+symbolicPathNameTLV_tlv.encodedLength();
 		}
 		if (lspIdentifiers_tlv!=null){
-			lspIdentifiers_tlv.encode();
-			ObjectLength=ObjectLength+lspIdentifiers_tlv.getTotalTLVLength();
+			ObjectLength=ObjectLength+lspIdentifiers_tlv.encodedLength();
 		}
 		if (lspErrorCodes_tlv!=null){
-			lspErrorCodes_tlv.encode();
-			ObjectLength=ObjectLength+lspErrorCodes_tlv.getTotalTLVLength();
+			ObjectLength=ObjectLength+lspErrorCodes_tlv.encodedLength();
 		}
 		if (rsvpErrorSpec_tlv!=null){
-			rsvpErrorSpec_tlv.encode();
-			ObjectLength=ObjectLength+rsvpErrorSpec_tlv.getTotalTLVLength();
+			ObjectLength=ObjectLength+rsvpErrorSpec_tlv.encodedLength();
 		}
-	
 		if (lspDBVersion_tlv!=null){
-			lspDBVersion_tlv.encode();
-			ObjectLength=ObjectLength+lspDBVersion_tlv.getTotalTLVLength();
+			ObjectLength=ObjectLength+lspDBVersion_tlv.encodedLength();
 		}
-		object_bytes = new byte[ObjectLength];
-		encode_header();
-		
-		int offset = 4;
+		for (PCEPTLV tlv : otherTLVs){
+			ObjectLength=ObjectLength+tlv.encodedLength();
+		}
+		return ObjectLength;
+	}
+
+	@Override
+	public int encodeTo(byte[] buf, int base)
+	{
+		encode_header(buf, base);
 		
+		int offset = base + 4;
+		Arrays.fill(buf, offset, offset + 4, (byte)0);
 		
-		ByteHandler.IntToBuffer(12,offset*8, 20,lspId,this.object_bytes);
+		ByteHandler.IntToBuffer(12,offset*8, 20,lspId,buf);
 
 		offset += 2;
-		ByteHandler.BoolToBuffer(5 + offset*8, eroCompressionFlag,object_bytes);
-		ByteHandler.BoolToBuffer(6 + offset*8, fragmentationFlag,object_bytes);
-		ByteHandler.BoolToBuffer(7 + offset*8, p2mpFlag,object_bytes);
+		ByteHandler.BoolToBuffer(5 + offset*8, eroCompressionFlag,buf);
+		ByteHandler.BoolToBuffer(6 + offset*8, fragmentationFlag,buf);
+		ByteHandler.BoolToBuffer(7 + offset*8, p2mpFlag,buf);
 		offset+=1;
 		
-		ByteHandler.BoolToBuffer(0 + offset*8, createFlag,object_bytes);
-		//ByteHandler.IntToBuffer (0, 1 + offset*8, 3, opFlags, this.object_bytes);
-		ByteHandler.IntToBuffer (29, 1+offset*8, 3, opFlags, this.object_bytes);
-		ByteHandler.BoolToBuffer(4 + offset*8, administrativeFlag,object_bytes);
-		ByteHandler.BoolToBuffer(5 + offset*8, removeFlag,object_bytes);
-		ByteHandler.BoolToBuffer(6 + offset*8, syncFlag,object_bytes);
-		ByteHandler.BoolToBuffer(7 + offset*8, delegateFlag,object_bytes);
-
-//		offset += 1;
-//		offset += 3;
-//		
-//		ByteHandler.IntToBuffer(0,offset*8, 8, LSP_sig_type, this.object_bytes);
+		ByteHandler.BoolToBuffer(0 + offset*8, createFlag,buf);
+		ByteHandler.IntToBuffer (29, 1+offset*8, 3, opFlags, buf);
+		ByteHandler.BoolToBuffer(4 + offset*8, administrativeFlag,buf);
+		ByteHandler.BoolToBuffer(5 + offset*8, removeFlag,buf);
+		ByteHandler.BoolToBuffer(6 + offset*8, syncFlag,buf);
+		ByteHandler.BoolToBuffer(7 + offset*8, delegateFlag,buf);
 		
 		offset += 1;
 		
 		if (symbolicPathNameTLV_tlv!=null){
-			System.arraycopy(symbolicPathNameTLV_tlv.getTlv_bytes(),0,this.object_bytes,offset,symbolicPathNameTLV_tlv.getTotalTLVLength());
-			offset=offset+symbolicPathNameTLV_tlv.getTotalTLVLength();		
+			offset=symbolicPathNameTLV_tlv.encodeTo(buf,offset);
 		}
 		if (lspIdentifiers_tlv!=null){
-			System.arraycopy(lspIdentifiers_tlv.getTlv_bytes(),0,this.object_bytes,offset,lspIdentifiers_tlv.getTotalTLVLength());
-			offset=offset+lspIdentifiers_tlv.getTotalTLVLength();
+			offset=lspIdentifiers_tlv.encodeTo(buf,offset);
 		}
 		if (lspErrorCodes_tlv!=null){
-			System.arraycopy(lspErrorCodes_tlv.getTlv_bytes(),0,this.object_bytes,offset,lspErrorCodes_tlv.getTotalTLVLength());
-			offset=offset+lspErrorCodes_tlv.getTotalTLVLength();
+			offset=lspErrorCodes_tlv.encodeTo(buf,offset);
 		}
 		if (rsvpErrorSpec_tlv!=null){
-			System.arraycopy(rsvpErrorSpec_tlv.getTlv_bytes(),0,this.object_bytes,offset,rsvpErrorSpec_tlv.getTotalTLVLength());
-			offset=offset+rsvpErrorSpec_tlv.getTotalTLVLength();
+			offset=rsvpErrorSpec_tlv.encodeTo(buf,offset);
 		}
-
 		if (lspDBVersion_tlv!=null){
-			System.arraycopy(lspDBVersion_tlv.getTlv_bytes(),0,this.object_bytes,offset,lspDBVersion_tlv.getTotalTLVLength());
-			offset=offset+lspDBVersion_tlv.getTotalTLVLength();
-		}	
+			offset=lspDBVersion_tlv.encodeTo(buf,offset);
+		}
+		for (PCEPTLV tlv : otherTLVs){
+			offset=tlv.encodeTo(buf,offset);
+		}
+		return offset;
 	}
 
 	@Override
@@ -280,6 +291,7 @@ The LSP object MUST be present within PCRpt and PCUpd messages.  The
 		lspErrorCodes_tlv = null;
 		rsvpErrorSpec_tlv = null;
 		lspDBVersion_tlv = null;
+		otherTLVs.clear();
 		
 		if (ObjectLength<8){
 			throw new MalformedPCEPObjectException();
@@ -332,8 +344,8 @@ The LSP object MUST be present within PCRpt and PCUpd messages.  The
 				 */
 				 
 				default:
-					log.warn("Unknown or unexpected TLV found");
-					//FIXME: Que hacemos con los desconocidos
+					log.debug("Unknown or unexpected TLV "+tlvtype+" found in LSP object");
+					otherTLVs.add(PCEPDecoderRegistry.getDefault().decodeTLV(this.getObject_bytes(), offset));
 					break;
 			}
 			
@@ -344,6 +356,32 @@ The LSP object MUST be present within PCRpt and PCUpd messages.  The
 		}
 		
 	}
+
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		lspId=0;
+		delegateFlag=false;
+		syncFlag=false;
+		removeFlag=false;
+		administrativeFlag=false;
+		opFlags=0;
+		createFlag=false;
+		p2mpFlag=false;
+		fragmentationFlag=false;
+		eroCompressionFlag=false;
+		symbolicPathNameTLV_tlv = null;
+		lspIdentifiers_tlv = null;
+		lspErrorCodes_tlv = null;
+		rsvpErrorSpec_tlv = null;
+		lspDBVersion_tlv = null;
+		otherTLVs.clear();
+	}
 	
 	/*
 	 * GETTERS, SETTERS, HASH & EQUALS
@@ -359,6 +397,17 @@ The LSP object MUST be present within PCRpt and PCUpd messages.  The
 		return symbolicPathNameTLV_tlv;
 	}
 
+	/**
+	 * @return TLVs without a field, such as vendor TLVs
+	 */
+	public LinkedList<PCEPTLV> getOtherTLVs() {
+		return otherTLVs;
+	}
+
+	public void setOtherTLVs(LinkedList<PCEPTLV> otherTLVs) {
+		this.otherTLVs = otherTLVs;
+	}
+
 	public void setSymbolicPathNameTLV_tlv(
 			SymbolicPathNameTLV symbolicPathNameTLV_tlv) 
 	{
@@ -499,6 +548,7 @@ The LSP object MUST be present within PCRpt and PCUpd messages.  The
 		result = prime * result + lspId;
 		result = prime * result + ((lspIdentifiers_tlv == null) ? 0 : lspIdentifiers_tlv.hashCode());
 		result = prime * result + opFlags;
+		result = prime * result + otherTLVs.hashCode();
 		result = prime * result + (p2mpFlag ? 1231 : 1237);
 		result = prime * result + (removeFlag ? 1231 : 1237);
 		result = prime * result + ((rsvpErrorSpec_tlv == null) ? 0 : rsvpErrorSpec_tlv.hashCode());
@@ -545,6 +595,8 @@ The LSP object MUST be present within PCRpt and PCUpd messages.  The
 			return false;
 		if (opFlags != other.opFlags)
 			return false;
+		if (!otherTLVs.equals(other.otherTLVs))
+			return false;
 		if (p2mpFlag != other.p2mpFlag)
 			return false;
 		if (removeFlag != other.removeFlag)
@@ -571,7 +623,8 @@ The LSP object MUST be present within PCRpt and PCUpd messages.  The
 				+ createFlag + ", p2mpFlag=" + p2mpFlag + ", fragmentationFlag=" + fragmentationFlag
 				+ ", eroCompressionFlag=" + eroCompressionFlag + ", symbolicPathNameTLV_tlv=" + symbolicPathNameTLV_tlv
 				+ ", lspIdentifiers_tlv=" + lspIdentifiers_tlv + ", lspErrorCodes_tlv=" + lspErrorCodes_tlv
-				+ ", rsvpErrorSpec_tlv=" + rsvpErrorSpec_tlv + ", lspDBVersion_tlv=" + lspDBVersion_tlv + "]";
+				+ ", rsvpErrorSpec_tlv=" + rsvpErrorSpec_tlv + ", lspDBVersion_tlv=" + lspDBVersion_tlv
+				+ (otherTLVs.isEmpty() ? "" : ", otherTLVs=" + otherTLVs) + "]";
 	}
 
 	/*
@@ -230,6 +230,20 @@ public class Metric extends PCEPObject{
 				
 	}
 
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		computedMetricBit=false;
+		boundBit=false;
+		metricType=0;
+		metricValue=0;
+	}
+
 	//Getters and Setters
 
 	
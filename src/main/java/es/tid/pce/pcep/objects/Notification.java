@@ -239,16 +239,16 @@ public class Notification extends PCEPObject{
 //		}
 		
 		if (reachabilityTLVList!=null){
-			for (int i=0;i<reachabilityTLVList.size();++i){
-				(reachabilityTLVList.get(i)).encode();
-				len=len+(reachabilityTLVList.get(i)).getTotalTLVLength();
+			for (ReachabilityTLV reachabilityTLV : reachabilityTLVList){
+				reachabilityTLV.encode();
+				len=len+reachabilityTLV.getTotalTLVLength();
 			}
 		}
 			
 		if (LSATLVList!=null){
-			for (int i=0;i<LSATLVList.size();++i){
-				(LSATLVList.get(i)).encode();
-				len=len+(LSATLVList.get(i)).getTotalTLVLength();
+			for (OSPFTE_LSA_TLV lsaTLV : LSATLVList){
+				lsaTLV.encode();
+				len=len+lsaTLV.getTotalTLVLength();
 			}
 		}
 		
@@ -276,16 +276,16 @@ public class Notification extends PCEPObject{
 //		}
 		
 		if (reachabilityTLVList!=null){
-			for (int i=0;i<reachabilityTLVList.size();++i){
-				System.arraycopy(reachabilityTLVList.get(i).getTlv_bytes(), 0, this.object_bytes, offset, reachabilityTLVList.get(i).getTotalTLVLength());
-				offset=offset+reachabilityTLVList.get(i).getTotalTLVLength();
+			for (ReachabilityTLV reachabilityTLV : reachabilityTLVList){
+				System.arraycopy(reachabilityTLV.getTlv_bytes(), 0, this.object_bytes, offset, reachabilityTLV.getTotalTLVLength());
+				offset=offset+reachabilityTLV.getTotalTLVLength();
 			}
 		}
 		
 		if (LSATLVList!=null){
-			for (int i=0;i<LSATLVList.size();++i){
-				System.arraycopy(LSATLVList.get(i).getTlv_bytes(), 0, this.object_bytes, offset, LSATLVList.get(i).getTotalTLVLength());
-				offset=offset+LSATLVList.get(i).getTotalTLVLength();
+			for (OSPFTE_LSA_TLV lsaTLV : LSATLVList){
+				System.arraycopy(lsaTLV.getTlv_bytes(), 0, this.object_bytes, offset, lsaTLV.getTotalTLVLength());
+				offset=offset+lsaTLV.getTotalTLVLength();
 			}
 		}
 
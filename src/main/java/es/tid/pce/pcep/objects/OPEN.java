@@ -13,6 +13,7 @@ import es.tid.pce.pcep.objects.tlvs.PCE_ID_TLV;
 import es.tid.pce.pcep.objects.tlvs.PCE_Redundancy_Group_Identifier_TLV;
 import es.tid.pce.pcep.objects.tlvs.PathSetupCapabilityTLV;
 import es.tid.pce.pcep.objects.tlvs.SRCapabilityTLV;
+import es.tid.pce.pcep.objects.tlvs.SpeakerEntityIdentifierTLV;
 import es.tid.pce.pcep.objects.tlvs.StatefulCapabilityTLV;
 
 /** 
@@ -186,6 +187,13 @@ public class OPEN extends PCEPObject{
 	 * for the synchronization phase in order to skip it if both the PCE and PCC have the same version
 	 */
 	private LSPDatabaseVersionTLV lsp_database_version_tlv = null;
+
+	/**
+	 * Optional Speaker Entity Identifier TLV (RFC 8232). It identifies the speaker
+	 * across sessions, so that the LSP database of a previous session is found
+	 * even if its address has changed
+	 */
+	private SpeakerEntityIdentifierTLV speaker_entity_id_tlv = null;
 	
 	/**
 	 * Optional Redundancy Group Indentifier TLV. Used for database synchronization
@@ -267,6 +275,10 @@ public class OPEN extends PCEPObject{
 			lsp_database_version_tlv.encode();
 			ObjectLength=ObjectLength+lsp_database_version_tlv.getTotalTLVLength();
 		}
+		if (speaker_entity_id_tlv!=null){
+			speaker_entity_id_tlv.encode();
+			ObjectLength=ObjectLength+speaker_entity_id_tlv.getTotalTLVLength();
+		}
 		if (redundancy_indetifier_tlv!=null){
 			redundancy_indetifier_tlv.encode();
 			ObjectLength=ObjectLength+redundancy_indetifier_tlv.getTotalTLVLength();
@@ -322,6 +334,10 @@ public class OPEN extends PCEPObject{
 			System.arraycopy(lsp_database_version_tlv.getTlv_bytes(),0,this.object_bytes,offset,lsp_database_version_tlv.getTotalTLVLength());
 			offset=offset+lsp_database_version_tlv.getTotalTLVLength();
 		}
+		if (speaker_entity_id_tlv!=null){
+			System.arraycopy(speaker_entity_id_tlv.getTlv_bytes(),0,this.object_bytes,offset,speaker_entity_id_tlv.getTotalTLVLength());
+			offset=offset+speaker_entity_id_tlv.getTotalTLVLength();
+		}
 		if (redundancy_indetifier_tlv!=null){
 			System.arraycopy(redundancy_indetifier_tlv.getTlv_bytes(),0,this.object_bytes,offset,redundancy_indetifier_tlv.getTotalTLVLength());
 			offset=offset+redundancy_indetifier_tlv.getTotalTLVLength();
@@ -350,6 +366,7 @@ public class OPEN extends PCEPObject{
 		//Beginning decoding of OPEN object
 		redundancy_indetifier_tlv = null;
 		lsp_database_version_tlv = null;
+		speaker_entity_id_tlv = null;
 		stateful_capability_tlv = null;
 		SR_capability_tlv = null;		
 		assoc_type_list_tlv = null;
@@ -395,6 +412,9 @@ public class OPEN extends PCEPObject{
 			case ObjectParameters.PCEP_TLV_TYPE_LSP_DATABASE_VERSION:
 				lsp_database_version_tlv=new LSPDatabaseVersionTLV(this.getObject_bytes(), offset);
 				break;
+			case ObjectParameters.PCEP_TLV_TYPE_SPEAKER_ENTITY_ID:
+				speaker_entity_id_tlv=new SpeakerEntityIdentifierTLV(this.getObject_bytes(), offset);
+				break;
 			case ObjectParameters.PCEP_TLV_TYPE_PCE_REDUNDANCY_GROUP_INDENTIFIER:
 				redundancy_indetifier_tlv=new PCE_Redundancy_Group_Identifier_TLV(this.getObject_bytes(), offset);
 				break;
@@ -556,6 +576,14 @@ public class OPEN extends PCEPObject{
 		this.lsp_database_version_tlv = lsp_database_version_tlv;
 	}
 
+	public SpeakerEntityIdentifierTLV getSpeaker_entity_id_tlv() {
+		return speaker_entity_id_tlv;
+	}
+
+	public void setSpeaker_entity_id_tlv(SpeakerEntityIdentifierTLV speaker_entity_id_tlv) {
+		this.speaker_entity_id_tlv = speaker_entity_id_tlv;
+	}
+
 	public PCE_Redundancy_Group_Identifier_TLV getRedundancy_indetifier_tlv() {
 		return redundancy_indetifier_tlv;
 	}
@@ -618,6 +646,7 @@ public class OPEN extends PCEPObject{
 		result = prime * result + ((pathSetupCababiity == null) ? 0 : pathSetupCababiity.hashCode());
 		result = prime * result + ((pce_id_tlv == null) ? 0 : pce_id_tlv.hashCode());
 		result = prime * result + ((redundancy_indetifier_tlv == null) ? 0 : redundancy_indetifier_tlv.hashCode());
+		result = prime * result + ((speaker_entity_id_tlv == null) ? 0 : speaker_entity_id_tlv.hashCode());
 		result = prime * result + ((stateful_capability_tlv == null) ? 0 : stateful_capability_tlv.hashCode());
 		return result;
 	}
@@ -693,6 +722,11 @@ public class OPEN extends PCEPObject{
 				return false;
 		} else if (!redundancy_indetifier_tlv.equals(other.redundancy_indetifier_tlv))
 			return false;
+		if (speaker_entity_id_tlv == null) {
+			if (other.speaker_entity_id_tlv != null)
+				return false;
+		} else if (!speaker_entity_id_tlv.equals(other.speaker_entity_id_tlv))
+			return false;
 		if (stateful_capability_tlv == null) {
 			if (other.stateful_capability_tlv != null)
 				return false;
@@ -708,7 +742,7 @@ public class OPEN extends PCEPObject{
 				+ ", of_list_tlv=" + of_list_tlv + ", domain_id_tlv=" + domain_id_tlv + ", pce_id_tlv=" + pce_id_tlv
 				+ ", gmplsCapabilityTLV=" + gmplsCapabilityTLV + ", stateful_capability_tlv=" + stateful_capability_tlv
 				+ ", SR_capability_tlv=" + SR_capability_tlv + ", lsp_database_version_tlv=" + lsp_database_version_tlv
-				+ ", redundancy_indetifier_tlv=" + redundancy_indetifier_tlv + ", assoc_type_list_tlv="
+				+ ", speaker_entity_id_tlv=" + speaker_entity_id_tlv + ", redundancy_indetifier_tlv=" + redundancy_indetifier_tlv + ", assoc_type_list_tlv="
 				+ assoc_type_list_tlv + ", op_conf_assoc_range_tlv=" + op_conf_assoc_range_tlv + ", pathSetupCababiity="
 				+ pathSetupCababiity + "]";
 	}
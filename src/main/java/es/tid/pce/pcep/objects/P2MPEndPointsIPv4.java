@@ -125,8 +125,10 @@ public class P2MPEndPointsIPv4 extends EndPoints{
 		System.arraycopy(sourceIP.getAddress(),0, this.object_bytes, 8, 4);
 		
 		// TODO what if its size is 0?
-		for (int i = 0; i < destIPList.size(); i++) {
-			System.arraycopy(destIPList.get(i).getAddress(),0, this.object_bytes, 12+4*i, 4);			
+		int offset = 12;
+		for (Inet4Address destIP : destIPList) {
+			System.arraycopy(destIP.getAddress(),0, this.object_bytes, offset, 4);			
+			offset = offset + 4;
 		}
 	}
 
@@ -206,8 +208,10 @@ public class P2MPEndPointsIPv4 extends EndPoints{
 		StringBuffer sb=new StringBuffer(destIPList.size()*100);
 		sb.append("<Leaf type: "+leafType);
 		sb.append(" Source IP: "+sourceIP);
-		for (int i=0;i<destIPList.size();++i){
-			sb.append(" Destination IP"+i+": "+destIPList.get(i).toString());
+		int i=0;
+		for (Inet4Address destIP : destIPList){
+			sb.append(" Destination IP"+i+": "+destIP.toString());
+			++i;
 		}
 		sb.append(">");
 		return sb.toString();
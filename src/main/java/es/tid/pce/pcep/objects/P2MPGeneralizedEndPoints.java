@@ -39,9 +39,9 @@ public class P2MPGeneralizedEndPoints extends GeneralizedEndPoints {
 		try {
 			int len=8;
 			if (EndpointAndRestrictionsList.size()>0){
-				for (int i=0;i<EndpointAndRestrictionsList.size();++i){
-					(EndpointAndRestrictionsList.get(i)).encode();
-					len=len+(EndpointAndRestrictionsList.get(i)).getLength();
+				for (EndPointAndRestrictions endPointAndRestrictions : EndpointAndRestrictionsList){
+					endPointAndRestrictions.encode();
+					len=len+endPointAndRestrictions.getLength();
 				}
 			}
 			if (EndpointAndRestrictions != null)
@@ -61,10 +61,9 @@ public class P2MPGeneralizedEndPoints extends GeneralizedEndPoints {
 			
 			if (EndpointAndRestrictionsList!=null)
 			{
-				for (int i=0;i<EndpointAndRestrictionsList.size();++i)
-				{
-					System.arraycopy(EndpointAndRestrictionsList.get(i).getBytes(), 0, this.object_bytes, offset, EndpointAndRestrictionsList.get(i).getLength());
-					offset=offset+EndpointAndRestrictionsList.get(i).getLength();
+				for (EndPointAndRestrictions endPointAndRestrictions : EndpointAndRestrictionsList) {
+					System.arraycopy(endPointAndRestrictions.getBytes(), 0, this.object_bytes, offset, endPointAndRestrictions.getLength());
+					offset=offset+endPointAndRestrictions.getLength();
 				}
 			}
 			
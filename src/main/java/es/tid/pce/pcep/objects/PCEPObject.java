@@ -177,14 +177,72 @@ public abstract class PCEPObject implements PCEPElement {
 		decode();
 	}
 
+	/**
+	 * Clears the fields of the object so that the instance can be reused.
+	 * Object-Class and Object-Type are kept. Objects with optional fields
+	 * (TLVs, subobjects) override it to clear them, so that nothing of the
+	 * previous decoding is left after {@link #decodeInto(byte[], int)}.
+	 */
+	public void reset() {
+		Res=0;
+		Pbit=false;
+		Ibit=false;
+	}
+
+	/**
+	 * Objects whose {@link #reset()} clears everything their decoding sets
+	 * override it to return true. The others can only be decoded once.
+	 * @return true if the object supports {@link #decodeInto(byte[], int)}
+	 */
+	protected boolean isReusable() {
+		return false;
+	}
+
+	/**
+	 * Decodes an object from a sequence of bytes into this instance. The
+	 * object is reset first and the byte array of the object is reused when
+	 * the new object has the same length, so decoding the same kind of object
+	 * again and again does not allocate. The array returned by a previous
+	 * {@link #getBytes()} is overwritten.
+	 * @param bytes bytes
+	 * @param offset offset
+	 * @throws MalformedPCEPObjectException Exception when the object is malformed
+	 * @throws UnsupportedOperationException if the object does not support reuse (see {@link #isReusable()})
+	 */
+	public void decodeInto(byte[] bytes, int offset) throws MalformedPCEPObjectException{
+		if (!isReusable()){
+			throw new UnsupportedOperationException(getClass().getSimpleName()+" cannot be decoded into");
+		}
+		int length=getObjectLength(bytes, offset);
+		if (length<4 || offset+length>bytes.length){
+			throw new MalformedPCEPObjectException();
+		}
+		reset();
+		if (object_bytes==null || object_bytes.length!=length){
+			object_bytes=new byte[length];
+		}
+		System.arraycopy(bytes, offset, object_bytes, 0, length);
+		decodeHeader();
+		decode();
+	}
+
 	/**
 	 * Encodes the header of the PCEP object (4 bytes)
 	 */
 	public void encode_header() {
-		object_bytes[0]=(byte)ObjectClass;
-		object_bytes[1]=(byte)( ( (OT<<4) & 0xF0) | ( (Res<<2) & 0x0C) | (((Pbit?1:0)<<1) & 0x02) | (Ibit?1:0));
-		object_bytes[2]=(byte)((ObjectLength>>8) & 0xFF);
-		object_bytes[3]=(byte)(ObjectLength & 0xFF);
+		encode_header(object_bytes, 0);
+	}
+
+	/**
+	 * Writes the common object header in the buffer.
+	 * @param buf buffer where the header is written
+	 * @param offset position of the buffer where the object starts
+	 */
+	public void encode_header(byte[] buf, int offset) {
+		buf[offset]=(byte)ObjectClass;
+		buf[offset+1]=(byte)( ( (OT<<4) & 0xF0) | ( (Res<<2) & 0x0C) | (((Pbit?1:0)<<1) & 0x02) | (Ibit?1:0));
+		buf[offset+2]=(byte)((ObjectLength>>8) & 0xFF);
+		buf[offset+3]=(byte)(ObjectLength & 0xFF);
 	}
 
 	/**
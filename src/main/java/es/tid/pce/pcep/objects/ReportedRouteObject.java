@@ -94,17 +94,17 @@ public class ReportedRouteObject extends PCEPObject{
 	 */
 	public void encode() {
 		int len=4;//The four bytes of the header
-		for (int k=0; k<rroSubObjectList.size();k=k+1){
-			rroSubObjectList.get(k).encode();			
-			len=len+rroSubObjectList.get(k).getRrosolength();
+		for (RROSubobject rroSubobject : rroSubObjectList){
+			rroSubobject.encode();			
+			len=len+rroSubobject.getRrosolength();
 		}
 		ObjectLength=len;
 		this.object_bytes=new byte[ObjectLength];
 		encode_header();
 		int pos=4;
-		for (int k=0 ; k<rroSubObjectList.size(); k=k+1) {					
-			System.arraycopy(rroSubObjectList.get(k).getSubobject_bytes(),0, this.object_bytes, pos, rroSubObjectList.get(k).getRrosolength());
-			pos=pos+rroSubObjectList.get(k).getRrosolength();
+		for (RROSubobject rroSubobject : rroSubObjectList) {					
+			System.arraycopy(rroSubobject.getSubobject_bytes(),0, this.object_bytes, pos, rroSubobject.getRrosolength());
+			pos=pos+rroSubobject.getRrosolength();
 		}					
 	}
 
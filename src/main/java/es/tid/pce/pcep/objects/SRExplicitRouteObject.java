@@ -0,0 +1,463 @@
+package es.tid.pce.pcep.objects;
+
+import java.net.Inet4Address;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+
+import es.tid.pce.pcep.constructs.NAIIPv4Adjacency;
+import es.tid.pce.pcep.constructs.NAIIPv4NodeID;
+import es.tid.pce.pcep.objects.subobjects.SREROSubobject;
+import es.tid.rsvp.objects.subobjects.EROSubobject;
+import es.tid.rsvp.objects.subobjects.SubObjectValues;
+
+/**
+ * Explicit Route Object made only of SR-ERO subobjects (RFC 8664), kept in
+ * primitive arrays: the SIDs in an int[], the L, F, S, C and M flags of each
+ * segment in a byte, and the IPv4 NAIs as ints. A segment takes 14 bytes,
+ * instead of the SREROSubobject, its bytes, its NAI with the Inet4Addresses
+ * and the list node of an {@link ExplicitRouteObject}.
+ *
+ * The encoding is the one of an ExplicitRouteObject with the same segments,
+ * so the bytes of one can be decoded as the other, and
+ * {@link #fromERO(ExplicitRouteObject)} and {@link #toERO()} convert between
+ * them. The NAI types supported are IPv4 Node ID and IPv4 Adjacency, as in
+ * SREROSubobject.
+ *
+ * <pre>
+ * SRExplicitRouteObject sr = new SRExplicitRouteObject();
+ * sr.addIPv4NodeSegment(16001 &lt;&lt; 12, SRExplicitRouteObject.FLAG_M, 0x0A000001);
+ * sr.addSegment(24005 &lt;&lt; 12, SRExplicitRouteObject.FLAG_M);
+ * path.setEro(sr.toERO());
+ * </pre>
+ */
+public class SRExplicitRouteObject extends PCEPObject {
+
+	/**
+	 * Flags of a segment. F, S, C and M are in the position of the SR-ERO
+	 * subobject; LOOSE is the L bit.
+	 */
+	public static final int FLAG_M = 0x01;
+	public static final int FLAG_C = 0x02;
+	public static final int FLAG_S = 0x04;
+	public static final int FLAG_F = 0x08;
+	public static final int FLAG_LOOSE = 0x80;
+
+	private static final int FLAGS_MASK = FLAG_LOOSE | FLAG_F | FLAG_S | FLAG_C | FLAG_M;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int size;
+
+	private int[] sids;
+
+	private byte[] flags;
+
+	private byte[] naiTypes;
+
+	/**
+	 * Two ints per segment: the node ID, or the local and remote addresses of
+	 * the adjacency
+	 */
+	private int[] nais;
+
+	public SRExplicitRouteObject() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity initial number of segments
+	 */
+	public SRExplicitRouteObject(int capacity) {
+		super();
+		this.setObjectClass(ObjectParameters.PCEP_OBJECT_CLASS_ERO);
+		this.setOT(ObjectParameters.PCEP_OBJECT_TYPE_ERO);
+		allocate(Math.max(capacity, 1));
+	}
+
+	/**
+	 * Decodes an ERO with only SR-ERO subobjects
+	 * @param bytes bytes
+	 * @param offset offset
+	 * @throws MalformedPCEPObjectException if the ERO is malformed, or has other subobjects or NAI types
+	 */
+	public SRExplicitRouteObject(byte[] bytes, int offset) throws MalformedPCEPObjectException {
+		super(bytes, offset);
+		allocate(DEFAULT_CAPACITY);
+		decode();
+	}
+
+	private void allocate(int capacity) {
+		sids = new int[capacity];
+		flags = new byte[capacity];
+		naiTypes = new byte[capacity];
+		nais = new int[2 * capacity];
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > sids.length) {
+			capacity = Math.max(capacity, sids.length * 2);
+			sids = Arrays.copyOf(sids, capacity);
+			flags = Arrays.copyOf(flags, capacity);
+			naiTypes = Arrays.copyOf(naiTypes, capacity);
+			nais = Arrays.copyOf(nais, 2 * capacity);
+		}
+	}
+
+	private void add(int sid, int segmentFlags, int naiType, int nai1, int nai2) {
+		if (size == sids.length) {
+			ensureCapacity(size + 1);
+		}
+		sids[size] = sid;
+		flags[size] = (byte) (segmentFlags & FLAGS_MASK);
+		naiTypes[size] = (byte) naiType;
+		nais[2 * size] = nai1;
+		nais[2 * size + 1] = nai2;
+		size++;
+	}
+
+	/**
+	 * Appends a segment without NAI, the F flag is set
+	 * @param sid SID, ignored if the S flag is set
+	 * @param segmentFlags FLAG_ values
+	 */
+	public void addSegment(int sid, int segmentFlags) {
+		add(sid, segmentFlags | FLAG_F, 0, 0, 0);
+	}
+
+	/**
+	 * Appends a segment with an IPv4 Node ID NAI
+	 * @param sid SID, ignored if the S flag is set
+	 * @param segmentFlags FLAG_ values, F is cleared
+	 * @param nodeId IPv4 address of the node
+	 */
+	public void addIPv4NodeSegment(int sid, int segmentFlags, int nodeId) {
+		add(sid, segmentFlags & ~FLAG_F, SREROSubobject.ST_IPv4NodeID, nodeId, 0);
+	}
+
+	/**
+	 * Appends a segment with an IPv4 Adjacency NAI
+	 * @param sid SID, ignored if the S flag is set
+	 * @param segmentFlags FLAG_ values, F is cleared
+	 * @param localAddress IPv4 address of the local end of the adjacency
+	 * @param remoteAddress IPv4 address of the remote end
+	 */
+	public void addIPv4AdjacencySegment(int sid, int segmentFlags, int localAddress, int remoteAddress) {
+		add(sid, segmentFlags & ~FLAG_F, SREROSubobject.ST_IPv4Adjacency, localAddress, remoteAddress);
+	}
+
+	/**
+	 * @return number of segments
+	 */
+	public int size() {
+		return size;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+		}
+	}
+
+	/**
+	 * @return SID of the segment, as an unsigned 32-bit value
+	 */
+	public int getSID(int index) {
+		checkIndex(index);
+		return sids[index];
+	}
+
+	/**
+	 * @return a copy of the SIDs
+	 */
+	public int[] getSIDs() {
+		return Arrays.copyOf(sids, size);
+	}
+
+	/**
+	 * @return FLAG_ values of the segment
+	 */
+	public int getFlags(int index) {
+		checkIndex(index);
+		return flags[index] & 0xFF;
+	}
+
+	public boolean isLoose(int index) {
+		return (getFlags(index) & FLAG_LOOSE) != 0;
+	}
+
+	/**
+	 * @return NAI Type (NT) of the segment, 0 if it has no NAI
+	 */
+	public int getNaiType(int index) {
+		checkIndex(index);
+		return naiTypes[index];
+	}
+
+	/**
+	 * @return node ID of an IPv4 Node ID NAI, or local address of an IPv4 Adjacency NAI
+	 */
+	public int getNaiAddress(int index) {
+		checkIndex(index);
+		return nais[2 * index];
+	}
+
+	/**
+	 * @return remote address of an IPv4 Adjacency NAI
+	 */
+	public int getNaiRemoteAddress(int index) {
+		checkIndex(index);
+		return nais[2 * index + 1];
+	}
+
+	/**
+	 * Removes the segments, the arrays are kept
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		clear();
+	}
+
+	private static int naiLength(int naiType) {
+		switch (naiType) {
+		case SREROSubobject.ST_IPv4NodeID:
+			return 4;
+		case SREROSubobject.ST_IPv4Adjacency:
+			return 8;
+		default:
+			return 0;
+		}
+	}
+
+	private int subobjectLength(int index) {
+		return 4 + ((flags[index] & FLAG_S) == 0 ? 4 : 0) + naiLength(naiTypes[index]);
+	}
+
+	@Override
+	public void encode() {
+		encodedLength();
+		object_bytes = new byte[ObjectLength];
+		encodeTo(object_bytes, 0);
+	}
+
+	@Override
+	public int encodedLength() {
+		int len = 4;
+		for (int i = 0; i < size; ++i) {
+			len += subobjectLength(i);
+		}
+		ObjectLength = len;
+		return ObjectLength;
+	}
+
+	@Override
+	public int encodeTo(byte[] buf, int offset) {
+		encode_header(buf, offset);
+		int pos = offset + 4;
+		for (int i = 0; i < size; ++i) {
+			int segmentFlags = flags[i];
+			int naiType = naiTypes[i];
+			int start = pos;
+			buf[pos] = (byte) (((segmentFlags & FLAG_LOOSE) != 0 ? 0x80 : 0) | SubObjectValues.ERO_SUBOBJECT_SR_ERO);
+			buf[pos + 2] = (byte) (naiType << 4);
+			buf[pos + 3] = (byte) (segmentFlags & 0x0F);
+			pos += 4;
+			if ((segmentFlags & FLAG_S) == 0) {
+				pos = putInt(buf, pos, sids[i]);
+			}
+			if (naiType == SREROSubobject.ST_IPv4NodeID) {
+				pos = putInt(buf, pos, nais[2 * i]);
+			} else if (naiType == SREROSubobject.ST_IPv4Adjacency) {
+				pos = putInt(buf, pos, nais[2 * i]);
+				pos = putInt(buf, pos, nais[2 * i + 1]);
+			}
+			buf[start + 1] = (byte) (pos - start);
+		}
+		return pos;
+	}
+
+	@Override
+	public void decode() throws MalformedPCEPObjectException {
+		size = 0;
+		int offset = 4;
+		while (offset < ObjectLength) {
+			if (offset + 4 > ObjectLength) {
+				throw new MalformedPCEPObjectException("Truncated SR-ERO subobject");
+			}
+			int type = object_bytes[offset] & 0x7F;
+			int length = object_bytes[offset + 1] & 0xFF;
+			if (type != SubObjectValues.ERO_SUBOBJECT_SR_ERO) {
+				throw new MalformedPCEPObjectException("ERO subobject of type " + type + " is not SR-ERO");
+			}
+			int naiType = (object_bytes[offset + 2] >>> 4) & 0x0F;
+			int segmentFlags = (object_bytes[offset + 3] & 0x0F) | ((object_bytes[offset] & 0x80) != 0 ? FLAG_LOOSE : 0);
+			int sidLength = (segmentFlags & FLAG_S) == 0 ? 4 : 0;
+			if (length < 4 + sidLength || offset + length > ObjectLength) {
+				throw new MalformedPCEPObjectException("Bad SR-ERO subobject length " + length);
+			}
+			// as in SREROSubobject, the NAI is there if the length leaves room for
+			// it, whatever the F flag; trailing bytes are ignored
+			int naiLength = 0;
+			if (length > 4 + sidLength) {
+				naiLength = naiLength(naiType);
+				if (naiLength == 0 && naiType != 0) {
+					throw new MalformedPCEPObjectException("NAI type " + naiType + " not supported");
+				}
+				if (length < 4 + sidLength + naiLength) {
+					throw new MalformedPCEPObjectException("Truncated NAI of type " + naiType);
+				}
+			}
+			int pos = offset + 4;
+			int sid = sidLength == 0 ? 0 : getInt(object_bytes, pos);
+			pos += sidLength;
+			int nai1 = naiLength >= 4 ? getInt(object_bytes, pos) : 0;
+			int nai2 = naiLength == 8 ? getInt(object_bytes, pos + 4) : 0;
+			add(sid, segmentFlags, naiLength == 0 ? 0 : naiType, nai1, nai2);
+			offset += length;
+		}
+	}
+
+	/**
+	 * @param ero ERO with only SR-ERO subobjects, with IPv4 Node ID or IPv4 Adjacency NAIs
+	 * @return the same segments in compact form
+	 * @throws IllegalArgumentException if the ERO has other subobjects or NAIs
+	 */
+	public static SRExplicitRouteObject fromERO(ExplicitRouteObject ero) {
+		SRExplicitRouteObject sr = new SRExplicitRouteObject(Math.max(ero.getEROSubobjectList().size(), 1));
+		for (EROSubobject eroso : ero.getEROSubobjectList()) {
+			if (!(eroso instanceof SREROSubobject)) {
+				throw new IllegalArgumentException("ERO subobject " + eroso.getClass().getSimpleName() + " is not SR-ERO");
+			}
+			SREROSubobject srso = (SREROSubobject) eroso;
+			int segmentFlags = (srso.isloosehop() ? FLAG_LOOSE : 0) | (srso.isfFlag() ? FLAG_F : 0)
+					| (srso.issFlag() ? FLAG_S : 0) | (srso.iscFlag() ? FLAG_C : 0) | (srso.ismFlag() ? FLAG_M : 0);
+			int sid = (int) srso.getSID();
+			if (srso.getNai() == null) {
+				sr.add(sid, segmentFlags, 0, 0, 0);
+			} else if (srso.getNai() instanceof NAIIPv4NodeID) {
+				sr.add(sid, segmentFlags, SREROSubobject.ST_IPv4NodeID,
+						toInt(((NAIIPv4NodeID) srso.getNai()).getNodeID()), 0);
+			} else if (srso.getNai() instanceof NAIIPv4Adjacency) {
+				NAIIPv4Adjacency adjacency = (NAIIPv4Adjacency) srso.getNai();
+				sr.add(sid, segmentFlags, SREROSubobject.ST_IPv4Adjacency,
+						toInt(adjacency.getLocalNodeAddress()), toInt(adjacency.getRemoteNodeAddress()));
+			} else {
+				throw new IllegalArgumentException("NAI " + srso.getNai().getClass().getSimpleName() + " not supported");
+			}
+		}
+		return sr;
+	}
+
+	/**
+	 * @return an ERO with an SREROSubobject per segment
+	 */
+	public ExplicitRouteObject toERO() {
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		for (int i = 0; i < size; ++i) {
+			int segmentFlags = flags[i];
+			SREROSubobject srso = new SREROSubobject();
+			srso.setSID(sids[i] & 0xFFFFFFFFL);
+			srso.setLoosehop((segmentFlags & FLAG_LOOSE) != 0);
+			srso.setFflag((segmentFlags & FLAG_F) != 0);
+			srso.setSflag((segmentFlags & FLAG_S) != 0);
+			srso.setCflag((segmentFlags & FLAG_C) != 0);
+			srso.setMflag((segmentFlags & FLAG_M) != 0);
+			if (naiTypes[i] == SREROSubobject.ST_IPv4NodeID) {
+				NAIIPv4NodeID nai = new NAIIPv4NodeID();
+				nai.setNodeID(toInet4Address(nais[2 * i]));
+				srso.setNai(nai);
+			} else if (naiTypes[i] == SREROSubobject.ST_IPv4Adjacency) {
+				NAIIPv4Adjacency nai = new NAIIPv4Adjacency();
+				nai.setLocalNodeAddress(toInet4Address(nais[2 * i]));
+				nai.setRemoteNodeAddress(toInet4Address(nais[2 * i + 1]));
+				srso.setNai(nai);
+			}
+			ero.addEROSubobject(srso);
+		}
+		return ero;
+	}
+
+	private static int toInt(Inet4Address address) {
+		if (address == null) {
+			return 0;
+		}
+		byte[] bytes = address.getAddress();
+		return ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+	}
+
+	private static Inet4Address toInet4Address(int address) {
+		try {
+			return (Inet4Address) Inet4Address.getByAddress(new byte[] {(byte) (address >>> 24), (byte) (address >>> 16), (byte) (address >>> 8), (byte) address});
+		} catch (UnknownHostException e) {
+			// not thrown for 4 octets
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static int putInt(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) (value >>> 24);
+		bytes[offset + 1] = (byte) (value >>> 16);
+		bytes[offset + 2] = (byte) (value >>> 8);
+		bytes[offset + 3] = (byte) value;
+		return offset + 4;
+	}
+
+	private static int getInt(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < size; ++i) {
+			result = 31 * result + sids[i];
+			result = 31 * result + flags[i];
+			result = 31 * result + naiTypes[i];
+			result = 31 * result + nais[2 * i];
+			result = 31 * result + nais[2 * i + 1];
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		SRExplicitRouteObject other = (SRExplicitRouteObject) obj;
+		return size == other.size && Arrays.equals(sids, 0, size, other.sids, 0, size)
+				&& Arrays.equals(flags, 0, size, other.flags, 0, size)
+				&& Arrays.equals(naiTypes, 0, size, other.naiTypes, 0, size)
+				&& Arrays.equals(nais, 0, 2 * size, other.nais, 0, 2 * size);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(16 + 12 * size);
+		sb.append("<SR-ERO:");
+		for (int i = 0; i < size; ++i) {
+			sb.append(' ').append(sids[i] & 0xFFFFFFFFL);
+			if (naiTypes[i] != 0) {
+				sb.append('/').append(toInet4Address(nais[2 * i]).getHostAddress());
+				if (naiTypes[i] == SREROSubobject.ST_IPv4Adjacency) {
+					sb.append('-').append(toInet4Address(nais[2 * i + 1]).getHostAddress());
+				}
+			}
+			if ((flags[i] & FLAG_LOOSE) != 0) {
+				sb.append(" loose");
+			}
+		}
+		return sb.append('>').toString();
+	}
+
+}
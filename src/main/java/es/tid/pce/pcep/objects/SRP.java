@@ -1,10 +1,14 @@
 package es.tid.pce.pcep.objects;
 
+import es.tid.pce.pcep.PCEPDecoderRegistry;
 import es.tid.pce.pcep.objects.tlvs.PCEPTLV;
 import es.tid.pce.pcep.objects.tlvs.PathSetupTLV;
 import es.tid.pce.pcep.objects.tlvs.SymbolicPathNameTLV;
 import es.tid.protocol.commons.ByteHandler;
 
+import java.util.Arrays;
+import java.util.LinkedList;
+
 /**
  * SRP Object.
  * 
@@ -125,6 +129,12 @@ public class SRP extends PCEPObject
 
 	private PathSetupTLV pathSetupTLV;
 
+	/**
+	 * TLVs without a field, such as vendor TLVs, decoded with the
+	 * {@link PCEPDecoderRegistry}
+	 */
+	private LinkedList<PCEPTLV> otherTLVs = new LinkedList<PCEPTLV>();
+
 	/*
 	 * Fields
 	 */
@@ -145,46 +155,62 @@ public class SRP extends PCEPObject
 	}
 
 	public void encode() 
+	{
+		encodedLength();
+		object_bytes = new byte[ObjectLength];
+		encodeTo(object_bytes, 0);
+	}
+
+	@Override
+	public int encodedLength()
 	{
 		ObjectLength = 4 + 4 + 4;
 		if (symPathName!=null)
 		{
-			symPathName.encode();
-			ObjectLength=ObjectLength+symPathName.getTotalTLVLength();
+			ObjectLength=ObjectLength+symPathName.encodedLength();
 		}
 
 		if (pathSetupTLV!=null){
 			try {
-				pathSetupTLV.encode();
-				this.ObjectLength+=pathSetupTLV.getTotalTLVLength();	
+				this.ObjectLength+=pathSetupTLV.encodedLength();	
 
 			}catch (Exception e){
 				log.warn(e.getMessage());
 			}
 
 		}
-		object_bytes = new byte[ObjectLength];
-		encode_header();		
-		int offset = 4;
+		for (PCEPTLV tlv : otherTLVs){
+			ObjectLength=ObjectLength+tlv.encodedLength();
+		}
+		return ObjectLength;
+	}
+
+	@Override
+	public int encodeTo(byte[] buf, int base)
+	{
+		encode_header(buf, base);		
+		int offset = base + 4;
+		Arrays.fill(buf, offset, offset + 4, (byte)0);
 		offset += 3;
-		ByteHandler.BoolToBuffer(7 + offset*8, rFlag,object_bytes);
+		ByteHandler.BoolToBuffer(7 + offset*8, rFlag,buf);
 
 		offset += 1;
-		ByteHandler.encode4bytesLong(SRP_ID_number, object_bytes, offset );
+		ByteHandler.encode4bytesLong(SRP_ID_number, buf, offset );
 
 		offset += 4;
 
 		if (symPathName != null)
 		{
-			System.arraycopy(symPathName.getTlv_bytes(),0,this.object_bytes,offset,symPathName.getTotalTLVLength());
-			offset=offset+symPathName.getTotalTLVLength();
+			offset=symPathName.encodeTo(buf,offset);
 		}
 
 		if (pathSetupTLV!=null){
-			System.arraycopy(pathSetupTLV.getTlv_bytes(), 0,this.object_bytes, offset, pathSetupTLV.getTotalTLVLength());
-			offset += pathSetupTLV.getTotalTLVLength();
+			offset=pathSetupTLV.encodeTo(buf,offset);
 		}
-
+		for (PCEPTLV tlv : otherTLVs){
+			offset=tlv.encodeTo(buf,offset);
+		}
+		return offset;
 	}
 
 	@Override
@@ -221,7 +247,8 @@ public class SRP extends PCEPObject
 					pathSetupTLV=new PathSetupTLV(this.getObject_bytes(), offset);				
 					break;								
 				default:
-					log.warn("Unknown or unexpected TLV found");
+					log.debug("Unknown or unexpected TLV "+tlvtype+" found in SRP object");
+					otherTLVs.add(PCEPDecoderRegistry.getDefault().decodeTLV(this.getObject_bytes(), offset));
 					break;
 			}
 
@@ -232,6 +259,23 @@ public class SRP extends PCEPObject
 		}		
 	}
 
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
+	@Override
+	public void reset() 
+	{
+		super.reset();
+		rFlag=false;
+		cFlag=false;
+		SRP_ID_number=0;
+		symPathName=null;
+		pathSetupTLV=null;
+		otherTLVs.clear();
+	}
+
 	public long getSRP_ID_number() 
 	{
 		return SRP_ID_number;
@@ -271,6 +315,17 @@ public class SRP extends PCEPObject
 	}
 	
 
+	/**
+	 * @return TLVs without a field, such as vendor TLVs
+	 */
+	public LinkedList<PCEPTLV> getOtherTLVs() {
+		return otherTLVs;
+	}
+
+	public void setOtherTLVs(LinkedList<PCEPTLV> otherTLVs) {
+		this.otherTLVs = otherTLVs;
+	}
+
 	public boolean isCFlag() {
 		return cFlag;
 	}
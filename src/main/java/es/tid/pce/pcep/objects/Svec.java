@@ -235,11 +235,13 @@ public class Svec extends PCEPObject{
 		object_bytes[5]=0x00;
 		object_bytes[6]=0x00;	
 		object_bytes[7]=(byte)( ( (lDiverseBit?1:0) & 0x01) | ( ((nDiverseBit?1:0) <<1) & 0x02) | (((sRLGDiverseBit?1:0)<<2) & 0x04) );
-		for (int k=0;k<requestIDlist.size();k++){
-			object_bytes[8+k*4]=(byte)((requestIDlist.get(k)>>24) & 0xFF);
-			object_bytes[9+k*4]=(byte)((requestIDlist.get(k)>>16) & 0xFF);
-			object_bytes[10+k*4]=(byte)((requestIDlist.get(k)>>8) & 0xFF);
-			object_bytes[11+k*4]=(byte)(requestIDlist.get(k) & 0xFF);
+		int k=0;
+		for (long requestID : requestIDlist){
+			object_bytes[8+k*4]=(byte)((requestID>>24) & 0xFF);
+			object_bytes[9+k*4]=(byte)((requestID>>16) & 0xFF);
+			object_bytes[10+k*4]=(byte)((requestID>>8) & 0xFF);
+			object_bytes[11+k*4]=(byte)(requestID & 0xFF);
+			k++;
 		}
 	}
 	
@@ -265,6 +267,25 @@ public class Svec extends PCEPObject{
 		}		
 		
 	}
+
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		lDiverseBit=false;
+		nDiverseBit=false;
+		sRLGDiverseBit=false;
+		if (requestIDlist==null){
+			requestIDlist=new LinkedList<Long>();
+		}else{
+			requestIDlist.clear();
+		}
+	}
+
 	public boolean isLDiverseBit() {
 		return lDiverseBit;
 	}
@@ -89,21 +89,21 @@ public class SwitchLayer extends PCEPObject {
 	 */
 	public void encode() {
 		int len=4;//The four bytes of the header
-		for (int k=0; k<switchLayers.size();k=k+1){
+		for (SwitchEncodingType switchEncodingType : switchLayers){
 			try {
-				switchLayers.get(k).encode();
+				switchEncodingType.encode();
 			} catch (PCEPProtocolViolationException e) {
 				e.printStackTrace();
 			}			
-			len=len+switchLayers.get(k).getLength();
+			len=len+switchEncodingType.getLength();
 		}
 		this.setObjectLength(len);
 		this.object_bytes=new byte[ObjectLength];
 		encode_header();
 		int pos=4;
-		for (int k=0 ; k<switchLayers.size(); k=k+1) {					
-			System.arraycopy(switchLayers.get(k).getBytes(),0, this.object_bytes, pos, switchLayers.get(k).getLength());
-			pos=pos+switchLayers.get(k).getLength();
+		for (SwitchEncodingType switchEncodingType : switchLayers) {					
+			System.arraycopy(switchEncodingType.getBytes(),0, this.object_bytes, pos, switchEncodingType.getLength());
+			pos=pos+switchEncodingType.getLength();
 		}				
 	}
 	
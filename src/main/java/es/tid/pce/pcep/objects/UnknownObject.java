@@ -3,7 +3,8 @@ package es.tid.pce.pcep.objects;
 /**
  * Placeholder to store unknow objects.
  * 
- * Only the bytes are stored
+ * Only the bytes are stored, and a decoded object is encoded again as it
+ * was received (see {@link es.tid.pce.pcep.PCEPDecoderRegistry})
  * @author ogondio
  *
  */
@@ -19,8 +20,10 @@ public class UnknownObject extends PCEPObject{
 	}
 
 	public void encode(){
-		this.ObjectLength=4;
-		object_bytes=new byte[ObjectLength];
+		if (object_bytes==null){
+			this.ObjectLength=4;
+			object_bytes=new byte[ObjectLength];
+		}
 		encode_header();
 	}
 
@@ -196,6 +196,8 @@ public class SREROSubobject extends EROSubobject {
 		mflag = (ByteHandler.easyCopy(7, 7, this.subobject_bytes[3]) == 1);
 
 		int offset = 4;
+		SID = 0;
+		nai = null;
 		if (!sflag) {
 			SID = ByteHandler.decode4bytesLong(this.subobject_bytes, offset);
 			offset += 4;
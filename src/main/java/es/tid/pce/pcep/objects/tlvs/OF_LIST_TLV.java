@@ -64,9 +64,9 @@ public class OF_LIST_TLV extends PCEPTLV {
 		this.tlv_bytes=new byte[this.TotalTLVLength];
 		encodeHeader();
 		int offset=4;
-		for (int i=0;i<ofCodes.size();++i){
-			this.tlv_bytes[offset]=(byte)(ofCodes.get(i)>>>8 & 0xFF);
-			this.tlv_bytes[offset+1]=(byte)(ofCodes.get(i) & 0xFF);
+		for (Integer ofCode : ofCodes){
+			this.tlv_bytes[offset]=(byte)(ofCode>>>8 & 0xFF);
+			this.tlv_bytes[offset+1]=(byte)(ofCode & 0xFF);
 			offset=offset+2;
 		}
 
@@ -95,8 +95,8 @@ public class OF_LIST_TLV extends PCEPTLV {
 
 	public String toString(){
 		String res="OF codes: ";
-		for  (int i=0;i<ofCodes.size();++i){
-			res=res+ofCodes.get(i)+" ";
+		for (Integer ofCode : ofCodes){
+			res=res+ofCode+" ";
 		}
 		return res;
 	}
@@ -82,7 +82,7 @@ public abstract class PCEPTLV {
 	}
 	
 	public static int getTotalTLVLength(byte []bytes, int offset) {
-		int len=((((int)bytes[offset+2]&0xFF)<<8)& 0xFF00) |  ((int)bytes[offset+3] & 0xFF)+4;
+		int len=(((((int)bytes[offset+2]&0xFF)<<8)& 0xFF00) |  ((int)bytes[offset+3] & 0xFF))+4;
 		if ((len%4)!=0){
 			//Padding must be done!!
 			len=len+4-(len%4);
@@ -140,6 +140,27 @@ public abstract class PCEPTLV {
 
 
 	public abstract void encode();
+	
+	/**
+	 * Computes the total length of the TLV (with padding) for the single pass encoding. 
+	 * By default the TLV is encoded in its own bytes, that are later copied by {@link #encodeTo(byte[], int)}.
+	 * @return total length of the TLV in bytes
+	 */
+	public int encodedLength() {
+		encode();
+		return TotalTLVLength;
+	}
+	
+	/**
+	 * Writes the TLV, previously sized with {@link #encodedLength()}, in the buffer.
+	 * @param buf buffer where the TLV is written
+	 * @param offset position of the buffer where the TLV starts
+	 * @return position of the buffer after the TLV
+	 */
+	public int encodeTo(byte[] buf, int offset) {
+		System.arraycopy(tlv_bytes, 0, buf, offset, TotalTLVLength);
+		return offset+TotalTLVLength;
+	}
 
 
 	@Override
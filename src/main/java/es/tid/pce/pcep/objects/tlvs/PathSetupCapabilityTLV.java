@@ -67,8 +67,8 @@ public class PathSetupCapabilityTLV extends PCEPTLV {
 		offset+=3;
 		ByteHandler.encode1byteInteger(numTypes, this.getTlv_bytes(), offset);
 		offset+=1;
-		for (int i=0;i<pathSetupTypes.size();++i) {
-			ByteHandler.encode1byteInteger(pathSetupTypes.get(i).intValue(), this.getTlv_bytes(), offset);
+		for (Integer pathSetupType : pathSetupTypes) {
+			ByteHandler.encode1byteInteger(pathSetupType.intValue(), this.getTlv_bytes(), offset);
 			offset+=1;
 		}
 		int old_offset=offset;
@@ -30,18 +30,18 @@ public class ReachabilityTLV extends PCEPTLV {
 
 	public void encode() {
 		int len=0;
-		for (int k=0; k<EROSubobjectList.size();k=k+1){
-			EROSubobjectList.get(k).encode();			
-			len=len+EROSubobjectList.get(k).getErosolength();
+		for (EROSubobject eroSubobject : EROSubobjectList){
+			eroSubobject.encode();			
+			len=len+eroSubobject.getErosolength();
 		}
 		this.setTLVValueLength(len);
 		this.tlv_bytes=new byte[this.TotalTLVLength];
 		encodeHeader();
 		//System.arraycopy(eroso.getSubobject_bytes(),0, this.tlv_bytes, 4, eroso.getErosolength());
 		int pos=4;
-		for (int k=0 ; k<EROSubobjectList.size(); k=k+1) {					
-			System.arraycopy(EROSubobjectList.get(k).getSubobject_bytes(),0, this.tlv_bytes, pos, EROSubobjectList.get(k).getErosolength());
-			pos=pos+EROSubobjectList.get(k).getErosolength();
+		for (EROSubobject eroSubobject : EROSubobjectList) {					
+			System.arraycopy(eroSubobject.getSubobject_bytes(),0, this.tlv_bytes, pos, eroSubobject.getErosolength());
+			pos=pos+eroSubobject.getErosolength();
 		}				
 
 	}
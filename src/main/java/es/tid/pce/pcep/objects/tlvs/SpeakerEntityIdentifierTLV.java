@@ -1,5 +1,6 @@
 package es.tid.pce.pcep.objects.tlvs;
 
+import java.util.Arrays;
 
 import es.tid.pce.pcep.objects.MalformedPCEPObjectException;
 import es.tid.pce.pcep.objects.ObjectParameters;
@@ -146,14 +147,8 @@ public class SpeakerEntityIdentifierTLV extends PCEPTLV
 			log.error("Received Speaker Entity Identifier  value can not be zero");
 			//throw new MalformedPCEPObjectException();
 		}
-		
-		//MUST be greater than 0. To check this we look at the first bit
-		boolean firstBit = (ByteHandler.easyCopy(0,0,speakerEntityIdentifier[0]) == 1) ? true : false ;
-		if (firstBit)
-		{
-			log.error("Received redundancy group identifier value can not be negative");
-			throw new MalformedPCEPObjectException();
-		}
+		// The identifier is an opaque string of octets (a MAC address, a
+		// serial number...), any first octet is valid
 	}
 
 
@@ -166,6 +161,23 @@ public class SpeakerEntityIdentifierTLV extends PCEPTLV
 		this.speakerEntityIdentifier = speakerEntityIdentifier;
 	}
 
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(speakerEntityIdentifier);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SpeakerEntityIdentifierTLV other = (SpeakerEntityIdentifierTLV) obj;
+		return Arrays.equals(speakerEntityIdentifier, other.speakerEntityIdentifier);
+	}
+
 	public String toString(){
 		String speakerEntityIdentifierBytes = "Speaker Entity Id: "+ByteHandler.ByteMACToString(speakerEntityIdentifier);
 		return speakerEntityIdentifierBytes;
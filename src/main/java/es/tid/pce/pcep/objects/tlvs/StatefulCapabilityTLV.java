@@ -25,7 +25,7 @@ public class StatefulCapabilityTLV extends PCEPTLV
      +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
      |               Type            |            Length=4           |
      +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
-     |                             Flags                   |D|T|I|S|U|
+     |                             Flags                 |F|D|T|I|S|U|
      +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
 
                Figure 14: STATEFUL-PCE-CAPABILITY TLV format
@@ -63,6 +63,9 @@ public class StatefulCapabilityTLV extends PCEPTLV
       speaker, it indicates that the PCEP speaker allows incremental
       state synchronization.
 
+   F (TRIGGERED-INITIAL-SYNC - 1 bit):  if set to 1 by both PCEP
+      Speakers, the PCE triggers the initial LSP State Synchronization.
+
    Unassigned bits are considered reserved.  They MUST be set to 0 on
    transmission and MUST be ignored on receipt.
 
@@ -72,6 +75,7 @@ public class StatefulCapabilityTLV extends PCEPTLV
 	protected boolean iFlag;
 	protected boolean tFlag;
 	protected boolean dFlag;
+	protected boolean fFlag;
 	
 	public StatefulCapabilityTLV(){
 		this.TLVType=ObjectParameters.PCEP_TLV_TYPE_STATEFUL_CAPABILITY;
@@ -96,6 +100,7 @@ public class StatefulCapabilityTLV extends PCEPTLV
 		ByteHandler.IntToBuffer(0,offset * 8, 64,Zero,this.tlv_bytes);
 		
 		offset += 3;
+		ByteHandler.BoolToBuffer(2 + offset * 8,fFlag,this.tlv_bytes);
 		ByteHandler.BoolToBuffer(3 + offset * 8,dFlag,this.tlv_bytes);
 		ByteHandler.BoolToBuffer(4 + offset * 8,tFlag,this.tlv_bytes);
 		ByteHandler.BoolToBuffer(5 + offset * 8,iFlag,this.tlv_bytes);
@@ -108,6 +113,7 @@ public class StatefulCapabilityTLV extends PCEPTLV
 		log.debug("Decoding StatefulCapabilityTLV");
 		int offset = 4;
 		
+		fFlag = (ByteHandler.easyCopy(2,2,this.tlv_bytes[offset+3]) == 1);
 		dFlag = (ByteHandler.easyCopy(3,3,this.tlv_bytes[offset+3]) == 1);
 		tFlag = (ByteHandler.easyCopy(4,4,this.tlv_bytes[offset+3]) == 1);
 		iFlag = (ByteHandler.easyCopy(5,5,this.tlv_bytes[offset+3]) == 1);
@@ -161,11 +167,34 @@ public class StatefulCapabilityTLV extends PCEPTLV
 		this.dFlag = dFlag;
 	}
 
+	public boolean isFFlag() {
+		return fFlag;
+	}
+
+	public void setFFlag(boolean fFlag) {
+		this.fFlag = fFlag;
+	}
+
+	/**
+	 * @return true if the LSP-DB-VERSION TLV is included in the LSP objects (S flag)
+	 */
+	public boolean isIncludeDBVersion() {
+		return sFlag;
+	}
+
+	/**
+	 * @return true if incremental state synchronization is allowed (D flag)
+	 */
+	public boolean isDeltaLSPSync() {
+		return dFlag;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + (dFlag ? 1231 : 1237);
+		result = prime * result + (fFlag ? 1231 : 1237);
 		result = prime * result + (iFlag ? 1231 : 1237);
 		result = prime * result + (sFlag ? 1231 : 1237);
 		result = prime * result + (tFlag ? 1231 : 1237);
@@ -184,6 +213,8 @@ public class StatefulCapabilityTLV extends PCEPTLV
 		StatefulCapabilityTLV other = (StatefulCapabilityTLV) obj;
 		if (dFlag != other.dFlag)
 			return false;
+		if (fFlag != other.fFlag)
+			return false;
 		if (iFlag != other.iFlag)
 			return false;
 		if (sFlag != other.sFlag)
@@ -0,0 +1,44 @@
+package es.tid.pce.pcep.objects.tlvs;
+
+import java.util.Arrays;
+
+/**
+ * TLV without decoder. Its bytes are kept, so it is encoded again as it
+ * was received.
+ */
+public class UnknownTLV extends PCEPTLV {
+
+	public UnknownTLV(byte[] bytes, int offset) {
+		super(bytes, offset);
+	}
+
+	/**
+	 * @param type TLV type
+	 * @param value value of the TLV, without padding
+	 */
+	public UnknownTLV(int type, byte[] value) {
+		this.setTLVType(type);
+		this.setTLVValueLength(value.length);
+		this.tlv_bytes = new byte[TotalTLVLength];
+		encodeHeader();
+		System.arraycopy(value, 0, tlv_bytes, 4, value.length);
+	}
+
+	@Override
+	public void encode() {
+		// the bytes are kept
+	}
+
+	/**
+	 * @return a copy of the value of the TLV, without padding
+	 */
+	public byte[] getValue() {
+		return Arrays.copyOfRange(tlv_bytes, 4, 4 + TLVValueLength);
+	}
+
+	@Override
+	public String toString() {
+		return "UnknownTLV [type=" + TLVType + ", length=" + TLVValueLength + "]";
+	}
+
+}
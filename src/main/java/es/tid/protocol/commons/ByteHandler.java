@@ -6,7 +6,7 @@ import java.util.BitSet;
 
 
 public class ByteHandler {
-
+
 	/*
 	 * 
 	 */
@@ -183,50 +183,30 @@ public class ByteHandler {
 		return bytes;
 	}
 
-	/** Substitute of Bitset.valueOf();
-	 * 
-	 * This function is available in SE7(My PC) but not in SE6(simpsongsw).
-	 * So this function tries to emulate it
-	 * 
-	 *  Returns a new bit set containing all the bits in the given byte array.
-		More precisely, 
-		BitSet.valueOf(bytes).get(n) == ((bytes[n/8] & (1<<(n%8))) != 0) 
-		for all n < 8 * bytes.length.
-
-		This method is equivalent to BitSet.valueOf(ByteBuffer.wrap(bytes)).
-	 * @param bs bytes 
-	 * @return BitSet 
+	/**
+	 * Copies bits from a byte array into another (0 is the most significant
+	 * bit of the first byte). Only the bytes of the copied bits are read and
+	 * written, so it can be used to encode in place in a large buffer. The
+	 * source bits beyond the end of the source are copied as 0, and the bits
+	 * beyond the end of the destination are ignored.
+	 * @param begS Start position in the source byte array
+	 * @param source source byte array
+	 * @param begD Start position in the destination byte array
+	 * @param dest destination byte array
+	 * @param length number of bits to copy
 	 */
-	private static BitSet myBitSetValueOf(byte[] bs)
-	{
-		BitSet bS = new BitSet();
-		for (int n = 0; n < 8 * bs.length; n++)
-		{
-			bS.set(n ,((bs[n/8] & (1<<(n%8))) != 0));
-		}
-		return bS;
-	}
-
 	public static void bufferToBuffer(int begS, byte[] source,int begD, byte[] dest, int length)
 	{
-		BitSet sourceSet = myBitSetValueOf(source);
-		BitSet destSet = myBitSetValueOf(dest);       
-
 		for (int i=begS,j = begD;i<(begS+length);i++,j++)
 		{
-			if (sourceSet.get(i - (i%8) +(8-(i%8)-1)))
-				destSet.set(j - (j%8) +(8-(j%8)-1));
+			if ((j>>>3) >= dest.length)
+				break;
+			int mask = 0x80 >>> (j&7);
+			if ((i>>>3) < source.length && (source[i>>>3] & (0x80 >>> (i&7))) != 0)
+				dest[j>>>3] |= mask;
 			else
-				destSet.clear(j - (j%8) +(8-(j%8)-1));
+				dest[j>>>3] &= ~mask;
 		}
-
-		byte[] intSourceSet = toByteArray(sourceSet,source.length*8);
-		byte[] intDestSet = toByteArray(destSet,dest.length*8);
-
-		for (int i = 0;i < source.length;i++)
-			source[i] = intSourceSet[i];
-		for (int i = 0;i < dest.length;i++)
-			dest[i] = intDestSet[i];        
 	}
 
 	/**
@@ -435,4 +415,60 @@ public class ByteHandler {
 		return number;
 	}
 	
+	/**
+	 * Computes the same hash as {@link java.util.Arrays#hashCode(byte[])} over
+	 * a range of a byte array, so that an element viewing a shared buffer
+	 * hashes exactly like its detached copy.
+	 * @param bytes bytes to examine
+	 * @param offset starting position of the range
+	 * @param length number of bytes of the range
+	 * @return the hash of the range
+	 */
+	public static int hashCode(byte[] bytes, int offset, int length) {
+		if (bytes == null) {
+			return 0;
+		}
+		int result = 1;
+		for (int i = offset; i < offset + length; ++i) {
+			result = 31 * result + bytes[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Computes a 64-bit hash (FNV-1a followed by the MurmurHash3 finalizer)
+	 * of a range of a byte array. Unlike {@link #hashCode(byte[], int, int)},
+	 * all the bits of the result are well mixed.
+	 * @param bytes bytes to examine
+	 * @param offset starting position of the range
+	 * @param length number of bytes of the range
+	 * @return the 64-bit hash of the range
+	 */
+	public static long hash64(byte[] bytes, int offset, int length) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = offset; i < offset + length; ++i) {
+			h ^= bytes[i] & 0xFF;
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Copies a range of a byte array into a new array of exactly that length.
+	 * @param bytes bytes to copy
+	 * @param offset starting position of the range
+	 * @param length number of bytes of the range
+	 * @return a new array with the bytes of the range
+	 */
+	public static byte[] copyOfRange(byte[] bytes, int offset, int length) {
+		byte[] copy = new byte[length];
+		System.arraycopy(bytes, offset, copy, 0, length);
+		return copy;
+	}
+	
 }
@@ -0,0 +1,213 @@
+package es.tid.protocol.commons;
+
+import java.util.Arrays;
+
+/**
+ * Map from int keys to int values, without boxing.
+ *
+ * Open addressing with linear probing over two parallel arrays whose size is
+ * a power of two. Removals shift the following entries back instead of
+ * leaving tombstones, so lookups stay short after many removals. One value
+ * is reserved to mean that a key is missing, it cannot be stored.
+ *
+ * Not thread safe.
+ */
+public class IntIntHashMap {
+
+	private static final int FREE_KEY = 0;
+
+	private final int missingValue;
+
+	private int[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+	private int threshold;
+
+	/**
+	 * The value of the key 0, which marks the free cells of the table
+	 */
+	private boolean hasFreeKey;
+	private int freeKeyValue;
+
+	/**
+	 * @param expectedSize number of keys expected, the map grows beyond it
+	 * @param missingValue value returned for the missing keys
+	 */
+	public IntIntHashMap(int expectedSize, int missingValue) {
+		this.missingValue = missingValue;
+		int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+		allocate(capacity);
+	}
+
+	public IntIntHashMap() {
+		this(16, -1);
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		threshold = capacity / 4 * 3;
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * @return the value of the key, or the missing value
+	 */
+	public int get(int key) {
+		if (key == FREE_KEY) {
+			return hasFreeKey ? freeKeyValue : missingValue;
+		}
+		int i = hash(key) & mask;
+		int k;
+		while ((k = keys[i]) != FREE_KEY) {
+			if (k == key) {
+				return values[i];
+			}
+			i = (i + 1) & mask;
+		}
+		return missingValue;
+	}
+
+	public boolean containsKey(int key) {
+		if (key == FREE_KEY) {
+			return hasFreeKey;
+		}
+		int i = hash(key) & mask;
+		int k;
+		while ((k = keys[i]) != FREE_KEY) {
+			if (k == key) {
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the previous value of the key, or the missing value
+	 */
+	public int put(int key, int value) {
+		if (value == missingValue) {
+			throw new IllegalArgumentException("The missing value " + value + " cannot be stored");
+		}
+		if (key == FREE_KEY) {
+			int previous = hasFreeKey ? freeKeyValue : missingValue;
+			if (!hasFreeKey) {
+				size++;
+			}
+			hasFreeKey = true;
+			freeKeyValue = value;
+			return previous;
+		}
+		int i = hash(key) & mask;
+		int k;
+		while ((k = keys[i]) != FREE_KEY) {
+			if (k == key) {
+				int previous = values[i];
+				values[i] = value;
+				return previous;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (++size > threshold) {
+			rehash(keys.length * 2);
+		}
+		return missingValue;
+	}
+
+	/**
+	 * @return the value of the removed key, or the missing value
+	 */
+	public int remove(int key) {
+		if (key == FREE_KEY) {
+			if (!hasFreeKey) {
+				return missingValue;
+			}
+			hasFreeKey = false;
+			size--;
+			return freeKeyValue;
+		}
+		int i = hash(key) & mask;
+		int k;
+		while ((k = keys[i]) != FREE_KEY) {
+			if (k == key) {
+				int previous = values[i];
+				shiftBack(i);
+				size--;
+				return previous;
+			}
+			i = (i + 1) & mask;
+		}
+		return missingValue;
+	}
+
+	/**
+	 * Empties cell i and moves back the entries of the same probe sequence
+	 */
+	private void shiftBack(int i) {
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			int k = keys[j];
+			if (k == FREE_KEY) {
+				break;
+			}
+			int home = hash(k) & mask;
+			// the entry stays if its home is cyclically in (i, j]
+			if (i <= j ? (i < home && home <= j) : (i < home || home <= j)) {
+				continue;
+			}
+			keys[i] = k;
+			values[i] = values[j];
+			i = j;
+		}
+		keys[i] = FREE_KEY;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(capacity);
+		for (int n = 0; n < oldKeys.length; ++n) {
+			int k = oldKeys[n];
+			if (k != FREE_KEY) {
+				int i = hash(k) & mask;
+				while (keys[i] != FREE_KEY) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = k;
+				values[i] = oldValues[n];
+			}
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, FREE_KEY);
+		hasFreeKey = false;
+		size = 0;
+	}
+
+	/**
+	 * @return the value returned for the missing keys
+	 */
+	public int getMissingValue() {
+		return missingValue;
+	}
+
+}
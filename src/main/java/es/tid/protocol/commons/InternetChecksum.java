@@ -0,0 +1,131 @@
+package es.tid.protocol.commons;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Internet checksum (RFC 1071): 16-bit one's complement of the one's
+ * complement sum of the data taken as 16-bit words. It is the checksum of
+ * the RSVP common header (RFC 2205).
+ *
+ * The data is added 64 bits at a time into a 64-bit accumulator, which is
+ * folded to 16 bits at the end. Since 2^16 is 1 modulo 2^16-1 this gives the
+ * same result as adding 16-bit words (RFC 1071, Section 2). Nothing is
+ * allocated.
+ *
+ * An instance computes the checksum of data given in pieces, for example a
+ * message whose objects are encoded in separate buffers. The pieces may have
+ * odd lengths.
+ * <pre>
+ * InternetChecksum checksum = new InternetChecksum();
+ * checksum.update(header, 0, header.length);
+ * checksum.update(object, 0, object.length);
+ * int value = checksum.getValue();
+ * </pre>
+ */
+public final class InternetChecksum {
+
+	private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+	private long sum;
+	/**
+	 * True if an odd number of bytes has been added, so the next byte is the
+	 * low byte of a 16-bit word
+	 */
+	private boolean odd;
+
+	/**
+	 * Adds a piece of data to the checksum.
+	 * @param bytes buffer
+	 * @param offset position of the first byte
+	 * @param length number of bytes
+	 */
+	public void update(byte[] bytes, int offset, int length) {
+		if (length <= 0) {
+			return;
+		}
+		if (odd) {
+			sum += bytes[offset] & 0xFF;
+			offset++;
+			length--;
+		}
+		sum = add(sum, bytes, offset, length);
+		odd = (length & 1) != 0;
+		sum = (sum & 0xFFFFFFFFL) + (sum >>> 32);
+	}
+
+	/**
+	 * @return checksum of the data added so far
+	 */
+	public int getValue() {
+		return ~fold(sum) & 0xFFFF;
+	}
+
+	/**
+	 * Starts a new checksum.
+	 */
+	public void reset() {
+		sum = 0;
+		odd = false;
+	}
+
+	/**
+	 * Computes the checksum of a range of bytes.
+	 * @param bytes buffer
+	 * @param offset position of the first byte
+	 * @param length number of bytes
+	 * @return the 16-bit checksum
+	 */
+	public static int checksum(byte[] bytes, int offset, int length) {
+		return ~fold(add(0, bytes, offset, length)) & 0xFFFF;
+	}
+
+	/**
+	 * Checks a range of bytes that contains its checksum.
+	 * @param bytes buffer
+	 * @param offset position of the first byte
+	 * @param length number of bytes
+	 * @return true if the one's complement sum of the range is all ones
+	 */
+	public static boolean verify(byte[] bytes, int offset, int length) {
+		return fold(add(0, bytes, offset, length)) == 0xFFFF;
+	}
+
+	/**
+	 * Updates a checksum after changing one 16-bit word of the data, without
+	 * going over the data again (RFC 1624, Equation 3).
+	 * @param checksum checksum before the change
+	 * @param oldWord previous value of the word
+	 * @param newWord new value of the word
+	 * @return the checksum after the change
+	 */
+	public static int adjust(int checksum, int oldWord, int newWord) {
+		long s = (~checksum & 0xFFFF) + (~oldWord & 0xFFFF) + (newWord & 0xFFFF);
+		return ~fold(s) & 0xFFFF;
+	}
+
+	private static long add(long sum, byte[] bytes, int offset, int length) {
+		int end = offset + length;
+		int i = offset;
+		for (; i + 8 <= end; i += 8) {
+			long word = (long) LONG_BE.get(bytes, i);
+			sum += (word >>> 32) + (word & 0xFFFFFFFFL);
+		}
+		for (; i + 2 <= end; i += 2) {
+			sum += ((bytes[i] & 0xFF) << 8) | (bytes[i + 1] & 0xFF);
+		}
+		if (i < end) {
+			sum += (bytes[i] & 0xFF) << 8;
+		}
+		return sum;
+	}
+
+	private static int fold(long sum) {
+		while ((sum >>> 16) != 0) {
+			sum = (sum & 0xFFFF) + (sum >>> 16);
+		}
+		return (int) sum;
+	}
+
+}
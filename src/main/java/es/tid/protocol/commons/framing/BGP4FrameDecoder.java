@@ -0,0 +1,133 @@
+package es.tid.protocol.commons.framing;
+
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.bgp.bgp4.messages.BGP4Keepalive;
+import es.tid.bgp.bgp4.messages.BGP4Message;
+import es.tid.bgp.bgp4.messages.BGP4MessageTypes;
+import es.tid.bgp.bgp4.messages.BGP4Notification;
+import es.tid.bgp.bgp4.messages.BGP4Open;
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.update.fields.PathAttributeInterner;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttributeDecodeProfile;
+import es.tid.protocol.commons.ByteHandler;
+
+/**
+ * Decodes the frames of a {@link BGP4Framer} according to their type and
+ * passes the messages to a consumer. Each message gets its own copy of the
+ * bytes, so it can be kept after the call. Malformed messages and types
+ * without decoder are dropped: the framing is still valid, so the session can
+ * go on.
+ */
+public class BGP4FrameDecoder implements FrameListener {
+
+	private static final Logger log = LoggerFactory.getLogger("BGP4Parser");
+
+	private final Consumer<BGP4Message> consumer;
+
+	private PathAttributeInterner attributeInterner;
+
+	private LinkStateAttributeDecodeProfile linkStateDecodeProfile;
+
+	public BGP4FrameDecoder(Consumer<BGP4Message> consumer) {
+		this.consumer = consumer;
+	}
+
+	public PathAttributeInterner getAttributeInterner() {
+		return attributeInterner;
+	}
+
+	/**
+	 * Shares the repeated path attributes of the UPDATE messages decoded,
+	 * usually with the other decoders of the same RIB.
+	 * @param interner interner, or null to decode a new instance of every attribute
+	 */
+	public void setAttributeInterner(PathAttributeInterner interner) {
+		this.attributeInterner = interner;
+	}
+
+	public LinkStateAttributeDecodeProfile getLinkStateDecodeProfile() {
+		return linkStateDecodeProfile;
+	}
+
+	/**
+	 * Decodes only some TLVs of the BGP-LS attributes of the UPDATE messages,
+	 * the others are decoded when they are read.
+	 * @param profile TLV types to decode, null for all of them
+	 */
+	public void setLinkStateDecodeProfile(LinkStateAttributeDecodeProfile profile) {
+		this.linkStateDecodeProfile = profile;
+	}
+
+	@Override
+	public void frameReceived(int type, byte[] buffer, int offset, int length) {
+		BGP4Message msg;
+		try {
+			msg = decode(type, buffer, offset, length, attributeInterner, linkStateDecodeProfile);
+		} catch (RuntimeException e) {
+			//The decoders do not check the lengths of the fields
+			log.warn("Malformed BGP message of type " + type + ": " + e);
+			return;
+		}
+		if (msg != null) {
+			consumer.accept(msg);
+		}
+	}
+
+	/**
+	 * Decode a BGP message.
+	 * @param type message type
+	 * @param buffer buffer containing the message
+	 * @param offset position of the message in the buffer
+	 * @param length length of the message
+	 * @return the message, or null if there is no decoder for the type
+	 */
+	public static BGP4Message decode(int type, byte[] buffer, int offset, int length) {
+		return decode(type, buffer, offset, length, null, null);
+	}
+
+	/**
+	 * Decode a BGP message.
+	 * @param type message type
+	 * @param buffer buffer containing the message
+	 * @param offset position of the message in the buffer
+	 * @param length length of the message
+	 * @param interner interner of the path attributes of an UPDATE, or null
+	 * @param linkStateDecodeProfile TLV types of the BGP-LS attributes to decode, null for all of them
+	 * @return the message, or null if there is no decoder for the type
+	 */
+	public static BGP4Message decode(int type, byte[] buffer, int offset, int length, PathAttributeInterner interner,
+			LinkStateAttributeDecodeProfile linkStateDecodeProfile) {
+		return decodeMessage(type, ByteHandler.copyOfRange(buffer, offset, length), interner, linkStateDecodeProfile);
+	}
+
+	/**
+	 * Decode a BGP message that is exactly the bytes given. The message owns
+	 * the bytes, they are not copied again.
+	 * @param type message type
+	 * @param message bytes of the message
+	 * @param interner interner of the path attributes of an UPDATE, or null
+	 * @param linkStateDecodeProfile TLV types of the BGP-LS attributes to decode, null for all of them
+	 * @return the message, or null if there is no decoder for the type
+	 */
+	public static BGP4Message decodeMessage(int type, byte[] message, PathAttributeInterner interner,
+			LinkStateAttributeDecodeProfile linkStateDecodeProfile) {
+		switch (type) {
+		case BGP4MessageTypes.MESSAGE_UPDATE:
+			return new BGP4Update(message, 0, interner, linkStateDecodeProfile);
+		case BGP4MessageTypes.MESSAGE_KEEPALIVE:
+			return new BGP4Keepalive(message, 0);
+		case BGP4MessageTypes.MESSAGE_OPEN:
+			return new BGP4Open(message, 0);
+		case BGP4MessageTypes.MESSAGE_NOTIFICATION:
+			return new BGP4Notification(message, 0);
+		default:
+			log.warn("No decoder for BGP message type " + type);
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+package es.tid.protocol.commons.framing;
+
+import es.tid.bgp.bgp4.messages.BGP4Message;
+import es.tid.bgp.bgp4.messages.BGP4Open;
+
+/**
+ * Framer of a BGP-4 session (RFC 4271, Section 4.1).
+ * The header is the 16 bytes marker (all ones), the length and the type.
+ * The length must be between 19 and 4096, or 65535 once the Extended
+ * Message capability (RFC 8654) has been negotiated.
+ */
+public class BGP4Framer extends MessageFramer {
+
+	public static final int MAX_MESSAGE_LENGTH = BGP4Message.MAX_MESSAGE_LENGTH;
+	public static final int MAX_EXTENDED_MESSAGE_LENGTH = BGP4Message.MAX_EXTENDED_MESSAGE_LENGTH;
+
+	public BGP4Framer() {
+		super(MAX_MESSAGE_LENGTH);
+	}
+
+	/**
+	 * @param extendedMessages true if the peers negotiated the Extended Message capability
+	 */
+	public void setExtendedMessages(boolean extendedMessages) {
+		setMaxLength(extendedMessages ? MAX_EXTENDED_MESSAGE_LENGTH : MAX_MESSAGE_LENGTH);
+	}
+
+	/**
+	 * Accept the messages allowed by the OPEN message sent to the peer
+	 * @param localOpen OPEN message sent
+	 */
+	public void setExtendedMessages(BGP4Open localOpen) {
+		setMaxLength(localOpen.getMaxMessageLength());
+	}
+
+	@Override
+	protected int headerLength() {
+		return BGP4Message.getBGPHeaderLength();
+	}
+
+	@Override
+	protected int frameLength(byte[] bytes, int offset) throws FramingException {
+		for (int i = 0; i < BGP4Message.getBGPMarkerLength(); ++i) {
+			if (bytes[offset + i] != (byte) 0xFF) {
+				throw new FramingException("Bad BGP marker");
+			}
+		}
+		int length = ((bytes[offset + 16] & 0xFF) << 8) | (bytes[offset + 17] & 0xFF);
+		if (length < BGP4Message.getBGPHeaderLength() || length > maxLength) {
+			throw new FramingException("Bad BGP message length " + length);
+		}
+		return length;
+	}
+
+	@Override
+	protected int frameType(byte[] bytes, int offset) {
+		return bytes[offset + 18] & 0xFF;
+	}
+
+}
@@ -0,0 +1,45 @@
+package es.tid.protocol.commons.framing;
+
+import es.tid.bgp.bmp.BMPMessage;
+
+/**
+ * Framer of a BMP session (RFC 7854, Section 4.1).
+ * The header is the version (3), the 4 bytes length and the type. The
+ * messages are passed to the listener as slices of the receive buffer, that
+ * can be decoded in place with {@link BMPMessage#decode(byte[], int)}.
+ */
+public class BMPFramer extends MessageFramer {
+
+	/**
+	 * A Route Monitoring message with an extended UPDATE (RFC 8654) has
+	 * 48 + 65535 bytes, the rest of the messages are smaller
+	 */
+	public static final int MAX_MESSAGE_LENGTH = 1 << 17;
+
+	public BMPFramer() {
+		super(MAX_MESSAGE_LENGTH);
+	}
+
+	@Override
+	protected int headerLength() {
+		return BMPMessage.HEADER_LENGTH;
+	}
+
+	@Override
+	protected int frameLength(byte[] bytes, int offset) throws FramingException {
+		if ((bytes[offset] & 0xFF) != BMPMessage.VERSION) {
+			throw new FramingException("Bad BMP version " + (bytes[offset] & 0xFF));
+		}
+		int length = BMPMessage.getMessageLength(bytes, offset);
+		if (length < BMPMessage.HEADER_LENGTH || length > maxLength) {
+			throw new FramingException("Bad BMP message length " + length);
+		}
+		return length;
+	}
+
+	@Override
+	protected int frameType(byte[] bytes, int offset) {
+		return BMPMessage.getMessageType(bytes, offset);
+	}
+
+}
@@ -0,0 +1,20 @@
+package es.tid.protocol.commons.framing;
+
+/**
+ * Receives the complete messages found by a {@link MessageFramer}.
+ */
+public interface FrameListener {
+
+	/**
+	 * Called once for each complete message in the stream, in order.
+	 * The bytes belong to the framer (or to the buffer passed to it) and are
+	 * only valid during the call: copy them if the message is kept.
+	 * @param type message type read from the header
+	 * @param buffer buffer containing the message
+	 * @param offset position of the first byte of the message in the buffer
+	 * @param length length of the message, header included
+	 * @throws FramingException to stop processing the stream
+	 */
+	public void frameReceived(int type, byte[] buffer, int offset, int length) throws FramingException;
+
+}
@@ -0,0 +1,16 @@
+package es.tid.protocol.commons.framing;
+
+/**
+ * Thrown by a {@link MessageFramer} when the byte stream can not be split
+ * into messages (bad marker or version, length out of bounds). The stream is
+ * out of sync after it, so the session should be closed.
+ */
+public class FramingException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	public FramingException(String message) {
+		super(message);
+	}
+
+}
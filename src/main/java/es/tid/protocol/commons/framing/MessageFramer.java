@@ -0,0 +1,205 @@
+package es.tid.protocol.commons.framing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Splits a TCP byte stream into messages using the length field of the
+ * message header.
+ *
+ * Complete messages are passed to a {@link FrameListener} as slices of the
+ * buffer they were found in, without copying them. Only the bytes of a message
+ * that is split between two reads are kept in the internal buffer of the
+ * framer until the rest arrives. Subclasses validate the header of each
+ * message ({@link #frameLength(byte[], int)}) and read its type.
+ *
+ * A framer belongs to a single session and is not thread safe. After a
+ * {@link FramingException} the stream is out of sync: the framer has to be
+ * {@link #reset()} before using it with a new stream.
+ */
+public abstract class MessageFramer {
+
+	/**
+	 * Minimum size of the internal buffer
+	 */
+	private static final int MIN_BUFFER_SIZE = 8192;
+
+	/**
+	 * Buffer with the bytes of the stream that are not framed yet.
+	 * They are between start and end.
+	 */
+	private byte[] buffer;
+	private int start;
+	private int end;
+	/**
+	 * Wrapper of buffer used to read from channels
+	 */
+	private ByteBuffer readBuffer;
+
+	/**
+	 * Maximum length of a message, header included
+	 */
+	protected int maxLength;
+
+	protected MessageFramer(int maxLength) {
+		this.maxLength = maxLength;
+		this.buffer = new byte[Math.max(MIN_BUFFER_SIZE, 2 * maxLength)];
+		this.readBuffer = ByteBuffer.wrap(buffer);
+	}
+
+	/**
+	 * @return length of the fixed header, the message length and type are inside it
+	 */
+	protected abstract int headerLength();
+
+	/**
+	 * Validate the header of a message and get its length.
+	 * @param bytes buffer containing at least headerLength() bytes of the message
+	 * @param offset position of the first byte of the message
+	 * @return length of the message, header included
+	 * @throws FramingException if the header is not valid
+	 */
+	protected abstract int frameLength(byte[] bytes, int offset) throws FramingException;
+
+	/**
+	 * @param bytes buffer containing the header of the message
+	 * @param offset position of the first byte of the message
+	 * @return the message type
+	 */
+	protected abstract int frameType(byte[] bytes, int offset);
+
+	/**
+	 * Process the bytes of a buffer, from its position to its limit.
+	 * If no partial message is pending and the buffer has an accessible array,
+	 * the messages are framed directly over that array. All the remaining bytes
+	 * of the buffer are consumed.
+	 * @param src bytes received from the stream
+	 * @param listener listener of the complete messages
+	 * @throws FramingException if a header is not valid
+	 */
+	public void process(ByteBuffer src, FrameListener listener) throws FramingException {
+		if (start == end && src.hasArray()) {
+			byte[] array = src.array();
+			int first = src.arrayOffset() + src.position();
+			int next = frame(array, first, src.arrayOffset() + src.limit(), listener);
+			src.position(src.position() + (next - first));
+		}
+		int n = src.remaining();
+		if (n > 0) {
+			reserve(n);
+			src.get(buffer, end, n);
+			end += n;
+			start = frame(buffer, start, end, listener);
+			compact();
+		}
+	}
+
+	/**
+	 * Process len bytes of an array.
+	 * @param bytes bytes received from the stream
+	 * @param offset position of the first byte
+	 * @param len number of bytes
+	 * @param listener listener of the complete messages
+	 * @throws FramingException if a header is not valid
+	 */
+	public void process(byte[] bytes, int offset, int len, FrameListener listener) throws FramingException {
+		process(ByteBuffer.wrap(bytes, offset, len), listener);
+	}
+
+	/**
+	 * Do one read from the channel into the internal buffer and process
+	 * the complete messages.
+	 * @param channel channel of the session
+	 * @param listener listener of the complete messages
+	 * @return the number of bytes read, -1 at the end of the stream
+	 * @throws IOException if the read fails
+	 * @throws FramingException if a header is not valid
+	 */
+	public int read(ReadableByteChannel channel, FrameListener listener) throws IOException, FramingException {
+		if (end == buffer.length) {
+			reserve(start > 0 ? 1 : MIN_BUFFER_SIZE);
+		}
+		readBuffer.limit(buffer.length);
+		readBuffer.position(end);
+		int n = channel.read(readBuffer);
+		if (n > 0) {
+			end += n;
+			start = frame(buffer, start, end, listener);
+			compact();
+		}
+		return n;
+	}
+
+	/**
+	 * Pass the complete messages between offset and limit to the listener.
+	 * @return the position of the first byte not framed
+	 */
+	private int frame(byte[] bytes, int offset, int limit, FrameListener listener) throws FramingException {
+		int headerLength = headerLength();
+		while (limit - offset >= headerLength) {
+			int length = frameLength(bytes, offset);
+			if (limit - offset < length) {
+				break;
+			}
+			listener.frameReceived(frameType(bytes, offset), bytes, offset, length);
+			offset += length;
+		}
+		return offset;
+	}
+
+	/**
+	 * Make room for n more bytes after end, moving the pending bytes to
+	 * the beginning of the buffer or growing it.
+	 */
+	private void reserve(int n) {
+		if (buffer.length - end >= n) {
+			return;
+		}
+		int pending = end - start;
+		if (buffer.length - pending >= n) {
+			System.arraycopy(buffer, start, buffer, 0, pending);
+		} else {
+			byte[] newBuffer = new byte[Math.max(2 * buffer.length, pending + n)];
+			System.arraycopy(buffer, start, newBuffer, 0, pending);
+			buffer = newBuffer;
+			readBuffer = ByteBuffer.wrap(buffer);
+		}
+		start = 0;
+		end = pending;
+	}
+
+	private void compact() {
+		if (start == end) {
+			start = 0;
+			end = 0;
+		}
+	}
+
+	/**
+	 * @return the number of bytes of an incomplete message waiting for the rest
+	 */
+	public int getPendingBytes() {
+		return end - start;
+	}
+
+	/**
+	 * Discard the pending bytes, to use the framer with a new stream.
+	 */
+	public void reset() {
+		start = 0;
+		end = 0;
+	}
+
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * @param maxLength maximum length of a message, header included
+	 */
+	public void setMaxLength(int maxLength) {
+		this.maxLength = maxLength;
+	}
+
+}
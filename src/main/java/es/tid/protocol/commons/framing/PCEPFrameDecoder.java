@@ -0,0 +1,62 @@
+package es.tid.protocol.commons.framing;
+
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.pce.pcep.PCEPDecoderRegistry;
+import es.tid.pce.pcep.PCEPProtocolViolationException;
+import es.tid.pce.pcep.messages.PCEPMessage;
+import es.tid.protocol.commons.ByteHandler;
+
+/**
+ * Decodes the frames of a {@link PCEPFramer} according to their type and
+ * passes the messages to a consumer. Malformed messages and types without
+ * decoder are dropped: the framing is still valid, so the session can go on.
+ */
+public class PCEPFrameDecoder implements FrameListener {
+
+	private static final Logger log = LoggerFactory.getLogger("PCEPParser");
+
+	private final Consumer<PCEPMessage> consumer;
+
+	public PCEPFrameDecoder(Consumer<PCEPMessage> consumer) {
+		this.consumer = consumer;
+	}
+
+	@Override
+	public void frameReceived(int type, byte[] buffer, int offset, int length) {
+		PCEPMessage msg;
+		try {
+			msg = decode(type, ByteHandler.copyOfRange(buffer, offset, length));
+		} catch (PCEPProtocolViolationException e) {
+			log.warn("Malformed PCEP message of type " + type);
+			return;
+		} catch (RuntimeException e) {
+			//Not all the decoders check the lengths of the fields
+			log.warn("Malformed PCEP message of type " + type + ": " + e);
+			return;
+		}
+		if (msg != null) {
+			consumer.accept(msg);
+		}
+	}
+
+	/**
+	 * Decode a PCEP message with the decoders of the
+	 * {@link PCEPDecoderRegistry#getDefault() default registry}.
+	 * @param type message type
+	 * @param bytes bytes of the message
+	 * @return the message, or null if there is no decoder for the type
+	 * @throws PCEPProtocolViolationException if the message is malformed
+	 */
+	public static PCEPMessage decode(int type, byte[] bytes) throws PCEPProtocolViolationException {
+		PCEPMessage msg = PCEPDecoderRegistry.getDefault().decodeMessage(type, bytes);
+		if (msg == null) {
+			log.warn("No decoder for PCEP message type " + type);
+		}
+		return msg;
+	}
+
+}
@@ -0,0 +1,48 @@
+package es.tid.protocol.commons.framing;
+
+/**
+ * Framer of a PCEP session (RFC 5440, Section 6.1).
+ * The header is the version and flags, the message type and the length.
+ * The version must be 1 and the length at least 4.
+ */
+public class PCEPFramer extends MessageFramer {
+
+	public static final int HEADER_LENGTH = 4;
+	public static final int PCEP_VERSION = 1;
+	public static final int MAX_MESSAGE_LENGTH = 65535;
+
+	public PCEPFramer() {
+		super(MAX_MESSAGE_LENGTH);
+	}
+
+	/**
+	 * @param maxLength maximum length accepted for a message
+	 */
+	public PCEPFramer(int maxLength) {
+		super(maxLength);
+	}
+
+	@Override
+	protected int headerLength() {
+		return HEADER_LENGTH;
+	}
+
+	@Override
+	protected int frameLength(byte[] bytes, int offset) throws FramingException {
+		int version = (bytes[offset] & 0xE0) >>> 5;
+		if (version != PCEP_VERSION) {
+			throw new FramingException("Bad PCEP version " + version);
+		}
+		int length = ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+		if (length < HEADER_LENGTH || length > maxLength) {
+			throw new FramingException("Bad PCEP message length " + length);
+		}
+		return length;
+	}
+
+	@Override
+	protected int frameType(byte[] bytes, int offset) {
+		return bytes[offset + 1] & 0xFF;
+	}
+
+}
@@ -175,12 +175,11 @@ public class SEFlowDescriptor extends FlowDescriptor {
 		int fslSize = filterSpecList.size();
 		
 		if(fslSize >0){
-			for(int i = 0; i < fslSize; i++){
+			for (FilterSpec fs : filterSpecList){
 				
 								
 				// Recorro todos los flow descriptor y los codifico
 				
-				FilterSpec fs = filterSpecList.get(i);
 				fs.encode();
 				System.arraycopy(fs.getBytes(), 0, bytes, offset, fs.getLength());
 				offset = offset + fs.getLength();
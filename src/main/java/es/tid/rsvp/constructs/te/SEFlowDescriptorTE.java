@@ -149,12 +149,11 @@ public class SEFlowDescriptorTE extends SEFlowDescriptor {
 		int fslSize = filterSpecTEList.size();
 		
 		if(fslSize >0){
-			for(int i = 0; i < fslSize; i++){
+			for (FilterSpecTE fs : filterSpecTEList){
 				
 								
 				// Recorro todos los flow descriptor y los codifico
 				
-				FilterSpecTE fs = filterSpecTEList.get(i);
 				fs.encode();
 				System.arraycopy(fs.getBytes(), 0, bytes, offset, fs.getLength());
 				offset = offset + fs.getLength();
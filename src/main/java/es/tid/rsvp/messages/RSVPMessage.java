@@ -2,6 +2,7 @@ package es.tid.rsvp.messages;
 
 import java.util.Arrays;
 
+import es.tid.protocol.commons.InternetChecksum;
 import es.tid.rsvp.*;
 
 
@@ -128,7 +129,7 @@ public abstract class RSVPMessage implements RSVPElement{
 	}
 	
 
-	public RSVPMessage(byte[] bytes_input){
+	public RSVPMessage(byte[] bytes_input) throws RSVPProtocolViolationException{
 		length = (((int)((bytes_input[6]&0xFF)<<8)& 0xFF00)|  ((int)bytes_input[7] & 0xFF));
 		this.bytes=new byte[length];
 		System.arraycopy(bytes_input, 0, bytes, 0, length);
@@ -166,7 +167,7 @@ public abstract class RSVPMessage implements RSVPElement{
 		vers = (bytes[0] >> 4) & 0x0F; 
 		flags = bytes[0] & 0x0F;
 		msgType = bytes[1];
-		rsvpChecksum = bytes[2] | bytes[3];
+		rsvpChecksum = ((bytes[2]&0xFF)<<8) | (bytes[3]&0xFF);
 		sendTTL = bytes[4];
 		reserved = bytes[5];
 		length = (((int)((bytes[6]&0xFF)<<8)& 0xFF00)|  ((int)bytes[7] & 0xFF));
@@ -195,29 +196,53 @@ public abstract class RSVPMessage implements RSVPElement{
 	public abstract void decode() throws RSVPProtocolViolationException;
 	
 	
+	/**
+	 * Computes the checksum of the encoded message (RFC 1071) and writes it
+	 * in the common header. A computed checksum of zero is sent as 0xFFFF,
+	 * since all zeros means that no checksum was transmitted.
+	 */
 	public void calculateChecksum(){
-		
-		byte var[] = new byte[this.length];
-		
-		for(int i = 0; i < this.length; i++){
-			int m = ~ (int)(this.bytes[i]);
-			m = m & 0xFF;
-			var[i] = (byte)(m);
-		}
-		
-		int sum = 0;
-		
-		for(int j = 0; j < this.length; j++){
-			sum = sum + (int) var[j];
+		bytes[2]=0;
+		bytes[3]=0;
+		this.rsvpChecksum = InternetChecksum.checksum(bytes, 0, length);
+		if (rsvpChecksum == 0){
+			rsvpChecksum = 0xFFFF;
 		}
-		
-		this.rsvpChecksum = (~sum) & 0xFF;
-		
 		bytes[2]= (byte)((rsvpChecksum>>8) & 0xFF);
 		bytes[3]= (byte)(rsvpChecksum & 0xFF);
-		
 	}
-	
+
+	/**
+	 * Checks the checksum of the message bytes.
+	 * @return true if the checksum is right or no checksum was transmitted
+	 */
+	public boolean verifyChecksum(){
+		if (rsvpChecksum == 0){
+			return true;
+		}
+		return InternetChecksum.verify(bytes, 0, length);
+	}
+
+	/**
+	 * Changes the Send_TTL of an encoded message and updates its checksum
+	 * incrementally (RFC 1624), without going over the whole message again.
+	 * @param sendTTL new Send_TTL
+	 */
+	public void updateSendTTL(int sendTTL){
+		int oldWord = ((bytes[4]&0xFF)<<8) | (bytes[5]&0xFF);
+		this.sendTTL = sendTTL;
+		bytes[4]= (byte) sendTTL;
+		int newWord = ((bytes[4]&0xFF)<<8) | (bytes[5]&0xFF);
+		if (rsvpChecksum != 0){
+			rsvpChecksum = InternetChecksum.adjust(rsvpChecksum, oldWord, newWord);
+			if (rsvpChecksum == 0){
+				rsvpChecksum = 0xFFFF;
+			}
+			bytes[2]= (byte)((rsvpChecksum>>8) & 0xFF);
+			bytes[3]= (byte)(rsvpChecksum & 0xFF);
+		}
+	}
+
 	// GETTERS & SETTERS
 	
 	/**
@@ -0,0 +1,114 @@
+package es.tid.rsvp.messages;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.tid.protocol.commons.InternetChecksum;
+import es.tid.rsvp.RSVPProtocolViolationException;
+import es.tid.rsvp.messages.te.RSVPTEHelloMessage;
+import es.tid.rsvp.messages.te.RSVPTEPathMessage;
+import es.tid.rsvp.messages.te.RSVPTEResvMessage;
+
+/**
+ * Decodes received RSVP messages according to their Msg Type. The
+ * verification of the checksum and the RSVP-TE mode are settings of each
+ * decoder, so sessions with different needs can share the message classes.
+ */
+public class RSVPMessageDecoder {
+
+	private static final Logger log = LoggerFactory.getLogger("ROADM");
+
+	/**
+	 * If true, messages with a wrong checksum are rejected. Messages without
+	 * checksum (all zeros) are accepted.
+	 */
+	private boolean checksumVerification = false;
+
+	/**
+	 * If true, Path and Resv messages are decoded as RSVP-TE messages
+	 * (RFC 3209), with their LSP objects.
+	 */
+	private boolean trafficEngineering = false;
+
+	/**
+	 * Decodes the message at the beginning of the bytes.
+	 * @param bytes bytes of the message
+	 * @param length length of the bytes
+	 * @return the message, or null if its Msg Type is not supported
+	 * @throws RSVPProtocolViolationException if the message is truncated or its checksum is wrong
+	 */
+	public RSVPMessage decode(byte[] bytes, int length) throws RSVPProtocolViolationException {
+		if (length < RSVPMessageTypes.RSVP_MESSAGE_HEADER_LENGTH) {
+			throw new RSVPProtocolViolationException();
+		}
+		int messageLength = ((bytes[6] & 0xFF) << 8) | (bytes[7] & 0xFF);
+		if (messageLength < RSVPMessageTypes.RSVP_MESSAGE_HEADER_LENGTH || messageLength > length) {
+			throw new RSVPProtocolViolationException();
+		}
+		if (checksumVerification && !verifyChecksum(bytes, messageLength)) {
+			throw new RSVPProtocolViolationException();
+		}
+		int msgType = bytes[1] & 0xFF;
+		switch (msgType) {
+		case RSVPMessageTypes.MESSAGE_PATH:
+			if (trafficEngineering) {
+				return new RSVPTEPathMessage(bytes, messageLength);
+			}
+			return new RSVPPathMessage(bytes, messageLength);
+		case RSVPMessageTypes.MESSAGE_RESV:
+			if (trafficEngineering) {
+				//The constructor of the RSVP-TE Resv does not decode
+				RSVPTEResvMessage resv = new RSVPTEResvMessage(bytes, messageLength);
+				resv.decode();
+				return resv;
+			}
+			return new RSVPResvMessage(bytes, messageLength);
+		case RSVPMessageTypes.MESSAGE_PATHERR:
+			return new RSVPPathErrMessage(bytes, messageLength);
+		case RSVPMessageTypes.MESSAGE_RESVERR:
+			return new RSVPResvErrMessage(bytes, messageLength);
+		case RSVPMessageTypes.MESSAGE_PATHTEAR:
+			return new RSVPPathTearMessage(bytes, messageLength);
+		case RSVPMessageTypes.MESSAGE_RESVTEAR:
+			return new RSVPResvTearMessage(bytes, messageLength);
+		case RSVPMessageTypes.MESSAGE_RESVCONF:
+			return new RSVPResvConfMessage(bytes, messageLength);
+		case RSVPMessageTypes.MESSAGE_HELLO:
+			return new RSVPTEHelloMessage(bytes, messageLength);
+		default:
+			log.warn("Unsupported RSVP message type " + msgType);
+			return null;
+		}
+	}
+
+	private static boolean verifyChecksum(byte[] bytes, int length) {
+		if (bytes[2] == 0 && bytes[3] == 0) {
+			return true;
+		}
+		return InternetChecksum.verify(bytes, 0, length);
+	}
+
+	public boolean isChecksumVerification() {
+		return checksumVerification;
+	}
+
+	/**
+	 * @param checksumVerification true to reject received messages with a wrong checksum
+	 */
+	public void setChecksumVerification(boolean checksumVerification) {
+		this.checksumVerification = checksumVerification;
+	}
+
+	public boolean isTrafficEngineering() {
+		return trafficEngineering;
+	}
+
+	/**
+	 * @param trafficEngineering true to decode Path and Resv messages as
+	 * {@link RSVPTEPathMessage} and {@link RSVPTEResvMessage}
+	 */
+	public void setTrafficEngineering(boolean trafficEngineering) {
+		this.trafficEngineering = trafficEngineering;
+	}
+
+}
@@ -1,5 +1,6 @@
 package es.tid.rsvp.messages;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import org.slf4j.Logger;
 
@@ -164,8 +165,6 @@ public class RSVPPathErrMessage extends RSVPMessage {
 		
 		log.debug("Starting RSVP Path Error Message encode");
 
-		//FIXME: COMPUTE CHECKSUM!!
-		rsvpChecksum = 0xFF;
 		// Obtengo el tama�o de la cabecera comun
 		int commonHeaderSize = es.tid.rsvp.messages.RSVPMessageTypes.RSVP_MESSAGE_HEADER_LENGTH;
 		length=commonHeaderSize;
@@ -200,11 +199,9 @@ public class RSVPPathErrMessage extends RSVPMessage {
 			throw new RSVPProtocolViolationException();
 			
 		}
-		int pdSize = policyData.size();
 		
-		for(int i = 0; i < pdSize; i++){
+		for (PolicyData pd : policyData){
 				
-			PolicyData pd = (PolicyData) policyData.get(i);
 			pd.encode();
 			length = length + pd.getLength();
 			log.debug("Policy Data RSVP Object found");
@@ -213,9 +210,10 @@ public class RSVPPathErrMessage extends RSVPMessage {
 		
 		int sdSize = senderDescriptors.size();
 
+		Iterator<SenderDescriptor> sdIterator = senderDescriptors.iterator();
 		for(int i = 0; i < sdSize; i++){
 			
-			SenderDescriptor sd = (SenderDescriptor) senderDescriptors.get(i);
+			SenderDescriptor sd = sdIterator.next();
 			try{
 			sd.encode();
 			length = length + sd.getLength();
@@ -252,9 +250,8 @@ public class RSVPPathErrMessage extends RSVPMessage {
 		currentIndex = currentIndex + errorSpec.getLength();
 		
 		// Campos Opcionales
-		for(int i = 0; i < pdSize; i++){
+		for (PolicyData pd : policyData){
 				
-			PolicyData pd = (PolicyData) policyData.get(i);
 			
 			System.arraycopy(pd.getBytes(), 0, bytes, currentIndex, pd.getLength());
 			currentIndex = currentIndex + pd.getLength();
@@ -262,9 +259,8 @@ public class RSVPPathErrMessage extends RSVPMessage {
 		}
 	
 		// Lista de Sender Descriptors
-		for(int i = 0; i < sdSize; i++){
+		for (SenderDescriptor sd : senderDescriptors){
 			
-			SenderDescriptor sd = (SenderDescriptor) senderDescriptors.get(i);
 			System.arraycopy(sd.getBytes(), 0, bytes, currentIndex, sd.getLength());
 
 				
@@ -275,6 +271,7 @@ public class RSVPPathErrMessage extends RSVPMessage {
 						
 		}
 	
+		calculateChecksum();
 		log.debug("RSVP Path Error Message encoding accomplished");
 		
 	}
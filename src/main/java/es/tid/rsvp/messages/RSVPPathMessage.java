@@ -238,8 +238,6 @@ public class RSVPPathMessage extends RSVPMessage{
 	public void encode() throws RSVPProtocolViolationException{
 
 		log.debug("Starting RSVP Path Message encode");
-		//FIXME: COMPUTE CHECKSUM!!
-		rsvpChecksum = 0xFF;
 		length=0;
 		// Obtengo el tama�o de la cabecera comun
 		int commonHeaderSize = es.tid.rsvp.messages.RSVPMessageTypes.RSVP_MESSAGE_HEADER_LENGTH;
@@ -285,23 +283,19 @@ public class RSVPPathMessage extends RSVPMessage{
 			throw new RSVPProtocolViolationException();			
 		}
 		
-		int pdSize = policyData.size();
 		
 			
-		for(int i = 0; i < pdSize; i++){
+		for (PolicyData pd : policyData){
 				
-			PolicyData pd = (PolicyData) policyData.get(i);
 			pd.encode();
 			length = length + pd.getLength();
 			log.debug("Policy Data RSVP Object found");
 				
 		}
 						
-		int sdSize = senderDescriptors.size();
 
-		for(int i = 0; i < sdSize; i++){
+		for (SenderDescriptor sd : senderDescriptors){
 			
-			SenderDescriptor sd = (SenderDescriptor) senderDescriptors.get(i);
 			sd.encode();
 			length = length + sd.getLength();
 			log.debug("Sender Descriptor RSVP Construct found");
@@ -330,19 +324,18 @@ public class RSVPPathMessage extends RSVPMessage{
 		currentIndex = currentIndex + timeValues.getLength();
 		
 		// Campos Opcionales
-		for(int i = 0; i < pdSize; i++){
-			PolicyData pd = (PolicyData) policyData.get(i);
+		for (PolicyData pd : policyData){
 			System.arraycopy(pd.getBytes(), 0, bytes, currentIndex, pd.getLength());
 			currentIndex = currentIndex + pd.getLength();
 		}
 		// Lista de Sender Descriptors
-		for(int i = 0; i < sdSize; i++){
-			SenderDescriptor sd = (SenderDescriptor) senderDescriptors.get(i);
+		for (SenderDescriptor sd : senderDescriptors){
 				System.arraycopy(sd.getBytes(), 0, bytes, currentIndex, sd.getLength());
 				currentIndex = currentIndex + sd.getLength();
 						
 		}
 		
+		calculateChecksum();
 		log.debug("RSVP Path Message encoding accomplished");
 		
 	}
@@ -1,5 +1,6 @@
 package es.tid.rsvp.messages;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import org.slf4j.Logger;
 
@@ -209,8 +210,6 @@ public class RSVPPathTearMessage extends RSVPMessage {
 	public void encode() throws RSVPProtocolViolationException {
 
 		log.debug("Starting RSVP Path TearDown Message encode");
-		//FIXME: COMPUTE CHECKSUM!!
-		rsvpChecksum = 0xFF;
 		// Obtengo el tama�o de la cabecera comun
 		int commonHeaderSize = es.tid.rsvp.messages.RSVPMessageTypes.RSVP_MESSAGE_HEADER_LENGTH;
 		length=commonHeaderSize;
@@ -241,8 +240,9 @@ public class RSVPPathTearMessage extends RSVPMessage {
 		}
 		int sdSize = senderDescriptors.size();
 
+		Iterator<SenderDescriptor> sdIterator = senderDescriptors.iterator();
 		for(int i = 0; i < sdSize; i++){
-			SenderDescriptor sd = (SenderDescriptor) senderDescriptors.get(i);
+			SenderDescriptor sd = sdIterator.next();
 			try{
 			sd.encode();
 			length = length + sd.getLength();
@@ -273,8 +273,7 @@ public class RSVPPathTearMessage extends RSVPMessage {
 		currentIndex = currentIndex + rsvpHop.getLength();
 	
 		// Lista de Sender Descriptors
-		for(int i = 0; i < sdSize; i++){
-			SenderDescriptor sd = (SenderDescriptor) senderDescriptors.get(i);
+		for (SenderDescriptor sd : senderDescriptors){
 
 				
 				System.arraycopy(sd.getBytes(), 0, bytes, currentIndex, sd.getLength());
@@ -282,6 +281,7 @@ public class RSVPPathTearMessage extends RSVPMessage {
 
 
 		}
+		calculateChecksum();
 		log.debug("RSVP Path TearDown Message encoding accomplished");
 	}
 
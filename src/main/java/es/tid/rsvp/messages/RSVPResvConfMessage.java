@@ -1,5 +1,6 @@
 package es.tid.rsvp.messages;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import org.slf4j.Logger;
 
@@ -196,8 +197,6 @@ public class RSVPResvConfMessage extends RSVPMessage {
 	@Override
 	public void encode() throws RSVPProtocolViolationException{
 		log.debug("Starting RSVP Resv Message encode");
-		//FIXME: COMPUTE CHECKSUM!!
-		rsvpChecksum = 0xFF;
 		// Obtengo el tama�o de la cabecera comun
 		int commonHeaderSize = es.tid.rsvp.messages.RSVPMessageTypes.RSVP_MESSAGE_HEADER_LENGTH;
 		length = es.tid.rsvp.messages.RSVPMessageTypes.RSVP_MESSAGE_HEADER_LENGTH;
@@ -258,9 +257,10 @@ public class RSVPResvConfMessage extends RSVPMessage {
 		
 		int fdSize = flowDescriptors.size();
 
+		Iterator<FlowDescriptor> fdIterator = flowDescriptors.iterator();
 		for(int i = 0; i < fdSize; i++){
 			
-			FlowDescriptor fd = (FlowDescriptor) flowDescriptors.get(i);
+			FlowDescriptor fd = fdIterator.next();
 			try{
 			fd.encode();
 			length = length + fd.getLength();
@@ -304,9 +304,8 @@ public class RSVPResvConfMessage extends RSVPMessage {
 		currentIndex = currentIndex + style.getLength();
 		
 		// Lista de Flow Descriptors
-		for(int i = 0; i < fdSize; i++){
+		for (FlowDescriptor fd : flowDescriptors){
 			
-			FlowDescriptor fd = (FlowDescriptor) flowDescriptors.get(i);
 
 				
 				System.arraycopy(fd.getBytes(), 0, bytes, currentIndex, fd.getLength());
@@ -316,6 +315,7 @@ public class RSVPResvConfMessage extends RSVPMessage {
 						
 		}
 	
+		calculateChecksum();
 		log.debug("RSVP Resv Confirmation Message encoding accomplished");
 		
 	}
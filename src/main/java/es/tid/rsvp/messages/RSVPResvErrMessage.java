@@ -247,8 +247,6 @@ public class RSVPResvErrMessage extends RSVPMessage {
 	@Override
 	public void encode() throws RSVPProtocolViolationException{
 		log.debug("Starting RSVP Resv Error Message encode");
-		//FIXME: COMPUTE CHECKSUM!!
-		rsvpChecksum = 0xFF;
 		int commonHeaderSize = es.tid.rsvp.messages.RSVPMessageTypes.RSVP_MESSAGE_HEADER_LENGTH;
 		length = commonHeaderSize;
 	
@@ -301,11 +299,9 @@ public class RSVPResvErrMessage extends RSVPMessage {
 		
 		}
 		
-		int pdSize = policyData.size();
 				
-		for(int i = 0; i < pdSize; i++){
+		for (PolicyData pd : policyData){
 				
-			PolicyData pd = (PolicyData) policyData.get(i);
 			pd.encode();
 			length = length + pd.getLength();
 			log.debug("Policy Data RSVP Object found");
@@ -369,8 +365,7 @@ public class RSVPResvErrMessage extends RSVPMessage {
 			currentIndex = currentIndex + scope.getLength();
 		}
 		// Campos Opcionales
-		for(int i = 0; i < pdSize; i++){
-			PolicyData pd = (PolicyData) policyData.get(i);	
+		for (PolicyData pd : policyData){
 			System.arraycopy(pd.getBytes(), 0, bytes, currentIndex, pd.getLength());
 			currentIndex = currentIndex + pd.getLength();
 	
@@ -387,6 +382,7 @@ public class RSVPResvErrMessage extends RSVPMessage {
 			currentIndex = currentIndex + errorFlowDescriptor.getLength();
 		}
 	
+		calculateChecksum();
 		log.debug("RSVP Resv Error Message encoding accomplished");
 		
 	}
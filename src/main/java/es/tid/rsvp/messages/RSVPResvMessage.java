@@ -1,5 +1,6 @@
 package es.tid.rsvp.messages;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import org.slf4j.Logger;
 
@@ -274,8 +275,6 @@ public class RSVPResvMessage extends RSVPMessage {
 		
 
 		
-		//FIXME: COMPUTE CHECKSUM!!
-		rsvpChecksum = 0xFF;
 		
 		if(integrity != null){
 			integrity.encode();
@@ -329,11 +328,9 @@ public class RSVPResvMessage extends RSVPMessage {
 			
 		}
 		
-		int pdSize = policyData.size();
 				
-		for(int i = 0; i < pdSize; i++){
+		for (PolicyData pd : policyData){
 				
-			PolicyData pd = (PolicyData) policyData.get(i);
 			pd.encode();
 			length = length + pd.getLength();
 			log.debug("Policy Data RSVP Object found");
@@ -354,9 +351,10 @@ public class RSVPResvMessage extends RSVPMessage {
 		
 		int fdSize = flowDescriptors.size();
 
+		Iterator<FlowDescriptor> fdIterator = flowDescriptors.iterator();
 		for(int i = 0; i < fdSize; i++){
 			
-			FlowDescriptor fd = (FlowDescriptor) flowDescriptors.get(i);
+			FlowDescriptor fd = fdIterator.next();
 			try{
 				fd.encode();
 }catch(RSVPProtocolViolationException e){
@@ -405,9 +403,8 @@ public class RSVPResvMessage extends RSVPMessage {
 			
 		}
 		// Campos Opcionales
-		for(int i = 0; i < pdSize; i++){
+		for (PolicyData pd : policyData){
 				
-			PolicyData pd = (PolicyData) policyData.get(i);
 			
 			System.arraycopy(pd.getBytes(), 0, bytes, currentIndex, pd.getLength());
 			currentIndex = currentIndex + pd.getLength();
@@ -419,15 +416,15 @@ public class RSVPResvMessage extends RSVPMessage {
 		currentIndex = currentIndex + style.getLength();
 		
 		// Lista de Flow Descriptors
-		for(int i = 0; i < fdSize; i++){
+		for (FlowDescriptor fd : flowDescriptors){
 			
-			FlowDescriptor fd = (FlowDescriptor) flowDescriptors.get(i);
 			
 				System.arraycopy(fd.getBytes(), 0, bytes, currentIndex, fd.getLength());
 				currentIndex = currentIndex + fd.getLength();
 
 			
 		}
+		calculateChecksum();
 		log.debug("RSVP Resv Message encoding accomplished");
 	}
 
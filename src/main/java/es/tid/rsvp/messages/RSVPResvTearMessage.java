@@ -1,5 +1,6 @@
 package es.tid.rsvp.messages;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import org.slf4j.Logger;
 
@@ -201,8 +202,6 @@ public class RSVPResvTearMessage extends RSVPMessage {
 	
 	public void encode() throws RSVPProtocolViolationException{
 		log.debug("Starting RSVP Resv TearDown Message encode");
-		//FIXME: COMPUTE CHECKSUM!!
-		rsvpChecksum = 0xFF;
 		// Obtengo el tama�o de la cabecera comun
 		int commonHeaderSize = es.tid.rsvp.messages.RSVPMessageTypes.RSVP_MESSAGE_HEADER_LENGTH;
 		length=commonHeaderSize;
@@ -259,9 +258,10 @@ public class RSVPResvTearMessage extends RSVPMessage {
 		
 		int fdSize = flowDescriptors.size();
 
+		Iterator<FlowDescriptor> fdIterator = flowDescriptors.iterator();
 		for(int i = 0; i < fdSize; i++){
 			
-			FlowDescriptor fd = (FlowDescriptor) flowDescriptors.get(i);
+			FlowDescriptor fd = fdIterator.next();
 			try{
 				fd.encode();
 }catch(RSVPProtocolViolationException e){
@@ -310,9 +310,8 @@ public class RSVPResvTearMessage extends RSVPMessage {
 		currentIndex = currentIndex + style.getLength();
 		
 		// Lista de Flow Descriptors
-		for(int i = 0; i < fdSize; i++){
+		for (FlowDescriptor fd : flowDescriptors){
 			
-			FlowDescriptor fd = (FlowDescriptor) flowDescriptors.get(i);
 			
 				System.arraycopy(fd.getBytes(), 0, bytes, currentIndex, fd.getLength());
 				currentIndex = currentIndex + fd.getLength();
@@ -321,6 +320,7 @@ public class RSVPResvTearMessage extends RSVPMessage {
 						
 		}
 	
+		calculateChecksum();
 		log.debug("RSVP Resv Message encoding accomplished");
 	}
 
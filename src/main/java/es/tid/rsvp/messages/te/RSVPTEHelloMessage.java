@@ -220,6 +220,7 @@ public class RSVPTEHelloMessage extends RSVPMessage{
 		System.arraycopy(hello.getBytes(), 0, bytes, currentIndex, hello.getLength());
 		currentIndex = currentIndex + hello.getLength();
 		
+		calculateChecksum();
 		log.debug("RSVP-TE Hello Message encoding accomplished");
 		
 	}
@@ -146,8 +146,6 @@ public class RSVPTEPathMessage extends RSVPPathMessage{
 	public void encode() throws RSVPProtocolViolationException{
 
 		log.debug("Starting RSVP-TE Path Message encode");
-		//FIXME: COMPUTE CHECKSUM!!
-		rsvpChecksum = 0xFF;
 		length=RSVPMessageTypes.RSVP_MESSAGE_HEADER_LENGTH;
 		
 		if(integrity != null){
@@ -223,23 +221,19 @@ public class RSVPTEPathMessage extends RSVPPathMessage{
 
 		}
 		
-		int pdSize = policyData.size();
 		
 			
-		for(int i = 0; i < pdSize; i++){
+		for (PolicyData pd : policyData){
 				
-			PolicyData pd = (PolicyData) policyData.get(i);
 			pd.encode();
 			length = length + pd.getLength();
 			log.debug("Policy Data RSVP Object found");
 				
 		}
 		
-		int sdSize = senderDescriptors.size();
 
-		for(int i = 0; i < sdSize; i++){
+		for (SenderDescriptor sd : senderDescriptors){
 			
-			SenderDescriptor sd = (SenderDescriptor) senderDescriptors.get(i);
 			sd.encode();
 			length = length + sd.getLength();
 			log.debug("Sender Descriptor RSVP Construct found");
@@ -316,9 +310,8 @@ public class RSVPTEPathMessage extends RSVPPathMessage{
 		}	
 
 		// Campos Opcionales
-		for(int i = 0; i < pdSize; i++){
+		for (PolicyData pd : policyData){
 				
-			PolicyData pd = (PolicyData) policyData.get(i);
 			
 			System.arraycopy(pd.getBytes(), 0, bytes, currentIndex, pd.getLength());
 			currentIndex = currentIndex + pd.getLength();
@@ -326,9 +319,8 @@ public class RSVPTEPathMessage extends RSVPPathMessage{
 		}
 	
 		// Lista de Sender Descriptors
-		for(int i = 0; i < sdSize; i++){
+		for (SenderDescriptor sd : senderDescriptors){
 			
-			SenderDescriptor sd = (SenderDescriptor) senderDescriptors.get(i);
 				
 				System.arraycopy(sd.getBytes(), 0, bytes, currentIndex, sd.getLength());
 				currentIndex = currentIndex + sd.getLength();
@@ -1,5 +1,6 @@
 package es.tid.rsvp.messages.te;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import org.slf4j.Logger;
 
@@ -241,10 +242,8 @@ public class RSVPTEResvMessage extends RSVPResvMessage {
 			log.debug("Scope RSVP Object found");
 		}
 		
-		int pdSize = policyData.size();
 				
-		for(int i = 0; i < pdSize; i++){
-			PolicyData pd = (PolicyData) policyData.get(i);
+		for (PolicyData pd : policyData){
 			length = length + pd.getLength();
 			log.debug("Policy Data RSVP Object found");
 				
@@ -262,8 +261,7 @@ public class RSVPTEResvMessage extends RSVPResvMessage {
 		
 		int fdSize = flowDescriptors.size();
 
-		for(int i = 0; i < fdSize; i++){
-			FlowDescriptor fd = (FlowDescriptor) flowDescriptors.get(i);
+		for (FlowDescriptor fd : flowDescriptors){
 			length = length + fd.getLength();
 			log.debug("Flow Descriptor RSVP Construct found");
 		}
@@ -309,9 +307,8 @@ public class RSVPTEResvMessage extends RSVPResvMessage {
 			
 		}
 		// Campos Opcionales
-		for(int i = 0; i < pdSize; i++){
+		for (PolicyData pd : policyData){
 				
-			PolicyData pd = (PolicyData) policyData.get(i);
 			pd.encode();
 			System.arraycopy(pd.getBytes(), 0, bytes, currentIndex, pd.getLength());
 			currentIndex = currentIndex + pd.getLength();
@@ -324,9 +321,10 @@ public class RSVPTEResvMessage extends RSVPResvMessage {
 		currentIndex = currentIndex + style.getLength();
 		
 		// Lista de Flow Descriptors
+		Iterator<FlowDescriptor> fdIterator = flowDescriptors.iterator();
 		for(int i = 0; i < fdSize; i++){
 			
-			FlowDescriptor fd = (FlowDescriptor) flowDescriptors.get(i);
+			FlowDescriptor fd = fdIterator.next();
 			try{
 				fd.encode();
 				System.arraycopy(fd.getBytes(), 0, bytes, currentIndex, fd.getLength());
@@ -336,6 +334,7 @@ public class RSVPTEResvMessage extends RSVPResvMessage {
 				log.error("Errors during Flow Descriptor number " + i + " encoding");
 			}
 		}
+		calculateChecksum();
 		log.debug("RSVP-TE Resv Message encoding accomplished");
 	}
 
@@ -521,6 +520,10 @@ public class RSVPTEResvMessage extends RSVPResvMessage {
 							offset = offset + sefd.getLength();
 							flowDescriptors.add(sefd);
 						}
+					}else{
+						// WF style is not supported, the loop would not advance
+						log.error("Malformed RSVP-TE Resv Message, unsupported Style");
+						throw new RSVPProtocolViolationException();
 					}
 				}else{
 					
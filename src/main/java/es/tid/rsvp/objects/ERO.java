@@ -116,9 +116,7 @@ public class ERO extends RSVPObject{
 		// Encontramos la longitud del objeto ERO
 		this.length = RSVPObjectParameters.RSVP_OBJECT_COMMON_HEADER_SIZE;	// Cabecera 
 		
-		int subObjectsNumber = eroSubobjects.size();
-		for(int j = 0; j < subObjectsNumber; j++){
-			EROSubobject eroSO = eroSubobjects.get(j);
+		for (EROSubobject eroSO : eroSubobjects){
 			eroSO.encode();
 			this.length = this.length + eroSO.getErosolength();
 		}
@@ -131,8 +129,7 @@ public class ERO extends RSVPObject{
 
 		// Se codifica cada uno de los subobjetos
 		
-		for(int i = 0; i < subObjectsNumber; i++){
-			EROSubobject eroSO = eroSubobjects.get(i);
+		for (EROSubobject eroSO : eroSubobjects){
 			System.arraycopy(eroSO.getSubobject_bytes(), 0, this.bytes, currentIndex, eroSO.getErosolength());
 			currentIndex = currentIndex + eroSO.getErosolength();
 		}
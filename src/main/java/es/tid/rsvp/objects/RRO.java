@@ -117,10 +117,8 @@ public class RRO extends RSVPObject{
 		// Encontramos la longitud del objeto RRO
 		
 		this.length = RSVPObjectParameters.RSVP_OBJECT_COMMON_HEADER_SIZE;	// Cabecera 
-		int subObjectsNumber = rroSubobjects.size();
-		for(int i = 0; i < subObjectsNumber; i++){
+		for (RROSubobject rroSO : rroSubobjects){
 			
-			RROSubobject rroSO = rroSubobjects.get(i);
 			this.length = this.length + rroSO.getRrosolength();
 			
 		}
@@ -133,9 +131,8 @@ public class RRO extends RSVPObject{
 
 		// Se codifica cada uno de los subobjetos
 		
-		for(int i = 0; i < subObjectsNumber; i++){
+		for (RROSubobject rroSO : rroSubobjects){
 			
-			RROSubobject rroSO = rroSubobjects.get(i);
 			rroSO.encode();
 			System.arraycopy(rroSO.getSubobject_bytes(), 0, this.bytes, currentIndex, rroSO.getRrosolength());
 			currentIndex = currentIndex + rroSO.getRrosolength();
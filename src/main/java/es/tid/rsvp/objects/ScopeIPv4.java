@@ -80,9 +80,9 @@ public class ScopeIPv4 extends Scope{
 		
 		int currentIndex = 4;
 		
-		for(int i = 0; i < size; i++){
+		for (Inet4Address sourceIpAddress : sourceIpAddresses){
 			
-			byte[] addr = (sourceIpAddresses.get(i)).getAddress();
+			byte[] addr = sourceIpAddress.getAddress();
 			System.arraycopy(addr,0, getBytes(), currentIndex, addr.length);
 			currentIndex = currentIndex + 4;
 			
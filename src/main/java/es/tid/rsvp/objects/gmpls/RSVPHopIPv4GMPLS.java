@@ -36,10 +36,8 @@ public class RSVPHopIPv4GMPLS extends RSVPHopIPv4 {
 		
 		this.length = 12;	// Cabecera 
 		
-		int tlvsNumber = tlvs.size();
-		for(int i = 0; i < tlvsNumber; i++){
+		for (IfIdTLV ifId : tlvs){
 			
-			IfIdTLV ifId = tlvs.get(i);
 			this.length = this.length + ifId.getLength();
 			
 			
@@ -64,9 +62,8 @@ public class RSVPHopIPv4GMPLS extends RSVPHopIPv4 {
 
 		// Se codifica cada uno de los subobjetos
 		
-		for(int j = 0; j < tlvsNumber; j++){
+		for (IfIdTLV ifId : tlvs){
 			
-			IfIdTLV ifId = tlvs.get(j);
 			ifId.encode();
 			System.arraycopy(ifId.getBytes(), 0, this.bytes, currentIndex, ifId.getLength());
 			currentIndex = currentIndex + ifId.getLength();
@@ -176,6 +176,22 @@ public abstract class EROSubobject {
 		System.arraycopy(bytes, offset, subobject_bytes, 0, erosolength);
 		decodeSoHeader();
 	}
+
+	/**
+	 * Decodes a subobject from a sequence of bytes into this instance. The
+	 * byte array of the subobject is reused when the new one has the same length.
+	 * @param bytes bytes
+	 * @param offset Position at which the subobject starts
+	 */
+	public void decodeInto(byte[] bytes, int offset) {
+		erosolength=bytes[offset+1]&0xFF;
+		if (subobject_bytes==null || subobject_bytes.length!=erosolength){
+			subobject_bytes=new byte[erosolength];
+		}
+		System.arraycopy(bytes, offset, subobject_bytes, 0, erosolength);
+		decodeSoHeader();
+		decode();
+	}
 	
 	public abstract void encode();
 	
@@ -35,9 +35,9 @@ public class ETCEROSubobject extends EROSubobject {
 		
 		if (subTransponderList != null){
 		
-			for (int k=0; k<subTransponderList.size();k=k+1){
-			subTransponderList.get(k).encode();			
-			len=len+subTransponderList.get(k).getTotalTLVLength();
+			for (SubTransponderTLV subTransponderTLV : subTransponderList){
+			subTransponderTLV.encode();			
+			len=len+subTransponderTLV.getTotalTLVLength();
 			}
 			
 		}
@@ -49,9 +49,9 @@ public class ETCEROSubobject extends EROSubobject {
 		
 		if (subTransponderList != null){
 		
-			for (int k=0 ; k<subTransponderList.size(); k=k+1) {					
-			System.arraycopy(subTransponderList.get(k).getTlv_bytes(),0, this.subobject_bytes, pos, subTransponderList.get(k).getTotalTLVLength());
-			pos=pos+subTransponderList.get(k).getTotalTLVLength();
+			for (SubTransponderTLV subTransponderTLV : subTransponderList) {					
+			System.arraycopy(subTransponderTLV.getTlv_bytes(),0, this.subobject_bytes, pos, subTransponderTLV.getTotalTLVLength());
+			pos=pos+subTransponderTLV.getTotalTLVLength();
 			}	
 			
 		}
@@ -106,8 +106,8 @@ public class ETCEROSubobject extends EROSubobject {
 	public String toString(){
 		StringBuffer sb=new StringBuffer(subTransponderList.size()*100);
 		sb.append("<ETC: ");
-		for (int i=0;i<subTransponderList.size();++i){
-			sb.append(subTransponderList.get(i).toString());
+		for (SubTransponderTLV subTransponderTLV : subTransponderList){
+			sb.append(subTransponderTLV.toString());
 			sb.append(" ");
 		}
 		sb.append(">");
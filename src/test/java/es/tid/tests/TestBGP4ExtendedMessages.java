@@ -0,0 +1,134 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.messages.BGP4Message;
+import es.tid.bgp.bgp4.messages.BGP4Open;
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.messages.BGP4UpdatePacker;
+import es.tid.bgp.bgp4.open.BGP4Capability;
+import es.tid.bgp.bgp4.open.BGP4CapabilitiesOptionalParameter;
+import es.tid.bgp.bgp4.open.BGP4ExtendedMessageCapabilityAdvertisement;
+import es.tid.bgp.bgp4.open.BGP4OptionalParameter;
+import es.tid.bgp.bgp4.open.BGP4OptionalParametersTypes;
+import es.tid.bgp.bgp4.open.MultiprotocolExtensionCapabilityAdvertisement;
+import es.tid.bgp.bgp4.update.fields.LinkNLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.AFICodes;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.SAFICodes;
+import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.ProtocolIDCodes;
+import es.tid.bgp.bgp4.update.tlv.RemoteNodeDescriptorsTLV;
+import es.tid.protocol.commons.framing.BGP4FrameDecoder;
+import es.tid.protocol.commons.framing.BGP4Framer;
+import es.tid.protocol.commons.framing.FramingException;
+
+public class TestBGP4ExtendedMessages {
+
+	private static BGP4Open createOpen(boolean extendedMessages) throws Exception {
+		BGP4Open open = new BGP4Open();
+		open.setMyAutonomousSystem(65000);
+		open.setHoldTime(180);
+		open.setBGPIdentifier((Inet4Address) Inet4Address.getByName("10.0.0.1"));
+		LinkedList<BGP4Capability> capabilities = new LinkedList<BGP4Capability>();
+		MultiprotocolExtensionCapabilityAdvertisement multiprotocol = new MultiprotocolExtensionCapabilityAdvertisement();
+		multiprotocol.setAFI(AFICodes.AFI_BGP_LS);
+		multiprotocol.setSAFI(SAFICodes.SAFI_BGP_LS);
+		capabilities.add(multiprotocol);
+		if (extendedMessages) {
+			capabilities.add(new BGP4ExtendedMessageCapabilityAdvertisement());
+		}
+		BGP4CapabilitiesOptionalParameter parameter = new BGP4CapabilitiesOptionalParameter();
+		parameter.setCapabilityList(capabilities);
+		LinkedList<BGP4OptionalParameter> parameters = new LinkedList<BGP4OptionalParameter>();
+		parameters.add(parameter);
+		open.setParametersList(parameters);
+		open.encode();
+		return open;
+	}
+
+	private static BGP4Update createLargeUpdate(BGP4Open remoteOpen) throws Exception {
+		BGP4UpdatePacker packer = new BGP4UpdatePacker();
+		packer.setMaxMessageLength(remoteOpen);
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+		pathAttributes.add(new OriginAttribute());
+		BGP_LS_MP_Reach_Attribute mpReach = new BGP_LS_MP_Reach_Attribute();
+		mpReach.setNextHop(Inet4Address.getByName("1.1.1.1"));
+		pathAttributes.add(mpReach);
+		for (int i = 0; i < 200; ++i) {
+			LinkNLRI nlri = new LinkNLRI();
+			nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+			nlri.setIdentifier(i);
+			LocalNodeDescriptorsTLV local = new LocalNodeDescriptorsTLV();
+			TestCommons.createAllFields(local, 0);
+			nlri.setLocalNodeDescriptors(local);
+			RemoteNodeDescriptorsTLV remote = new RemoteNodeDescriptorsTLV();
+			TestCommons.createAllFields(remote, 1);
+			nlri.setRemoteNodeDescriptorsTLV(remote);
+			packer.add(nlri, pathAttributes);
+		}
+		List<BGP4Update> updates = packer.pack();
+		Assert.assertEquals("All the NLRIs should fit in one extended message", 1, updates.size());
+		return updates.get(0);
+	}
+
+	@Test
+	public void testCapability() throws Exception {
+		BGP4Open open = new BGP4Open(createOpen(true).getBytes());
+		Assert.assertTrue(open.hasCapability(BGP4OptionalParametersTypes.CAPABILITY_CODE_EXTENDED_MESSAGE));
+		Assert.assertTrue(open.hasCapability(BGP4OptionalParametersTypes.CAPABILITY_CODE_MULTIPROTOCOLEXTENSION));
+		Assert.assertEquals(BGP4Message.MAX_EXTENDED_MESSAGE_LENGTH, open.getMaxMessageLength());
+		BGP4Capability capability = ((BGP4CapabilitiesOptionalParameter) open.getParametersList().getFirst()).getCapabilityList().getLast();
+		Assert.assertTrue(capability instanceof BGP4ExtendedMessageCapabilityAdvertisement);
+		Assert.assertEquals(0, capability.getCapabilityLength());
+
+		open = new BGP4Open(createOpen(false).getBytes());
+		Assert.assertFalse(open.hasCapability(BGP4OptionalParametersTypes.CAPABILITY_CODE_EXTENDED_MESSAGE));
+		Assert.assertEquals(BGP4Message.MAX_MESSAGE_LENGTH, open.getMaxMessageLength());
+	}
+
+	@Test
+	public void testExtendedUpdate() throws Exception {
+		BGP4Open open = createOpen(true);
+		BGP4Update update = createLargeUpdate(open);
+		Assert.assertTrue(update.getLength() > BGP4Message.MAX_MESSAGE_LENGTH);
+		byte[] bytes = update.getBytes();
+
+		List<BGP4Message> received = new ArrayList<BGP4Message>();
+		BGP4Framer framer = new BGP4Framer();
+		framer.setExtendedMessages(open);
+		framer.process(bytes, 0, bytes.length, new BGP4FrameDecoder(received::add));
+		Assert.assertEquals(1, received.size());
+		BGP4Update decoded = (BGP4Update) received.get(0);
+		Assert.assertEquals(200, ((BGP_LS_MP_Reach_Attribute) decoded.getPathAttributes().get(1)).getLsNLRIList().size());
+
+		try {
+			new BGP4Framer().process(bytes, 0, bytes.length, new BGP4FrameDecoder(received::add));
+			Assert.fail("An extended message should be rejected if the capability was not advertised");
+		} catch (FramingException e) {
+		}
+	}
+
+	/**
+	 * An UPDATE longer than an extended message cannot be encoded, its 16-bit
+	 * length would be truncated
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testOversizeUpdate() throws Exception {
+		BGP4Update update = createLargeUpdate(createOpen(true));
+		BGP4Update oversize = new BGP4Update();
+		for (int length = 0; length <= BGP4Message.MAX_EXTENDED_MESSAGE_LENGTH; length += update.getLength()) {
+			oversize.getPathAttributes().addAll(update.getPathAttributes());
+		}
+		oversize.encode();
+	}
+
+}
@@ -30,7 +30,7 @@ public class TestBGP4Messages {
     			{"es.tid.bgp.bgp4.messages.BGP4Keepalive"},
     			{"es.tid.bgp.bgp4.messages.BGP4Open"},
     			{"es.tid.bgp.bgp4.messages.BGP4Update"},
-    			//{"es.tid.bgp.bgp4.messages.BGP4Notification"},
+    			{"es.tid.bgp.bgp4.messages.BGP4Notification"},
 				};
 		return Arrays.asList(objects);
     }
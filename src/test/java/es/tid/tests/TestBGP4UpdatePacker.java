@@ -0,0 +1,139 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.messages.BGP4UpdatePacker;
+import es.tid.bgp.bgp4.update.fields.LinkNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
+import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.ProtocolIDCodes;
+import es.tid.bgp.bgp4.update.tlv.RemoteNodeDescriptorsTLV;
+import es.tid.protocol.commons.framing.BGP4Framer;
+
+public class TestBGP4UpdatePacker {
+
+	private static LinkNLRI createLink(int i) throws Exception {
+		LinkNLRI nlri = new LinkNLRI();
+		nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+		nlri.setIdentifier(i);
+		LocalNodeDescriptorsTLV local = new LocalNodeDescriptorsTLV();
+		TestCommons.createAllFields(local, 0);
+		nlri.setLocalNodeDescriptors(local);
+		RemoteNodeDescriptorsTLV remote = new RemoteNodeDescriptorsTLV();
+		TestCommons.createAllFields(remote, 1);
+		nlri.setRemoteNodeDescriptorsTLV(remote);
+		return nlri;
+	}
+
+	private static List<PathAttribute> createAttributes(int variant) throws Exception {
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+		pathAttributes.add(new OriginAttribute());
+		LinkStateAttribute linkState = new LinkStateAttribute();
+		TestCommons.createAllFields(linkState, variant);
+		pathAttributes.add(linkState);
+		BGP_LS_MP_Reach_Attribute mpReach = new BGP_LS_MP_Reach_Attribute();
+		mpReach.setNextHop(Inet4Address.getByName("1.1.1.1"));
+		mpReach.setNextHopLength(4);
+		pathAttributes.add(mpReach);
+		return pathAttributes;
+	}
+
+	private static List<LinkStateNLRI> getNLRIs(BGP4Update update) {
+		for (PathAttribute pathAttribute : update.getPathAttributes()) {
+			if (pathAttribute instanceof BGP_LS_MP_Reach_Attribute) {
+				return ((BGP_LS_MP_Reach_Attribute) pathAttribute).getLsNLRIList();
+			}
+		}
+		return null;
+	}
+
+	private static List<BGP4Update> pack(BGP4UpdatePacker packer, int links) throws Exception {
+		List<PathAttribute> attributes0 = createAttributes(0);
+		List<PathAttribute> attributes1 = createAttributes(1);
+		for (int i = 0; i < links; ++i) {
+			packer.add(createLink(i), i % 3 == 0 ? attributes1 : attributes0);
+		}
+		Assert.assertEquals(links, packer.getNLRICount());
+		Assert.assertEquals(2, packer.getGroupCount());
+		return packer.pack();
+	}
+
+	@Test
+	public void testPacking() throws Exception {
+		int links = 1000;
+		BGP4UpdatePacker packer = new BGP4UpdatePacker();
+		List<BGP4Update> updates = pack(packer, links);
+		Assert.assertEquals(0, packer.getNLRICount());
+		LinkNLRI link = createLink(0);
+		link.encode();
+		int nlriLength = link.getTotalNLRILength();
+		PathAttribute attributes1 = createAttributes(1).get(1);
+		attributes1.encode();
+		int total = 0;
+		for (int i = 0; i < updates.size(); ++i) {
+			BGP4Update update = updates.get(i);
+			Assert.assertTrue("Message too long", update.getLength() <= BGP4Framer.MAX_MESSAGE_LENGTH);
+			BGP4Update decoded = new BGP4Update(update.getBytes());
+			List<LinkStateNLRI> nlris = getNLRIs(decoded);
+			LinkStateAttribute linkState = (LinkStateAttribute) decoded.getPathAttributes().get(2);
+			for (LinkStateNLRI nlri : nlris) {
+				int identifier = (int) ((LinkNLRI) nlri).getIdentifier();
+				Assert.assertEquals("The NLRI should keep its attributes", identifier % 3 == 0, Arrays.equals(attributes1.getBytes(), linkState.getBytes()));
+			}
+			total += nlris.size();
+			boolean lastOfGroup = (i == updates.size() - 1) || !Arrays.equals(update.getPathAttributes().get(2).getBytes(), updates.get(i + 1).getPathAttributes().get(2).getBytes());
+			if (!lastOfGroup) {
+				Assert.assertTrue("The message should be full", update.getLength() + nlriLength > BGP4Framer.MAX_MESSAGE_LENGTH);
+			}
+		}
+		Assert.assertEquals("Every NLRI should be sent once", links, total);
+	}
+
+	@Test
+	public void testExtendedMessages() throws Exception {
+		BGP4UpdatePacker packer = new BGP4UpdatePacker();
+		int messages = pack(packer, 1000).size();
+		packer.setExtendedMessages(true);
+		List<BGP4Update> updates = pack(packer, 1000);
+		Assert.assertTrue("Extended messages should need fewer messages", updates.size() < messages);
+		Assert.assertEquals("Each set of attributes should fit in one extended message", 2, updates.size());
+		for (BGP4Update update : updates) {
+			Assert.assertTrue(update.getLength() > BGP4Framer.MAX_MESSAGE_LENGTH);
+			Assert.assertTrue(update.getLength() <= BGP4Framer.MAX_EXTENDED_MESSAGE_LENGTH);
+		}
+	}
+
+	@Test
+	public void testAddUpdates() throws Exception {
+		BGP4UpdatePacker packer = new BGP4UpdatePacker();
+		for (int i = 0; i < 10; ++i) {
+			List<PathAttribute> pathAttributes = createAttributes(0);
+			((BGP_LS_MP_Reach_Attribute) pathAttributes.get(2)).setLsNLRI(createLink(i));
+			BGP4Update update = new BGP4Update();
+			update.setPathAttributes(new ArrayList<PathAttribute>(pathAttributes));
+			update.encode();
+			packer.add(new BGP4Update(update.getBytes()));
+		}
+		Assert.assertEquals(1, packer.getGroupCount());
+		List<BGP4Update> updates = packer.pack();
+		Assert.assertEquals(1, updates.size());
+		Assert.assertEquals(10, getNLRIs(new BGP4Update(updates.get(0).getBytes())).size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNLRITooLong() throws Exception {
+		new BGP4UpdatePacker(100).add(createLink(0), createAttributes(0));
+	}
+
+}
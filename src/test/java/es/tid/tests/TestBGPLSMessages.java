@@ -1,10 +1,19 @@
 package es.tid.tests;
 
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.rib.LinkStateGraphBuilder;
 import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRICursor;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRIKey;
+import es.tid.bgp.bgp4.update.fields.NLRI;
+import es.tid.bgp.bgp4.update.fields.NLRITypes;
 import es.tid.bgp.bgp4.update.fields.NodeNLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
 import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Unreach_Attribute;
 import es.tid.bgp.bgp4.update.fields.pathAttributes.Generic_MP_Reach_Attribute;
 import es.tid.bgp.bgp4.update.fields.pathAttributes.MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
 import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
 import es.tid.bgp.bgp4.update.tlv.ProtocolIDCodes;
 import es.tid.bgp.bgp4.update.tlv.RoutingUniverseIdentifierTypes;
@@ -12,10 +21,15 @@ import es.tid.bgp.bgp4.update.tlv.node_link_prefix_descriptor_subTLVs.IGPRouterI
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.net.Inet4Address;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 public class TestBGPLSMessages
 {
@@ -81,4 +95,370 @@ public class TestBGPLSMessages
 		}
 	}
 
+	@Test
+	public void testBGPLSUpdateView()
+	{
+		try
+		{
+			Inet4Address nodeIPAddress = (Inet4Address) Inet4Address.getByName("10.0.0.1");
+			IGPRouterIDNodeDescriptorSubTLV igpRouterIDNodeDescriptorSubTLV = new IGPRouterIDNodeDescriptorSubTLV();
+			igpRouterIDNodeDescriptorSubTLV.setIpv4AddressOSPF(nodeIPAddress);
+			igpRouterIDNodeDescriptorSubTLV.setIGP_router_id_type(IGPRouterIDNodeDescriptorSubTLV.IGP_ROUTER_ID_TYPE_OSPF_NON_PSEUDO);
+			LocalNodeDescriptorsTLV lnd = new LocalNodeDescriptorsTLV();
+			lnd.setIGPRouterID(igpRouterIDNodeDescriptorSubTLV);
+
+			NodeNLRI nlri = new NodeNLRI();
+			nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+			nlri.setLocalNodeDescriptors(lnd);
+			nlri.setRoutingUniverseIdentifier(RoutingUniverseIdentifierTypes.Level3Identifier);
+			List<LinkStateNLRI> lsNLRIList = new LinkedList<LinkStateNLRI>();
+			lsNLRIList.add(nlri);
+
+			BGP_LS_MP_Reach_Attribute mpReach = new BGP_LS_MP_Reach_Attribute();
+			mpReach.setLsNLRIList(lsNLRIList);
+			ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+			pathAttributes.add(mpReach);
+
+			BGP4Update update = new BGP4Update();
+			update.setPathAttributes(pathAttributes);
+			update.encode();
+			byte[] bytes = update.getBytes();
+
+			//Embed the message in a larger receive buffer
+			byte[] buffer = new byte[bytes.length + 23];
+			System.arraycopy(bytes, 0, buffer, 7, bytes.length);
+
+			BGP4Update copy = new BGP4Update(bytes);
+			BGP4Update view = new BGP4Update(buffer, 7);
+
+			Assert.assertTrue("A message decoded from an offset should be a view", view.isView());
+			Assert.assertEquals("View and copy should be equal", copy, view);
+			Assert.assertEquals("View and copy should decode the same", copy.toString(), view.toString());
+			Assert.assertEquals("Path attributes should be equal", copy.getPathAttributes(), view.getPathAttributes());
+
+			view.detach();
+			Assert.assertFalse("A detached message should not be a view", view.isView());
+			Assert.assertArrayEquals("Detached bytes should be the same", bytes, view.getBytes());
+		}catch(Throwable e)
+		{
+			e.printStackTrace();
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void testNLRICursor()
+	{
+		try
+		{
+			List<LinkStateNLRI> lsNLRIList = new LinkedList<LinkStateNLRI>();
+			for (int i = 0; i < 20; ++i)
+			{
+				IGPRouterIDNodeDescriptorSubTLV igpRouterID = new IGPRouterIDNodeDescriptorSubTLV();
+				igpRouterID.setIpv4AddressOSPF((Inet4Address) Inet4Address.getByName("10.0.0." + i));
+				igpRouterID.setIGP_router_id_type(IGPRouterIDNodeDescriptorSubTLV.IGP_ROUTER_ID_TYPE_OSPF_NON_PSEUDO);
+				LocalNodeDescriptorsTLV lnd = new LocalNodeDescriptorsTLV();
+				lnd.setIGPRouterID(igpRouterID);
+				NodeNLRI nlri = new NodeNLRI();
+				nlri.setProtocolID(i % 2 == 0 ? ProtocolIDCodes.OSPF_Protocol_ID : ProtocolIDCodes.IS_IS_Level2_Protocol_ID);
+				nlri.setLocalNodeDescriptors(lnd);
+				nlri.setRoutingUniverseIdentifier(i);
+				lsNLRIList.add(nlri);
+			}
+			BGP_LS_MP_Reach_Attribute mpReach = new BGP_LS_MP_Reach_Attribute();
+			mpReach.setLsNLRIList(lsNLRIList);
+			ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+			pathAttributes.add(mpReach);
+			BGP4Update update = new BGP4Update();
+			update.setPathAttributes(pathAttributes);
+			update.encode();
+
+			BGP4Update decoded = new BGP4Update(update.getBytes());
+			BGP_LS_MP_Reach_Attribute decodedMpReach = (BGP_LS_MP_Reach_Attribute) decoded.getPathAttributes().get(0);
+			LinkStateNLRICursor cursor = decodedMpReach.nlriCursor();
+			int count = 0;
+			while (cursor.next())
+			{
+				NodeNLRI expected = (NodeNLRI) lsNLRIList.get(count);
+				Assert.assertEquals("NLRI type", NLRITypes.Node_NLRI, cursor.getNLRIType());
+				Assert.assertEquals("Protocol-ID", expected.getProtocolID(), cursor.getProtocolID());
+				Assert.assertEquals("Identifier", expected.getRoutingUniverseIdentifier(), cursor.getIdentifier());
+				Assert.assertArrayEquals("Descriptors", expected.getLocalNodeDescriptors().getTlv_bytes(), cursor.copyDescriptors());
+				if (cursor.getProtocolID() == ProtocolIDCodes.OSPF_Protocol_ID)
+				{
+					Assert.assertEquals("Decoded NLRI", expected, cursor.decodeNLRI());
+				}
+				++count;
+			}
+			Assert.assertEquals("All the NLRIs should be visited", lsNLRIList.size(), count);
+			Assert.assertEquals("All the NLRIs should be decoded", lsNLRIList, decodedMpReach.getLsNLRIList());
+		}catch(Throwable e)
+		{
+			e.printStackTrace();
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void testUpdateWithSeveralNLRIs()
+	{
+		try
+		{
+			List<NLRI> nlris = new ArrayList<NLRI>();
+			for (int i = 0; i < 3; ++i)
+			{
+				IGPRouterIDNodeDescriptorSubTLV igpRouterID = new IGPRouterIDNodeDescriptorSubTLV();
+				igpRouterID.setIpv4AddressOSPF((Inet4Address) Inet4Address.getByName("10.0.1." + i));
+				igpRouterID.setIGP_router_id_type(IGPRouterIDNodeDescriptorSubTLV.IGP_ROUTER_ID_TYPE_OSPF_NON_PSEUDO);
+				LocalNodeDescriptorsTLV lnd = new LocalNodeDescriptorsTLV();
+				lnd.setIGPRouterID(igpRouterID);
+				NodeNLRI nlri = new NodeNLRI();
+				nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+				nlri.setLocalNodeDescriptors(lnd);
+				nlris.add(nlri);
+			}
+			BGP4Update update = new BGP4Update();
+			update.setNlriList(nlris);
+			update.encode();
+
+			BGP4Update decoded = new BGP4Update(update.getBytes());
+			Assert.assertEquals("All the NLRIs should be decoded", nlris, decoded.getNlriList());
+			Assert.assertEquals("The first NLRI should be kept", nlris.get(0), decoded.getNlri());
+		}catch(Throwable e)
+		{
+			e.printStackTrace();
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void testUpdateWithUnknownNLRIType()
+	{
+		try
+		{
+			List<NLRI> nlris = new ArrayList<NLRI>();
+			for (int i = 0; i < 2; ++i)
+			{
+				IGPRouterIDNodeDescriptorSubTLV igpRouterID = new IGPRouterIDNodeDescriptorSubTLV();
+				igpRouterID.setIpv4AddressOSPF((Inet4Address) Inet4Address.getByName("10.0.3." + i));
+				igpRouterID.setIGP_router_id_type(IGPRouterIDNodeDescriptorSubTLV.IGP_ROUTER_ID_TYPE_OSPF_NON_PSEUDO);
+				LocalNodeDescriptorsTLV lnd = new LocalNodeDescriptorsTLV();
+				lnd.setIGPRouterID(igpRouterID);
+				NodeNLRI nlri = new NodeNLRI();
+				nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+				nlri.setLocalNodeDescriptors(lnd);
+				nlris.add(nlri);
+			}
+			BGP4Update update = new BGP4Update();
+			update.setNlriList(nlris);
+			update.encode();
+
+			// an NLRI of an unknown type between the two nodes
+			byte[] unknown = { 0x00, 0x63, 0x00, 0x03, 0x01, 0x02, 0x03 };
+			byte[] bytes = update.getBytes();
+			int second = bytes.length - ((NodeNLRI) nlris.get(1)).getBytes().length;
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			out.write(bytes, 0, second);
+			out.write(unknown);
+			out.write(bytes, second, bytes.length - second);
+			byte[] message = out.toByteArray();
+			message[16] = (byte) (message.length >>> 8);
+			message[17] = (byte) message.length;
+
+			BGP4Update decoded = new BGP4Update(message);
+			Assert.assertEquals("The NLRIs after the unknown one should be decoded", nlris, decoded.getNlriList());
+		}catch(Throwable e)
+		{
+			e.printStackTrace();
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void testBGPLSMPUnreach()
+	{
+		try
+		{
+			BGP_LS_MP_Unreach_Attribute mpUnreach = new BGP_LS_MP_Unreach_Attribute();
+			for (int i = 0; i < 300; ++i)
+			{
+				IGPRouterIDNodeDescriptorSubTLV igpRouterID = new IGPRouterIDNodeDescriptorSubTLV();
+				igpRouterID.setIpv4AddressOSPF((Inet4Address) Inet4Address.getByName("10.0." + (i >> 8) + "." + (i & 0xFF)));
+				igpRouterID.setIGP_router_id_type(IGPRouterIDNodeDescriptorSubTLV.IGP_ROUTER_ID_TYPE_OSPF_NON_PSEUDO);
+				LocalNodeDescriptorsTLV lnd = new LocalNodeDescriptorsTLV();
+				lnd.setIGPRouterID(igpRouterID);
+				NodeNLRI nlri = new NodeNLRI();
+				nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+				nlri.setLocalNodeDescriptors(lnd);
+				mpUnreach.addLsNLRI(nlri);
+			}
+			ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+			pathAttributes.add(mpUnreach);
+			BGP4Update update = new BGP4Update();
+			update.setPathAttributes(pathAttributes);
+			update.encode();
+
+			BGP4Update decoded = new BGP4Update(update.getBytes());
+			Assert.assertEquals("One path attribute", 1, decoded.getPathAttributes().size());
+			Assert.assertTrue("BGP-LS withdrawals should be decoded", decoded.getPathAttributes().get(0) instanceof BGP_LS_MP_Unreach_Attribute);
+			BGP_LS_MP_Unreach_Attribute decodedMpUnreach = (BGP_LS_MP_Unreach_Attribute) decoded.getPathAttributes().get(0);
+			int count = 0;
+			LinkStateNLRICursor cursor = decodedMpUnreach.nlriCursor();
+			while (cursor.next())
+			{
+				Assert.assertEquals("NLRI type", NLRITypes.Node_NLRI, cursor.getNLRIType());
+				++count;
+			}
+			Assert.assertEquals("All the withdrawn NLRIs should be visited", 300, count);
+			Assert.assertEquals("Withdrawn NLRIs should be equal", mpUnreach.getLsNLRIList(), decodedMpUnreach.getLsNLRIList());
+			Assert.assertEquals("Both attributes should be equal", mpUnreach, decodedMpUnreach);
+		}catch(Throwable e)
+		{
+			e.printStackTrace();
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void testUnsupportedBGPLSSAFI()
+	{
+		try
+		{
+			IGPRouterIDNodeDescriptorSubTLV igpRouterID = new IGPRouterIDNodeDescriptorSubTLV();
+			igpRouterID.setIpv4AddressOSPF((Inet4Address) Inet4Address.getByName("10.0.0.1"));
+			igpRouterID.setIGP_router_id_type(IGPRouterIDNodeDescriptorSubTLV.IGP_ROUTER_ID_TYPE_OSPF_NON_PSEUDO);
+			LocalNodeDescriptorsTLV lnd = new LocalNodeDescriptorsTLV();
+			lnd.setIGPRouterID(igpRouterID);
+			NodeNLRI nlri = new NodeNLRI();
+			nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+			nlri.setLocalNodeDescriptors(lnd);
+			BGP_LS_MP_Unreach_Attribute mpUnreach = new BGP_LS_MP_Unreach_Attribute();
+			mpUnreach.addLsNLRI(nlri);
+			// BGP-LS-VPN
+			mpUnreach.setSubsequentAddressFamilyIdentifier(72);
+			ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+			pathAttributes.add(mpUnreach);
+			pathAttributes.add(new OriginAttribute());
+			BGP4Update update = new BGP4Update();
+			update.setPathAttributes(pathAttributes);
+			update.encode();
+
+			BGP4Update decoded = new BGP4Update(update.getBytes());
+			Assert.assertEquals("The MP_UNREACH_NLRI of an unsupported SAFI should be skipped", 1, decoded.getPathAttributes().size());
+			Assert.assertTrue("The attributes after it should be decoded", decoded.getPathAttributes().get(0) instanceof OriginAttribute);
+		}catch(Throwable e)
+		{
+			e.printStackTrace();
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void testNLRIKey()
+	{
+		try
+		{
+			BGP_LS_MP_Reach_Attribute mpReach = new BGP_LS_MP_Reach_Attribute();
+			Map<LinkStateNLRIKey, LinkStateNLRI> topology = new HashMap<LinkStateNLRIKey, LinkStateNLRI>();
+			for (int i = 0; i < 50; ++i)
+			{
+				IGPRouterIDNodeDescriptorSubTLV igpRouterID = new IGPRouterIDNodeDescriptorSubTLV();
+				igpRouterID.setIpv4AddressOSPF((Inet4Address) Inet4Address.getByName("10.0.2." + i));
+				igpRouterID.setIGP_router_id_type(IGPRouterIDNodeDescriptorSubTLV.IGP_ROUTER_ID_TYPE_OSPF_NON_PSEUDO);
+				LocalNodeDescriptorsTLV lnd = new LocalNodeDescriptorsTLV();
+				lnd.setIGPRouterID(igpRouterID);
+				NodeNLRI nlri = new NodeNLRI();
+				nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+				nlri.setLocalNodeDescriptors(lnd);
+				mpReach.getLsNLRIList().add(nlri);
+				topology.put(nlri.getKey(), nlri);
+			}
+			Assert.assertEquals("All the keys should be different", 50, topology.size());
+			mpReach.encode();
+
+			BGP_LS_MP_Reach_Attribute decoded = new BGP_LS_MP_Reach_Attribute(mpReach.getBytes(), 0);
+			LinkStateNLRICursor cursor = decoded.nlriCursor();
+			List<LinkStateNLRIKey> keys = new ArrayList<LinkStateNLRIKey>();
+			while (cursor.next())
+			{
+				LinkStateNLRIKey key = cursor.getKey();
+				Assert.assertEquals("NLRI type of the key", NLRITypes.Node_NLRI, key.getNLRIType());
+				Assert.assertTrue("The key from the wire should find the node", topology.containsKey(key));
+				Assert.assertEquals("The key should identify the node", cursor.decodeNLRI(), topology.get(key));
+				keys.add(key);
+			}
+			Assert.assertEquals("All the NLRIs should be visited", 50, keys.size());
+			List<LinkStateNLRIKey> sorted = new ArrayList<LinkStateNLRIKey>(keys);
+			Collections.sort(sorted);
+			Assert.assertEquals("The addresses are increasing, so are the keys", keys, sorted);
+			Assert.assertEquals("Equal keys should have the same 64-bit hash", keys.get(3).hash64(), decoded.getLsNLRIList().get(3).getKey().hash64());
+		}catch(Throwable e)
+		{
+			e.printStackTrace();
+			Assert.fail();
+		}
+	}
+
+	private static byte[] tlv(int type, byte[]... values) throws Exception
+	{
+		ByteArrayOutputStream value = new ByteArrayOutputStream();
+		for (byte[] v : values)
+		{
+			value.write(v);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(new byte[] { (byte) (type >>> 8), (byte) type, (byte) (value.size() >>> 8), (byte) value.size() });
+		value.writeTo(out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Link-State NLRI with OSPF as Protocol-ID and Identifier 0
+	 */
+	private static byte[] nlri(int type, byte[]... descriptors) throws Exception
+	{
+		byte[] protocolHeader = new byte[LinkStateNLRICursor.PROTOCOL_HEADER_LENGTH];
+		protocolHeader[0] = (byte) ProtocolIDCodes.OSPF_Protocol_ID;
+		byte[][] values = new byte[descriptors.length + 1][];
+		values[0] = protocolHeader;
+		System.arraycopy(descriptors, 0, values, 1, descriptors.length);
+		return tlv(type, values);
+	}
+
+	@Test
+	public void testNLRIKeyDescriptorOrder()
+	{
+		try
+		{
+			byte[] as = tlv(512, new byte[] { 0, 0, (byte) 0xFD, (byte) 0xE9 });
+			byte[] routerID = tlv(515, new byte[] { 10, 0, 0, 1 });
+			byte[] remoteRouterID = tlv(515, new byte[] { 10, 0, 0, 2 });
+			byte[] interfaceAddress = tlv(259, new byte[] { 10, 1, 0, 1 });
+			byte[] neighborAddress = tlv(260, new byte[] { 10, 1, 0, 2 });
+
+			byte[] node = nlri(NLRITypes.Node_NLRI, tlv(256, as, routerID));
+			byte[] reorderedNode = nlri(NLRITypes.Node_NLRI, tlv(256, routerID, as));
+			LinkStateNLRIKey key = LinkStateNLRIKey.fromWire(node, 0);
+			Assert.assertEquals("The order of the sub-TLVs should not change the key", key, LinkStateNLRIKey.fromWire(reorderedNode, 0));
+			Assert.assertEquals("The key should be built from the decoded NLRI too", key, new NodeNLRI(reorderedNode, 0).getKey());
+			LocalNodeDescriptorsTLV reorderedDescriptors = new LocalNodeDescriptorsTLV(tlv(256, routerID, as), 0);
+			Assert.assertEquals("The node key of a link should find the node", key,
+					LinkStateGraphBuilder.nodeKey(ProtocolIDCodes.OSPF_Protocol_ID, 0, reorderedDescriptors));
+
+			byte[] link = nlri(NLRITypes.Link_NLRI, tlv(256, as, routerID), tlv(257, as, remoteRouterID), interfaceAddress, neighborAddress);
+			byte[] reorderedLink = nlri(NLRITypes.Link_NLRI, tlv(257, remoteRouterID, as), tlv(256, routerID, as), neighborAddress, interfaceAddress);
+			byte[] otherLink = nlri(NLRITypes.Link_NLRI, tlv(256, as, remoteRouterID), tlv(257, as, routerID), interfaceAddress, neighborAddress);
+			Assert.assertEquals("The order of the TLVs should not change the key", LinkStateNLRIKey.fromWire(link, 0), LinkStateNLRIKey.fromWire(reorderedLink, 0));
+			Assert.assertNotEquals("Swapping the nodes should change the key", LinkStateNLRIKey.fromWire(link, 0), LinkStateNLRIKey.fromWire(otherLink, 0));
+			byte[] expected = Arrays.copyOfRange(link, 2, link.length);
+			expected[0] = link[0];
+			expected[1] = link[1];
+			Assert.assertArrayEquals("A sorted NLRI should be kept as sent", expected, LinkStateNLRIKey.fromWire(link, 0).toByteArray());
+		}catch(Throwable e)
+		{
+			e.printStackTrace();
+			Assert.fail();
+		}
+	}
+
 }
@@ -0,0 +1,211 @@
+package es.tid.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.messages.BGP4Open;
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bmp.BMPInformationTLV;
+import es.tid.bgp.bmp.BMPInitiation;
+import es.tid.bgp.bmp.BMPMessage;
+import es.tid.bgp.bmp.BMPMessageTypes;
+import es.tid.bgp.bmp.BMPPeerDown;
+import es.tid.bgp.bmp.BMPPeerUp;
+import es.tid.bgp.bmp.BMPPerPeerHeader;
+import es.tid.bgp.bmp.BMPRouteMonitoring;
+import es.tid.bgp.bmp.BMPStatisticsReport;
+import es.tid.bgp.bmp.BMPTermination;
+import es.tid.bgp.bgp4.update.fields.IPv4PrefixList;
+import es.tid.bgp.bgp4.update.fields.IPv4UnicastNLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.AS_Path_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.Next_Hop_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
+import es.tid.protocol.commons.framing.BMPFramer;
+
+public class TestBMP {
+
+	private static BMPPerPeerHeader createPeerHeader(boolean ipv6) throws Exception {
+		BMPPerPeerHeader header = new BMPPerPeerHeader();
+		header.setPeerType(BMPPerPeerHeader.PEER_TYPE_RD_INSTANCE);
+		header.setFlags(BMPPerPeerHeader.FLAG_POST_POLICY);
+		header.setPeerDistinguisher(0x0001FDE900000064L);
+		header.setPeerAddress(ipv6 ? Inet6Address.getByName("2001:db8::1") : Inet4Address.getByName("192.0.2.1"));
+		header.setPeerAS(4200000000L);
+		header.setPeerBGPID((Inet4Address) Inet4Address.getByName("10.0.0.1"));
+		header.setTimestampSeconds(1700000000L);
+		header.setTimestampMicroseconds(123456);
+		return header;
+	}
+
+	private static BGP4Update createUpdate() throws Exception {
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+		pathAttributes.add(new OriginAttribute());
+		pathAttributes.add(new AS_Path_Attribute());
+		Next_Hop_Attribute nextHop = new Next_Hop_Attribute();
+		nextHop.setNextHop((Inet4Address) Inet4Address.getByName("192.0.2.1"));
+		pathAttributes.add(nextHop);
+		IPv4PrefixList advertised = new IPv4PrefixList();
+		advertised.add(0x0A000000, 8);
+		advertised.add(0xC0A80100, 24);
+		BGP4Update update = new BGP4Update();
+		update.setPathAttributes(pathAttributes);
+		update.setNlri(new IPv4UnicastNLRI(advertised));
+		update.encode();
+		return update;
+	}
+
+	private static BGP4Open createOpen(int as) throws Exception {
+		BGP4Open open = new BGP4Open();
+		open.setMyAutonomousSystem(as);
+		open.setHoldTime(180);
+		open.setBGPIdentifier((Inet4Address) Inet4Address.getByName("10.0.0." + (as % 200)));
+		open.encode();
+		return open;
+	}
+
+	private static BMPMessage roundTrip(BMPMessage message) {
+		message.encode();
+		// decoded at an offset, as a view over a larger buffer
+		byte[] buffer = new byte[message.getLength() + 10];
+		System.arraycopy(message.getBytes(), 0, buffer, 7, message.getLength());
+		BMPMessage decoded = BMPMessage.decode(buffer, 7);
+		Assert.assertEquals(message.getMessageType(), decoded.getMessageType());
+		Assert.assertEquals(message.getLength(), decoded.getLength());
+		Assert.assertTrue(decoded.isView());
+		decoded.encode();
+		Assert.assertArrayEquals(message.getBytes(), decoded.getBytes());
+		return BMPMessage.decode(buffer, 7);
+	}
+
+	@Test
+	public void testRouteMonitoring() throws Exception {
+		BGP4Update update = createUpdate();
+		BMPRouteMonitoring message = new BMPRouteMonitoring(createPeerHeader(false), update);
+		BMPRouteMonitoring decoded = (BMPRouteMonitoring) roundTrip(message);
+		Assert.assertEquals(createPeerHeader(false), decoded.getPeerHeader());
+		Assert.assertEquals(update.getLength(), decoded.getUpdateLength());
+		BGP4Update view = decoded.getUpdate();
+		Assert.assertTrue("The UPDATE should be a view over the BMP message", view.isView());
+		Assert.assertEquals(2, ((IPv4UnicastNLRI) view.getNlri()).getPrefixes().size());
+		Assert.assertEquals(update, view);
+
+		// forwarding the encoded UPDATE without decoding it
+		BMPRouteMonitoring forwarded = new BMPRouteMonitoring();
+		forwarded.setPeerHeader(createPeerHeader(true));
+		forwarded.setUpdate(decoded.getMessageBuffer(), decoded.getUpdateOffset(), decoded.getUpdateLength());
+		forwarded = (BMPRouteMonitoring) roundTrip(forwarded);
+		Assert.assertTrue(forwarded.getPeerHeader().isIPv6());
+		Assert.assertEquals(Inet6Address.getByName("2001:db8::1"), forwarded.getPeerHeader().getPeerAddress());
+		Assert.assertEquals(update, forwarded.getUpdate());
+	}
+
+	@Test
+	public void testPeerUpAndDown() throws Exception {
+		BMPPeerUp up = new BMPPeerUp();
+		up.setPeerHeader(createPeerHeader(false));
+		up.setLocalAddress(Inet4Address.getByName("192.0.2.2"));
+		up.setLocalPort(179);
+		up.setRemotePort(40000);
+		up.setSentOpen(createOpen(65001));
+		up.setReceivedOpen(createOpen(65002));
+		up.getInformation().add(new BMPInformationTLV(0, "session up"));
+		BMPPeerUp decodedUp = (BMPPeerUp) roundTrip(up);
+		Assert.assertEquals(Inet4Address.getByName("192.0.2.2"), decodedUp.getLocalAddress());
+		Assert.assertEquals(179, decodedUp.getLocalPort());
+		Assert.assertEquals(40000, decodedUp.getRemotePort());
+		Assert.assertEquals(65001, decodedUp.getSentOpen().getMyAutonomousSystem());
+		Assert.assertEquals(65002, decodedUp.getReceivedOpen().getMyAutonomousSystem());
+		Assert.assertEquals("session up", decodedUp.getInformation().get(0).getString());
+
+		BMPPeerDown down = new BMPPeerDown();
+		down.setPeerHeader(createPeerHeader(false));
+		down.setFSMEventCode(18);
+		BMPPeerDown decodedDown = (BMPPeerDown) roundTrip(down);
+		Assert.assertEquals(BMPPeerDown.REASON_LOCAL_NO_NOTIFICATION, decodedDown.getReason());
+		Assert.assertEquals(18, decodedDown.getFSMEventCode());
+		Assert.assertNull(decodedDown.getNotification());
+
+		byte[] notification = new byte[21];
+		for (int i = 0; i < 16; ++i) {
+			notification[i] = (byte) 0xFF;
+		}
+		notification[17] = 21;
+		notification[18] = 3;
+		notification[19] = 6;
+		notification[20] = 2;
+		down.setNotification(BMPPeerDown.REASON_REMOTE_NOTIFICATION, notification);
+		decodedDown = (BMPPeerDown) roundTrip(down);
+		Assert.assertEquals(6, decodedDown.getErrorCode());
+		Assert.assertEquals(2, decodedDown.getErrorSubcode());
+		Assert.assertArrayEquals(notification, decodedDown.getNotification());
+	}
+
+	@Test
+	public void testStatisticsReport() throws Exception {
+		BMPStatisticsReport report = new BMPStatisticsReport();
+		report.setPeerHeader(createPeerHeader(true));
+		report.addCounter(BMPStatisticsReport.STAT_REJECTED_PREFIXES, 0xFFFFFFF0L);
+		report.addGauge(BMPStatisticsReport.STAT_ADJ_RIB_IN_ROUTES, 1L << 40);
+		for (int i = 0; i < 10; ++i) {
+			report.addGauge(BMPStatisticsReport.STAT_LOC_RIB_ROUTES_PER_AFI_SAFI, 16388, 71 + i, 1000 + i);
+		}
+		BMPStatisticsReport decoded = (BMPStatisticsReport) roundTrip(report);
+		Assert.assertEquals(12, decoded.size());
+		Assert.assertEquals(0xFFFFFFF0L, decoded.getStat(BMPStatisticsReport.STAT_REJECTED_PREFIXES));
+		Assert.assertEquals(1L << 40, decoded.getStat(BMPStatisticsReport.STAT_ADJ_RIB_IN_ROUTES));
+		Assert.assertEquals(1005, decoded.getStat(BMPStatisticsReport.STAT_LOC_RIB_ROUTES_PER_AFI_SAFI, 16388, 76));
+		Assert.assertTrue(decoded.hasAfiSafi(11));
+		Assert.assertEquals(16388, decoded.getAfi(11));
+		Assert.assertEquals(80, decoded.getSafi(11));
+		Assert.assertEquals(-1, decoded.getStat(BMPStatisticsReport.STAT_AS_PATH_LOOPS));
+	}
+
+	@Test
+	public void testInitiationAndTermination() throws Exception {
+		BMPInitiation initiation = (BMPInitiation) roundTrip(new BMPInitiation("router1", "Example router"));
+		Assert.assertEquals("router1", initiation.getSysName());
+		Assert.assertEquals("Example router", initiation.getSysDescr());
+
+		BMPTermination termination = (BMPTermination) roundTrip(new BMPTermination(BMPTermination.REASON_OUT_OF_RESOURCES));
+		Assert.assertEquals(BMPTermination.REASON_OUT_OF_RESOURCES, termination.getReason());
+	}
+
+	@Test
+	public void testFramer() throws Exception {
+		List<BMPMessage> sent = new ArrayList<BMPMessage>();
+		sent.add(new BMPInitiation("router1", "Example router"));
+		for (int i = 0; i < 20; ++i) {
+			sent.add(new BMPRouteMonitoring(createPeerHeader(i % 2 == 0), createUpdate()));
+		}
+		sent.add(new BMPTermination(BMPTermination.REASON_ADMINISTRATIVELY_CLOSED));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (BMPMessage message : sent) {
+			message.encode();
+			out.write(message.getBytes());
+		}
+		byte[] stream = out.toByteArray();
+		List<BMPMessage> received = new ArrayList<BMPMessage>();
+		BMPFramer framer = new BMPFramer();
+		// in chunks that split the messages
+		for (int offset = 0; offset < stream.length; offset += 37) {
+			framer.process(stream, offset, Math.min(37, stream.length - offset), (type, buffer, off, length) -> {
+				BMPMessage message = BMPMessage.decode(buffer, off);
+				message.detach();
+				received.add(message);
+			});
+		}
+		Assert.assertEquals(sent.size(), received.size());
+		for (int i = 0; i < sent.size(); ++i) {
+			Assert.assertArrayEquals(sent.get(i).getBytes(), received.get(i).getBytes());
+		}
+		Assert.assertEquals(BMPMessageTypes.MESSAGE_TERMINATION, received.get(sent.size() - 1).getMessageType());
+	}
+
+}
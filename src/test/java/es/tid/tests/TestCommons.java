@@ -21,6 +21,7 @@ import es.tid.bgp.bgp4.open.BGP4OptionalParameter;
 import es.tid.bgp.bgp4.open.MultiprotocolExtensionCapabilityAdvertisement;
 import es.tid.bgp.bgp4.update.fields.LinkNLRI;
 import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.PathAttributeInterner;
 import es.tid.bgp.bgp4.update.fields.pathAttributes.AS_Path_Attribute;
 import es.tid.bgp.bgp4.update.fields.pathAttributes.AS_Path_Segment;
 import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
@@ -63,6 +64,8 @@ import es.tid.pce.pcep.objects.Metric;
 import es.tid.pce.pcep.objects.Notification;
 import es.tid.pce.pcep.objects.ObjectiveFunction;
 import es.tid.pce.pcep.objects.PCEPErrorObject;
+import es.tid.pce.pcep.objects.PCEPObject;
+import es.tid.pce.pcep.objects.UnknownObject;
 import es.tid.pce.pcep.objects.PceId;
 import es.tid.pce.pcep.objects.PceIdIPv4;
 import es.tid.pce.pcep.objects.RequestParameters;
@@ -75,6 +78,8 @@ import es.tid.pce.pcep.objects.subobjects.UnnumberIfIDXROSubobject;
 import es.tid.pce.pcep.objects.subobjects.XROSubobject;
 import es.tid.pce.pcep.objects.tlvs.EmptyDomainIDTLV;
 import es.tid.pce.pcep.objects.tlvs.OperatorAssociation;
+import es.tid.pce.pcep.objects.tlvs.PCEPTLV;
+import es.tid.pce.pcep.objects.tlvs.UnknownTLV;
 import es.tid.rsvp.constructs.SenderDescriptor;
 import es.tid.rsvp.constructs.WFFlowDescriptor;
 import es.tid.rsvp.constructs.gmpls.DWDMWavelengthLabel;
@@ -126,6 +131,10 @@ public class TestCommons {
 			}
 			for (Field field : fieldList) {
 				System.out.println("Field name: "+field.getName());
+				if (field.getType()==PathAttributeInterner.class) {
+					//Decoding context given to the constructor, not a field of the message
+					continue;
+				}
 				if (!java.lang.reflect.Modifier.isStatic(field.getModifiers())) {
 					//System.out.println("non static Field name: "+field.getName());
 					fieldListNS.add(field);
@@ -340,6 +349,22 @@ public class TestCommons {
 								 }
 								
 								 
+							 }
+							 else if (c.getName().equals("es.tid.bgp.bgp4.update.fields.IPv4PrefixList") || (c.getName().equals("es.tid.bgp.bgp4.update.fields.IPPrefixList") && choice_int==0)){
+								 es.tid.bgp.bgp4.update.fields.IPv4PrefixList prefixes = new es.tid.bgp.bgp4.update.fields.IPv4PrefixList();
+								 prefixes.add(Inet4Address.getByName("10.0.0.0"), 8);
+								 prefixes.add(Inet4Address.getByName("192.168.1.128"), 25);
+								 prefixes.add(Inet4Address.getByName("0.0.0.0"), 0);
+								 o= prefixes;
+							 }
+							 else if (c.getName().equals("es.tid.bgp.bgp4.update.fields.IPv6PrefixList") || c.getName().equals("es.tid.bgp.bgp4.update.fields.IPPrefixList")){
+								 es.tid.bgp.bgp4.update.fields.IPv6PrefixList prefixes = new es.tid.bgp.bgp4.update.fields.IPv6PrefixList();
+								 prefixes.add(Inet6Address.getByName("2001:db8::"), 32);
+								 prefixes.add(Inet6Address.getByName("1080:0:0:0:8:800:200C:417A"), 127);
+								 o= prefixes;
+							 }
+							 else if (c.getName().equals("es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttributeDecodeProfile")){
+								 o= es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttributeDecodeProfile.ALL;
 							 }
 							 else if (c.getName().equals("es.tid.pce.pcep.constructs.NAI")){
 								 if (choice_int==0) {
@@ -760,6 +785,23 @@ public class TestCommons {
 										} 
 									
 									
+									 else if  (((Class)at).getName().equals("es.tid.pce.pcep.objects.tlvs.PCEPTLV")) {
+											LinkedList<PCEPTLV> ll=new LinkedList<PCEPTLV>();
+											ll.add(new UnknownTLV(65000, new byte[] {1, 2, 3}));
+											method2.invoke(object,ll);
+										}
+									 else if  (((Class)at).getName().equals("es.tid.pce.pcep.objects.PCEPObject")) {
+											LinkedList<PCEPObject> ll=new LinkedList<PCEPObject>();
+											if (field.getName().equals("vendorInformationList")) {
+												// VENDOR-INFORMATION object, kept as unknown
+												ll.add(new UnknownObject(new byte[] {34, 0x10, 0, 8, 0, 0, 0, 9}, 0));
+											} else {
+												// object of an unassigned class
+												ll.add(new UnknownObject(new byte[] {(byte) 200, 0x10, 0, 8, 1, 2, 3, 4}, 0));
+											}
+											method2.invoke(object,ll);
+										}
+									
 									else {
 										
 										//Object ll= pt.getRawType(). .newInstance();
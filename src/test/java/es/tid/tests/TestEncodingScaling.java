@@ -0,0 +1,95 @@
+package es.tid.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.Inet4Address;
+import java.util.LinkedList;
+
+import org.junit.Test;
+
+import es.tid.pce.pcep.constructs.Path;
+import es.tid.pce.pcep.constructs.StateReport;
+import es.tid.pce.pcep.messages.PCEPReport;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.SRP;
+import es.tid.rsvp.objects.subobjects.EROSubobject;
+import es.tid.rsvp.objects.subobjects.IPv4prefixEROSubobject;
+
+/**
+ * Regression test for the encoding of messages with long lists (state
+ * reports, ERO hops). The encoders must walk the linked lists sequentially:
+ * positional access made the encoding quadratic in the number of elements.
+ * The sizes fit in the 16-bit PCEP lengths.
+ */
+public class TestEncodingScaling {
+
+	private static final int REPORTS = 1000;
+	private static final int HOPS = 8000;
+
+	/**
+	 * Linked list that counts the positional accesses
+	 */
+	@SuppressWarnings("serial")
+	private static class CountingList<E> extends LinkedList<E> {
+
+		private int positionalAccesses;
+
+		@Override
+		public E get(int index) {
+			positionalAccesses++;
+			return super.get(index);
+		}
+
+		@Override
+		public E set(int index, E element) {
+			positionalAccesses++;
+			return super.set(index, element);
+		}
+	}
+
+	private static ExplicitRouteObject createERO(int hops) throws Exception {
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		ero.setEROSubobjectList(new CountingList<EROSubobject>());
+		for (int i = 0; i < hops; ++i) {
+			IPv4prefixEROSubobject eroso = new IPv4prefixEROSubobject();
+			eroso.setIpv4address((Inet4Address) Inet4Address.getByName("10.0."+((i>>8)&0xFF)+"."+(i&0xFF)));
+			eroso.setPrefix(32);
+			ero.addEROSubobject(eroso);
+		}
+		return ero;
+	}
+
+	@Test
+	public void testReportScaling() throws Exception {
+		PCEPReport report = new PCEPReport();
+		CountingList<StateReport> stateReports = new CountingList<StateReport>();
+		report.setStateReportList(stateReports);
+		for (int i = 0; i < REPORTS; ++i) {
+			StateReport stateReport = new StateReport();
+			SRP srp = new SRP();
+			srp.setSRP_ID_number(i);
+			stateReport.setSrp(srp);
+			LSP lsp = new LSP();
+			lsp.setLspId(i);
+			stateReport.setLsp(lsp);
+			Path path = new Path();
+			path.setEro(createERO(2));
+			stateReport.setPath(path);
+			report.addStateReport(stateReport);
+		}
+		report.encode();
+		assertEquals("PCRpt encoding should walk the state reports sequentially", 0, stateReports.positionalAccesses);
+		assertEquals(REPORTS, new PCEPReport(report.getBytes()).getStateReportList().size());
+	}
+
+	@Test
+	public void testEROScaling() throws Exception {
+		ExplicitRouteObject ero = createERO(HOPS);
+		ero.encode();
+		assertEquals("ERO encoding should walk the subobjects sequentially", 0,
+				((CountingList<EROSubobject>) ero.getEROSubobjectList()).positionalAccesses);
+		assertEquals(HOPS, new ExplicitRouteObject(ero.getBytes(), 0).getEROSubobjectList().size());
+	}
+
+}
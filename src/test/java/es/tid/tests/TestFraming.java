@@ -0,0 +1,250 @@
+package es.tid.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.Inet4Address;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.messages.BGP4Keepalive;
+import es.tid.bgp.bgp4.messages.BGP4Message;
+import es.tid.bgp.bgp4.messages.BGP4Notification;
+import es.tid.bgp.bgp4.messages.BGP4Open;
+import es.tid.pce.pcep.constructs.Path;
+import es.tid.pce.pcep.constructs.StateReport;
+import es.tid.pce.pcep.messages.PCEPKeepalive;
+import es.tid.pce.pcep.messages.PCEPMessage;
+import es.tid.pce.pcep.messages.PCEPReport;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.SRP;
+import es.tid.protocol.commons.framing.BGP4FrameDecoder;
+import es.tid.protocol.commons.framing.BGP4Framer;
+import es.tid.protocol.commons.framing.FramingException;
+import es.tid.protocol.commons.framing.PCEPFrameDecoder;
+import es.tid.protocol.commons.framing.PCEPFramer;
+import es.tid.rsvp.objects.subobjects.IPv4prefixEROSubobject;
+
+public class TestFraming {
+
+	private static List<BGP4Message> createBGPMessages() throws Exception {
+		List<BGP4Message> messages = new ArrayList<BGP4Message>();
+		for (int i = 0; i < 50; ++i) {
+			BGP4Open open = new BGP4Open();
+			open.setMyAutonomousSystem(i);
+			open.setHoldTime(180);
+			open.setBGPIdentifier((Inet4Address) Inet4Address.getByName("10.0.0." + i));
+			open.encode();
+			messages.add(open);
+			BGP4Keepalive keepalive = new BGP4Keepalive();
+			keepalive.encode();
+			messages.add(keepalive);
+		}
+		return messages;
+	}
+
+	private static List<PCEPMessage> createPCEPMessages() throws Exception {
+		List<PCEPMessage> messages = new ArrayList<PCEPMessage>();
+		for (int i = 0; i < 50; ++i) {
+			PCEPReport report = new PCEPReport();
+			StateReport stateReport = new StateReport();
+			SRP srp = new SRP();
+			srp.setSRP_ID_number(i);
+			stateReport.setSrp(srp);
+			LSP lsp = new LSP();
+			lsp.setLspId(i);
+			stateReport.setLsp(lsp);
+			Path path = new Path();
+			ExplicitRouteObject ero = new ExplicitRouteObject();
+			IPv4prefixEROSubobject eroso = new IPv4prefixEROSubobject();
+			eroso.setIpv4address((Inet4Address) Inet4Address.getByName("10.0.1." + i));
+			eroso.setPrefix(32);
+			ero.addEROSubobject(eroso);
+			path.setEro(ero);
+			stateReport.setPath(path);
+			report.addStateReport(stateReport);
+			report.encode();
+			messages.add(report);
+			PCEPKeepalive keepalive = new PCEPKeepalive();
+			keepalive.encode();
+			messages.add(keepalive);
+		}
+		return messages;
+	}
+
+	private static byte[] concat(List<byte[]> messages) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (byte[] bytes : messages) {
+			out.write(bytes, 0, bytes.length);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * The stream is fed in chunks of every size from 1 byte to the whole
+	 * stream, so messages are split at every possible position.
+	 */
+	@Test
+	public void testBGPFramingChunks() throws Exception {
+		List<BGP4Message> messages = createBGPMessages();
+		List<byte[]> bytes = new ArrayList<byte[]>();
+		for (BGP4Message msg : messages) {
+			bytes.add(msg.getBytes());
+		}
+		byte[] stream = concat(bytes);
+		for (int chunk = 1; chunk <= stream.length; chunk = chunk < 64 ? chunk + 1 : chunk * 2) {
+			List<BGP4Message> received = new ArrayList<BGP4Message>();
+			BGP4Framer framer = new BGP4Framer();
+			BGP4FrameDecoder decoder = new BGP4FrameDecoder(received::add);
+			for (int offset = 0; offset < stream.length; offset += chunk) {
+				framer.process(stream, offset, Math.min(chunk, stream.length - offset), decoder);
+			}
+			Assert.assertEquals("No bytes should be pending", 0, framer.getPendingBytes());
+			Assert.assertEquals("All the messages should be received with chunks of " + chunk, messages, received);
+		}
+	}
+
+	@Test
+	public void testPCEPFramingChannel() throws Exception {
+		List<PCEPMessage> messages = createPCEPMessages();
+		List<byte[]> bytes = new ArrayList<byte[]>();
+		for (PCEPMessage msg : messages) {
+			bytes.add(msg.getBytes());
+		}
+		byte[] stream = concat(bytes);
+		List<PCEPMessage> received = new ArrayList<PCEPMessage>();
+		PCEPFramer framer = new PCEPFramer();
+		PCEPFrameDecoder decoder = new PCEPFrameDecoder(received::add);
+		ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(stream));
+		while (framer.read(channel, decoder) >= 0) {
+		}
+		Assert.assertEquals("All the messages should be received", messages.size(), received.size());
+		for (int i = 0; i < messages.size(); ++i) {
+			Assert.assertEquals("Message types should be the same", messages.get(i).getMessageType(), received.get(i).getMessageType());
+			Assert.assertArrayEquals("Message bytes should be the same", messages.get(i).getBytes(), received.get(i).getBytes());
+		}
+	}
+
+	@Test
+	public void testDirectBuffer() throws Exception {
+		List<PCEPMessage> messages = createPCEPMessages();
+		List<byte[]> bytes = new ArrayList<byte[]>();
+		for (PCEPMessage msg : messages) {
+			bytes.add(msg.getBytes());
+		}
+		byte[] stream = concat(bytes);
+		ByteBuffer direct = ByteBuffer.allocateDirect(stream.length);
+		direct.put(stream).flip();
+		List<PCEPMessage> received = new ArrayList<PCEPMessage>();
+		new PCEPFramer().process(direct, new PCEPFrameDecoder(received::add));
+		Assert.assertFalse("The buffer should be consumed", direct.hasRemaining());
+		Assert.assertEquals("All the messages should be received", messages.size(), received.size());
+	}
+
+	@Test
+	public void testBadMarker() throws Exception {
+		BGP4Keepalive keepalive = new BGP4Keepalive();
+		keepalive.encode();
+		byte[] bytes = keepalive.getBytes().clone();
+		bytes[3] = 0;
+		try {
+			new BGP4Framer().process(bytes, 0, bytes.length, (type, buffer, offset, length) -> Assert.fail());
+			Assert.fail("A bad marker should not be accepted");
+		} catch (FramingException e) {
+		}
+	}
+
+	@Test
+	public void testMaxLength() throws Exception {
+		byte[] header = new byte[BGP4Message.getBGPHeaderLength()];
+		for (int i = 0; i < BGP4Message.getBGPMarkerLength(); ++i) {
+			header[i] = (byte) 0xFF;
+		}
+		header[16] = (byte) 0x20; // 8192 bytes
+		header[18] = 2;
+		BGP4Framer framer = new BGP4Framer();
+		try {
+			framer.process(header, 0, header.length, (type, buffer, offset, length) -> Assert.fail());
+			Assert.fail("A message longer than 4096 should not be accepted");
+		} catch (FramingException e) {
+		}
+		framer.reset();
+		framer.setExtendedMessages(true);
+		framer.process(header, 0, header.length, (type, buffer, offset, length) -> Assert.fail());
+		Assert.assertEquals("The header should wait for the rest of the message", header.length, framer.getPendingBytes());
+	}
+
+	@Test
+	public void testMalformedUpdate() throws Exception {
+		BGP4Keepalive keepalive = new BGP4Keepalive();
+		keepalive.encode();
+		byte[] update = new byte[BGP4Message.getBGPHeaderLength() + 4];
+		for (int i = 0; i < BGP4Message.getBGPMarkerLength(); ++i) {
+			update[i] = (byte) 0xFF;
+		}
+		update[17] = (byte) update.length;
+		update[18] = 2;
+		update[19] = 0x01; // withdrawn routes longer than the message
+		byte[] stream = concat(List.of(keepalive.getBytes(), update, keepalive.getBytes()));
+		List<BGP4Message> received = new ArrayList<BGP4Message>();
+		new BGP4Framer().process(stream, 0, stream.length, new BGP4FrameDecoder(received::add));
+		Assert.assertEquals("The malformed update should be dropped", 2, received.size());
+		Assert.assertTrue(received.get(1) instanceof BGP4Keepalive);
+	}
+
+	@Test
+	public void testNotification() throws Exception {
+		BGP4Notification notification = new BGP4Notification();
+		notification.setErrorCode(6); // Cease
+		notification.setErrorSubcode(2);
+		notification.setData(new byte[] { 0x00, 0x01, 0x02 });
+		notification.encode();
+		BGP4Keepalive keepalive = new BGP4Keepalive();
+		keepalive.encode();
+		byte[] stream = concat(List.of(notification.getBytes(), keepalive.getBytes()));
+		List<BGP4Message> received = new ArrayList<BGP4Message>();
+		new BGP4Framer().process(stream, 0, stream.length, new BGP4FrameDecoder(received::add));
+		Assert.assertEquals(2, received.size());
+		BGP4Notification decoded = (BGP4Notification) received.get(0);
+		Assert.assertEquals(6, decoded.getErrorCode());
+		Assert.assertEquals(2, decoded.getErrorSubcode());
+		Assert.assertArrayEquals(notification.getData(), decoded.getData());
+		Assert.assertArrayEquals(notification.getBytes(), decoded.getBytes());
+	}
+
+	@Test
+	public void testMalformedPCEPObject() throws Exception {
+		PCEPReport report = (PCEPReport) createPCEPMessages().get(0);
+		StateReport stateReport = report.getStateReportList().getFirst();
+		byte[] malformed = report.getBytes().clone();
+		int eroOffset = 4 + stateReport.getSrp().getLength() + stateReport.getLsp().getLength();
+		malformed[eroOffset + 5] = 0x7F; // subobject longer than the ERO
+		PCEPKeepalive keepalive = new PCEPKeepalive();
+		keepalive.encode();
+		byte[] stream = concat(List.of(keepalive.getBytes(), malformed, keepalive.getBytes()));
+		List<PCEPMessage> received = new ArrayList<PCEPMessage>();
+		new PCEPFramer().process(stream, 0, stream.length, new PCEPFrameDecoder(received::add));
+		Assert.assertEquals("The malformed report should be dropped", 2, received.size());
+		Assert.assertTrue(received.get(1) instanceof PCEPKeepalive);
+	}
+
+	@Test
+	public void testBadPCEPVersion() throws Exception {
+		PCEPKeepalive keepalive = new PCEPKeepalive();
+		keepalive.encode();
+		byte[] bytes = keepalive.getBytes().clone();
+		bytes[0] = (byte) (2 << 5);
+		try {
+			new PCEPFramer().process(bytes, 0, bytes.length, (type, buffer, offset, length) -> Assert.fail());
+			Assert.fail("A bad version should not be accepted");
+		} catch (FramingException e) {
+		}
+	}
+
+}
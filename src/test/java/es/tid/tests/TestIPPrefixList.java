@@ -0,0 +1,159 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.update.fields.IPv4PrefixList;
+import es.tid.bgp.bgp4.update.fields.IPv4UnicastNLRI;
+import es.tid.bgp.bgp4.update.fields.IPv6PrefixList;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.WithdrawnRoutes;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.AFICodes;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.AS_Path_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.Generic_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.Generic_MP_Unreach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.Next_Hop_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.SAFICodes;
+
+public class TestIPPrefixList {
+
+	@Test
+	public void testIPv4Prefixes() throws Exception {
+		IPv4PrefixList prefixes = new IPv4PrefixList(1);
+		prefixes.add(Inet4Address.getByName("10.1.2.3"), 8);
+		prefixes.add(Inet4Address.getByName("192.168.1.129"), 25);
+		prefixes.add(Inet4Address.getByName("1.2.3.4"), 32);
+		prefixes.add(0, 0);
+		Assert.assertEquals(4, prefixes.size());
+		Assert.assertEquals("The bits beyond the prefix should be cleared", Inet4Address.getByName("10.0.0.0"), prefixes.getAddress(0));
+		Assert.assertEquals(0xC0A80180, prefixes.getIntAddress(1));
+		Assert.assertEquals(1, prefixes.indexOf(0xC0A801FF, 25));
+		// length octet plus 1, 4, 4 and 0 octets
+		Assert.assertEquals(4 + 1 + 4 + 4, prefixes.getEncodedLength());
+
+		byte[] bytes = new byte[prefixes.getEncodedLength() + 2];
+		Assert.assertEquals(bytes.length - 1, prefixes.encode(bytes, 1));
+		IPv4PrefixList decoded = new IPv4PrefixList();
+		Assert.assertTrue(decoded.decode(bytes, 1, bytes.length - 1));
+		Assert.assertEquals(prefixes, decoded);
+		int[] total = new int[1];
+		decoded.forEach((address, prefixLength) -> total[0] += prefixLength);
+		Assert.assertEquals(8 + 25 + 32, total[0]);
+	}
+
+	@Test
+	public void testMalformedPrefix() {
+		IPv4PrefixList decoded = new IPv4PrefixList();
+		// 10/8, a prefix longer than 32 bits and 11/8
+		byte[] bytes = {8, 10, 33, 1, 2, 3, 4, 5, 8, 11};
+		Assert.assertFalse(decoded.decode(bytes, 0, bytes.length));
+		Assert.assertEquals(1, decoded.size());
+		// truncated prefix
+		Assert.assertFalse(decoded.decode(new byte[] {24, 10, 0}, 0, 3));
+		Assert.assertEquals(1, decoded.size());
+	}
+
+	@Test
+	public void testIPv6Prefixes() throws Exception {
+		IPv6PrefixList prefixes = new IPv6PrefixList();
+		prefixes.add(Inet6Address.getByName("2001:db8:1:2:3:4:5:6"), 32);
+		prefixes.add(Inet6Address.getByName("2001:db8:1:2:3:4:5:6"), 64);
+		prefixes.add(Inet6Address.getByName("2001:db8:1:2:ffff:4:5:6"), 65);
+		prefixes.add(Inet6Address.getByName("2001:db8:1:2:3:4:5:7"), 127);
+		prefixes.add(Inet6Address.getByName("::1"), 128);
+		Assert.assertEquals(InetAddress.getByName("2001:db8::"), prefixes.getAddress(0));
+		Assert.assertEquals(InetAddress.getByName("2001:db8:1:2:8000::"), prefixes.getAddress(2));
+		Assert.assertEquals(InetAddress.getByName("2001:db8:1:2:3:4:5:6"), prefixes.getAddress(3));
+		Assert.assertEquals(1L, prefixes.getLow(4));
+
+		byte[] bytes = new byte[prefixes.getEncodedLength()];
+		prefixes.encode(bytes, 0);
+		IPv6PrefixList decoded = new IPv6PrefixList(0);
+		Assert.assertTrue(decoded.decode(bytes, 0, bytes.length));
+		Assert.assertEquals(prefixes, decoded);
+	}
+
+	@Test
+	public void testCapacity() {
+		IPv4PrefixList prefixes = new IPv4PrefixList();
+		for (int i = 0; i < 100000; ++i) {
+			prefixes.add(i << 8, 24);
+		}
+		byte[] bytes = new byte[prefixes.getEncodedLength()];
+		prefixes.encode(bytes, 0);
+		IPv4PrefixList decoded = new IPv4PrefixList(0);
+		decoded.decode(bytes, 0, bytes.length);
+		decoded.trimToSize();
+		Assert.assertEquals(100000, decoded.size());
+		Assert.assertEquals(prefixes, decoded);
+		Assert.assertEquals(99999 << 8, decoded.getIntAddress(99999));
+	}
+
+	@Test
+	public void testIPv4UnicastUpdate() throws Exception {
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+		pathAttributes.add(new OriginAttribute());
+		AS_Path_Attribute asPath = new AS_Path_Attribute();
+		pathAttributes.add(asPath);
+		Next_Hop_Attribute nextHop = new Next_Hop_Attribute();
+		nextHop.setNextHop((Inet4Address) Inet4Address.getByName("192.0.2.1"));
+		pathAttributes.add(nextHop);
+		IPv4PrefixList advertised = new IPv4PrefixList();
+		for (int i = 0; i < 500; ++i) {
+			advertised.add(0x0A000000 | (i << 8), 24);
+		}
+		WithdrawnRoutes withdrawnRoutes = new WithdrawnRoutes();
+		withdrawnRoutes.getPrefixes().add(Inet4Address.getByName("172.16.0.0"), 12);
+		BGP4Update update = new BGP4Update();
+		update.setPathAttributes(pathAttributes);
+		update.setWithdrawnRoutes(withdrawnRoutes);
+		update.setNlri(new IPv4UnicastNLRI(advertised));
+		update.encode();
+
+		BGP4Update decoded = new BGP4Update(update.getBytes());
+		Assert.assertEquals(withdrawnRoutes, decoded.getWithdrawnRoutes());
+		Assert.assertTrue(decoded.getNlri() instanceof IPv4UnicastNLRI);
+		Assert.assertEquals(advertised, ((IPv4UnicastNLRI) decoded.getNlri()).getPrefixes());
+		Assert.assertEquals(Inet4Address.getByName("192.0.2.1"), ((Next_Hop_Attribute) decoded.getPathAttributes().get(2)).getNextHop());
+		decoded.encode();
+		Assert.assertArrayEquals(update.getBytes(), decoded.getBytes());
+	}
+
+	@Test
+	public void testMultiprotocolPrefixes() throws Exception {
+		IPv6PrefixList prefixes = new IPv6PrefixList();
+		prefixes.add(Inet6Address.getByName("2001:db8:10::"), 48);
+		prefixes.add(Inet6Address.getByName("2001:db8:20::"), 48);
+		Generic_MP_Reach_Attribute mpReach = new Generic_MP_Reach_Attribute();
+		mpReach.setNextHop(Inet6Address.getByName("2001:db8::1"));
+		mpReach.setPrefixes(prefixes);
+		Assert.assertEquals(AFICodes.AFI_IPV6, mpReach.getAddressFamilyIdentifier());
+		Assert.assertEquals(SAFICodes.SAFI_UNICAST, mpReach.getSubsequentAddressFamilyIdentifier());
+		mpReach.encode();
+		Generic_MP_Reach_Attribute decodedReach = new Generic_MP_Reach_Attribute(mpReach.getBytes(), 0);
+		Assert.assertEquals(mpReach, decodedReach);
+		Assert.assertEquals(16, decodedReach.getNextHopLength());
+		Assert.assertEquals(Inet6Address.getByName("2001:db8::1"), decodedReach.getNextHop());
+		Assert.assertEquals(prefixes, decodedReach.getPrefixes());
+
+		Generic_MP_Unreach_Attribute mpUnreach = new Generic_MP_Unreach_Attribute();
+		mpUnreach.setPrefixes(prefixes);
+		mpUnreach.encode();
+		Generic_MP_Unreach_Attribute decodedUnreach = new Generic_MP_Unreach_Attribute(mpUnreach.getBytes(), 0);
+		Assert.assertEquals(mpUnreach, decodedUnreach);
+		Assert.assertEquals(prefixes, decodedUnreach.getPrefixes());
+
+		// the labeled VPN routes of SAFI 128 are not plain prefixes
+		mpUnreach.setSubsequentAddressFamilyIdentifier(128);
+		mpUnreach.encode();
+		Assert.assertNull(new Generic_MP_Unreach_Attribute(mpUnreach.getBytes(), 0).getPrefixes());
+	}
+
+}
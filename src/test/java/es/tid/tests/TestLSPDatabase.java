@@ -0,0 +1,186 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.pce.pcep.constructs.Path;
+import es.tid.pce.pcep.constructs.StateReport;
+import es.tid.pce.pcep.lspdb.LSPDatabase;
+import es.tid.pce.pcep.lspdb.LSPRecord;
+import es.tid.pce.pcep.messages.PCEPReport;
+import es.tid.pce.pcep.objects.BandwidthRequested;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.Metric;
+import es.tid.pce.pcep.objects.SRP;
+import es.tid.pce.pcep.objects.subobjects.SREROSubobject;
+import es.tid.pce.pcep.objects.tlvs.IPv4LSPIdentifiersTLV;
+import es.tid.pce.pcep.objects.tlvs.LSPDatabaseVersionTLV;
+import es.tid.pce.pcep.objects.tlvs.SymbolicPathNameTLV;
+import es.tid.protocol.commons.IntIntHashMap;
+
+public class TestLSPDatabase {
+
+	private static StateReport createStateReport(int plspId, int tunnelId, boolean sync, boolean remove, long version) throws Exception {
+		StateReport stateReport = new StateReport();
+		LSP lsp = new LSP();
+		lsp.setLspId(plspId);
+		lsp.setSyncFlag(sync);
+		lsp.setRemoveFlag(remove);
+		lsp.setDelegateFlag(true);
+		lsp.setOpFlags(2);
+		if (plspId != 0) {
+			SymbolicPathNameTLV name = new SymbolicPathNameTLV();
+			name.setSymbolicPathNameID(("lsp-" + plspId).getBytes());
+			lsp.setSymbolicPathNameTLV_tlv(name);
+			IPv4LSPIdentifiersTLV identifiers = new IPv4LSPIdentifiersTLV();
+			identifiers.setTunnelSenderIPAddress((Inet4Address) Inet4Address.getByName("10.0.0.1"));
+			identifiers.setTunnelEndPointIPAddress((Inet4Address) Inet4Address.getByName("10.0.0.2"));
+			identifiers.setTunnelID(tunnelId);
+			identifiers.setLspID(plspId % 7);
+			identifiers.setExtendedTunnelID(0x0A000001L);
+			lsp.setLspIdentifiers_tlv(identifiers);
+		}
+		if (version != 0) {
+			LSPDatabaseVersionTLV versionTLV = new LSPDatabaseVersionTLV();
+			versionTLV.setLSPStateDBVersion(version);
+			lsp.setLspDBVersion_tlv(versionTLV);
+		}
+		stateReport.setLsp(lsp);
+		Path path = new Path();
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		if (plspId != 0) {
+			SREROSubobject sr = new SREROSubobject();
+			sr.setSID(16000 + plspId);
+			ero.addEROSubobject(sr);
+			BandwidthRequested bw = new BandwidthRequested();
+			bw.setBw(1000 * plspId);
+			path.setBandwidth(bw);
+			Metric metric = new Metric();
+			metric.setMetricType(2);
+			metric.setMetricValue(plspId);
+			metric.setComputedMetricBit(true);
+			path.getMetricList().add(metric);
+		}
+		path.setEro(ero);
+		stateReport.setPath(path);
+		return stateReport;
+	}
+
+	private static PCEPReport decode(PCEPReport report) throws Exception {
+		report.encode();
+		return new PCEPReport(report.getBytes());
+	}
+
+	@Test
+	public void testSynchronizationAndUpdates() throws Exception {
+		LSPDatabase db = new LSPDatabase(4);
+		Assert.assertEquals(LSPDatabase.SyncState.NOT_SYNCHRONIZED, db.getSyncState());
+
+		PCEPReport sync = new PCEPReport();
+		for (int i = 1; i <= 100; ++i) {
+			sync.addStateReport(createStateReport(i, i % 10, true, false, i));
+		}
+		Assert.assertEquals(100, db.update(decode(sync)));
+		Assert.assertEquals(LSPDatabase.SyncState.SYNCHRONIZING, db.getSyncState());
+		PCEPReport marker = new PCEPReport();
+		marker.addStateReport(createStateReport(0, 0, false, false, 0));
+		db.update(decode(marker));
+		Assert.assertTrue(db.isSynchronized());
+		Assert.assertEquals(100, db.size());
+		Assert.assertEquals(100, db.getDatabaseVersion());
+
+		LSPRecord lsp = db.get(42);
+		Assert.assertEquals("lsp-42", lsp.getSymbolicName());
+		Assert.assertTrue(lsp.isDelegated());
+		Assert.assertEquals(2, lsp.getOperationalStatus());
+		Assert.assertEquals(2, lsp.getTunnelId());
+		Assert.assertEquals(0, lsp.getLspId());
+		Assert.assertEquals(Inet4Address.getByName("10.0.0.2"), lsp.getTunnelEndpoint());
+		Assert.assertEquals(0x0A000001L, lsp.getExtendedTunnelId());
+		Assert.assertEquals(42000f, lsp.getBandwidth(), 0);
+		Assert.assertEquals(42f, lsp.getMetric(2), 0);
+		Assert.assertEquals(LSPRecord.METRIC_FLAG_COMPUTED, lsp.getMetricFlags(0));
+		Assert.assertEquals(16042, ((SREROSubobject) lsp.getEro().getEROSubobjectList().getFirst()).getSID());
+		Assert.assertEquals(42, db.getBySymbolicName("lsp-42").getPlspId());
+		Assert.assertNull(db.getBySymbolicName("lsp-420"));
+		Assert.assertEquals(10, db.getByTunnelId(3).size());
+
+		// removal with the R flag, and an update with an SRP
+		PCEPReport update = new PCEPReport();
+		update.addStateReport(createStateReport(42, 0, false, true, 101));
+		StateReport changed = createStateReport(43, 5, false, false, 102);
+		SRP srp = new SRP();
+		srp.setSRP_ID_number(7);
+		changed.setSrp(srp);
+		update.addStateReport(changed);
+		db.update(decode(update));
+		Assert.assertNull(db.get(42));
+		Assert.assertNull(db.getBySymbolicName("lsp-42"));
+		Assert.assertEquals(9, db.getByTunnelId(2).size());
+		Assert.assertEquals(9, db.getByTunnelId(3).size());
+		Assert.assertEquals(11, db.getByTunnelId(5).size());
+		Assert.assertEquals(7, db.get(43).getSrpId());
+		Assert.assertEquals(99, db.size());
+		Assert.assertEquals(102, db.getDatabaseVersion());
+
+		// a new synchronization removes the LSPs that are not reported again
+		db.restartSynchronization();
+		PCEPReport resync = new PCEPReport();
+		for (int i = 1; i <= 50; ++i) {
+			resync.addStateReport(createStateReport(i, i % 10, true, false, 0));
+		}
+		resync.addStateReport(createStateReport(0, 0, false, false, 0));
+		db.update(decode(resync));
+		Assert.assertTrue(db.isSynchronized());
+		Assert.assertEquals(50, db.size());
+		Assert.assertNull(db.get(51));
+		Assert.assertEquals(5, db.getByTunnelId(3).size());
+		Assert.assertEquals(50, db.getPlspIds().length);
+		// the removed cells are reused
+		for (int i = 1000; i < 1050; ++i) {
+			db.update(createStateReport(i, 1, false, false, 0));
+		}
+		Assert.assertEquals(100, db.size());
+		Assert.assertEquals(1049, db.getPlspId("lsp-1049"));
+
+		// a PCC without LSPs only sends the marker, all the LSPs are stale
+		db.restartSynchronization();
+		PCEPReport empty = new PCEPReport();
+		empty.addStateReport(createStateReport(0, 0, false, false, 0));
+		db.update(decode(empty));
+		Assert.assertTrue(db.isSynchronized());
+		Assert.assertEquals(0, db.size());
+		Assert.assertNull(db.get(1));
+		Assert.assertNull(db.getBySymbolicName("lsp-1049"));
+	}
+
+	@Test
+	public void testIntIntHashMap() {
+		IntIntHashMap map = new IntIntHashMap(4, -1);
+		HashMap<Integer, Integer> reference = new HashMap<Integer, Integer>();
+		Random random = new Random(7);
+		for (int n = 0; n < 200000; ++n) {
+			int key = random.nextInt(5000) - 100;
+			if (random.nextInt(3) == 0) {
+				Integer expected = reference.remove(key);
+				Assert.assertEquals(expected == null ? -1 : expected.intValue(), map.remove(key));
+			} else {
+				int value = random.nextInt(1 << 20);
+				Integer expected = reference.put(key, value);
+				Assert.assertEquals(expected == null ? -1 : expected.intValue(), map.put(key, value));
+			}
+		}
+		Assert.assertEquals(reference.size(), map.size());
+		for (int key = -100; key < 4900; ++key) {
+			Integer expected = reference.get(key);
+			Assert.assertEquals(expected == null ? -1 : expected.intValue(), map.get(key));
+			Assert.assertEquals(expected != null, map.containsKey(key));
+		}
+	}
+
+}
@@ -0,0 +1,182 @@
+package es.tid.tests;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.pce.pcep.constructs.Path;
+import es.tid.pce.pcep.constructs.StateReport;
+import es.tid.pce.pcep.lspdb.LSPDatabase;
+import es.tid.pce.pcep.lspdb.LSPStateJournal;
+import es.tid.pce.pcep.lspdb.StateSyncMode;
+import es.tid.pce.pcep.messages.PCEPReport;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.OPEN;
+import es.tid.pce.pcep.objects.subobjects.SREROSubobject;
+import es.tid.pce.pcep.objects.tlvs.SpeakerEntityIdentifierTLV;
+import es.tid.pce.pcep.objects.tlvs.StatefulCapabilityTLV;
+
+public class TestLSPStateJournal {
+
+	private static StateReport createStateReport(int plspId, int sid, boolean remove) {
+		StateReport stateReport = new StateReport();
+		LSP lsp = new LSP();
+		lsp.setLspId(plspId);
+		lsp.setRemoveFlag(remove);
+		lsp.setDelegateFlag(true);
+		stateReport.setLsp(lsp);
+		Path path = new Path();
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		if (!remove) {
+			SREROSubobject sr = new SREROSubobject();
+			sr.setSID(sid);
+			ero.addEROSubobject(sr);
+		}
+		path.setEro(ero);
+		stateReport.setPath(path);
+		return stateReport;
+	}
+
+	private static OPEN createOpen(boolean delta, long version) throws Exception {
+		OPEN open = new OPEN();
+		StatefulCapabilityTLV capability = new StatefulCapabilityTLV();
+		capability.setUFlag(true);
+		capability.setSFlag(true);
+		capability.setDFlag(delta);
+		capability.setFFlag(true);
+		open.setStateful_capability_tlv(capability);
+		if (version != 0) {
+			LSPStateJournal journal = new LSPStateJournal(1, version);
+			open.setLsp_database_version_tlv(journal.getVersionTLV());
+		}
+		SpeakerEntityIdentifierTLV speaker = new SpeakerEntityIdentifierTLV();
+		speaker.setSpeakerEntityIdentifier(new byte[] {(byte) 0x80, 1, 2, 3});
+		open.setSpeaker_entity_id_tlv(speaker);
+		open.encode();
+		return new OPEN(open.getBytes(), 0);
+	}
+
+	/**
+	 * Sends the reports of the PCC to the PCE, as a PCRpt message
+	 */
+	private static void send(List<StateReport> reports, LSPDatabase db) throws Exception {
+		PCEPReport report = new PCEPReport();
+		for (StateReport stateReport : reports) {
+			report.addStateReport(stateReport);
+		}
+		report.encode();
+		db.update(new PCEPReport(report.getBytes()));
+	}
+
+	private static void assertSame(LSPStateJournal journal, LSPDatabase db) throws Exception {
+		List<StateReport> reports = journal.getAllStateReports();
+		Assert.assertEquals(reports.size(), db.size());
+		for (StateReport stateReport : reports) {
+			int plspId = stateReport.getLsp().getLspId();
+			Assert.assertEquals(((SREROSubobject) stateReport.getPath().getEro().getEROSubobjectList().getFirst()).getSID(),
+					((SREROSubobject) db.get(plspId).getEro().getEROSubobjectList().getFirst()).getSID());
+		}
+		Assert.assertEquals(journal.getVersion(), db.getDatabaseVersion());
+	}
+
+	@Test
+	public void testOpen() throws Exception {
+		OPEN open = createOpen(true, 12345678901L);
+		Assert.assertTrue(open.getStateful_capability_tlv().isIncludeDBVersion());
+		Assert.assertTrue(open.getStateful_capability_tlv().isDeltaLSPSync());
+		Assert.assertTrue(open.getStateful_capability_tlv().isFFlag());
+		Assert.assertFalse(open.getStateful_capability_tlv().isIFlag());
+		Assert.assertEquals(12345678901L, StateSyncMode.getDatabaseVersion(open));
+		Assert.assertArrayEquals(new byte[] {(byte) 0x80, 1, 2, 3}, open.getSpeaker_entity_id_tlv().getSpeakerEntityIdentifier());
+		Assert.assertEquals(createOpen(true, 12345678901L), open);
+		Assert.assertTrue(StateSyncMode.isDeltaLSPSync(open, createOpen(true, 0)));
+		Assert.assertFalse(StateSyncMode.isDeltaLSPSync(open, createOpen(false, 0)));
+	}
+
+	@Test
+	public void testSynchronization() throws Exception {
+		LSPStateJournal journal = new LSPStateJournal(64);
+		for (int i = 1; i <= 20; ++i) {
+			journal.record(createStateReport(i, 16000 + i, false));
+		}
+		Assert.assertEquals(20, journal.getVersion());
+
+		// first session: full synchronization
+		LSPDatabase db = new LSPDatabase(4);
+		List<StateReport> reports = journal.synchronize(createOpen(true, journal.getVersion()), createOpen(true, 0));
+		Assert.assertEquals(21, reports.size());
+		Assert.assertTrue(reports.get(0).getLsp().isSyncFlag());
+		Assert.assertEquals(0, reports.get(20).getLsp().getLspId());
+		Assert.assertEquals(StateSyncMode.FULL, db.restartSynchronization(createOpen(true, 0), createOpen(true, journal.getVersion())));
+		send(reports, db);
+		Assert.assertTrue(db.isSynchronized());
+		assertSame(journal, db);
+
+		// same version: nothing to synchronize
+		Assert.assertEquals(StateSyncMode.SKIP, journal.getSyncMode(20, true));
+		Assert.assertTrue(journal.synchronize(createOpen(true, 20), createOpen(true, 20)).isEmpty());
+		Assert.assertEquals(StateSyncMode.SKIP, db.restartSynchronization(createOpen(true, 20), createOpen(true, 20)));
+		Assert.assertTrue(db.isSynchronized());
+
+		// changes while the session is down: only the last change of each LSP is reported
+		journal.record(createStateReport(3, 17003, false));
+		journal.record(createStateReport(5, 17005, false));
+		journal.record(createStateReport(3, 18003, false));
+		journal.record(createStateReport(7, 0, true));
+		journal.record(createStateReport(30, 16030, false));
+		Assert.assertEquals(25, journal.getVersion());
+		Assert.assertEquals(20, journal.size());
+		reports = journal.getStateReports(20);
+		Assert.assertEquals(4, reports.size());
+		Assert.assertEquals(5, reports.get(0).getLsp().getLspId());
+		Assert.assertEquals(3, reports.get(1).getLsp().getLspId());
+		Assert.assertEquals(24, reports.get(2).getLsp().getLspDBVersion_tlv().getLSPStateDBVersion());
+		Assert.assertTrue(reports.get(2).getLsp().isRemoveFlag());
+		Assert.assertTrue(reports.get(2).getLsp().isSyncFlag());
+
+		// incremental synchronization: the PCE keeps the LSPs that are not reported
+		OPEN pcc = createOpen(true, journal.getVersion());
+		OPEN pce = createOpen(true, db.getDatabaseVersion());
+		Assert.assertEquals(StateSyncMode.INCREMENTAL, db.restartSynchronization(pce, pcc));
+		reports = journal.synchronize(pcc, pce);
+		Assert.assertEquals(5, reports.size());
+		send(reports, db);
+		Assert.assertTrue(db.isSynchronized());
+		Assert.assertNull(db.get(7));
+		assertSame(journal, db);
+
+		// without DELTA-LSP-SYNC-CAPABILITY the synchronization is full
+		Assert.assertEquals(StateSyncMode.FULL, db.restartSynchronization(createOpen(false, 25), createOpen(false, 30)));
+	}
+
+	@Test
+	public void testTruncatedJournal() throws Exception {
+		LSPStateJournal journal = new LSPStateJournal(8, 1000);
+		for (int i = 0; i < 20; ++i) {
+			journal.record(createStateReport(1 + i % 3, 16000 + i, false));
+		}
+		Assert.assertEquals(1020, journal.getVersion());
+		Assert.assertEquals(3, journal.size());
+		Assert.assertEquals(StateSyncMode.INCREMENTAL, journal.getSyncMode(1012, true));
+		Assert.assertEquals(3, journal.getStateReports(1012).size());
+		Assert.assertEquals(1, journal.getStateReports(1019).size());
+		Assert.assertEquals(StateSyncMode.FULL, journal.getSyncMode(1011, true));
+		Assert.assertEquals(StateSyncMode.FULL, journal.getSyncMode(1015, false));
+		Assert.assertEquals(StateSyncMode.FULL, journal.getSyncMode(2000, true));
+		try {
+			journal.getStateReports(1011);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			journal.record(createStateReport(0, 0, false));
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+package es.tid.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.messages.BGP4Message;
+import es.tid.bgp.bgp4.messages.BGP4MessageTypes;
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttributeDecodeProfile;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.LinkStateAttributeTLVTypes;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.MetricLinkAttribTLV;
+import es.tid.protocol.commons.framing.BGP4FrameDecoder;
+
+public class TestLinkStateAttributeDecodeProfile {
+
+	private static LinkStateAttribute createAttribute(int metric) throws Exception {
+		LinkStateAttribute linkState = new LinkStateAttribute();
+		TestCommons.createAllFields(linkState, 0);
+		MetricLinkAttribTLV metricTLV = new MetricLinkAttribTLV();
+		// OSPF metric, two octets
+		metricTLV.setMetric_type(1);
+		metricTLV.setMetric(metric);
+		linkState.setMetricTLV(metricTLV);
+		linkState.encode();
+		return linkState;
+	}
+
+	@Test
+	public void testBandwidthProfile() throws Exception {
+		byte[] bytes = createAttribute(10).getBytes();
+		LinkStateAttribute full = new LinkStateAttribute(bytes, 0);
+		LinkStateAttribute partial = new LinkStateAttribute(bytes, 0, LinkStateAttributeDecodeProfile.BANDWIDTH);
+		Assert.assertFalse(partial.getDecodeProfile().decodes(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_METRIC));
+		Assert.assertEquals(full.getMaximumLinkBandwidthTLV(), partial.getMaximumLinkBandwidthTLV());
+		Assert.assertEquals(full.getUnreservedBandwidthTLV(), partial.getUnreservedBandwidthTLV());
+		Assert.assertFalse("Reading a bandwidth TLV should not decode the others", partial.getDecodeProfile().decodes(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_METRIC));
+
+		Assert.assertEquals(full.getMetricTLV(), partial.getMetricTLV());
+		Assert.assertTrue(partial.getDecodeProfile().decodes(LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_METRIC));
+		Assert.assertSame("A skipped TLV should be decoded once", partial.getMetricTLV(), partial.getMetricTLV());
+		Assert.assertFalse(partial.getDecodeProfile().decodes(LinkStateAttributeTLVTypes.PREFIX_ATTRIBUTE_TLV_TYPE_PREFIX_SID));
+	}
+
+	@Test
+	public void testDecodeSkipped() throws Exception {
+		LinkStateAttribute original = createAttribute(10);
+		byte[] bytes = original.getBytes();
+		LinkStateAttribute partial = new LinkStateAttribute(bytes, 0, LinkStateAttributeDecodeProfile.NONE);
+		Assert.assertEquals(original, partial);
+		Assert.assertTrue(partial.getDecodeProfile().isAll());
+
+		partial = new LinkStateAttribute(bytes, 0, LinkStateAttributeDecodeProfile.SEGMENT_ROUTING);
+		partial.encode();
+		Assert.assertArrayEquals(bytes, partial.getBytes());
+	}
+
+	@Test
+	public void testSetSkippedTLV() throws Exception {
+		byte[] bytes = createAttribute(10).getBytes();
+		LinkStateAttribute partial = new LinkStateAttribute(bytes, 0, LinkStateAttributeDecodeProfile.NONE);
+		MetricLinkAttribTLV metricTLV = new MetricLinkAttribTLV();
+		metricTLV.setMetric_type(1);
+		metricTLV.setMetric(20);
+		partial.setMetricTLV(metricTLV);
+		Assert.assertSame("A TLV set should not be overwritten by the skipped one", metricTLV, partial.getMetricTLV());
+		partial.encode();
+		Assert.assertArrayEquals(createAttribute(20).getBytes(), partial.getBytes());
+	}
+
+	@Test
+	public void testDecoderProfile() throws Exception {
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+		pathAttributes.add(new OriginAttribute());
+		pathAttributes.add(createAttribute(10));
+		BGP4Update update = new BGP4Update();
+		update.setPathAttributes(pathAttributes);
+		update.encode();
+		byte[] bytes = update.getBytes();
+
+		List<BGP4Message> received = new ArrayList<BGP4Message>();
+		BGP4FrameDecoder decoder = new BGP4FrameDecoder(received::add);
+		decoder.setLinkStateDecodeProfile(LinkStateAttributeDecodeProfile.SEGMENT_ROUTING);
+		decoder.frameReceived(BGP4MessageTypes.MESSAGE_UPDATE, bytes, 0, bytes.length);
+		LinkStateAttribute linkState = (LinkStateAttribute) ((BGP4Update) received.get(0)).getPathAttributes().get(1);
+		Assert.assertEquals(LinkStateAttributeDecodeProfile.SEGMENT_ROUTING, linkState.getDecodeProfile());
+		Assert.assertNotNull(linkState.getMetricTLV());
+		Assert.assertTrue(Arrays.equals(pathAttributes.get(1).getBytes(), linkState.getBytes()));
+
+		LinkStateAttribute other = (LinkStateAttribute) new BGP4Update(bytes).getPathAttributes().get(1);
+		Assert.assertTrue("Other decoders should not be affected", other.getDecodeProfile().isAll());
+	}
+
+	/**
+	 * The TLVs decoded on demand by one thread are seen by the others
+	 */
+	@Test
+	public void testConcurrentReads() throws Exception {
+		byte[] bytes = createAttribute(10).getBytes();
+		LinkStateAttribute full = new LinkStateAttribute(bytes, 0);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int i = 0; i < 200; ++i) {
+				LinkStateAttribute partial = new LinkStateAttribute(bytes, 0, LinkStateAttributeDecodeProfile.NONE);
+				List<Future<Boolean>> reads = new ArrayList<Future<Boolean>>();
+				for (int thread = 0; thread < 4; ++thread) {
+					reads.add(executor.submit(() -> full.getMetricTLV().equals(partial.getMetricTLV())
+							&& full.getUnreservedBandwidthTLV().equals(partial.getUnreservedBandwidthTLV())
+							&& full.getAdministrativeGroupTLV().equals(partial.getAdministrativeGroupTLV())));
+				}
+				for (Future<Boolean> read : reads) {
+					Assert.assertTrue(read.get());
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
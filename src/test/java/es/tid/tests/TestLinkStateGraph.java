@@ -0,0 +1,186 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.rib.LinkStateChangeEvent;
+import es.tid.bgp.bgp4.rib.LinkStateGraph;
+import es.tid.bgp.bgp4.rib.LinkStateGraphBuilder;
+import es.tid.bgp.bgp4.rib.LinkStateRIB;
+import es.tid.bgp.bgp4.update.fields.LinkNLRI;
+import es.tid.bgp.bgp4.update.fields.NodeNLRI;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.ProtocolIDCodes;
+import es.tid.bgp.bgp4.update.tlv.RemoteNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.DefaultTEMetricLinkAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.SharedRiskLinkGroupAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.UnreservedBandwidthLinkAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.node_link_prefix_descriptor_subTLVs.AutonomousSystemNodeDescriptorSubTLV;
+import es.tid.bgp.bgp4.update.tlv.node_link_prefix_descriptor_subTLVs.UndirectionalLinkDelayDescriptorSubTLV;
+
+public class TestLinkStateGraph {
+
+	private static AutonomousSystemNodeDescriptorSubTLV createAS(String node) throws Exception {
+		AutonomousSystemNodeDescriptorSubTLV as = new AutonomousSystemNodeDescriptorSubTLV();
+		as.setAS_ID((Inet4Address) Inet4Address.getByName(node));
+		return as;
+	}
+
+	private static NodeNLRI createNode(String node) throws Exception {
+		NodeNLRI nlri = new NodeNLRI();
+		nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+		LocalNodeDescriptorsTLV local = new LocalNodeDescriptorsTLV();
+		local.setAutonomousSystemSubTLV(createAS(node));
+		nlri.setLocalNodeDescriptors(local);
+		return nlri;
+	}
+
+	private static LinkNLRI createLink(String from, String to, int delay) throws Exception {
+		LinkNLRI nlri = new LinkNLRI();
+		nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+		LocalNodeDescriptorsTLV local = new LocalNodeDescriptorsTLV();
+		local.setAutonomousSystemSubTLV(createAS(from));
+		nlri.setLocalNodeDescriptors(local);
+		RemoteNodeDescriptorsTLV remote = new RemoteNodeDescriptorsTLV();
+		remote.setAutonomousSystemSubTLV(createAS(to));
+		nlri.setRemoteNodeDescriptorsTLV(remote);
+		UndirectionalLinkDelayDescriptorSubTLV linkDelay = new UndirectionalLinkDelayDescriptorSubTLV();
+		linkDelay.setDelay(delay);
+		nlri.setUndirectionalLinkDelayTLV(linkDelay);
+		return nlri;
+	}
+
+	private static LinkStateAttribute createAttribute(long metric, float unreserved, Long... srlgs) {
+		LinkStateAttribute linkState = new LinkStateAttribute();
+		DefaultTEMetricLinkAttribTLV teMetric = new DefaultTEMetricLinkAttribTLV();
+		teMetric.setLinkMetric(metric);
+		linkState.setTEMetricTLV(teMetric);
+		UnreservedBandwidthLinkAttribTLV bandwidth = new UnreservedBandwidthLinkAttribTLV();
+		Arrays.fill(bandwidth.getUnreservedBandwidth(), unreserved);
+		linkState.setUnreservedBandwidthTLV(bandwidth);
+		if (srlgs.length > 0) {
+			SharedRiskLinkGroupAttribTLV srlg = new SharedRiskLinkGroupAttribTLV();
+			srlg.setSrlg_values(new LinkedList<Long>(Arrays.asList(srlgs)));
+			linkState.setSharedRiskLinkGroupATLV(srlg);
+		}
+		return linkState;
+	}
+
+	/**
+	 * Lowest TE metric from a node to every node
+	 */
+	private static long[] shortestPaths(LinkStateGraph graph, int from) {
+		long[] distances = new long[graph.getNodeCount()];
+		Arrays.fill(distances, Long.MAX_VALUE);
+		distances[from] = 0;
+		boolean[] done = new boolean[distances.length];
+		for (int n = 0; n < distances.length; ++n) {
+			int node = -1;
+			for (int i = 0; i < distances.length; ++i) {
+				if (!done[i] && distances[i] != Long.MAX_VALUE && (node < 0 || distances[i] < distances[node])) {
+					node = i;
+				}
+			}
+			if (node < 0) {
+				break;
+			}
+			done[node] = true;
+			for (int link = graph.getFirstLink(node); link < graph.getLastLink(node); ++link) {
+				long distance = distances[node] + graph.getTEMetric(link);
+				if (distance < distances[graph.getTarget(link)]) {
+					distances[graph.getTarget(link)] = distance;
+				}
+			}
+		}
+		return distances;
+	}
+
+	@Test
+	public void testGraph() throws Exception {
+		LinkStateRIB rib = new LinkStateRIB();
+		rib.advertise(createNode("1.1.1.1"), null);
+		rib.advertise(createNode("4.4.4.4"), null);
+		rib.advertise(createLink("1.1.1.1", "2.2.2.2", 100), createAttribute(10, 1000, 5L, 7L));
+		rib.advertise(createLink("2.2.2.2", "3.3.3.3", 200), createAttribute(10, 500));
+		rib.advertise(createLink("1.1.1.1", "3.3.3.3", 300), createAttribute(30, 2000, 7L));
+		LinkStateGraph graph = LinkStateGraphBuilder.build(rib);
+
+		Assert.assertEquals("Nodes without links should be kept", 4, graph.getNodeCount());
+		Assert.assertEquals(3, graph.getLinkCount());
+		int a = graph.getNodeId(createNode("1.1.1.1").getKey());
+		int b = graph.getNodeId(createNode("2.2.2.2").getKey());
+		int c = graph.getNodeId(createNode("3.3.3.3").getKey());
+		Assert.assertTrue(a >= 0 && b >= 0 && c >= 0);
+		Assert.assertEquals(2, graph.getLastLink(a) - graph.getFirstLink(a));
+		Assert.assertEquals(0, graph.getLastLink(c) - graph.getFirstLink(c));
+
+		int ab = graph.getLinkId(createLink("1.1.1.1", "2.2.2.2", 100).getKey());
+		Assert.assertEquals(a, graph.getSource(ab));
+		Assert.assertEquals(b, graph.getTarget(ab));
+		Assert.assertEquals(10, graph.getTEMetric(ab));
+		Assert.assertEquals(LinkStateGraph.NO_METRIC, graph.getIGPMetric(ab));
+		Assert.assertEquals(1000, graph.getUnreservedBandwidth(ab, 7), 0);
+		Assert.assertEquals(100, graph.getDelay(ab));
+		Assert.assertEquals(2, graph.getSRLGCount(ab));
+		Assert.assertEquals(7, graph.getSRLG(ab, 1));
+		Assert.assertEquals(20, shortestPaths(graph, a)[c]);
+
+		// the metric of the direct link goes down
+		LinkStateChangeEvent event = rib.advertise(createLink("1.1.1.1", "3.3.3.3", 300), createAttribute(5, 2000));
+		List<LinkStateChangeEvent> events = new ArrayList<LinkStateChangeEvent>();
+		events.add(event);
+		LinkStateGraph patched = graph.update(events);
+		Assert.assertNotNull(patched);
+		int ac = patched.getLinkId(event.getKey());
+		Assert.assertEquals(5, shortestPaths(patched, a)[c]);
+		Assert.assertEquals(0, patched.getSRLGCount(ac));
+		Assert.assertEquals(2, patched.getSRLGCount(ab));
+		Assert.assertEquals("The snapshot should not change", 20, shortestPaths(graph, a)[c]);
+		Assert.assertEquals(1, graph.getSRLGCount(ac));
+		Assert.assertEquals(patched.getLinkId(event.getKey()), graph.getLinkId(event.getKey()));
+
+		events.set(0, rib.withdraw(createLink("2.2.2.2", "3.3.3.3", 200).getKey()));
+		Assert.assertNull("A new link set needs a new build", patched.update(events));
+		graph = LinkStateGraphBuilder.build(rib);
+		Assert.assertEquals(2, graph.getLinkCount());
+		Assert.assertEquals(Long.MAX_VALUE, shortestPaths(graph, b)[c]);
+	}
+
+	/**
+	 * The graph given by a patch must not change through the patch
+	 */
+	@Test
+	public void testPatchAppliedOnce() throws Exception {
+		LinkStateRIB rib = new LinkStateRIB();
+		rib.advertise(createLink("1.1.1.1", "2.2.2.2", 100), createAttribute(10, 1000, 5L));
+		LinkStateGraph graph = LinkStateGraphBuilder.build(rib);
+		int ab = graph.getLinkId(createLink("1.1.1.1", "2.2.2.2", 100).getKey());
+		LinkStateGraph.Patch patch = graph.patch();
+		patch.setAttribute(ab, createAttribute(20, 1000));
+		LinkStateGraph patched = patch.apply();
+		Assert.assertEquals(20, patched.getTEMetric(ab));
+		try {
+			patch.setAttribute(ab, createAttribute(30, 1000, 9L));
+			Assert.fail("An applied patch should not be changed");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			patch.apply();
+			Assert.fail("A patch should be applied once");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		Assert.assertEquals(20, patched.getTEMetric(ab));
+		Assert.assertEquals(0, patched.getSRLGCount(ab));
+		Assert.assertEquals(10, graph.getTEMetric(ab));
+	}
+
+}
@@ -0,0 +1,190 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.rib.LinkStatePrefixIndex;
+import es.tid.bgp.bgp4.rib.PrefixAdvertisement;
+import es.tid.bgp.bgp4.rib.PrefixTrie;
+import es.tid.bgp.bgp4.update.fields.IPv4PrefixList;
+import es.tid.bgp.bgp4.update.fields.IPv4PrefixNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Unreach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
+import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.ProtocolIDCodes;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.PrefixMetricPrefixAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.node_link_prefix_descriptor_subTLVs.AutonomousSystemNodeDescriptorSubTLV;
+import es.tid.bgp.bgp4.update.tlv.node_link_prefix_descriptor_subTLVs.IPReachabilityInformationTLV;
+
+public class TestLinkStatePrefixIndex {
+
+	private static IPv4PrefixNLRI createPrefix(String node, String prefix, int prefixLength) throws Exception {
+		IPv4PrefixNLRI nlri = new IPv4PrefixNLRI();
+		nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+		LocalNodeDescriptorsTLV local = new LocalNodeDescriptorsTLV();
+		AutonomousSystemNodeDescriptorSubTLV as = new AutonomousSystemNodeDescriptorSubTLV();
+		as.setAS_ID((Inet4Address) Inet4Address.getByName(node));
+		local.setAutonomousSystemSubTLV(as);
+		nlri.setLocalNodeDescriptors(local);
+		IPReachabilityInformationTLV reachability = new IPReachabilityInformationTLV();
+		reachability.setIpv4Address((Inet4Address) Inet4Address.getByName(prefix));
+		reachability.setPrefix_length(prefixLength);
+		nlri.setIpReachability(reachability);
+		return nlri;
+	}
+
+	/**
+	 * Encodes and decodes an UPDATE message as received from a peer
+	 */
+	private static BGP4Update createUpdate(List<LinkStateNLRI> reach, List<LinkStateNLRI> unreach, long metric) throws Exception {
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+		pathAttributes.add(new OriginAttribute());
+		if (reach != null) {
+			LinkStateAttribute linkState = new LinkStateAttribute();
+			PrefixMetricPrefixAttribTLV prefixMetric = new PrefixMetricPrefixAttribTLV();
+			prefixMetric.setPrefix_metric(metric);
+			linkState.setPrefixMetricTLV(prefixMetric);
+			pathAttributes.add(linkState);
+			BGP_LS_MP_Reach_Attribute mpReach = new BGP_LS_MP_Reach_Attribute();
+			mpReach.setNextHop(Inet4Address.getByName("1.1.1.1"));
+			mpReach.setNextHopLength(4);
+			mpReach.setLsNLRIList(reach);
+			pathAttributes.add(mpReach);
+		}
+		if (unreach != null) {
+			BGP_LS_MP_Unreach_Attribute mpUnreach = new BGP_LS_MP_Unreach_Attribute();
+			mpUnreach.setLsNLRIList(unreach);
+			pathAttributes.add(mpUnreach);
+		}
+		BGP4Update update = new BGP4Update();
+		update.setPathAttributes(pathAttributes);
+		update.encode();
+		return new BGP4Update(update.getBytes());
+	}
+
+	@Test
+	public void testLongestPrefixMatch() throws Exception {
+		Random random = new Random(7);
+		PrefixTrie<Integer> trie = new PrefixTrie<Integer>();
+		int[] addresses = new int[2000];
+		int[] lengths = new int[addresses.length];
+		for (int i = 0; i < addresses.length; ++i) {
+			lengths[i] = random.nextInt(33);
+			// few distinct leading bits, so that the prefixes nest
+			addresses[i] = (random.nextInt(4) << 30 | random.nextInt() >>> 2) & (lengths[i] == 0 ? 0 : -1 << (32 - lengths[i]));
+			trie.put(addresses[i], lengths[i], i);
+		}
+		// remove a third of the prefixes
+		for (int i = 0; i < addresses.length; i += 3) {
+			trie.remove(addresses[i], lengths[i]);
+		}
+		for (int n = 0; n < 5000; ++n) {
+			int address = random.nextInt(4) << 30 | random.nextInt() >>> 2;
+			int best = -1;
+			for (int i = 0; i < addresses.length; ++i) {
+				int mask = lengths[i] == 0 ? 0 : -1 << (32 - lengths[i]);
+				if (i % 3 != 0 && Integer.valueOf(i).equals(trie.get(addresses[i], lengths[i])) && (address & mask) == addresses[i]
+						&& (best < 0 || lengths[i] > lengths[best])) {
+					best = i;
+				}
+			}
+			Integer found = trie.lookup(address);
+			if (best < 0) {
+				Assert.assertNull(found);
+			} else {
+				Assert.assertNotNull(found);
+				Assert.assertEquals(lengths[best], lengths[found]);
+				Assert.assertEquals(addresses[best], addresses[found]);
+			}
+		}
+		int[] visited = new int[1];
+		trie.forEach((afi, high, low, prefixLength, value) -> visited[0]++);
+		Assert.assertEquals(trie.size(), visited[0]);
+	}
+
+	@Test
+	public void testIPv6() throws Exception {
+		PrefixTrie<String> trie = new PrefixTrie<String>();
+		trie.put(Inet6Address.getByName("2001:db8::"), 32, "a");
+		trie.put(Inet6Address.getByName("2001:db8:0:0:1::"), 80, "b");
+		trie.put(Inet6Address.getByName("2001:db8::1"), 128, "c");
+		trie.put(Inet4Address.getByName("32.1.13.184"), 32, "ipv4");
+		Assert.assertEquals("a", trie.lookup(Inet6Address.getByName("2001:db8:ffff::1")));
+		Assert.assertEquals("b", trie.lookup(Inet6Address.getByName("2001:db8::1:0:0:2")));
+		Assert.assertEquals("c", trie.lookup(Inet6Address.getByName("2001:db8::1")));
+		Assert.assertNull(trie.lookup(Inet6Address.getByName("2001:db9::")));
+		Assert.assertEquals("The families should be apart", "ipv4", trie.lookup(Inet4Address.getByName("32.1.13.184")));
+		Assert.assertEquals("a", trie.remove(Inet6Address.getByName("2001:db8::"), 32));
+		Assert.assertNull(trie.lookup(Inet6Address.getByName("2001:db8:ffff::1")));
+		Assert.assertEquals(3, trie.size());
+	}
+
+	@Test
+	public void testBulkLoad() throws Exception {
+		PrefixTrie<String> trie = new PrefixTrie<String>();
+		trie.put(0x0A000000, 8, "old");
+		PrefixTrie<String> snapshot = trie;
+		IPv4PrefixList prefixes = new IPv4PrefixList();
+		for (int i = 0; i < 256; ++i) {
+			prefixes.add(0x0A000000 | i << 8, 24);
+		}
+		trie.load(loader -> {
+			loader.putAll(prefixes, "new");
+			Assert.assertEquals("Nothing should be published during the load", "old", snapshot.lookup(0x0A000101));
+			loader.remove(0x0A000000, 8);
+		});
+		Assert.assertEquals(256, trie.size());
+		Assert.assertEquals("new", trie.lookup(0x0A000101));
+		Assert.assertNull(trie.lookup(0x0A010101));
+	}
+
+	@Test
+	public void testIndex() throws Exception {
+		IPv4PrefixNLRI a8 = createPrefix("1.1.1.1", "10.0.0.0", 8);
+		IPv4PrefixNLRI b8 = createPrefix("2.2.2.2", "10.0.0.0", 8);
+		IPv4PrefixNLRI a16 = createPrefix("1.1.1.1", "10.1.0.0", 16);
+		LinkStatePrefixIndex index = new LinkStatePrefixIndex();
+		index.load(Arrays.asList(
+				createUpdate(Arrays.<LinkStateNLRI>asList(a8, a16), null, 10),
+				createUpdate(Arrays.<LinkStateNLRI>asList(b8), null, 20)));
+		Assert.assertEquals(2, index.size());
+
+		List<PrefixAdvertisement> advertisements = index.lookup(Inet4Address.getByName("10.2.3.4"));
+		Assert.assertEquals("Both nodes advertise 10/8", 2, advertisements.size());
+		Assert.assertEquals(a8.getLocalNodeDescriptors(), advertisements.get(0).getLocalNodeDescriptors());
+		Assert.assertEquals(10, advertisements.get(0).getPrefixMetric().getPrefix_metric());
+		Assert.assertEquals(20, advertisements.get(1).getPrefixMetric().getPrefix_metric());
+		advertisements = index.lookup(Inet4Address.getByName("10.1.3.4"));
+		Assert.assertEquals(1, advertisements.size());
+		Assert.assertEquals(ProtocolIDCodes.OSPF_Protocol_ID, advertisements.get(0).getProtocolID());
+		Assert.assertTrue(index.lookup(Inet4Address.getByName("11.0.0.1")).isEmpty());
+
+		// a new advertisement of the same NLRI replaces the attributes
+		index.update(createUpdate(Arrays.<LinkStateNLRI>asList(createPrefix("2.2.2.2", "10.0.0.0", 8)), null, 30));
+		advertisements = index.get(Inet4Address.getByName("10.0.0.0"), 8);
+		Assert.assertEquals(2, advertisements.size());
+		Assert.assertEquals(30, advertisements.get(1).getPrefixMetric().getPrefix_metric());
+
+		index.update(createUpdate(null, Arrays.<LinkStateNLRI>asList(createPrefix("1.1.1.1", "10.1.0.0", 16), createPrefix("1.1.1.1", "10.0.0.0", 8)), 0));
+		Assert.assertEquals(1, index.size());
+		advertisements = index.lookup(Inet4Address.getByName("10.1.3.4"));
+		Assert.assertEquals("The /16 should fall back to the /8 of the other node", 1, advertisements.size());
+		Assert.assertEquals(b8.getLocalNodeDescriptors(), advertisements.get(0).getLocalNodeDescriptors());
+		Assert.assertTrue(index.withdraw(createPrefix("2.2.2.2", "10.0.0.0", 8)));
+		Assert.assertFalse(index.withdraw(b8));
+		Assert.assertEquals(0, index.size());
+	}
+
+}
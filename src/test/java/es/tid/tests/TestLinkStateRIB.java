@@ -0,0 +1,135 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.rib.LinkStateAttributeDiff;
+import es.tid.bgp.bgp4.rib.LinkStateChangeEvent;
+import es.tid.bgp.bgp4.rib.LinkStateRIB;
+import es.tid.bgp.bgp4.update.fields.LinkNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.NLRITypes;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Unreach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
+import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.ProtocolIDCodes;
+import es.tid.bgp.bgp4.update.tlv.RemoteNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.DefaultTEMetricLinkAttribTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.LinkStateAttributeTLVTypes;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.UnreservedBandwidthLinkAttribTLV;
+
+public class TestLinkStateRIB {
+
+	private static final int UNRESERVED_BANDWIDTH = LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_UNRESERVED_BANDWITH;
+	private static final int TE_METRIC = LinkStateAttributeTLVTypes.LINK_ATTRIBUTE_TLV_TYPE_TE_DEFAULT_METRIC;
+
+	private static LinkNLRI createLink(int i) throws Exception {
+		LinkNLRI nlri = new LinkNLRI();
+		nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+		nlri.setIdentifier(i);
+		LocalNodeDescriptorsTLV local = new LocalNodeDescriptorsTLV();
+		TestCommons.createAllFields(local, 0);
+		nlri.setLocalNodeDescriptors(local);
+		RemoteNodeDescriptorsTLV remote = new RemoteNodeDescriptorsTLV();
+		TestCommons.createAllFields(remote, 1);
+		nlri.setRemoteNodeDescriptorsTLV(remote);
+		return nlri;
+	}
+
+	private static LinkStateAttribute createAttribute(float unreserved, long metric) {
+		LinkStateAttribute linkState = new LinkStateAttribute();
+		UnreservedBandwidthLinkAttribTLV bandwidth = new UnreservedBandwidthLinkAttribTLV();
+		Arrays.fill(bandwidth.getUnreservedBandwidth(), unreserved);
+		linkState.setUnreservedBandwidthTLV(bandwidth);
+		DefaultTEMetricLinkAttribTLV teMetric = new DefaultTEMetricLinkAttribTLV();
+		teMetric.setLinkMetric(metric);
+		linkState.setTEMetricTLV(teMetric);
+		return linkState;
+	}
+
+	/**
+	 * Encodes and decodes an UPDATE message as received from a peer
+	 */
+	private static BGP4Update createUpdate(List<LinkStateNLRI> reach, LinkStateAttribute linkState, List<LinkStateNLRI> unreach) throws Exception {
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+		pathAttributes.add(new OriginAttribute());
+		if (reach != null) {
+			pathAttributes.add(linkState);
+			BGP_LS_MP_Reach_Attribute mpReach = new BGP_LS_MP_Reach_Attribute();
+			mpReach.setNextHop(Inet4Address.getByName("1.1.1.1"));
+			mpReach.setNextHopLength(4);
+			mpReach.setLsNLRIList(reach);
+			pathAttributes.add(mpReach);
+		}
+		if (unreach != null) {
+			BGP_LS_MP_Unreach_Attribute mpUnreach = new BGP_LS_MP_Unreach_Attribute();
+			mpUnreach.setLsNLRIList(unreach);
+			pathAttributes.add(mpUnreach);
+		}
+		BGP4Update update = new BGP4Update();
+		update.setPathAttributes(pathAttributes);
+		update.encode();
+		return new BGP4Update(update.getBytes());
+	}
+
+	@Test
+	public void testChangeEvents() throws Exception {
+		LinkStateRIB rib = new LinkStateRIB();
+		List<LinkStateChangeEvent> received = new ArrayList<LinkStateChangeEvent>();
+		rib.addListener(received::add);
+
+		List<LinkStateChangeEvent> events = rib.update(createUpdate(Arrays.<LinkStateNLRI>asList(createLink(1), createLink(2)), createAttribute(100, 10), null));
+		Assert.assertEquals(2, events.size());
+		Assert.assertEquals(events, received);
+		Assert.assertEquals(LinkStateChangeEvent.Type.ADDED, events.get(0).getType());
+		Assert.assertEquals(NLRITypes.Link_NLRI, events.get(0).getNLRIType());
+		Assert.assertArrayEquals(new int[] {UNRESERVED_BANDWIDTH, TE_METRIC}, events.get(0).getChangedTLVTypes());
+		Assert.assertEquals(2, rib.size());
+
+		events = rib.update(createUpdate(Arrays.<LinkStateNLRI>asList(createLink(1)), createAttribute(100, 10), null));
+		Assert.assertTrue("The same attribute should not be a change", events.isEmpty());
+
+		events = rib.update(createUpdate(Arrays.<LinkStateNLRI>asList(createLink(1)), createAttribute(50, 10), null));
+		Assert.assertEquals(1, events.size());
+		LinkStateChangeEvent event = events.get(0);
+		Assert.assertEquals(LinkStateChangeEvent.Type.CHANGED, event.getType());
+		Assert.assertTrue(event.hasChanged(UNRESERVED_BANDWIDTH));
+		Assert.assertFalse(event.hasChanged(TE_METRIC));
+		Assert.assertEquals(100, event.getPrevious().getAttribute().getUnreservedBandwidthTLV().getUnreservedBandwidth()[0], 0);
+		Assert.assertEquals(50, event.getRoute().getAttribute().getUnreservedBandwidthTLV().getUnreservedBandwidth()[0], 0);
+		Assert.assertSame(event.getRoute(), rib.get(createLink(1)));
+
+		events = rib.update(createUpdate(null, null, Arrays.<LinkStateNLRI>asList(createLink(2), createLink(3))));
+		Assert.assertEquals("Unknown NLRIs should be ignored", 1, events.size());
+		Assert.assertEquals(LinkStateChangeEvent.Type.WITHDRAWN, events.get(0).getType());
+		Assert.assertEquals(createLink(2).getKey(), events.get(0).getKey());
+		Assert.assertNull(rib.get(createLink(2)));
+
+		received.clear();
+		rib.clear();
+		Assert.assertEquals(0, rib.size());
+		Assert.assertEquals(1, received.size());
+	}
+
+	@Test
+	public void testAttributeDiff() throws Exception {
+		LinkStateAttribute a = createAttribute(100, 10);
+		LinkStateAttribute b = createAttribute(100, 20);
+		Assert.assertArrayEquals(new int[] {TE_METRIC}, LinkStateAttributeDiff.changedTLVTypes(a, b));
+		Assert.assertArrayEquals(new int[0], LinkStateAttributeDiff.changedTLVTypes(a, createAttribute(100, 10)));
+		b.setUnreservedBandwidthTLV(null);
+		b.encode();
+		Assert.assertArrayEquals(new int[] {UNRESERVED_BANDWIDTH, TE_METRIC}, LinkStateAttributeDiff.changedTLVTypes(a, b));
+		Assert.assertArrayEquals(new int[] {TE_METRIC}, LinkStateAttributeDiff.changedTLVTypes(null, b));
+	}
+
+}
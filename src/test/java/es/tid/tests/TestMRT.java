@@ -0,0 +1,224 @@
+package es.tid.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.messages.BGP4Keepalive;
+import es.tid.bgp.bgp4.messages.BGP4Message;
+import es.tid.bgp.bgp4.messages.BGP4MessageTypes;
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.mrt.MRTReader;
+import es.tid.bgp.bgp4.mrt.MRTReplay;
+import es.tid.bgp.bgp4.mrt.MRTStatistics;
+import es.tid.bgp.bgp4.mrt.MRTTypes;
+import es.tid.bgp.bgp4.mrt.MRTWriter;
+import es.tid.bgp.bgp4.update.fields.IPv4PrefixList;
+import es.tid.bgp.bgp4.update.fields.IPv4UnicastNLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.AS_Path_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.Next_Hop_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
+
+public class TestMRT {
+
+	private static BGP4Update createUpdate(int i) throws Exception {
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+		pathAttributes.add(new OriginAttribute());
+		pathAttributes.add(new AS_Path_Attribute());
+		Next_Hop_Attribute nextHop = new Next_Hop_Attribute();
+		nextHop.setNextHop((Inet4Address) Inet4Address.getByName("192.0.2.1"));
+		pathAttributes.add(nextHop);
+		IPv4PrefixList advertised = new IPv4PrefixList();
+		for (int j = 0; j <= i; ++j) {
+			advertised.add(0x0A000000 | (j << 8), 24);
+		}
+		BGP4Update update = new BGP4Update();
+		update.setPathAttributes(pathAttributes);
+		update.setNlri(new IPv4UnicastNLRI(advertised));
+		update.encode();
+		return update;
+	}
+
+	/**
+	 * BGP4MP record with 4-octet ASs and IPv4 addresses
+	 */
+	private static byte[] createRecord(int subtype, byte[] message) throws Exception {
+		ByteBuffer record = ByteBuffer.allocate(MRTTypes.HEADER_LENGTH + 12 + 8 + message.length);
+		record.putInt(1700000000).putShort((short) MRTTypes.TYPE_BGP4MP).putShort((short) subtype);
+		record.putInt(record.capacity() - MRTTypes.HEADER_LENGTH);
+		record.putInt(65001).putInt(65002).putShort((short) 0).putShort((short) 1);
+		record.put(Inet4Address.getByName("192.0.2.1").getAddress()).put(Inet4Address.getByName("192.0.2.2").getAddress());
+		record.put(message);
+		return record.array();
+	}
+
+	@Test
+	public void testWriteAndRead() throws Exception {
+		Path file = Files.createTempFile("test", ".mrt");
+		try {
+			InetAddress peer = Inet4Address.getByName("192.0.2.1");
+			InetAddress local = Inet4Address.getByName("192.0.2.2");
+			List<BGP4Message> written = new ArrayList<BGP4Message>();
+			try (MRTWriter writer = MRTWriter.append(file)) {
+				BGP4Keepalive keepalive = new BGP4Keepalive();
+				keepalive.encode();
+				writer.write(keepalive, 65001, 4200000000L, peer, local);
+				written.add(keepalive);
+				for (int i = 0; i < 50; ++i) {
+					BGP4Update update = createUpdate(i);
+					writer.write(1700000000L * 1000000L + i * 1000, 65001, 4200000000L, 3, peer, local, update.getBytes(), 0, update.getLength());
+					written.add(update);
+				}
+				Assert.assertEquals(51, writer.getRecords());
+			}
+
+			// small windows, so that the file is mapped several times
+			try (MRTReader reader = new MRTReader(file, 512)) {
+				int n = 0;
+				while (reader.nextMessage()) {
+					Assert.assertEquals(MRTTypes.TYPE_BGP4MP_ET, reader.getType());
+					Assert.assertEquals(MRTTypes.BGP4MP_MESSAGE_AS4, reader.getSubtype());
+					Assert.assertEquals(65001, reader.getPeerAS());
+					Assert.assertEquals(4200000000L, reader.getLocalAS());
+					Assert.assertEquals(peer, reader.getPeerAddress());
+					Assert.assertEquals(local, reader.getLocalAddress());
+					Assert.assertEquals(written.get(n).getMessageType(), reader.getMessageType());
+					Assert.assertArrayEquals(written.get(n).getBytes(), reader.getMessage());
+					ByteBuffer slice = reader.getMessageSlice();
+					Assert.assertEquals(written.get(n).getLength(), slice.remaining());
+					if (n > 0) {
+						Assert.assertEquals(1700000000L * 1000000L + (n - 1) * 1000, reader.getTimestampMicros());
+						Assert.assertEquals(3, reader.getInterfaceIndex());
+						BGP4Update decoded = (BGP4Update) reader.decodeMessage();
+						Assert.assertEquals(n, ((IPv4UnicastNLRI) decoded.getNlri()).getPrefixes().size());
+					}
+					n++;
+				}
+				Assert.assertEquals(written.size(), n);
+			}
+
+			// appended records follow the existing ones
+			try (MRTWriter writer = MRTWriter.append(file)) {
+				writer.write(written.get(1), 65001, 65002, peer, local);
+			}
+			try (MRTReader reader = new MRTReader(file)) {
+				List<BGP4Message> replayed = new ArrayList<BGP4Message>();
+				MRTStatistics statistics = new MRTReplay().run(reader, replayed::add);
+				Assert.assertEquals(52, statistics.getRecords());
+				Assert.assertEquals(52, statistics.getMessages());
+				Assert.assertEquals(51, statistics.getUpdates());
+				Assert.assertEquals(Files.size(file), statistics.getBytes());
+				Assert.assertEquals(written.get(1), replayed.get(51));
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testBGP4MPRecord() throws Exception {
+		// BGP4MP_MESSAGE record with 2-octet ASs and IPv6 addresses, written by hand
+		BGP4Keepalive keepalive = new BGP4Keepalive();
+		keepalive.encode();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteBuffer record = ByteBuffer.allocate(MRTTypes.HEADER_LENGTH + 8 + 32 + keepalive.getLength());
+		record.putInt(1700000000).putShort((short) MRTTypes.TYPE_BGP4MP).putShort((short) MRTTypes.BGP4MP_MESSAGE);
+		record.putInt(record.capacity() - MRTTypes.HEADER_LENGTH);
+		record.putShort((short) 65001).putShort((short) 65002).putShort((short) 7).putShort((short) 2);
+		record.put(Inet6Address.getByName("2001:db8::1").getAddress()).put(Inet6Address.getByName("2001:db8::2").getAddress());
+		record.put(keepalive.getBytes());
+		// a record of another type, skipped by nextMessage()
+		out.write(new byte[] {0x65, 0x53, (byte) 0xF1, 0x00, 0, MRTTypes.TYPE_TABLE_DUMP_V2, 0, 1, 0, 0, 0, 2, 0, 0});
+		out.write(record.array());
+		// a truncated record at the end
+		out.write(record.array(), 0, 20);
+		Path file = Files.createTempFile("test", ".mrt");
+		try {
+			Files.write(file, out.toByteArray());
+			try (MRTReader reader = new MRTReader(file)) {
+				Assert.assertTrue(reader.next());
+				Assert.assertFalse(reader.isMessage());
+				Assert.assertEquals(MRTTypes.TYPE_TABLE_DUMP_V2, reader.getType());
+				Assert.assertTrue(reader.nextMessage());
+				Assert.assertEquals(1700000000L, reader.getTimestamp());
+				Assert.assertEquals(0, reader.getMicroseconds());
+				Assert.assertEquals(65001, reader.getPeerAS());
+				Assert.assertEquals(65002, reader.getLocalAS());
+				Assert.assertEquals(7, reader.getInterfaceIndex());
+				Assert.assertEquals(2, reader.getAddressFamily());
+				Assert.assertEquals(Inet6Address.getByName("2001:db8::1"), reader.getPeerAddress());
+				Assert.assertEquals(BGP4MessageTypes.MESSAGE_KEEPALIVE, reader.getMessageType());
+				Assert.assertTrue(reader.decodeMessage() instanceof BGP4Keepalive);
+				Assert.assertFalse("The truncated record should end the file", reader.next());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testReplayMalformedMessage() throws Exception {
+		byte[] update = new byte[BGP4Message.getBGPHeaderLength() + 4];
+		for (int i = 0; i < BGP4Message.getBGPMarkerLength(); ++i) {
+			update[i] = (byte) 0xFF;
+		}
+		update[17] = (byte) update.length;
+		update[18] = BGP4MessageTypes.MESSAGE_UPDATE;
+		update[19] = 0x01; // withdrawn routes longer than the message
+		BGP4Keepalive keepalive = new BGP4Keepalive();
+		keepalive.encode();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(createRecord(MRTTypes.BGP4MP_MESSAGE_AS4, update));
+		out.write(createRecord(MRTTypes.BGP4MP_MESSAGE_AS4, keepalive.getBytes()));
+		Path file = Files.createTempFile("test", ".mrt");
+		try {
+			Files.write(file, out.toByteArray());
+			try (MRTReader reader = new MRTReader(file)) {
+				List<BGP4Message> replayed = new ArrayList<BGP4Message>();
+				MRTStatistics statistics = new MRTReplay().run(reader, replayed::add);
+				Assert.assertEquals(2, statistics.getRecords());
+				Assert.assertEquals(1, statistics.getErrors());
+				Assert.assertEquals(1, statistics.getMessages());
+				Assert.assertTrue(replayed.get(0) instanceof BGP4Keepalive);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testAddPathRecord() throws Exception {
+		BGP4Update update = createUpdate(2);
+		BGP4Keepalive keepalive = new BGP4Keepalive();
+		keepalive.encode();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(createRecord(MRTTypes.BGP4MP_MESSAGE_AS4_ADDPATH, update.getBytes()));
+		out.write(createRecord(MRTTypes.BGP4MP_MESSAGE_AS4_ADDPATH, keepalive.getBytes()));
+		Path file = Files.createTempFile("test", ".mrt");
+		try {
+			Files.write(file, out.toByteArray());
+			try (MRTReader reader = new MRTReader(file)) {
+				Assert.assertTrue(reader.nextMessage());
+				Assert.assertTrue(reader.isAddPath());
+				Assert.assertEquals(BGP4MessageTypes.MESSAGE_UPDATE, reader.getMessageType());
+				Assert.assertNull("UPDATEs with ADD-PATH should not be decoded", reader.decodeMessage());
+				Assert.assertArrayEquals(update.getBytes(), reader.getMessage());
+				Assert.assertTrue(reader.nextMessage());
+				Assert.assertTrue(reader.decodeMessage() instanceof BGP4Keepalive);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+}
@@ -0,0 +1,355 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.pce.pcep.PCEPDecoderRegistry;
+import es.tid.pce.pcep.constructs.PCEPIntiatedLSP;
+import es.tid.pce.pcep.constructs.Path;
+import es.tid.pce.pcep.constructs.StateReport;
+import es.tid.pce.pcep.constructs.UpdateRequest;
+import es.tid.pce.pcep.messages.PCEPInitiate;
+import es.tid.pce.pcep.messages.PCEPKeepalive;
+import es.tid.pce.pcep.messages.PCEPMessage;
+import es.tid.pce.pcep.messages.PCEPMessageTypes;
+import es.tid.pce.pcep.messages.PCEPReport;
+import es.tid.pce.pcep.messages.PCEPUpdate;
+import es.tid.pce.pcep.objects.Close;
+import es.tid.pce.pcep.objects.EndPointsIPv4;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.MalformedPCEPObjectException;
+import es.tid.pce.pcep.objects.PCEPObject;
+import es.tid.pce.pcep.objects.SRP;
+import es.tid.pce.pcep.objects.UnknownObject;
+import es.tid.pce.pcep.objects.subobjects.SREROSubobject;
+import es.tid.pce.pcep.objects.tlvs.PCEPTLV;
+import es.tid.pce.pcep.objects.tlvs.SymbolicPathNameTLV;
+import es.tid.pce.pcep.objects.tlvs.UnknownTLV;
+import es.tid.protocol.commons.framing.PCEPFrameDecoder;
+
+public class TestPCEPDecoderRegistry {
+
+	/**
+	 * VENDOR-INFORMATION object (RFC 7470), Object-Class 34
+	 */
+	public static class VendorInformation extends PCEPObject {
+
+		private int enterpriseNumber;
+
+		public VendorInformation() {
+			this.setObjectClass(34);
+			this.setOT(1);
+		}
+
+		public VendorInformation(byte[] bytes, int offset) throws MalformedPCEPObjectException {
+			super(bytes, offset);
+			decode();
+		}
+
+		@Override
+		public void encode() {
+			this.setObjectLength(8);
+			object_bytes = new byte[8];
+			encode_header();
+			object_bytes[4] = (byte) (enterpriseNumber >>> 24);
+			object_bytes[5] = (byte) (enterpriseNumber >>> 16);
+			object_bytes[6] = (byte) (enterpriseNumber >>> 8);
+			object_bytes[7] = (byte) enterpriseNumber;
+		}
+
+		@Override
+		public void decode() throws MalformedPCEPObjectException {
+			if (ObjectLength < 8) {
+				throw new MalformedPCEPObjectException();
+			}
+			enterpriseNumber = ((object_bytes[4] & 0xFF) << 24) | ((object_bytes[5] & 0xFF) << 16)
+					| ((object_bytes[6] & 0xFF) << 8) | (object_bytes[7] & 0xFF);
+		}
+
+		public int getEnterpriseNumber() {
+			return enterpriseNumber;
+		}
+
+		public void setEnterpriseNumber(int enterpriseNumber) {
+			this.enterpriseNumber = enterpriseNumber;
+		}
+	}
+
+	private static PCEPReport createReport() throws Exception {
+		StateReport stateReport = new StateReport();
+		SRP srp = new SRP();
+		srp.setSRP_ID_number(5);
+		srp.getOtherTLVs().add(new UnknownTLV(65000, new byte[] {1, 2, 3}));
+		stateReport.setSrp(srp);
+		LSP lsp = new LSP();
+		lsp.setLspId(10);
+		SymbolicPathNameTLV name = new SymbolicPathNameTLV();
+		name.setSymbolicPathNameID("lsp-10".getBytes());
+		lsp.setSymbolicPathNameTLV_tlv(name);
+		lsp.getOtherTLVs().add(new UnknownTLV(65001, new byte[] {4, 5, 6, 7, 8}));
+		stateReport.setLsp(lsp);
+		Path path = new Path();
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		SREROSubobject sr = new SREROSubobject();
+		sr.setSID(16010);
+		ero.addEROSubobject(sr);
+		path.setEro(ero);
+		stateReport.setPath(path);
+		VendorInformation vendor = new VendorInformation();
+		vendor.setEnterpriseNumber(9);
+		path.getVendorInformationList().add(vendor);
+		// an object of an extension without decoder
+		stateReport.getOtherObjects().add(new UnknownObject(new byte[] {(byte) 200, 0x10, 0, 8, 1, 2, 3, 4}, 0));
+		PCEPReport report = new PCEPReport();
+		report.addStateReport(stateReport);
+		// a second state report after the unknown object
+		StateReport second = new StateReport();
+		LSP lsp2 = new LSP();
+		lsp2.setLspId(11);
+		second.setLsp(lsp2);
+		Path path2 = new Path();
+		path2.setEro(new ExplicitRouteObject());
+		second.setPath(path2);
+		report.addStateReport(second);
+		report.encode();
+		return report;
+	}
+
+	@Test
+	public void testDispatch() throws Exception {
+		PCEPDecoderRegistry registry = new PCEPDecoderRegistry();
+		PCEPKeepalive keepalive = new PCEPKeepalive();
+		keepalive.encode();
+		Assert.assertTrue(registry.decodeMessage(keepalive.getBytes()) instanceof PCEPKeepalive);
+		Assert.assertNull(registry.getMessageDecoder(99));
+
+		Close close = new Close();
+		close.setReason(2);
+		close.encode();
+		PCEPObject object = registry.decodeObject(close.getBytes(), 0);
+		Assert.assertTrue(object instanceof Close);
+		Assert.assertEquals(close, object);
+
+		SymbolicPathNameTLV name = new SymbolicPathNameTLV();
+		name.setSymbolicPathNameID("abc".getBytes());
+		name.encode();
+		byte[] buf = new byte[4 + name.getTotalTLVLength()];
+		System.arraycopy(name.getTlv_bytes(), 0, buf, 4, name.getTotalTLVLength());
+		Assert.assertEquals(name, registry.decodeTLV(buf, 4));
+
+		// without decoder, the bytes are kept
+		VendorInformation vendor = new VendorInformation();
+		vendor.setEnterpriseNumber(9);
+		vendor.encode();
+		object = registry.decodeObject(vendor.getBytes(), 0);
+		Assert.assertTrue(object instanceof UnknownObject);
+		object.encode();
+		Assert.assertArrayEquals(vendor.getBytes(), object.getBytes());
+		UnknownTLV unknown = new UnknownTLV(65000, new byte[] {1, 2, 3});
+		PCEPTLV tlv = registry.decodeTLV(unknown.getTlv_bytes(), 0);
+		Assert.assertTrue(tlv instanceof UnknownTLV);
+		Assert.assertArrayEquals(new byte[] {1, 2, 3}, ((UnknownTLV) tlv).getValue());
+		Assert.assertEquals(8, tlv.getTotalTLVLength());
+
+		// a vendor decoder plugged in
+		registry.registerObject(34, 1, VendorInformation::new);
+		object = registry.decodeObject(vendor.getBytes(), 0);
+		Assert.assertEquals(9, ((VendorInformation) object).getEnterpriseNumber());
+		registry.registerTLV(65000, (bytes, offset) -> new SymbolicPathNameTLV(bytes, offset));
+		Assert.assertTrue(registry.decodeTLV(unknown.getTlv_bytes(), 0) instanceof SymbolicPathNameTLV);
+
+		try {
+			registry.decodeObject(vendor.getBytes(), 2);
+			Assert.fail("Truncated object decoded");
+		} catch (MalformedPCEPObjectException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testUnknownObjectsAndTLVsKept() throws Exception {
+		PCEPReport report = createReport();
+		PCEPMessage decoded = PCEPFrameDecoder.decode(report.getMessageType(), report.getBytes());
+		Assert.assertTrue(decoded instanceof PCEPReport);
+		PCEPReport decodedReport = (PCEPReport) decoded;
+		Assert.assertEquals(2, decodedReport.getStateReportList().size());
+		StateReport stateReport = decodedReport.getStateReportList().get(0);
+		Assert.assertEquals(1, stateReport.getSrp().getOtherTLVs().size());
+		Assert.assertEquals(65000, stateReport.getSrp().getOtherTLVs().getFirst().getTLVType());
+		Assert.assertArrayEquals(new byte[] {4, 5, 6, 7, 8},
+				((UnknownTLV) stateReport.getLsp().getOtherTLVs().getFirst()).getValue());
+		Assert.assertEquals("lsp-10", new String(stateReport.getLsp().getSymbolicPathNameTLV_tlv().getSymbolicPathNameID()));
+		Assert.assertEquals(1, stateReport.getPath().getVendorInformationList().size());
+		Assert.assertTrue(stateReport.getPath().getVendorInformationList().getFirst() instanceof UnknownObject);
+		Assert.assertEquals(1, stateReport.getOtherObjects().size());
+		Assert.assertEquals(200, stateReport.getOtherObjects().getFirst().getObjectClass());
+		Assert.assertEquals(11, decodedReport.getStateReportList().get(1).getLsp().getLspId());
+
+		decodedReport.encode();
+		Assert.assertArrayEquals(report.getBytes(), decodedReport.getBytes());
+
+		// with the vendor decoder registered in the default registry
+		PCEPDecoderRegistry.getDefault().registerObject(34, 1, VendorInformation::new);
+		try {
+			decodedReport = new PCEPReport(report.getBytes());
+			VendorInformation vendor = (VendorInformation) decodedReport.getStateReportList().get(0).getPath().getVendorInformationList().getFirst();
+			Assert.assertEquals(9, vendor.getEnterpriseNumber());
+		} finally {
+			PCEPDecoderRegistry.getDefault().registerObject(34, 1, null);
+		}
+	}
+
+	/**
+	 * Encoded ERO, so it equals a decoded one
+	 */
+	private static ExplicitRouteObject createERO(long sid) throws Exception {
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		SREROSubobject sr = new SREROSubobject();
+		sr.setSID(sid);
+		ero.addEROSubobject(sr);
+		ero.encode();
+		return ero;
+	}
+
+	/**
+	 * Message with the objects given, in that order
+	 */
+	private static byte[] createMessage(int type, PCEPObject... objects) throws Exception {
+		int length = 4;
+		for (PCEPObject object : objects) {
+			object.encode();
+			length += object.getLength();
+		}
+		byte[] bytes = new byte[length];
+		bytes[0] = 0x20;
+		bytes[1] = (byte) type;
+		bytes[2] = (byte) (length >>> 8);
+		bytes[3] = (byte) length;
+		int offset = 4;
+		for (PCEPObject object : objects) {
+			System.arraycopy(object.getBytes(), 0, bytes, offset, object.getLength());
+			offset += object.getLength();
+		}
+		return bytes;
+	}
+
+	@Test
+	public void testVendorObjectInUpdate() throws Exception {
+		SRP srp = new SRP();
+		srp.setSRP_ID_number(7);
+		LSP lsp = new LSP();
+		lsp.setLspId(20);
+		VendorInformation vendor = new VendorInformation();
+		vendor.setEnterpriseNumber(9);
+		SRP srp2 = new SRP();
+		srp2.setSRP_ID_number(8);
+		LSP lsp2 = new LSP();
+		lsp2.setLspId(21);
+		// the vendor object sits between the LSP and the path
+		byte[] bytes = createMessage(PCEPMessageTypes.MESSAGE_UPDATE, srp, lsp, vendor, createERO(16020), srp2, lsp2, createERO(16021));
+
+		PCEPMessage decoded = PCEPFrameDecoder.decode(PCEPMessageTypes.MESSAGE_UPDATE, bytes);
+		Assert.assertTrue(decoded instanceof PCEPUpdate);
+		PCEPUpdate update = (PCEPUpdate) decoded;
+		Assert.assertEquals(2, update.getUpdateRequestList().size());
+		UpdateRequest first = update.getUpdateRequestList().getFirst();
+		Assert.assertEquals(20, first.getLsp().getLspId());
+		Assert.assertEquals(createERO(16020), first.getPath().getEro());
+		Assert.assertEquals(1, first.getOtherObjects().size());
+		Assert.assertTrue(first.getOtherObjects().getFirst() instanceof UnknownObject);
+		Assert.assertEquals(34, first.getOtherObjects().getFirst().getObjectClass());
+		UpdateRequest second = update.getUpdateRequestList().get(1);
+		Assert.assertEquals(21, second.getLsp().getLspId());
+		Assert.assertTrue(second.getOtherObjects().isEmpty());
+		update.encode();
+		Assert.assertEquals(bytes.length, update.getBytes().length);
+
+		PCEPDecoderRegistry.getDefault().registerObject(34, 1, VendorInformation::new);
+		try {
+			first = new PCEPUpdate(bytes).getUpdateRequestList().getFirst();
+			Assert.assertEquals(9, ((VendorInformation) first.getOtherObjects().getFirst()).getEnterpriseNumber());
+		} finally {
+			PCEPDecoderRegistry.getDefault().registerObject(34, 1, null);
+		}
+	}
+
+	@Test
+	public void testVendorObjectInInitiate() throws Exception {
+		PCEPInitiate initiate = new PCEPInitiate();
+		for (int i = 0; i < 2; ++i) {
+			PCEPIntiatedLSP initiated = new PCEPIntiatedLSP();
+			SRP srp = new SRP();
+			srp.setSRP_ID_number(30 + i);
+			initiated.setSrp(srp);
+			LSP lsp = new LSP();
+			lsp.setLspId(40 + i);
+			initiated.setLsp(lsp);
+			EndPointsIPv4 endPoints = new EndPointsIPv4();
+			endPoints.setSourceIP((Inet4Address) Inet4Address.getByName("10.0.0.1"));
+			endPoints.setDestIP((Inet4Address) Inet4Address.getByName("10.0.0.2"));
+			initiated.setEndPoint(endPoints);
+			initiated.setEro(createERO(16030 + i));
+			VendorInformation vendor = new VendorInformation();
+			vendor.setEnterpriseNumber(9);
+			initiated.getOtherObjects().add(vendor);
+			initiate.getPcepIntiatedLSPList().add(initiated);
+		}
+		initiate.encode();
+
+		PCEPMessage decoded = PCEPFrameDecoder.decode(PCEPMessageTypes.MESSAGE_INITIATE, initiate.getBytes());
+		Assert.assertTrue(decoded instanceof PCEPInitiate);
+		PCEPInitiate decodedInitiate = (PCEPInitiate) decoded;
+		Assert.assertEquals(2, decodedInitiate.getPcepIntiatedLSPList().size());
+		for (int i = 0; i < 2; ++i) {
+			PCEPIntiatedLSP initiated = decodedInitiate.getPcepIntiatedLSPList().get(i);
+			Assert.assertEquals(40 + i, initiated.getLsp().getLspId());
+			Assert.assertTrue(initiated.getEndPoint() instanceof EndPointsIPv4);
+			Assert.assertEquals(createERO(16030 + i), initiated.getEro());
+			Assert.assertEquals(1, initiated.getOtherObjects().size());
+			Assert.assertTrue(initiated.getOtherObjects().getFirst() instanceof UnknownObject);
+		}
+		decodedInitiate.encode();
+		Assert.assertArrayEquals(initiate.getBytes(), decodedInitiate.getBytes());
+
+		PCEPDecoderRegistry.getDefault().registerObject(34, 1, VendorInformation::new);
+		try {
+			decodedInitiate = new PCEPInitiate(initiate.getBytes());
+			PCEPObject vendor = decodedInitiate.getPcepIntiatedLSPList().getFirst().getOtherObjects().getFirst();
+			Assert.assertEquals(9, ((VendorInformation) vendor).getEnterpriseNumber());
+		} finally {
+			PCEPDecoderRegistry.getDefault().registerObject(34, 1, null);
+		}
+	}
+
+	@Test
+	public void testUnknownObjectBeforePath() throws Exception {
+		LSP lsp = new LSP();
+		lsp.setLspId(12);
+		lsp.encode();
+		UnknownObject unknown = new UnknownObject(new byte[] {(byte) 200, 0x10, 0, 8, 1, 2, 3, 4}, 0);
+		unknown.encode();
+		Path path = new Path();
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		SREROSubobject sr = new SREROSubobject();
+		sr.setSID(16012);
+		ero.addEROSubobject(sr);
+		path.setEro(ero);
+		path.encode();
+		byte[] bytes = new byte[lsp.getLength() + unknown.getLength() + path.getLength()];
+		System.arraycopy(lsp.getBytes(), 0, bytes, 0, lsp.getLength());
+		System.arraycopy(unknown.getBytes(), 0, bytes, lsp.getLength(), unknown.getLength());
+		System.arraycopy(path.getBytes(), 0, bytes, lsp.getLength() + unknown.getLength(), path.getLength());
+
+		StateReport stateReport = new StateReport(bytes, 0);
+		Assert.assertEquals(12, stateReport.getLsp().getLspId());
+		Assert.assertNotNull("The path after the unknown object should be decoded", stateReport.getPath());
+		Assert.assertEquals(path.getEro(), stateReport.getPath().getEro());
+		Assert.assertEquals(1, stateReport.getOtherObjects().size());
+		Assert.assertEquals(200, stateReport.getOtherObjects().getFirst().getObjectClass());
+		Assert.assertEquals(bytes.length, stateReport.getLength());
+	}
+
+}
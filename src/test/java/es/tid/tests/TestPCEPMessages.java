@@ -3,6 +3,7 @@ package es.tid.tests;
 import static org.junit.Assert.*;
 
 import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import org.junit.Test;
@@ -76,6 +77,27 @@ public class TestPCEPMessages {
     	}
     }
     
+    @Test
+    public void testEncodeTo (){
+    	try {
+    	Class objectClass=Class.forName(object);
+    	PCEPMessage object = (PCEPMessage)objectClass.newInstance();
+		TestCommons.createAllFields(object,0);
+		object.encode();
+		byte[] bytes=object.getBytes();
+		//Single pass encoding in a dirty buffer, after some other data
+		ByteBuffer buf=ByteBuffer.allocate(bytes.length+16);
+		Arrays.fill(buf.array(), (byte)0xA5);
+		buf.position(5);
+		object.encodeTo(buf);
+		assertEquals("Position after single pass encoding of "+objectClass,bytes.length+5,buf.position());
+		assertArrayEquals("Single pass encoding of "+objectClass,bytes,Arrays.copyOfRange(buf.array(), 5, 5+bytes.length));
+    	} catch(Exception e){
+    		e.printStackTrace();
+    		assertTrue("Exception in message "+object,false);
+    	}
+    }
+    
   
     
 }
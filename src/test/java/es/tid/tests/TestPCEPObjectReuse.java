@@ -0,0 +1,238 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.pce.pcep.PCEPRecycler;
+import es.tid.pce.pcep.constructs.Path;
+import es.tid.pce.pcep.constructs.StateReport;
+import es.tid.pce.pcep.messages.PCEPReport;
+import es.tid.pce.pcep.objects.BandwidthRequested;
+import es.tid.pce.pcep.objects.ExcludeRouteObject;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.IncludeRouteObject;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.Metric;
+import es.tid.pce.pcep.objects.ObjectiveFunction;
+import es.tid.pce.pcep.objects.SRP;
+import es.tid.pce.pcep.objects.Svec;
+import es.tid.pce.pcep.objects.subobjects.IPv4PrefixXROSubobject;
+import es.tid.pce.pcep.objects.subobjects.SREROSubobject;
+import es.tid.pce.pcep.objects.tlvs.SymbolicPathNameTLV;
+import es.tid.rsvp.objects.subobjects.IPv4prefixEROSubobject;
+
+public class TestPCEPObjectReuse {
+
+	private static PCEPReport createReport(int lsps, int hops, boolean withName) throws Exception {
+		PCEPReport report = new PCEPReport();
+		for (int i = 0; i < lsps; ++i) {
+			StateReport stateReport = new StateReport();
+			SRP srp = new SRP();
+			srp.setSRP_ID_number(100 + i);
+			if (withName) {
+				SymbolicPathNameTLV name = new SymbolicPathNameTLV();
+				name.setSymbolicPathNameID(("lsp-" + i).getBytes());
+				srp.setSymPathName(name);
+			}
+			stateReport.setSrp(srp);
+			LSP lsp = new LSP();
+			lsp.setLspId(i);
+			lsp.setDelegateFlag(withName);
+			stateReport.setLsp(lsp);
+			Path path = new Path();
+			ExplicitRouteObject ero = new ExplicitRouteObject();
+			for (int j = 0; j < hops; ++j) {
+				if (j % 2 == 0) {
+					SREROSubobject sr = new SREROSubobject();
+					sr.setSID(16000 + j);
+					ero.addEROSubobject(sr);
+				} else {
+					IPv4prefixEROSubobject ipv4 = new IPv4prefixEROSubobject();
+					ipv4.setIpv4address((Inet4Address) Inet4Address.getByName("10.0." + i + "." + j));
+					ipv4.setPrefix(32);
+					ero.addEROSubobject(ipv4);
+				}
+			}
+			path.setEro(ero);
+			BandwidthRequested bw = new BandwidthRequested();
+			bw.setBw(1000 * (i + 1));
+			path.setBandwidth(bw);
+			Metric metric = new Metric();
+			metric.setMetricType(2);
+			metric.setMetricValue(10 + i);
+			path.getMetricList().add(metric);
+			stateReport.setPath(path);
+			report.addStateReport(stateReport);
+		}
+		report.encode();
+		return report;
+	}
+
+	/**
+	 * Reports of different shapes are decoded into the same instance, which
+	 * must give the same result as decoding them into new objects.
+	 */
+	@Test
+	public void testReportDecodeInto() throws Exception {
+		byte[][] messages = {
+				createReport(3, 4, true).getBytes(),
+				createReport(1, 7, false).getBytes(),
+				createReport(5, 2, true).getBytes(),
+				createReport(3, 4, true).getBytes(),
+		};
+		PCEPReport reused = new PCEPReport();
+		for (int round = 0; round < 3; ++round) {
+			for (byte[] bytes : messages) {
+				reused.decodeInto(bytes);
+				PCEPReport fresh = new PCEPReport(bytes);
+				Assert.assertEquals("Decoding into a used report should give the same report", fresh.toString(), reused.toString());
+				Assert.assertEquals("Same number of state reports", fresh.getStateReportList().size(), reused.getStateReportList().size());
+				for (int i = 0; i < fresh.getStateReportList().size(); ++i) {
+					StateReport expected = fresh.getStateReportList().get(i);
+					StateReport actual = reused.getStateReportList().get(i);
+					Assert.assertEquals("SRP should be the same", expected.getSrp(), actual.getSrp());
+					Assert.assertEquals("LSP should be the same", expected.getLsp(), actual.getLsp());
+					Assert.assertEquals("ERO should be the same", expected.getPath().getEro(), actual.getPath().getEro());
+					Assert.assertEquals("Metrics should be the same", expected.getPath().getMetricList(), actual.getPath().getMetricList());
+				}
+				fresh.encode();
+				reused.encode();
+				Assert.assertArrayEquals("The reused report should encode to the same bytes", fresh.getBytes(), reused.getBytes());
+			}
+		}
+	}
+
+	@Test
+	public void testObjectsAreReused() throws Exception {
+		byte[] bytes = createReport(2, 6, true).getBytes();
+		PCEPReport report = new PCEPReport();
+		report.decodeInto(bytes);
+		StateReport first = report.getStateReportList().getFirst();
+		LSP lsp = first.getLsp();
+		ExplicitRouteObject ero = first.getPath().getEro();
+		Object hop = ero.getEROSubobjectList().getFirst();
+		report.decodeInto(bytes);
+		StateReport again = report.getStateReportList().getFirst();
+		Assert.assertTrue("The LSP object should be reused", report.getStateReportList().stream().anyMatch(sr -> sr.getLsp() == lsp));
+		Assert.assertTrue("The ERO object should be reused", report.getStateReportList().stream().anyMatch(sr -> sr.getPath().getEro() == ero));
+		Assert.assertTrue("The ERO subobjects should be reused", report.getStateReportList().stream().anyMatch(sr -> sr.getPath().getEro().getEROSubobjectList().contains(hop)));
+		Assert.assertNotNull(again.getLsp());
+	}
+
+	/**
+	 * Optional TLVs of a previous decoding must not survive decodeInto
+	 */
+	@Test
+	public void testResetClearsOptionalFields() throws Exception {
+		SRP named = new SRP();
+		named.setSRP_ID_number(7);
+		SymbolicPathNameTLV name = new SymbolicPathNameTLV();
+		name.setSymbolicPathNameID("name".getBytes());
+		named.setSymPathName(name);
+		named.encode();
+		SRP plain = new SRP();
+		plain.setSRP_ID_number(8);
+		plain.encode();
+		SRP srp = new SRP(named.getBytes(), 0);
+		Assert.assertNotNull(srp.getSymPathName());
+		srp.decodeInto(plain.getBytes(), 0);
+		Assert.assertNull("The TLV of the previous SRP should be cleared", srp.getSymPathName());
+		Assert.assertEquals(new SRP(plain.getBytes(), 0), srp);
+	}
+
+	/**
+	 * Subobjects and request IDs of a previous decoding must not pile up
+	 */
+	@Test
+	public void testListObjectsReuse() throws Exception {
+		IncludeRouteObject longIro = new IncludeRouteObject();
+		ExcludeRouteObject longXro = new ExcludeRouteObject();
+		longXro.setFail(true);
+		Svec longSvec = new Svec();
+		longSvec.setLDiverseBit(true);
+		for (int i = 0; i < 3; ++i) {
+			IPv4prefixEROSubobject ipv4 = new IPv4prefixEROSubobject();
+			ipv4.setIpv4address((Inet4Address) Inet4Address.getByName("10.0.0." + i));
+			ipv4.setPrefix(32);
+			longIro.addIROSubobject(ipv4);
+			IPv4PrefixXROSubobject xro = new IPv4PrefixXROSubobject();
+			xro.setIpv4address((Inet4Address) Inet4Address.getByName("10.0.1." + i));
+			xro.setPrefix(32);
+			longXro.addXROSubobject(xro);
+			longSvec.getRequestIDlist().add(100L + i);
+		}
+		IncludeRouteObject shortIro = new IncludeRouteObject();
+		shortIro.addIROSubobject(longIro.getIROList().getFirst());
+		ExcludeRouteObject shortXro = new ExcludeRouteObject();
+		shortXro.addXROSubobject(longXro.getXROSubobjectList().getFirst());
+		Svec shortSvec = new Svec();
+		shortSvec.getRequestIDlist().add(7L);
+		longIro.encode();
+		longXro.encode();
+		longSvec.encode();
+		shortIro.encode();
+		shortXro.encode();
+		shortSvec.encode();
+
+		IncludeRouteObject iro = new IncludeRouteObject(longIro.getBytes(), 0);
+		iro.decodeInto(shortIro.getBytes(), 0);
+		Assert.assertEquals(1, iro.getIROList().size());
+		iro.encode();
+		Assert.assertArrayEquals(shortIro.getBytes(), iro.getBytes());
+
+		ExcludeRouteObject xro = new ExcludeRouteObject(longXro.getBytes(), 0);
+		xro.decodeInto(shortXro.getBytes(), 0);
+		Assert.assertEquals(1, xro.getXROSubobjectList().size());
+		Assert.assertFalse(xro.isFail());
+		xro.encode();
+		Assert.assertArrayEquals(shortXro.getBytes(), xro.getBytes());
+
+		Svec svec = new Svec(longSvec.getBytes(), 0);
+		svec.decodeInto(shortSvec.getBytes(), 0);
+		Assert.assertEquals(new Svec(shortSvec.getBytes(), 0), svec);
+		Assert.assertFalse(svec.isLDiverseBit());
+	}
+
+	/**
+	 * The lists of a state report may have been set to null
+	 */
+	@Test
+	public void testStateReportResetWithoutLists() throws Exception {
+		PCEPReport report = createReport(1, 2, false);
+		StateReport stateReport = report.getStateReportList().getFirst();
+		stateReport.setAssociationList(null);
+		stateReport.setOtherObjects(null);
+		stateReport.reset();
+		stateReport.decodeInto(report.getBytes(), 4);
+		Assert.assertTrue(stateReport.getAssociationList().isEmpty());
+		Assert.assertNotNull(stateReport.getPath());
+	}
+
+	/**
+	 * Objects without a complete reset cannot be decoded into
+	 */
+	@Test(expected = UnsupportedOperationException.class)
+	public void testDecodeIntoUnsupported() throws Exception {
+		ObjectiveFunction of = new ObjectiveFunction();
+		of.encode();
+		new ObjectiveFunction(of.getBytes(), 0).decodeInto(of.getBytes(), 0);
+	}
+
+	@Test
+	public void testRecyclerPoolSize() throws Exception {
+		PCEPRecycler recycler = PCEPRecycler.get();
+		int maxPoolSize = recycler.getMaxPoolSize();
+		try {
+			recycler.setMaxPoolSize(2);
+			PCEPReport report = new PCEPReport();
+			report.decodeInto(createReport(5, 2, false).getBytes());
+			report.decodeInto(createReport(1, 2, false).getBytes());
+			Assert.assertEquals("The pool should not grow over its maximum size", 1, recycler.getPoolSize());
+		} finally {
+			recycler.setMaxPoolSize(maxPoolSize);
+		}
+	}
+
+}
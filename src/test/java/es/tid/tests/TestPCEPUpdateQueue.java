@@ -0,0 +1,161 @@
+package es.tid.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.net.Inet4Address;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.pce.pcep.constructs.PCEPIntiatedLSP;
+import es.tid.pce.pcep.constructs.Path;
+import es.tid.pce.pcep.constructs.UpdateRequest;
+import es.tid.pce.pcep.messages.PCEPInitiate;
+import es.tid.pce.pcep.messages.PCEPMessage;
+import es.tid.pce.pcep.messages.PCEPMessageTypes;
+import es.tid.pce.pcep.messages.PCEPUpdate;
+import es.tid.pce.pcep.messages.PCEPUpdateQueue;
+import es.tid.pce.pcep.objects.EndPointsIPv4;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.LSP;
+import es.tid.pce.pcep.objects.SRP;
+import es.tid.pce.pcep.objects.subobjects.SREROSubobject;
+import es.tid.protocol.commons.framing.PCEPFramer;
+
+public class TestPCEPUpdateQueue {
+
+	private static UpdateRequest createUpdateRequest(int plspId, long srpId) {
+		UpdateRequest updateRequest = new UpdateRequest();
+		SRP srp = new SRP();
+		srp.setSRP_ID_number(srpId);
+		updateRequest.setSrp(srp);
+		LSP lsp = new LSP();
+		lsp.setLspId(plspId);
+		lsp.setDelegateFlag(true);
+		updateRequest.setLsp(lsp);
+		Path path = new Path();
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		for (int i = 0; i < 4; ++i) {
+			SREROSubobject sr = new SREROSubobject();
+			sr.setSID(16000 + i);
+			ero.addEROSubobject(sr);
+		}
+		path.setEro(ero);
+		updateRequest.setPath(path);
+		return updateRequest;
+	}
+
+	private static PCEPIntiatedLSP createInitiatedLSP(int plspId, long srpId, boolean remove) throws Exception {
+		PCEPIntiatedLSP initiatedLSP = new PCEPIntiatedLSP();
+		SRP srp = new SRP();
+		srp.setSRP_ID_number(srpId);
+		srp.setRFlag(remove);
+		initiatedLSP.setSrp(srp);
+		LSP lsp = new LSP();
+		lsp.setLspId(plspId);
+		initiatedLSP.setLsp(lsp);
+		if (!remove) {
+			EndPointsIPv4 endPoints = new EndPointsIPv4();
+			endPoints.setSourceIP((Inet4Address) Inet4Address.getByName("10.0.0.1"));
+			endPoints.setDestIP((Inet4Address) Inet4Address.getByName("10.0.0.2"));
+			initiatedLSP.setEndPoint(endPoints);
+			initiatedLSP.setEro(new ExplicitRouteObject());
+		}
+		return initiatedLSP;
+	}
+
+	private static List<PCEPMessage> decode(ByteArrayOutputStream out) throws Exception {
+		List<PCEPMessage> messages = new ArrayList<PCEPMessage>();
+		new PCEPFramer().process(out.toByteArray(), 0, out.size(), (type, buffer, offset, length) -> {
+			Assert.assertTrue(length <= PCEPFramer.MAX_MESSAGE_LENGTH);
+			byte[] bytes = new byte[length];
+			System.arraycopy(buffer, offset, bytes, 0, length);
+			try {
+				messages.add(type == PCEPMessageTypes.MESSAGE_UPDATE ? new PCEPUpdate(bytes) : new PCEPInitiate(bytes));
+			} catch (Exception e) {
+				throw new AssertionError(e);
+			}
+		});
+		return messages;
+	}
+
+	@Test
+	public void testPackingAndReplacement() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PCEPUpdateQueue queue = new PCEPUpdateQueue(out, 60000, null);
+		queue.setFlushThreshold(Integer.MAX_VALUE);
+		long srpId = 1;
+		for (int i = 1; i <= 5000; ++i) {
+			queue.add(createUpdateRequest(i, srpId++));
+		}
+		// the second pass replaces the updates of the first one
+		for (int i = 1; i <= 5000; i += 2) {
+			queue.add(createUpdateRequest(i, srpId++));
+		}
+		// an LSP removed between two updates
+		queue.add(createUpdateRequest(7, srpId++));
+		queue.add(createInitiatedLSP(7, srpId++, true));
+		queue.add(createUpdateRequest(7, srpId++));
+		queue.add(createInitiatedLSP(0, srpId++, false));
+		Assert.assertEquals(5000 + 3, queue.getPendingRequests());
+		Assert.assertEquals(2500 + 1, queue.getReplacedRequests());
+		Assert.assertEquals(0, out.size());
+		queue.flush();
+		Assert.assertEquals(0, queue.getPendingRequests());
+		Assert.assertEquals(1, queue.getWrites());
+
+		List<PCEPMessage> messages = decode(out);
+		Assert.assertEquals(queue.getSentMessages(), messages.size());
+		List<UpdateRequest> updates = new ArrayList<UpdateRequest>();
+		int i = 0;
+		while (messages.get(i) instanceof PCEPUpdate) {
+			updates.addAll(((PCEPUpdate) messages.get(i)).getUpdateRequestList());
+			i++;
+		}
+		Assert.assertTrue("Messages should be full", i < 5000 * updates.get(0).getLength() / PCEPFramer.MAX_MESSAGE_LENGTH + 3);
+		Assert.assertEquals(5000, updates.size());
+		// the even PLSP-IDs first, then the replaced odd ones with their latest SRP-ID
+		Assert.assertEquals(2, updates.get(0).getLsp().getLspId());
+		Assert.assertEquals(1, updates.get(2500).getLsp().getLspId());
+		Assert.assertEquals(5001, updates.get(2500).getSrp().getSRP_ID_number());
+		Assert.assertEquals(7, updates.get(4999).getLsp().getLspId());
+		Assert.assertEquals(7501, updates.get(4999).getSrp().getSRP_ID_number());
+		PCEPInitiate removal = (PCEPInitiate) messages.get(i++);
+		Assert.assertTrue(removal.getPcepIntiatedLSPList().getFirst().getSrp().isRFlag());
+		Assert.assertEquals(7, ((PCEPUpdate) messages.get(i++)).getUpdateRequestList().getFirst().getLsp().getLspId());
+		Assert.assertEquals(0, ((PCEPInitiate) messages.get(i++)).getPcepIntiatedLSPList().getFirst().getLsp().getLspId());
+		Assert.assertEquals(messages.size(), i);
+	}
+
+	@Test
+	public void testFlushOnSizeAndLinger() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PCEPUpdateQueue queue = new PCEPUpdateQueue(out, 60000, null);
+		queue.setFlushThreshold(1000);
+		int length = createUpdateRequest(1, 1).encodedLength();
+		int n = 0;
+		while (queue.getWrites() == 0) {
+			queue.add(createUpdateRequest(++n, n));
+		}
+		Assert.assertEquals((1000 + length - 1) / length, n);
+		Assert.assertEquals(1, decode(out).size());
+		Assert.assertFalse(queue.flushIfDue());
+
+		// without linger time each request is written at once
+		out.reset();
+		queue = new PCEPUpdateQueue(out);
+		queue.add(createUpdateRequest(1, 1));
+		queue.add(createInitiatedLSP(0, 2, false));
+		Assert.assertEquals(2, queue.getWrites());
+		Assert.assertEquals(2, decode(out).size());
+
+		// the equivalent message, encoded in one pass
+		PCEPUpdate update = new PCEPUpdate();
+		update.getUpdateRequestList().add(createUpdateRequest(1, 1));
+		byte[] bytes = new byte[update.encodedLength()];
+		update.encodeTo(bytes, 0);
+		Assert.assertArrayEquals(java.util.Arrays.copyOf(out.toByteArray(), bytes.length), bytes);
+	}
+
+}
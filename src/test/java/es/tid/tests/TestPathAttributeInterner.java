@@ -0,0 +1,148 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.bgp.bgp4.messages.BGP4Message;
+import es.tid.bgp.bgp4.messages.BGP4MessageTypes;
+import es.tid.bgp.bgp4.messages.BGP4Update;
+import es.tid.bgp.bgp4.update.fields.LinkNLRI;
+import es.tid.bgp.bgp4.update.fields.LinkStateNLRI;
+import es.tid.bgp.bgp4.update.fields.PathAttribute;
+import es.tid.bgp.bgp4.update.fields.PathAttributeInterner;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.BGP_LS_MP_Reach_Attribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.LinkStateAttribute;
+import es.tid.bgp.bgp4.update.fields.pathAttributes.OriginAttribute;
+import es.tid.bgp.bgp4.update.tlv.LocalNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.ProtocolIDCodes;
+import es.tid.bgp.bgp4.update.tlv.RemoteNodeDescriptorsTLV;
+import es.tid.bgp.bgp4.update.tlv.linkstate_attribute_tlvs.MetricLinkAttribTLV;
+import es.tid.protocol.commons.framing.BGP4FrameDecoder;
+
+public class TestPathAttributeInterner {
+
+	private static byte[] createUpdate(int link, int metric) throws Exception {
+		BGP_LS_MP_Reach_Attribute mpReach = new BGP_LS_MP_Reach_Attribute();
+		mpReach.setNextHop(Inet4Address.getByName("1.1.1.1"));
+		mpReach.setNextHopLength(4);
+		LinkNLRI nlri = new LinkNLRI();
+		nlri.setProtocolID(ProtocolIDCodes.OSPF_Protocol_ID);
+		nlri.setIdentifier(link);
+		LocalNodeDescriptorsTLV local = new LocalNodeDescriptorsTLV();
+		TestCommons.createAllFields(local, 0);
+		nlri.setLocalNodeDescriptors(local);
+		RemoteNodeDescriptorsTLV remote = new RemoteNodeDescriptorsTLV();
+		TestCommons.createAllFields(remote, 1);
+		nlri.setRemoteNodeDescriptorsTLV(remote);
+		LinkedList<LinkStateNLRI> nlris = new LinkedList<LinkStateNLRI>();
+		nlris.add(nlri);
+		mpReach.setLsNLRIList(nlris);
+		OriginAttribute origin = new OriginAttribute();
+		LinkStateAttribute linkState = new LinkStateAttribute();
+		TestCommons.createAllFields(linkState, 0);
+		MetricLinkAttribTLV metricTLV = new MetricLinkAttribTLV();
+		// OSPF metric, two octets
+		metricTLV.setMetric_type(1);
+		metricTLV.setMetric(metric);
+		linkState.setMetricTLV(metricTLV);
+		ArrayList<PathAttribute> pathAttributes = new ArrayList<PathAttribute>();
+		pathAttributes.add(origin);
+		pathAttributes.add(mpReach);
+		pathAttributes.add(linkState);
+		BGP4Update update = new BGP4Update();
+		update.setPathAttributes(pathAttributes);
+		update.encode();
+		return update.getBytes();
+	}
+
+	private static LinkStateAttribute getLinkStateAttribute(BGP4Update update) {
+		for (PathAttribute pathAttribute : update.getPathAttributes()) {
+			if (pathAttribute instanceof LinkStateAttribute) {
+				return (LinkStateAttribute) pathAttribute;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testRepeatedAttributesAreShared() throws Exception {
+		byte[] first = createUpdate(1, 10);
+		byte[] second = createUpdate(2, 10);
+		PathAttributeInterner interner = new PathAttributeInterner();
+		BGP4Update update1 = new BGP4Update(first, 0, interner);
+		BGP4Update update2 = new BGP4Update(second, 0, interner);
+		Assert.assertSame("The ORIGIN should be shared", update1.getPathAttributes().get(0), update2.getPathAttributes().get(0));
+		Assert.assertNotSame("The MP_REACH_NLRI should not be interned", update1.getPathAttributes().get(1), update2.getPathAttributes().get(1));
+		Assert.assertSame("The BGP-LS attribute should be shared", getLinkStateAttribute(update1), getLinkStateAttribute(update2));
+		Assert.assertEquals(2, interner.getAttributeCount());
+		Assert.assertTrue(interner.getHitCount() > 0);
+		Assert.assertTrue(update1.getPathAttributes().get(0).isInterned());
+		Assert.assertFalse(update1.getPathAttributes().get(1).isInterned());
+		Assert.assertEquals("Interning should not change the decoded message", new BGP4Update(first), update1);
+	}
+
+	@Test
+	public void testSimilarAttributesShareTLVs() throws Exception {
+		PathAttributeInterner interner = new PathAttributeInterner();
+		LinkStateAttribute attribute1 = getLinkStateAttribute(new BGP4Update(createUpdate(1, 10), 0, interner));
+		LinkStateAttribute attribute2 = getLinkStateAttribute(new BGP4Update(createUpdate(2, 20), 0, interner));
+		Assert.assertNotSame(attribute1, attribute2);
+		Assert.assertNotEquals(attribute1.getMetricTLV(), attribute2.getMetricTLV());
+		Assert.assertSame("Equal TLVs should be shared", attribute1.getUnreservedBandwidthTLV(), attribute2.getUnreservedBandwidthTLV());
+		Assert.assertSame("Equal TLVs should be shared", attribute1.getAdministrativeGroupTLV(), attribute2.getAdministrativeGroupTLV());
+	}
+
+	@Test
+	public void testEncodeWithSharedAttributes() throws Exception {
+		byte[] bytes = createUpdate(3, 30);
+		BGP4Update update = new BGP4Update(bytes, 0, new PathAttributeInterner());
+		LinkStateAttribute shared = getLinkStateAttribute(update);
+		byte[] sharedBytes = shared.getBytes();
+		update.encode();
+		Assert.assertArrayEquals(bytes, update.getBytes());
+		Assert.assertSame("The shared attribute should not be encoded again", sharedBytes, shared.getBytes());
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		PathAttributeInterner interner = new PathAttributeInterner(16);
+		for (int i = 0; i < 100; ++i) {
+			new BGP4Update(createUpdate(i, i), 0, interner);
+		}
+		Assert.assertTrue("The cache should be bounded", interner.getAttributeCount() <= 16);
+		Assert.assertTrue("The cache should be bounded", interner.getTLVCount() <= 16);
+		interner.clear();
+		Assert.assertEquals(0, interner.getAttributeCount());
+	}
+
+	/**
+	 * Each decoder shares the attributes through its own interner
+	 */
+	@Test
+	public void testInternerPerDecoder() throws Exception {
+		byte[] bytes = createUpdate(4, 40);
+		List<BGP4Message> received = new ArrayList<BGP4Message>();
+		BGP4FrameDecoder session1 = new BGP4FrameDecoder(received::add);
+		session1.setAttributeInterner(new PathAttributeInterner());
+		BGP4FrameDecoder session2 = new BGP4FrameDecoder(received::add);
+		session2.setAttributeInterner(new PathAttributeInterner());
+		BGP4FrameDecoder plain = new BGP4FrameDecoder(received::add);
+		session1.frameReceived(BGP4MessageTypes.MESSAGE_UPDATE, bytes, 0, bytes.length);
+		session1.frameReceived(BGP4MessageTypes.MESSAGE_UPDATE, bytes, 0, bytes.length);
+		session2.frameReceived(BGP4MessageTypes.MESSAGE_UPDATE, bytes, 0, bytes.length);
+		plain.frameReceived(BGP4MessageTypes.MESSAGE_UPDATE, bytes, 0, bytes.length);
+		LinkStateAttribute attribute1 = getLinkStateAttribute((BGP4Update) received.get(0));
+		Assert.assertSame(attribute1, getLinkStateAttribute((BGP4Update) received.get(1)));
+		Assert.assertNotSame("Other sessions should not share the attribute", attribute1, getLinkStateAttribute((BGP4Update) received.get(2)));
+		Assert.assertTrue(session2.getAttributeInterner().getMissCount() > 0);
+		LinkStateAttribute notShared = getLinkStateAttribute((BGP4Update) received.get(3));
+		Assert.assertFalse(notShared.isInterned());
+		Assert.assertEquals(attribute1, notShared);
+	}
+
+}
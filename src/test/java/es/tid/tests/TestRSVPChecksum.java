@@ -0,0 +1,159 @@
+package es.tid.tests;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.protocol.commons.InternetChecksum;
+import es.tid.rsvp.RSVPProtocolViolationException;
+import es.tid.rsvp.messages.RSVPMessage;
+import es.tid.rsvp.messages.RSVPMessageDecoder;
+import es.tid.rsvp.messages.RSVPPathMessage;
+import es.tid.rsvp.messages.RSVPResvMessage;
+import es.tid.rsvp.messages.te.RSVPTEPathMessage;
+
+public class TestRSVPChecksum {
+
+	/**
+	 * Sum of 16-bit words, as described in RFC 1071
+	 */
+	private static int reference(byte[] bytes, int offset, int length) {
+		int sum = 0;
+		for (int i = 0; i < length; i += 2) {
+			int word = (bytes[offset + i] & 0xFF) << 8;
+			if (i + 1 < length) {
+				word |= bytes[offset + i + 1] & 0xFF;
+			}
+			sum += word;
+			sum = (sum & 0xFFFF) + (sum >>> 16);
+		}
+		return ~sum & 0xFFFF;
+	}
+
+	@Test
+	public void testRFC1071Example() {
+		byte[] bytes = { 0x00, 0x01, (byte) 0xf2, 0x03, (byte) 0xf4, (byte) 0xf5, (byte) 0xf6, (byte) 0xf7 };
+		Assert.assertEquals(~0xddf2 & 0xFFFF, InternetChecksum.checksum(bytes, 0, bytes.length));
+	}
+
+	@Test
+	public void testChecksumMatchesReference() {
+		Random random = new Random(1071);
+		for (int length = 0; length < 300; ++length) {
+			byte[] bytes = new byte[length + 3];
+			random.nextBytes(bytes);
+			for (int offset = 0; offset < 3; ++offset) {
+				Assert.assertEquals("length " + length + " offset " + offset, reference(bytes, offset, length), InternetChecksum.checksum(bytes, offset, length));
+			}
+		}
+		byte[] ones = new byte[65535];
+		Arrays.fill(ones, (byte) 0xFF);
+		Assert.assertEquals(reference(ones, 0, ones.length), InternetChecksum.checksum(ones, 0, ones.length));
+	}
+
+	@Test
+	public void testUpdateInPieces() {
+		Random random = new Random(1624);
+		byte[] bytes = new byte[517];
+		random.nextBytes(bytes);
+		InternetChecksum checksum = new InternetChecksum();
+		for (int round = 0; round < 20; ++round) {
+			checksum.reset();
+			int offset = 0;
+			while (offset < bytes.length) {
+				int length = Math.min(random.nextInt(13), bytes.length - offset);
+				checksum.update(bytes, offset, length);
+				offset += length;
+			}
+			Assert.assertEquals(InternetChecksum.checksum(bytes, 0, bytes.length), checksum.getValue());
+		}
+	}
+
+	@Test
+	public void testAdjust() {
+		Random random = new Random(2205);
+		byte[] bytes = new byte[64];
+		random.nextBytes(bytes);
+		int checksum = InternetChecksum.checksum(bytes, 0, bytes.length);
+		for (int i = 0; i < 100; ++i) {
+			int position = 2 * random.nextInt(bytes.length / 2);
+			int oldWord = ((bytes[position] & 0xFF) << 8) | (bytes[position + 1] & 0xFF);
+			int newWord = random.nextInt(0x10000);
+			bytes[position] = (byte) (newWord >> 8);
+			bytes[position + 1] = (byte) newWord;
+			checksum = InternetChecksum.adjust(checksum, oldWord, newWord);
+			// 0x0000 and 0xFFFF are the same value in one's complement
+			Assert.assertEquals(InternetChecksum.checksum(bytes, 0, bytes.length) % 0xFFFF, checksum % 0xFFFF);
+		}
+	}
+
+	@Test
+	public void testEncodedMessagesVerify() throws Exception {
+		RSVPMessage[] messages = { new RSVPPathMessage(), new RSVPResvMessage() };
+		for (RSVPMessage message : messages) {
+			TestCommons.createAllFields(message, 0);
+			message.encode();
+			Assert.assertNotEquals(0, message.getRsvpChecksum());
+			Assert.assertTrue(InternetChecksum.verify(message.getBytes(), 0, message.getLength()));
+			RSVPMessage decoded = message.getClass().getConstructor(byte[].class, int.class).newInstance(message.getBytes(), message.getLength());
+			Assert.assertEquals(message.getRsvpChecksum(), decoded.getRsvpChecksum());
+			Assert.assertTrue(decoded.verifyChecksum());
+			Assert.assertEquals(message.getClass(), new RSVPMessageDecoder().decode(message.getBytes(), message.getLength()).getClass());
+			message.updateSendTTL(message.getSendTTL() + 1);
+			Assert.assertTrue("The checksum should follow the change of TTL", InternetChecksum.verify(message.getBytes(), 0, message.getLength()));
+		}
+	}
+
+	@Test
+	public void testVerificationOnDecode() throws Exception {
+		RSVPPathMessage message = new RSVPPathMessage();
+		TestCommons.createAllFields(message, 0);
+		message.encode();
+		byte[] corrupted = message.getBytes().clone();
+		corrupted[corrupted.length - 1] ^= 0x01;
+		// not verified by default
+		RSVPMessageDecoder decoder = new RSVPMessageDecoder();
+		Assert.assertTrue(decoder.decode(corrupted, corrupted.length) instanceof RSVPPathMessage);
+		RSVPMessageDecoder verifyingDecoder = new RSVPMessageDecoder();
+		verifyingDecoder.setChecksumVerification(true);
+		Assert.assertTrue(verifyingDecoder.decode(message.getBytes(), message.getLength()) instanceof RSVPPathMessage);
+		try {
+			verifyingDecoder.decode(corrupted, corrupted.length);
+			Assert.fail("A message with a wrong checksum should be rejected");
+		} catch (RSVPProtocolViolationException e) {
+		}
+		// the setting belongs to each decoder
+		decoder.decode(corrupted, corrupted.length);
+		// no checksum transmitted
+		corrupted[2] = 0;
+		corrupted[3] = 0;
+		verifyingDecoder.decode(corrupted, corrupted.length);
+	}
+
+	@Test
+	public void testTrafficEngineering() throws Exception {
+		RSVPTEPathMessage message = new RSVPTEPathMessage();
+		TestCommons.createAllFields(message, 0, false, true);
+		TestCommons.createAllFields(message, 1, true, true);
+		message.encode();
+		RSVPMessageDecoder decoder = new RSVPMessageDecoder();
+		decoder.setTrafficEngineering(true);
+		decoder.setChecksumVerification(true);
+		RSVPMessage decoded = decoder.decode(message.getBytes(), message.getLength());
+		Assert.assertTrue(decoded instanceof RSVPTEPathMessage);
+		decoded.encode();
+		Assert.assertEquals(message, decoded);
+		byte[] corrupted = message.getBytes().clone();
+		corrupted[corrupted.length - 1] ^= 0x01;
+		try {
+			decoder.decode(corrupted, corrupted.length);
+			Assert.fail("An RSVP-TE message with a wrong checksum should be rejected");
+		} catch (RSVPProtocolViolationException e) {
+		}
+		decoder.setChecksumVerification(false);
+		Assert.assertTrue(decoder.decode(corrupted, corrupted.length) instanceof RSVPTEPathMessage);
+	}
+
+}
@@ -0,0 +1,133 @@
+package es.tid.tests;
+
+import java.net.Inet4Address;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import es.tid.pce.pcep.constructs.NAIIPv4Adjacency;
+import es.tid.pce.pcep.constructs.NAIIPv4NodeID;
+import es.tid.pce.pcep.objects.ExplicitRouteObject;
+import es.tid.pce.pcep.objects.MalformedPCEPObjectException;
+import es.tid.pce.pcep.objects.SRExplicitRouteObject;
+import es.tid.pce.pcep.objects.subobjects.SREROSubobject;
+import es.tid.rsvp.objects.subobjects.IPv4prefixEROSubobject;
+
+public class TestSRExplicitRouteObject {
+
+	/**
+	 * ERO of 12 segments: adjacencies, nodes and SIDs without NAI
+	 */
+	private static ExplicitRouteObject createERO() throws Exception {
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		for (int i = 0; i < 12; ++i) {
+			SREROSubobject sr = new SREROSubobject();
+			sr.setSID((16000L + i) << 12);
+			sr.setMflag(true);
+			sr.setLoosehop(i % 5 == 4);
+			if (i % 3 == 0) {
+				NAIIPv4Adjacency adjacency = new NAIIPv4Adjacency();
+				adjacency.setLocalNodeAddress((Inet4Address) Inet4Address.getByName("10.0." + i + ".1"));
+				adjacency.setRemoteNodeAddress((Inet4Address) Inet4Address.getByName("10.0." + i + ".2"));
+				sr.setNai(adjacency);
+				sr.setFflag(false);
+			} else if (i % 3 == 1) {
+				NAIIPv4NodeID node = new NAIIPv4NodeID();
+				node.setNodeID((Inet4Address) Inet4Address.getByName("192.0.2." + i));
+				sr.setNai(node);
+				sr.setFflag(false);
+			}
+			ero.addEROSubobject(sr);
+		}
+		ero.encode();
+		return ero;
+	}
+
+	@Test
+	public void testInteroperability() throws Exception {
+		ExplicitRouteObject ero = createERO();
+		SRExplicitRouteObject sr = new SRExplicitRouteObject(ero.getBytes(), 0);
+		Assert.assertEquals(12, sr.size());
+		Assert.assertEquals(16000 << 12, sr.getSID(0));
+		Assert.assertEquals(SREROSubobject.ST_IPv4Adjacency, sr.getNaiType(0));
+		Assert.assertEquals(0x0A000001, sr.getNaiAddress(0));
+		Assert.assertEquals(0x0A000002, sr.getNaiRemoteAddress(0));
+		Assert.assertEquals(SREROSubobject.ST_IPv4NodeID, sr.getNaiType(1));
+		Assert.assertEquals(0xC0000201, sr.getNaiAddress(1));
+		Assert.assertEquals(0, sr.getNaiType(2));
+		Assert.assertTrue((sr.getFlags(2) & SRExplicitRouteObject.FLAG_F) != 0);
+		Assert.assertTrue(sr.isLoose(4));
+		Assert.assertFalse(sr.isLoose(5));
+
+		// same bytes both ways
+		sr.encode();
+		Assert.assertArrayEquals(ero.getBytes(), sr.getBytes());
+		Assert.assertEquals(sr, SRExplicitRouteObject.fromERO(ero));
+		ExplicitRouteObject converted = sr.toERO();
+		converted.encode();
+		Assert.assertArrayEquals(ero.getBytes(), converted.getBytes());
+		ExplicitRouteObject decoded = new ExplicitRouteObject(sr.getBytes(), 0);
+		decoded.encode();
+		Assert.assertArrayEquals(ero.getBytes(), decoded.getBytes());
+
+		// single pass encoding, and decoding into the same instance
+		byte[] buf = new byte[8 + sr.encodedLength()];
+		Assert.assertEquals(buf.length, sr.encodeTo(buf, 8));
+		SRExplicitRouteObject reused = new SRExplicitRouteObject();
+		reused.addSegment(1, 0);
+		reused.decodeInto(buf, 8);
+		Assert.assertEquals(sr, reused);
+	}
+
+	@Test
+	public void testSegments() throws Exception {
+		SRExplicitRouteObject sr = new SRExplicitRouteObject(2);
+		for (int i = 0; i < 15; ++i) {
+			sr.addIPv4NodeSegment((16000 + i) << 12, SRExplicitRouteObject.FLAG_M, 0x0A000000 + i);
+		}
+		sr.addIPv4AdjacencySegment(24001 << 12, SRExplicitRouteObject.FLAG_M | SRExplicitRouteObject.FLAG_LOOSE, 0x0A000101, 0x0A000102);
+		sr.addSegment(0, SRExplicitRouteObject.FLAG_S);
+		Assert.assertEquals(17, sr.size());
+		Assert.assertEquals(16014 << 12, sr.getSIDs()[14]);
+		sr.encode();
+		Assert.assertEquals(4 + 15 * 12 + 16 + 4, sr.getLength());
+
+		ExplicitRouteObject ero = new ExplicitRouteObject(sr.getBytes(), 0);
+		Assert.assertEquals(17, ero.getEROSubobjectList().size());
+		SREROSubobject node = (SREROSubobject) ero.getEROSubobjectList().get(3);
+		Assert.assertEquals(16003L << 12, node.getSID());
+		Assert.assertTrue(node.ismFlag());
+		Assert.assertFalse(node.isfFlag());
+		Assert.assertEquals(Inet4Address.getByName("10.0.0.3"), ((NAIIPv4NodeID) node.getNai()).getNodeID());
+		SREROSubobject adjacency = (SREROSubobject) ero.getEROSubobjectList().get(15);
+		Assert.assertTrue(adjacency.isloosehop());
+		Assert.assertEquals(Inet4Address.getByName("10.0.1.2"), ((NAIIPv4Adjacency) adjacency.getNai()).getRemoteNodeAddress());
+		SREROSubobject noSID = (SREROSubobject) ero.getEROSubobjectList().get(16);
+		Assert.assertTrue(noSID.issFlag());
+		Assert.assertTrue(noSID.isfFlag());
+		Assert.assertEquals(sr, new SRExplicitRouteObject(sr.getBytes(), 0));
+	}
+
+	@Test
+	public void testOtherSubobjects() throws Exception {
+		ExplicitRouteObject ero = new ExplicitRouteObject();
+		IPv4prefixEROSubobject prefix = new IPv4prefixEROSubobject();
+		prefix.setIpv4address((Inet4Address) Inet4Address.getByName("192.0.2.1"));
+		prefix.setPrefix(32);
+		ero.addEROSubobject(prefix);
+		ero.encode();
+		try {
+			new SRExplicitRouteObject(ero.getBytes(), 0);
+			Assert.fail("IPv4 prefix subobject decoded");
+		} catch (MalformedPCEPObjectException e) {
+			// expected
+		}
+		try {
+			SRExplicitRouteObject.fromERO(ero);
+			Assert.fail("IPv4 prefix subobject converted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}